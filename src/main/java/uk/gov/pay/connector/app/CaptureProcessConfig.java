@@ -4,6 +4,7 @@ package uk.gov.pay.connector.app;
 import io.dropwizard.core.Configuration;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
 
 public class CaptureProcessConfig extends Configuration {
@@ -20,6 +21,12 @@ public class CaptureProcessConfig extends Configuration {
     private int queueSchedulerNumberOfThreads;
     private int queueSchedulerShutdownTimeoutInSeconds;
 
+    @Min(1)
+    private int captureWorkerNumberOfThreads = 1;
+
+    @Min(2)
+    private int inFlightVisibilityTimeoutInSeconds = 30;
+
     public int getChargesConsideredOverdueForCaptureAfter() {
         return chargesConsideredOverdueForCaptureAfter;
     }
@@ -45,4 +52,20 @@ public class CaptureProcessConfig extends Configuration {
     public int getQueueSchedulerShutdownTimeoutInSeconds() {
         return queueSchedulerShutdownTimeoutInSeconds;
     }
+
+    /**
+     * Number of charges captured concurrently. Messages are received on the queue scheduler threads and handed to a
+     * pool of this many capture workers, so receiving the next batch overlaps with capturing the current one.
+     */
+    public int getCaptureWorkerNumberOfThreads() {
+        return captureWorkerNumberOfThreads;
+    }
+
+    /**
+     * Visibility timeout given to a capture message that has been held for more than half of this value without
+     * being processed, so that slow captures are not redelivered to another node part way through.
+     */
+    public int getInFlightVisibilityTimeoutInSeconds() {
+        return inFlightVisibilityTimeoutInSeconds;
+    }
 }
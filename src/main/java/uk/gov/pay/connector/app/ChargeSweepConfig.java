@@ -1,6 +1,7 @@
 package uk.gov.pay.connector.app;
 
 import io.dropwizard.core.Configuration;
+import jakarta.validation.constraints.Min;
 
 import java.time.Duration;
 
@@ -11,6 +12,12 @@ public class ChargeSweepConfig extends Configuration {
     private int tokenExpiryThresholdInSeconds;
     private int skipExpiringChargesLastUpdatedInSeconds;
     private int idempotencyKeyExpiryThresholdInSeconds;
+
+    @Min(1)
+    private int chargeExpiryPageSize = 500;
+
+    @Min(1)
+    private int maxConcurrentGatewayOperationsPerProvider = 5;
     
     public Duration getDefaultChargeExpiryThreshold() {
         return Duration.ofSeconds(defaultChargeExpiryThreshold);
@@ -31,4 +38,18 @@ public class ChargeSweepConfig extends Configuration {
     public Duration getIdempotencyKeyExpiryThresholdInSeconds() {
         return Duration.ofSeconds(idempotencyKeyExpiryThresholdInSeconds);
     }
+
+    /**
+     * Number of expirable charges loaded and expired at a time by the sweep.
+     */
+    public int getChargeExpiryPageSize() {
+        return chargeExpiryPageSize;
+    }
+
+    /**
+     * Maximum number of gateway cancels and status queries the sweep runs at once against each payment provider.
+     */
+    public int getMaxConcurrentGatewayOperationsPerProvider() {
+        return maxConcurrentGatewayOperationsPerProvider;
+    }
 }
@@ -47,7 +47,9 @@ import uk.gov.pay.connector.charge.exception.motoapi.OneTimeTokenUsageInvalidFor
 import uk.gov.pay.connector.charge.resource.ChargesApiResource;
 import uk.gov.pay.connector.charge.resource.ChargesFrontendResource;
 import uk.gov.pay.connector.charge.resource.GatewayCleanupResource;
+import uk.gov.pay.connector.charge.service.ChargeStatusLongPoller;
 import uk.gov.pay.connector.chargeevent.resource.ChargeEventsResource;
+import uk.gov.pay.connector.client.cardid.service.LocalBinLookup;
 import uk.gov.pay.connector.command.RenderStateTransitionGraphCommand;
 import uk.gov.pay.connector.common.exception.ConstraintViolationExceptionMapper;
 import uk.gov.pay.connector.common.exception.UnsupportedOperationExceptionMapper;
@@ -57,6 +59,17 @@ import uk.gov.pay.connector.expunge.resource.ExpungeResource;
 import uk.gov.pay.connector.filters.LoggingMDCRequestFilter;
 import uk.gov.pay.connector.filters.LoggingMDCResponseFilter;
 import uk.gov.pay.connector.filters.SchemeRewriteFilter;
+import uk.gov.pay.connector.gateway.GatewayBulkheads;
+import uk.gov.pay.connector.gateway.util.XMLUnmarshaller;
+import uk.gov.pay.connector.gateway.util.XMLUnmarshallerException;
+import uk.gov.pay.connector.gateway.worldpay.WorldpayCancelResponse;
+import uk.gov.pay.connector.gateway.worldpay.WorldpayCaptureResponse;
+import uk.gov.pay.connector.gateway.worldpay.WorldpayDeleteTokenResponse;
+import uk.gov.pay.connector.gateway.worldpay.WorldpayNotification;
+import uk.gov.pay.connector.gateway.worldpay.WorldpayOrderStatusResponse;
+import uk.gov.pay.connector.gateway.worldpay.WorldpayQueryResponse;
+import uk.gov.pay.connector.gateway.worldpay.WorldpayRefundResponse;
+import uk.gov.pay.connector.gateway.worldpay.WorldpayResponseUnmarshaller;
 import uk.gov.pay.connector.gatewayaccount.resource.AdyenAccountResource;
 import uk.gov.pay.connector.gatewayaccount.resource.AdyenAccountSetupResource;
 import uk.gov.pay.connector.gatewayaccount.resource.GatewayAccountResource;
@@ -76,6 +89,7 @@ import uk.gov.pay.connector.paymentprocessor.resource.DiscrepancyResource;
 import uk.gov.pay.connector.queue.managed.CaptureMessageReceiver;
 import uk.gov.pay.connector.queue.managed.PayoutReconcileMessageReceiver;
 import uk.gov.pay.connector.queue.managed.StateTransitionMessageReceiver;
+import uk.gov.pay.connector.queue.managed.StateTransitionOutboxRelay;
 import uk.gov.pay.connector.queue.managed.TaskQueueMessageReceiver;
 import uk.gov.pay.connector.refund.resource.RefundReversalResource;
 import uk.gov.pay.connector.refund.resource.RefundsResource;
@@ -83,8 +97,12 @@ import uk.gov.pay.connector.tasks.resource.ParityCheckerResource;
 import uk.gov.pay.connector.token.exception.TokenNotFoundExceptionMapper;
 import uk.gov.pay.connector.token.resource.SecurityTokensResource;
 import uk.gov.pay.connector.usernotification.resource.EmailNotificationResource;
+import uk.gov.pay.connector.usernotification.service.UserNotificationService;
+import uk.gov.pay.connector.util.DatabaseConnectionHoldersServlet;
 import uk.gov.pay.connector.util.DependentResourceWaitCommand;
 import uk.gov.pay.connector.util.JsonMappingExceptionMapper;
+import uk.gov.pay.connector.util.PostgresNotificationListener;
+import uk.gov.pay.connector.util.ReverseDnsCache;
 import uk.gov.pay.connector.webhook.resource.NotificationResource;
 import uk.gov.service.payments.commons.utils.healthchecks.DatabaseHealthCheck;
 import uk.gov.service.payments.commons.utils.metrics.DatabaseMetricsService;
@@ -92,6 +110,7 @@ import uk.gov.service.payments.logging.GovUkPayDropwizardRequestJsonLogLayoutFac
 import uk.gov.service.payments.logging.LoggingFilter;
 import uk.gov.service.payments.logging.LogstashConsoleAppenderFactory;
 
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 import static jakarta.servlet.DispatcherType.REQUEST;
@@ -135,6 +154,7 @@ public class ConnectorApp extends Application<ConnectorConfiguration> {
         injector.getInstance(PersistenceServiceInitialiser.class);
 
         initialiseMetrics(configuration, environment);
+        initialiseXmlUnmarshalling(configuration);
 
         environment.jersey().register(new ConstraintViolationExceptionMapper());
         environment.jersey().register(new ValidationExceptionMapper());
@@ -203,6 +223,12 @@ public class ConnectorApp extends Application<ConnectorConfiguration> {
         }
         environment.lifecycle().manage(injector.getInstance(PayoutReconcileMessageReceiver.class));
         environment.lifecycle().manage(injector.getInstance(TaskQueueMessageReceiver.class));
+        environment.lifecycle().manage(injector.getInstance(GatewayBulkheads.class));
+        environment.lifecycle().manage(injector.getInstance(ReverseDnsCache.class));
+        environment.lifecycle().manage(injector.getInstance(PostgresNotificationListener.class));
+        environment.lifecycle().manage(injector.getInstance(ChargeStatusLongPoller.class));
+        environment.lifecycle().manage(injector.getInstance(LocalBinLookup.class));
+        environment.lifecycle().manage(injector.getInstance(UserNotificationService.class));
 
         environment.servlets().addFilter("LoggingFilter", injector.getInstance(LoggingFilter.class))
                 .addMappingForUrlPatterns(of(REQUEST), true, "/v1/*");
@@ -211,6 +237,9 @@ public class ConnectorApp extends Application<ConnectorConfiguration> {
         environment.healthChecks().register("database", new DatabaseHealthCheck(configuration.getDataSourceFactory()));
         environment.healthChecks().register("cardExecutorService", injector.getInstance(CardExecutorServiceHealthCheck.class));
         environment.healthChecks().register("sqsQueue", injector.getInstance(SQSHealthCheck.class));
+
+        environment.admin().addServlet("databaseConnectionHolders", new DatabaseConnectionHoldersServlet(environment.getObjectMapper()))
+                .addMapping("/database-connection-holders");
     }
 
     protected ConnectorModule getModule(ConnectorConfiguration configuration, Environment environment) {
@@ -240,6 +269,22 @@ public class ConnectorApp extends Application<ConnectorConfiguration> {
         environment.admin().addServlet("prometheusMetrics", new MetricsServlet(collectorRegistry.defaultRegistry)).addMapping("/metrics");
     }
 
+    private void initialiseXmlUnmarshalling(ConnectorConfiguration configuration) {
+        WorldpayResponseUnmarshaller.useXmlParser(configuration.getWorldpayConfig().getXmlParser());
+        try {
+            XMLUnmarshaller.initialiseJaxbContexts(List.of(
+                    WorldpayOrderStatusResponse.class,
+                    WorldpayCaptureResponse.class,
+                    WorldpayCancelResponse.class,
+                    WorldpayRefundResponse.class,
+                    WorldpayQueryResponse.class,
+                    WorldpayDeleteTokenResponse.class,
+                    WorldpayNotification.class));
+        } catch (XMLUnmarshallerException e) {
+            throw new IllegalStateException("Could not initialise JAXB contexts for gateway responses", e);
+        }
+    }
+
     /**
      * Graphite metric config to be deleted when we've completely moved to Prometheus
      */
@@ -260,5 +305,6 @@ public class ConnectorApp extends Application<ConnectorConfiguration> {
     private void setupSchedulers(Environment environment, Injector injector) {
         environment.lifecycle().manage(injector.getInstance(CaptureMessageReceiver.class));
         environment.lifecycle().manage(injector.getInstance(StateTransitionMessageReceiver.class));
+        environment.lifecycle().manage(injector.getInstance(StateTransitionOutboxRelay.class));
     }
 }
@@ -7,11 +7,21 @@ import io.dropwizard.db.DataSourceFactory;
 import uk.gov.pay.connector.app.adyen.AdyenGatewayConfig;
 import uk.gov.pay.connector.app.config.Authorisation3dsConfig;
 import uk.gov.pay.connector.app.config.AuthorisationConfig;
+import uk.gov.pay.connector.app.config.CardOperationLimiterConfig;
+import uk.gov.pay.connector.app.config.CardidBinRangeConfig;
+import uk.gov.pay.connector.app.config.ChargeStatusNotificationConfig;
+import uk.gov.pay.connector.app.config.DatabaseConnectionMonitorConfig;
+import uk.gov.pay.connector.app.config.DatabaseNotificationConfig;
 import uk.gov.pay.connector.app.config.EmittedEventSweepConfig;
 import uk.gov.pay.connector.app.config.EventEmitterConfig;
 import uk.gov.pay.connector.app.config.ExpungeConfig;
+import uk.gov.pay.connector.app.config.GatewayAccountCacheConfig;
+import uk.gov.pay.connector.app.config.LedgerCacheConfig;
+import uk.gov.pay.connector.app.config.GatewayBulkheadConfig;
+import uk.gov.pay.connector.app.config.ParityCheckerConfig;
 import uk.gov.pay.connector.app.config.PayoutReconcileProcessConfig;
 import uk.gov.pay.connector.app.config.RestClientConfig;
+import uk.gov.pay.connector.app.config.ReverseDnsCacheConfig;
 import uk.gov.pay.connector.app.config.TaskQueueConfig;
 import uk.gov.pay.connector.gateway.PaymentGatewayName;
 
@@ -31,6 +41,42 @@ public class ConnectorConfiguration extends Configuration {
     @NotNull
     private ExecutorServiceConfig executorServiceConfig = new ExecutorServiceConfig();
 
+    @Valid
+    @NotNull
+    private GatewayBulkheadConfig gatewayBulkheadConfig = new GatewayBulkheadConfig();
+
+    @Valid
+    @NotNull
+    private CardOperationLimiterConfig cardOperationLimiterConfig = new CardOperationLimiterConfig();
+
+    @Valid
+    @NotNull
+    private ParityCheckerConfig parityCheckerConfig = new ParityCheckerConfig();
+
+    @Valid
+    @NotNull
+    private ReverseDnsCacheConfig reverseDnsCacheConfig = new ReverseDnsCacheConfig();
+
+    @Valid
+    @NotNull
+    private DatabaseNotificationConfig databaseNotificationConfig = new DatabaseNotificationConfig();
+
+    @Valid
+    @NotNull
+    private ChargeStatusNotificationConfig chargeStatusNotificationConfig = new ChargeStatusNotificationConfig();
+
+    @Valid
+    @NotNull
+    private GatewayAccountCacheConfig gatewayAccountCacheConfig = new GatewayAccountCacheConfig();
+
+    @Valid
+    @NotNull
+    private LedgerCacheConfig ledgerCacheConfig = new LedgerCacheConfig();
+
+    @Valid
+    @NotNull
+    private DatabaseConnectionMonitorConfig databaseConnectionMonitorConfig = new DatabaseConnectionMonitorConfig();
+
     @Valid
     @NotNull
     private CaptureProcessConfig captureProcessConfig;
@@ -144,6 +190,10 @@ public class ConnectorConfiguration extends Configuration {
     @NotNull
     @JsonProperty("cardidBaseURL")
     private String cardidBaseUrl;
+
+    @Valid
+    @NotNull
+    private CardidBinRangeConfig cardidBinRangeConfig = new CardidBinRangeConfig();
     
     @JsonProperty("ecsContainerMetadataUriV4")
     private URI ecsContainerMetadataUriV4;
@@ -159,6 +209,10 @@ public class ConnectorConfiguration extends Configuration {
         return cardidBaseUrl;
     }
 
+    public CardidBinRangeConfig getCardidBinRangeConfig() {
+        return cardidBinRangeConfig;
+    }
+
     public Long getLedgerPostEventTimeoutInMillis() {
         return ledgerPostEventTimeoutInMillis;
     }
@@ -219,6 +273,42 @@ public class ConnectorConfiguration extends Configuration {
         return executorServiceConfig;
     }
 
+    public GatewayBulkheadConfig getGatewayBulkheadConfig() {
+        return gatewayBulkheadConfig;
+    }
+
+    public CardOperationLimiterConfig getCardOperationLimiterConfig() {
+        return cardOperationLimiterConfig;
+    }
+
+    public ParityCheckerConfig getParityCheckerConfig() {
+        return parityCheckerConfig;
+    }
+
+    public ReverseDnsCacheConfig getReverseDnsCacheConfig() {
+        return reverseDnsCacheConfig;
+    }
+
+    public DatabaseNotificationConfig getDatabaseNotificationConfig() {
+        return databaseNotificationConfig;
+    }
+
+    public ChargeStatusNotificationConfig getChargeStatusNotificationConfig() {
+        return chargeStatusNotificationConfig;
+    }
+
+    public GatewayAccountCacheConfig getGatewayAccountCacheConfig() {
+        return gatewayAccountCacheConfig;
+    }
+
+    public LedgerCacheConfig getLedgerCacheConfig() {
+        return ledgerCacheConfig;
+    }
+
+    public DatabaseConnectionMonitorConfig getDatabaseConnectionMonitorConfig() {
+        return databaseConnectionMonitorConfig;
+    }
+
     public NotifyConfiguration getNotifyConfiguration() {
         return notifyConfig;
     }
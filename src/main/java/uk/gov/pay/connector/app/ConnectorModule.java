@@ -4,7 +4,9 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.inject.AbstractModule;
 import com.google.inject.Provides;
 import com.google.inject.assistedinject.FactoryModuleBuilder;
+import com.google.inject.matcher.Matchers;
 import com.google.inject.name.Named;
+import com.google.inject.persist.Transactional;
 import com.google.inject.persist.jpa.JpaPersistModule;
 import io.dropwizard.core.setup.Environment;
 import io.dropwizard.db.DataSourceFactory;
@@ -18,9 +20,14 @@ import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.sqs.SqsClient;
 import software.amazon.awssdk.services.sqs.SqsClientBuilder;
 import uk.gov.pay.connector.app.adyen.AdyenGatewayConfig;
+import uk.gov.pay.connector.charge.service.ChargeStatusLongPoller;
+import uk.gov.pay.connector.charge.service.ChargeStatusNotifier;
 import uk.gov.pay.connector.charge.service.Worldpay3dsFlexJwtService;
 import uk.gov.pay.connector.charge.util.JwtGenerator;
+import uk.gov.pay.connector.client.cardid.service.LocalBinLookup;
+import uk.gov.pay.connector.client.ledger.service.LedgerTransactionCache;
 import uk.gov.pay.connector.common.validator.RequestValidator;
+import uk.gov.pay.connector.gateway.GatewayBulkheads;
 import uk.gov.pay.connector.gateway.GatewayClient;
 import uk.gov.pay.connector.gateway.GatewayClientFactory;
 import uk.gov.pay.connector.gateway.PaymentProviders;
@@ -31,19 +38,25 @@ import uk.gov.pay.connector.gateway.templates.WorldpayRequestTemplateBuilder;
 import uk.gov.pay.connector.gateway.worldpay.WorldpayCardAuthoriseRequestFactory;
 import uk.gov.pay.connector.gateway.worldpay.WorldpayMotoAuthoriseRequestFactory;
 import uk.gov.pay.connector.gatewayaccount.resource.GatewayAccountRequestValidator;
+import uk.gov.pay.connector.gatewayaccount.service.GatewayAccountCache;
 import uk.gov.pay.connector.gatewayaccount.service.GatewayAccountServicesFactory;
 import uk.gov.pay.connector.paymentprocessor.service.CardExecutorService;
+import uk.gov.pay.connector.paymentprocessor.service.CardOperationLimiter;
 import uk.gov.pay.connector.queue.statetransition.StateTransitionQueue;
 import uk.gov.pay.connector.refund.service.DefaultRefundEntityFactory;
 import uk.gov.pay.connector.refund.service.RefundEntityFactory;
 import uk.gov.pay.connector.refund.service.WorldpayRefundEntityFactory;
 import uk.gov.pay.connector.usernotification.govuknotify.NotifyClientFactory;
+import uk.gov.pay.connector.usernotification.service.UserNotificationService;
 import uk.gov.pay.connector.util.CidrUtils;
 import uk.gov.pay.connector.util.HashUtil;
 import uk.gov.pay.connector.util.IpAddressMatcher;
 import uk.gov.pay.connector.util.JsonObjectMapper;
 import uk.gov.pay.connector.util.RandomIdGenerator;
+import uk.gov.pay.connector.util.PostgresNotificationListener;
+import uk.gov.pay.connector.util.ReverseDnsCache;
 import uk.gov.pay.connector.util.ReverseDnsLookup;
+import uk.gov.pay.connector.util.TransactionalMethodInterceptor;
 import uk.gov.pay.connector.wallets.applepay.ApplePayDecrypter;
 import uk.gov.service.payments.commons.queue.sqs.SqsQueueService;
 
@@ -78,6 +91,7 @@ public class ConnectorModule extends AbstractModule {
         bind(Environment.class).toInstance(environment);
         bind(InstantSource.class).toInstance(InstantSource.system());
         bind(CardExecutorService.class).in(Singleton.class);
+        bind(CardOperationLimiter.class).in(Singleton.class);
         bind(ApplePayDecrypter.class).in(Singleton.class);
         bind(PaymentProviders.class).in(Singleton.class);
         bind(HashUtil.class);
@@ -85,10 +99,25 @@ public class ConnectorModule extends AbstractModule {
         bind(GatewayAccountRequestValidator.class).in(Singleton.class);
         bind(InetAddressValidator.class).in(Singleton.class);
         bind(WorldpayRequestTemplateBuilder.class).in(Singleton.class);
+        bind(GatewayBulkheads.class).in(Singleton.class);
+        bind(ReverseDnsCache.class).in(Singleton.class);
+        bind(PostgresNotificationListener.class).in(Singleton.class);
+        bind(ChargeStatusNotifier.class).in(Singleton.class);
+        bind(ChargeStatusLongPoller.class).in(Singleton.class);
+        bind(GatewayAccountCache.class).in(Singleton.class);
+        bind(LocalBinLookup.class).in(Singleton.class);
+        bind(LedgerTransactionCache.class).in(Singleton.class);
+        bind(UserNotificationService.class).in(Singleton.class);
         bind(WorldpayMotoAuthoriseRequestFactory.class).in(Singleton.class);
         bind(WorldpayCardAuthoriseRequestFactory.class).in(Singleton.class);
         bind(CardAuthoriseRequestFactory.class).in(Singleton.class);
 
+        // bound before the JPA persist module's own interceptor so each call it records includes the commit
+        var transactionalMethodInterceptor = new TransactionalMethodInterceptor(
+                configuration.getDatabaseConnectionMonitorConfig().getLongHoldThresholdInMillis());
+        bindInterceptor(Matchers.annotatedWith(Transactional.class), Matchers.any(), transactionalMethodInterceptor);
+        bindInterceptor(Matchers.any(), Matchers.annotatedWith(Transactional.class), transactionalMethodInterceptor);
+
         install(jpaModule(configuration));
         install(new FactoryModuleBuilder().build(GatewayAccountServicesFactory.class));
     }
@@ -108,6 +137,9 @@ public class ConnectorModule extends AbstractModule {
         properties.put("eclipselink.query-results-cache", jpaConfiguration.getCacheSharedDefault());
         properties.put("eclipselink.cache.shared.default", jpaConfiguration.getCacheSharedDefault());
         properties.put("eclipselink.ddl-generation.output-mode", jpaConfiguration.getDdlGenerationOutputMode());
+        properties.put("eclipselink.jdbc.batch-writing", jpaConfiguration.getBatchWriting());
+        properties.put("eclipselink.jdbc.batch-writing.size", String.valueOf(jpaConfiguration.getBatchWritingSize()));
+        jpaConfiguration.getProfiler().ifPresent(profiler -> properties.put("eclipselink.profiler", profiler));
 
         if (configuration.isXrayEnabled()) {
             properties.put("eclipselink.session.customizer", "uk.gov.pay.connector.util.ConnectorSessionCustomiserWithXrayProfiling");
@@ -317,7 +349,8 @@ public class ConnectorModule extends AbstractModule {
     }
 
     protected StateTransitionQueue getStateTransitionQueue() {
-        return new StateTransitionQueue();
+        int numberOfPartitions = Math.max(1, configuration.getEventQueueConfig().getPaymentStateTransitionPollerNumberOfThreads());
+        return new StateTransitionQueue(numberOfPartitions);
     }
 
     @Provides
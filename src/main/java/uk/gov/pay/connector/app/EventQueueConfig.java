@@ -1,11 +1,23 @@
 package uk.gov.pay.connector.app;
 
 import io.dropwizard.core.Configuration;
+import jakarta.validation.constraints.Min;
 
 public class EventQueueConfig extends Configuration {
     private Boolean eventQueueEnabled;
     private int paymentStateTransitionPollerNumberOfThreads;
 
+    @Min(1)
+    private int paymentStateTransitionEmitBatchSize = 1;
+
+    private boolean stateTransitionOutboxEnabled = false;
+
+    @Min(1)
+    private int stateTransitionOutboxRelayBatchSize = 100;
+
+    @Min(1)
+    private long stateTransitionOutboxRelayIntervalInMilliseconds = 200;
+
     public Boolean getEventQueueEnabled() {
         return eventQueueEnabled;
     }
@@ -13,4 +25,28 @@ public class EventQueueConfig extends Configuration {
     public int getPaymentStateTransitionPollerNumberOfThreads() {
         return paymentStateTransitionPollerNumberOfThreads;
     }
+
+    /**
+     * Maximum number of ready state transitions each poller takes from the queue at once. 1 emits them one at a time;
+     * anything larger sends their events with SQS batch requests and marks them as emitted in a single update.
+     */
+    public int getPaymentStateTransitionEmitBatchSize() {
+        return paymentStateTransitionEmitBatchSize;
+    }
+
+    /**
+     * When enabled, state transitions are written to the state_transition_outbox table in the same transaction as the
+     * change that caused them, instead of to the in-memory queue, and published by the outbox relay.
+     */
+    public boolean isStateTransitionOutboxEnabled() {
+        return stateTransitionOutboxEnabled;
+    }
+
+    public int getStateTransitionOutboxRelayBatchSize() {
+        return stateTransitionOutboxRelayBatchSize;
+    }
+
+    public long getStateTransitionOutboxRelayIntervalInMilliseconds() {
+        return stateTransitionOutboxRelayIntervalInMilliseconds;
+    }
 }
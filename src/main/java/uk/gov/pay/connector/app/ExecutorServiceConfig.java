@@ -2,11 +2,46 @@ package uk.gov.pay.connector.app;
 
 import io.dropwizard.core.Configuration;
 
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
 public class ExecutorServiceConfig extends Configuration {
 
+    public enum ExecutorMode {
+        PLATFORM_THREADS,
+        VIRTUAL_THREADS
+    }
+
     private int threadsPerCpu;
 
+    @NotNull
+    private ExecutorMode mode = ExecutorMode.PLATFORM_THREADS;
+
+    @Min(1)
+    private int maxConcurrentOperationsPerGateway = 200;
+
+    public ExecutorServiceConfig() {
+    }
+
+    public ExecutorServiceConfig(int threadsPerCpu, ExecutorMode mode, int maxConcurrentOperationsPerGateway) {
+        this.threadsPerCpu = threadsPerCpu;
+        this.mode = mode;
+        this.maxConcurrentOperationsPerGateway = maxConcurrentOperationsPerGateway;
+    }
+
     public int getThreadsPerCpu() {
         return threadsPerCpu;
     }
+
+    /**
+     * Whether card operations run on a fixed pool of {@code threadsPerCpu} platform threads per CPU, or on a new
+     * virtual thread each, limited to {@code maxConcurrentOperationsPerGateway} at once for each payment provider.
+     */
+    public ExecutorMode getMode() {
+        return mode;
+    }
+
+    public int getMaxConcurrentOperationsPerGateway() {
+        return maxConcurrentOperationsPerGateway;
+    }
 }
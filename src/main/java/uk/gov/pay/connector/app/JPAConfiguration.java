@@ -2,6 +2,8 @@ package uk.gov.pay.connector.app;
 
 import io.dropwizard.core.Configuration;
 
+import java.util.Optional;
+
 public class JPAConfiguration extends Configuration {
 
     private String jpaLoggingLevel;
@@ -9,6 +11,9 @@ public class JPAConfiguration extends Configuration {
     private String ddlGenerationOutputMode;
     private String queryResultsCache;
     private String cacheSharedDefault;
+    private String batchWriting = "JDBC";
+    private int batchWritingSize = 100;
+    private String profiler;
 
     public String getJpaLoggingLevel() {
         return jpaLoggingLevel;
@@ -29,4 +34,16 @@ public class JPAConfiguration extends Configuration {
     public String getCacheSharedDefault() {
         return cacheSharedDefault;
     }
+
+    public String getBatchWriting() {
+        return batchWriting;
+    }
+
+    public int getBatchWritingSize() {
+        return batchWritingSize;
+    }
+
+    public Optional<String> getProfiler() {
+        return Optional.ofNullable(profiler);
+    }
 }
@@ -4,6 +4,8 @@ import io.dropwizard.core.Configuration;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import jakarta.validation.constraints.Min;
+
 public class NotifyConfiguration extends Configuration {
 
     private String emailTemplateId;
@@ -14,6 +16,18 @@ public class NotifyConfiguration extends Configuration {
 
     private long retryFailedEmailAfterSeconds;
 
+    @Min(1)
+    private int emailDispatchQueueCapacity = 10000;
+
+    @Min(1)
+    private int emailsPerSecondPerService = 50;
+
+    @Min(0)
+    private long emailRateLimitWaitInMillis = 1000;
+
+    @Min(0)
+    private long emailDispatchDrainTimeoutInSeconds = 20;
+
     protected final Logger logger = LoggerFactory.getLogger(getClass());
 
     public String getEmailTemplateId() {
@@ -39,4 +53,32 @@ public class NotifyConfiguration extends Configuration {
     public long getRetryFailedEmailAfterSeconds() {
         return retryFailedEmailAfterSeconds;
     }
+
+    /**
+     * How many emails can wait to be sent to Notify before further emails are added to the task queue instead
+     */
+    public int getEmailDispatchQueueCapacity() {
+        return emailDispatchQueueCapacity;
+    }
+
+    /**
+     * How many emails can be sent to Notify each second for a single service
+     */
+    public int getEmailsPerSecondPerService() {
+        return emailsPerSecondPerService;
+    }
+
+    /**
+     * How long an email waits for its service to be under the rate limit before it is added to the task queue instead
+     */
+    public long getEmailRateLimitWaitInMillis() {
+        return emailRateLimitWaitInMillis;
+    }
+
+    /**
+     * How long waiting emails are given to be sent on shutdown before the rest are added to the task queue
+     */
+    public long getEmailDispatchDrainTimeoutInSeconds() {
+        return emailDispatchDrainTimeoutInSeconds;
+    }
 }
@@ -12,6 +12,8 @@ public class WorldpayConfig extends GatewayConfig {
     private boolean secureNotificationEnabled;
     
     private String notificationDomain;
+
+    private XmlParser xmlParser = XmlParser.JAXB;
     
     @Valid
     @NotNull
@@ -25,6 +27,10 @@ public class WorldpayConfig extends GatewayConfig {
         return notificationDomain;
     }
 
+    public XmlParser getXmlParser() {
+        return xmlParser;
+    }
+
     public boolean isSecureNotificationEnabled() {
         return secureNotificationEnabled;
     }
@@ -37,4 +43,9 @@ public class WorldpayConfig extends GatewayConfig {
     public Map<String, String> getThreeDsFlexDdcUrls() {
         return threeDsFlexDdcUrls;
     }
+
+    public enum XmlParser {
+        JAXB,
+        STAX
+    }
 }
@@ -0,0 +1,96 @@
+package uk.gov.pay.connector.app.config;
+
+import io.dropwizard.core.Configuration;
+
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Min;
+
+public class CardOperationLimiterConfig extends Configuration {
+
+    private boolean enabled = true;
+
+    @Min(1)
+    private int initialLimit = 20;
+
+    @Min(1)
+    private int minLimit = 2;
+
+    @Min(1)
+    private int maxLimit = 50;
+
+    @DecimalMin("0.1")
+    @DecimalMax("0.99")
+    private double backoffRatio = 0.9;
+
+    @DecimalMin("1.0")
+    private double latencyTolerance = 2.0;
+
+    @Min(1)
+    private long dbPoolWaitThresholdInMillis = 100;
+
+    @Min(1)
+    private int retryAfterInSeconds = 1;
+
+    public CardOperationLimiterConfig() {
+    }
+
+    public CardOperationLimiterConfig(boolean enabled, int initialLimit, int minLimit, int maxLimit, double backoffRatio,
+                                      double latencyTolerance, long dbPoolWaitThresholdInMillis, int retryAfterInSeconds) {
+        this.enabled = enabled;
+        this.initialLimit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.backoffRatio = backoffRatio;
+        this.latencyTolerance = latencyTolerance;
+        this.dbPoolWaitThresholdInMillis = dbPoolWaitThresholdInMillis;
+        this.retryAfterInSeconds = retryAfterInSeconds;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * How many operations with a payment gateway can be in progress at once before any latency has been observed
+     */
+    public int getInitialLimit() {
+        return initialLimit;
+    }
+
+    public int getMinLimit() {
+        return minLimit;
+    }
+
+    public int getMaxLimit() {
+        return maxLimit;
+    }
+
+    /**
+     * What the limit is multiplied by when operations with the payment gateway are found to be congested
+     */
+    public double getBackoffRatio() {
+        return backoffRatio;
+    }
+
+    /**
+     * How many times slower than usual operations with a payment gateway must recently have been to count as congested
+     */
+    public double getLatencyTolerance() {
+        return latencyTolerance;
+    }
+
+    /**
+     * How long an operation can wait for database connections before it counts as congested
+     */
+    public long getDbPoolWaitThresholdInMillis() {
+        return dbPoolWaitThresholdInMillis;
+    }
+
+    /**
+     * How long a rejected request is told to wait before it is retried
+     */
+    public int getRetryAfterInSeconds() {
+        return retryAfterInSeconds;
+    }
+}
@@ -0,0 +1,35 @@
+package uk.gov.pay.connector.app.config;
+
+import io.dropwizard.core.Configuration;
+
+import jakarta.validation.constraints.Min;
+
+public class CardidBinRangeConfig extends Configuration {
+
+    private String snapshotPath;
+
+    @Min(1)
+    private long reloadIntervalInSeconds = 300;
+
+    public CardidBinRangeConfig() {
+    }
+
+    public CardidBinRangeConfig(String snapshotPath, long reloadIntervalInSeconds) {
+        this.snapshotPath = snapshotPath;
+        this.reloadIntervalInSeconds = reloadIntervalInSeconds;
+    }
+
+    /**
+     * Where the BIN range snapshot exported by card-id is read from. When not set every card is looked up in card-id.
+     */
+    public String getSnapshotPath() {
+        return snapshotPath;
+    }
+
+    /**
+     * How often the snapshot file is checked and, if it has changed, loaded again
+     */
+    public long getReloadIntervalInSeconds() {
+        return reloadIntervalInSeconds;
+    }
+}
@@ -0,0 +1,33 @@
+package uk.gov.pay.connector.app.config;
+
+import io.dropwizard.core.Configuration;
+
+import jakarta.validation.constraints.Min;
+
+public class ChargeStatusNotificationConfig extends Configuration {
+
+    @Min(0)
+    private long frontendLongPollMaxWaitInMillis = 20000;
+
+    @Min(1)
+    private int frontendLongPollThreads = 2;
+
+    public ChargeStatusNotificationConfig() {
+    }
+
+    public ChargeStatusNotificationConfig(long frontendLongPollMaxWaitInMillis, int frontendLongPollThreads) {
+        this.frontendLongPollMaxWaitInMillis = frontendLongPollMaxWaitInMillis;
+        this.frontendLongPollThreads = frontendLongPollThreads;
+    }
+
+    /**
+     * The longest frontend can be kept waiting by a long-poll for the status of a charge that is being authorised
+     */
+    public long getFrontendLongPollMaxWaitInMillis() {
+        return frontendLongPollMaxWaitInMillis;
+    }
+
+    public int getFrontendLongPollThreads() {
+        return frontendLongPollThreads;
+    }
+}
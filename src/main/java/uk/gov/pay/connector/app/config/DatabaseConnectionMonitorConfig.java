@@ -0,0 +1,25 @@
+package uk.gov.pay.connector.app.config;
+
+import io.dropwizard.core.Configuration;
+
+import jakarta.validation.constraints.Min;
+
+public class DatabaseConnectionMonitorConfig extends Configuration {
+
+    @Min(1)
+    private long longHoldThresholdInMillis = 1000;
+
+    public DatabaseConnectionMonitorConfig() {
+    }
+
+    public DatabaseConnectionMonitorConfig(long longHoldThresholdInMillis) {
+        this.longHoldThresholdInMillis = longHoldThresholdInMillis;
+    }
+
+    /**
+     * How long a call to a transactional method can hold database connections before it is logged with its stack
+     */
+    public long getLongHoldThresholdInMillis() {
+        return longHoldThresholdInMillis;
+    }
+}
@@ -0,0 +1,47 @@
+package uk.gov.pay.connector.app.config;
+
+import io.dropwizard.core.Configuration;
+
+import jakarta.validation.constraints.Min;
+
+public class DatabaseNotificationConfig extends Configuration {
+
+    private boolean listenEnabled = false;
+
+    @Min(1)
+    private int listenPollTimeoutInMillis = 500;
+
+    @Min(1)
+    private long reconnectDelayInMillis = 5000;
+
+    public DatabaseNotificationConfig() {
+    }
+
+    public DatabaseNotificationConfig(boolean listenEnabled, int listenPollTimeoutInMillis, long reconnectDelayInMillis) {
+        this.listenEnabled = listenEnabled;
+        this.listenPollTimeoutInMillis = listenPollTimeoutInMillis;
+        this.reconnectDelayInMillis = reconnectDelayInMillis;
+    }
+
+    /**
+     * Whether changes that other connector nodes need to know about are published with Postgres NOTIFY and picked
+     * up with LISTEN. When disabled each node only learns about changes it makes itself.
+     */
+    public boolean isListenEnabled() {
+        return listenEnabled;
+    }
+
+    /**
+     * How long the listening connection blocks waiting for notifications before checking whether it should stop
+     */
+    public int getListenPollTimeoutInMillis() {
+        return listenPollTimeoutInMillis;
+    }
+
+    /**
+     * How long to wait before opening a new listening connection after the previous one failed
+     */
+    public long getReconnectDelayInMillis() {
+        return reconnectDelayInMillis;
+    }
+}
@@ -1,12 +1,43 @@
 package uk.gov.pay.connector.app.config;
 
 import io.dropwizard.core.Configuration;
+import jakarta.validation.constraints.Min;
 
 public class EventEmitterConfig extends Configuration {
     
     private long defaultDoNotRetryEmittingEventUntilDurationInSeconds;
 
+    @Min(1)
+    private int historicalEventEmitterWorkerThreads = 4;
+
+    @Min(1)
+    private long historicalEventEmitterRangeSize = 100000;
+
+    @Min(1)
+    private int historicalEventEmitterPageSize = 500;
+
     public long getDefaultDoNotRetryEmittingEventUntilDurationInSeconds() {
         return defaultDoNotRetryEmittingEventUntilDurationInSeconds;
     }
+
+    /**
+     * Number of id ranges the historical event emitter works on at once
+     */
+    public int getHistoricalEventEmitterWorkerThreads() {
+        return historicalEventEmitterWorkerThreads;
+    }
+
+    /**
+     * Number of ids in each range the historical event emitter splits a run into. Progress is checkpointed per range.
+     */
+    public long getHistoricalEventEmitterRangeSize() {
+        return historicalEventEmitterRangeSize;
+    }
+
+    /**
+     * Number of charges or refunds the historical event emitter loads per query
+     */
+    public int getHistoricalEventEmitterPageSize() {
+        return historicalEventEmitterPageSize;
+    }
 }
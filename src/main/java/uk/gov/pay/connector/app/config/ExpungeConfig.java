@@ -43,6 +43,14 @@ public class ExpungeConfig extends Configuration {
     @NotNull
     private int minimumAgeOfRefundInDays;
 
+    private boolean batchExpungeEnabled;
+
+    @Min(1)
+    private int batchSize = 100;
+
+    @Min(1)
+    private int maxConcurrentParityChecks = 10;
+
     public int getMinimumAgeOfChargeInDays() {
         return minimumAgeOfChargeInDays;
     }
@@ -78,4 +86,16 @@ public class ExpungeConfig extends Configuration {
     public int getMinimumAgeOfRefundInDays() {
         return minimumAgeOfRefundInDays;
     }
+
+    public boolean isBatchExpungeEnabled() {
+        return batchExpungeEnabled;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public int getMaxConcurrentParityChecks() {
+        return maxConcurrentParityChecks;
+    }
 }
@@ -0,0 +1,36 @@
+package uk.gov.pay.connector.app.config;
+
+import io.dropwizard.core.Configuration;
+
+import jakarta.validation.constraints.Min;
+
+public class GatewayAccountCacheConfig extends Configuration {
+
+    @Min(0)
+    private long maximumSize = 2000;
+
+    @Min(1)
+    private long expireAfterWriteInSeconds = 300;
+
+    public GatewayAccountCacheConfig() {
+    }
+
+    public GatewayAccountCacheConfig(long maximumSize, long expireAfterWriteInSeconds) {
+        this.maximumSize = maximumSize;
+        this.expireAfterWriteInSeconds = expireAfterWriteInSeconds;
+    }
+
+    /**
+     * How many gateway accounts are cached at most; 0 turns the cache off
+     */
+    public long getMaximumSize() {
+        return maximumSize;
+    }
+
+    /**
+     * How long a gateway account is cached for, which bounds how stale it can be if an invalidation is missed
+     */
+    public long getExpireAfterWriteInSeconds() {
+        return expireAfterWriteInSeconds;
+    }
+}
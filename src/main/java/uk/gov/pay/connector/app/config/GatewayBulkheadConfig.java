@@ -0,0 +1,46 @@
+package uk.gov.pay.connector.app.config;
+
+import io.dropwizard.core.Configuration;
+
+import jakarta.validation.constraints.Min;
+
+public class GatewayBulkheadConfig extends Configuration {
+
+    @Min(1)
+    private int maxConcurrentRequests = 50;
+
+    @Min(0)
+    private int maxQueuedRequests = 100;
+
+    @Min(1)
+    private int maxConcurrentSyncRequests = 200;
+
+    public GatewayBulkheadConfig() {
+    }
+
+    public GatewayBulkheadConfig(int maxConcurrentRequests, int maxQueuedRequests) {
+        this.maxConcurrentRequests = maxConcurrentRequests;
+        this.maxQueuedRequests = maxQueuedRequests;
+    }
+
+    public GatewayBulkheadConfig(int maxConcurrentRequests, int maxQueuedRequests, int maxConcurrentSyncRequests) {
+        this(maxConcurrentRequests, maxQueuedRequests);
+        this.maxConcurrentSyncRequests = maxConcurrentSyncRequests;
+    }
+
+    public int getMaxConcurrentRequests() {
+        return maxConcurrentRequests;
+    }
+
+    public int getMaxQueuedRequests() {
+        return maxQueuedRequests;
+    }
+
+    /**
+     * How many synchronous requests each gateway can have in progress at once on the threads that make them, on top
+     * of as many card operations as the card executor can run at once
+     */
+    public int getMaxConcurrentSyncRequests() {
+        return maxConcurrentSyncRequests;
+    }
+}
@@ -0,0 +1,49 @@
+package uk.gov.pay.connector.app.config;
+
+import io.dropwizard.core.Configuration;
+
+import jakarta.validation.constraints.Min;
+
+public class LedgerCacheConfig extends Configuration {
+
+    @Min(0)
+    private long maximumSize = 10000;
+
+    @Min(1)
+    private long expireAfterWriteInSeconds = 300;
+
+    @Min(0)
+    private long changeSettleTimeInSeconds = 60;
+
+    public LedgerCacheConfig() {
+    }
+
+    public LedgerCacheConfig(long maximumSize, long expireAfterWriteInSeconds, long changeSettleTimeInSeconds) {
+        this.maximumSize = maximumSize;
+        this.expireAfterWriteInSeconds = expireAfterWriteInSeconds;
+        this.changeSettleTimeInSeconds = changeSettleTimeInSeconds;
+    }
+
+    /**
+     * How many historic transactions (and, separately, lists of refunds for a payment) are cached at most; 0 turns
+     * the cache off
+     */
+    public long getMaximumSize() {
+        return maximumSize;
+    }
+
+    /**
+     * How long a historic transaction is cached for, which bounds how stale it can be if an invalidation is missed
+     */
+    public long getExpireAfterWriteInSeconds() {
+        return expireAfterWriteInSeconds;
+    }
+
+    /**
+     * How long after connector emits an event for a transaction it is not cached, giving ledger time to process the
+     * event so the transaction is not cached as it was before the change
+     */
+    public long getChangeSettleTimeInSeconds() {
+        return changeSettleTimeInSeconds;
+    }
+}
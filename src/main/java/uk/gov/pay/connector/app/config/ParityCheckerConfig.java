@@ -0,0 +1,36 @@
+package uk.gov.pay.connector.app.config;
+
+import io.dropwizard.core.Configuration;
+
+import jakarta.validation.constraints.Min;
+
+public class ParityCheckerConfig extends Configuration {
+
+    @Min(1)
+    private int pageSize = 100;
+
+    @Min(1)
+    private int maxConcurrentLedgerRequests = 10;
+
+    public ParityCheckerConfig() {
+    }
+
+    public ParityCheckerConfig(int pageSize, int maxConcurrentLedgerRequests) {
+        this.pageSize = pageSize;
+        this.maxConcurrentLedgerRequests = maxConcurrentLedgerRequests;
+    }
+
+    /**
+     * Number of charges or refunds read and parity checked per batch
+     */
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    /**
+     * Number of charges or refunds in a batch that are looked up in ledger at the same time
+     */
+    public int getMaxConcurrentLedgerRequests() {
+        return maxConcurrentLedgerRequests;
+    }
+}
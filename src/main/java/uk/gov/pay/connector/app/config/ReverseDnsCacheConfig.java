@@ -0,0 +1,90 @@
+package uk.gov.pay.connector.app.config;
+
+import io.dropwizard.core.Configuration;
+
+import jakarta.validation.constraints.Min;
+
+public class ReverseDnsCacheConfig extends Configuration {
+
+    @Min(0)
+    private long positiveTtlInSeconds = 3600;
+
+    @Min(0)
+    private long negativeTtlInSeconds = 60;
+
+    @Min(0)
+    private long refreshBeforeExpiryInSeconds = 300;
+
+    @Min(1)
+    private long lookupTimeoutInMillis = 2000;
+
+    @Min(1)
+    private int lookupThreads = 2;
+
+    @Min(1)
+    private int lookupQueueSize = 100;
+
+    @Min(1)
+    private long maximumSize = 10000;
+
+    public ReverseDnsCacheConfig() {
+    }
+
+    public ReverseDnsCacheConfig(long positiveTtlInSeconds, long negativeTtlInSeconds, long refreshBeforeExpiryInSeconds,
+                                 long lookupTimeoutInMillis, int lookupThreads, int lookupQueueSize, long maximumSize) {
+        this.positiveTtlInSeconds = positiveTtlInSeconds;
+        this.negativeTtlInSeconds = negativeTtlInSeconds;
+        this.refreshBeforeExpiryInSeconds = refreshBeforeExpiryInSeconds;
+        this.lookupTimeoutInMillis = lookupTimeoutInMillis;
+        this.lookupThreads = lookupThreads;
+        this.lookupQueueSize = lookupQueueSize;
+        this.maximumSize = maximumSize;
+    }
+
+    /**
+     * How long a host name found for an IP address is cached
+     */
+    public long getPositiveTtlInSeconds() {
+        return positiveTtlInSeconds;
+    }
+
+    /**
+     * How long an IP address with no host name is cached
+     */
+    public long getNegativeTtlInSeconds() {
+        return negativeTtlInSeconds;
+    }
+
+    /**
+     * How long before a cached host name expires that a request for it starts a lookup in the background
+     */
+    public long getRefreshBeforeExpiryInSeconds() {
+        return refreshBeforeExpiryInSeconds;
+    }
+
+    /**
+     * How long a request waits for a lookup before treating the IP address as having no host name
+     */
+    public long getLookupTimeoutInMillis() {
+        return lookupTimeoutInMillis;
+    }
+
+    public int getLookupThreads() {
+        return lookupThreads;
+    }
+
+    /**
+     * How many lookups can wait for a lookup thread; a request that needs a lookup when this many are waiting is
+     * treated as having timed out
+     */
+    public int getLookupQueueSize() {
+        return lookupQueueSize;
+    }
+
+    /**
+     * How many IP addresses are cached at most, the least recently used being dropped first
+     */
+    public long getMaximumSize() {
+        return maximumSize;
+    }
+}
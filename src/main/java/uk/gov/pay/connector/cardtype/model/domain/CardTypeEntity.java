@@ -74,6 +74,21 @@ public class CardTypeEntity extends UuidAbstractEntity {
         this.requires3ds = requires3ds;
     }
 
+    /**
+     * Returns a copy of this card type that is not managed by JPA, so that it can be kept and serialised after the
+     * entity manager that loaded it has closed.
+     */
+    public CardTypeEntity detachedCopy() {
+        CardTypeEntity copy = new CardTypeEntity();
+        copy.setId(getId());
+        copy.setVersion(super.getVersion());
+        copy.brand = brand;
+        copy.label = label;
+        copy.type = type;
+        copy.requires3ds = requires3ds;
+        return copy;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -9,6 +9,8 @@ import jakarta.persistence.criteria.CriteriaBuilder;
 import jakarta.persistence.criteria.CriteriaQuery;
 import jakarta.persistence.criteria.Predicate;
 import jakarta.persistence.criteria.Root;
+import org.eclipse.persistence.annotations.BatchFetchType;
+import org.eclipse.persistence.config.QueryHints;
 import uk.gov.pay.connector.charge.model.domain.ChargeEntity;
 import uk.gov.pay.connector.charge.model.domain.ChargeStatus;
 import uk.gov.pay.connector.charge.model.domain.ParityCheckStatus;
@@ -23,6 +25,7 @@ import java.time.Instant;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.TimeZone;
@@ -41,6 +44,7 @@ public class ChargeDao extends JpaDao<ChargeEntity> {
     private static final String STATUS = "status";
     private static final String CREATED_DATE = "createdDate";
     private static final String UPDATED_DATE = "updatedDate";
+    private static final String ID = "id";
     private static final String FIND_CAPTURE_CHARGES_WHERE_CLAUSE =
             "WHERE (c.status=:captureApprovedStatus OR c.status=:captureApprovedRetryStatus)" +
                     "AND NOT EXISTS (" +
@@ -70,6 +74,18 @@ public class ChargeDao extends JpaDao<ChargeEntity> {
                 .getResultList().stream().findFirst();
     }
 
+    /**
+     * Reads the status straight from the database rather than from the persistence context, so that a caller
+     * waiting for another transaction to move the charge on sees the committed status.
+     */
+    public Optional<ChargeStatus> findStatusByExternalId(String externalId) {
+        List<?> statuses = entityManager.get()
+                .createNativeQuery("SELECT status FROM charges WHERE external_id = ?1")
+                .setParameter(1, externalId)
+                .getResultList();
+        return statuses.stream().findFirst().map(status -> ChargeStatus.fromString((String) status));
+    }
+
     public Optional<ChargeEntity> findByTokenId(String tokenId) {
         String query = "SELECT te.chargeEntity FROM TokenEntity te WHERE te.token=:tokenId AND te.used=false";
 
@@ -183,6 +199,69 @@ public class ChargeDao extends JpaDao<ChargeEntity> {
         return query.getResultList();
     }
 
+    /**
+     * Pages through the charges matched by {@link #findChargesByCreatedUpdatedDatesAndWithStatusIn} in id order,
+     * returning at most {@code limit} charges with an id greater than {@code afterId}.
+     */
+    public List<ChargeEntity> findChargesByCreatedUpdatedDatesAndWithStatusIn(Instant createdBeforeDate,
+                                                                              Instant updatedBeforeDate,
+                                                                              List<ChargeStatus> statuses,
+                                                                              long afterId,
+                                                                              int limit) {
+        CriteriaBuilder cb = entityManager.get().getCriteriaBuilder();
+        CriteriaQuery<ChargeEntity> cq = cb.createQuery(ChargeEntity.class);
+        Root<ChargeEntity> charge = cq.from(ChargeEntity.class);
+
+        List<Predicate> predicates = buildParamPredicates(cb, charge, createdBeforeDate, statuses);
+        predicates.add(cb.greaterThan(charge.get(ID), afterId));
+
+        if (updatedBeforeDate != null) {
+            predicates.add(cb.or(
+                    cb.isNull(charge.get(UPDATED_DATE)),
+                    cb.lessThan(charge.get(UPDATED_DATE), updatedBeforeDate)
+            ));
+        }
+
+        cq.select(charge)
+                .where(predicates.toArray(new Predicate[]{}))
+                .orderBy(cb.asc(charge.get(ID)));
+
+        return entityManager.get()
+                .createQuery(cq)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    /**
+     * Pages through the charges matched by {@link #findBeforeDateWithStatusIn} in id order, returning at most
+     * {@code limit} charges with an id greater than {@code afterId}.
+     */
+    public List<ChargeEntity> findBeforeDateWithStatusIn(Instant date, List<ChargeStatus> statuses, long afterId, int limit) {
+        return findChargesByCreatedUpdatedDatesAndWithStatusIn(date, null, statuses, afterId, limit);
+    }
+
+    public List<ChargeEntity> findByIds(Collection<Long> ids) {
+        return entityManager.get()
+                .createQuery("SELECT c FROM ChargeEntity c WHERE c.id IN :ids", ChargeEntity.class)
+                .setParameter("ids", ids)
+                .getResultList();
+    }
+
+    /**
+     * Returns up to limit charges with ids in (afterId, toId], in id order. The charge events of the whole page are
+     * loaded with one extra query rather than one per charge.
+     */
+    public List<ChargeEntity> findByIdRangeWithEvents(long afterId, long toId, int limit) {
+        return entityManager.get()
+                .createQuery("SELECT c FROM ChargeEntity c WHERE c.id > :afterId AND c.id <= :toId ORDER BY c.id", ChargeEntity.class)
+                .setParameter("afterId", afterId)
+                .setParameter("toId", toId)
+                .setHint(QueryHints.BATCH, "c.events")
+                .setHint(QueryHints.BATCH_TYPE, BatchFetchType.IN)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
     private List<Predicate> buildParamPredicates(CriteriaBuilder cb, Root<ChargeEntity> charge,
                                                  Instant toDate, List<ChargeStatus> internalStates) {
         List<Predicate> predicates = new ArrayList<>();
@@ -290,6 +369,19 @@ public class ChargeDao extends JpaDao<ChargeEntity> {
                 .getResultList();
     }
 
+    public int updateParityCheckStatus(Collection<Long> chargeIds, ZonedDateTime parityCheckDate, ParityCheckStatus parityCheckStatus) {
+        if (chargeIds.isEmpty()) {
+            return 0;
+        }
+        return entityManager.get()
+                .createQuery("UPDATE ChargeEntity c SET c.parityCheckStatus = :parityCheckStatus, c.parityCheckDate = :parityCheckDate " +
+                        "WHERE c.id IN :chargeIds")
+                .setParameter("parityCheckStatus", parityCheckStatus)
+                .setParameter("parityCheckDate", parityCheckDate)
+                .setParameter("chargeIds", chargeIds)
+                .executeUpdate();
+    }
+
     public Optional<ChargeEntity> findChargeToExpunge(int minimumAgeOfChargeInDays,
                                                       int excludeChargesParityCheckedWithInDays) {
         String query = "SELECT c FROM ChargeEntity c " +
@@ -311,6 +403,34 @@ public class ChargeDao extends JpaDao<ChargeEntity> {
                 .getResultList().stream().findFirst();
     }
 
+    /**
+     * Returns up to {@code limit} charges due to be expunged, in created date order, starting after the charge with
+     * the given created date and id so a run can page through candidates without reading them again.
+     */
+    public List<ChargeEntity> findChargesToExpunge(int minimumAgeOfChargeInDays, int excludeChargesParityCheckedWithInDays,
+                                                   Instant afterCreatedDate, long afterId, int limit) {
+        String query = "SELECT c FROM ChargeEntity c " +
+                "WHERE (c.parityCheckDate is null or c.parityCheckDate < :parityCheckedBeforeDate)" +
+                " AND c.createdDate < :createdBeforeDate " +
+                " AND (c.createdDate > :afterCreatedDate OR (c.createdDate = :afterCreatedDate AND c.id > :afterId))" +
+                " ORDER BY c.createdDate asc, c.id asc";
+
+        ZonedDateTime parityCheckedBeforeDate = ZonedDateTime.now()
+                .minus(Duration.ofDays(excludeChargesParityCheckedWithInDays))
+                .withZoneSameInstant(ZoneId.of("UTC"));
+
+        Instant createdBeforeDate = Instant.now().minus(Duration.ofDays(minimumAgeOfChargeInDays));
+
+        return entityManager.get()
+                .createQuery(query, ChargeEntity.class)
+                .setParameter("parityCheckedBeforeDate", parityCheckedBeforeDate)
+                .setParameter("createdBeforeDate", createdBeforeDate)
+                .setParameter("afterCreatedDate", afterCreatedDate)
+                .setParameter("afterId", afterId)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
     public void expungeCharge(Long id, String externalId) {
 
         entityManager.get()
@@ -340,6 +460,39 @@ public class ChargeDao extends JpaDao<ChargeEntity> {
                 .executeUpdate();
     }
 
+    public void expungeCharges(Collection<Long> ids, Collection<String> externalIds) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        Long[] chargeIds = ids.toArray(Long[]::new);
+
+        entityManager.get()
+                .createNativeQuery("delete from charge_events where charge_id = ANY(?1)")
+                .setParameter(1, chargeIds)
+                .executeUpdate();
+
+        entityManager.get()
+                .createNativeQuery("delete from tokens where charge_id = ANY(?1)")
+                .setParameter(1, chargeIds)
+                .executeUpdate();
+
+        entityManager.get()
+                .createNativeQuery("delete from emitted_events where resource_type = ?1 AND resource_external_id = ANY(?2)")
+                .setParameter(1, ResourceType.PAYMENT.getLowercase())
+                .setParameter(2, externalIds.toArray(String[]::new))
+                .executeUpdate();
+
+        entityManager.get()
+                .createNativeQuery("delete from fees where charge_id = ANY(?1)")
+                .setParameter(1, chargeIds)
+                .executeUpdate();
+
+        entityManager.get()
+                .createNativeQuery("delete from charges where id = ANY(?1)")
+                .setParameter(1, chargeIds)
+                .executeUpdate();
+    }
+
     public List<ChargeEntity> findWithPaymentProviderAndStatusIn(String provider, List<ChargeStatus> statuses, int limit) {
         return entityManager.get()
                 .createQuery("SELECT c FROM ChargeEntity c WHERE c.paymentProvider = :provider AND c.status in :statuses", ChargeEntity.class)
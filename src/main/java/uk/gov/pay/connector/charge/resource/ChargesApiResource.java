@@ -342,7 +342,8 @@ public class ChargesApiResource {
                     @ApiResponse(responseCode = "204", description = "No content"),
                     @ApiResponse(responseCode = "402", description = "Could not send email"),
                     @ApiResponse(responseCode = "404", description = "Not found - charge not found"),
-                    @ApiResponse(responseCode = "500", description = "Internal server error")
+                    @ApiResponse(responseCode = "500", description = "Internal server error"),
+                    @ApiResponse(responseCode = "503", description = "Too many emails being sent for the service, retry later")
             }
     )
     public Response resendConfirmationEmail(
@@ -369,7 +370,8 @@ public class ChargesApiResource {
                     @ApiResponse(responseCode = "204", description = "No content"),
                     @ApiResponse(responseCode = "402", description = "Could not send email"),
                     @ApiResponse(responseCode = "404", description = "Not found - charge not found"),
-                    @ApiResponse(responseCode = "500", description = "Internal server error")
+                    @ApiResponse(responseCode = "500", description = "Internal server error"),
+                    @ApiResponse(responseCode = "503", description = "Too many emails being sent for the service, retry later")
             }
     )
     public Response resendConfirmationEmailByServiceIdAndAccountType(
@@ -409,13 +411,19 @@ public class ChargesApiResource {
                     "This endpoint also expires charges in AWAITING_CAPTURE_REQUEST status. The default window is 120 hours. " +
                     "It can be overriden by setting an environment variable AWAITING_DELAY_CAPTURE_EXPIRY_WINDOW in seconds. " +
                     "Also expires tokens older than the configured TOKEN_EXPIRY_WINDOW_SECONDS, " +
-                    "and expires idempotency keys older than the configured IDEMPOTENCY_KEY_EXPIRY_WINDOW_SECONDS.",
+                    "and expires idempotency keys older than the configured IDEMPOTENCY_KEY_EXPIRY_WINDOW_SECONDS. " +
+                    "Charges are expired in pages of CHARGE_EXPIRY_PAGE_SIZE and the response also reports how many " +
+                    "charges and pages were processed and the throughput of the sweep.",
             tags = {"Tasks"},
             responses = {
                     @ApiResponse(responseCode = "200", description = "OK",
                             content = @Content(schema = @Schema(example = "{" +
                                     "    \"expiry-success\": 2," +
-                                    "    \"expiry-failed\": 0" +
+                                    "    \"expiry-failed\": 0," +
+                                    "    \"charges-processed\": 2," +
+                                    "    \"pages-processed\": 1," +
+                                    "    \"duration-in-milliseconds\": 120," +
+                                    "    \"charges-per-second\": 16" +
                                     "}")))
             }
     )
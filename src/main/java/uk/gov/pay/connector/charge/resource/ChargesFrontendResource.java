@@ -22,25 +22,35 @@ import uk.gov.pay.connector.charge.model.NewChargeStatusRequest;
 import uk.gov.pay.connector.charge.model.domain.ChargeEntity;
 import uk.gov.pay.connector.charge.model.domain.ChargeStatus;
 import uk.gov.pay.connector.charge.service.ChargeService;
+import uk.gov.pay.connector.charge.service.ChargeStatusLongPoller;
 import uk.gov.pay.connector.charge.service.Worldpay3dsFlexJwtService;
 import uk.gov.pay.connector.common.model.api.ExternalTransactionStateFactory;
 import uk.gov.pay.connector.common.service.PatchRequestBuilder;
 import uk.gov.pay.connector.gatewayaccount.model.GatewayAccount;
+import uk.gov.pay.connector.paymentprocessor.model.OperationType;
 
 import jakarta.inject.Inject;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
 import jakarta.ws.rs.GET;
 import jakarta.ws.rs.PUT;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.PathParam;
 import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.container.AsyncResponse;
+import jakarta.ws.rs.container.Suspended;
 import jakarta.ws.rs.core.Context;
 import jakarta.ws.rs.core.Response;
 import jakarta.ws.rs.core.UriInfo;
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
 import java.util.Collections;
+import java.util.EnumSet;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static jakarta.ws.rs.core.MediaType.APPLICATION_JSON;
 import static uk.gov.pay.connector.charge.resource.ChargesApiResource.EMAIL_KEY;
@@ -54,24 +64,29 @@ import static uk.gov.pay.connector.util.ResponseUtil.responseWithChargeNotFound;
 public class ChargesFrontendResource {
 
     private static final Logger logger = LoggerFactory.getLogger(ChargesFrontendResource.class);
+    private static final Set<ChargeStatus> AUTHORISATION_IN_PROGRESS_STATUSES = EnumSet.of(
+            OperationType.AUTHORISATION.getLockingStatus(), OperationType.AUTHORISATION_3DS.getLockingStatus());
     private final ChargeDao chargeDao;
     private final ChargeService chargeService;
     private final CardTypeDao cardTypeDao;
     private final Worldpay3dsFlexJwtService worldpay3dsFlexJwtService;
     private final AgreementService agreementService;
     private final ExternalTransactionStateFactory externalTransactionStateFactory;
+    private final ChargeStatusLongPoller chargeStatusLongPoller;
 
     @Inject
     public ChargesFrontendResource(ChargeDao chargeDao, ChargeService chargeService, CardTypeDao cardTypeDao,
                                    Worldpay3dsFlexJwtService worldpay3dsFlexJwtService,
                                    AgreementService agreementService,
-                                   ExternalTransactionStateFactory externalTransactionStateFactory) {
+                                   ExternalTransactionStateFactory externalTransactionStateFactory,
+                                   ChargeStatusLongPoller chargeStatusLongPoller) {
         this.chargeDao = chargeDao;
         this.chargeService = chargeService;
         this.cardTypeDao = cardTypeDao;
         this.worldpay3dsFlexJwtService = worldpay3dsFlexJwtService;
         this.agreementService = agreementService;
         this.externalTransactionStateFactory = externalTransactionStateFactory;
+        this.chargeStatusLongPoller = chargeStatusLongPoller;
     }
 
     @GET
@@ -196,6 +211,42 @@ public class ChargesFrontendResource {
                 .orElseGet(() -> getInvalidStatusResponse(chargeId, newChargeStatus));
     }
 
+    @GET
+    @Path("/v1/frontend/charges/{chargeId}/status")
+    @Produces(APPLICATION_JSON)
+    @Operation(
+            summary = "Get the status of a charge, waiting for authorisation to finish if it is in progress",
+            description = "Responds as soon as the charge is not being authorised, or after max_wait_millis (capped by " +
+                    "connector configuration) if it is still being authorised by then. The request does not hold a " +
+                    "connector thread while it waits.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "OK",
+                            content = @Content(schema = @Schema(example = "{" +
+                                    "    \"status\": \"AUTHORISATION SUCCESS\"" +
+                                    "}"))),
+                    @ApiResponse(responseCode = "404", description = "Not found - charge not found"),
+                    @ApiResponse(responseCode = "422", description = "Unprocessable Entity - invalid max_wait_millis")
+            }
+    )
+    public void awaitAuthorisationOutcome(
+            @Parameter(example = "spmh0fb7rbi1lebv1j3f7hc3m9", description = "Charge external ID")
+            @PathParam("chargeId") String chargeId,
+            @Parameter(example = "10000", description = "Longest time to wait for authorisation to finish")
+            @QueryParam("max_wait_millis") @Min(0) Long maxWaitMillis,
+            @Suspended AsyncResponse asyncResponse) {
+        Duration maxWait = maxWaitMillis == null ? ChronoUnit.FOREVER.getDuration() : Duration.ofMillis(maxWaitMillis);
+        chargeStatusLongPoller.awaitStatusChange(chargeId, AUTHORISATION_IN_PROGRESS_STATUSES, maxWait)
+                .whenComplete((status, error) -> {
+                    if (error != null) {
+                        asyncResponse.resume(error);
+                    } else {
+                        asyncResponse.resume(status
+                                .map(chargeStatus -> Response.ok(Map.of("status", chargeStatus.getValue())).build())
+                                .orElseGet(() -> responseWithChargeNotFound(chargeId)));
+                    }
+                });
+    }
+
     private Response getInvalidStatusResponse(String chargeId, ChargeStatus newChargeStatus) {
         return badRequestResponse("charge with id: " + chargeId +
                 " cannot be updated to the new status: " + newChargeStatus.getValue());
@@ -14,6 +14,7 @@ import uk.gov.pay.connector.gateway.model.request.CancelGatewayRequest;
 import uk.gov.pay.connector.gateway.model.response.BaseCancelResponse;
 import uk.gov.pay.connector.gateway.model.response.GatewayResponse;
 import uk.gov.pay.connector.paymentprocessor.model.OperationType;
+import uk.gov.pay.connector.paymentprocessor.service.CardOperationLimiter;
 import uk.gov.pay.connector.paymentprocessor.service.QueryService;
 
 import jakarta.inject.Inject;
@@ -32,16 +33,19 @@ public class ChargeCancelService {
     private final PaymentProviders providers;
     private final ChargeService chargeService;
     private final QueryService queryService;
+    private final CardOperationLimiter cardOperationLimiter;
 
     @Inject
     public ChargeCancelService(ChargeDao chargeDao,
                                PaymentProviders providers,
                                ChargeService chargeService,
-                               QueryService queryService) {
+                               QueryService queryService,
+                               CardOperationLimiter cardOperationLimiter) {
         this.chargeDao = chargeDao;
         this.providers = providers;
         this.chargeService = chargeService;
         this.queryService = queryService;
+        this.cardOperationLimiter = cardOperationLimiter;
     }
 
     public Optional<ChargeEntity> doSystemCancel(String chargeId, Long accountId) {
@@ -81,6 +85,17 @@ public class ChargeCancelService {
     }
 
     private void cancelChargeWithGatewayCleanup(ChargeEntity chargeEntity, StatusFlow statusFlow) {
+        CardOperationLimiter.Permit permit = cardOperationLimiter.acquire(chargeEntity.getPaymentGatewayName().getName(),
+                OperationType.CANCELLATION);
+        permit.runningOnCurrentThread();
+        try {
+            cancelChargeWithGateway(chargeEntity, statusFlow);
+        } finally {
+            permit.release();
+        }
+    }
+
+    private void cancelChargeWithGateway(ChargeEntity chargeEntity, StatusFlow statusFlow) {
         prepareForTerminate(chargeEntity, statusFlow);
 
         ChargeStatus chargeStatus;
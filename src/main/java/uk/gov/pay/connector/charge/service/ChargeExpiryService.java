@@ -1,8 +1,8 @@
 package uk.gov.pay.connector.charge.service;
 
-import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.inject.persist.Transactional;
+import com.google.inject.persist.UnitOfWork;
 import org.apache.commons.lang3.tuple.Pair;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -20,6 +20,7 @@ import uk.gov.pay.connector.common.exception.InvalidForceStateTransitionExceptio
 import uk.gov.pay.connector.common.exception.InvalidStateTransitionException;
 import uk.gov.pay.connector.common.exception.OperationAlreadyInProgressRuntimeException;
 import uk.gov.pay.connector.gateway.GatewayException;
+import uk.gov.pay.connector.gateway.PaymentGatewayName;
 import uk.gov.pay.connector.gateway.PaymentProviders;
 import uk.gov.pay.connector.gateway.model.request.CancelGatewayRequest;
 import uk.gov.pay.connector.gateway.model.response.BaseCancelResponse;
@@ -36,12 +37,19 @@ import java.time.Duration;
 import java.time.Instant;
 import java.time.InstantSource;
 import java.time.ZoneId;
+import java.util.ArrayDeque;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongFunction;
 import java.util.stream.Collectors;
 
 import static java.lang.String.format;
@@ -62,6 +70,10 @@ public class ChargeExpiryService {
     private final Logger logger = LoggerFactory.getLogger(getClass());
     private static final String EXPIRY_SUCCESS = "expiry-success";
     private static final String EXPIRY_FAILED = "expiry-failed";
+    private static final String CHARGES_PROCESSED = "charges-processed";
+    private static final String PAGES_PROCESSED = "pages-processed";
+    private static final String DURATION_IN_MILLISECONDS = "duration-in-milliseconds";
+    private static final String CHARGES_PER_SECOND = "charges-per-second";
     private final ChargeDao chargeDao;
     private final ChargeService chargeService;
     private final TokenDao tokenDao;
@@ -70,6 +82,9 @@ public class ChargeExpiryService {
     private final QueryService queryService;
     private final ChargeSweepConfig chargeSweepConfig;
     private final InstantSource instantSource;
+    private final UnitOfWork unitOfWork;
+    private final int pageSize;
+    private final int maxConcurrentGatewayOperationsPerProvider;
 
     @Inject
     public ChargeExpiryService(ChargeDao chargeDao,
@@ -79,7 +94,8 @@ public class ChargeExpiryService {
                                PaymentProviders providers,
                                QueryService queryService,
                                ConnectorConfiguration config,
-                               InstantSource instantSource) {
+                               InstantSource instantSource,
+                               UnitOfWork unitOfWork) {
         this.chargeDao = chargeDao;
         this.chargeService = chargeService;
         this.tokenDao = tokenDao;
@@ -88,6 +104,9 @@ public class ChargeExpiryService {
         this.chargeSweepConfig = config.getChargeSweepConfig();
         this.queryService = queryService;
         this.instantSource = instantSource;
+        this.unitOfWork = unitOfWork;
+        this.pageSize = chargeSweepConfig.getChargeExpiryPageSize();
+        this.maxConcurrentGatewayOperationsPerProvider = chargeSweepConfig.getMaxConcurrentGatewayOperationsPerProvider();
     }
 
     private enum ExpiryMethod {
@@ -101,13 +120,14 @@ public class ChargeExpiryService {
                 .stream()
                 .collect(Collectors.groupingBy(this::getExpiryMethod));
 
-        int expiredWithoutGatewaySuccess = expireChargesWithoutGateway(getNullSafeList(chargesGroupedByExpiryMethod.get(ExpiryMethod.EXPIRE_WITHOUT_GATEWAY)));
-        Pair<Integer, Integer> expireWithCancellationResult = expireChargesWithGateway(getNullSafeList(chargesGroupedByExpiryMethod.get(ExpiryMethod.EXPIRE_WITH_GATEWAY)));
-        Pair<Integer, Integer> expireOrForceTransitionResult = expireChargesOrPotentiallyForceTransitionState(getNullSafeList(chargesGroupedByExpiryMethod.get(ExpiryMethod.CHECK_STATUS_WITH_GATEWAY_BEFORE_EXPIRING)));
+        Pair<Integer, Integer> expireWithoutGatewayResult = expireChargesWithoutGateway(getNullSafeList(chargesGroupedByExpiryMethod.get(ExpiryMethod.EXPIRE_WITHOUT_GATEWAY)));
+        Pair<Integer, Integer> expireWithGatewayResult = expireChargesWithGateway(
+                getNullSafeList(chargesGroupedByExpiryMethod.get(ExpiryMethod.EXPIRE_WITH_GATEWAY)),
+                getNullSafeList(chargesGroupedByExpiryMethod.get(ExpiryMethod.CHECK_STATUS_WITH_GATEWAY_BEFORE_EXPIRING)));
 
         return ImmutableMap.of(
-                EXPIRY_SUCCESS, expiredWithoutGatewaySuccess + expireWithCancellationResult.getLeft() + expireOrForceTransitionResult.getLeft(),
-                EXPIRY_FAILED, expireWithCancellationResult.getRight() + expireOrForceTransitionResult.getRight()
+                EXPIRY_SUCCESS, expireWithoutGatewayResult.getLeft() + expireWithGatewayResult.getLeft(),
+                EXPIRY_FAILED, expireWithoutGatewayResult.getRight() + expireWithGatewayResult.getRight()
         );
     }
 
@@ -132,68 +152,144 @@ public class ChargeExpiryService {
         return ExpirableChargeStatus.of(ChargeStatus.fromString(chargeEntity.getStatus())).getAuthorisationStage();
     }
 
+    /**
+     * Walks the expirable charges a page at a time in id order, expiring each page before loading the next, so the
+     * sweep never holds more than one page of charges in memory however large the backlog is.
+     */
     public Map<String, Integer> sweepAndExpireChargesAndTokensAndIdempotencyKeys() {
-        List<ChargeEntity> chargesToExpire = new ImmutableList.Builder<ChargeEntity>()
-                .addAll(getChargesToExpireWithRegularExpiryThreshold())
-                .addAll(getChargesToExpireWithDelayedExpiryThreshold())
-                .build();
         Instant tokenExpiryThreshold = getExpiryThresholdForTokens();
         int numberOfTokensDeleted = deleteTokensOlderThanSpecifiedDate(tokenExpiryThreshold);
         Instant idempotencyExpiryThreshold = instantSource.instant().minus(chargeSweepConfig.getIdempotencyKeyExpiryThresholdInSeconds());
         int numberOfIdempotencyKeysDeleted = idempotencyDao.deleteIdempotencyKeysOlderThanSpecifiedDateTime(idempotencyExpiryThreshold);
         logger.info("Tokens deleted - number_of_tokens={}, since_date={}", numberOfTokensDeleted, tokenExpiryThreshold);
         logger.info("Idempotency keys deleted - number_of_idempotency_keys={}, since_date={}", numberOfIdempotencyKeysDeleted, idempotencyExpiryThreshold);
-        logger.info("Charges found for expiry - number_of_charges={}, since_date={}, updated_before={}, awaiting_capture_date={}",
-                chargesToExpire.size(), getExpiryDateForRegularCharges(), getDateToExpireChargesUpdatedBefore(),
-                getExpiryDateForAwaitingCaptureRequest());
 
-        return expire(chargesToExpire);
-    }
+        Instant expiryDateForRegularCharges = getExpiryDateForRegularCharges();
+        Instant dateToExpireChargesUpdatedBefore = getDateToExpireChargesUpdatedBefore();
+        Instant expiryDateForAwaitingCaptureRequest = getExpiryDateForAwaitingCaptureRequest();
+        List<ChargeStatus> regularThresholdStatuses = getExpirableStatuses(true);
+        List<ChargeStatus> delayedThresholdStatuses = getExpirableStatuses(false);
 
-    private int deleteTokensOlderThanSpecifiedDate(Instant tokenExpiryDate) {
-        return tokenDao.deleteTokensOlderThanSpecifiedDate(tokenExpiryDate.atZone(ZoneId.of("UTC")));
-    }
+        SweepProgress progress = new SweepProgress(instantSource.instant());
+        expirePageByPage(afterId -> chargeDao.findChargesByCreatedUpdatedDatesAndWithStatusIn(expiryDateForRegularCharges,
+                dateToExpireChargesUpdatedBefore, regularThresholdStatuses, afterId, pageSize), progress);
+        expirePageByPage(afterId -> chargeDao.findBeforeDateWithStatusIn(expiryDateForAwaitingCaptureRequest,
+                delayedThresholdStatuses, afterId, pageSize), progress);
 
-    private List<ChargeEntity> getChargesToExpireWithDelayedExpiryThreshold() {
-        return chargeDao.findBeforeDateWithStatusIn(getExpiryDateForAwaitingCaptureRequest(),
-                ExpirableChargeStatus.getValuesAsStream()
-                        .filter(ExpirableChargeStatus::isDelayedThresholdType)
-                        .map(ExpirableChargeStatus::getChargeStatus)
-                        .collect(Collectors.toList()));
+        logger.info("Charges expired - number_of_charges={}, expiry_success={}, expiry_failed={}, pages={}, charges_per_second={}, since_date={}, updated_before={}, awaiting_capture_date={}",
+                progress.chargesProcessed, progress.expirySuccess, progress.expiryFailed, progress.pagesProcessed,
+                progress.chargesPerSecond(instantSource.instant()), expiryDateForRegularCharges,
+                dateToExpireChargesUpdatedBefore, expiryDateForAwaitingCaptureRequest);
+
+        return progress.toResult(instantSource.instant());
     }
 
-    private List<ChargeEntity> getChargesToExpireWithRegularExpiryThreshold() {
-        return chargeDao.findChargesByCreatedUpdatedDatesAndWithStatusIn(getExpiryDateForRegularCharges(),
-                getDateToExpireChargesUpdatedBefore(),
-                ExpirableChargeStatus.getValuesAsStream()
-                        .filter(ExpirableChargeStatus::isRegularThresholdType)
-                        .map(ExpirableChargeStatus::getChargeStatus)
-                        .collect(Collectors.toList()));
+    private void expirePageByPage(LongFunction<List<ChargeEntity>> pageLoader, SweepProgress progress) {
+        long afterId = 0L;
+        List<ChargeEntity> page;
+        do {
+            page = pageLoader.apply(afterId);
+            if (page.isEmpty()) {
+                return;
+            }
+            afterId = page.getLast().getId();
+
+            Map<String, Integer> pageResult = expire(page);
+
+            progress.add(page.size(), pageResult.get(EXPIRY_SUCCESS), pageResult.get(EXPIRY_FAILED));
+            logger.info("Charge expiry sweep progress - pages={}, charges_processed={}, expiry_success={}, expiry_failed={}, charges_per_second={}",
+                    progress.pagesProcessed, progress.chargesProcessed, progress.expirySuccess, progress.expiryFailed,
+                    progress.chargesPerSecond(instantSource.instant()));
+        } while (page.size() == pageSize);
     }
 
-    private int expireChargesWithoutGateway(List<ChargeEntity> nonAuthSuccessCharges) {
-        List<ChargeEntity> processedEntities = nonAuthSuccessCharges
-                .stream().map(chargeEntity -> chargeService.transitionChargeState(chargeEntity.getExternalId(), EXPIRED))
+    private List<ChargeStatus> getExpirableStatuses(boolean regularThreshold) {
+        return ExpirableChargeStatus.getValuesAsStream()
+                .filter(regularThreshold ? ExpirableChargeStatus::isRegularThresholdType : ExpirableChargeStatus::isDelayedThresholdType)
+                .map(ExpirableChargeStatus::getChargeStatus)
                 .collect(Collectors.toList());
+    }
 
-        return processedEntities.size();
+    private int deleteTokensOlderThanSpecifiedDate(Instant tokenExpiryDate) {
+        return tokenDao.deleteTokensOlderThanSpecifiedDate(tokenExpiryDate.atZone(ZoneId.of("UTC")));
     }
 
-    private Pair<Integer, Integer> expireChargesWithGateway(List<ChargeEntity> gatewayAuthorizedCharges) {
+    /**
+     * Expires the page of charges that need no gateway call, reloading them with a single query rather than one query
+     * per charge. Each charge is expired and committed in its own transaction by
+     * {@link ChargeService#transitionChargeState} so that a charge that fails to expire does not roll back the rest
+     * of the page. Rolling back detaches every charge loaded with it, so the charges not yet expired are then
+     * reloaded, again with a single query.
+     */
+    private Pair<Integer, Integer> expireChargesWithoutGateway(List<ChargeEntity> nonAuthSuccessCharges) {
+        if (nonAuthSuccessCharges.isEmpty()) {
+            return Pair.of(0, 0);
+        }
+        Deque<ChargeEntity> charges;
+        try {
+            charges = new ArrayDeque<>(chargeDao.findByIds(nonAuthSuccessCharges.stream().map(ChargeEntity::getId).toList()));
+        } catch (RuntimeException e) {
+            logger.error("Failed to load page of charges to expire without gateway - number_of_charges={}, error={}",
+                    nonAuthSuccessCharges.size(), e.getMessage());
+            return Pair.of(0, nonAuthSuccessCharges.size());
+        }
+        int expired = 0;
+        int failed = nonAuthSuccessCharges.size() - charges.size();
+        while (!charges.isEmpty()) {
+            ChargeEntity chargeEntity = charges.removeFirst();
+            try {
+                chargeService.transitionChargeState(chargeEntity, EXPIRED);
+                expired++;
+            } catch (RuntimeException e) {
+                if (e instanceof InvalidStateTransitionException) {
+                    logger.info("Charge could not be expired as its state changed during the sweep",
+                            kv(PAYMENT_EXTERNAL_ID, chargeEntity.getExternalId()));
+                } else {
+                    logger.error("Error expiring charge without gateway - charge_external_id={}, error={}",
+                            chargeEntity.getExternalId(), e.getMessage());
+                }
+                failed++;
+                List<Long> remainingIds = charges.stream().map(ChargeEntity::getId).toList();
+                if (!remainingIds.isEmpty()) {
+                    charges = new ArrayDeque<>(chargeDao.findByIds(remainingIds));
+                    failed += remainingIds.size() - charges.size();
+                }
+            }
+        }
+        return Pair.of(expired, failed);
+    }
 
+    /**
+     * Runs the gateway cancels and status queries for a page of charges concurrently, with at most
+     * {@code maxConcurrentGatewayOperationsPerProvider} in flight against any one payment provider. Each operation
+     * reloads its charge by external id in its own unit of work rather than sharing the caller's entities.
+     */
+    private Pair<Integer, Integer> expireChargesWithGateway(List<ChargeEntity> gatewayAuthorizedCharges,
+                                                            List<ChargeEntity> chargesToCheckWithGateway) {
         AtomicInteger expireCancelled = new AtomicInteger();
         AtomicInteger expireCancelFailed = new AtomicInteger();
+        if (gatewayAuthorizedCharges.isEmpty() && chargesToCheckWithGateway.isEmpty()) {
+            return Pair.of(0, 0);
+        }
 
-        gatewayAuthorizedCharges.forEach(chargeEntity -> {
-
-            ChargeEntity expiredCharge = expireChargeWithGatewayCleanup(chargeEntity);
-
-            if (EXPIRED.getValue().equals(expiredCharge.getStatus())) {
-                expireCancelled.getAndIncrement();
-            } else if (EXPIRE_CANCEL_FAILED.getValue().equals(expiredCharge.getStatus())) {
-                expireCancelFailed.getAndIncrement();
-            }
-        });
+        Map<PaymentGatewayName, Semaphore> gatewayOperationPermits = new ConcurrentHashMap<>();
+        try (ExecutorService gatewayOperationExecutor = Executors.newVirtualThreadPerTaskExecutor()) {
+            gatewayAuthorizedCharges.forEach(chargeEntity -> {
+                String chargeExternalId = chargeEntity.getExternalId();
+                PaymentGatewayName paymentGatewayName = chargeEntity.getPaymentGatewayName();
+                gatewayOperationExecutor.execute(() ->
+                        runGatewayOperation(chargeExternalId, paymentGatewayName, gatewayOperationPermits, expireCancelFailed, () ->
+                                countTerminalState(expireChargeWithGatewayCleanup(chargeExternalId), expireCancelled, expireCancelFailed)));
+            });
+            chargesToCheckWithGateway.forEach(chargeEntity -> {
+                String chargeExternalId = chargeEntity.getExternalId();
+                PaymentGatewayName paymentGatewayName = chargeEntity.getPaymentGatewayName();
+                gatewayOperationExecutor.execute(() ->
+                        runGatewayOperation(chargeExternalId, paymentGatewayName, gatewayOperationPermits, expireCancelFailed, () ->
+                                expireChargeOrPotentiallyForceTransitionState(chargeDao.findByExternalId(chargeExternalId)
+                                        .orElseThrow(() -> new ChargeNotFoundRuntimeException(chargeExternalId)), expireCancelled, expireCancelFailed)));
+            });
+        }
 
         return Pair.of(
                 expireCancelled.intValue(),
@@ -201,57 +297,75 @@ public class ChargeExpiryService {
         );
     }
 
-    private Pair<Integer, Integer> expireChargesOrPotentiallyForceTransitionState(List<ChargeEntity> charges) {
-        AtomicInteger expireCancelled = new AtomicInteger();
-        AtomicInteger expireCancelFailed = new AtomicInteger();
+    private void runGatewayOperation(String chargeExternalId, PaymentGatewayName paymentGatewayName,
+                                     Map<PaymentGatewayName, Semaphore> gatewayOperationPermits,
+                                     AtomicInteger expireCancelFailed, Runnable gatewayOperation) {
+        Semaphore permits = gatewayOperationPermits.computeIfAbsent(paymentGatewayName,
+                gatewayName -> new Semaphore(maxConcurrentGatewayOperationsPerProvider));
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            expireCancelFailed.getAndIncrement();
+            return;
+        }
+        unitOfWork.begin();
+        try {
+            gatewayOperation.run();
+        } catch (RuntimeException e) {
+            logger.error("Error expiring charge with gateway - charge_external_id={}, error={}",
+                    chargeExternalId, e.getMessage());
+            expireCancelFailed.getAndIncrement();
+        } finally {
+            unitOfWork.end();
+            permits.release();
+        }
+    }
 
-        charges.forEach(chargeEntity -> {
-            Optional<ChargeStatus> gatewayStatus = queryService.getMappedGatewayStatus(chargeEntity);
-            gatewayStatus.ifPresentOrElse(status ->
-                    {
-                        if (status.toExternal().isFinished()) {
-                            logger.info(format("Expiring charge skipped as charge is in a terminal state on the gateway " +
-                                            "provider. Attempting to update charge state to [%s]", status.getValue()),
-                                    kv(PAYMENT_EXTERNAL_ID, chargeEntity.getExternalId()),
-                                    kv(GATEWAY_ACCOUNT_ID, chargeEntity.getGatewayAccount().getId()),
-                                    kv(PROVIDER, chargeEntity.getPaymentProvider()));
-
-                            // first try to transition to the terminal state gracefully if allowed, otherwise force the
-                            // transition
-                            try {
-                                chargeService.transitionChargeState(chargeEntity.getExternalId(), status);
-                                expireCancelled.getAndIncrement();
-                            } catch (InvalidStateTransitionException e) {
-                                if (forceTransitionChargeState(chargeEntity, status)) {
-                                    expireCancelled.getAndIncrement();
-                                } else {
-                                    expireCancelFailed.getAndIncrement();
-                                }
-                            }
-                        } else {
-                            ChargeEntity expiredCharge = expireChargeWithGatewayCleanup(chargeEntity);
+    private void countTerminalState(ChargeEntity expiredCharge, AtomicInteger expireCancelled, AtomicInteger expireCancelFailed) {
+        if (EXPIRED.getValue().equals(expiredCharge.getStatus())) {
+            expireCancelled.getAndIncrement();
+        } else if (EXPIRE_CANCEL_FAILED.getValue().equals(expiredCharge.getStatus())) {
+            expireCancelFailed.getAndIncrement();
+        }
+    }
 
-                            if (EXPIRED.getValue().equals(expiredCharge.getStatus())) {
+    private void expireChargeOrPotentiallyForceTransitionState(ChargeEntity chargeEntity, AtomicInteger expireCancelled,
+                                                               AtomicInteger expireCancelFailed) {
+        Optional<ChargeStatus> gatewayStatus = queryService.getMappedGatewayStatus(chargeEntity);
+        gatewayStatus.ifPresentOrElse(status ->
+                {
+                    if (status.toExternal().isFinished()) {
+                        logger.info(format("Expiring charge skipped as charge is in a terminal state on the gateway " +
+                                        "provider. Attempting to update charge state to [%s]", status.getValue()),
+                                kv(PAYMENT_EXTERNAL_ID, chargeEntity.getExternalId()),
+                                kv(GATEWAY_ACCOUNT_ID, chargeEntity.getGatewayAccount().getId()),
+                                kv(PROVIDER, chargeEntity.getPaymentProvider()));
+
+                        // first try to transition to the terminal state gracefully if allowed, otherwise force the
+                        // transition
+                        try {
+                            chargeService.transitionChargeState(chargeEntity.getExternalId(), status);
+                            expireCancelled.getAndIncrement();
+                        } catch (InvalidStateTransitionException e) {
+                            if (forceTransitionChargeState(chargeEntity, status)) {
                                 expireCancelled.getAndIncrement();
-                            } else if (EXPIRE_CANCEL_FAILED.getValue().equals(expiredCharge.getStatus())) {
+                            } else {
                                 expireCancelFailed.getAndIncrement();
                             }
                         }
-                    },
-                    () -> {
-                        logger.info(format("Gateway status does not map to any charge " +
-                                        "status in %s, expiring without cancelling on the gateway.",
-                                ChargeStatus.class.getCanonicalName()),
-                                kv(PAYMENT_EXTERNAL_ID, chargeEntity.getExternalId()));
-                        chargeService.transitionChargeState(chargeEntity.getExternalId(), EXPIRED);
-                        expireCancelled.getAndIncrement();
-                    });
-        });
-
-        return Pair.of(
-                expireCancelled.intValue(),
-                expireCancelFailed.intValue()
-        );
+                    } else {
+                        countTerminalState(expireChargeWithGatewayCleanup(chargeEntity.getExternalId()), expireCancelled, expireCancelFailed);
+                    }
+                },
+                () -> {
+                    logger.info(format("Gateway status does not map to any charge " +
+                                    "status in %s, expiring without cancelling on the gateway.",
+                            ChargeStatus.class.getCanonicalName()),
+                            kv(PAYMENT_EXTERNAL_ID, chargeEntity.getExternalId()));
+                    chargeService.transitionChargeState(chargeEntity.getExternalId(), EXPIRED);
+                    expireCancelled.getAndIncrement();
+                });
     }
     
     private boolean forceTransitionChargeState(ChargeEntity chargeEntity, ChargeStatus status) {
@@ -268,8 +382,8 @@ public class ChargeExpiryService {
         }
     }
 
-    private ChargeEntity expireChargeWithGatewayCleanup(ChargeEntity chargeEntity) {
-        ChargeEntity processedEntity = prepareForTermination(chargeEntity.getExternalId());
+    private ChargeEntity expireChargeWithGatewayCleanup(String chargeExternalId) {
+        ChargeEntity processedEntity = prepareForTermination(chargeExternalId);
         ChargeStatus newStatus;
 
         try {
@@ -278,7 +392,7 @@ public class ChargeExpiryService {
         } catch (GatewayException e) {
             newStatus = EXPIRE_FLOW.getFailureTerminalState();
             logger.error("Gateway error while cancelling the Charge - charge_external_id={}, gateway_error={}",
-                    chargeEntity.getExternalId(), e.getMessage());
+                    chargeExternalId, e.getMessage());
         }
 
         return chargeService.transitionChargeState(processedEntity.getExternalId(), newStatus);
@@ -396,4 +510,39 @@ public class ChargeExpiryService {
             return chargeEntity;
         }).orElseThrow(() -> new ChargeNotFoundRuntimeException(chargeId));
     }
+
+    private static class SweepProgress {
+        private final Instant startedAt;
+        private int pagesProcessed;
+        private int chargesProcessed;
+        private int expirySuccess;
+        private int expiryFailed;
+
+        private SweepProgress(Instant startedAt) {
+            this.startedAt = startedAt;
+        }
+
+        private void add(int charges, int success, int failed) {
+            pagesProcessed++;
+            chargesProcessed += charges;
+            expirySuccess += success;
+            expiryFailed += failed;
+        }
+
+        private int chargesPerSecond(Instant now) {
+            long elapsedMillis = Math.max(1L, Duration.between(startedAt, now).toMillis());
+            return (int) (chargesProcessed * 1000L / elapsedMillis);
+        }
+
+        private Map<String, Integer> toResult(Instant now) {
+            return ImmutableMap.of(
+                    EXPIRY_SUCCESS, expirySuccess,
+                    EXPIRY_FAILED, expiryFailed,
+                    CHARGES_PROCESSED, chargesProcessed,
+                    PAGES_PROCESSED, pagesProcessed,
+                    DURATION_IN_MILLISECONDS, (int) Duration.between(startedAt, now).toMillis(),
+                    CHARGES_PER_SECOND, chargesPerSecond(now)
+            );
+        }
+    }
 }
@@ -4,7 +4,7 @@ import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.inject.persist.Transactional;
 import jakarta.inject.Inject;
-import jakarta.persistence.RollbackException;
+import jakarta.persistence.PersistenceException;
 import jakarta.ws.rs.core.UriBuilder;
 import jakarta.ws.rs.core.UriInfo;
 import org.apache.hc.core5.http.HttpStatus;
@@ -110,7 +110,9 @@ import java.net.URI;
 import java.time.Duration;
 import java.time.Instant;
 import java.time.InstantSource;
+import java.time.ZoneId;
 import java.time.ZonedDateTime;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -196,6 +198,7 @@ public class ChargeService {
     private final Boolean rejectPaymentLinkPaymentsWithCardNumberInReference;
     private final CardidService cardidService;
     private final InstantSource instantSource;
+    private final ChargeStatusNotifier chargeStatusNotifier;
 
     @Inject
     public ChargeService(TokenDao tokenDao,
@@ -219,7 +222,8 @@ public class ChargeService {
                          ExternalTransactionStateFactory externalTransactionStateFactory,
                          ObjectMapper objectMapper,
                          CardidService cardidService,
-                         InstantSource instantSource) {
+                         InstantSource instantSource,
+                         ChargeStatusNotifier chargeStatusNotifier) {
         this.tokenDao = tokenDao;
         this.chargeDao = chargeDao;
         this.chargeEventDao = chargeEventDao;
@@ -245,6 +249,7 @@ public class ChargeService {
         this.rejectPaymentLinkPaymentsWithCardNumberInReference = config.getRejectPaymentLinkPaymentsWithCardNumberInReference();
         this.cardidService = cardidService;
         this.instantSource = instantSource;
+        this.chargeStatusNotifier = chargeStatusNotifier;
     }
 
     @Transactional
@@ -258,8 +263,9 @@ public class ChargeService {
         return populateResponseBuilderWith(aChargeResponseBuilder(), charge).build();
     }
 
+    // cannot be private: Guice requires @Transactional methods to be public
     @Transactional
-    private ChargeEntity createTelephoneCharge(TelephoneChargeCreateRequest telephoneChargeRequest, GatewayAccountEntity gatewayAccount) {
+    public ChargeEntity createTelephoneCharge(TelephoneChargeCreateRequest telephoneChargeRequest, GatewayAccountEntity gatewayAccount) {
         checkIfZeroAmountAllowed(telephoneChargeRequest.getAmount(), gatewayAccount);
 
         CardDetailsEntity cardDetails = new CardDetailsEntity(
@@ -291,7 +297,6 @@ public class ChargeService {
         chargeDao.persist(chargeEntity);
         transitionChargeState(chargeEntity, PAYMENT_NOTIFICATION_CREATED);
         transitionChargeState(chargeEntity, internalChargeStatus(telephoneChargeRequest.getPaymentOutcome().getCode().orElse(null)));
-        chargeDao.merge(chargeEntity);
         return chargeEntity;
     }
 
@@ -311,7 +316,8 @@ public class ChargeService {
                     .map(charge ->
                             populateResponseBuilderWith(aChargeResponseBuilder(), uriInfo, charge).build()
                     );
-        } catch (RollbackException e) {
+        } catch (PersistenceException e) {
+            // The idempotency key is inserted with the charge, so a duplicate key fails the flush of the charge event
             if (idempotencyKey != null && idempotencyDao.findByGatewayAccountIdAndKey(accountId, idempotencyKey).isPresent()) {
                 LOGGER.info("Race condition between two requests to create a charge with the same Idempotency Key handled");
                 throw new IdempotencyKeyUsedException();
@@ -320,8 +326,9 @@ public class ChargeService {
         }
     }
 
+    // cannot be private: Guice requires @Transactional methods to be public
     @Transactional
-    private Optional<ChargeEntity> createCharge(ChargeCreateRequest chargeRequest, Long accountId, String idempotencyKey) {
+    public Optional<ChargeEntity> createCharge(ChargeCreateRequest chargeRequest, Long accountId, String idempotencyKey) {
         return gatewayAccountDao.findById(accountId).map(gatewayAccount -> {
 
             checkReturnUrl(chargeRequest, gatewayAccount);
@@ -371,7 +378,6 @@ public class ChargeService {
             }
 
             transitionChargeState(chargeEntity, CREATED);
-            chargeDao.merge(chargeEntity);
 
             return chargeEntity;
         });
@@ -522,6 +528,11 @@ public class ChargeService {
                 .map(chargeEntity -> populateResponseBuilderWith(aChargeResponseBuilder(), uriInfo, chargeEntity).build());
     }
 
+    @Transactional
+    public int updateChargeParityStatuses(Collection<Long> chargeIds, ParityCheckStatus parityCheckStatus) {
+        return chargeDao.updateParityCheckStatus(chargeIds, ZonedDateTime.now(ZoneId.of("UTC")), parityCheckStatus);
+    }
+
     @Transactional
     public Optional<ChargeEntity> updateChargeParityStatus(String externalId, ParityCheckStatus parityCheckStatus) {
         return chargeDao.findByExternalId(externalId)
@@ -538,7 +549,7 @@ public class ChargeService {
         if (maybeChargeEntity.isPresent()) {
             return maybeChargeEntity.map(Charge::from);
         } else {
-            return ledgerService.getTransaction(chargeExternalId).map(Charge::from);
+            return ledgerService.getHistoricTransaction(chargeExternalId).map(Charge::from);
         }
     }
 
@@ -548,7 +559,7 @@ public class ChargeService {
         if (maybeChargeEntity.isPresent()) {
             return maybeChargeEntity.map(Charge::from);
         } else {
-            return ledgerService.getTransactionForGatewayAccount(chargeExternalId, gatewayAccountId).map(Charge::from);
+            return ledgerService.getHistoricTransactionForGatewayAccount(chargeExternalId, gatewayAccountId).map(Charge::from);
         }
     }
 
@@ -559,7 +570,7 @@ public class ChargeService {
     }
 
     private Optional<Charge> findChargeFromLedger(String paymentGatewayName, String gatewayTransactionId) {
-        return ledgerService.getTransactionForProviderAndGatewayTransactionId(paymentGatewayName, gatewayTransactionId).map(Charge::from);
+        return ledgerService.getHistoricTransactionForProviderAndGatewayTransactionId(paymentGatewayName, gatewayTransactionId).map(Charge::from);
     }
 
     @Transactional
@@ -1016,6 +1027,10 @@ public class ChargeService {
                 .orElseThrow(() -> new ChargeNotFoundRuntimeException(chargeId));
     }
 
+    public Optional<ChargeStatus> findCurrentChargeStatus(String chargeExternalId) {
+        return chargeDao.findStatusByExternalId(chargeExternalId);
+    }
+
     public ChargeEntity transitionChargeState(ChargeEntity charge, ChargeStatus targetChargeState) {
         return transitionChargeState(charge, targetChargeState, null);
     }
@@ -1037,6 +1052,7 @@ public class ChargeService {
         }
 
         taskQueueService.offerTasksOnStateTransition(charge);
+        chargeStatusNotifier.notifyStatusChange(charge.getExternalId(), fromChargeState, targetChargeState);
 
         return charge;
     }
@@ -0,0 +1,137 @@
+package uk.gov.pay.connector.charge.service;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.inject.persist.UnitOfWork;
+import io.dropwizard.lifecycle.Managed;
+import uk.gov.pay.connector.app.ConnectorConfiguration;
+import uk.gov.pay.connector.charge.dao.ChargeDao;
+import uk.gov.pay.connector.charge.model.domain.ChargeStatus;
+
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Waits for a charge to leave a set of statuses without holding a thread while it waits, so that a request can be
+ * suspended until the charge moves on. Status changes come from {@link ChargeStatusWaiters}; the committed status
+ * is then read on a small pool of scheduler threads, which also end waits that reach their maximum.
+ */
+@Singleton
+public class ChargeStatusLongPoller implements Managed {
+
+    private static final int SHUTDOWN_AWAIT_TERMINATION_TIMEOUT_SECONDS = 10;
+
+    private final ChargeStatusWaiters chargeStatusWaiters;
+    private final ChargeDao chargeDao;
+    private final UnitOfWork unitOfWork;
+    private final ScheduledExecutorService scheduler;
+    private final Duration maxWait;
+
+    @Inject
+    public ChargeStatusLongPoller(ChargeStatusWaiters chargeStatusWaiters, ChargeDao chargeDao, UnitOfWork unitOfWork,
+                                  ConnectorConfiguration configuration) {
+        this(chargeStatusWaiters, chargeDao, unitOfWork, Executors.newScheduledThreadPool(
+                configuration.getChargeStatusNotificationConfig().getFrontendLongPollThreads(),
+                new ThreadFactoryBuilder().setNameFormat("charge-status-long-poll-%d").setDaemon(true).build()),
+                Duration.ofMillis(configuration.getChargeStatusNotificationConfig().getFrontendLongPollMaxWaitInMillis()));
+    }
+
+    public ChargeStatusLongPoller(ChargeStatusWaiters chargeStatusWaiters, ChargeDao chargeDao, UnitOfWork unitOfWork,
+                                  ScheduledExecutorService scheduler, Duration maxWait) {
+        this.chargeStatusWaiters = chargeStatusWaiters;
+        this.chargeDao = chargeDao;
+        this.unitOfWork = unitOfWork;
+        this.scheduler = scheduler;
+        this.maxWait = maxWait;
+    }
+
+    /**
+     * Completes with the committed status of the charge as soon as it is not in {@code waitWhileIn}, or with its
+     * status after {@code maxWait} if it has not moved on by then. Completes with no status if there is no such
+     * charge. {@code maxWait} is capped at {@code frontendLongPollMaxWaitInMillis}. The current status is read on the
+     * calling thread.
+     */
+    public CompletableFuture<Optional<ChargeStatus>> awaitStatusChange(String externalId, Set<ChargeStatus> waitWhileIn,
+                                                                       Duration requestedWait) {
+        Duration maxWait = requestedWait.compareTo(this.maxWait) > 0 ? this.maxWait : requestedWait;
+        CompletableFuture<Optional<ChargeStatus>> result = new CompletableFuture<>();
+        ChargeStatusWaiters.Registration registration = chargeStatusWaiters.register(externalId,
+                status -> !waitWhileIn.contains(status),
+                () -> scheduler.execute(() -> checkUntilCommitted(externalId, waitWhileIn, result)));
+        result.whenComplete((status, error) -> registration.cancel());
+
+        Optional<ChargeStatus> currentStatus = chargeDao.findStatusByExternalId(externalId);
+        if (hasMovedOn(currentStatus, waitWhileIn) || maxWait.isZero()) {
+            result.complete(currentStatus);
+            return result;
+        }
+
+        ScheduledFuture<?> timeout = scheduler.schedule(() -> complete(externalId, result), maxWait.toMillis(), TimeUnit.MILLISECONDS);
+        result.whenComplete((status, error) -> timeout.cancel(false));
+        return result;
+    }
+
+    @Override
+    public void start() {
+    }
+
+    @Override
+    public void stop() {
+        scheduler.shutdown();
+        try {
+            if (!scheduler.awaitTermination(SHUTDOWN_AWAIT_TERMINATION_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                scheduler.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            scheduler.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void checkUntilCommitted(String externalId, Set<ChargeStatus> waitWhileIn,
+                                     CompletableFuture<Optional<ChargeStatus>> result) {
+        if (result.isDone()) {
+            return;
+        }
+        try {
+            Optional<ChargeStatus> status = readStatus(externalId);
+            if (hasMovedOn(status, waitWhileIn)) {
+                result.complete(status);
+            } else {
+                // Changes made on this node are announced before they commit
+                scheduler.schedule(() -> checkUntilCommitted(externalId, waitWhileIn, result),
+                        ChargeStatusWaiters.COMMIT_RECHECK_INTERVAL.toMillis(), TimeUnit.MILLISECONDS);
+            }
+        } catch (RuntimeException e) {
+            result.completeExceptionally(e);
+        }
+    }
+
+    private void complete(String externalId, CompletableFuture<Optional<ChargeStatus>> result) {
+        try {
+            result.complete(readStatus(externalId));
+        } catch (RuntimeException e) {
+            result.completeExceptionally(e);
+        }
+    }
+
+    private Optional<ChargeStatus> readStatus(String externalId) {
+        unitOfWork.begin();
+        try {
+            return chargeDao.findStatusByExternalId(externalId);
+        } finally {
+            unitOfWork.end();
+        }
+    }
+
+    private static boolean hasMovedOn(Optional<ChargeStatus> status, Set<ChargeStatus> waitWhileIn) {
+        return status.map(s -> !waitWhileIn.contains(s)).orElse(true);
+    }
+}
@@ -0,0 +1,77 @@
+package uk.gov.pay.connector.charge.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import uk.gov.pay.connector.charge.dao.ChargeDao;
+import uk.gov.pay.connector.charge.model.domain.ChargeStatus;
+import uk.gov.pay.connector.util.PostgresNotificationListener;
+
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import java.util.EnumSet;
+import java.util.Set;
+
+import static uk.gov.pay.connector.charge.model.domain.ChargeStatus.AUTHORISATION_3DS_READY;
+import static uk.gov.pay.connector.charge.model.domain.ChargeStatus.AUTHORISATION_READY;
+
+/**
+ * Tells {@link ChargeStatusWaiters} about charge status changes.
+ * <p>
+ * When {@link PostgresNotificationListener} is enabled a change is sent as a Postgres notification on
+ * {@link #CHANNEL} as part of the transaction that makes it, so waiters on every connector node are woken once the
+ * change commits. Otherwise only waiters on this node are woken, straight away.
+ * <p>
+ * Only the changes that something can be waiting for are told: a charge reaching {@code AUTHORISATION_3DS_READY},
+ * and a charge leaving {@code AUTHORISATION_READY} or {@code AUTHORISATION_3DS_READY} with the outcome of its
+ * authorisation. Every other change is ignored, so most transitions do not send a notification.
+ */
+@Singleton
+public class ChargeStatusNotifier {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ChargeStatusNotifier.class);
+
+    static final String CHANNEL = "charge_status_changed";
+    private static final char PAYLOAD_SEPARATOR = ':';
+    private static final Set<ChargeStatus> AUTHORISATION_IN_PROGRESS_STATUSES = EnumSet.of(AUTHORISATION_READY, AUTHORISATION_3DS_READY);
+
+    private final ChargeDao chargeDao;
+    private final ChargeStatusWaiters chargeStatusWaiters;
+    private final boolean notifyAllNodes;
+
+    @Inject
+    public ChargeStatusNotifier(ChargeDao chargeDao, ChargeStatusWaiters chargeStatusWaiters,
+                                PostgresNotificationListener postgresNotificationListener) {
+        this.chargeDao = chargeDao;
+        this.chargeStatusWaiters = chargeStatusWaiters;
+        this.notifyAllNodes = postgresNotificationListener.isEnabled();
+        if (notifyAllNodes) {
+            // Changes made while there was no listening connection were missed
+            postgresNotificationListener.subscribe(CHANNEL, this::dispatch, chargeStatusWaiters::recheckAll);
+        }
+    }
+
+    public void notifyStatusChange(String externalId, ChargeStatus fromStatus, ChargeStatus status) {
+        if (!mayBeWaitedFor(fromStatus, status)) {
+            return;
+        }
+        if (notifyAllNodes) {
+            chargeDao.sendNotification(CHANNEL, externalId + PAYLOAD_SEPARATOR + status.name());
+        } else {
+            chargeStatusWaiters.statusChanged(externalId, status);
+        }
+    }
+
+    private static boolean mayBeWaitedFor(ChargeStatus fromStatus, ChargeStatus status) {
+        return status == AUTHORISATION_3DS_READY || AUTHORISATION_IN_PROGRESS_STATUSES.contains(fromStatus);
+    }
+
+    private void dispatch(String payload) {
+        int separator = payload.lastIndexOf(PAYLOAD_SEPARATOR);
+        try {
+            chargeStatusWaiters.statusChanged(payload.substring(0, separator),
+                    ChargeStatus.valueOf(payload.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            LOGGER.warn("Ignoring charge status notification with unexpected payload '{}'", payload);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package uk.gov.pay.connector.charge.service;
+
+import uk.gov.pay.connector.charge.model.domain.ChargeStatus;
+
+import jakarta.inject.Singleton;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Lets a thread wait for a charge to reach a status without polling the database. {@link ChargeStatusNotifier}
+ * tells this registry about status changes and it wakes the threads waiting for them.
+ * <p>
+ * A wake-up is only a hint: the waiting thread checks the status it is given by the caller before returning, because
+ * a change made on this node is announced before its transaction commits. If the change is not visible yet the
+ * thread checks again every {@link #COMMIT_RECHECK_INTERVAL} until it is or the wait times out.
+ */
+@Singleton
+public class ChargeStatusWaiters {
+
+    static final Duration COMMIT_RECHECK_INTERVAL = Duration.ofMillis(50);
+
+    private final ConcurrentMap<String, Set<Waiter>> waiters = new ConcurrentHashMap<>();
+
+    /**
+     * Waits up to {@code timeout} for the charge to reach {@code targetStatus}.
+     *
+     * @param currentStatus reads the committed status of the charge
+     * @return whether the charge reached {@code targetStatus} before the timeout
+     */
+    public boolean awaitStatus(String externalId, ChargeStatus targetStatus, Duration timeout,
+                               Supplier<Optional<ChargeStatus>> currentStatus) {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        Semaphore signal = new Semaphore(0);
+        Registration registration = register(externalId, status -> status == targetStatus, signal::release);
+        try {
+            boolean woken = false;
+            while (!hasReached(targetStatus, currentStatus)) {
+                long remainingNanos = deadline - System.nanoTime();
+                if (remainingNanos <= 0) {
+                    return false;
+                }
+                long waitNanos = woken ? Math.min(remainingNanos, COMMIT_RECHECK_INTERVAL.toNanos()) : remainingNanos;
+                woken = signal.tryAcquire(waitNanos, TimeUnit.NANOSECONDS) || woken;
+            }
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            registration.cancel();
+        }
+    }
+
+    /**
+     * Runs {@code onWake} whenever the charge moves to a status that matches {@code wakeOn}, until the returned
+     * registration is cancelled. {@code onWake} runs on the thread that reports the change, so it must not block.
+     */
+    public Registration register(String externalId, Predicate<ChargeStatus> wakeOn, Runnable onWake) {
+        Waiter waiter = new Waiter(wakeOn, onWake);
+        // Added inside compute so that a concurrent cancel cannot remove the set between it being looked up and added to
+        waiters.compute(externalId, (id, waitersForCharge) -> {
+            waitersForCharge = waitersForCharge == null ? ConcurrentHashMap.newKeySet() : waitersForCharge;
+            waitersForCharge.add(waiter);
+            return waitersForCharge;
+        });
+        return () -> waiters.computeIfPresent(externalId, (id, waitersForCharge) -> {
+            waitersForCharge.remove(waiter);
+            return waitersForCharge.isEmpty() ? null : waitersForCharge;
+        });
+    }
+
+    public void statusChanged(String externalId, ChargeStatus status) {
+        Set<Waiter> waitersForCharge = waiters.get(externalId);
+        if (waitersForCharge != null) {
+            waitersForCharge.stream()
+                    .filter(waiter -> waiter.wakeOn.test(status))
+                    .forEach(waiter -> waiter.onWake.run());
+        }
+    }
+
+    /**
+     * Wakes every waiting thread to check its charge, for when status changes may have been missed
+     */
+    public void recheckAll() {
+        waiters.values().forEach(waitersForCharge -> waitersForCharge.forEach(waiter -> waiter.onWake.run()));
+    }
+
+    private static boolean hasReached(ChargeStatus targetStatus, Supplier<Optional<ChargeStatus>> currentStatus) {
+        return currentStatus.get().filter(status -> status == targetStatus).isPresent();
+    }
+
+    public interface Registration {
+        void cancel();
+    }
+
+    private static final class Waiter {
+        private final Predicate<ChargeStatus> wakeOn;
+        private final Runnable onWake;
+
+        private Waiter(Predicate<ChargeStatus> wakeOn, Runnable onWake) {
+            this.wakeOn = wakeOn;
+            this.onWake = onWake;
+        }
+    }
+}
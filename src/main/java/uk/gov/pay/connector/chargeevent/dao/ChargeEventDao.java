@@ -6,6 +6,7 @@ import uk.gov.pay.connector.charge.model.domain.ChargeEntity;
 import uk.gov.pay.connector.charge.model.domain.ChargeStatus;
 import uk.gov.pay.connector.chargeevent.model.domain.ChargeEventEntity;
 import uk.gov.pay.connector.common.dao.JpaDao;
+import uk.gov.pay.connector.common.model.domain.UTCDateTimeConverter;
 
 import jakarta.inject.Inject;
 import jakarta.persistence.EntityManager;
@@ -22,6 +23,10 @@ public class ChargeEventDao extends JpaDao<ChargeEventEntity> {
         super(entityManager);
     }
 
+    /**
+     * Inserts an event for the current status of the charge. The insert is flushed straight away so that the
+     * database-generated updated date, which is returned by the INSERT statement, can be used to emit the event.
+     */
     public ChargeEventEntity persistChargeEventOf(ChargeEntity chargeEntity, ZonedDateTime gatewayEventDate) {
         var chargeEventEntity = aChargeEventEntity()
                 .withChargeEntity(chargeEntity)
@@ -30,23 +35,28 @@ public class ChargeEventDao extends JpaDao<ChargeEventEntity> {
                 .build();
         this.persist(chargeEventEntity);
         this.flush();
-        this.forceRefresh(chargeEventEntity);
         return chargeEventEntity;
     }
 
-    public List<ChargeEventEntity> findChargeEvents(ZonedDateTime startDate, ZonedDateTime endDate, int page, int size) {
-        String query = "SELECT ce FROM ChargeEventEntity ce " +
-                "WHERE ce.updated >= :startDate and ce.updated <= :endDate" +
-                " order by ce.updated asc";
+    /**
+     * Returns up to size charge events updated no later than endDate, ordered by (updated, id) and starting after the
+     * (afterUpdated, afterId) cursor. Start a scan with the start date and an id of 0, then pass the last event of
+     * each page as the cursor for the next.
+     */
+    public List<ChargeEventEntity> findChargeEvents(ZonedDateTime afterUpdated, long afterId, ZonedDateTime endDate, int size) {
+        String query = "SELECT * FROM charge_events ce " +
+                "WHERE (ce.updated, ce.id) > (?1, ?2) AND ce.updated <= ?3" +
+                " ORDER BY ce.updated, ce.id" +
+                " LIMIT ?4";
 
-        int firstResult = (page - 1) * size;
+        UTCDateTimeConverter utcDateTimeConverter = new UTCDateTimeConverter();
 
         return entityManager.get()
-                .createQuery(query, ChargeEventEntity.class)
-                .setParameter("startDate", startDate)
-                .setParameter("endDate", endDate)
-                .setFirstResult(firstResult)
-                .setMaxResults(size)
+                .createNativeQuery(query, ChargeEventEntity.class)
+                .setParameter(1, utcDateTimeConverter.convertToDatabaseColumn(afterUpdated))
+                .setParameter(2, afterId)
+                .setParameter(3, utcDateTimeConverter.convertToDatabaseColumn(endDate))
+                .setParameter(4, size)
                 .getResultList();
     }
 }
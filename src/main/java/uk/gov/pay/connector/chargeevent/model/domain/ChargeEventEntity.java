@@ -2,6 +2,7 @@ package uk.gov.pay.connector.chargeevent.model.domain;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import io.swagger.v3.oas.annotations.media.Schema;
+import org.eclipse.persistence.annotations.ReturnInsert;
 import uk.gov.pay.connector.charge.model.domain.ChargeEntity;
 import uk.gov.pay.connector.charge.model.domain.ChargeStatus;
 import uk.gov.pay.connector.common.model.domain.AbstractVersionedEntity;
@@ -45,7 +46,9 @@ public class ChargeEventEntity extends AbstractVersionedEntity {
     @Schema(example = "2022-05-27T09:17:19.162Z")
     private ZonedDateTime gatewayEventDate;
 
-    @Column(insertable = false, updatable = false)
+    // Set by the database when the event is inserted and returned by the INSERT statement
+    @Column(updatable = false)
+    @ReturnInsert(returnOnly = true)
     @Convert(converter = LocalDateTimeConverter.class)
     @Schema(example = "1656606727.366582000")
     private ZonedDateTime updated;
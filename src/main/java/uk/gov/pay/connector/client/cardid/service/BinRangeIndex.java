@@ -0,0 +1,191 @@
+package uk.gov.pay.connector.client.cardid.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import uk.gov.pay.connector.client.cardid.model.CardInformation;
+import uk.gov.pay.connector.client.cardid.model.CardidCardType;
+import uk.gov.pay.connector.gateway.model.PayersCardPrepaidStatus;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * An immutable index of the BIN ranges in a snapshot exported by card-id, which finds the card information for a
+ * card number with a binary search over the ranges.
+ * <p>
+ * A snapshot is a CSV file with one range per line, sorted or not, as
+ * {@code min,max,brand,label,type,prepaid,corporate}, where {@code min} and {@code max} are the first digits of the
+ * lowest and highest card numbers in the range, {@code type} is {@code D}, {@code C} or {@code CD} and
+ * {@code prepaid} is a {@link PayersCardPrepaidStatus}. A first line starting with {@code min} and lines starting
+ * with {@code #} are ignored. Lines that cannot be parsed are skipped.
+ * <p>
+ * Ranges may overlap, for example when a range for a few BINs sits inside a wider range for the rest of the brand.
+ * Card numbers in more than one range are not found, so they are looked up with card-id instead, since the snapshot
+ * does not say which of the ranges is right for them. The parts of the overlapping ranges that only one range covers
+ * are still found.
+ */
+public class BinRangeIndex {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BinRangeIndex.class);
+
+    static final int PREFIX_LENGTH = 11;
+
+    private final long[] rangeStarts;
+    private final long[] rangeEnds;
+    private final CardInformation[] cardInformation;
+    private final Instant createdAt;
+
+    private BinRangeIndex(long[] rangeStarts, long[] rangeEnds, CardInformation[] cardInformation, Instant createdAt) {
+        this.rangeStarts = rangeStarts;
+        this.rangeEnds = rangeEnds;
+        this.cardInformation = cardInformation;
+        this.createdAt = createdAt;
+    }
+
+    public static BinRangeIndex parse(BufferedReader snapshot, Instant createdAt) throws IOException {
+        List<Range> ranges = new ArrayList<>();
+        // Many ranges share the same card information, so only keep one copy of each
+        Map<CardInformation, CardInformation> distinctCardInformation = new HashMap<>();
+        int skipped = 0;
+        String line;
+        while ((line = snapshot.readLine()) != null) {
+            if (line.isBlank() || line.startsWith("#") || (ranges.isEmpty() && line.startsWith("min"))) {
+                continue;
+            }
+            Optional<Range> range = parseRange(line, distinctCardInformation);
+            if (range.isPresent()) {
+                ranges.add(range.get());
+            } else {
+                skipped++;
+            }
+        }
+
+        // Split the ranges where any of them starts or ends, keeping the parts covered by exactly one range. While
+        // only one range covers a part, the sum of the indexes of the ranges covering it is the index of that range.
+        List<Boundary> boundaries = new ArrayList<>(ranges.size() * 2);
+        for (int i = 0; i < ranges.size(); i++) {
+            boundaries.add(new Boundary(ranges.get(i).start(), i, 1));
+            boundaries.add(new Boundary(ranges.get(i).end() + 1, i, -1));
+        }
+        boundaries.sort(Comparator.comparingLong(Boundary::position));
+
+        long[] rangeStarts = new long[boundaries.size()];
+        long[] rangeEnds = new long[boundaries.size()];
+        CardInformation[] cardInformation = new CardInformation[boundaries.size()];
+        int size = 0;
+        int overlapping = 0;
+        int covering = 0;
+        long coveringIndexSum = 0;
+        int next = 0;
+        while (next < boundaries.size()) {
+            long position = boundaries.get(next).position();
+            for (; next < boundaries.size() && boundaries.get(next).position() == position; next++) {
+                covering += boundaries.get(next).change();
+                coveringIndexSum += (long) boundaries.get(next).change() * boundaries.get(next).rangeIndex();
+            }
+            if (covering == 1) {
+                rangeStarts[size] = position;
+                rangeEnds[size] = boundaries.get(next).position() - 1;
+                cardInformation[size] = ranges.get((int) coveringIndexSum).cardInformation();
+                size++;
+            } else if (covering > 1) {
+                overlapping++;
+            }
+        }
+
+        if (skipped > 0) {
+            LOGGER.warn("Skipped {} invalid BIN ranges in card-id snapshot", skipped);
+        }
+        if (overlapping > 0) {
+            LOGGER.warn("Found {} spans of card numbers in more than one BIN range in card-id snapshot, which will be looked up with card-id", overlapping);
+        }
+        return new BinRangeIndex(Arrays.copyOf(rangeStarts, size), Arrays.copyOf(rangeEnds, size),
+                Arrays.copyOf(cardInformation, size), createdAt);
+    }
+
+    public Optional<CardInformation> find(String cardNumber) {
+        if (cardNumber == null || cardNumber.length() < PREFIX_LENGTH) {
+            return Optional.empty();
+        }
+        long prefix = 0;
+        for (int i = 0; i < PREFIX_LENGTH; i++) {
+            char digit = cardNumber.charAt(i);
+            if (digit < '0' || digit > '9') {
+                return Optional.empty();
+            }
+            prefix = prefix * 10 + (digit - '0');
+        }
+
+        int insertionPoint = Arrays.binarySearch(rangeStarts, prefix);
+        int index = insertionPoint >= 0 ? insertionPoint : -insertionPoint - 2;
+        if (index >= 0 && prefix <= rangeEnds[index]) {
+            return Optional.of(cardInformation[index]);
+        }
+        return Optional.empty();
+    }
+
+    public int size() {
+        return rangeStarts.length;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    private static Optional<Range> parseRange(String line, Map<CardInformation, CardInformation> distinctCardInformation) {
+        String[] fields = line.split(",", -1);
+        if (fields.length != 7) {
+            return Optional.empty();
+        }
+        try {
+            long start = toPrefix(fields[0].trim(), '0');
+            long end = toPrefix(fields[1].trim(), '9');
+            if (start > end) {
+                return Optional.empty();
+            }
+            var cardInformation = new CardInformation(
+                    fields[2].trim(),
+                    toCardidCardType(fields[4].trim()),
+                    fields[3].trim(),
+                    Boolean.parseBoolean(fields[6].trim()),
+                    PayersCardPrepaidStatus.valueOf(fields[5].trim()));
+            return Optional.of(new Range(start, end, distinctCardInformation.computeIfAbsent(cardInformation, c -> c)));
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+
+    private static long toPrefix(String digits, char padding) {
+        if (digits.isEmpty() || !digits.chars().allMatch(c -> c >= '0' && c <= '9')) {
+            throw new IllegalArgumentException("Not a BIN: " + digits);
+        }
+        StringBuilder prefix = new StringBuilder(digits.length() > PREFIX_LENGTH ? digits.substring(0, PREFIX_LENGTH) : digits);
+        while (prefix.length() < PREFIX_LENGTH) {
+            prefix.append(padding);
+        }
+        return Long.parseLong(prefix.toString());
+    }
+
+    private static CardidCardType toCardidCardType(String type) {
+        return switch (type) {
+            case "D" -> CardidCardType.DEBIT;
+            case "C" -> CardidCardType.CREDIT;
+            case "CD" -> CardidCardType.CREDIT_OR_DEBIT;
+            default -> throw new IllegalArgumentException("Unknown card type: " + type);
+        };
+    }
+
+    private record Range(long start, long end, CardInformation cardInformation) {
+    }
+
+    private record Boundary(long position, int rangeIndex, int change) {
+    }
+}
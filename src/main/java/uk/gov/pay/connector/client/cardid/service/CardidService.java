@@ -20,14 +20,20 @@ public class CardidService {
 
     private final Client client;
     private final String cardidUrl;
+    private final LocalBinLookup localBinLookup;
 
     @Inject
-    public CardidService(Client client, ConnectorConfiguration configuration) {
+    public CardidService(Client client, ConnectorConfiguration configuration, LocalBinLookup localBinLookup) {
         this.client = client;
         this.cardidUrl = configuration.getCardidBaseUrl();
+        this.localBinLookup = localBinLookup;
     }
     
     public Optional<CardInformation> getCardInformation(String cardNumber) {
+        return localBinLookup.find(cardNumber).or(() -> getCardInformationFromCardid(cardNumber));
+    }
+
+    private Optional<CardInformation> getCardInformationFromCardid(String cardNumber) {
         UriBuilder uri = UriBuilder.fromPath(cardidUrl).path(CARD_INFORMATION_PATH);
         var cardInformationRequest = new CardInformationRequest(cardNumber);
         Response response = client
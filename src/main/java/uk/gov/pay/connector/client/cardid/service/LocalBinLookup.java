@@ -0,0 +1,126 @@
+package uk.gov.pay.connector.client.cardid.service;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.dropwizard.lifecycle.Managed;
+import io.prometheus.client.Counter;
+import io.prometheus.client.Gauge;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import uk.gov.pay.connector.app.ConnectorConfiguration;
+import uk.gov.pay.connector.app.config.CardidBinRangeConfig;
+import uk.gov.pay.connector.client.cardid.model.CardInformation;
+
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.InstantSource;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Finds card information in a {@link BinRangeIndex} built from the BIN range snapshot exported by card-id, so that
+ * most cards do not need a request to card-id.
+ * <p>
+ * The snapshot file is checked every {@code reloadIntervalInSeconds} and, if it has been modified, a new index is
+ * built and swapped in; lookups carry on using the old index until then. If the new snapshot cannot be read the old
+ * index is kept.
+ */
+@Singleton
+public class LocalBinLookup implements Managed {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LocalBinLookup.class);
+    private static final int SHUTDOWN_AWAIT_TERMINATION_TIMEOUT_SECONDS = 10;
+
+    private static final Counter lookups = Counter.build()
+            .name("cardid_bin_range_lookups_total")
+            .help("Number of card lookups answered from the local BIN range snapshot (hit) or needing a request to card-id (miss)")
+            .labelNames("result")
+            .register();
+
+    private static final Gauge snapshotAge = Gauge.build()
+            .name("cardid_bin_range_snapshot_age_seconds")
+            .help("Time since the BIN range snapshot in use was exported by card-id")
+            .register();
+
+    private static final Gauge snapshotRanges = Gauge.build()
+            .name("cardid_bin_range_snapshot_ranges")
+            .help("Number of BIN ranges in the snapshot in use")
+            .register();
+
+    private final Optional<Path> snapshotPath;
+    private final Duration reloadInterval;
+    private final InstantSource instantSource;
+    private final ScheduledExecutorService reloadExecutor = Executors.newSingleThreadScheduledExecutor(
+            new ThreadFactoryBuilder().setNameFormat("cardid-bin-range-reload-%d").setDaemon(true).build());
+    private volatile BinRangeIndex index;
+
+    @Inject
+    public LocalBinLookup(ConnectorConfiguration configuration, InstantSource instantSource) {
+        this(configuration.getCardidBinRangeConfig(), instantSource);
+    }
+
+    public LocalBinLookup(CardidBinRangeConfig config, InstantSource instantSource) {
+        this.snapshotPath = Optional.ofNullable(config.getSnapshotPath()).filter(path -> !path.isBlank()).map(Path::of);
+        this.reloadInterval = Duration.ofSeconds(config.getReloadIntervalInSeconds());
+        this.instantSource = instantSource;
+    }
+
+    public Optional<CardInformation> find(String cardNumber) {
+        BinRangeIndex currentIndex = index;
+        if (currentIndex == null) {
+            return Optional.empty();
+        }
+        Optional<CardInformation> cardInformation = currentIndex.find(cardNumber);
+        lookups.labels(cardInformation.isPresent() ? "hit" : "miss").inc();
+        return cardInformation;
+    }
+
+    @Override
+    public void start() {
+        snapshotPath.ifPresent(path -> {
+            reloadIfModified(path);
+            reloadExecutor.scheduleWithFixedDelay(() -> reloadIfModified(path),
+                    reloadInterval.toSeconds(), reloadInterval.toSeconds(), TimeUnit.SECONDS);
+        });
+    }
+
+    @Override
+    public void stop() {
+        reloadExecutor.shutdown();
+        try {
+            if (!reloadExecutor.awaitTermination(SHUTDOWN_AWAIT_TERMINATION_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                reloadExecutor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            reloadExecutor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    void reloadIfModified(Path path) {
+        try {
+            Instant modifiedAt = Files.getLastModifiedTime(path).toInstant();
+            BinRangeIndex currentIndex = index;
+            if (currentIndex == null || modifiedAt.isAfter(currentIndex.getCreatedAt())) {
+                try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+                    index = BinRangeIndex.parse(reader, modifiedAt);
+                }
+                LOGGER.info("Loaded {} BIN ranges from card-id snapshot {}", index.size(), path);
+                snapshotRanges.set(index.size());
+            }
+        } catch (IOException | RuntimeException e) {
+            LOGGER.error("Failed to load card-id BIN range snapshot {}: {}", path, e.getMessage());
+        }
+        if (index != null) {
+            snapshotAge.set(Duration.between(index.getCreatedAt(), instantSource.instant()).toSeconds());
+        }
+    }
+}
@@ -39,13 +39,16 @@ public class LedgerService {
     private final Client postEventClient;
     private final String ledgerUrl;
     private final UriBuilder eventUri;
+    private final LedgerTransactionCache ledgerTransactionCache;
 
     @Inject
-    public LedgerService(Client client, @Named("ledgerClient") Client ledgerClient, ConnectorConfiguration configuration) {
+    public LedgerService(Client client, @Named("ledgerClient") Client ledgerClient, ConnectorConfiguration configuration,
+                         LedgerTransactionCache ledgerTransactionCache) {
         this.ledgerUrl = configuration.getLedgerBaseUrl();
         this.eventUri = UriBuilder.fromPath(this.ledgerUrl).path("/v1/event");
         this.client = client;
         this.postEventClient = ledgerClient;
+        this.ledgerTransactionCache = ledgerTransactionCache;
     }
 
     public Optional<LedgerTransaction> getTransaction(String id) {
@@ -103,6 +106,42 @@ public class LedgerService {
         }
     }
 
+    /**
+     * Like {@link #getTransaction(String)} but for a transaction that only exists in ledger, which is read from
+     * {@link LedgerTransactionCache} if it has been read before
+     */
+    public Optional<LedgerTransaction> getHistoricTransaction(String id) {
+        return ledgerTransactionCache.getTransaction(id, () -> getTransaction(id));
+    }
+
+    /**
+     * Like {@link #getTransactionForProviderAndGatewayTransactionId(String, String)} but for a transaction that only
+     * exists in ledger, which is read from {@link LedgerTransactionCache} if it has been read before
+     */
+    public Optional<LedgerTransaction> getHistoricTransactionForProviderAndGatewayTransactionId(String paymentGatewayName,
+                                                                                                String gatewayTransactionId) {
+        return ledgerTransactionCache.getTransactionForProviderAndGatewayTransactionId(paymentGatewayName, gatewayTransactionId,
+                () -> getTransactionForProviderAndGatewayTransactionId(paymentGatewayName, gatewayTransactionId));
+    }
+
+    /**
+     * Like {@link #getTransactionForGatewayAccount(String, Long)} but for a transaction that only exists in ledger,
+     * which is read from {@link LedgerTransactionCache} if it has been read before
+     */
+    public Optional<LedgerTransaction> getHistoricTransactionForGatewayAccount(String id, Long gatewayAccountId) {
+        return ledgerTransactionCache.getTransactionForGatewayAccount(id, gatewayAccountId,
+                () -> getTransactionForGatewayAccount(id, gatewayAccountId));
+    }
+
+    /**
+     * Like {@link #getRefundsForPayment(Long, String)} but for a payment that only exists in ledger, whose refunds are
+     * read from {@link LedgerTransactionCache} if they have been read before
+     */
+    public RefundTransactionsForPayment getHistoricRefundsForPayment(Long gatewayAccountId, String paymentExternalId) {
+        return ledgerTransactionCache.getRefundsForPayment(gatewayAccountId, paymentExternalId,
+                () -> getRefundsForPayment(gatewayAccountId, paymentExternalId));
+    }
+
     public Response postEvent(Event event) {
         return postEvents(List.of(event));
     }
@@ -112,6 +151,7 @@ public class LedgerService {
     }
     
     private Response postEvents(List<Event> events) {
+        events.forEach(ledgerTransactionCache::invalidate);
         String eventsList = events.stream().map(Event::getEventType).collect(Collectors.joining(", "));
         logger.info("Making POST request to send events to ledger for: [" + eventsList + "]", 
                 kv("events", events.stream().map(Event::toString).collect(Collectors.toList())));
@@ -134,6 +174,8 @@ public class LedgerService {
             return Optional.of(response.readEntity(LedgerTransaction.class));
         } 
         if (response.getStatus() == SC_NOT_FOUND) {
+            // close the unread body so the connection can go back to the keep-alive pool
+            response.close();
             return Optional.empty();
         }
         logger.error("Received error status code for GET transaction from ledger.", 
@@ -0,0 +1,228 @@
+package uk.gov.pay.connector.client.ledger.service;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.prometheus.client.Counter;
+import io.prometheus.client.Histogram;
+import uk.gov.pay.connector.app.ConnectorConfiguration;
+import uk.gov.pay.connector.app.config.LedgerCacheConfig;
+import uk.gov.pay.connector.client.ledger.model.LedgerTransaction;
+import uk.gov.pay.connector.client.ledger.model.RefundTransactionsForPayment;
+import uk.gov.pay.connector.events.model.Event;
+import uk.gov.pay.connector.events.model.dispute.DisputeEvent;
+import uk.gov.pay.connector.events.model.refund.RefundEvent;
+
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Caches historic transactions read from ledger, which are in a finished state and so only change when connector
+ * emits an event for them (for example when a payment is refunded). Transactions that are not found or not finished
+ * are not cached, and a list of refunds for a payment is only cached if every refund in it is finished.
+ * <p>
+ * Concurrent reads of the same transaction from the same ledger endpoint share a single request to ledger.
+ * <p>
+ * Emitting an event for a transaction (or for a refund or dispute of a payment) must call {@link #invalidate(Event)}.
+ * Ledger processes events some time after they are emitted, so a transaction is also not cached for
+ * {@code changeSettleTimeInSeconds} after it is invalidated. Only this node is told of the event, so transactions
+ * cached by other nodes expire after {@code expireAfterWriteInSeconds}.
+ */
+@Singleton
+public class LedgerTransactionCache {
+
+    static final Set<String> FINISHED_STATUSES = Set.of("success", "failed", "cancelled", "error");
+
+    private static final Counter cacheRequests = Counter.build()
+            .name("ledger_cache_requests_total")
+            .help("Number of reads from each ledger endpoint answered from the cache (hit), by a request to ledger " +
+                    "(miss) or by waiting for the same request made by another thread (coalesced)")
+            .labelNames("endpoint", "result")
+            .register();
+
+    private static final Histogram ledgerRequestDuration = Histogram.build()
+            .name("ledger_cache_load_duration_seconds")
+            .help("Time taken to read from each ledger endpoint on a cache miss")
+            .labelNames("endpoint")
+            .register();
+
+    private final Cache<String, LedgerTransaction> transactions;
+    private final Cache<GatewayTransactionKey, String> transactionIdsByGatewayTransactionId;
+    private final Cache<String, RefundsForPayment> refundsByPaymentExternalId;
+    private final Cache<String, Boolean> recentlyChanged;
+    private final ConcurrentMap<InFlightKey, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    @Inject
+    public LedgerTransactionCache(ConnectorConfiguration configuration) {
+        this(configuration.getLedgerCacheConfig());
+    }
+
+    public LedgerTransactionCache(LedgerCacheConfig config) {
+        this.transactions = CacheBuilder.newBuilder()
+                .maximumSize(config.getMaximumSize())
+                .expireAfterWrite(config.getExpireAfterWriteInSeconds(), TimeUnit.SECONDS)
+                .build();
+        this.transactionIdsByGatewayTransactionId = CacheBuilder.newBuilder()
+                .maximumSize(config.getMaximumSize())
+                .build();
+        this.refundsByPaymentExternalId = CacheBuilder.newBuilder()
+                .maximumSize(config.getMaximumSize())
+                .expireAfterWrite(config.getExpireAfterWriteInSeconds(), TimeUnit.SECONDS)
+                .build();
+        this.recentlyChanged = CacheBuilder.newBuilder()
+                .expireAfterWrite(config.getChangeSettleTimeInSeconds(), TimeUnit.SECONDS)
+                .build();
+    }
+
+    public Optional<LedgerTransaction> getTransaction(String transactionId, Supplier<Optional<LedgerTransaction>> ledgerRequest) {
+        return readThrough("transaction", transactionId,
+                () -> Optional.ofNullable(transactions.getIfPresent(transactionId)),
+                Optional::isPresent,
+                ledgerRequest,
+                transaction -> transaction.ifPresent(this::cacheIfFinished));
+    }
+
+    public Optional<LedgerTransaction> getTransactionForGatewayAccount(String transactionId, Long gatewayAccountId,
+                                                                       Supplier<Optional<LedgerTransaction>> ledgerRequest) {
+        // Ledger does not find a transaction for any other gateway account, so neither does the cache
+        return readThrough("transaction_for_gateway_account", new GatewayAccountTransactionKey(transactionId, gatewayAccountId),
+                () -> Optional.ofNullable(transactions.getIfPresent(transactionId))
+                        .filter(transaction -> String.valueOf(gatewayAccountId).equals(transaction.getGatewayAccountId())),
+                Optional::isPresent,
+                ledgerRequest,
+                transaction -> transaction.ifPresent(this::cacheIfFinished));
+    }
+
+    public Optional<LedgerTransaction> getTransactionForProviderAndGatewayTransactionId(String paymentGatewayName,
+                                                                                        String gatewayTransactionId,
+                                                                                        Supplier<Optional<LedgerTransaction>> ledgerRequest) {
+        var key = new GatewayTransactionKey(paymentGatewayName, gatewayTransactionId);
+        return readThrough("transaction_for_gateway_transaction_id", key,
+                () -> Optional.ofNullable(transactionIdsByGatewayTransactionId.getIfPresent(key)).map(transactions::getIfPresent),
+                Optional::isPresent,
+                ledgerRequest,
+                transaction -> transaction.filter(this::cacheIfFinished)
+                        .ifPresent(t -> transactionIdsByGatewayTransactionId.put(key, t.getTransactionId())));
+    }
+
+    public RefundTransactionsForPayment getRefundsForPayment(Long gatewayAccountId, String paymentExternalId,
+                                                             Supplier<RefundTransactionsForPayment> ledgerRequest) {
+        return readThrough("refunds_for_payment", new GatewayAccountTransactionKey(paymentExternalId, gatewayAccountId),
+                () -> Optional.ofNullable(refundsByPaymentExternalId.getIfPresent(paymentExternalId))
+                        .filter(refunds -> refunds.gatewayAccountId().equals(gatewayAccountId))
+                        .map(RefundsForPayment::refunds)
+                        .orElse(null),
+                Objects::nonNull,
+                ledgerRequest,
+                refunds -> {
+                    if (isSettled(paymentExternalId) && refunds.getTransactions() != null
+                            && refunds.getTransactions().stream().allMatch(LedgerTransactionCache::isFinished)) {
+                        refundsByPaymentExternalId.put(paymentExternalId, new RefundsForPayment(gatewayAccountId, refunds));
+                    }
+                });
+    }
+
+    public void invalidate(Event event) {
+        Stream.of(event.getResourceExternalId(), parentResourceExternalId(event))
+                .filter(Objects::nonNull)
+                .forEach(this::invalidate);
+    }
+
+    public void invalidate(String resourceExternalId) {
+        recentlyChanged.put(resourceExternalId, true);
+        transactions.invalidate(resourceExternalId);
+        refundsByPaymentExternalId.invalidate(resourceExternalId);
+    }
+
+    private boolean cacheIfFinished(LedgerTransaction transaction) {
+        if (isFinished(transaction) && isSettled(transaction.getTransactionId()) && isSettled(transaction.getParentTransactionId())) {
+            transactions.put(transaction.getTransactionId(), transaction);
+            return true;
+        }
+        return false;
+    }
+
+    private boolean isSettled(String resourceExternalId) {
+        return resourceExternalId == null || recentlyChanged.getIfPresent(resourceExternalId) == null;
+    }
+
+    private static boolean isFinished(LedgerTransaction transaction) {
+        return transaction.getState() != null && FINISHED_STATUSES.contains(transaction.getState().getStatus());
+    }
+
+    private static String parentResourceExternalId(Event event) {
+        if (event instanceof RefundEvent refundEvent) {
+            return refundEvent.getParentResourceExternalId();
+        }
+        if (event instanceof DisputeEvent disputeEvent) {
+            return disputeEvent.getParentResourceExternalId();
+        }
+        return null;
+    }
+
+    /**
+     * Returns what {@code cached} finds if {@code found} by it, otherwise makes the ledger request, or waits for the
+     * same request already being made by another thread, and passes the response to {@code cache}. The response is
+     * checked against {@link #recentlyChanged} after it is received, so a transaction invalidated while it was being
+     * read is not cached as it was before the change.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> T readThrough(String endpoint, Object key, Supplier<T> cached, Predicate<T> found,
+                              Supplier<T> ledgerRequest, Consumer<T> cache) {
+        T cachedValue = cached.get();
+        if (found.test(cachedValue)) {
+            cacheRequests.labels(endpoint, "hit").inc();
+            return cachedValue;
+        }
+
+        var inFlightKey = new InFlightKey(endpoint, key);
+        var request = new CompletableFuture<>();
+        CompletableFuture<Object> requestInFlight = inFlight.putIfAbsent(inFlightKey, request);
+        if (requestInFlight != null) {
+            cacheRequests.labels(endpoint, "coalesced").inc();
+            try {
+                return (T) requestInFlight.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException runtimeException ? runtimeException : e;
+            }
+        }
+
+        cacheRequests.labels(endpoint, "miss").inc();
+        Histogram.Timer requestTimer = ledgerRequestDuration.labels(endpoint).startTimer();
+        try {
+            T response = ledgerRequest.get();
+            cache.accept(response);
+            request.complete(response);
+            return response;
+        } catch (RuntimeException e) {
+            request.completeExceptionally(e);
+            throw e;
+        } finally {
+            requestTimer.observeDuration();
+            inFlight.remove(inFlightKey, request);
+        }
+    }
+
+    private record GatewayAccountTransactionKey(String transactionId, Long gatewayAccountId) {
+    }
+
+    private record GatewayTransactionKey(String paymentGatewayName, String gatewayTransactionId) {
+    }
+
+    private record InFlightKey(String endpoint, Object key) {
+    }
+
+    private record RefundsForPayment(Long gatewayAccountId, RefundTransactionsForPayment refunds) {
+    }
+}
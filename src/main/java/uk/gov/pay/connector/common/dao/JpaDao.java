@@ -42,6 +42,18 @@ public abstract class JpaDao<T> {
         }
     }
 
+    /**
+     * Sends a Postgres notification on the given channel. The notification is only delivered to listeners
+     * if and when the current transaction commits.
+     */
+    public void sendNotification(String channel, String payload) {
+        entityManager.get()
+                .createNativeQuery("SELECT pg_notify(?1, ?2)")
+                .setParameter(1, channel)
+                .setParameter(2, payload)
+                .getSingleResult();
+    }
+
     public void forceRefresh(final T object) {
         EntityManager anEntityManager = entityManager.get();
 
@@ -0,0 +1,13 @@
+package uk.gov.pay.connector.common.exception;
+
+import jakarta.ws.rs.WebApplicationException;
+
+import static java.lang.String.format;
+import static uk.gov.pay.connector.util.ResponseUtil.serviceUnavailableResponse;
+
+public class TooManyEmailsRuntimeException extends WebApplicationException {
+    public TooManyEmailsRuntimeException(String emailNotificationType, String paymentOrRefundExternalId, int retryAfterSeconds) {
+        super(serviceUnavailableResponse(format("Too many emails being sent for the service, %s email for %s not sent, retry later",
+                        emailNotificationType, paymentOrRefundExternalId), retryAfterSeconds));
+    }
+}
@@ -0,0 +1,13 @@
+package uk.gov.pay.connector.common.exception;
+
+import jakarta.ws.rs.WebApplicationException;
+
+import static java.lang.String.format;
+import static uk.gov.pay.connector.util.ResponseUtil.serviceUnavailableResponse;
+
+public class TooManyOperationsRuntimeException extends WebApplicationException {
+    public TooManyOperationsRuntimeException(String operationType, String gatewayName, int retryAfterSeconds) {
+        super(serviceUnavailableResponse(format("Too many %s operations in progress with %s, retry later", operationType, gatewayName),
+                retryAfterSeconds));
+    }
+}
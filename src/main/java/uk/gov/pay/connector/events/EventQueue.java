@@ -1,25 +1,43 @@
 package uk.gov.pay.connector.events;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.services.sqs.SqsClient;
+import software.amazon.awssdk.services.sqs.model.BatchResultErrorEntry;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchRequest;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchRequestEntry;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchResponse;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchResultEntry;
 import uk.gov.pay.connector.app.ConnectorConfiguration;
 import uk.gov.pay.connector.events.model.Event;
 import uk.gov.service.payments.commons.queue.exception.QueueException;
 import uk.gov.service.payments.commons.queue.sqs.SqsQueueService;
 
 import jakarta.inject.Inject;
+import java.util.ArrayList;
+import java.util.List;
 
 public class EventQueue {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(EventQueue.class);
+
+    static final int SQS_MAX_BATCH_SIZE = 10;
+
     private final SqsQueueService sqsQueueService;
+    private final SqsClient sqsClient;
     private final String eventQueueUrl;
     private final Boolean eventQueueEnabled;
 
     @Inject
     public EventQueue (
             SqsQueueService sqsQueueService,
+            SqsClient sqsClient,
             ConnectorConfiguration connectorConfiguration
     ) {
         this.sqsQueueService = sqsQueueService;
+        this.sqsClient = sqsClient;
         this.eventQueueUrl = connectorConfiguration.getSqsConfig().getEventQueueUrl();
         this.eventQueueEnabled = connectorConfiguration.getEventQueueConfig().getEventQueueEnabled();
     }
@@ -33,4 +51,63 @@ public class EventQueue {
             }
         }
     }
+
+    /**
+     * Sends the events with SQS SendMessageBatch requests of up to {@value #SQS_MAX_BATCH_SIZE} messages. Events that
+     * could not be serialised or sent are returned in {@link BatchEmitResult#failed()} rather than thrown, so the
+     * caller can retry just those.
+     */
+    public BatchEmitResult emitEvents(List<Event> events) {
+        if (!eventQueueEnabled) {
+            return new BatchEmitResult(List.copyOf(events), List.of());
+        }
+
+        List<Event> emitted = new ArrayList<>(events.size());
+        List<Event> failed = new ArrayList<>();
+        for (int start = 0; start < events.size(); start += SQS_MAX_BATCH_SIZE) {
+            sendBatch(events.subList(start, Math.min(start + SQS_MAX_BATCH_SIZE, events.size())), emitted, failed);
+        }
+        return new BatchEmitResult(emitted, failed);
+    }
+
+    private void sendBatch(List<Event> batch, List<Event> emitted, List<Event> failed) {
+        List<SendMessageBatchRequestEntry> entries = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            Event event = batch.get(i);
+            try {
+                entries.add(SendMessageBatchRequestEntry.builder()
+                        .id(String.valueOf(i))
+                        .messageBody(event.toJsonString())
+                        .build());
+            } catch (JsonProcessingException e) {
+                LOGGER.warn("Error serialising event to json: {} [externalId={}]", e.getMessage(), event.getResourceExternalId());
+                failed.add(event);
+            }
+        }
+        if (entries.isEmpty()) {
+            return;
+        }
+
+        try {
+            SendMessageBatchResponse response = sqsClient.sendMessageBatch(SendMessageBatchRequest.builder()
+                    .queueUrl(eventQueueUrl)
+                    .entries(entries)
+                    .build());
+            for (SendMessageBatchResultEntry entry : response.successful()) {
+                emitted.add(batch.get(Integer.parseInt(entry.id())));
+            }
+            for (BatchResultErrorEntry entry : response.failed()) {
+                Event event = batch.get(Integer.parseInt(entry.id()));
+                LOGGER.warn("Failed to send event {} in batch due to {} {} [externalId={}]",
+                        event.getEventType(), entry.code(), entry.message(), event.getResourceExternalId());
+                failed.add(event);
+            }
+        } catch (SdkException e) {
+            LOGGER.warn("Failed to send batch of {} events due to {}", entries.size(), e.getMessage());
+            entries.forEach(entry -> failed.add(batch.get(Integer.parseInt(entry.id()))));
+        }
+    }
+
+    public record BatchEmitResult(List<Event> emitted, List<Event> failed) {
+    }
 }
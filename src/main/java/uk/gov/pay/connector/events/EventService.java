@@ -2,6 +2,7 @@ package uk.gov.pay.connector.events;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import uk.gov.pay.connector.client.ledger.service.LedgerTransactionCache;
 import uk.gov.pay.connector.events.dao.EmittedEventDao;
 import uk.gov.pay.connector.events.model.Event;
 import uk.gov.pay.connector.events.model.ResourceType;
@@ -10,17 +11,20 @@ import uk.gov.service.payments.commons.queue.exception.QueueException;
 import jakarta.inject.Inject;
 import java.time.Instant;
 import java.time.ZonedDateTime;
+import java.util.List;
 
 public class EventService {
     private static final Logger logger = LoggerFactory.getLogger(EventService.class);
 
     private EventQueue eventQueue;
     private EmittedEventDao emittedEventDao;
+    private LedgerTransactionCache ledgerTransactionCache;
 
     @Inject
-    public EventService(EventQueue eventQueue, EmittedEventDao emittedEventDao) {
+    public EventService(EventQueue eventQueue, EmittedEventDao emittedEventDao, LedgerTransactionCache ledgerTransactionCache) {
         this.eventQueue = eventQueue;
         this.emittedEventDao = emittedEventDao;
+        this.ledgerTransactionCache = ledgerTransactionCache;
     }
 
     public void emitEvent(Event event) {
@@ -49,6 +53,7 @@ public class EventService {
      * @throws QueueException
      */
     public void emitEvent(Event event, boolean swallowException) throws QueueException {
+        ledgerTransactionCache.invalidate(event);
         try {
             eventQueue.emitEvent(event);
         } catch (QueueException e) {
@@ -62,6 +67,7 @@ public class EventService {
     }
 
     public void emitAndRecordEvent(Event event, ZonedDateTime doNotRetryEmitUntilDate) {
+        ledgerTransactionCache.invalidate(event);
         try {
             eventQueue.emitEvent(event);
             emittedEventDao.recordEmission(event, doNotRetryEmitUntilDate);
@@ -78,10 +84,23 @@ public class EventService {
     }
 
     public void emitAndMarkEventAsEmitted(Event event) throws QueueException {
+        ledgerTransactionCache.invalidate(event);
         eventQueue.emitEvent(event);
         emittedEventDao.markEventAsEmitted(event);
     }
 
+    /**
+     * Emits the events in SQS batches and marks every event that was sent as emitted in a single update.
+     *
+     * @return the events that could not be sent
+     */
+    public List<Event> emitAndMarkEventsAsEmitted(List<Event> events) {
+        events.forEach(ledgerTransactionCache::invalidate);
+        EventQueue.BatchEmitResult result = eventQueue.emitEvents(events);
+        emittedEventDao.markEventsAsEmitted(result.emitted());
+        return result.failed();
+    }
+
     public void recordOfferedEvent(ResourceType resourceType, String externalId, String eventType, Instant eventDate) {
         this.recordOfferedEvent(resourceType, externalId, eventType, eventDate, null);
     }
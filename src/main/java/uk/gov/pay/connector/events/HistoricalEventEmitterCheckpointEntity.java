@@ -0,0 +1,71 @@
+package uk.gov.pay.connector.events;
+
+import uk.gov.service.payments.commons.jpa.InstantToUtcTimestampWithoutTimeZoneConverter;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import java.time.Instant;
+
+/**
+ * The last charge or refund id processed in one id range of a historical event emitter run, so that an interrupted
+ * run can carry on from where it stopped.
+ */
+@Entity
+@Table(name = "historical_event_emitter_checkpoints")
+@SequenceGenerator(name = "historical_event_emitter_checkpoints_id_seq",
+        sequenceName = "historical_event_emitter_checkpoints_id_seq", allocationSize = 1)
+public class HistoricalEventEmitterCheckpointEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "historical_event_emitter_checkpoints_id_seq")
+    private Long id;
+
+    @Column(name = "record_type")
+    private String recordType;
+
+    @Column(name = "range_start")
+    private Long rangeStart;
+
+    @Column(name = "range_end")
+    private Long rangeEnd;
+
+    @Column(name = "last_processed_id")
+    private Long lastProcessedId;
+
+    @Convert(converter = InstantToUtcTimestampWithoutTimeZoneConverter.class)
+    @Column(name = "updated_date")
+    private Instant updatedDate;
+
+    protected HistoricalEventEmitterCheckpointEntity() {
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getRecordType() {
+        return recordType;
+    }
+
+    public Long getRangeStart() {
+        return rangeStart;
+    }
+
+    public Long getRangeEnd() {
+        return rangeEnd;
+    }
+
+    public Long getLastProcessedId() {
+        return lastProcessedId;
+    }
+
+    public Instant getUpdatedDate() {
+        return updatedDate;
+    }
+}
@@ -1,6 +1,7 @@
 package uk.gov.pay.connector.events;
 
 import com.google.inject.persist.Transactional;
+import com.google.inject.persist.UnitOfWork;
 import jakarta.inject.Inject;
 import org.apache.commons.lang3.RandomUtils;
 import org.slf4j.Logger;
@@ -15,24 +16,35 @@ import uk.gov.pay.connector.charge.service.ChargeService;
 import uk.gov.pay.connector.chargeevent.dao.ChargeEventDao;
 import uk.gov.pay.connector.chargeevent.model.domain.ChargeEventEntity;
 import uk.gov.pay.connector.events.dao.EmittedEventDao;
+import uk.gov.pay.connector.events.dao.HistoricalEventEmitterCheckpointDao;
 import uk.gov.pay.connector.queue.statetransition.StateTransitionService;
 import uk.gov.pay.connector.refund.dao.RefundDao;
 import uk.gov.pay.connector.refund.model.domain.RefundEntity;
 import uk.gov.pay.connector.refund.model.domain.RefundHistory;
 import uk.gov.pay.connector.tasks.HistoricalEventEmitter;
+import uk.gov.pay.connector.tasks.RecordType;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.time.InstantSource;
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.OptionalLong;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static uk.gov.service.payments.logging.LoggingKeys.MDC_REQUEST_ID_KEY;
+import static uk.gov.pay.connector.tasks.RecordType.CHARGE;
+import static uk.gov.pay.connector.tasks.RecordType.REFUND;
 import static uk.gov.service.payments.logging.LoggingKeys.PAYMENT_EXTERNAL_ID;
 
 public class HistoricalEventEmitterService {
 
     private static final Logger logger = LoggerFactory.getLogger(HistoricalEventEmitterService.class);
-    private static final int PAGE_SIZE = 100;
     private final ChargeDao chargeDao;
     private final ChargeService chargeService;
     private final ChargeEventDao chargeEventDao;
@@ -41,14 +53,21 @@ public class HistoricalEventEmitterService {
     private final EventService eventService;
     private final RefundDao refundDao;
     private HistoricalEventEmitter historicalEventEmitter;
-    private final EventEmitterConfig eventEmitterConfig;
+    private final HistoricalEventEmitterCheckpointDao checkpointDao;
+    private final UnitOfWork unitOfWork;
+    private final InstantSource instantSource;
+    private final int workerThreads;
+    private final long rangeSize;
+    private final int pageSize;
     private long maxId;
 
     @Inject
     HistoricalEventEmitterService(ChargeDao chargeDao, RefundDao refundDao, ChargeEventDao chargeEventDao,
                                   EmittedEventDao emittedEventDao, StateTransitionService stateTransitionService,
                                   EventService eventService, ChargeService chargeService,
-                                  ConnectorConfiguration connectorConfiguration) {
+                                  ConnectorConfiguration connectorConfiguration,
+                                  HistoricalEventEmitterCheckpointDao checkpointDao, UnitOfWork unitOfWork,
+                                  InstantSource instantSource) {
         this.chargeDao = chargeDao;
         this.refundDao = refundDao;
         this.chargeEventDao = chargeEventDao;
@@ -56,18 +75,28 @@ public class HistoricalEventEmitterService {
         this.stateTransitionService = stateTransitionService;
         this.eventService = eventService;
         this.chargeService = chargeService;
-        this.eventEmitterConfig = connectorConfiguration.getEventEmitterConfig();
+        this.checkpointDao = checkpointDao;
+        this.unitOfWork = unitOfWork;
+        this.instantSource = instantSource;
+        EventEmitterConfig eventEmitterConfig = connectorConfiguration.getEventEmitterConfig();
+        this.workerThreads = eventEmitterConfig.getHistoricalEventEmitterWorkerThreads();
+        this.rangeSize = eventEmitterConfig.getHistoricalEventEmitterRangeSize();
+        this.pageSize = eventEmitterConfig.getHistoricalEventEmitterPageSize();
     }
 
-    public void emitHistoricEventsById(Long startId, OptionalLong maybeMaxId, Long doNotRetryEmitUntilDuration) {
+    /**
+     * Emits events for the charges with ids from startId to the max id (inclusive). The ids are split into ranges of
+     * historicalEventEmitterRangeSize which are worked on in parallel, each loading its charges a page at a time.
+     * When resume is set, ranges pick up after the last id checkpointed by an earlier run with the same start and max
+     * id and range size.
+     */
+    public void emitHistoricEventsById(Long startId, OptionalLong maybeMaxId, Long doNotRetryEmitUntilDuration,
+                                       boolean resume) {
         try {
             MDC.put(MDC_REQUEST_ID_KEY, "HistoricalEventEmitterWorker-" + RandomUtils.secure().randomLong(0, 10000));
-            initializeHistoricalEventEmitter(doNotRetryEmitUntilDuration);
             maxId = maybeMaxId.orElseGet(chargeDao::findMaxId);
             logger.info("Starting from {} up to {}", startId, maxId);
-            for (long i = startId; i <= maxId; i++) {
-                emitEventsFor(i);
-            }
+            emitInParallelRanges(CHARGE, startId, maxId, resume, doNotRetryEmitUntilDuration, this::emitEventsForChargePage);
         } catch (NullPointerException e) {
             for (StackTraceElement s : e.getStackTrace()) {
                 logger.error("Null pointer exception stack trace: {}", s);
@@ -92,21 +121,14 @@ public class HistoricalEventEmitterService {
         processRefundEvents(startDate, endDate);
     }
 
-    public void emitRefundEventsOnlyById(Long startId, OptionalLong maybeMaxId, Long doNotRetryEmitUntilDuration) {
+    public void emitRefundEventsOnlyById(Long startId, OptionalLong maybeMaxId, Long doNotRetryEmitUntilDuration,
+                                         boolean resume) {
         try {
             MDC.put(MDC_REQUEST_ID_KEY, "HistoricalEventEmitterWorker-" + RandomUtils.secure().randomLong(0, 10000));
-            initializeHistoricalEventEmitter(doNotRetryEmitUntilDuration);
 
             maxId = maybeMaxId.orElseGet(refundDao::findMaxId);
             logger.info("Starting emitting refunds from {} up to {}", startId, maxId);
-            for (long currentId = startId; currentId <= maxId; currentId++) {
-
-                long finalCurrentId = currentId;
-                refundDao.findById(currentId)
-                        .ifPresentOrElse(
-                                refundEntity -> historicalEventEmitter.processRefundEvents(refundEntity.getChargeExternalId(), false),
-                                () -> logger.info("Refund [{}/{}] - not found", finalCurrentId, maxId));
-            }
+            emitInParallelRanges(REFUND, startId, maxId, resume, doNotRetryEmitUntilDuration, this::emitEventsForRefundPage);
         } catch (Exception e) {
             logger.error("Error attempting to process refunds events on job [start={}] [max={}] [error={}]", startId, maxId, e);
         } finally {
@@ -118,10 +140,107 @@ public class HistoricalEventEmitterService {
 
 
     private void initializeHistoricalEventEmitter(Long doNotRetryEmitUntilDuration) {
-        this.historicalEventEmitter = new HistoricalEventEmitter(emittedEventDao, refundDao, chargeService,
+        this.historicalEventEmitter = newHistoricalEventEmitter(doNotRetryEmitUntilDuration);
+    }
+
+    private HistoricalEventEmitter newHistoricalEventEmitter(Long doNotRetryEmitUntilDuration) {
+        return new HistoricalEventEmitter(emittedEventDao, refundDao, chargeService,
                 eventService, stateTransitionService, doNotRetryEmitUntilDuration);
     }
 
+    private void emitInParallelRanges(RecordType recordType, long startId, long maxId, boolean resume,
+                                      Long doNotRetryEmitUntilDuration, PageEmitter pageEmitter) {
+        Instant startedAt = instantSource.instant();
+        AtomicLong rowsProcessed = new AtomicLong();
+        String requestId = MDC.get(MDC_REQUEST_ID_KEY);
+        List<IdRange> ranges = IdRange.split(startId, maxId, rangeSize);
+        logger.info("Emitting {} events in {} ranges of up to {} ids on {} workers",
+                recordType, ranges.size(), rangeSize, workerThreads);
+
+        try (ExecutorService workers = Executors.newFixedThreadPool(Math.min(workerThreads, Math.max(ranges.size(), 1)))) {
+            ranges.forEach(range -> workers.execute(() -> {
+                MDC.put(MDC_REQUEST_ID_KEY, requestId);
+                try {
+                    emitRange(recordType, range, resume, newHistoricalEventEmitter(doNotRetryEmitUntilDuration),
+                            pageEmitter, startedAt, rowsProcessed);
+                } catch (Exception e) {
+                    logger.error("Error emitting {} events for range [start={}] [end={}] [error={}]",
+                            recordType, range.start(), range.end(), e);
+                } finally {
+                    MDC.remove(MDC_REQUEST_ID_KEY);
+                }
+            }));
+        }
+
+        logger.info("Finished emitting {} events [start={}] [max={}] [ranges={}] [rows_processed={}] [rows_per_second={}]",
+                recordType, startId, maxId, ranges.size(), rowsProcessed.get(), rowsPerSecond(rowsProcessed.get(), startedAt));
+    }
+
+    private void emitRange(RecordType recordType, IdRange range, boolean resume, HistoricalEventEmitter emitter,
+                           PageEmitter pageEmitter, Instant startedAt, AtomicLong rowsProcessed) {
+        long afterId = resume
+                ? checkpointDao.findLastProcessedId(recordType, range.start(), range.end()).orElse(range.start() - 1)
+                : range.start() - 1;
+        if (afterId >= range.end()) {
+            logger.info("Skipping {} range [{}-{}] - completed by an earlier run", recordType, range.start(), range.end());
+            return;
+        }
+
+        List<Long> processedIds;
+        do {
+            unitOfWork.begin();
+            try {
+                processedIds = pageEmitter.emitPage(afterId, range.end(), emitter);
+            } finally {
+                unitOfWork.end();
+            }
+            afterId = processedIds.size() < pageSize ? range.end() : processedIds.getLast();
+            checkpointDao.saveCheckpoint(recordType, range.start(), range.end(), afterId, instantSource.instant());
+
+            long total = rowsProcessed.addAndGet(processedIds.size());
+            logger.info("Emitted {} events up to id {} of range [{}-{}] [rows_processed={}] [rows_per_second={}]",
+                    recordType, afterId, range.start(), range.end(), total, rowsPerSecond(total, startedAt));
+        } while (afterId < range.end());
+    }
+
+    private List<Long> emitEventsForChargePage(long afterId, long rangeEnd, HistoricalEventEmitter emitter) {
+        List<ChargeEntity> charges = chargeDao.findByIdRangeWithEvents(afterId, rangeEnd, pageSize);
+        Set<String> chargesWithRefunds = refundDao.findChargeExternalIdsWithRefunds(
+                charges.stream().map(ChargeEntity::getExternalId).toList());
+
+        List<Long> processedIds = new ArrayList<>(charges.size());
+        for (ChargeEntity charge : charges) {
+            try {
+                emitEventsFor(charge, chargesWithRefunds.contains(charge.getExternalId()), emitter);
+            } catch (Exception e) {
+                logger.error("Error attempting to process event for charge [chargeId={}] [error={}]", charge.getId(), e);
+            }
+            processedIds.add(charge.getId());
+        }
+        return processedIds;
+    }
+
+    private List<Long> emitEventsForRefundPage(long afterId, long rangeEnd, HistoricalEventEmitter emitter) {
+        List<RefundEntity> refunds = refundDao.findByIdRange(afterId, rangeEnd, pageSize);
+        refunds.stream()
+                .map(RefundEntity::getChargeExternalId)
+                .distinct()
+                .forEach(chargeExternalId -> {
+                    try {
+                        emitter.processRefundEvents(chargeExternalId, false);
+                    } catch (Exception e) {
+                        logger.error("Error attempting to process refund events for charge [chargeExternalId={}] [error={}]",
+                                chargeExternalId, e);
+                    }
+                });
+        return refunds.stream().map(RefundEntity::getId).toList();
+    }
+
+    private long rowsPerSecond(long rows, Instant startedAt) {
+        long elapsedMillis = Math.max(Duration.between(startedAt, instantSource.instant()).toMillis(), 1);
+        return rows * 1000 / elapsedMillis;
+    }
+
     // needs to be public for transactional annotation
     @Transactional
     public void emitEventsFor(long currentId) {
@@ -143,44 +262,45 @@ public class HistoricalEventEmitterService {
         }
     }
 
-    private void processRefundEvents(ZonedDateTime startDate, ZonedDateTime endDate) {
-        int page = 1;
-
-        while (true) {
-            List<RefundHistory> refundHistoryList =
-                    refundDao.getRefundHistoryByDateRange(startDate, endDate, page, PAGE_SIZE);
-
-            if (!refundHistoryList.isEmpty()) {
-                logger.info("Processing refunds events [page {}, no.of refund events {}] by date range", page,
-                        refundHistoryList.size());
-                refundHistoryList
-                        .stream()
-                        .map(RefundEntity::getChargeExternalId)
-                        .distinct()
-                        .forEach(this::processRefundsEventsForCharge);
-                page++;
-            } else {
-                break;
+    // needs to be public for transactional annotation
+    @Transactional
+    public void emitEventsFor(ChargeEntity charge, boolean hasRefunds, HistoricalEventEmitter emitter) {
+        try {
+            MDC.put(PAYMENT_EXTERNAL_ID, charge.getExternalId());
+            emitter.processPaymentEvents(charge, false);
+            if (hasRefunds) {
+                emitter.processRefundEvents(charge.getExternalId(), false);
             }
+        } finally {
+            MDC.remove(PAYMENT_EXTERNAL_ID);
+        }
+    }
+
+    private void processRefundEvents(ZonedDateTime startDate, ZonedDateTime endDate) {
+        KeysetBatchIterator<RefundHistory> batches = KeysetBatchIterator.refundHistory(refundDao, startDate, endDate, pageSize);
+
+        while (batches.hasNext()) {
+            List<RefundHistory> refundHistoryList = batches.next();
+            logger.info("Processing refunds events [from {}, no.of refund events {}] by date range",
+                    refundHistoryList.getFirst().getHistoryStartDate(), refundHistoryList.size());
+            refundHistoryList
+                    .stream()
+                    .map(RefundEntity::getChargeExternalId)
+                    .distinct()
+                    .forEach(this::processRefundsEventsForCharge);
         }
     }
 
     private void processChargeEvents(ZonedDateTime startDate, ZonedDateTime endDate) {
-        int page = 1;
-
-        while (true) {
-            List<ChargeEventEntity> chargeEvents = chargeEventDao.findChargeEvents(startDate, endDate, page, PAGE_SIZE);
-
-            if (!chargeEvents.isEmpty()) {
-                logger.info("Processing charge events [page {}, no.of.events {}] by date range", page,
-                        chargeEvents.size());
-                chargeEvents.stream().map(chargeEvent -> chargeEvent.getChargeEntity().getId())
-                        .distinct()
-                        .forEach(this::processChargeEventsForCharge);
-                page++;
-            } else {
-                break;
-            }
+        KeysetBatchIterator<ChargeEventEntity> batches = KeysetBatchIterator.chargeEvents(chargeEventDao, startDate, endDate, pageSize);
+
+        while (batches.hasNext()) {
+            List<ChargeEventEntity> chargeEvents = batches.next();
+            logger.info("Processing charge events [from {}, no.of.events {}] by date range",
+                    chargeEvents.getFirst().getUpdated(), chargeEvents.size());
+            chargeEvents.stream().map(chargeEvent -> chargeEvent.getChargeEntity().getId())
+                    .distinct()
+                    .forEach(this::processChargeEventsForCharge);
         }
     }
 
@@ -205,4 +325,23 @@ public class HistoricalEventEmitterService {
             MDC.remove(PAYMENT_EXTERNAL_ID);
         }
     }
+
+    @FunctionalInterface
+    private interface PageEmitter {
+        /**
+         * Emits events for up to a page of records with ids after afterId and up to rangeEnd, returning the ids of the
+         * records processed in id order.
+         */
+        List<Long> emitPage(long afterId, long rangeEnd, HistoricalEventEmitter emitter);
+    }
+
+    record IdRange(long start, long end) {
+        static List<IdRange> split(long startId, long maxId, long rangeSize) {
+            List<IdRange> ranges = new ArrayList<>();
+            for (long rangeStart = startId; rangeStart <= maxId; rangeStart += rangeSize) {
+                ranges.add(new IdRange(rangeStart, Math.min(rangeStart + rangeSize - 1, maxId)));
+            }
+            return ranges;
+        }
+    }
 }
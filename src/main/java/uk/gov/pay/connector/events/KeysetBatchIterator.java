@@ -0,0 +1,76 @@
+package uk.gov.pay.connector.events;
+
+import uk.gov.pay.connector.chargeevent.dao.ChargeEventDao;
+import uk.gov.pay.connector.chargeevent.model.domain.ChargeEventEntity;
+import uk.gov.pay.connector.refund.dao.RefundDao;
+import uk.gov.pay.connector.refund.model.domain.RefundHistory;
+
+import java.time.ZonedDateTime;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Walks the rows of a date range a batch at a time, reading each batch after the last row of the one before rather
+ * than at an offset. Each batch costs the same however far into the range it is, and rows written while the scan is
+ * running are neither skipped nor read twice.
+ * <p>
+ * Batches are read lazily, so the next batch is not queried until the previous one has been processed.
+ */
+class KeysetBatchIterator<T> implements Iterator<List<T>> {
+
+    @FunctionalInterface
+    interface BatchLoader<T> {
+        /**
+         * @param lastOfPreviousBatch the last row of the previous batch, or null for the first batch
+         */
+        List<T> loadBatchAfter(T lastOfPreviousBatch, int batchSize);
+    }
+
+    private final BatchLoader<T> batchLoader;
+    private final int batchSize;
+    private T lastRow;
+    private List<T> nextBatch;
+    private boolean exhausted;
+
+    KeysetBatchIterator(BatchLoader<T> batchLoader, int batchSize) {
+        this.batchLoader = batchLoader;
+        this.batchSize = batchSize;
+    }
+
+    static KeysetBatchIterator<ChargeEventEntity> chargeEvents(ChargeEventDao chargeEventDao, ZonedDateTime startDate,
+                                                               ZonedDateTime endDate, int batchSize) {
+        return new KeysetBatchIterator<>((last, size) -> last == null
+                ? chargeEventDao.findChargeEvents(startDate, 0L, endDate, size)
+                : chargeEventDao.findChargeEvents(last.getUpdated(), last.getId(), endDate, size),
+                batchSize);
+    }
+
+    static KeysetBatchIterator<RefundHistory> refundHistory(RefundDao refundDao, ZonedDateTime startDate,
+                                                            ZonedDateTime endDate, int batchSize) {
+        return new KeysetBatchIterator<>((last, size) -> last == null
+                ? refundDao.getRefundHistoryByDateRange(startDate, 0L, 0L, endDate, size)
+                : refundDao.getRefundHistoryByDateRange(last.getHistoryStartDate(), last.getId(), last.getVersion(), endDate, size),
+                batchSize);
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (nextBatch == null && !exhausted) {
+            nextBatch = batchLoader.loadBatchAfter(lastRow, batchSize);
+            exhausted = nextBatch.size() < batchSize;
+        }
+        return nextBatch != null && !nextBatch.isEmpty();
+    }
+
+    @Override
+    public List<T> next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        List<T> batch = nextBatch;
+        lastRow = batch.getLast();
+        nextBatch = null;
+        return batch;
+    }
+}
@@ -2,14 +2,21 @@ package uk.gov.pay.connector.events;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import uk.gov.pay.connector.app.ConnectorConfiguration;
 import uk.gov.pay.connector.events.exception.EventCreationException;
+import uk.gov.pay.connector.events.model.Event;
 import uk.gov.pay.connector.events.model.EventFactory;
 import uk.gov.pay.connector.queue.statetransition.StateTransition;
 import uk.gov.pay.connector.queue.statetransition.StateTransitionQueue;
 import uk.gov.service.payments.commons.queue.exception.QueueException;
 
 import jakarta.inject.Inject;
-import java.util.Optional;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
 
 public class StateTransitionEmitterProcess {
@@ -19,17 +26,20 @@ public class StateTransitionEmitterProcess {
     private final StateTransitionQueue stateTransitionQueue;
     private final EventFactory eventFactory;
     private EventService eventService;
+    private final int emitBatchSize;
 
     @Inject
     public StateTransitionEmitterProcess(
             StateTransitionQueue stateTransitionQueue,
             EventFactory eventFactory,
             StateTransitionQueueMetricEmitter stateTransitionQueueMetricEmitter,
-            EventService eventService
+            EventService eventService,
+            ConnectorConfiguration connectorConfiguration
     ) {
         this.stateTransitionQueue = stateTransitionQueue;
         this.eventFactory = eventFactory;
         this.eventService = eventService;
+        this.emitBatchSize = connectorConfiguration.getEventQueueConfig().getPaymentStateTransitionEmitBatchSize();
 
         stateTransitionQueueMetricEmitter.register();
     }
@@ -42,9 +52,64 @@ public class StateTransitionEmitterProcess {
         return stateTransitionQueue.isEmpty();
     }
 
-    public void handleStateTransitionMessages() throws InterruptedException {
-        Optional.ofNullable(stateTransitionQueue.poll(STATE_TRANSITION_PROCESS_DELAY_IN_MILLISECONDS, TimeUnit.MILLISECONDS))
-                .ifPresent(this::emitEvents);
+    public int getNumberOfPartitions() {
+        return stateTransitionQueue.getNumberOfPartitions();
+    }
+
+    /**
+     * Emits events for the next ready state transitions in the given partition of the queue. Each partition must only
+     * be handled by one thread at a time, which keeps the events for a payment or refund in order.
+     */
+    public void handleStateTransitionMessages(int partition) throws InterruptedException {
+        StateTransition stateTransition = stateTransitionQueue.poll(partition, STATE_TRANSITION_PROCESS_DELAY_IN_MILLISECONDS, TimeUnit.MILLISECONDS);
+        if (stateTransition == null) {
+            return;
+        }
+        if (emitBatchSize > 1) {
+            List<StateTransition> stateTransitions = new ArrayList<>(emitBatchSize);
+            stateTransitions.add(stateTransition);
+            stateTransitionQueue.drainTo(partition, stateTransitions, emitBatchSize - 1);
+            emitEventsInBatch(stateTransitions);
+        } else {
+            emitEvents(stateTransition);
+        }
+    }
+
+    private void emitEventsInBatch(List<StateTransition> stateTransitions) {
+        List<Event> events = new ArrayList<>();
+        Map<Event, StateTransition> stateTransitionsByEvent = new IdentityHashMap<>();
+        for (StateTransition stateTransition : stateTransitions) {
+            if (!stateTransition.shouldAttempt()) {
+                logExceededMaxRetries(stateTransition);
+                continue;
+            }
+            try {
+                eventFactory.createEvents(stateTransition)
+                        .forEach(event -> {
+                            events.add(event);
+                            stateTransitionsByEvent.put(event, stateTransition);
+                        });
+            } catch (EventCreationException e) {
+                handleException(e, stateTransition);
+            }
+        }
+        if (events.isEmpty()) {
+            return;
+        }
+
+        List<Event> failedEvents = eventService.emitAndMarkEventsAsEmitted(events);
+
+        Set<StateTransition> attemptedStateTransitions = Collections.newSetFromMap(new IdentityHashMap<>());
+        attemptedStateTransitions.addAll(stateTransitionsByEvent.values());
+        Set<StateTransition> failedStateTransitions = Collections.newSetFromMap(new IdentityHashMap<>());
+        failedEvents.forEach(event -> failedStateTransitions.add(stateTransitionsByEvent.get(event)));
+        failedStateTransitions.forEach(stateTransition ->
+                handleException(new QueueException("Failed to send event in batch"), stateTransition));
+
+        LOGGER.info("Emitted batch of state transition events [stateTransitions={}] [events={}] [failedStateTransitions={}]",
+                attemptedStateTransitions.size() - failedStateTransitions.size(),
+                events.size() - failedEvents.size(),
+                failedStateTransitions.size());
     }
 
     private void emitEvents(StateTransition stateTransition) {
@@ -67,14 +132,18 @@ public class StateTransitionEmitterProcess {
                 handleException(e, stateTransition);
             }
         } else {
-            LOGGER.error(
-                    "State transition message failed to process beyond max retries [eventId={}] [eventType={}]:",
-                    stateTransition.getIdentifier(),
-                    stateTransition.getStateTransitionEventClass().getSimpleName()
-            );
+            logExceededMaxRetries(stateTransition);
         }
     }
 
+    private void logExceededMaxRetries(StateTransition stateTransition) {
+        LOGGER.error(
+                "State transition message failed to process beyond max retries [eventId={}] [eventType={}]:",
+                stateTransition.getIdentifier(),
+                stateTransition.getStateTransitionEventClass().getSimpleName()
+        );
+    }
+
     private void handleException(Exception e, StateTransition stateTransition) {
         LOGGER.warn(
                 "Failed to emit new event for state transition [eventId={}] [eventType={}] [error={}]",
@@ -0,0 +1,136 @@
+package uk.gov.pay.connector.events;
+
+import com.google.inject.persist.Transactional;
+import io.prometheus.client.Counter;
+import io.prometheus.client.Gauge;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import uk.gov.pay.connector.app.ConnectorConfiguration;
+import uk.gov.pay.connector.events.exception.EventCreationException;
+import uk.gov.pay.connector.events.model.Event;
+import uk.gov.pay.connector.events.model.EventFactory;
+import uk.gov.pay.connector.queue.statetransition.StateTransitionOutboxEntity;
+import uk.gov.pay.connector.queue.statetransition.dao.StateTransitionOutboxDao;
+
+import jakarta.inject.Inject;
+import java.time.Instant;
+import java.time.InstantSource;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Publishes state transitions from the state_transition_outbox table. Each call claims a batch of due rows with
+ * {@code FOR UPDATE SKIP LOCKED}, so any number of connector nodes can relay at once, sends their events with SQS
+ * batch requests and deletes the rows that were published, all in one transaction. Rows that fail are retried with
+ * an exponential backoff and dropped after {@value #MAXIMUM_NUMBER_OF_ATTEMPTS} attempts, in line with the in-memory
+ * queue.
+ */
+public class StateTransitionOutboxRelayProcess {
+    private static final Logger LOGGER = LoggerFactory.getLogger(StateTransitionOutboxRelayProcess.class);
+
+    static final int MAXIMUM_NUMBER_OF_ATTEMPTS = 10;
+    private static final long BASE_RETRY_DELAY_IN_MILLISECONDS = 200L;
+    private static final long MAXIMUM_RETRY_DELAY_IN_MILLISECONDS = 60_000L;
+
+    private static final Counter relayedStateTransitions = Counter.build()
+            .name("state_transition_outbox_relayed_total")
+            .help("Number of state transitions published from the outbox")
+            .register();
+
+    private static final Counter failedStateTransitions = Counter.build()
+            .name("state_transition_outbox_failed_total")
+            .help("Number of attempts to publish a state transition from the outbox that failed")
+            .register();
+
+    private static final Gauge lastBatchSize = Gauge.build()
+            .name("state_transition_outbox_last_batch_size")
+            .help("Number of state transitions claimed by the last outbox relay batch")
+            .register();
+
+    private final StateTransitionOutboxDao stateTransitionOutboxDao;
+    private final EventFactory eventFactory;
+    private final EventService eventService;
+    private final InstantSource instantSource;
+    private final int batchSize;
+
+    @Inject
+    public StateTransitionOutboxRelayProcess(StateTransitionOutboxDao stateTransitionOutboxDao,
+                                             EventFactory eventFactory,
+                                             EventService eventService,
+                                             InstantSource instantSource,
+                                             ConnectorConfiguration connectorConfiguration) {
+        this.stateTransitionOutboxDao = stateTransitionOutboxDao;
+        this.eventFactory = eventFactory;
+        this.eventService = eventService;
+        this.instantSource = instantSource;
+        this.batchSize = connectorConfiguration.getEventQueueConfig().getStateTransitionOutboxRelayBatchSize();
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * @return the number of rows claimed, so callers can keep relaying while batches come back full
+     */
+    @Transactional
+    public int relayBatch() {
+        Instant now = instantSource.instant();
+        List<StateTransitionOutboxEntity> claimed = stateTransitionOutboxDao.claimBatch(batchSize, now);
+        lastBatchSize.set(claimed.size());
+        if (claimed.isEmpty()) {
+            return 0;
+        }
+
+        List<Event> events = new ArrayList<>();
+        Map<Event, StateTransitionOutboxEntity> rowsByEvent = new IdentityHashMap<>();
+        Set<StateTransitionOutboxEntity> failedRows = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (StateTransitionOutboxEntity row : claimed) {
+            try {
+                eventFactory.createEvents(row.toStateTransition()).forEach(event -> {
+                    events.add(event);
+                    rowsByEvent.put(event, row);
+                });
+            } catch (EventCreationException | ClassNotFoundException | RuntimeException e) {
+                LOGGER.warn("Failed to create events for state transition in outbox [outboxId={}] [resourceExternalId={}] [error={}]",
+                        row.getId(), row.getResourceExternalId(), e.getMessage());
+                failedRows.add(row);
+            }
+        }
+
+        if (!events.isEmpty()) {
+            eventService.emitAndMarkEventsAsEmitted(events)
+                    .forEach(failedEvent -> failedRows.add(rowsByEvent.get(failedEvent)));
+        }
+
+        List<Long> idsToDelete = new ArrayList<>(claimed.size());
+        for (StateTransitionOutboxEntity row : claimed) {
+            if (!failedRows.contains(row)) {
+                idsToDelete.add(row.getId());
+            } else if (row.getAttempts() + 1 >= MAXIMUM_NUMBER_OF_ATTEMPTS) {
+                LOGGER.error("State transition in outbox failed to publish beyond max retries [outboxId={}] [resourceExternalId={}] [eventClass={}]",
+                        row.getId(), row.getResourceExternalId(), row.getEventClass());
+                idsToDelete.add(row.getId());
+            } else {
+                stateTransitionOutboxDao.scheduleRetry(row.getId(), row.getAttempts() + 1,
+                        now.plusMillis(retryDelayInMilliseconds(row.getAttempts() + 1)));
+            }
+        }
+        stateTransitionOutboxDao.deleteByIds(idsToDelete);
+
+        relayedStateTransitions.inc(claimed.size() - failedRows.size());
+        failedStateTransitions.inc(failedRows.size());
+        LOGGER.info("Relayed state transitions from outbox [claimed={}] [events={}] [failed={}]",
+                claimed.size(), events.size(), failedRows.size());
+        return claimed.size();
+    }
+
+    static long retryDelayInMilliseconds(int attempts) {
+        long delay = BASE_RETRY_DELAY_IN_MILLISECONDS << Math.min(attempts - 1, 20);
+        return Math.min(delay, MAXIMUM_RETRY_DELAY_IN_MILLISECONDS);
+    }
+}
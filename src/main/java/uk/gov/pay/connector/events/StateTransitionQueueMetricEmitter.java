@@ -24,5 +24,11 @@ public class StateTransitionQueueMetricEmitter {
         final Gauge<Integer> gauge = () -> stateTransitionQueue.size();
         
         metricRegistry.register("state-transition.in-memory-queue.size", gauge);
+
+        for (int partition = 0; partition < stateTransitionQueue.getNumberOfPartitions(); partition++) {
+            final int queuePartition = partition;
+            final Gauge<Integer> partitionGauge = () -> stateTransitionQueue.size(queuePartition);
+            metricRegistry.register(String.format("state-transition.in-memory-queue.partition-%d.size", partition), partitionGauge);
+        }
     }
 }
@@ -7,6 +7,7 @@ import uk.gov.pay.connector.common.dao.JpaDao;
 import uk.gov.pay.connector.events.EmittedEventEntity;
 import uk.gov.pay.connector.events.model.Event;
 import uk.gov.pay.connector.events.model.ResourceType;
+import uk.gov.service.payments.commons.jpa.InstantToUtcTimestampWithoutTimeZoneConverter;
 
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.Query;
@@ -15,6 +16,8 @@ import java.time.ZonedDateTime;
 import java.util.List;
 import java.util.Optional;
 
+import static java.lang.String.format;
+
 @Transactional
 public class EmittedEventDao extends JpaDao<EmittedEventEntity> {
 
@@ -83,6 +86,45 @@ public class EmittedEventDao extends JpaDao<EmittedEventEntity> {
         query.executeUpdate();
     }
 
+    /**
+     * Same as {@link #markEventAsEmitted(Event)} for each of the events, in a single UPDATE statement.
+     */
+    @Transactional
+    public void markEventsAsEmitted(List<Event> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+
+        InstantToUtcTimestampWithoutTimeZoneConverter instantConverter = new InstantToUtcTimestampWithoutTimeZoneConverter();
+        StringBuilder values = new StringBuilder();
+        for (int i = 0; i < events.size(); i++) {
+            int firstParameter = 2 + i * 4;
+            values.append(i == 0 ? "" : ", ")
+                    .append(format("(?%d, ?%d, ?%d, CAST(?%d AS timestamp))",
+                            firstParameter, firstParameter + 1, firstParameter + 2, firstParameter + 3));
+        }
+
+        Query query = entityManager.get()
+                .createNativeQuery("UPDATE emitted_events e" +
+                        " SET emitted_date = ?1, event_date = v.event_date" +
+                        " FROM (VALUES " + values + ") AS v(resource_type, resource_external_id, event_type, event_date)" +
+                        " WHERE e.resource_type = v.resource_type" +
+                        " AND e.resource_external_id = v.resource_external_id" +
+                        " AND e.event_type = v.event_type" +
+                        " AND e.emitted_date IS NULL");
+        query.setParameter(1, instantConverter.convertToDatabaseColumn(Instant.now()));
+        for (int i = 0; i < events.size(); i++) {
+            Event event = events.get(i);
+            int firstParameter = 2 + i * 4;
+            query.setParameter(firstParameter, event.getResourceType().getLowercase())
+                    .setParameter(firstParameter + 1, event.getResourceExternalId())
+                    .setParameter(firstParameter + 2, event.getEventType())
+                    .setParameter(firstParameter + 3, instantConverter.convertToDatabaseColumn(event.getTimestamp()));
+        }
+
+        query.executeUpdate();
+    }
+
     public Optional<Long> findNotEmittedEventMaxIdOlderThan(Instant cutOffDate, ZonedDateTime now) {
         String query = "SELECT MAX(e.id) from EmittedEventEntity e " +
                 "WHERE e.eventDate < :cutOffDate " +
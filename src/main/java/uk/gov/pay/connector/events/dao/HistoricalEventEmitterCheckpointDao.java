@@ -0,0 +1,49 @@
+package uk.gov.pay.connector.events.dao;
+
+import com.google.inject.Inject;
+import com.google.inject.Provider;
+import com.google.inject.persist.Transactional;
+import uk.gov.pay.connector.common.dao.JpaDao;
+import uk.gov.pay.connector.events.HistoricalEventEmitterCheckpointEntity;
+import uk.gov.pay.connector.tasks.RecordType;
+import uk.gov.service.payments.commons.jpa.InstantToUtcTimestampWithoutTimeZoneConverter;
+
+import jakarta.persistence.EntityManager;
+import java.time.Instant;
+import java.util.Optional;
+
+@Transactional
+public class HistoricalEventEmitterCheckpointDao extends JpaDao<HistoricalEventEmitterCheckpointEntity> {
+
+    @Inject
+    public HistoricalEventEmitterCheckpointDao(Provider<EntityManager> entityManager) {
+        super(entityManager);
+    }
+
+    public Optional<Long> findLastProcessedId(RecordType recordType, long rangeStart, long rangeEnd) {
+        return entityManager.get()
+                .createQuery("SELECT c.lastProcessedId FROM HistoricalEventEmitterCheckpointEntity c" +
+                        " WHERE c.recordType = :recordType AND c.rangeStart = :rangeStart AND c.rangeEnd = :rangeEnd", Long.class)
+                .setParameter("recordType", recordType.getValue())
+                .setParameter("rangeStart", rangeStart)
+                .setParameter("rangeEnd", rangeEnd)
+                .getResultList()
+                .stream()
+                .findFirst();
+    }
+
+    public void saveCheckpoint(RecordType recordType, long rangeStart, long rangeEnd, long lastProcessedId, Instant now) {
+        entityManager.get()
+                .createNativeQuery("INSERT INTO historical_event_emitter_checkpoints" +
+                        " (record_type, range_start, range_end, last_processed_id, updated_date)" +
+                        " VALUES (?1, ?2, ?3, ?4, ?5)" +
+                        " ON CONFLICT (record_type, range_start, range_end)" +
+                        " DO UPDATE SET last_processed_id = EXCLUDED.last_processed_id, updated_date = EXCLUDED.updated_date")
+                .setParameter(1, recordType.getValue())
+                .setParameter(2, rangeStart)
+                .setParameter(3, rangeEnd)
+                .setParameter(4, lastProcessedId)
+                .setParameter(5, new InstantToUtcTimestampWithoutTimeZoneConverter().convertToDatabaseColumn(now))
+                .executeUpdate();
+    }
+}
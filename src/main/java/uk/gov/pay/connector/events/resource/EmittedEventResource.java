@@ -65,6 +65,8 @@ public class EmittedEventResource {
             summary = "Emit events for charges or refunds",
             description = "Task to emit payment or refunds events for a given start_id and max_id range.<br>" +
                     "Historical event emitter task doesn't emit event, if event was emitted previously. To re-emit events, relevant emitted events records need to be cleared<br>." +
+                    "The range is split into smaller id ranges which are processed in parallel. Progress through each range is checkpointed, " +
+                    "so a run that was interrupted can be restarted with resume=true and the same start_id and max_id.<br>" +
                     "<br>" +
                     "Note: This task runs in the background.",
             responses = {
@@ -78,18 +80,22 @@ public class EmittedEventResource {
                                        @Parameter(example = "charge", description = "Type of records (charge/refund) for which events to be emitted. Defaults to 'charge'")
                                        @QueryParam("record_type") Optional<RecordType> maybeRecordType,
                                        @Parameter(example = "7200", description = "Duration (in seconds) until which emitted event sweeper should ignore retrying emitting events")
-                                       @QueryParam("do_not_retry_emit_until_duration") Long doNotRetryEmitUntilDuration) {
+                                       @QueryParam("do_not_retry_emit_until_duration") Long doNotRetryEmitUntilDuration,
+                                       @Parameter(example = "true", description = "Skip ids already processed by an earlier run with the same start_id and max_id. Defaults to false")
+                                       @QueryParam("resume") boolean resume) {
         //We run this task in the background and response 200 so the request from toolbox does not time out
         ExecutorService executor = Executors.newSingleThreadExecutor();
         RecordType recordType = maybeRecordType.orElse(CHARGE);
         if (recordType == CHARGE) {
             executor.execute(() -> historicalEventEmitterService.emitHistoricEventsById(startId,
                     OptionalLong.of(maybeMaxId),
-                    doNotRetryEmitUntilDuration));
+                    doNotRetryEmitUntilDuration,
+                    resume));
         } else {
             executor.execute(() -> historicalEventEmitterService.emitRefundEventsOnlyById(startId,
                     OptionalLong.of(maybeMaxId),
-                    doNotRetryEmitUntilDuration));
+                    doNotRetryEmitUntilDuration,
+                    resume));
         }
         return status(OK).build();
     }
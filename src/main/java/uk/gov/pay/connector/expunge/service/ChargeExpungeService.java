@@ -10,6 +10,7 @@ import uk.gov.pay.connector.charge.dao.ChargeDao;
 import uk.gov.pay.connector.charge.model.domain.ChargeEntity;
 import uk.gov.pay.connector.charge.model.domain.ChargeStatus;
 import uk.gov.pay.connector.charge.service.ChargeService;
+import uk.gov.pay.connector.client.ledger.model.LedgerTransaction;
 import uk.gov.pay.connector.gateway.PaymentGatewayName;
 import uk.gov.pay.connector.idempotency.dao.IdempotencyDao;
 import uk.gov.pay.connector.queue.tasks.TaskQueueService;
@@ -18,10 +19,15 @@ import uk.gov.service.payments.commons.model.AuthorisationMode;
 
 import jakarta.inject.Inject;
 import jakarta.persistence.OptimisticLockException;
+import java.time.Instant;
 import java.time.ZonedDateTime;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import static java.lang.String.format;
 import static net.logstash.logback.argument.StructuredArguments.kv;
@@ -102,6 +108,8 @@ public class ChargeExpungeService {
     public void expunge(Integer noOfChargesToExpunge) {
         if (!expungeConfig.isExpungeChargesEnabled()) {
             logger.info("Charge expunging feature is disabled. No charges have been expunged");
+        } else if (expungeConfig.isBatchExpungeEnabled()) {
+            expungeInBatches(noOfChargesToExpunge);
         } else {
             int minimumAgeOfChargeInDays = expungeConfig.getMinimumAgeOfChargeInDays();
             int createdWithinLast = expungeConfig.getExcludeChargesOrRefundsParityCheckedWithInDays();
@@ -129,6 +137,88 @@ public class ChargeExpungeService {
         }
     }
 
+    /**
+     * Reads candidate charges a batch at a time, after the last charge of the previous batch, and checks the whole
+     * batch against ledger with up to maxConcurrentParityChecks requests in flight. The charges that match ledger are
+     * then deleted together in one transaction per batch.
+     */
+    private void expungeInBatches(int noOfChargesToExpunge) {
+        int minimumAgeOfChargeInDays = expungeConfig.getMinimumAgeOfChargeInDays();
+        int createdWithinLast = expungeConfig.getExcludeChargesOrRefundsParityCheckedWithInDays();
+        int batchSize = expungeConfig.getBatchSize();
+
+        try (ExecutorService ledgerRequests = Executors.newFixedThreadPool(expungeConfig.getMaxConcurrentParityChecks())) {
+            Instant afterCreatedDate = Instant.EPOCH;
+            long afterId = 0L;
+            int remaining = noOfChargesToExpunge;
+            while (remaining > 0) {
+                int limit = Math.min(batchSize, remaining);
+                List<ChargeEntity> charges = chargeDao.findChargesToExpunge(minimumAgeOfChargeInDays, createdWithinLast,
+                        afterCreatedDate, afterId, limit);
+                if (charges.isEmpty()) {
+                    break;
+                }
+
+                parityCheckAndExpungeIfMet(charges, ledgerRequests);
+
+                ChargeEntity lastCharge = charges.getLast();
+                afterCreatedDate = lastCharge.getCreatedDate();
+                afterId = lastCharge.getId();
+                remaining -= charges.size();
+                if (charges.size() < limit) {
+                    break;
+                }
+            }
+        }
+    }
+
+    private void parityCheckAndExpungeIfMet(List<ChargeEntity> charges, ExecutorService ledgerRequests) {
+        List<Long> chargesToSkip = new ArrayList<>();
+        List<ChargeEntity> chargesToParityCheck = new ArrayList<>();
+        for (ChargeEntity chargeEntity : charges) {
+            if (!inTerminalState(chargeEntity)) {
+                chargesToSkip.add(chargeEntity.getId());
+                logger.info("Charge not expunged because it is not in a terminal state",
+                        kv(PAYMENT_EXTERNAL_ID, chargeEntity.getExternalId()));
+
+                if (isChargeStuckInCaptureSubmittedStateAndWorldpayPayment(chargeEntity)) {
+                    taskQueueService.addQueryAndUpdateChargeInSubmittedStateTask(chargeEntity);
+                }
+            } else if (chargeEntity.getPaymentGatewayName() == STRIPE && isStripePaymentMissingFees(chargeEntity)) {
+                chargesToSkip.add(chargeEntity.getId());
+                logger.info("Charge not expunged because it is a Stripe payment that requires fees to be collected, but " +
+                                "fees have not yet been processed.",
+                        kv(PAYMENT_EXTERNAL_ID, chargeEntity.getExternalId()));
+            } else if (chargeEntity.getAuthorisationMode() == AuthorisationMode.AGREEMENT &&
+                    idempotencyDao.idempotencyExistsByResourceExternalId(chargeEntity.getExternalId())) {
+                logger.info("Charge not expunged from connector because Idempotency record exists for charge",
+                        kv(PAYMENT_EXTERNAL_ID, chargeEntity.getExternalId()));
+            } else {
+                chargesToParityCheck.add(chargeEntity);
+            }
+        }
+        chargeService.updateChargeParityStatuses(chargesToSkip, SKIPPED);
+
+        Map<String, Optional<LedgerTransaction>> ledgerTransactions = parityCheckService.getLedgerTransactions(
+                chargesToParityCheck.stream().map(ChargeEntity::getExternalId).toList(), ledgerRequests);
+
+        List<ChargeEntity> chargesToExpunge = new ArrayList<>();
+        for (ChargeEntity chargeEntity : chargesToParityCheck) {
+            if (!ledgerTransactions.containsKey(chargeEntity.getExternalId())) {
+                logger.warn("Charge not expunged because it could not be fetched from ledger",
+                        kv(PAYMENT_EXTERNAL_ID, chargeEntity.getExternalId()));
+            } else if (parityCheckService.parityCheckChargeForExpunger(chargeEntity, ledgerTransactions.get(chargeEntity.getExternalId()))) {
+                chargesToExpunge.add(chargeEntity);
+            } else {
+                logger.warn("Charge cannot be expunged because parity check with ledger failed",
+                        kv(PAYMENT_EXTERNAL_ID, chargeEntity.getExternalId()));
+            }
+        }
+
+        expungeCharges(chargesToExpunge);
+        logger.info("Expunged {} of {} charges from connector", chargesToExpunge.size(), charges.size());
+    }
+
     private void parityCheckAndExpungeIfMet(ChargeEntity chargeEntity) {
         boolean hasChargeBeenParityCheckedBefore = chargeEntity.getParityCheckDate() != null;
 
@@ -182,4 +272,10 @@ public class ChargeExpungeService {
         chargeDao.expungeCharge(chargeEntity.getId(), chargeEntity.getExternalId());
     }
 
+    @Transactional
+    public void expungeCharges(List<ChargeEntity> chargeEntities) {
+        chargeDao.expungeCharges(chargeEntities.stream().map(ChargeEntity::getId).toList(),
+                chargeEntities.stream().map(ChargeEntity::getExternalId).toList());
+    }
+
 }
@@ -8,6 +8,7 @@ import uk.gov.pay.connector.app.ConnectorConfiguration;
 import uk.gov.pay.connector.app.config.ExpungeConfig;
 import uk.gov.pay.connector.charge.exception.ChargeNotFoundRuntimeException;
 import uk.gov.pay.connector.charge.service.ChargeService;
+import uk.gov.pay.connector.client.ledger.model.LedgerTransaction;
 import uk.gov.pay.connector.refund.dao.RefundDao;
 import uk.gov.pay.connector.refund.model.domain.RefundEntity;
 import uk.gov.pay.connector.refund.model.domain.RefundStatus;
@@ -16,9 +17,15 @@ import uk.gov.pay.connector.tasks.service.ParityCheckService;
 
 import jakarta.inject.Inject;
 import jakarta.persistence.OptimisticLockException;
+import java.time.Instant;
 import java.time.ZonedDateTime;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import static java.lang.String.format;
 import static java.time.ZoneOffset.UTC;
@@ -53,6 +60,8 @@ public class RefundExpungeService {
     public void expunge(Integer noOfRefundsToExpunge) {
         if (!expungeConfig.isExpungeRefundsEnabled()) {
             logger.info("Refunds expunging feature is disabled. No refunds have been expunged");
+        } else if (expungeConfig.isBatchExpungeEnabled()) {
+            expungeInBatches(noOfRefundsToExpunge);
         } else {
             int minimumAgeOfRefundInDays = expungeConfig.getMinimumAgeOfRefundInDays();
             int excludeRefundsParityCheckedWithInDays = expungeConfig.getExcludeChargesOrRefundsParityCheckedWithInDays();
@@ -82,6 +91,79 @@ public class RefundExpungeService {
         }
     }
 
+    /**
+     * Reads candidate refunds a batch at a time, after the last refund of the previous batch, and checks the whole
+     * batch against ledger with up to maxConcurrentParityChecks requests in flight. The refunds that match ledger are
+     * then deleted together in one transaction per batch.
+     */
+    private void expungeInBatches(int noOfRefundsToExpunge) {
+        int minimumAgeOfRefundInDays = expungeConfig.getMinimumAgeOfRefundInDays();
+        int excludeRefundsParityCheckedWithInDays = expungeConfig.getExcludeChargesOrRefundsParityCheckedWithInDays();
+        int batchSize = expungeConfig.getBatchSize();
+
+        try (ExecutorService ledgerRequests = Executors.newFixedThreadPool(expungeConfig.getMaxConcurrentParityChecks())) {
+            ZonedDateTime afterCreatedDate = Instant.EPOCH.atZone(UTC);
+            long afterId = 0L;
+            int remaining = noOfRefundsToExpunge;
+            while (remaining > 0) {
+                int limit = Math.min(batchSize, remaining);
+                List<RefundEntity> refunds = refundDao.findRefundsToExpunge(minimumAgeOfRefundInDays,
+                        excludeRefundsParityCheckedWithInDays, afterCreatedDate, afterId, limit);
+                if (refunds.isEmpty()) {
+                    break;
+                }
+
+                parityCheckAndExpunge(refunds, ledgerRequests);
+
+                RefundEntity lastRefund = refunds.getLast();
+                afterCreatedDate = lastRefund.getCreatedDate();
+                afterId = lastRefund.getId();
+                remaining -= refunds.size();
+                if (refunds.size() < limit) {
+                    break;
+                }
+            }
+        }
+    }
+
+    private void parityCheckAndExpunge(List<RefundEntity> refunds, ExecutorService ledgerRequests) {
+        List<String> refundsToSkip = new ArrayList<>();
+        List<RefundEntity> refundsToParityCheck = new ArrayList<>();
+        for (RefundEntity refundEntity : refunds) {
+            if (chargeExistsForRefund(refundEntity)) {
+                refundsToSkip.add(refundEntity.getExternalId());
+                logger.info("Refund cannot be expunged because charge has not been expunged from in-flight database",
+                        kv(REFUND_EXTERNAL_ID, refundEntity.getExternalId()));
+            } else if (isInExpungeableState(refundEntity)) {
+                refundsToParityCheck.add(refundEntity);
+            } else {
+                refundsToSkip.add(refundEntity.getExternalId());
+                logger.info("Refund is not in expungeable state",
+                        kv(REFUND_EXTERNAL_ID, refundEntity.getExternalId()));
+            }
+        }
+        refundService.updateRefundParityStatuses(refundsToSkip, SKIPPED);
+
+        Map<String, Optional<LedgerTransaction>> ledgerTransactions = parityCheckService.getLedgerTransactions(
+                refundsToParityCheck.stream().map(RefundEntity::getExternalId).toList(), ledgerRequests);
+
+        List<String> refundsToExpunge = new ArrayList<>();
+        for (RefundEntity refundEntity : refundsToParityCheck) {
+            if (!ledgerTransactions.containsKey(refundEntity.getExternalId())) {
+                logger.warn("Refund not expunged because it could not be fetched from ledger",
+                        kv(REFUND_EXTERNAL_ID, refundEntity.getExternalId()));
+            } else if (parityCheckService.parityCheckRefundForExpunger(refundEntity, ledgerTransactions.get(refundEntity.getExternalId()))) {
+                refundsToExpunge.add(refundEntity.getExternalId());
+            } else {
+                logger.info("Refund cannot be expunged because parity check with ledger failed",
+                        kv(REFUND_EXTERNAL_ID, refundEntity.getExternalId()));
+            }
+        }
+
+        expungeRefunds(refundsToExpunge);
+        logger.info("Expunged {} of {} refunds from connector", refundsToExpunge.size(), refunds.size());
+    }
+
     private void parityCheckAndExpunge(RefundEntity refundEntity) {
         boolean hasRefundBeenParityCheckedBefore = refundEntity.getParityCheckDate() != null;
 
@@ -134,4 +216,9 @@ public class RefundExpungeService {
     public void expungeRefund(RefundEntity refundEntity) {
         refundDao.expungeRefund(refundEntity.getExternalId());
     }
+
+    @Transactional
+    public void expungeRefunds(List<String> refundExternalIds) {
+        refundDao.expungeRefunds(refundExternalIds);
+    }
 }
@@ -0,0 +1,262 @@
+package uk.gov.pay.connector.gateway;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.dropwizard.lifecycle.Managed;
+import io.prometheus.client.Counter;
+import io.prometheus.client.Gauge;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import uk.gov.pay.connector.app.ConnectorConfiguration;
+import uk.gov.pay.connector.app.ExecutorServiceConfig;
+import uk.gov.pay.connector.app.config.GatewayBulkheadConfig;
+import uk.gov.pay.connector.gateway.GatewayException.GenericGatewayException;
+import uk.gov.pay.connector.gateway.model.OrderRequestType;
+
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static java.lang.Runtime.getRuntime;
+import static java.lang.String.format;
+import static uk.gov.pay.connector.app.ExecutorServiceConfig.ExecutorMode.VIRTUAL_THREADS;
+
+/**
+ * Runs gateway requests on a separate, bounded thread pool for each {@link PaymentGatewayName} and
+ * {@link OrderRequestType}, so that a slow gateway only exhausts its own partition. Each partition runs at most
+ * {@code maxConcurrentRequests} requests at once and queues at most {@code maxQueuedRequests} more; anything beyond
+ * that is rejected straight away with a {@link GenericGatewayException} rather than waiting.
+ * <p>
+ * Synchronous requests run on the thread that makes them instead, after taking one of a fixed number of permits for
+ * their gateway with {@link #acquire}, and are likewise rejected straight away when there are none left. Each gateway
+ * has as many permits as the card executor can run card operations at once, so that card operations are never
+ * rejected just because the executor is busy, plus {@code maxConcurrentSyncRequests} for requests made from other
+ * threads.
+ * <p>
+ * Partitions and permits are created the first time they are used.
+ */
+@Singleton
+public class GatewayBulkheads implements Managed {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(GatewayBulkheads.class);
+    private static final int SHUTDOWN_AWAIT_TERMINATION_TIMEOUT_SECONDS = 10;
+
+    private static final Gauge activeRequests = Gauge.build()
+            .name("gateway_bulkhead_active_requests")
+            .help("Number of gateway requests currently running in each bulkhead")
+            .labelNames("gatewayName", "requestType")
+            .register();
+
+    private static final Gauge queuedRequests = Gauge.build()
+            .name("gateway_bulkhead_queued_requests")
+            .help("Number of gateway requests waiting for a thread in each bulkhead")
+            .labelNames("gatewayName", "requestType")
+            .register();
+
+    private static final Gauge maxConcurrentRequests = Gauge.build()
+            .name("gateway_bulkhead_max_concurrent_requests")
+            .help("Maximum number of gateway requests that can run at once in each bulkhead")
+            .labelNames("gatewayName", "requestType")
+            .register();
+
+    private static final Gauge activeSyncRequests = Gauge.build()
+            .name("gateway_bulkhead_active_sync_requests")
+            .help("Number of synchronous gateway requests currently holding a permit for each gateway")
+            .labelNames("gatewayName")
+            .register();
+
+    private static final Counter rejectedRequests = Counter.build()
+            .name("gateway_bulkhead_rejected_requests_total")
+            .help("Number of gateway requests rejected because their bulkhead was full")
+            .labelNames("gatewayName", "requestType")
+            .register();
+
+    private final GatewayBulkheadConfig config;
+    private final int maxConcurrentSyncRequestsPerGateway;
+    private final ConcurrentMap<Partition, ThreadPoolExecutor> executors = new ConcurrentHashMap<>();
+    private final ConcurrentMap<PaymentGatewayName, Semaphore> syncPermits = new ConcurrentHashMap<>();
+
+    @Inject
+    public GatewayBulkheads(ConnectorConfiguration configuration) {
+        this(configuration.getGatewayBulkheadConfig(), configuration.getExecutorServiceConfig());
+    }
+
+    public GatewayBulkheads(GatewayBulkheadConfig config, ExecutorServiceConfig executorServiceConfig) {
+        this(config, cardExecutorCapacity(executorServiceConfig));
+    }
+
+    public GatewayBulkheads(GatewayBulkheadConfig config) {
+        this(config, 0);
+    }
+
+    private GatewayBulkheads(GatewayBulkheadConfig config, int cardExecutorCapacity) {
+        this.config = config;
+        this.maxConcurrentSyncRequestsPerGateway = cardExecutorCapacity + config.getMaxConcurrentSyncRequests();
+    }
+
+    private static int cardExecutorCapacity(ExecutorServiceConfig executorServiceConfig) {
+        if (executorServiceConfig.getMode() == VIRTUAL_THREADS) {
+            return executorServiceConfig.getMaxConcurrentOperationsPerGateway();
+        }
+        return executorServiceConfig.getThreadsPerCpu() * getRuntime().availableProcessors();
+    }
+
+    @FunctionalInterface
+    public interface GatewayRequest<T> {
+        T execute() throws GatewayException;
+    }
+
+    /**
+     * Runs the request in the bulkhead for the gateway and request type. The returned stage completes with the
+     * request's result, or exceptionally with the {@link GatewayException} it threw or with a
+     * {@link GenericGatewayException} if the bulkhead is full.
+     */
+    public <T> CompletionStage<T> submit(PaymentGatewayName gatewayName, OrderRequestType orderRequestType, GatewayRequest<T> request) {
+        Partition partition = new Partition(gatewayName, orderRequestType);
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Map<String, String> mdcContextMap = Optional.ofNullable(MDC.getCopyOfContextMap()).orElse(Map.of());
+
+        partition.queued().inc();
+        try {
+            executors.computeIfAbsent(partition, this::createExecutor).execute(() -> {
+                partition.queued().dec();
+                partition.active().inc();
+                MDC.setContextMap(mdcContextMap);
+                try {
+                    result.complete(request.execute());
+                } catch (Exception e) {
+                    result.completeExceptionally(e);
+                } finally {
+                    MDC.clear();
+                    partition.active().dec();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            partition.queued().dec();
+            partition.rejected().inc();
+            LOGGER.warn("Gateway bulkhead full for gateway {} with order request type {}", gatewayName.getName(), orderRequestType);
+            result.completeExceptionally(new GenericGatewayException(
+                    format("Too many concurrent %s requests to %s", orderRequestType, gatewayName.getName())));
+        }
+        return result;
+    }
+
+    /**
+     * Takes a permit for a synchronous request to the gateway, which must be released once the request is done
+     *
+     * @throws GenericGatewayException if the gateway has no permits left
+     */
+    public Permit acquire(PaymentGatewayName gatewayName, OrderRequestType orderRequestType) throws GenericGatewayException {
+        Semaphore permits = syncPermits.computeIfAbsent(gatewayName, key -> new Semaphore(maxConcurrentSyncRequestsPerGateway));
+        if (!permits.tryAcquire()) {
+            Partition partition = new Partition(gatewayName, orderRequestType);
+            partition.rejected().inc();
+            LOGGER.warn("No synchronous gateway request permits left for gateway {} with order request type {}", gatewayName.getName(), orderRequestType);
+            throw new GenericGatewayException(format("Too many concurrent %s requests to %s", orderRequestType, gatewayName.getName()));
+        }
+        activeSyncRequests.labels(gatewayName.toString().toLowerCase()).inc();
+        return new Permit(gatewayName, permits);
+    }
+
+    int getMaxConcurrentSyncRequestsPerGateway() {
+        return maxConcurrentSyncRequestsPerGateway;
+    }
+
+    @Override
+    public void start() {
+    }
+
+    @Override
+    public void stop() {
+        LOGGER.info("Shutting down gateway bulkheads");
+        executors.values().forEach(ThreadPoolExecutor::shutdown);
+        for (ThreadPoolExecutor executor : executors.values()) {
+            try {
+                if (!executor.awaitTermination(SHUTDOWN_AWAIT_TERMINATION_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                    executor.shutdownNow();
+                }
+            } catch (InterruptedException e) {
+                executor.shutdownNow();
+                Thread.currentThread().interrupt();
+            }
+        }
+        LOGGER.info("Gateway bulkheads shut down");
+    }
+
+    private ThreadPoolExecutor createExecutor(Partition partition) {
+        int maxThreads = config.getMaxConcurrentRequests();
+        int maxQueued = config.getMaxQueuedRequests();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                maxThreads,
+                maxThreads,
+                60L,
+                TimeUnit.SECONDS,
+                maxQueued > 0 ? new ArrayBlockingQueue<>(maxQueued) : new SynchronousQueue<>(),
+                new ThreadFactoryBuilder().setNameFormat(partition.threadNameFormat()).build(),
+                new ThreadPoolExecutor.AbortPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        maxConcurrentRequests.labels(partition.gatewayLabel(), partition.requestTypeLabel()).set(maxThreads);
+        return executor;
+    }
+
+    public static class Permit {
+
+        private final PaymentGatewayName gatewayName;
+        private final Semaphore permits;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit(PaymentGatewayName gatewayName, Semaphore permits) {
+            this.gatewayName = gatewayName;
+            this.permits = permits;
+        }
+
+        /**
+         * Gives the permit back. Only the first release of a permit has any effect.
+         */
+        public void release() {
+            if (released.compareAndSet(false, true)) {
+                activeSyncRequests.labels(gatewayName.toString().toLowerCase()).dec();
+                permits.release();
+            }
+        }
+    }
+
+    private record Partition(PaymentGatewayName gatewayName, OrderRequestType orderRequestType) {
+
+        String gatewayLabel() {
+            return gatewayName.toString().toLowerCase();
+        }
+
+        String requestTypeLabel() {
+            return orderRequestType.toString().toLowerCase();
+        }
+
+        String threadNameFormat() {
+            return "gateway-bulkhead-" + gatewayLabel() + "-" + requestTypeLabel() + "-%d";
+        }
+
+        Gauge.Child active() {
+            return activeRequests.labels(gatewayLabel(), requestTypeLabel());
+        }
+
+        Gauge.Child queued() {
+            return queuedRequests.labels(gatewayLabel(), requestTypeLabel());
+        }
+
+        Counter.Child rejected() {
+            return rejectedRequests.labels(gatewayLabel(), requestTypeLabel());
+        }
+    }
+}
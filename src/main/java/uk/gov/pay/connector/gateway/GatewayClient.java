@@ -25,6 +25,7 @@ import java.net.URI;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Supplier;
 
@@ -40,6 +41,7 @@ public class GatewayClient {
 
     private final Client client;
     private final MetricRegistry metricRegistry;
+    private final GatewayBulkheads bulkheads;
 
     private static final Counter gatewayOperationsFailures = Counter.build()
             .name("gateway_operations_failures_total")
@@ -53,9 +55,10 @@ public class GatewayClient {
             .labelNames("gatewayName", "gatewayAccountType", "requestType")
             .register();
 
-    public GatewayClient(Client client, MetricRegistry metricRegistry) {
+    public GatewayClient(Client client, MetricRegistry metricRegistry, GatewayBulkheads bulkheads) {
         this.client = client;
         this.metricRegistry = metricRegistry;
+        this.bulkheads = bulkheads;
     }
 
     public Response postRequestFor(URI url, PaymentGatewayName gatewayName, String gatewayAccountType, GatewayOrder request, Map<String, String> headers)
@@ -75,6 +78,34 @@ public class GatewayClient {
                                    List<HttpCookie> cookies,
                                    Map<String, String> headers)
             throws GenericGatewayException, GatewayConnectionTimeoutException, GatewayErrorException {
+        GatewayBulkheads.Permit permit = bulkheads.acquire(gatewayName, request.orderRequestType());
+        try {
+            return sendPost(url, gatewayName, gatewayAccountType, request, cookies, headers);
+        } finally {
+            permit.release();
+        }
+    }
+
+    /**
+     * Asynchronous variant of {@link #postRequestFor(GatewayClientPostRequest)}. The request runs in the
+     * {@link GatewayBulkheads} partition for its gateway and order request type instead of on the calling thread.
+     */
+    public CompletionStage<Response> postRequestForAsync(GatewayClientPostRequest request) {
+        return postRequestForAsync(request.getUrl(), request.getPaymentProvider(), request.getGatewayAccountType(), request.getGatewayOrder(), request.getHeaders());
+    }
+
+    public CompletionStage<Response> postRequestForAsync(URI url, PaymentGatewayName gatewayName, String gatewayAccountType, GatewayOrder request, Map<String, String> headers) {
+        return bulkheads.submit(gatewayName, request.orderRequestType(),
+                () -> sendPost(url, gatewayName, gatewayAccountType, request, emptyList(), headers));
+    }
+
+    private Response sendPost(URI url,
+                              PaymentGatewayName gatewayName,
+                              String gatewayAccountType,
+                              GatewayOrder request,
+                              List<HttpCookie> cookies,
+                              Map<String, String> headers)
+            throws GenericGatewayException, GatewayConnectionTimeoutException, GatewayErrorException {
 
         String metricsPrefix = format("gateway-operations.%s.%s.%s", gatewayName.getName(), gatewayAccountType, request.orderRequestType());
 
@@ -84,7 +115,7 @@ public class GatewayClient {
             Builder requestBuilder = client.target(url).request();
             headers.keySet().forEach(headerKey -> requestBuilder.header(headerKey, headers.get(headerKey)));
             cookies.forEach(cookie -> requestBuilder.header("Cookie", cookie.getName() + "=" + cookie.getValue()));
-            return requestBuilder.post(Entity.entity(request.payload(), request.mediaType()));
+            return requestBuilder.post(Entity.entity(request.body(), request.mediaType()));
         };
         return executeRequest(url, gatewayName, gatewayAccountType, request.orderRequestType(), metricsPrefix, requestCallable);
     }
@@ -95,12 +126,24 @@ public class GatewayClient {
                 request.getOrderRequestType(), emptyList(), request.getHeaders(), request.getQueryParams());
     }
 
+    public CompletionStage<Response> getRequestForAsync(GatewayClientGetRequest request) {
+        return bulkheads.submit(request.getPaymentProvider(), request.getOrderRequestType(),
+                () -> sendGet(request.getUrl(), request.getPaymentProvider(), request.getGatewayAccountType(),
+                        request.getOrderRequestType(), emptyList(), request.getHeaders(), request.getQueryParams()));
+    }
+
     public Response deleteRequestFor(GatewayClientDeleteRequest request)
             throws GenericGatewayException, GatewayConnectionTimeoutException, GatewayErrorException {
         return deleteRequestFor(request.getUrl(), request.getPaymentProvider(), request.getGatewayAccountType(),
                 request.getOrderRequestType(), emptyList(), request.getHeaders(), request.getQueryParams());
     }
 
+    public CompletionStage<Response> deleteRequestForAsync(GatewayClientDeleteRequest request) {
+        return bulkheads.submit(request.getPaymentProvider(), request.getOrderRequestType(),
+                () -> sendDelete(request.getUrl(), request.getPaymentProvider(), request.getGatewayAccountType(),
+                        request.getOrderRequestType(), emptyList(), request.getHeaders(), request.getQueryParams()));
+    }
+
     public Response getRequestFor(URI url,
                                   PaymentGatewayName gatewayName,
                                   String gatewayAccountType,
@@ -109,6 +152,22 @@ public class GatewayClient {
                                   Map<String, String> headers,
                                   Map<String, String> queryParams)
             throws GenericGatewayException, GatewayConnectionTimeoutException, GatewayErrorException {
+        GatewayBulkheads.Permit permit = bulkheads.acquire(gatewayName, orderRequestType);
+        try {
+            return sendGet(url, gatewayName, gatewayAccountType, orderRequestType, cookies, headers, queryParams);
+        } finally {
+            permit.release();
+        }
+    }
+
+    private Response sendGet(URI url,
+                             PaymentGatewayName gatewayName,
+                             String gatewayAccountType,
+                             OrderRequestType orderRequestType,
+                             List<HttpCookie> cookies,
+                             Map<String, String> headers,
+                             Map<String, String> queryParams)
+            throws GenericGatewayException, GatewayConnectionTimeoutException, GatewayErrorException {
 
         String metricsPrefix = format("gateway-operations.get.%s.%s.%s", gatewayName.getName(), gatewayAccountType, orderRequestType);
 
@@ -136,6 +195,22 @@ public class GatewayClient {
                                      Map<String, String> headers,
                                      Map<String, String> queryParams)
             throws GenericGatewayException, GatewayConnectionTimeoutException, GatewayErrorException {
+        GatewayBulkheads.Permit permit = bulkheads.acquire(gatewayName, orderRequestType);
+        try {
+            return sendDelete(url, gatewayName, gatewayAccountType, orderRequestType, cookies, headers, queryParams);
+        } finally {
+            permit.release();
+        }
+    }
+
+    private Response sendDelete(URI url,
+                                PaymentGatewayName gatewayName,
+                                String gatewayAccountType,
+                                OrderRequestType orderRequestType,
+                                List<HttpCookie> cookies,
+                                Map<String, String> headers,
+                                Map<String, String> queryParams)
+            throws GenericGatewayException, GatewayConnectionTimeoutException, GatewayErrorException {
 
         String metricsPrefix = format("gateway-operations.delete.%s.%s.%s", gatewayName.getName(), gatewayAccountType, orderRequestType);
 
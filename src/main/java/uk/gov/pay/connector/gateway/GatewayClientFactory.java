@@ -8,22 +8,24 @@ import jakarta.ws.rs.client.Client;
 public class GatewayClientFactory {
 
     private final ClientFactory clientFactory;
+    private final GatewayBulkheads bulkheads;
 
     @Inject
-    public GatewayClientFactory(ClientFactory clientFactory) {
+    public GatewayClientFactory(ClientFactory clientFactory, GatewayBulkheads bulkheads) {
         this.clientFactory = clientFactory;
+        this.bulkheads = bulkheads;
     }
 
     public GatewayClient createGatewayClient(PaymentGatewayName gateway,
                                              GatewayOperation operation,
                                              MetricRegistry metricRegistry) {
         Client client = clientFactory.createWithDropwizardClient(gateway, operation, metricRegistry);
-        return new GatewayClient(client, metricRegistry);
+        return new GatewayClient(client, metricRegistry, bulkheads);
     }
 
     public GatewayClient createGatewayClient(PaymentGatewayName gateway,
                                              MetricRegistry metricRegistry) {
         Client client = clientFactory.createWithDropwizardClient(gateway, metricRegistry);
-        return new GatewayClient(client, metricRegistry);
+        return new GatewayClient(client, metricRegistry, bulkheads);
     }
 }
@@ -3,7 +3,39 @@ package uk.gov.pay.connector.gateway;
 import jakarta.ws.rs.core.MediaType;
 import uk.gov.pay.connector.gateway.model.OrderRequestType;
 
-public record GatewayOrder(OrderRequestType orderRequestType, String payload, MediaType mediaType) {
+import java.util.Arrays;
+import java.util.Objects;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * A request body to be posted to a gateway. The body is held as UTF-8 bytes so that payloads rendered straight
+ * to bytes (see {@link uk.gov.pay.connector.gateway.templates.PayloadBuilder#renderWith}) are handed to the
+ * HTTP client without being decoded and re-encoded.
+ */
+public record GatewayOrder(OrderRequestType orderRequestType, byte[] body, MediaType mediaType) {
+
+    public GatewayOrder(OrderRequestType orderRequestType, String payload, MediaType mediaType) {
+        this(orderRequestType, payload.getBytes(UTF_8), mediaType);
+    }
+
+    public String payload() {
+        return new String(body, UTF_8);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof GatewayOrder that)) return false;
+        return orderRequestType == that.orderRequestType
+                && Arrays.equals(body, that.body)
+                && Objects.equals(mediaType, that.mediaType);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(orderRequestType, Arrays.hashCode(body), mediaType);
+    }
 
     @Override
     public String toString() {
@@ -2,8 +2,8 @@ package uk.gov.pay.connector.gateway;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import uk.gov.pay.connector.gateway.util.XMLUnmarshaller;
 import uk.gov.pay.connector.gateway.util.XMLUnmarshallerException;
+import uk.gov.pay.connector.gateway.worldpay.WorldpayResponseUnmarshaller;
 
 import static java.lang.String.format;
 
@@ -15,7 +15,7 @@ public class GatewayResponseUnmarshaller {
         String payload = response.getEntity();
         logger.debug("response payload={}", payload);
         try {
-            return XMLUnmarshaller.unmarshall(payload, unmarshallingTarget);
+            return WorldpayResponseUnmarshaller.unmarshall(payload, unmarshallingTarget);
         } catch (XMLUnmarshallerException e) {
             String error = format("Could not unmarshall response %s.", payload);
             logger.error(error, e);
@@ -13,6 +13,7 @@ import uk.gov.pay.connector.app.StripeGatewayConfig;
 import uk.gov.pay.connector.charge.model.domain.ChargeEntity;
 import uk.gov.pay.connector.charge.model.domain.ChargeStatus;
 import uk.gov.pay.connector.charge.service.ChargeService;
+import uk.gov.pay.connector.charge.service.ChargeStatusWaiters;
 import uk.gov.pay.connector.common.exception.OperationAlreadyInProgressRuntimeException;
 import uk.gov.pay.connector.events.model.payout.PayoutEvent;
 import uk.gov.pay.connector.gateway.PaymentGatewayName;
@@ -33,9 +34,11 @@ import uk.gov.pay.connector.util.IpAddressMatcher;
 import uk.gov.service.payments.commons.queue.exception.QueueException;
 
 import jakarta.ws.rs.WebApplicationException;
+import java.time.Duration;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 import static java.lang.String.format;
 import static net.logstash.logback.argument.StructuredArguments.kv;
@@ -86,6 +89,7 @@ public class StripeNotificationService {
     private final IpAddressMatcher ipAddressMatcher;
     private final Set<String> allowedStripeIpAddresses;
     private final TaskQueueService taskQueueService;
+    private final ChargeStatusWaiters chargeStatusWaiters;
 
     private static final String PAYMENT_GATEWAY_NAME = PaymentGatewayName.STRIPE.getName();
     private static final long DEFAULT_TOLERANCE = 300L;
@@ -101,7 +105,8 @@ public class StripeNotificationService {
                                      IpAddressMatcher ipAddressMatcher,
                                      @Named("AllowedStripeIpAddresses") Set<String> allowedStripeIpAddresses,
                                      ObjectMapper objectMapper,
-                                     TaskQueueService taskQueueService) {
+                                     TaskQueueService taskQueueService,
+                                     ChargeStatusWaiters chargeStatusWaiters) {
         this.card3dsResponseAuthService = card3dsResponseAuthService;
         this.chargeService = chargeService;
         this.stripeAccountUpdatedHandler = stripeAccountUpdatedHandler;
@@ -113,6 +118,7 @@ public class StripeNotificationService {
         this.ipAddressMatcher = ipAddressMatcher;
         this.allowedStripeIpAddresses = allowedStripeIpAddresses;
         this.taskQueueService = taskQueueService;
+        this.chargeStatusWaiters = chargeStatusWaiters;
     }
 
     public boolean handleNotificationFor(String payload, String signatureHeader, String forwardedIpAddresses) {
@@ -289,22 +295,14 @@ public class StripeNotificationService {
     }
 
     private void delayFor3dsReady(ChargeEntity charge) {
-        int totalTimeDelayedInMillis = 0;
-        int delayInMillis = 200;
-        while (totalTimeDelayedInMillis < stripeGatewayConfig.getNotification3dsWaitDelay()) {
-            ChargeEntity chargeEntity = chargeService.findChargeByExternalId(charge.getExternalId());
-            if (ChargeStatus.fromString(chargeEntity.getStatus()) == AUTHORISATION_3DS_READY) {
-                break;
-            }
-            try {
-                Thread.sleep(delayInMillis);
-            } catch (InterruptedException e) {
-                logger.error("Waiting for 3ds ready locking state failed, {}", kv("error", e.getMessage()));
-            }
-            totalTimeDelayedInMillis += delayInMillis;
-        }
-        logger.info("Total time waited for Frontend to update charge [{}] to 3ds ready - {} milliseconds,"
-                , kv(PAYMENT_EXTERNAL_ID, charge.getExternalId()), totalTimeDelayedInMillis);
+        long startNanos = System.nanoTime();
+        boolean ready = chargeStatusWaiters.awaitStatus(charge.getExternalId(), AUTHORISATION_3DS_READY,
+                Duration.ofMillis(stripeGatewayConfig.getNotification3dsWaitDelay()),
+                () -> chargeService.findCurrentChargeStatus(charge.getExternalId()));
+        logger.info("Total time waited for Frontend to update charge [{}] to 3ds ready - {} milliseconds, {}",
+                kv(PAYMENT_EXTERNAL_ID, charge.getExternalId()),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos),
+                kv("3ds_ready", ready));
     }
 
     private boolean isAPaymentIntentNotification(StripeNotification notification) {
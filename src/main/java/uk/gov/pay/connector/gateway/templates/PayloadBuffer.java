@@ -0,0 +1,53 @@
+package uk.gov.pay.connector.gateway.templates;
+
+import freemarker.template.Template;
+import freemarker.template.TemplateException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Reusable UTF-8 byte buffer that templates are rendered into, so a request body is encoded once, straight
+ * from the template, and copied out exactly once at its final size.
+ * <p>
+ * Buffers are pooled rather than held per thread so that they are shared between virtual threads. A buffer
+ * is only returned to the pool after a successful render, and one that has grown past
+ * {@link #MAX_RETAINED_CAPACITY} is dropped rather than kept alive.
+ */
+final class PayloadBuffer extends ByteArrayOutputStream {
+
+    private static final int INITIAL_CAPACITY = 4 * 1024;
+    private static final int MAX_RETAINED_CAPACITY = 64 * 1024;
+    private static final int MAX_POOLED_INSTANCES = 64;
+
+    private static final BlockingQueue<PayloadBuffer> POOL = new ArrayBlockingQueue<>(MAX_POOLED_INSTANCES);
+
+    private final Writer writer = new OutputStreamWriter(this, UTF_8);
+
+    private PayloadBuffer() {
+        super(INITIAL_CAPACITY);
+    }
+
+    static byte[] render(Template template, Object dataModel) throws TemplateException, IOException {
+        PayloadBuffer buffer = POOL.poll();
+        if (buffer == null) {
+            buffer = new PayloadBuffer();
+        }
+
+        template.process(dataModel, buffer.writer);
+        buffer.writer.flush();
+        byte[] payload = buffer.toByteArray();
+
+        if (buffer.buf.length <= MAX_RETAINED_CAPACITY) {
+            buffer.reset();
+            POOL.offer(buffer);
+        }
+        return payload;
+    }
+}
@@ -5,4 +5,9 @@ import static uk.gov.pay.connector.gateway.OrderRequestBuilder.TemplateData;
 public interface PayloadBuilder {
 
     String buildWith(TemplateData templateData);
+
+    /**
+     * Renders the payload as UTF-8 bytes, ready to be sent as a request body.
+     */
+    byte[] renderWith(TemplateData templateData);
 }
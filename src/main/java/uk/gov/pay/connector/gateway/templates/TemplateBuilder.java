@@ -7,11 +7,10 @@ import freemarker.template.TemplateExceptionHandler;
 import uk.gov.pay.connector.gateway.OrderRequestBuilder.TemplateData;
 
 import java.io.IOException;
-import java.io.StringWriter;
-import java.io.Writer;
 import java.util.Locale;
 
 import static freemarker.template.Configuration.VERSION_2_3_34;
+import static java.nio.charset.StandardCharsets.UTF_8;
 
 public class TemplateBuilder implements PayloadBuilder {
     private Template template;
@@ -21,13 +20,19 @@ public class TemplateBuilder implements PayloadBuilder {
     }
 
     public String buildWith(TemplateData templateData) {
-        Writer responseWriter = new StringWriter();
+        return new String(renderWith(templateData), UTF_8);
+    }
+
+    public byte[] renderWith(TemplateData templateData) {
         try {
-            template.process(templateData, responseWriter);
+            return PayloadBuffer.render(template, templateData);
         } catch (TemplateException | IOException e) {
             throw new RuntimeException("Could not render template " + template.getName(), e);
         }
-        return responseWriter.toString();
+    }
+
+    String getTemplateName() {
+        return template.getName();
     }
 
     private void templateSetup(String templateDir, String templateName) {
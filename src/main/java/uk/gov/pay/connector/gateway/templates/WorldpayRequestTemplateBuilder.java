@@ -7,36 +7,80 @@ import freemarker.template.TemplateExceptionHandler;
 import uk.gov.pay.connector.gateway.model.request.records.WorldpayRequest;
 
 import java.io.IOException;
-import java.io.StringWriter;
-import java.io.Writer;
+import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 
 import static freemarker.template.Configuration.VERSION_2_3_34;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.function.Function.identity;
+import static java.util.stream.Collectors.toUnmodifiableMap;
 
 public class WorldpayRequestTemplateBuilder {
+
+    private static final String TEMPLATE_DIR = "/templates";
+
+    // Every Worldpay template is compiled when the builder is created, so that no request has to wait for its
+    // template to be parsed. WorldpayRequestTemplateBuilderTest checks this list against the templates directory.
+    static final List<String> WORLDPAY_TEMPLATES = List.of(
+            "worldpay/Worldpay3dsResponseAuthOrderTemplate.xml",
+            "worldpay/WorldpayAuthoriseApplePayOrderTemplate.xml",
+            "worldpay/WorldpayAuthoriseGooglePayOrderTemplate.xml",
+            "worldpay/WorldpayAuthoriseMotoOrderTemplate.ftlx",
+            "worldpay/WorldpayAuthoriseOrderTemplate.xml",
+            "worldpay/WorldpayAuthoriseRecurringOrderTemplate.xml",
+            "worldpay/WorldpayCancelOrderTemplate.xml",
+            "worldpay/WorldpayCaptureOrderTemplate.xml",
+            "worldpay/WorldpayDeleteTokenOrderTemplate.xml",
+            "worldpay/WorldpayInquiryOrderTemplate.xml",
+            "worldpay/WorldpayRefundOrderTemplate.xml"
+    );
+
     private final Configuration cfg;
+    private final Map<String, Template> precompiledTemplates;
 
     public WorldpayRequestTemplateBuilder() {
         cfg = new Configuration(VERSION_2_3_34);
         cfg.setDefaultEncoding("UTF-8");
         cfg.setLocale(Locale.ENGLISH);
         cfg.setTemplateExceptionHandler(TemplateExceptionHandler.RETHROW_HANDLER);
-        cfg.setClassForTemplateLoading(WorldpayRequestTemplateBuilder.class, "/templates");
+        cfg.setClassForTemplateLoading(WorldpayRequestTemplateBuilder.class, TEMPLATE_DIR);
+        precompiledTemplates = WORLDPAY_TEMPLATES.stream()
+                .collect(toUnmodifiableMap(identity(), this::loadTemplate));
+    }
+
+    boolean isPrecompiled(String templatePath) {
+        return precompiledTemplates.containsKey(stripLeadingSlash(templatePath));
     }
 
     public String buildWith(String templatePath, WorldpayRequest templateRecord) {
-        Template template;
-        try {
-            template = cfg.getTemplate(templatePath);
-        } catch (IOException e) {
-            throw new RuntimeException("Could not load template " + templatePath + " in dir /templates", e);
+        return new String(renderWith(templatePath, templateRecord), UTF_8);
+    }
+
+    /**
+     * Renders the template as UTF-8 bytes, ready to be sent as a request body without an intermediate String.
+     */
+    public byte[] renderWith(String templatePath, WorldpayRequest templateRecord) {
+        Template template = precompiledTemplates.get(stripLeadingSlash(templatePath));
+        if (template == null) {
+            template = loadTemplate(templatePath);
         }
-        Writer responseWriter = new StringWriter();
         try {
-            template.process(templateRecord, responseWriter);
+            return PayloadBuffer.render(template, templateRecord);
         } catch (TemplateException | IOException e) {
             throw new RuntimeException("Could not render template " + template.getName(), e);
         }
-        return responseWriter.toString();
+    }
+
+    private Template loadTemplate(String templatePath) {
+        try {
+            return cfg.getTemplate(templatePath);
+        } catch (IOException e) {
+            throw new RuntimeException("Could not load template " + templatePath + " in dir " + TEMPLATE_DIR, e);
+        }
+    }
+
+    private static String stripLeadingSlash(String templatePath) {
+        return templatePath.startsWith("/") ? templatePath.substring(1) : templatePath;
     }
 }
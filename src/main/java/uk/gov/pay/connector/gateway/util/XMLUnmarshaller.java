@@ -14,16 +14,55 @@ import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.parsers.SAXParser;
 import javax.xml.parsers.SAXParserFactory;
 import javax.xml.transform.sax.SAXSource;
-import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.util.Collection;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
-import static java.nio.charset.StandardCharsets.UTF_8;
 import static javax.xml.XMLConstants.FEATURE_SECURE_PROCESSING;
 
+/**
+ * Unmarshalls gateway XML payloads using a {@link JAXBContext} cached per target class and pools of
+ * secure {@link XMLReader} and {@link Unmarshaller} instances, so that the expensive JAXB and SAX setup
+ * is paid once per class rather than once per gateway response or notification.
+ * <p>
+ * Neither {@link XMLReader} nor {@link Unmarshaller} is thread-safe: an instance is only ever used by the
+ * thread that borrowed it and is returned to its pool once parsing has completed successfully. Instances
+ * that were in use when parsing failed are discarded rather than returned.
+ */
 public class XMLUnmarshaller {
 
     private static final String JDK_ENTITY_EXPANSION_LIMIT = "http://www.oracle.com/xml/jaxp/properties/entityExpansionLimit";
     private static final String JDK_ENTITY_EXPANSION_LIMIT_VALUE = "1";
 
+    static final int MAX_POOLED_INSTANCES = 64;
+
+    private static final ConcurrentMap<Class<?>, JAXBContext> JAXB_CONTEXTS = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<Class<?>, BlockingQueue<Unmarshaller>> UNMARSHALLERS = new ConcurrentHashMap<>();
+    private static final BlockingQueue<XMLReader> XML_READERS = new ArrayBlockingQueue<>(MAX_POOLED_INSTANCES);
+
+    private XMLUnmarshaller() {
+    }
+
+    /**
+     * Builds and caches the {@link JAXBContext} for each of the given classes so that the first gateway
+     * response or notification of each type does not pay for it. Intended to be called at application startup.
+     *
+     * @throws XMLUnmarshallerException if a context cannot be created for any of the classes
+     */
+    public static void initialiseJaxbContexts(Collection<Class<?>> classes) throws XMLUnmarshallerException {
+        try {
+            for (Class<?> clazz : classes) {
+                getJaxbContext(clazz);
+            }
+        } catch (JAXBException e) {
+            throw new XMLUnmarshallerException(e);
+        }
+    }
+
     /**
      * Unmarshall XML payloads to Java instance
      *
@@ -36,19 +75,52 @@ public class XMLUnmarshaller {
      * NamespaceAware must be set to true (soap envelopes are being unmarshalled using same method)
      */
     public static <T> T unmarshall(String payload, Class<T> clazz) throws XMLUnmarshallerException {
+        return unmarshall(new InputSource(new StringReader(payload)), clazz);
+    }
+
+    /**
+     * Unmarshall an XML payload read from a stream, with the same protections as {@link #unmarshall(String, Class)}.
+     * The stream is not closed.
+     */
+    public static <T> T unmarshall(InputStream payload, Class<T> clazz) throws XMLUnmarshallerException {
+        return unmarshall(new InputSource(payload), clazz);
+    }
+
+    private static <T> T unmarshall(InputSource inputSource, Class<T> clazz) throws XMLUnmarshallerException {
         try {
-            XMLReader xmlReader = buildXmlReader();
-            return unmarshall(payload, clazz, xmlReader);
+            XMLReader xmlReader = borrowXmlReader();
+            Unmarshaller unmarshaller = borrowUnmarshaller(clazz);
+            T result = unmarshaller.unmarshal(new SAXSource(xmlReader, inputSource), clazz).getValue();
+            XML_READERS.offer(xmlReader);
+            UNMARSHALLERS.get(clazz).offer(unmarshaller);
+            return result;
         } catch (ParserConfigurationException | SAXException | JAXBException e) {
             throw new XMLUnmarshallerException(e);
         }
     }
 
-    private static <T> T unmarshall(String payload, Class<T> clazz, XMLReader xmlReader) throws JAXBException {
-        InputSource inputSource = new InputSource(new ByteArrayInputStream(payload.getBytes(UTF_8)));
-        JAXBContext jaxbContext = JAXBContext.newInstance(clazz);
-        Unmarshaller unmarshaller = jaxbContext.createUnmarshaller();
-        return unmarshaller.unmarshal(new SAXSource(xmlReader, inputSource), clazz).getValue();
+    private static XMLReader borrowXmlReader() throws ParserConfigurationException, SAXException {
+        XMLReader xmlReader = XML_READERS.poll();
+        return xmlReader != null ? xmlReader : buildXmlReader();
+    }
+
+    private static Unmarshaller borrowUnmarshaller(Class<?> clazz) throws JAXBException {
+        Unmarshaller unmarshaller = UNMARSHALLERS
+                .computeIfAbsent(clazz, key -> new ArrayBlockingQueue<>(MAX_POOLED_INSTANCES))
+                .poll();
+        return unmarshaller != null ? unmarshaller : getJaxbContext(clazz).createUnmarshaller();
+    }
+
+    private static JAXBContext getJaxbContext(Class<?> clazz) throws JAXBException {
+        JAXBContext jaxbContext = JAXB_CONTEXTS.get(clazz);
+        if (jaxbContext == null) {
+            jaxbContext = JAXBContext.newInstance(clazz);
+            JAXBContext existing = JAXB_CONTEXTS.putIfAbsent(clazz, jaxbContext);
+            if (existing != null) {
+                jaxbContext = existing;
+            }
+        }
+        return jaxbContext;
     }
 
     private static XMLReader buildXmlReader() throws ParserConfigurationException, SAXException {
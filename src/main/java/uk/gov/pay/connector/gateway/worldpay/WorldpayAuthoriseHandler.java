@@ -105,7 +105,7 @@ public class WorldpayAuthoriseHandler implements WorldpayGatewayResponseGenerato
     public GatewayResponse<WorldpayOrderStatusResponse> authorise(WorldpayAuthoriseRequest worldpayAuthoriseRequest,
                                                                   GatewayAccountType gatewayAccountType) {
         Map<String, String> headers = getAuthHeader(worldpayAuthoriseRequest.username(), worldpayAuthoriseRequest.password());
-        String body = worldpayRequestTemplateBuilder.buildWith(MOTO_TEMPLATE_PATH, worldpayAuthoriseRequest);
+        byte[] body = worldpayRequestTemplateBuilder.renderWith(MOTO_TEMPLATE_PATH, worldpayAuthoriseRequest);
         GatewayOrder gatewayOrder = new GatewayOrder(OrderRequestType.AUTHORISE, body, MediaType.APPLICATION_XML_TYPE);
         return getGatewayResponse(gatewayAccountType.toString(), gatewayOrder, headers);
     }
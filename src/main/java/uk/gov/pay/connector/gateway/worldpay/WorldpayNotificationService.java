@@ -9,7 +9,6 @@ import uk.gov.pay.connector.charge.service.ChargeService;
 import uk.gov.pay.connector.gateway.PaymentGatewayName;
 import uk.gov.pay.connector.gateway.processor.ChargeNotificationProcessor;
 import uk.gov.pay.connector.gateway.processor.RefundNotificationProcessor;
-import uk.gov.pay.connector.gateway.util.XMLUnmarshaller;
 import uk.gov.pay.connector.gateway.util.XMLUnmarshallerException;
 import uk.gov.pay.connector.gatewayaccount.model.GatewayAccountEntity;
 import uk.gov.pay.connector.gatewayaccount.service.GatewayAccountService;
@@ -17,9 +16,12 @@ import uk.gov.pay.connector.refund.model.domain.RefundStatus;
 import uk.gov.pay.connector.util.IpDomainMatcher;
 
 import jakarta.inject.Inject;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
 import java.util.List;
 import java.util.Optional;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static net.logstash.logback.argument.StructuredArguments.kv;
 import static org.apache.commons.lang3.StringUtils.isBlank;
 import static uk.gov.pay.connector.charge.model.domain.ChargeStatus.CAPTURED;
@@ -69,6 +71,12 @@ public class WorldpayNotificationService {
 
     @Transactional
     public boolean handleNotificationFor(String ipAddress, String payload) {
+        logger.debug("Payload: {}", payload);
+        return handleNotificationFor(ipAddress, new ByteArrayInputStream(payload.getBytes(UTF_8)));
+    }
+
+    @Transactional
+    public boolean handleNotificationFor(String ipAddress, InputStream payload) {
         if (isNotificationRejectedFromIpAddress(ipAddress)) {
             logger.error("{} notification received from ip '{}' which is not in domain '{}'", PAYMENT_GATEWAY_NAME,
                     ipAddress, notificationDomain());
@@ -78,8 +86,7 @@ public class WorldpayNotificationService {
         WorldpayNotification notification;
         try {
             logger.info("Parsing {} notification", PAYMENT_GATEWAY_NAME);
-            logger.debug("Payload: {}", payload);
-            notification = XMLUnmarshaller.unmarshall(payload, WorldpayNotification.class);
+            notification = WorldpayResponseUnmarshaller.unmarshallNotification(payload);
             logger.info("Parsed {} notification: {}", PAYMENT_GATEWAY_NAME, notification);
         } catch (XMLUnmarshallerException e) {
             logger.error("{} notification parsing failed: {}", PAYMENT_GATEWAY_NAME, e);
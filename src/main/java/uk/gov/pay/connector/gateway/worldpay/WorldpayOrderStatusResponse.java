@@ -123,6 +123,59 @@ public class WorldpayOrderStatusResponse implements BaseAuthoriseResponse, BaseC
         this.challengeAcsUrl = challengeAcsUrl != null ? challengeAcsUrl.trim() : null;
     }
 
+    // Package-private so that they are not picked up as JAXB properties; used by WorldpayStaxUnmarshaller
+    void setTransactionId(String transactionId) {
+        this.transactionId = transactionId;
+    }
+
+    void setRefusedReturnCode(String refusedReturnCode) {
+        this.refusedReturnCode = refusedReturnCode;
+    }
+
+    void setRefusedReturnCodeDescription(String refusedReturnCodeDescription) {
+        this.refusedReturnCodeDescription = refusedReturnCodeDescription;
+    }
+
+    void setPaRequest(String paRequest) {
+        this.paRequest = paRequest;
+    }
+
+    void setExemptionResponseReason(String exemptionResponseReason) {
+        this.exemptionResponseReason = exemptionResponseReason;
+    }
+
+    void setChallengeTransactionId(String challengeTransactionId) {
+        this.challengeTransactionId = challengeTransactionId;
+    }
+
+    void setChallengePayload(String challengePayload) {
+        this.challengePayload = challengePayload;
+    }
+
+    void setThreeDsVersion(String threeDsVersion) {
+        this.threeDsVersion = threeDsVersion;
+    }
+
+    void setPaymentTokenId(String paymentTokenId) {
+        this.paymentTokenId = paymentTokenId;
+    }
+
+    void setSchemeTransactionIdentifier(String schemeTransactionIdentifier) {
+        this.schemeTransactionIdentifier = schemeTransactionIdentifier;
+    }
+
+    void setTokenEvent(String tokenEvent) {
+        this.tokenEvent = tokenEvent;
+    }
+
+    void setExpiryDateYear(String expiryDateYear) {
+        this.expiryDateYear = expiryDateYear;
+    }
+
+    void setExpiryDateMonth(String expiryDateMonth) {
+        this.expiryDateMonth = expiryDateMonth;
+    }
+
     @Override
     public boolean isSoftDecline() {
         return Optional.ofNullable(lastEvent).map("REFUSED"::equals).orElse(false)
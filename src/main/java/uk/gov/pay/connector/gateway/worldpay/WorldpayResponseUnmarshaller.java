@@ -0,0 +1,39 @@
+package uk.gov.pay.connector.gateway.worldpay;
+
+import uk.gov.pay.connector.app.WorldpayConfig.XmlParser;
+import uk.gov.pay.connector.gateway.util.XMLUnmarshaller;
+import uk.gov.pay.connector.gateway.util.XMLUnmarshallerException;
+
+import java.io.InputStream;
+import java.io.StringReader;
+
+/**
+ * Chooses between JAXB ({@link XMLUnmarshaller}) and StAX ({@link WorldpayStaxUnmarshaller}) for the Worldpay
+ * payloads that have a streaming parser. The parser is configured once at startup from {@code worldpay.xmlParser};
+ * every other Worldpay response type is always unmarshalled with JAXB.
+ */
+public final class WorldpayResponseUnmarshaller {
+
+    private static volatile XmlParser xmlParser = XmlParser.JAXB;
+
+    private WorldpayResponseUnmarshaller() {
+    }
+
+    public static void useXmlParser(XmlParser parser) {
+        xmlParser = parser;
+    }
+
+    public static <T> T unmarshall(String payload, Class<T> clazz) throws XMLUnmarshallerException {
+        if (xmlParser == XmlParser.STAX && clazz == WorldpayOrderStatusResponse.class) {
+            return clazz.cast(WorldpayStaxUnmarshaller.unmarshallOrderStatusResponse(new StringReader(payload)));
+        }
+        return XMLUnmarshaller.unmarshall(payload, clazz);
+    }
+
+    public static WorldpayNotification unmarshallNotification(InputStream payload) throws XMLUnmarshallerException {
+        if (xmlParser == XmlParser.STAX) {
+            return WorldpayStaxUnmarshaller.unmarshallNotification(payload);
+        }
+        return XMLUnmarshaller.unmarshall(payload, WorldpayNotification.class);
+    }
+}
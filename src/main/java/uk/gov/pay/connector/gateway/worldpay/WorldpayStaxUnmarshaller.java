@@ -0,0 +1,257 @@
+package uk.gov.pay.connector.gateway.worldpay;
+
+import uk.gov.pay.connector.gateway.util.XMLUnmarshallerException;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.InputStream;
+import java.io.Reader;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+import static javax.xml.stream.XMLStreamConstants.END_ELEMENT;
+import static javax.xml.stream.XMLStreamConstants.START_ELEMENT;
+
+/**
+ * Streaming alternative to the JAXB mappings on {@link WorldpayNotification} and {@link WorldpayOrderStatusResponse}.
+ * <p>
+ * Reads the payload once with StAX, populating only the fields that the {@code @XmlPath} annotations on those
+ * classes map, without building a JAXB tree. Paths are matched relative to the {@code paymentService} root
+ * element and the last matching element wins, as with JAXB. DTDs and external entities are not supported,
+ * so a payload that references an entity is rejected rather than expanded.
+ */
+public final class WorldpayStaxUnmarshaller {
+
+    private static final XMLInputFactory XML_INPUT_FACTORY = buildXmlInputFactory();
+
+    private static final String ORDER_STATUS_EVENT = "notify/orderStatusEvent";
+    private static final String JOURNAL = ORDER_STATUS_EVENT + "/journal";
+    private static final String BOOKING_DATE = JOURNAL + "/bookingDate/date";
+    private static final String JOURNAL_REFERENCE = JOURNAL + "/journalReference";
+
+    private static final String REPLY_ERROR = "reply/error";
+    private static final String ORDER_STATUS = "reply/orderStatus";
+    private static final String ORDER_STATUS_ERROR = ORDER_STATUS + "/error";
+    private static final String LAST_EVENT = ORDER_STATUS + "/payment/lastEvent";
+    private static final String ISO8583_RETURN_CODE = ORDER_STATUS + "/payment/ISO8583ReturnCode";
+    private static final String SCHEME_TRANSACTION_IDENTIFIER = ORDER_STATUS + "/payment/schemeResponse/transactionIdentifier";
+    private static final String EXPIRY_DATE = ORDER_STATUS + "/payment/paymentMethodDetail/card/expiryDate/date";
+    private static final String PA_REQUEST = ORDER_STATUS + "/requestInfo/request3DSecure/paRequest";
+    private static final String ISSUER_URL = ORDER_STATUS + "/requestInfo/request3DSecure/issuerURL";
+    private static final String EXEMPTION_RESPONSE = ORDER_STATUS + "/exemptionResponse";
+    private static final String CHALLENGE_DETAILS = ORDER_STATUS + "/challengeRequired/threeDSChallengeDetails";
+    private static final String CHALLENGE_TRANSACTION_ID = CHALLENGE_DETAILS + "/transactionId3DS";
+    private static final String CHALLENGE_PAYLOAD = CHALLENGE_DETAILS + "/payload";
+    private static final String CHALLENGE_THREE_DS_VERSION = CHALLENGE_DETAILS + "/threeDSVersion";
+    private static final String CHALLENGE_ACS_URL = CHALLENGE_DETAILS + "/acsURL";
+    private static final String TOKEN_DETAILS = ORDER_STATUS + "/token/tokenDetails";
+    private static final String PAYMENT_TOKEN_ID = TOKEN_DETAILS + "/paymentTokenID";
+
+    private WorldpayStaxUnmarshaller() {
+    }
+
+    public static WorldpayNotification unmarshallNotification(InputStream payload) throws XMLUnmarshallerException {
+        try {
+            XMLStreamReader reader = XML_INPUT_FACTORY.createXMLStreamReader(payload);
+            try {
+                return readNotification(reader);
+            } finally {
+                reader.close();
+            }
+        } catch (XMLStreamException | NumberFormatException e) {
+            throw new XMLUnmarshallerException(e);
+        }
+    }
+
+    public static WorldpayOrderStatusResponse unmarshallOrderStatusResponse(Reader payload) throws XMLUnmarshallerException {
+        try {
+            XMLStreamReader reader = XML_INPUT_FACTORY.createXMLStreamReader(payload);
+            try {
+                return readOrderStatusResponse(reader);
+            } finally {
+                reader.close();
+            }
+        } catch (XMLStreamException e) {
+            throw new XMLUnmarshallerException(e);
+        }
+    }
+
+    private static WorldpayNotification readNotification(XMLStreamReader reader) throws XMLStreamException {
+        String merchantCode = null;
+        String status = null;
+        String description = null;
+        int dayOfMonth = 0;
+        int month = 0;
+        int year = 0;
+        String transactionId = null;
+        String reference = null;
+        String refundAuthorisationReference = null;
+        String refundResponseReference = null;
+
+        ElementPath path = new ElementPath();
+        while (reader.hasNext()) {
+            int event = reader.next();
+            if (event == END_ELEMENT) {
+                path.pop();
+            } else if (event == START_ELEMENT) {
+                if (path.isBeforeRoot()) {
+                    path.pushRoot();
+                    merchantCode = attribute(reader, "merchantCode", merchantCode);
+                    continue;
+                }
+                switch (path.push(reader.getLocalName())) {
+                    case ORDER_STATUS_EVENT -> transactionId = attribute(reader, "orderCode", transactionId);
+                    case JOURNAL -> {
+                        status = attribute(reader, "journalType", status);
+                        description = attribute(reader, "description", description);
+                    }
+                    case BOOKING_DATE -> {
+                        dayOfMonth = intAttribute(reader, "dayOfMonth", dayOfMonth);
+                        month = intAttribute(reader, "month", month);
+                        year = intAttribute(reader, "year", year);
+                    }
+                    case JOURNAL_REFERENCE -> {
+                        String type = reader.getAttributeValue(null, "type");
+                        if ("capture".equals(type)) {
+                            reference = attribute(reader, "reference", reference);
+                        } else if ("refund_authorisation".equals(type)) {
+                            refundAuthorisationReference = attribute(reader, "reference", refundAuthorisationReference);
+                        } else if ("refund_response".equals(type)) {
+                            refundResponseReference = attribute(reader, "reference", refundResponseReference);
+                        }
+                    }
+                    default -> {
+                    }
+                }
+            }
+        }
+
+        return new WorldpayNotification(merchantCode, status, dayOfMonth, month, year, transactionId, reference,
+                refundAuthorisationReference, refundResponseReference, description);
+    }
+
+    private static WorldpayOrderStatusResponse readOrderStatusResponse(XMLStreamReader reader) throws XMLStreamException {
+        WorldpayOrderStatusResponse response = new WorldpayOrderStatusResponse();
+
+        ElementPath path = new ElementPath();
+        while (reader.hasNext()) {
+            int event = reader.next();
+            if (event == END_ELEMENT) {
+                path.pop();
+            } else if (event == START_ELEMENT) {
+                if (path.isBeforeRoot()) {
+                    path.pushRoot();
+                    continue;
+                }
+                switch (path.push(reader.getLocalName())) {
+                    case ORDER_STATUS -> response.setTransactionId(attribute(reader, "orderCode", response.getTransactionId()));
+                    case REPLY_ERROR -> {
+                        setIfPresent(reader.getAttributeValue(null, "code"), response::setErrorCode);
+                        response.setErrorMessage(elementText(reader, path));
+                    }
+                    case ORDER_STATUS_ERROR -> {
+                        setIfPresent(reader.getAttributeValue(null, "code"), response::setOrderStatusErrorCode);
+                        response.setOrderStatusErrorMessage(elementText(reader, path));
+                    }
+                    case LAST_EVENT -> response.setLastEvent(elementText(reader, path));
+                    case ISO8583_RETURN_CODE -> {
+                        setIfPresent(reader.getAttributeValue(null, "code"), response::setRefusedReturnCode);
+                        setIfPresent(reader.getAttributeValue(null, "description"), response::setRefusedReturnCodeDescription);
+                    }
+                    case SCHEME_TRANSACTION_IDENTIFIER -> response.setSchemeTransactionIdentifier(elementText(reader, path));
+                    case EXPIRY_DATE -> {
+                        setIfPresent(reader.getAttributeValue(null, "year"), response::setExpiryDateYear);
+                        setIfPresent(reader.getAttributeValue(null, "month"), response::setExpiryDateMonth);
+                    }
+                    case PA_REQUEST -> response.setPaRequest(elementText(reader, path));
+                    case ISSUER_URL -> response.set3dsIssuerUrl(elementText(reader, path));
+                    case EXEMPTION_RESPONSE -> {
+                        setIfPresent(reader.getAttributeValue(null, "result"), response::setExemptionResponseResult);
+                        setIfPresent(reader.getAttributeValue(null, "reason"), response::setExemptionResponseReason);
+                    }
+                    case CHALLENGE_TRANSACTION_ID -> response.setChallengeTransactionId(elementText(reader, path));
+                    case CHALLENGE_PAYLOAD -> response.setChallengePayload(elementText(reader, path));
+                    case CHALLENGE_THREE_DS_VERSION -> response.setThreeDsVersion(elementText(reader, path));
+                    case CHALLENGE_ACS_URL -> response.setChallengeAcsUrl(elementText(reader, path));
+                    case TOKEN_DETAILS -> setIfPresent(reader.getAttributeValue(null, "tokenEvent"), response::setTokenEvent);
+                    case PAYMENT_TOKEN_ID -> response.setPaymentTokenId(elementText(reader, path));
+                    default -> {
+                    }
+                }
+            }
+        }
+
+        return response;
+    }
+
+    /**
+     * Reads the text content of the current element, consuming its end tag.
+     */
+    private static String elementText(XMLStreamReader reader, ElementPath path) throws XMLStreamException {
+        String text = reader.getElementText();
+        path.pop();
+        return text;
+    }
+
+    private static String attribute(XMLStreamReader reader, String name, String currentValue) {
+        String value = reader.getAttributeValue(null, name);
+        return value != null ? value : currentValue;
+    }
+
+    private static int intAttribute(XMLStreamReader reader, String name, int currentValue) {
+        String value = reader.getAttributeValue(null, name);
+        return value != null ? Integer.parseInt(value.trim()) : currentValue;
+    }
+
+    private static void setIfPresent(String value, Consumer<String> setter) {
+        if (value != null) {
+            setter.accept(value);
+        }
+    }
+
+    private static XMLInputFactory buildXmlInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false); // Explicitly set. Do not remove
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false); // Explicitly set. Do not remove
+        factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, true);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+        return factory;
+    }
+
+    /**
+     * Tracks the slash-separated path of the current element relative to the root element.
+     */
+    private static final class ElementPath {
+        private final StringBuilder path = new StringBuilder(128);
+        private int[] lengths = new int[16];
+        private int depth = -1;
+
+        boolean isBeforeRoot() {
+            return depth < 0;
+        }
+
+        void pushRoot() {
+            depth = 0;
+        }
+
+        String push(String localName) {
+            if (++depth == lengths.length) {
+                lengths = Arrays.copyOf(lengths, depth * 2);
+            }
+            lengths[depth] = path.length();
+            if (depth > 1) {
+                path.append('/');
+            }
+            path.append(localName);
+            return path.toString();
+        }
+
+        void pop() {
+            if (depth > 0) {
+                path.setLength(lengths[depth]);
+            }
+            depth--;
+        }
+    }
+}
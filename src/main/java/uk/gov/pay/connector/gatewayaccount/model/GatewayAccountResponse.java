@@ -187,7 +187,8 @@ public class GatewayAccountResponse {
         this.allowGooglePay = gatewayAccountEntity.isAllowGooglePay();
         this.blockPrepaidCards = gatewayAccountEntity.isBlockPrepaidCards();
         this.corporatePrepaidDebitCardSurchargeAmount = gatewayAccountEntity.getCorporatePrepaidDebitCardSurchargeAmount();
-        this.emailNotifications = gatewayAccountEntity.getEmailNotifications();
+        gatewayAccountEntity.getEmailNotifications().forEach((notificationType, emailNotification) ->
+                this.emailNotifications.put(notificationType, emailNotification.detachedCopy()));
         this.emailCollectionMode = gatewayAccountEntity.getEmailCollectionMode();
         this.requires3ds = gatewayAccountEntity.isRequires3ds();
         this.allowZeroAmount = gatewayAccountEntity.isAllowZeroAmount();
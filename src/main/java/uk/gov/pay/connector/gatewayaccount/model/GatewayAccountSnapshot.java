@@ -0,0 +1,27 @@
+package uk.gov.pay.connector.gatewayaccount.model;
+
+import uk.gov.pay.connector.cardtype.model.domain.CardTypeEntity;
+
+import java.util.List;
+
+/**
+ * What the read-only gateway account endpoints return for an account, including its credentials, accepted card types
+ * and Worldpay 3DS Flex settings, taken when it was read so that it can be cached and shared between requests.
+ * <p>
+ * Everything in a snapshot is copied out of the gateway account entity when the snapshot is built, including its
+ * lazily loaded card types and email notifications, so a snapshot holds no managed entities and can be serialised
+ * after the entity manager that loaded the account has closed.
+ */
+public record GatewayAccountSnapshot(long id,
+                                     String externalId,
+                                     GatewayAccountWithCredentialsWithInternalIdResponse gatewayAccount,
+                                     List<CardTypeEntity> cardTypes) {
+
+    public static GatewayAccountSnapshot from(GatewayAccountEntity gatewayAccountEntity) {
+        return new GatewayAccountSnapshot(
+                gatewayAccountEntity.getId(),
+                gatewayAccountEntity.getExternalId(),
+                new GatewayAccountWithCredentialsWithInternalIdResponse(gatewayAccountEntity),
+                gatewayAccountEntity.getCardTypes().stream().map(CardTypeEntity::detachedCopy).toList());
+    }
+}
@@ -4,8 +4,10 @@ import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import io.swagger.v3.oas.annotations.media.Schema;
 
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 import static com.fasterxml.jackson.annotation.JsonInclude.Include.NON_NULL;
@@ -23,7 +25,7 @@ public class GatewayAccountWithCredentialsResponse extends GatewayAccountRespons
 
     public GatewayAccountWithCredentialsResponse(GatewayAccountEntity gatewayAccountEntity) {
         super(gatewayAccountEntity);
-        this.notifySettings = gatewayAccountEntity.getNotifySettings();
+        this.notifySettings = Optional.ofNullable(gatewayAccountEntity.getNotifySettings()).map(HashMap::new).orElse(null);
         this.gatewayAccountCredentials = gatewayAccountEntity.getGatewayAccountCredentials()
                 .stream()
                 .map(GatewayAccountCredentials::new)
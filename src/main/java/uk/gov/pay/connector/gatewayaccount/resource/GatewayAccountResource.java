@@ -23,6 +23,7 @@ import uk.gov.pay.connector.gatewayaccount.model.GatewayAccountEntity;
 import uk.gov.pay.connector.gatewayaccount.model.GatewayAccountRequest;
 import uk.gov.pay.connector.gatewayaccount.model.GatewayAccountResponse;
 import uk.gov.pay.connector.gatewayaccount.model.GatewayAccountSearchParams;
+import uk.gov.pay.connector.gatewayaccount.model.GatewayAccountSnapshot;
 import uk.gov.pay.connector.gatewayaccount.model.GatewayAccountType;
 import uk.gov.pay.connector.gatewayaccount.model.GatewayAccountWithCredentialsResponse;
 import uk.gov.pay.connector.gatewayaccount.model.GatewayAccountWithCredentialsWithInternalIdResponse;
@@ -112,8 +113,8 @@ public class GatewayAccountResource {
     public GatewayAccountWithCredentialsWithInternalIdResponse getGatewayAccount(@Parameter(example = "1", description = "Gateway account ID")
                                                                                  @PathParam("accountId") Long gatewayAccountId) {
 
-        return gatewayAccountService.getGatewayAccount(gatewayAccountId)
-                .map(GatewayAccountWithCredentialsWithInternalIdResponse::new)
+        return gatewayAccountService.getGatewayAccountSnapshot(gatewayAccountId)
+                .map(GatewayAccountSnapshot::gatewayAccount)
                 .orElseThrow(() -> new GatewayAccountNotFoundException(gatewayAccountId));
     }
 
@@ -189,8 +190,8 @@ public class GatewayAccountResource {
     )
     public GatewayAccountWithCredentialsWithInternalIdResponse getFrontendGatewayAccountByExternalId(@PathParam("externalId") String externalId) {
         return gatewayAccountService
-                .getGatewayAccountByExternal(externalId)
-                .map(GatewayAccountWithCredentialsWithInternalIdResponse::new)
+                .getGatewayAccountSnapshotByExternalId(externalId)
+                .map(GatewayAccountSnapshot::gatewayAccount)
                 .orElseThrow(() -> new GatewayAccountNotFoundException(format("Account with external id %s not found.", externalId)));
     }
 
@@ -219,8 +220,8 @@ public class GatewayAccountResource {
     )
     public Map<String, List<CardTypeEntity>> getGatewayAccountAcceptedCardTypes(@Parameter(example = "1", description = "Gateway account ID") @PathParam("accountId") Long accountId) {
         logger.info("Getting accepted card types for gateway account with account id {}", accountId);
-        return gatewayAccountService.getGatewayAccount(accountId)
-                .map(gatewayAccount -> Map.of(CARD_TYPES_FIELD_NAME, gatewayAccount.getCardTypes()))
+        return gatewayAccountService.getGatewayAccountSnapshot(accountId)
+                .map(gatewayAccount -> Map.of(CARD_TYPES_FIELD_NAME, gatewayAccount.cardTypes()))
                 .orElseThrow(() -> new GatewayAccountNotFoundException(accountId));
     }
 
@@ -386,8 +387,8 @@ public class GatewayAccountResource {
         Optional<GatewayAccountEntity> testAccount = gatewayAccountService.getGatewayAccountByServiceIdAndAccountType(serviceId, GatewayAccountType.TEST);
         Optional<GatewayAccountEntity> liveAccount = gatewayAccountService.getGatewayAccountByServiceIdAndAccountType(serviceId, GatewayAccountType.LIVE);
 
-        testAccount.ifPresent(gatewayAccount -> gatewayAccount.setServiceName(updateServiceNameRequest.getServiceName()));
-        liveAccount.ifPresent(gatewayAccount -> gatewayAccount.setServiceName(updateServiceNameRequest.getServiceName()));
+        testAccount.ifPresent(gatewayAccount -> updateServiceName(gatewayAccount, updateServiceNameRequest.getServiceName()));
+        liveAccount.ifPresent(gatewayAccount -> updateServiceName(gatewayAccount, updateServiceNameRequest.getServiceName()));
 
         if (testAccount.isPresent() || liveAccount.isPresent()) {
             return Response.ok().build();
@@ -429,7 +430,7 @@ public class GatewayAccountResource {
         return gatewayAccountService.getGatewayAccount(gatewayAccountId)
                 .map(gatewayAccount ->
                         {
-                            gatewayAccount.setServiceName(serviceName);
+                            updateServiceName(gatewayAccount, serviceName);
                             return Response.ok().build();
                         }
                 )
@@ -467,6 +468,7 @@ public class GatewayAccountResource {
                                 return Response.status(Status.CONFLICT).build();
                             }
                             gatewayAccount.setRequires3ds(update3dsToggleRequest.isToggle3ds());
+                            gatewayAccountService.invalidateCachedGatewayAccount(gatewayAccount.getId());
                             return Response.ok().build();
                         }
                 )
@@ -506,6 +508,7 @@ public class GatewayAccountResource {
                                 return Response.status(Status.CONFLICT).build();
                             }
                             gatewayAccount.setRequires3ds(requires3ds);
+                            gatewayAccountService.invalidateCachedGatewayAccount(gatewayAccount.getId());
                             return Response.ok().build();
                         }
                 )
@@ -604,9 +607,15 @@ public class GatewayAccountResource {
             return Response.status(Status.CONFLICT).build();
         }
         gatewayAccountToEdit.setCardTypes(cardTypeEntities);
+        gatewayAccountService.invalidateCachedGatewayAccount(gatewayAccountToEdit.getId());
         return Response.ok().build();
     }
 
+    private void updateServiceName(GatewayAccountEntity gatewayAccount, String serviceName) {
+        gatewayAccount.setServiceName(serviceName);
+        gatewayAccountService.invalidateCachedGatewayAccount(gatewayAccount.getId());
+    }
+
     private boolean hasAnyRequired3ds(List<CardTypeEntity> cardTypeEntities) {
         return cardTypeEntities.stream().anyMatch(CardTypeEntity::isRequires3ds);
     }
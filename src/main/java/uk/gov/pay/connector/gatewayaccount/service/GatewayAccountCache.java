@@ -0,0 +1,138 @@
+package uk.gov.pay.connector.gatewayaccount.service;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.prometheus.client.Counter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import uk.gov.pay.connector.app.ConnectorConfiguration;
+import uk.gov.pay.connector.app.config.GatewayAccountCacheConfig;
+import uk.gov.pay.connector.gatewayaccount.dao.GatewayAccountDao;
+import uk.gov.pay.connector.gatewayaccount.model.GatewayAccountEntity;
+import uk.gov.pay.connector.gatewayaccount.model.GatewayAccountSnapshot;
+import uk.gov.pay.connector.util.PostgresNotificationListener;
+
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static net.logstash.logback.argument.StructuredArguments.kv;
+import static uk.gov.service.payments.logging.LoggingKeys.GATEWAY_ACCOUNT_ID;
+
+/**
+ * Caches {@link GatewayAccountSnapshot}s for the read-only gateway account endpoints, keyed by gateway account ID.
+ * Gateway accounts that are not found are not cached.
+ * <p>
+ * Anything that changes a gateway account, its credentials, card types or 3DS Flex settings must call
+ * {@link #invalidate(long)}. When {@link PostgresNotificationListener} is enabled this also sends a Postgres
+ * notification on {@link #CHANNEL}, so every connector node (this one included) drops the account again once the
+ * change commits; a snapshot read on this node between the change and the commit would otherwise be kept.
+ * Snapshots expire after {@code expireAfterWriteInSeconds} regardless, which bounds how stale a missed invalidation
+ * can leave them.
+ */
+@Singleton
+public class GatewayAccountCache {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(GatewayAccountCache.class);
+
+    static final String CHANNEL = "gateway_account_changed";
+
+    private static final Counter cacheRequests = Counter.build()
+            .name("gateway_account_cache_requests_total")
+            .help("Number of gateway account reads answered from the cache (hit) or from the database (miss)")
+            .labelNames("result")
+            .register();
+
+    private static final Counter invalidations = Counter.build()
+            .name("gateway_account_cache_invalidations_total")
+            .help("Number of gateway accounts dropped from the cache when changed (local) or when told of a change by a Postgres notification (notification)")
+            .labelNames("source")
+            .register();
+
+    private final GatewayAccountDao gatewayAccountDao;
+    private final Cache<Long, GatewayAccountSnapshot> snapshots;
+    private final Cache<String, Long> idsByExternalId;
+    private final AtomicLong generation = new AtomicLong();
+    private final boolean notifyAllNodes;
+
+    @Inject
+    public GatewayAccountCache(GatewayAccountDao gatewayAccountDao, ConnectorConfiguration configuration,
+                               PostgresNotificationListener postgresNotificationListener) {
+        this(gatewayAccountDao, configuration.getGatewayAccountCacheConfig(), postgresNotificationListener);
+    }
+
+    public GatewayAccountCache(GatewayAccountDao gatewayAccountDao, GatewayAccountCacheConfig config,
+                               PostgresNotificationListener postgresNotificationListener) {
+        this.gatewayAccountDao = gatewayAccountDao;
+        this.snapshots = CacheBuilder.newBuilder()
+                .maximumSize(config.getMaximumSize())
+                .expireAfterWrite(config.getExpireAfterWriteInSeconds(), TimeUnit.SECONDS)
+                .build();
+        this.idsByExternalId = CacheBuilder.newBuilder()
+                .maximumSize(config.getMaximumSize())
+                .build();
+        this.notifyAllNodes = postgresNotificationListener.isEnabled();
+        if (notifyAllNodes) {
+            // Changes made while there was no listening connection were missed
+            postgresNotificationListener.subscribe(CHANNEL, this::invalidateFromNotification, this::invalidateAll);
+        }
+    }
+
+    public Optional<GatewayAccountSnapshot> getById(long gatewayAccountId) {
+        GatewayAccountSnapshot snapshot = snapshots.getIfPresent(gatewayAccountId);
+        if (snapshot != null) {
+            cacheRequests.labels("hit").inc();
+            return Optional.of(snapshot);
+        }
+        cacheRequests.labels("miss").inc();
+        long generationBeforeRead = generation.get();
+        return gatewayAccountDao.findById(gatewayAccountId).map(entity -> cache(entity, generationBeforeRead));
+    }
+
+    public Optional<GatewayAccountSnapshot> getByExternalId(String externalId) {
+        Long gatewayAccountId = idsByExternalId.getIfPresent(externalId);
+        if (gatewayAccountId != null) {
+            return getById(gatewayAccountId);
+        }
+        cacheRequests.labels("miss").inc();
+        long generationBeforeRead = generation.get();
+        return gatewayAccountDao.findByExternalId(externalId).map(entity -> cache(entity, generationBeforeRead));
+    }
+
+    public void invalidate(long gatewayAccountId) {
+        invalidateLocally(gatewayAccountId);
+        invalidations.labels("local").inc();
+        if (notifyAllNodes) {
+            gatewayAccountDao.sendNotification(CHANNEL, String.valueOf(gatewayAccountId));
+        }
+    }
+
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        snapshots.invalidateAll();
+    }
+
+    private GatewayAccountSnapshot cache(GatewayAccountEntity gatewayAccountEntity, long generationBeforeRead) {
+        GatewayAccountSnapshot snapshot = GatewayAccountSnapshot.from(gatewayAccountEntity);
+        idsByExternalId.put(snapshot.externalId(), snapshot.id());
+        // An account invalidated while it was being read may have been read as it was before the change
+        if (generation.get() == generationBeforeRead) {
+            snapshots.put(snapshot.id(), snapshot);
+        }
+        return snapshot;
+    }
+
+    private void invalidateLocally(long gatewayAccountId) {
+        generation.incrementAndGet();
+        snapshots.invalidate(gatewayAccountId);
+    }
+
+    private void invalidateFromNotification(String payload) {
+        long gatewayAccountId = Long.parseLong(payload);
+        invalidateLocally(gatewayAccountId);
+        invalidations.labels("notification").inc();
+        LOGGER.debug("Dropped cached gateway account on change notification", kv(GATEWAY_ACCOUNT_ID, gatewayAccountId));
+    }
+}
@@ -21,6 +21,7 @@ import uk.gov.pay.connector.gatewayaccount.model.GatewayAccountEntity;
 import uk.gov.pay.connector.gatewayaccount.model.GatewayAccountRequest;
 import uk.gov.pay.connector.gatewayaccount.model.GatewayAccountResponse;
 import uk.gov.pay.connector.gatewayaccount.model.GatewayAccountSearchParams;
+import uk.gov.pay.connector.gatewayaccount.model.GatewayAccountSnapshot;
 import uk.gov.pay.connector.gatewayaccount.model.GatewayAccountType;
 import uk.gov.pay.connector.gatewayaccount.model.WorldpayCredentials;
 import uk.gov.pay.connector.gatewayaccount.model.WorldpayMerchantCodeCredentials;
@@ -88,25 +89,46 @@ public class GatewayAccountService {
     private final GatewayAccountCredentialsHistoryDao gatewayAccountCredentialsHistoryDao;
     private final GatewayAccountCredentialsDao gatewayAccountCredentialsDao;
     private UnitOfWork unitOfWork;
+    private final GatewayAccountCache gatewayAccountCache;
 
     @Inject
     public GatewayAccountService(GatewayAccountDao gatewayAccountDao, CardTypeDao cardTypeDao,
                                  GatewayAccountCredentialsService gatewayAccountCredentialsService,
                                  GatewayAccountCredentialsHistoryDao gatewayAccountCredentialsHistoryDao,
                                  GatewayAccountCredentialsDao gatewayAccountCredentialsDao,
-                                 UnitOfWork unitOfWork) {
+                                 UnitOfWork unitOfWork,
+                                 GatewayAccountCache gatewayAccountCache) {
         this.gatewayAccountDao = gatewayAccountDao;
         this.cardTypeDao = cardTypeDao;
         this.gatewayAccountCredentialsService = gatewayAccountCredentialsService;
         this.gatewayAccountCredentialsHistoryDao = gatewayAccountCredentialsHistoryDao;
         this.gatewayAccountCredentialsDao = gatewayAccountCredentialsDao;
         this.unitOfWork = unitOfWork;
+        this.gatewayAccountCache = gatewayAccountCache;
     }
 
     public Optional<GatewayAccountEntity> getGatewayAccount(long gatewayAccountId) {
         return gatewayAccountDao.findById(gatewayAccountId);
     }
 
+    /**
+     * For reads that do not change the gateway account; use {@link #getGatewayAccount(long)} otherwise.
+     */
+    public Optional<GatewayAccountSnapshot> getGatewayAccountSnapshot(long gatewayAccountId) {
+        return gatewayAccountCache.getById(gatewayAccountId);
+    }
+
+    public Optional<GatewayAccountSnapshot> getGatewayAccountSnapshotByExternalId(String gatewayAccountExternalId) {
+        return gatewayAccountCache.getByExternalId(gatewayAccountExternalId);
+    }
+
+    /**
+     * Must be called by anything that changes a gateway account other than through this service.
+     */
+    public void invalidateCachedGatewayAccount(long gatewayAccountId) {
+        gatewayAccountCache.invalidate(gatewayAccountId);
+    }
+
     public List<GatewayAccountResponse> searchGatewayAccounts(GatewayAccountSearchParams params) {
         return gatewayAccountDao.search(params).stream()
                 .map(GatewayAccountResponse::new)
@@ -119,6 +141,7 @@ public class GatewayAccountService {
                 .ifPresent(gatewayAccountEntity -> {
                     gatewayAccountEntity.setDisabled(true);
                     gatewayAccountEntity.setDisabledReason(disabledReason);
+                    gatewayAccountCache.invalidate(gatewayAccountEntity.getId());
                 });
     }
 
@@ -129,6 +152,7 @@ public class GatewayAccountService {
                     attributeUpdater.get(gatewayAccountRequest.getPath())
                             .accept(gatewayAccountRequest, gatewayAccountEntity);
                     gatewayAccountDao.merge(gatewayAccountEntity);
+                    gatewayAccountCache.invalidate(gatewayAccountEntity.getId());
                     return Optional.of(GatewayAccount.valueOf(gatewayAccountEntity));
                 });
     }
@@ -140,6 +164,7 @@ public class GatewayAccountService {
                     attributeUpdater.get(gatewayAccountRequest.getPath())
                             .accept(gatewayAccountRequest, gatewayAccountEntity);
                     gatewayAccountDao.merge(gatewayAccountEntity);
+                    gatewayAccountCache.invalidate(gatewayAccountEntity.getId());
                     return Optional.of(GatewayAccount.valueOf(gatewayAccountEntity));
                 });
     }
@@ -380,6 +405,7 @@ public class GatewayAccountService {
         gatewayAccounts.forEach(ga -> {
             ga.setDisabled(true);
             gatewayAccountDao.merge(ga);
+            gatewayAccountCache.invalidate(ga.getId());
             ga.getGatewayAccountCredentials().forEach(creds -> {
                 creds.setState(RETIRED);
                 switch (PaymentGatewayName.valueFrom(creds.getPaymentProvider())) {
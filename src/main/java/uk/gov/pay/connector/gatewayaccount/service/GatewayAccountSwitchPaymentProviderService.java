@@ -41,11 +41,14 @@ public class GatewayAccountSwitchPaymentProviderService {
 
     private final GatewayAccountCredentialsDao gatewayAccountCredentialsDao;
     private final GatewayAccountDao gatewayAccountDao;
+    private final GatewayAccountCache gatewayAccountCache;
 
     @Inject
-    public GatewayAccountSwitchPaymentProviderService(GatewayAccountDao gatewayAccountDao, GatewayAccountCredentialsDao gatewayAccountCredentialsDao) {
+    public GatewayAccountSwitchPaymentProviderService(GatewayAccountDao gatewayAccountDao, GatewayAccountCredentialsDao gatewayAccountCredentialsDao,
+                                                      GatewayAccountCache gatewayAccountCache) {
         this.gatewayAccountDao = gatewayAccountDao;
         this.gatewayAccountCredentialsDao = gatewayAccountCredentialsDao;
+        this.gatewayAccountCache = gatewayAccountCache;
     }
 
     @Transactional
@@ -84,6 +87,7 @@ public class GatewayAccountSwitchPaymentProviderService {
 
         gatewayAccountCredentialsDao.mergeInSequence(Arrays.asList(switchingCredentialEntity, activeCredentialEntity));
         gatewayAccountDao.merge(gatewayAccountEntity);
+        gatewayAccountCache.invalidate(gatewayAccountEntity.getId());
 
         LOGGER.info("Gateway account [id={}] switched to new payment provider", gatewayAccountEntity.getId(),
                 kv(GATEWAY_ACCOUNT_ID, gatewayAccountEntity.getId()),
@@ -145,6 +149,7 @@ public class GatewayAccountSwitchPaymentProviderService {
         
         gatewayAccountCredentialsDao.mergeInSequence(activeStripeCredentialEntities);
         gatewayAccountDao.merge(gatewayAccountEntity);
+        gatewayAccountCache.invalidate(gatewayAccountEntity.getId());
 
         LOGGER.info("Gateway account [id={}] reverted to sandbox", gatewayAccountEntity.getId(),
                 kv(GATEWAY_ACCOUNT_ID, gatewayAccountEntity.getId()),
@@ -196,6 +201,7 @@ public class GatewayAccountSwitchPaymentProviderService {
 
         gatewayAccountCredentialsDao.mergeInSequence(List.of(adyenCredentialEntity, activeStripeCredential));
         gatewayAccountDao.merge(gatewayAccountEntity);
+        gatewayAccountCache.invalidate(gatewayAccountEntity.getId());
 
         LOGGER.info("Gateway account [id={}] switched to Adyen", gatewayAccountEntity.getId(),
                 kv(GATEWAY_ACCOUNT_ID, gatewayAccountEntity.getId()),
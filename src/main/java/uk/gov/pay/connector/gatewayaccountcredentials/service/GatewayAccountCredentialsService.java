@@ -20,6 +20,7 @@ import uk.gov.pay.connector.gatewayaccount.model.GatewayCredentials;
 import uk.gov.pay.connector.gatewayaccount.model.StripeCredentials;
 import uk.gov.pay.connector.gatewayaccount.model.WorldpayCredentials;
 import uk.gov.pay.connector.gatewayaccount.model.WorldpayMerchantCodeCredentials;
+import uk.gov.pay.connector.gatewayaccount.service.GatewayAccountCache;
 import uk.gov.pay.connector.gatewayaccountcredentials.dao.GatewayAccountCredentialsDao;
 import uk.gov.pay.connector.gatewayaccountcredentials.exception.CredentialsNotFoundBadRequestException;
 import uk.gov.pay.connector.gatewayaccountcredentials.exception.NoCredentialsInUsableStateException;
@@ -75,10 +76,14 @@ public class GatewayAccountCredentialsService {
 
     private final ObjectMapper objectMapper;
 
+    private final GatewayAccountCache gatewayAccountCache;
+
     @Inject
-    public GatewayAccountCredentialsService(GatewayAccountCredentialsDao gatewayAccountCredentialsDao, ObjectMapper objectMapper) {
+    public GatewayAccountCredentialsService(GatewayAccountCredentialsDao gatewayAccountCredentialsDao, ObjectMapper objectMapper,
+                                            GatewayAccountCache gatewayAccountCache) {
         this.gatewayAccountCredentialsDao = gatewayAccountCredentialsDao;
         this.objectMapper = objectMapper;
+        this.gatewayAccountCache = gatewayAccountCache;
     }
 
     @Transactional
@@ -96,6 +101,7 @@ public class GatewayAccountCredentialsService {
         gatewayAccountCredentials.setExternalId(randomUuid());
 
         gatewayAccountCredentialsDao.persist(gatewayAccountCredentials);
+        gatewayAccountCache.invalidate(gatewayAccountEntity.getId());
         return gatewayAccountCredentials;
     }
 
@@ -138,6 +144,7 @@ public class GatewayAccountCredentialsService {
         gatewayAccountCredentialsDao.merge(gatewayAccountCredentialsEntity);
 
         GatewayAccountEntity gatewayAccountEntity = gatewayAccountCredentialsEntity.getGatewayAccountEntity();
+        gatewayAccountCache.invalidate(gatewayAccountEntity.getId());
         LOGGER.info("Updated credentials for gateway account [id={}]", gatewayAccountEntity.getId(),
                 kv(GATEWAY_ACCOUNT_ID, gatewayAccountEntity.getId()),
                 kv(GATEWAY_ACCOUNT_TYPE, gatewayAccountEntity.getType()),
@@ -222,6 +229,7 @@ public class GatewayAccountCredentialsService {
                 gatewayAccountEntity.getRecentNonRetiredGatewayAccountCredentialsEntity(WORLDPAY.getName());
 
         updateStateForCredentials(gatewayAccountCredentialsEntity);
+        gatewayAccountCache.invalidate(gatewayAccountEntity.getId());
     }
 
     private void updateStateForCredentials(GatewayAccountCredentialsEntity credentialsEntity) {
@@ -337,6 +345,7 @@ public class GatewayAccountCredentialsService {
                         kv("gateway_account_id", updatableCredentialEntity.getGatewayAccountEntity().getId()));
             }
             gatewayAccountCredentialsDao.merge(updatableCredentialEntity);
+            gatewayAccountCache.invalidate(updatableCredentialEntity.getGatewayAccountEntity().getId());
         });
     }
 
@@ -10,25 +10,26 @@ import java.util.concurrent.ThreadPoolExecutor;
 
 public class CardExecutorServiceHealthCheck extends HealthCheck {
 
-    private ThreadPoolExecutor threadPoolExecutor;
+    private final CardExecutorService cardExecutorService;
 
     @Inject
     public CardExecutorServiceHealthCheck(CardExecutorService cardExecutorService) {
-        this.threadPoolExecutor = (ThreadPoolExecutor)cardExecutorService.getExecutor();
+        this.cardExecutorService = cardExecutorService;
         initialiseMetrics(cardExecutorService.getMetricRegistry());
     }
 
     private void initialiseMetrics(MetricRegistry metricRegistry) {
-        metricRegistry.<Gauge<Integer>>register("card-executor.active-threads", () -> threadPoolExecutor.getActiveCount());
-        metricRegistry.<Gauge<Integer>>register("card-executor.pool-size", () -> threadPoolExecutor.getPoolSize());
-        metricRegistry.<Gauge<Integer>>register("card-executor.core-pool-size", () -> threadPoolExecutor.getCorePoolSize());
-        metricRegistry.<Gauge<Integer>>register("card-executor.queue-size", () ->
-                threadPoolExecutor.getQueue() == null ? 0 : threadPoolExecutor.getQueue().size());
+        if (cardExecutorService.getExecutor() instanceof ThreadPoolExecutor threadPoolExecutor) {
+            metricRegistry.<Gauge<Integer>>register("card-executor.active-threads", () -> threadPoolExecutor.getActiveCount());
+            metricRegistry.<Gauge<Integer>>register("card-executor.pool-size", () -> threadPoolExecutor.getPoolSize());
+            metricRegistry.<Gauge<Integer>>register("card-executor.core-pool-size", () -> threadPoolExecutor.getCorePoolSize());
+        }
+        metricRegistry.<Gauge<Integer>>register("card-executor.queue-size", cardExecutorService::getQueueSize);
     }
 
     @Override
     protected Result check() {
-        if (threadPoolExecutor.getQueue().size() <= 10) {
+        if (cardExecutorService.getQueueSize() <= 10) {
             return Result.healthy();
         }
 
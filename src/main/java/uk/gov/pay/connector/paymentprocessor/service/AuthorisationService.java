@@ -7,6 +7,7 @@ import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.tuple.Pair;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
 import uk.gov.pay.connector.app.ConnectorConfiguration;
 import uk.gov.pay.connector.app.config.AuthorisationConfig;
 import uk.gov.pay.connector.charge.model.domain.ChargeEntity;
@@ -27,39 +28,67 @@ import static uk.gov.pay.connector.charge.model.domain.ChargeStatus.AUTHORISATIO
 import static uk.gov.pay.connector.charge.model.domain.ChargeStatus.AUTHORISATION_TIMEOUT;
 import static uk.gov.pay.connector.charge.model.domain.ChargeStatus.AUTHORISATION_UNEXPECTED_ERROR;
 import static uk.gov.pay.connector.paymentprocessor.service.CardExecutorService.ExecutionStatus;
+import static uk.gov.service.payments.logging.LoggingKeys.PROVIDER;
 
 public class AuthorisationService {
 
     private final CardExecutorService cardExecutorService;
+    private final CardOperationLimiter cardOperationLimiter;
     private final Logger logger = LoggerFactory.getLogger(getClass());
     private final MetricRegistry metricRegistry;
     private final AuthorisationConfig authorisationConfig;
 
     @Inject
-    public AuthorisationService(CardExecutorService cardExecutorService, Environment environment, ConnectorConfiguration configuration) {
+    public AuthorisationService(CardExecutorService cardExecutorService, CardOperationLimiter cardOperationLimiter,
+                                Environment environment, ConnectorConfiguration configuration) {
         this.cardExecutorService = cardExecutorService;
+        this.cardOperationLimiter = cardOperationLimiter;
         this.metricRegistry = environment.metrics();
         this.authorisationConfig = configuration.getAuthorisationConfig();
     }
 
     public <T> T executeAuthorise(String chargeId, Supplier<T> authorisationSupplier) {
         int timeoutInMilliseconds = authorisationConfig.getAsynchronousAuthTimeoutInMilliseconds();
+        CardOperationLimiter.Permit permit = cardOperationLimiter.acquire(MDC.get(PROVIDER), OperationType.AUTHORISATION);
         try {
-            return executeAuthorise(authorisationSupplier, timeoutInMilliseconds);
+            return executeAuthorise(permit, authorisationSupplier, timeoutInMilliseconds);
         } catch (AuthorisationExecutorTimedOutException e) {
             // Exception is mapped to a success response and authorisation is allowed to continue in background thread.
             throw new OperationAlreadyInProgressRuntimeException(OperationType.AUTHORISATION.getValue(), chargeId);
         }
     }
 
+    /**
+     * Refuses a synchronous authorisation if the concurrency limit for the payment gateway has been reached. This has
+     * to be called before the charge is locked for authorisation, since {@link #executeAuthoriseSync} is called
+     * once the charge is locked and so cannot refuse it without leaving the charge locked.
+     */
+    public void checkAuthorisationCapacity() {
+        cardOperationLimiter.checkCapacity(MDC.get(PROVIDER), OperationType.AUTHORISATION);
+    }
+
     public <T> T executeAuthoriseSync(Supplier<T> authorisationSupplier) throws AuthorisationExecutorTimedOutException {
         int timeoutInMilliseconds = authorisationConfig.getSynchronousAuthTimeoutInMilliseconds();
-        return executeAuthorise(authorisationSupplier, timeoutInMilliseconds);
+        return executeAuthorise(cardOperationLimiter.acquireAfterCheck(MDC.get(PROVIDER)), authorisationSupplier, timeoutInMilliseconds);
     }
 
-    private <T> T executeAuthorise(Supplier<T> authorisationSupplier, int timeoutInMilliseconds)
+    private <T> T executeAuthorise(CardOperationLimiter.Permit permit, Supplier<T> authorisationSupplier, int timeoutInMilliseconds)
             throws AuthorisationExecutorTimedOutException {
-        Pair<ExecutionStatus, T> executeResult = cardExecutorService.execute(authorisationSupplier, timeoutInMilliseconds);
+        // the authorisation may carry on in the background after a timeout, so the permit is released by the task
+        Pair<ExecutionStatus, T> executeResult;
+        try {
+            executeResult = cardExecutorService.execute(() -> {
+                permit.runningOnCurrentThread();
+                try {
+                    return authorisationSupplier.get();
+                } finally {
+                    permit.release();
+                }
+            }, timeoutInMilliseconds);
+        } catch (RuntimeException e) {
+            permit.release();
+            throw e;
+        }
 
         switch (executeResult.getLeft()) {
             case COMPLETED:
@@ -163,6 +163,7 @@ public class CardAuthoriseService {
 
     public AuthorisationResponse doAuthoriseMotoApi(ChargeEntity chargeEntity, CardInformation cardInformation, MotoApiAuthoriseRequest motoApiAuthoriseRequest) {
         AuthCardDetails authCardDetails = AuthCardDetails.of(motoApiAuthoriseRequest, chargeEntity, cardInformation);
+        authorisationService.checkAuthorisationCapacity();
         final ChargeEntity charge = prepareChargeForAuthorisation(chargeEntity.getExternalId(), authCardDetails);
 
         try {
@@ -1,8 +1,15 @@
 package uk.gov.pay.connector.paymentprocessor.service;
 
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import io.dropwizard.core.setup.Environment;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
+import uk.gov.pay.connector.app.CaptureProcessConfig;
+import uk.gov.pay.connector.app.ConnectorConfiguration;
 import uk.gov.pay.connector.charge.ChargesAwaitingCaptureMetricEmitter;
 import uk.gov.pay.connector.charge.service.ChargeService;
 import uk.gov.pay.connector.common.exception.IllegalStateRuntimeException;
@@ -10,50 +17,206 @@ import uk.gov.pay.connector.gateway.CaptureResponse;
 import uk.gov.pay.connector.queue.capture.CaptureQueue;
 import uk.gov.pay.connector.queue.capture.ChargeCaptureMessage;
 import uk.gov.service.payments.commons.queue.exception.QueueException;
+import uk.gov.service.payments.commons.queue.model.QueueMessage;
 
 import jakarta.inject.Inject;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.InstantSource;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 
 import static uk.gov.service.payments.logging.LoggingKeys.PAYMENT_EXTERNAL_ID;
 
+/**
+ * Receives capture messages and hands each one to a bounded pool of capture workers, so the receiving thread can
+ * fetch the next batch while earlier captures are still waiting on the gateway. Messages that have been processed are
+ * deleted from the queue in batches and messages held for a long time have their visibility timeout extended; both
+ * happen in {@link #runHousekeeping()}, which the {@code CaptureMessageReceiver} calls on a schedule.
+ */
 public class CardCaptureProcess {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(CardCaptureProcess.class);
+    private static final String CAPTURE_WORKER_THREAD_NAME = "capture-worker-%d";
+
     private final CaptureQueue captureQueue;
     private final ChargeService chargeService;
     private CardCaptureService cardCaptureService;
+    private final ExecutorService captureWorkerExecutorService;
+    private final InstantSource instantSource;
+    private final int numberOfCaptureWorkers;
+    private final Duration inFlightVisibilityTimeout;
+    private final Semaphore captureWorkerPermits;
+    private final Map<ChargeCaptureMessage, InFlightMessage> inFlightMessages = new ConcurrentHashMap<>();
+    private final Queue<QueueMessage> processedMessages = new ConcurrentLinkedQueue<>();
+    private final Meter captures;
+    private final Timer messageLag;
 
     @Inject
     public CardCaptureProcess(CaptureQueue captureQueue,
                               CardCaptureService cardCaptureService,
                               ChargeService chargeService,
-                              ChargesAwaitingCaptureMetricEmitter chargesAwaitingCaptureMetricEmitter) {
+                              ChargesAwaitingCaptureMetricEmitter chargesAwaitingCaptureMetricEmitter,
+                              Environment environment,
+                              ConnectorConfiguration connectorConfiguration,
+                              InstantSource instantSource) {
+        this(captureQueue, cardCaptureService, chargeService, chargesAwaitingCaptureMetricEmitter,
+                environment.lifecycle()
+                        .executorService(CAPTURE_WORKER_THREAD_NAME)
+                        .minThreads(connectorConfiguration.getCaptureProcessConfig().getCaptureWorkerNumberOfThreads())
+                        .maxThreads(connectorConfiguration.getCaptureProcessConfig().getCaptureWorkerNumberOfThreads())
+                        .build(),
+                environment.metrics(), connectorConfiguration.getCaptureProcessConfig(), instantSource);
+    }
+
+    CardCaptureProcess(CaptureQueue captureQueue,
+                       CardCaptureService cardCaptureService,
+                       ChargeService chargeService,
+                       ChargesAwaitingCaptureMetricEmitter chargesAwaitingCaptureMetricEmitter,
+                       ExecutorService captureWorkerExecutorService,
+                       MetricRegistry metricRegistry,
+                       CaptureProcessConfig captureProcessConfig,
+                       InstantSource instantSource) {
         this.captureQueue = captureQueue;
         this.cardCaptureService = cardCaptureService;
         this.chargeService = chargeService;
+        this.captureWorkerExecutorService = captureWorkerExecutorService;
+        this.instantSource = instantSource;
+        this.numberOfCaptureWorkers = captureProcessConfig.getCaptureWorkerNumberOfThreads();
+        this.inFlightVisibilityTimeout = Duration.ofSeconds(captureProcessConfig.getInFlightVisibilityTimeoutInSeconds());
+        this.captureWorkerPermits = new Semaphore(numberOfCaptureWorkers);
+
+        captures = metricRegistry.meter("capture-process.captures");
+        messageLag = metricRegistry.timer("capture-process.message-lag");
+        metricRegistry.gauge("capture-process.in-flight", () -> (Gauge<Integer>) this::getNumberOfCapturesInFlight);
 
         chargesAwaitingCaptureMetricEmitter.register();
     }
 
-    public void handleCaptureMessages() throws QueueException {
+    /**
+     * Receives one batch of capture messages and dispatches each to a capture worker, waiting for a free worker when
+     * they are all busy so that no more than the configured number of captures are ever in flight.
+     *
+     * @return the number of messages received, so callers can keep receiving while the queue has a backlog
+     */
+    public int handleCaptureMessages() throws QueueException {
         List<ChargeCaptureMessage> captureMessages = captureQueue.retrieveChargesForCapture();
-        for (ChargeCaptureMessage message : captureMessages) {
+        Instant receivedDate = instantSource.instant();
+        captureMessages.forEach(message -> inFlightMessages.put(message, new InFlightMessage(receivedDate)));
+
+        for (int i = 0; i < captureMessages.size(); i++) {
+            ChargeCaptureMessage message = captureMessages.get(i);
             try {
-                MDC.put(PAYMENT_EXTERNAL_ID, message.getChargeId());
-                LOGGER.info("Charge capture message received - [queueMessageId={}] [queueMessageReceiptHandle={}]",
-                        message.getQueueMessageId(),
-                        message.getQueueMessageReceiptHandle()
-                );
+                captureWorkerPermits.acquire();
+            } catch (InterruptedException e) {
+                // Messages not yet dispatched become visible again and are picked up by the next receiver
+                captureMessages.subList(i, captureMessages.size()).forEach(inFlightMessages::remove);
+                Thread.currentThread().interrupt();
+                break;
+            }
+            try {
+                captureWorkerExecutorService.execute(() -> captureAndRelease(message));
+            } catch (RejectedExecutionException e) {
+                LOGGER.warn("Capture worker rejected SQS message [queueMessageId={}] [errorMessage={}]",
+                        message.getQueueMessageId(), e.getMessage());
+                inFlightMessages.remove(message);
+                captureWorkerPermits.release();
+            }
+        }
+        return captureMessages.size();
+    }
 
-                runCapture(message);
-            } catch (Exception e) {
-                LOGGER.warn("Error capturing charge from SQS message [queueMessageId={}] [errorMessage={}]",
-                        message.getQueueMessageId(),
-                        e.getMessage()
-                );
-            } finally {
-                MDC.remove(PAYMENT_EXTERNAL_ID);
+    /**
+     * Deletes the messages processed since the last call and extends the visibility timeout of any message that has
+     * been held for more than half of the in-flight visibility timeout.
+     */
+    public void runHousekeeping() {
+        flushProcessedMessages();
+
+        Instant now = instantSource.instant();
+        inFlightMessages.forEach((message, inFlightMessage) -> {
+            if (Duration.between(inFlightMessage.visibilityExtendedDate, now).compareTo(inFlightVisibilityTimeout.dividedBy(2)) < 0) {
+                return;
+            }
+            try {
+                captureQueue.extendVisibilityTimeout(message.getQueueMessage(), (int) inFlightVisibilityTimeout.toSeconds());
+                inFlightMessage.visibilityExtendedDate = now;
+                LOGGER.info("Extended visibility timeout of slow capture message [queueMessageId={}] [chargeId={}] [heldForMilliseconds={}]",
+                        message.getQueueMessageId(), message.getChargeId(),
+                        Duration.between(inFlightMessage.receivedDate, now).toMillis());
+            } catch (QueueException | RuntimeException e) {
+                LOGGER.warn("Failed to extend visibility timeout of capture message [queueMessageId={}] [errorMessage={}]",
+                        message.getQueueMessageId(), e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Waits for the captures already dispatched to finish and deletes their messages. Used when shutting down.
+     *
+     * @return false if captures were still running when the timeout elapsed
+     */
+    public boolean awaitInFlightCaptures(long timeout, TimeUnit unit) throws InterruptedException {
+        boolean finished = captureWorkerPermits.tryAcquire(numberOfCaptureWorkers, timeout, unit);
+        if (finished) {
+            captureWorkerPermits.release(numberOfCaptureWorkers);
+        }
+        flushProcessedMessages();
+        return finished;
+    }
+
+    public int getNumberOfCapturesInFlight() {
+        return numberOfCaptureWorkers - captureWorkerPermits.availablePermits();
+    }
+
+    private void captureAndRelease(ChargeCaptureMessage message) {
+        try {
+            MDC.put(PAYMENT_EXTERNAL_ID, message.getChargeId());
+            LOGGER.info("Charge capture message received - [queueMessageId={}] [queueMessageReceiptHandle={}]",
+                    message.getQueueMessageId(),
+                    message.getQueueMessageReceiptHandle()
+            );
+
+            runCapture(message);
+        } catch (Exception e) {
+            LOGGER.warn("Error capturing charge from SQS message [queueMessageId={}] [errorMessage={}]",
+                    message.getQueueMessageId(),
+                    e.getMessage()
+            );
+        } finally {
+            MDC.remove(PAYMENT_EXTERNAL_ID);
+            InFlightMessage inFlightMessage = inFlightMessages.remove(message);
+            if (inFlightMessage != null) {
+                messageLag.update(Duration.between(inFlightMessage.receivedDate, instantSource.instant()));
             }
+            captures.mark();
+            captureWorkerPermits.release();
+        }
+    }
+
+    private void markMessageAsProcessed(ChargeCaptureMessage captureMessage) {
+        processedMessages.add(captureMessage.getQueueMessage());
+        if (processedMessages.size() >= CaptureQueue.SQS_MAX_BATCH_SIZE) {
+            flushProcessedMessages();
+        }
+    }
+
+    private void flushProcessedMessages() {
+        List<QueueMessage> batch = new ArrayList<>();
+        QueueMessage queueMessage;
+        while ((queueMessage = processedMessages.poll()) != null) {
+            batch.add(queueMessage);
+        }
+        if (!batch.isEmpty()) {
+            captureQueue.markMessagesAsProcessed(batch);
         }
     }
 
@@ -64,7 +227,7 @@ public class CardCaptureProcess {
             CaptureResponse gatewayResponse = cardCaptureService.doCapture(externalChargeId);
 
             if (gatewayResponse.isSuccessful()) {
-                captureQueue.markMessageAsProcessed(captureMessage.getQueueMessage());
+                markMessageAsProcessed(captureMessage);
             } else {
                 LOGGER.info(
                         "Failed to capture [externalChargeId={}] due to: {}",
@@ -86,17 +249,17 @@ public class CardCaptureProcess {
             captureQueue.scheduleMessageForRetry(captureMessage.getQueueMessage());
         } else {
             cardCaptureService.markChargeAsCaptureError(captureMessage.getChargeId());
-            captureQueue.markMessageAsProcessed(captureMessage.getQueueMessage());
+            markMessageAsProcessed(captureMessage);
         }
     }
 
-    private void handleCapturedInvalidTransition(ChargeCaptureMessage captureMessage, IllegalStateRuntimeException e) throws QueueException {
+    private void handleCapturedInvalidTransition(ChargeCaptureMessage captureMessage, IllegalStateRuntimeException e) {
         if (chargeService.isChargeCaptureSuccess(captureMessage.getChargeId())) {
             LOGGER.info(
                     "Charge capture message [{}] already captured - marking as processed. [chargeId={}]",
                     captureMessage.getQueueMessageId(),
                     captureMessage.getChargeId());
-            captureQueue.markMessageAsProcessed(captureMessage.getQueueMessage());
+            markMessageAsProcessed(captureMessage);
             return;
         }
 
@@ -106,4 +269,14 @@ public class CardCaptureProcess {
                 captureMessage.getChargeId());
         throw e;
     }
+
+    private static class InFlightMessage {
+        private final Instant receivedDate;
+        private volatile Instant visibilityExtendedDate;
+
+        private InFlightMessage(Instant receivedDate) {
+            this.receivedDate = receivedDate;
+            this.visibilityExtendedDate = receivedDate;
+        }
+    }
 }
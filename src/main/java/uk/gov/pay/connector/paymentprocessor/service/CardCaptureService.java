@@ -50,6 +50,7 @@ public class CardCaptureService {
     protected MetricRegistry metricRegistry;
     protected InstantSource instantSource;
     protected CaptureQueue captureQueue;
+    private final CardOperationLimiter cardOperationLimiter;
 
     @Inject
     public CardCaptureService(ChargeService chargeService,
@@ -58,7 +59,8 @@ public class CardCaptureService {
                               Environment environment,
                               InstantSource instantSource,
                               CaptureQueue captureQueue,
-                              EventService eventService) {
+                              EventService eventService,
+                              CardOperationLimiter cardOperationLimiter) {
         this.chargeService = chargeService;
         this.providers = providers;
         this.metricRegistry = environment.metrics();
@@ -66,6 +68,7 @@ public class CardCaptureService {
         this.userNotificationService = userNotificationService;
         this.captureQueue = captureQueue;
         this.eventService = eventService;
+        this.cardOperationLimiter = cardOperationLimiter;
     }
 
     public CaptureResponse doCapture(String externalId) {
@@ -76,15 +79,27 @@ public class CardCaptureService {
             LOG.info("OptimisticLockException in doCapture for charge external_id={}", externalId);
             throw new ConflictRuntimeException(externalId);
         }
-        CaptureResponse operationResponse = capture(charge);
-        processGatewayCaptureResponse(externalId, charge.getStatus(), operationResponse);
+        CardOperationLimiter.Permit permit = cardOperationLimiter.acquireAfterCheck(charge.getPaymentGatewayName().getName());
+        permit.runningOnCurrentThread();
+        try {
+            CaptureResponse operationResponse = capture(charge);
+            processGatewayCaptureResponse(externalId, charge.getStatus(), operationResponse);
 
-        return operationResponse;
+            return operationResponse;
+        } finally {
+            permit.release();
+        }
     }
 
+    /**
+     * A capture is refused here, if the concurrency limit for its payment gateway has been reached, so that the lock
+     * is rolled back and the capture is retried from the queue later
+     */
     @Transactional
     public ChargeEntity prepareChargeForCapture(String chargeId) {
-        return chargeService.lockChargeForProcessing(chargeId, OperationType.CAPTURE);
+        ChargeEntity charge = chargeService.lockChargeForProcessing(chargeId, OperationType.CAPTURE);
+        cardOperationLimiter.checkCapacity(charge.getPaymentGatewayName().getName(), OperationType.CAPTURE);
+        return charge;
     }
 
     @Transactional
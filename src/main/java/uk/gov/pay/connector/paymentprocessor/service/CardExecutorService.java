@@ -1,5 +1,6 @@
 package uk.gov.pay.connector.paymentprocessor.service;
 
+import com.codahale.metrics.Gauge;
 import com.codahale.metrics.MetricRegistry;
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.google.inject.Inject;
@@ -15,36 +16,52 @@ import jakarta.ws.rs.WebApplicationException;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Supplier;
 
 import static java.lang.Runtime.getRuntime;
+import static uk.gov.pay.connector.app.ExecutorServiceConfig.ExecutorMode.VIRTUAL_THREADS;
 import static uk.gov.pay.connector.paymentprocessor.service.CardExecutorService.ExecutionStatus.COMPLETED;
 import static uk.gov.pay.connector.paymentprocessor.service.CardExecutorService.ExecutionStatus.FAILED;
 import static uk.gov.pay.connector.paymentprocessor.service.CardExecutorService.ExecutionStatus.IN_PROGRESS;
+import static uk.gov.service.payments.logging.LoggingKeys.PROVIDER;
 
 /**
- * CardExecutorService executes tasks passed to it in a separate thread. The point of running tasks in a separate thread 
- * is that it can keep running after the originating thread has returned to the user. That is the purpose of the 
- * .get(config.getTimeoutInSeconds(), TimeUnit.SECONDS). If you look how that is used in the authorise service, it 
- * catches the timeout exception and returns to frontend as 'in progress'. Frontend then polls connector until the 
+ * CardExecutorService executes tasks passed to it in a separate thread. The point of running tasks in a separate thread
+ * is that it can keep running after the originating thread has returned to the user. That is the purpose of the
+ * .get(config.getTimeoutInSeconds(), TimeUnit.SECONDS). If you look how that is used in the authorise service, it
+ * catches the timeout exception and returns to frontend as 'in progress'. Frontend then polls connector until the
  * charge is authorised (by the CES thread), and continues on its merry way.
+ * <p>
+ * In {@link ExecutorServiceConfig.ExecutorMode#VIRTUAL_THREADS} mode each task gets its own virtual thread instead of
+ * waiting for a pooled platform thread. Tasks are limited to {@code maxConcurrentOperationsPerGateway} at once per
+ * payment provider, taken from the {@code PROVIDER} MDC key that the request filter sets, and time spent waiting for
+ * that limit is reported as queue wait.
  */
 public class CardExecutorService {
 
     private static final Logger logger = LoggerFactory.getLogger(CardExecutorService.class);
     private static final int QUEUE_WAIT_WARN_THRESHOLD_MILLIS = 1000;
     public static final int SHUTDOWN_AWAIT_TERMINATION_TIMEOUT_SECONDS = 10;
+    private static final String UNKNOWN_PROVIDER = "unknown";
     private final MetricRegistry metricRegistry;
 
     private ExecutorServiceConfig config;
     private ExecutorService executor;
+    private final ConcurrentMap<String, Semaphore> gatewayPermits = new ConcurrentHashMap<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger waitingForPermit = new AtomicInteger();
 
     public enum ExecutionStatus {
         COMPLETED,
@@ -54,13 +71,23 @@ public class CardExecutorService {
 
     @Inject
     public CardExecutorService(ConnectorConfiguration configuration, Environment environment) {
-        final ThreadFactory threadFactory = new ThreadFactoryBuilder()
-                .setNameFormat("CardExecutorService-%d")
-                .build();
-        this.metricRegistry = environment.metrics();
-        this.config = configuration.getExecutorServiceConfig();
-        int numberOfThreads = config.getThreadsPerCpu() * getRuntime().availableProcessors();
-        this.executor = Executors.newFixedThreadPool(numberOfThreads, threadFactory);
+        this(configuration.getExecutorServiceConfig(), environment.metrics());
+    }
+
+    public CardExecutorService(ExecutorServiceConfig config, MetricRegistry metricRegistry) {
+        this.metricRegistry = metricRegistry;
+        this.config = config;
+        if (config.getMode() == VIRTUAL_THREADS) {
+            ThreadFactory threadFactory = Thread.ofVirtual().name("CardExecutorService-virtual-", 0).factory();
+            this.executor = Executors.newThreadPerTaskExecutor(threadFactory);
+        } else {
+            final ThreadFactory threadFactory = new ThreadFactoryBuilder()
+                    .setNameFormat("CardExecutorService-%d")
+                    .build();
+            int numberOfThreads = config.getThreadsPerCpu() * getRuntime().availableProcessors();
+            this.executor = Executors.newFixedThreadPool(numberOfThreads, threadFactory);
+        }
+        metricRegistry.gauge("card-executor.in-flight", () -> (Gauge<Integer>) inFlight::get);
         addShutdownHook();
     }
 
@@ -87,6 +114,21 @@ public class CardExecutorService {
         return executor;
     }
 
+    /**
+     * Number of tasks that have been submitted but are not yet running: waiting for a pooled thread in platform
+     * thread mode, or for their payment provider's concurrency limit in virtual thread mode.
+     */
+    public int getQueueSize() {
+        if (executor instanceof ThreadPoolExecutor threadPoolExecutor) {
+            return threadPoolExecutor.getQueue().size();
+        }
+        return waitingForPermit.get();
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
     // accepts a supplier function and executed that in a separate Thread of its own.
     // returns a Pair of the execution status and the return type
     public <T> Pair<ExecutionStatus, T> execute(Supplier<T> callable, int timeoutInMilliseconds) {
@@ -96,15 +138,25 @@ public class CardExecutorService {
 
         Future<T> futureObject = executor.submit(() -> {
             MDC.setContextMap(mdcContextMap);
-            long totalWaitTime = System.currentTimeMillis() - startTime;
-            logger.debug("Card operation task spent {} ms in queue", totalWaitTime);
-            if (totalWaitTime > QUEUE_WAIT_WARN_THRESHOLD_MILLIS) {
-                logger.warn("CardExecutor Service delay - queue_wait_time={}", totalWaitTime);
-            }
-            metricRegistry.histogram("card-executor.delay").update(totalWaitTime);
+            Semaphore permit = null;
             try {
-                return task.call();
+                permit = acquireGatewayPermit(mdcContextMap);
+                long totalWaitTime = System.currentTimeMillis() - startTime;
+                logger.debug("Card operation task spent {} ms in queue", totalWaitTime);
+                if (totalWaitTime > QUEUE_WAIT_WARN_THRESHOLD_MILLIS) {
+                    logger.warn("CardExecutor Service delay - queue_wait_time={}", totalWaitTime);
+                }
+                metricRegistry.histogram("card-executor.delay").update(totalWaitTime);
+                inFlight.incrementAndGet();
+                try {
+                    return task.call();
+                } finally {
+                    inFlight.decrementAndGet();
+                }
             } finally {
+                if (permit != null) {
+                    permit.release();
+                }
                 MDC.clear();
             }
         });
@@ -122,4 +174,20 @@ public class CardExecutorService {
             return Pair.of(IN_PROGRESS, null);
         }
     }
+
+    private Semaphore acquireGatewayPermit(Map<String, String> mdcContextMap) throws InterruptedException {
+        if (config.getMode() != VIRTUAL_THREADS) {
+            return null;
+        }
+        String provider = mdcContextMap.getOrDefault(PROVIDER, UNKNOWN_PROVIDER);
+        Semaphore permit = gatewayPermits.computeIfAbsent(provider,
+                key -> new Semaphore(config.getMaxConcurrentOperationsPerGateway(), true));
+        waitingForPermit.incrementAndGet();
+        try {
+            permit.acquire();
+        } finally {
+            waitingForPermit.decrementAndGet();
+        }
+        return permit;
+    }
 }
@@ -0,0 +1,227 @@
+package uk.gov.pay.connector.paymentprocessor.service;
+
+import com.google.inject.Inject;
+import io.prometheus.client.Counter;
+import io.prometheus.client.Gauge;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import uk.gov.pay.connector.app.ConnectorConfiguration;
+import uk.gov.pay.connector.app.config.CardOperationLimiterConfig;
+import uk.gov.pay.connector.common.exception.TooManyOperationsRuntimeException;
+import uk.gov.pay.connector.gateway.PaymentGatewayName;
+import uk.gov.pay.connector.paymentprocessor.model.OperationType;
+import uk.gov.pay.connector.util.DatabaseConnectionUsage;
+
+import jakarta.inject.Singleton;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Limits how many authorisations, captures and cancellations can be in progress at once with each payment gateway,
+ * rejecting any more straight away with a 503 and a Retry-After header rather than letting them queue for the
+ * gateway and for database connections.
+ * <p>
+ * The limit adapts to how the operations in progress are doing. It is cut by the backoff ratio when they are
+ * congested, which is when an operation waited longer than the threshold for database connections or recent
+ * operations have been {@code latencyTolerance} times slower than usual, and grows slowly while operations are
+ * healthy and using at least half of it.
+ */
+@Singleton
+public class CardOperationLimiter {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CardOperationLimiter.class);
+    private static final double RECENT_LATENCY_WEIGHT = 0.2;
+    private static final double USUAL_LATENCY_WEIGHT = 0.02;
+    private static final int SAMPLES_BEFORE_LATENCY_IS_USUAL = 10;
+
+    private static final Gauge concurrencyLimit = Gauge.build()
+            .name("card_operation_concurrency_limit")
+            .help("Number of card operations that can be in progress at once with a payment gateway")
+            .labelNames("gateway")
+            .register();
+
+    private static final Gauge operationsInFlight = Gauge.build()
+            .name("card_operation_in_flight")
+            .help("Number of card operations in progress with a payment gateway")
+            .labelNames("gateway")
+            .register();
+
+    private static final Counter rejections = Counter.build()
+            .name("card_operation_rejections_total")
+            .help("Number of card operations rejected because the concurrency limit for the payment gateway was reached")
+            .labelNames("gateway", "operation")
+            .register();
+
+    private static final Permit NO_LIMIT = new Permit(null, 0);
+
+    private final CardOperationLimiterConfig config;
+    private final ConcurrentMap<String, GatewayLimit> gatewayLimits = new ConcurrentHashMap<>();
+
+    @Inject
+    public CardOperationLimiter(ConnectorConfiguration configuration) {
+        this(configuration.getCardOperationLimiterConfig());
+    }
+
+    public CardOperationLimiter(CardOperationLimiterConfig config) {
+        this.config = config;
+    }
+
+    /**
+     * Takes a place for an operation with the payment gateway, which must be released once the operation is done
+     *
+     * @throws TooManyOperationsRuntimeException if the limit for the gateway has been reached
+     */
+    public Permit acquire(String gatewayName, OperationType operationType) {
+        GatewayLimit gatewayLimit = gatewayLimitFor(gatewayName);
+        if (gatewayLimit == null) {
+            return NO_LIMIT;
+        }
+        int inFlight = gatewayLimit.inFlight.incrementAndGet();
+        if (inFlight > gatewayLimit.getLimit()) {
+            gatewayLimit.inFlight.decrementAndGet();
+            throw rejection(gatewayName, operationType);
+        }
+        return gatewayLimit.permitFor(inFlight);
+    }
+
+    /**
+     * Rejects an operation with the payment gateway if the limit for the gateway has been reached, without taking a
+     * place for it. Used where the operation has to be rejected inside the transaction that locks the charge, so a
+     * rejection rolls the lock back, and the place can only be taken with {@link #acquireAfterCheck} once the lock
+     * has been committed.
+     *
+     * @throws TooManyOperationsRuntimeException if the limit for the gateway has been reached
+     */
+    public void checkCapacity(String gatewayName, OperationType operationType) {
+        GatewayLimit gatewayLimit = gatewayLimitFor(gatewayName);
+        if (gatewayLimit != null && gatewayLimit.inFlight.get() >= gatewayLimit.getLimit()) {
+            throw rejection(gatewayName, operationType);
+        }
+    }
+
+    /**
+     * Takes a place for an operation that has already been let through by {@link #checkCapacity}, even if operations
+     * started since then have reached the limit
+     */
+    public Permit acquireAfterCheck(String gatewayName) {
+        GatewayLimit gatewayLimit = gatewayLimitFor(gatewayName);
+        if (gatewayLimit == null) {
+            return NO_LIMIT;
+        }
+        return gatewayLimit.permitFor(gatewayLimit.inFlight.incrementAndGet());
+    }
+
+    private GatewayLimit gatewayLimitFor(String gatewayName) {
+        if (!config.isEnabled() || !PaymentGatewayName.isValidPaymentGateway(gatewayName)) {
+            return null;
+        }
+        return gatewayLimits.computeIfAbsent(gatewayName, GatewayLimit::new);
+    }
+
+    private TooManyOperationsRuntimeException rejection(String gatewayName, OperationType operationType) {
+        rejections.labels(gatewayName, operationType.getValue()).inc();
+        return new TooManyOperationsRuntimeException(operationType.getValue(), gatewayName, config.getRetryAfterInSeconds());
+    }
+
+    int getLimit(String gatewayName) {
+        GatewayLimit gatewayLimit = gatewayLimits.get(gatewayName);
+        return gatewayLimit == null ? config.getInitialLimit() : gatewayLimit.getLimit();
+    }
+
+    public static class Permit {
+
+        private final GatewayLimit gatewayLimit;
+        private final int inFlightWhenAcquired;
+        private final long acquiredAt = System.nanoTime();
+        private final AtomicBoolean released = new AtomicBoolean();
+        private volatile long databaseWaitNanosBefore = -1;
+
+        private Permit(GatewayLimit gatewayLimit, int inFlightWhenAcquired) {
+            this.gatewayLimit = gatewayLimit;
+            this.inFlightWhenAcquired = inFlightWhenAcquired;
+        }
+
+        /**
+         * Marks the start of the operation on the thread that does it, so its wait for database connections can
+         * be measured when the permit is released on that thread
+         */
+        public void runningOnCurrentThread() {
+            if (gatewayLimit != null) {
+                databaseWaitNanosBefore = DatabaseConnectionUsage.waitNanosOnCurrentThread();
+            }
+        }
+
+        /**
+         * Gives the place back and adjusts the limit according to how the operation went. Only the first release
+         * of a permit has any effect.
+         */
+        public void release() {
+            if (gatewayLimit == null || !released.compareAndSet(false, true)) {
+                return;
+            }
+            long databaseWaitNanos = databaseWaitNanosBefore < 0 ? 0
+                    : DatabaseConnectionUsage.waitNanosOnCurrentThread() - databaseWaitNanosBefore;
+            gatewayLimit.operationFinished(System.nanoTime() - acquiredAt, databaseWaitNanos, inFlightWhenAcquired);
+        }
+    }
+
+    private class GatewayLimit {
+
+        private final String gatewayName;
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private volatile double limit;
+        private double recentLatencyNanos;
+        private double usualLatencyNanos;
+        private long samples;
+        private long lastDecreasedAt = System.nanoTime();
+
+        private GatewayLimit(String gatewayName) {
+            this.gatewayName = gatewayName;
+            this.limit = Math.clamp(config.getInitialLimit(), config.getMinLimit(), config.getMaxLimit());
+            concurrencyLimit.labels(gatewayName).set(getLimit());
+        }
+
+        private int getLimit() {
+            return (int) limit;
+        }
+
+        private Permit permitFor(int inFlightWhenAcquired) {
+            operationsInFlight.labels(gatewayName).set(inFlightWhenAcquired);
+            return new Permit(this, inFlightWhenAcquired);
+        }
+
+        private synchronized void operationFinished(long latencyNanos, long databaseWaitNanos, int inFlightWhenAcquired) {
+            operationsInFlight.labels(gatewayName).set(inFlight.decrementAndGet());
+            if (samples++ == 0) {
+                recentLatencyNanos = latencyNanos;
+                usualLatencyNanos = latencyNanos;
+            } else {
+                recentLatencyNanos += RECENT_LATENCY_WEIGHT * (latencyNanos - recentLatencyNanos);
+                usualLatencyNanos += USUAL_LATENCY_WEIGHT * (latencyNanos - usualLatencyNanos);
+            }
+
+            boolean waitedForDatabase = databaseWaitNanos > TimeUnit.MILLISECONDS.toNanos(config.getDbPoolWaitThresholdInMillis());
+            boolean slowerThanUsual = samples > SAMPLES_BEFORE_LATENCY_IS_USUAL
+                    && recentLatencyNanos > config.getLatencyTolerance() * usualLatencyNanos;
+            long now = System.nanoTime();
+
+            if (waitedForDatabase || slowerThanUsual) {
+                // operations already in progress when the limit was cut finish just as slowly, so give the cut
+                // the time of a recent operation to take effect before cutting again
+                if (now - lastDecreasedAt >= recentLatencyNanos) {
+                    limit = Math.max(config.getMinLimit(), limit * config.getBackoffRatio());
+                    lastDecreasedAt = now;
+                    LOGGER.info("Concurrency limit for card operations with {} decreased to {} after waiting {} ms for database connections, recent latency {} ms, usual latency {} ms",
+                            gatewayName, getLimit(), TimeUnit.NANOSECONDS.toMillis(databaseWaitNanos),
+                            TimeUnit.NANOSECONDS.toMillis((long) recentLatencyNanos), TimeUnit.NANOSECONDS.toMillis((long) usualLatencyNanos));
+                }
+            } else if (inFlightWhenAcquired * 2 >= limit) {
+                limit = Math.min(config.getMaxLimit(), limit + 1 / limit);
+            }
+            concurrencyLimit.labels(gatewayName).set(getLimit());
+        }
+    }
+}
@@ -5,6 +5,12 @@ import com.google.common.collect.ImmutableMap;
 import com.google.gson.GsonBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.services.sqs.SqsClient;
+import software.amazon.awssdk.services.sqs.model.BatchResultErrorEntry;
+import software.amazon.awssdk.services.sqs.model.ChangeMessageVisibilityRequest;
+import software.amazon.awssdk.services.sqs.model.DeleteMessageBatchRequest;
+import software.amazon.awssdk.services.sqs.model.DeleteMessageBatchRequestEntry;
 import uk.gov.pay.connector.app.ConnectorConfiguration;
 import uk.gov.pay.connector.charge.model.domain.ChargeEntity;
 import uk.gov.service.payments.commons.queue.exception.QueueException;
@@ -14,22 +20,31 @@ import uk.gov.service.payments.commons.queue.sqs.SqsQueueService;
 
 import jakarta.inject.Inject;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 import java.util.stream.Collectors;
 
 public class CaptureQueue extends AbstractQueue {
 
+    public static final int SQS_MAX_BATCH_SIZE = 10;
+
     private final Logger logger = LoggerFactory.getLogger(getClass());
 
+    private final SqsClient sqsClient;
+    private final String captureQueueUrl;
+
     @Inject
     public CaptureQueue(
             SqsQueueService sqsQueueService,
+            SqsClient sqsClient,
             ConnectorConfiguration connectorConfiguration, ObjectMapper objectMapper) {
         super(sqsQueueService, objectMapper,
                 connectorConfiguration.getSqsConfig().getCaptureQueueUrl(),
                 connectorConfiguration.getCaptureProcessConfig()
                         .getFailedCaptureRetryDelayInSeconds());
+        this.sqsClient = sqsClient;
+        this.captureQueueUrl = connectorConfiguration.getSqsConfig().getCaptureQueueUrl();
     }
 
     public void sendForCapture(ChargeEntity charge) throws QueueException {
@@ -52,6 +67,58 @@ public class CaptureQueue extends AbstractQueue {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Deletes the messages with SQS DeleteMessageBatch requests of up to {@value #SQS_MAX_BATCH_SIZE} messages.
+     * Messages that could not be deleted are logged and returned; they become visible again and are recognised as
+     * already captured when they are next received.
+     */
+    public List<QueueMessage> markMessagesAsProcessed(List<QueueMessage> queueMessages) {
+        List<QueueMessage> failed = new ArrayList<>();
+        for (int start = 0; start < queueMessages.size(); start += SQS_MAX_BATCH_SIZE) {
+            deleteBatch(queueMessages.subList(start, Math.min(start + SQS_MAX_BATCH_SIZE, queueMessages.size())), failed);
+        }
+        return failed;
+    }
+
+    public void extendVisibilityTimeout(QueueMessage queueMessage, int visibilityTimeoutInSeconds) throws QueueException {
+        try {
+            sqsClient.changeMessageVisibility(ChangeMessageVisibilityRequest.builder()
+                    .queueUrl(captureQueueUrl)
+                    .receiptHandle(queueMessage.getReceiptHandle())
+                    .visibilityTimeout(visibilityTimeoutInSeconds)
+                    .build());
+        } catch (SdkException e) {
+            throw new QueueException(e.getMessage());
+        }
+    }
+
+    private void deleteBatch(List<QueueMessage> batch, List<QueueMessage> failed) {
+        List<DeleteMessageBatchRequestEntry> entries = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            entries.add(DeleteMessageBatchRequestEntry.builder()
+                    .id(String.valueOf(i))
+                    .receiptHandle(batch.get(i).getReceiptHandle())
+                    .build());
+        }
+
+        try {
+            List<BatchResultErrorEntry> errors = sqsClient.deleteMessageBatch(DeleteMessageBatchRequest.builder()
+                    .queueUrl(captureQueueUrl)
+                    .entries(entries)
+                    .build())
+                    .failed();
+            for (BatchResultErrorEntry entry : errors) {
+                QueueMessage queueMessage = batch.get(Integer.parseInt(entry.id()));
+                logger.warn("Failed to delete capture message [queueMessageId={}] in batch due to {} {}",
+                        queueMessage.getMessageId(), entry.code(), entry.message());
+                failed.add(queueMessage);
+            }
+        } catch (SdkException e) {
+            logger.warn("Failed to delete batch of {} capture messages due to {}", batch.size(), e.getMessage());
+            failed.addAll(batch);
+        }
+    }
+
     private ChargeCaptureMessage getChargeCaptureMessage(QueueMessage qm) {
         try {
             CaptureCharge captureCharge = objectMapper.readValue(qm.getMessageBody(), CaptureCharge.class);
@@ -15,6 +15,8 @@ import java.util.concurrent.TimeUnit;
 public class CaptureMessageReceiver implements Managed {
 
     private static final String SQS_MESSAGE_RECEIVER_THREAD_NAME = "sqs-message-chargeCaptureMessageReceiver";
+    private static final String CAPTURE_HOUSEKEEPING_THREAD_NAME = "capture-process-housekeeping";
+    private static final long CAPTURE_HOUSEKEEPING_INTERVAL_IN_MILLISECONDS = 1000L;
 
     private static final Logger LOGGER = LoggerFactory.getLogger(CaptureMessageReceiver.class);
 
@@ -22,6 +24,7 @@ public class CaptureMessageReceiver implements Managed {
     private final int queueSchedulerShutdownTimeoutInSeconds;
     private final CardCaptureProcess cardCaptureProcess;
     private ScheduledExecutorService chargeCaptureMessageExecutorService;
+    private final ScheduledExecutorService captureHousekeepingExecutorService;
 
     @Inject
     public CaptureMessageReceiver(CardCaptureProcess cardCaptureProcess, Environment environment,
@@ -38,6 +41,12 @@ public class CaptureMessageReceiver implements Managed {
                 .threads(queueScheduleNumberOfThreads)
                 .build();
 
+        captureHousekeepingExecutorService = environment
+                .lifecycle()
+                .scheduledExecutorService(CAPTURE_HOUSEKEEPING_THREAD_NAME)
+                .threads(1)
+                .build();
+
         queueSchedulerThreadDelayInSeconds = captureProcessConfig.getQueueSchedulerThreadDelayInSeconds();
         queueSchedulerShutdownTimeoutInSeconds = captureProcessConfig.getQueueSchedulerShutdownTimeoutInSeconds();
     }
@@ -50,6 +59,11 @@ public class CaptureMessageReceiver implements Managed {
                 initialDelay,
                 queueSchedulerThreadDelayInSeconds,
                 TimeUnit.SECONDS);
+        captureHousekeepingExecutorService.scheduleWithFixedDelay(
+                this::captureHousekeeping,
+                CAPTURE_HOUSEKEEPING_INTERVAL_IN_MILLISECONDS,
+                CAPTURE_HOUSEKEEPING_INTERVAL_IN_MILLISECONDS,
+                TimeUnit.MILLISECONDS);
     }
 
     @Override
@@ -58,7 +72,8 @@ public class CaptureMessageReceiver implements Managed {
         chargeCaptureMessageExecutorService.shutdown();
         try {
             // Wait for existing charges to finish being captured
-            if (chargeCaptureMessageExecutorService.awaitTermination(queueSchedulerShutdownTimeoutInSeconds, TimeUnit.SECONDS)) {
+            if (chargeCaptureMessageExecutorService.awaitTermination(queueSchedulerShutdownTimeoutInSeconds, TimeUnit.SECONDS)
+                    && cardCaptureProcess.awaitInFlightCaptures(queueSchedulerShutdownTimeoutInSeconds, TimeUnit.SECONDS)) {
                 LOGGER.info("card capture service shut down cleanly");
             } else {
                 // If the existing charges being captured didn't terminate within the allowed time then force them to.
@@ -73,14 +88,28 @@ public class CaptureMessageReceiver implements Managed {
             chargeCaptureMessageExecutorService.shutdownNow();
             // Preserve interrupt status
             Thread.currentThread().interrupt();
+        } finally {
+            captureHousekeepingExecutorService.shutdownNow();
         }
     }
 
     private void chargeCaptureMessageReceiver() {
         try {
-            cardCaptureProcess.handleCaptureMessages();
+            // Keep receiving while there is a backlog rather than waiting for the next scheduled run
+            int received;
+            do {
+                received = cardCaptureProcess.handleCaptureMessages();
+            } while (received > 0 && !chargeCaptureMessageExecutorService.isShutdown());
         } catch (Exception e) {
             LOGGER.error("Queue message chargeCaptureMessageReceiver thread exception [message={}]", e.getMessage());
         }
     }
+
+    private void captureHousekeeping() {
+        try {
+            cardCaptureProcess.runHousekeeping();
+        } catch (Exception e) {
+            LOGGER.error("Capture process housekeeping thread exception [message={}]", e.getMessage());
+        }
+    }
 }
@@ -39,9 +39,10 @@ public class StateTransitionMessageReceiver implements Managed {
 
     @Override
     public void start() {
-        for (int i = 0; i < this.paymentStateTransitionPollerNumberOfThreads; i++) {
+        for (int partition = 0; partition < stateTransitionEmitterProcess.getNumberOfPartitions(); partition++) {
+            final int queuePartition = partition;
             stateTransitionMessageExecutorService.scheduleWithFixedDelay(
-                    this::stateTransitionMessageReceiver, 1, 1, TimeUnit.MILLISECONDS);
+                    () -> stateTransitionMessageReceiver(queuePartition), 1, 1, TimeUnit.MILLISECONDS);
         }
     }
 
@@ -85,9 +86,9 @@ public class StateTransitionMessageReceiver implements Managed {
         Thread.currentThread().interrupt();
     }
 
-    private void stateTransitionMessageReceiver() {
+    private void stateTransitionMessageReceiver(int partition) {
         try {
-            stateTransitionEmitterProcess.handleStateTransitionMessages();
+            stateTransitionEmitterProcess.handleStateTransitionMessages(partition);
         } catch (Exception e) {
             LOGGER.error("State transition message polling thread failed to process message due to [message={}]",
                     e.getMessage());
@@ -0,0 +1,80 @@
+package uk.gov.pay.connector.queue.managed;
+
+import io.dropwizard.core.setup.Environment;
+import io.dropwizard.lifecycle.Managed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import uk.gov.pay.connector.app.ConnectorConfiguration;
+import uk.gov.pay.connector.app.EventQueueConfig;
+import uk.gov.pay.connector.events.StateTransitionOutboxRelayProcess;
+
+import jakarta.inject.Inject;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+public class StateTransitionOutboxRelay implements Managed {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(StateTransitionOutboxRelay.class);
+
+    private final StateTransitionOutboxRelayProcess stateTransitionOutboxRelayProcess;
+    private final boolean outboxEnabled;
+    private final int numberOfThreads;
+    private final long relayIntervalInMilliseconds;
+    private final ScheduledExecutorService relayExecutorService;
+
+    @Inject
+    public StateTransitionOutboxRelay(StateTransitionOutboxRelayProcess stateTransitionOutboxRelayProcess,
+                                      Environment environment, ConnectorConfiguration connectorConfiguration) {
+        this.stateTransitionOutboxRelayProcess = stateTransitionOutboxRelayProcess;
+
+        EventQueueConfig eventQueueConfig = connectorConfiguration.getEventQueueConfig();
+        this.outboxEnabled = eventQueueConfig.isStateTransitionOutboxEnabled();
+        this.numberOfThreads = Math.max(1, eventQueueConfig.getPaymentStateTransitionPollerNumberOfThreads());
+        this.relayIntervalInMilliseconds = eventQueueConfig.getStateTransitionOutboxRelayIntervalInMilliseconds();
+
+        relayExecutorService = environment
+                .lifecycle()
+                .scheduledExecutorService("state-transition-outbox-relay-%d")
+                .threads(numberOfThreads)
+                .build();
+    }
+
+    @Override
+    public void start() {
+        if (!outboxEnabled) {
+            return;
+        }
+        for (int i = 0; i < numberOfThreads; i++) {
+            relayExecutorService.scheduleWithFixedDelay(
+                    this::relay, relayIntervalInMilliseconds, relayIntervalInMilliseconds, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Anything not yet relayed stays in the outbox and is picked up by whichever node relays next, so there is nothing
+     * to drain before shutting down.
+     */
+    @Override
+    public void stop() {
+        relayExecutorService.shutdown();
+        try {
+            if (!relayExecutorService.awaitTermination(2L, TimeUnit.SECONDS)) {
+                relayExecutorService.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            relayExecutorService.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void relay() {
+        try {
+            int claimed;
+            do {
+                claimed = stateTransitionOutboxRelayProcess.relayBatch();
+            } while (claimed == stateTransitionOutboxRelayProcess.getBatchSize() && !relayExecutorService.isShutdown());
+        } catch (Exception e) {
+            LOGGER.error("State transition outbox relay failed to relay batch due to [message={}]", e.getMessage());
+        }
+    }
+}
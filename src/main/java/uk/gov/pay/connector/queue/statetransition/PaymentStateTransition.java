@@ -2,29 +2,47 @@ package uk.gov.pay.connector.queue.statetransition;
 
 public final class PaymentStateTransition extends StateTransition {
     private final long chargeEventId; 
+    private final String chargeExternalId;
     
     public PaymentStateTransition(long chargeEventId, Class stateTransitionEventClass) {
+        this(chargeEventId, null, stateTransitionEventClass);
+    }
+
+    public PaymentStateTransition(long chargeEventId, String chargeExternalId, Class stateTransitionEventClass) {
         super(stateTransitionEventClass);
         this.chargeEventId = chargeEventId;
+        this.chargeExternalId = chargeExternalId;
     }
 
     public PaymentStateTransition(long chargeEventId, Class stateTransitionEventClass, long delayDurationInMilliseconds) {
         super(stateTransitionEventClass, delayDurationInMilliseconds);
         this.chargeEventId = chargeEventId;
+        this.chargeExternalId = null;
     }
 
     public PaymentStateTransition(long chargeEventId, Class stateTransitionEventClass, int numberOfProcessAttempts, long delayDurationInMilliseconds) {
+        this(chargeEventId, null, stateTransitionEventClass, numberOfProcessAttempts, delayDurationInMilliseconds);
+    }
+
+    public PaymentStateTransition(long chargeEventId, String chargeExternalId, Class stateTransitionEventClass,
+                                  int numberOfProcessAttempts, long delayDurationInMilliseconds) {
         super(stateTransitionEventClass, numberOfProcessAttempts, delayDurationInMilliseconds);
         this.chargeEventId = chargeEventId;
+        this.chargeExternalId = chargeExternalId;
     }
 
     public long getChargeEventId() {
         return chargeEventId;
     }
 
+    @Override
+    public String getResourceExternalId() {
+        return chargeExternalId;
+    }
+
     @Override
     public PaymentStateTransition getNext() {
-        return new PaymentStateTransition(chargeEventId, getStateTransitionEventClass(), getAttempts() + 1, getDelayDurationInMilliseconds());
+        return new PaymentStateTransition(chargeEventId, chargeExternalId, getStateTransitionEventClass(), getAttempts() + 1, getDelayDurationInMilliseconds());
     }
 
     @Override
@@ -36,6 +54,7 @@ public final class PaymentStateTransition extends StateTransition {
     public String toString() {
         return "PaymentStateTransition{" +
                 "chargeEventId=" + chargeEventId +
+                ", chargeExternalId='" + chargeExternalId + '\'' +
                 "} " + super.toString();
     }
 }
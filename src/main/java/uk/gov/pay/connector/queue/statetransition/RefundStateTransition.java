@@ -27,6 +27,11 @@ public class RefundStateTransition extends StateTransition {
         return refundStatus;
     }
 
+    @Override
+    public String getResourceExternalId() {
+        return refundExternalId;
+    }
+
     @Override
     public String getIdentifier() {
         return refundExternalId + "_" + refundStatus;
@@ -61,5 +61,11 @@ public abstract class StateTransition implements Delayed {
 
     public abstract String getIdentifier();
 
+    /**
+     * External ID of the payment or refund the transition belongs to, used to keep its transitions on the same
+     * partition of the {@link StateTransitionQueue}. May be null, in which case {@link #getIdentifier()} is used.
+     */
+    public abstract String getResourceExternalId();
+
     public abstract StateTransition getNext();
 }
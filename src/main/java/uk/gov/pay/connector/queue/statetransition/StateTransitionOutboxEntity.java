@@ -0,0 +1,135 @@
+package uk.gov.pay.connector.queue.statetransition;
+
+import uk.gov.pay.connector.events.model.Event;
+import uk.gov.pay.connector.events.model.ResourceType;
+import uk.gov.pay.connector.refund.model.domain.RefundStatus;
+import uk.gov.service.payments.commons.jpa.InstantToUtcTimestampWithoutTimeZoneConverter;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import java.time.Instant;
+
+import static java.lang.String.format;
+
+/**
+ * A state transition waiting to be published, written in the same transaction as the change that caused it so that it
+ * survives restarts and is never published for a transaction that rolled back.
+ */
+@Entity
+@Table(name = "state_transition_outbox")
+@SequenceGenerator(name = "state_transition_outbox_id_seq",
+        sequenceName = "state_transition_outbox_id_seq", allocationSize = 1)
+public class StateTransitionOutboxEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "state_transition_outbox_id_seq")
+    private Long id;
+
+    @Column(name = "resource_type")
+    private String resourceType;
+
+    @Column(name = "resource_external_id")
+    private String resourceExternalId;
+
+    @Column(name = "charge_event_id")
+    private Long chargeEventId;
+
+    @Column(name = "refund_status")
+    private String refundStatus;
+
+    @Column(name = "event_class")
+    private String eventClass;
+
+    @Column(name = "attempts")
+    private int attempts;
+
+    @Convert(converter = InstantToUtcTimestampWithoutTimeZoneConverter.class)
+    @Column(name = "created_date")
+    private Instant createdDate;
+
+    @Convert(converter = InstantToUtcTimestampWithoutTimeZoneConverter.class)
+    @Column(name = "next_attempt_date")
+    private Instant nextAttemptDate;
+
+    protected StateTransitionOutboxEntity() {
+    }
+
+    private StateTransitionOutboxEntity(String resourceType, String resourceExternalId, Long chargeEventId,
+                                        String refundStatus, String eventClass, Instant createdDate) {
+        this.resourceType = resourceType;
+        this.resourceExternalId = resourceExternalId;
+        this.chargeEventId = chargeEventId;
+        this.refundStatus = refundStatus;
+        this.eventClass = eventClass;
+        this.attempts = 0;
+        this.createdDate = createdDate;
+        this.nextAttemptDate = createdDate;
+    }
+
+    public static StateTransitionOutboxEntity from(StateTransition stateTransition, Instant now) {
+        return switch (stateTransition) {
+            case PaymentStateTransition payment -> new StateTransitionOutboxEntity(ResourceType.PAYMENT.getLowercase(),
+                    payment.getResourceExternalId(), payment.getChargeEventId(), null,
+                    payment.getStateTransitionEventClass().getName(), now);
+            case RefundStateTransition refund -> new StateTransitionOutboxEntity(ResourceType.REFUND.getLowercase(),
+                    refund.getRefundExternalId(), null, refund.getRefundStatus().name(),
+                    refund.getStateTransitionEventClass().getName(), now);
+            default -> throw new IllegalArgumentException(
+                    format("Cannot write state transition %s to the outbox", stateTransition.getIdentifier()));
+        };
+    }
+
+    /**
+     * Rebuilds the state transition so that it can be passed to the
+     * {@link uk.gov.pay.connector.events.model.EventFactory}.
+     */
+    public StateTransition toStateTransition() throws ClassNotFoundException {
+        Class<? extends Event> stateTransitionEventClass = Class.forName(eventClass).asSubclass(Event.class);
+        if (chargeEventId != null) {
+            return new PaymentStateTransition(chargeEventId, resourceExternalId, stateTransitionEventClass);
+        }
+        return new RefundStateTransition(resourceExternalId, RefundStatus.valueOf(refundStatus), stateTransitionEventClass);
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getResourceType() {
+        return resourceType;
+    }
+
+    public String getResourceExternalId() {
+        return resourceExternalId;
+    }
+
+    public Long getChargeEventId() {
+        return chargeEventId;
+    }
+
+    public String getRefundStatus() {
+        return refundStatus;
+    }
+
+    public String getEventClass() {
+        return eventClass;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public Instant getCreatedDate() {
+        return createdDate;
+    }
+
+    public Instant getNextAttemptDate() {
+        return nextAttemptDate;
+    }
+}
@@ -1,5 +1,8 @@
 package uk.gov.pay.connector.queue.statetransition;
 
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Optional;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.DelayQueue;
 import java.util.concurrent.TimeUnit;
@@ -15,31 +18,80 @@ import java.util.concurrent.TimeUnit;
  * (@see uk.gov.pay.connector.queue.managed.StateTransitionMessageReceiver). If a transaction fails, there will be no 
  * charge_event in the database for the transaction and the state transition event in this queue will not get picked
  * up by the managed process and therefore not get sent to the external queue.
+ * <p>
+ * The queue is split into partitions, each with its own consumer, so that events can be emitted in parallel. A state
+ * transition's partition is chosen from the hash of its resource external ID, so that all the transitions (and retries)
+ * for a payment or refund are consumed by the same consumer in order.
  */
 public class StateTransitionQueue {
-    private final BlockingQueue<StateTransition> queue = new DelayQueue<>();
+    private final BlockingQueue<StateTransition>[] partitions;
+
+    public StateTransitionQueue() {
+        this(1);
+    }
+
+    @SuppressWarnings("unchecked")
+    public StateTransitionQueue(int numberOfPartitions) {
+        if (numberOfPartitions < 1) {
+            throw new IllegalArgumentException("State transition queue must have at least one partition");
+        }
+        partitions = new BlockingQueue[numberOfPartitions];
+        for (int i = 0; i < numberOfPartitions; i++) {
+            partitions[i] = new DelayQueue<>();
+        }
+    }
 
     public boolean offer(StateTransition stateTransition) {
-        return queue.offer(stateTransition);
+        return partitions[partitionFor(stateTransition)].offer(stateTransition);
+    }
+
+    public StateTransition poll(int partition, long timeout, TimeUnit unit) throws InterruptedException {
+        return partitions[partition].poll(timeout, unit);
+    }
+
+    /**
+     * Returns a state transition that is ready from any partition, without waiting, or null if there are none.
+     */
+    public StateTransition poll() {
+        for (BlockingQueue<StateTransition> partition : partitions) {
+            StateTransition stateTransition = partition.poll();
+            if (stateTransition != null) {
+                return stateTransition;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Moves up to maxElements state transitions in the partition whose delay has expired into the given collection,
+     * without waiting.
+     */
+    public int drainTo(int partition, Collection<? super StateTransition> collection, int maxElements) {
+        return partitions[partition].drainTo(collection, maxElements);
+    }
+
+    public int getNumberOfPartitions() {
+        return partitions.length;
     }
 
-    public StateTransition poll(long timeout, TimeUnit unit) throws InterruptedException {
-        return queue.poll(timeout, unit);
+    public int partitionFor(StateTransition stateTransition) {
+        String key = Optional.ofNullable(stateTransition.getResourceExternalId()).orElseGet(stateTransition::getIdentifier);
+        return Math.floorMod(key.hashCode(), partitions.length);
     }
 
-    public StateTransition poll() throws InterruptedException {
-        return poll(0L, TimeUnit.MILLISECONDS);
+    public int size(int partition) {
+        return partitions[partition].size();
     }
 
     public int size() {
-        return queue.size();
+        return Arrays.stream(partitions).mapToInt(BlockingQueue::size).sum();
     }
 
     public boolean isEmpty() {
-        return queue.isEmpty();
+        return Arrays.stream(partitions).allMatch(BlockingQueue::isEmpty);
     }
 
     public void clear() {
-        queue.clear();
+        Arrays.stream(partitions).forEach(BlockingQueue::clear);
     }
 }
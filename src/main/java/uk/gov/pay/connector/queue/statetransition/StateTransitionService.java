@@ -7,18 +7,20 @@ import io.prometheus.client.Counter;
 import org.apache.commons.lang3.ArrayUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import uk.gov.pay.connector.app.ConnectorConfiguration;
 import uk.gov.pay.connector.charge.model.domain.ChargeStatus;
 import uk.gov.pay.connector.chargeevent.model.domain.ChargeEventEntity;
 import uk.gov.pay.connector.common.model.domain.PaymentGatewayStateTransitions;
 import uk.gov.pay.connector.events.EventService;
 import uk.gov.pay.connector.events.model.Event;
 import uk.gov.pay.connector.events.model.ResourceType;
+import uk.gov.pay.connector.queue.statetransition.dao.StateTransitionOutboxDao;
 import uk.gov.pay.connector.refund.model.domain.RefundEntity;
 import uk.gov.pay.connector.refund.model.domain.RefundStatus;
 import uk.gov.pay.connector.refund.service.RefundStateEventMap;
 
 import jakarta.inject.Inject;
-import java.time.Instant;
+import java.time.InstantSource;
 import java.time.ZonedDateTime;
 
 import static java.lang.String.format;
@@ -29,8 +31,11 @@ public class StateTransitionService {
     private final Logger logger = LoggerFactory.getLogger(getClass());
 
     private StateTransitionQueue stateTransitionQueue;
+    private StateTransitionOutboxDao stateTransitionOutboxDao;
     private EventService eventService;
     private MetricRegistry metricRegistry;
+    private final boolean outboxEnabled;
+    private final InstantSource instantSource;
 
     private static final Counter stateTransitionCounter = Counter.build()
             .name("state_transition_total")
@@ -40,23 +45,29 @@ public class StateTransitionService {
 
     @Inject
     public StateTransitionService(StateTransitionQueue stateTransitionQueue,
+                                  StateTransitionOutboxDao stateTransitionOutboxDao,
                                   EventService eventService,
-                                  Environment environment) {
+                                  Environment environment,
+                                  ConnectorConfiguration connectorConfiguration,
+                                  InstantSource instantSource) {
         this.stateTransitionQueue = stateTransitionQueue;
+        this.stateTransitionOutboxDao = stateTransitionOutboxDao;
         this.eventService = eventService;
         this.metricRegistry = environment.metrics();
+        this.outboxEnabled = connectorConfiguration.getEventQueueConfig().isStateTransitionOutboxEnabled();
+        this.instantSource = instantSource;
     }
 
     @Transactional
     public void offerRefundStateTransition(RefundEntity refundEntity, RefundStatus refundStatus) {
         Class refundEventClass = RefundStateEventMap.calculateRefundEventClass(refundEntity.getUserExternalId(), refundStatus);
         RefundStateTransition refundStateTransition = new RefundStateTransition(refundEntity.getExternalId(), refundStatus, refundEventClass);
-        stateTransitionQueue.offer(refundStateTransition);
+        offer(refundStateTransition);
 
         eventService.recordOfferedEvent(ResourceType.REFUND,
                 refundEntity.getExternalId(),
                 Event.eventTypeForClass(refundEventClass),
-                Instant.now());
+                instantSource.instant());
     }
 
     @Transactional
@@ -73,8 +84,8 @@ public class StateTransitionService {
             String externalId, ChargeStatus fromChargeState, ChargeStatus targetChargeState,
             ChargeEventEntity chargeEventEntity, Class<T> eventClass) {
 
-        PaymentStateTransition transition = new PaymentStateTransition(chargeEventEntity.getId(), eventClass);
-        stateTransitionQueue.offer(transition);
+        PaymentStateTransition transition = new PaymentStateTransition(chargeEventEntity.getId(), externalId, eventClass);
+        offer(transition);
 
         var logMessage = format("Offered payment state transition to emitter queue [from=%s] [to=%s] [chargeEventId=%s] [chargeId=%s]",
                 fromChargeState, targetChargeState, chargeEventEntity.getId(), externalId);
@@ -131,8 +142,20 @@ public class StateTransitionService {
     @Transactional
     public void offerStateTransition(StateTransition stateTransition, Event event,
                                      ZonedDateTime doNotRetryEmitUntilDate) {
-        stateTransitionQueue.offer(stateTransition);
+        offer(stateTransition);
         eventService.recordOfferedEvent(event.getResourceType(), event.getResourceExternalId(),
                 event.getEventType(), event.getTimestamp(), doNotRetryEmitUntilDate);
     }
+
+    /**
+     * With the outbox enabled the transition is written in the caller's transaction, so it is only published if that
+     * transaction commits and is not lost if connector restarts before it is published.
+     */
+    private void offer(StateTransition stateTransition) {
+        if (outboxEnabled) {
+            stateTransitionOutboxDao.persist(StateTransitionOutboxEntity.from(stateTransition, instantSource.instant()));
+        } else {
+            stateTransitionQueue.offer(stateTransition);
+        }
+    }
 }
@@ -0,0 +1,69 @@
+package uk.gov.pay.connector.queue.statetransition.dao;
+
+import com.google.inject.Inject;
+import com.google.inject.Provider;
+import com.google.inject.persist.Transactional;
+import uk.gov.pay.connector.common.dao.JpaDao;
+import uk.gov.pay.connector.queue.statetransition.StateTransitionOutboxEntity;
+import uk.gov.service.payments.commons.jpa.InstantToUtcTimestampWithoutTimeZoneConverter;
+
+import jakarta.persistence.EntityManager;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+@Transactional
+public class StateTransitionOutboxDao extends JpaDao<StateTransitionOutboxEntity> {
+
+    @Inject
+    public StateTransitionOutboxDao(Provider<EntityManager> entityManager) {
+        super(entityManager);
+    }
+
+    /**
+     * Locks and returns up to batchSize rows that are due to be published, oldest first by created date, since ids
+     * are allocated to each node in blocks and so are not in the order the rows were added. Rows already locked by
+     * another transaction (on this or another connector node) are skipped rather than waited for, so several relays
+     * can claim batches at once without publishing the same row twice. The locks are held until the calling
+     * transaction ends, so this must be called inside the transaction that publishes and deletes the rows.
+     */
+    @SuppressWarnings("unchecked")
+    public List<StateTransitionOutboxEntity> claimBatch(int batchSize, Instant now) {
+        return entityManager.get()
+                .createNativeQuery("SELECT * FROM state_transition_outbox" +
+                        " WHERE next_attempt_date <= ?1" +
+                        " ORDER BY created_date, id" +
+                        " LIMIT ?2" +
+                        " FOR UPDATE SKIP LOCKED", StateTransitionOutboxEntity.class)
+                .setParameter(1, new InstantToUtcTimestampWithoutTimeZoneConverter().convertToDatabaseColumn(now))
+                .setParameter(2, batchSize)
+                .getResultList();
+    }
+
+    public int deleteByIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        return entityManager.get()
+                .createQuery("DELETE FROM StateTransitionOutboxEntity o WHERE o.id IN :ids")
+                .setParameter("ids", ids)
+                .executeUpdate();
+    }
+
+    public void scheduleRetry(Long id, int attempts, Instant nextAttemptDate) {
+        entityManager.get()
+                .createQuery("UPDATE StateTransitionOutboxEntity o" +
+                        " SET o.attempts = :attempts, o.nextAttemptDate = :nextAttemptDate" +
+                        " WHERE o.id = :id")
+                .setParameter("attempts", attempts)
+                .setParameter("nextAttemptDate", nextAttemptDate)
+                .setParameter("id", id)
+                .executeUpdate();
+    }
+
+    public long count() {
+        return entityManager.get()
+                .createQuery("SELECT COUNT(o) FROM StateTransitionOutboxEntity o", Long.class)
+                .getSingleResult();
+    }
+}
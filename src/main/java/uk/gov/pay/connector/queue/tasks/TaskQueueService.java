@@ -125,7 +125,7 @@ public class TaskQueueService {
         }
     }
 
-    public void addRetryFailedPaymentOrRefundEmailTask(RetryPaymentOrRefundEmailTaskData taskData) {
+    public boolean addRetryFailedPaymentOrRefundEmailTask(RetryPaymentOrRefundEmailTaskData taskData) {
         try {
             MDC.put(RESOURCE_EXTERNAL_ID, taskData.getResourceExternalId());
             MDC.put("email_notification_type", taskData.getEmailNotificationType().name());
@@ -135,10 +135,12 @@ public class TaskQueueService {
             taskQueue.addTaskToQueue(task, maxAllowedDeliveryDelay);
 
             logger.info("Added retry failed payment or refund email task message to queue");
+            return true;
         } catch (Exception e) {
             logger.error("Error adding failed payment or refund email task message to queue",
                     kv("error", e.getMessage()));
             Sentry.captureException(e);
+            return false;
         } finally {
             MDC.remove(RESOURCE_EXTERNAL_ID);
             MDC.remove("email_notification_type");
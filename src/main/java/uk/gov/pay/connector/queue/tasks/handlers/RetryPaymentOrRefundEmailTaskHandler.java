@@ -7,6 +7,7 @@ import uk.gov.pay.connector.app.ConnectorConfiguration;
 import uk.gov.pay.connector.charge.exception.ChargeNotFoundRuntimeException;
 import uk.gov.pay.connector.charge.model.domain.Charge;
 import uk.gov.pay.connector.charge.service.ChargeService;
+import uk.gov.pay.connector.common.exception.TooManyEmailsRuntimeException;
 import uk.gov.pay.connector.gatewayaccount.exception.GatewayAccountNotFoundException;
 import uk.gov.pay.connector.gatewayaccount.model.GatewayAccountEntity;
 import uk.gov.pay.connector.gatewayaccount.service.GatewayAccountService;
@@ -57,17 +58,13 @@ public class RetryPaymentOrRefundEmailTaskHandler {
                 retryPaymentOrRefundEmailTaskData.getFailedAttemptTime().getEpochSecond();
 
         if (timeElapsedInSeconds >= retryFailedEmailAfterSeconds) {
-            if (retryPaymentOrRefundEmailTaskData.getEmailNotificationType() == PAYMENT_CONFIRMED) {
-                Charge charge = getCharge(retryPaymentOrRefundEmailTaskData.getResourceExternalId());
-                GatewayAccountEntity gatewayAccountEntity = getGatewayAccountEntity(charge.getGatewayAccountId());
-
-                userNotificationService.sendPaymentConfirmedEmailSynchronously(charge, gatewayAccountEntity, false);
-            } else if (retryPaymentOrRefundEmailTaskData.getEmailNotificationType() == REFUND_ISSUED) {
-                RefundEntity refundEntity = getRefund(retryPaymentOrRefundEmailTaskData.getResourceExternalId());
-                Charge charge = getCharge(refundEntity.getChargeExternalId());
-                GatewayAccountEntity gatewayAccountEntity = getGatewayAccountEntity(charge.getGatewayAccountId());
-
-                userNotificationService.sendRefundIssuedEmailSynchronously(charge, gatewayAccountEntity, refundEntity, false);
+            try {
+                sendEmail(retryPaymentOrRefundEmailTaskData);
+            } catch (TooManyEmailsRuntimeException e) {
+                taskQueueService.addRetryFailedPaymentOrRefundEmailTask(retryPaymentOrRefundEmailTaskData);
+                LOGGER.info("Too many emails being sent for the service. Added retry failed payment or refund email task message back to task queue",
+                        kv(RESOURCE_EXTERNAL_ID, retryPaymentOrRefundEmailTaskData.getResourceExternalId()),
+                        kv("email_notification_type", retryPaymentOrRefundEmailTaskData.getEmailNotificationType()));
             }
         } else {
             taskQueueService.addRetryFailedPaymentOrRefundEmailTask(retryPaymentOrRefundEmailTaskData);
@@ -78,6 +75,21 @@ public class RetryPaymentOrRefundEmailTaskHandler {
         }
     }
 
+    private void sendEmail(RetryPaymentOrRefundEmailTaskData retryPaymentOrRefundEmailTaskData) {
+        if (retryPaymentOrRefundEmailTaskData.getEmailNotificationType() == PAYMENT_CONFIRMED) {
+            Charge charge = getCharge(retryPaymentOrRefundEmailTaskData.getResourceExternalId());
+            GatewayAccountEntity gatewayAccountEntity = getGatewayAccountEntity(charge.getGatewayAccountId());
+
+            userNotificationService.sendPaymentConfirmedEmailSynchronously(charge, gatewayAccountEntity, false);
+        } else if (retryPaymentOrRefundEmailTaskData.getEmailNotificationType() == REFUND_ISSUED) {
+            RefundEntity refundEntity = getRefund(retryPaymentOrRefundEmailTaskData.getResourceExternalId());
+            Charge charge = getCharge(refundEntity.getChargeExternalId());
+            GatewayAccountEntity gatewayAccountEntity = getGatewayAccountEntity(charge.getGatewayAccountId());
+
+            userNotificationService.sendRefundIssuedEmailSynchronously(charge, gatewayAccountEntity, refundEntity, false);
+        }
+    }
+
     private GatewayAccountEntity getGatewayAccountEntity(Long gatewayAccountId) {
         return gatewayAccountService.getGatewayAccount(gatewayAccountId)
                 .orElseThrow(() -> new GatewayAccountNotFoundException(gatewayAccountId));
@@ -13,11 +13,11 @@ import uk.gov.pay.connector.refund.model.domain.RefundStatus;
 import jakarta.inject.Inject;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.Query;
-import jakarta.persistence.TemporalType;
-import java.sql.Date;
 import java.time.ZonedDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static java.time.ZoneOffset.UTC;
 
@@ -99,22 +99,31 @@ public class RefundDao extends JpaDao<RefundEntity> {
                 .getResultList().stream().findFirst();
     }
 
-    public List<RefundHistory> getRefundHistoryByDateRange(ZonedDateTime startDate, ZonedDateTime endDate, int page, int size) {
+    /**
+     * Returns up to size refund history rows that started no later than endDate, ordered by (history_start_date, id,
+     * version) and starting after the given cursor. Start a scan with the start date, an id of 0 and a version of 0,
+     * then pass the last row of each page as the cursor for the next.
+     */
+    public List<RefundHistory> getRefundHistoryByDateRange(ZonedDateTime afterHistoryStartDate, long afterId, long afterVersion,
+                                                           ZonedDateTime endDate, int size) {
 
         String query = "SELECT id, external_id, amount, status, created_date, version, " +
-                "       history_start_date, history_end_date, user_external_id, gateway_transaction_id, user_email " +
+                "       history_start_date, history_end_date, user_external_id, gateway_transaction_id, " +
+                "       charge_external_id, user_email " +
                 " FROM refunds_history rh " +
-                " WHERE rh.history_start_date >= ?1 AND rh.history_start_date <= ?2" +
-                " order by rh.history_start_date asc " +
-                " limit ?3 offset ?4";
+                " WHERE (rh.history_start_date, rh.id, rh.version) > (?1, ?2, ?3) AND rh.history_start_date <= ?4" +
+                " ORDER BY rh.history_start_date, rh.id, rh.version " +
+                " LIMIT ?5";
+
+        UTCDateTimeConverter utcDateTimeConverter = new UTCDateTimeConverter();
 
-        int offset = (page - 1) * size;
         return entityManager.get()
                 .createNativeQuery(query, "RefundEntityHistoryMapping")
-                .setParameter(1, Date.from(startDate.toInstant()), TemporalType.TIMESTAMP)
-                .setParameter(2, Date.from(endDate.toInstant()), TemporalType.TIMESTAMP)
-                .setParameter(3, size)
-                .setParameter(4, offset)
+                .setParameter(1, utcDateTimeConverter.convertToDatabaseColumn(afterHistoryStartDate))
+                .setParameter(2, afterId)
+                .setParameter(3, afterVersion)
+                .setParameter(4, utcDateTimeConverter.convertToDatabaseColumn(endDate))
+                .setParameter(5, size)
                 .getResultList();
     }
 
@@ -128,6 +137,19 @@ public class RefundDao extends JpaDao<RefundEntity> {
                 .getResultList();
     }
 
+    public List<RefundEntity> findRefundsByChargeExternalIds(Collection<String> chargeExternalIds) {
+        if (chargeExternalIds.isEmpty()) {
+            return List.of();
+        }
+        String query = "SELECT refund FROM RefundEntity refund " +
+                "WHERE refund.chargeExternalId IN :chargeExternalIds ORDER BY refund.createdDate ASC";
+
+        return entityManager.get()
+                .createQuery(query, RefundEntity.class)
+                .setParameter("chargeExternalIds", chargeExternalIds)
+                .getResultList();
+    }
+
     public Long findMaxId() {
         String query = "SELECT r.id FROM RefundEntity r ORDER BY r.id DESC";
 
@@ -156,6 +178,33 @@ public class RefundDao extends JpaDao<RefundEntity> {
                 .getResultList().stream().findFirst();
     }
 
+    /**
+     * Returns up to {@code limit} refunds due to be expunged, in created date order, starting after the refund with
+     * the given created date and id so a run can page through candidates without reading them again.
+     */
+    public List<RefundEntity> findRefundsToExpunge(int minimumAgeOfRefundInDays, int excludeRefundsParityCheckedWithInDays,
+                                                   ZonedDateTime afterCreatedDate, long afterId, int limit) {
+        String query = "SELECT r FROM RefundEntity r" +
+                " WHERE (r.parityCheckDate is null or r.parityCheckDate < :parityCheckedBeforeDate)" +
+                " AND r.createdDate < :createdBeforeDate " +
+                " AND (r.createdDate > :afterCreatedDate OR (r.createdDate = :afterCreatedDate AND r.id > :afterId))" +
+                " ORDER BY r.createdDate asc, r.id asc";
+
+        ZonedDateTime parityCheckedBeforeDate = ZonedDateTime.now(UTC)
+                .minusDays(excludeRefundsParityCheckedWithInDays);
+        ZonedDateTime createdBeforeDate = ZonedDateTime.now(UTC)
+                .minusDays(minimumAgeOfRefundInDays);
+
+        return entityManager.get()
+                .createQuery(query, RefundEntity.class)
+                .setParameter("parityCheckedBeforeDate", parityCheckedBeforeDate)
+                .setParameter("createdBeforeDate", createdBeforeDate)
+                .setParameter("afterCreatedDate", afterCreatedDate)
+                .setParameter("afterId", afterId)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
     public void expungeRefund(String externalId) {
         entityManager.get()
                 .createNativeQuery("delete from emitted_events where resource_type = ?1 AND resource_external_id = ?2")
@@ -174,6 +223,29 @@ public class RefundDao extends JpaDao<RefundEntity> {
                 .executeUpdate();
     }
 
+    public void expungeRefunds(Collection<String> externalIds) {
+        if (externalIds.isEmpty()) {
+            return;
+        }
+        String[] refundExternalIds = externalIds.toArray(String[]::new);
+
+        entityManager.get()
+                .createNativeQuery("delete from emitted_events where resource_type = ?1 AND resource_external_id = ANY(?2)")
+                .setParameter(1, ResourceType.REFUND.getLowercase())
+                .setParameter(2, refundExternalIds)
+                .executeUpdate();
+
+        entityManager.get()
+                .createNativeQuery("delete from refunds_history where external_id = ANY(?1)")
+                .setParameter(1, refundExternalIds)
+                .executeUpdate();
+
+        entityManager.get()
+                .createNativeQuery("delete from refunds where external_id = ANY(?1)")
+                .setParameter(1, refundExternalIds)
+                .executeUpdate();
+    }
+
     public List<RefundHistory> getRefundHistoryByRefundExternalId(String refundExternalId) {
         String query = "SELECT id, external_id, amount, status, created_date, version, " +
                 "history_start_date, history_end_date, user_external_id, gateway_transaction_id, user_email, charge_external_id " +
@@ -199,6 +271,19 @@ public class RefundDao extends JpaDao<RefundEntity> {
                 .executeUpdate();
     }
 
+    public int updateParityCheckStatus(Collection<String> externalIds, ZonedDateTime parityCheckDate, ParityCheckStatus parityCheckStatus) {
+        if (externalIds.isEmpty()) {
+            return 0;
+        }
+        return entityManager.get()
+                .createQuery("UPDATE RefundEntity r SET r.parityCheckStatus = :parityCheckStatus, r.parityCheckDate = :parityCheckDate " +
+                        "WHERE r.externalId IN :externalIds")
+                .setParameter("parityCheckStatus", parityCheckStatus)
+                .setParameter("parityCheckDate", parityCheckDate)
+                .setParameter("externalIds", externalIds)
+                .executeUpdate();
+    }
+
     public List<RefundEntity> findByParityCheckStatus(ParityCheckStatus parityCheckStatus, int pageSize, Long lastProcessedId) {
         return entityManager.get()
                 .createQuery("SELECT r FROM RefundEntity r WHERE r.id > :lastProcessedId " +
@@ -208,4 +293,23 @@ public class RefundDao extends JpaDao<RefundEntity> {
                 .setMaxResults(pageSize)
                 .getResultList();
     }
+
+    public List<RefundEntity> findByIdRange(long afterId, long toId, int limit) {
+        return entityManager.get()
+                .createQuery("SELECT r FROM RefundEntity r WHERE r.id > :afterId AND r.id <= :toId ORDER BY r.id", RefundEntity.class)
+                .setParameter("afterId", afterId)
+                .setParameter("toId", toId)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    public Set<String> findChargeExternalIdsWithRefunds(Collection<String> chargeExternalIds) {
+        if (chargeExternalIds.isEmpty()) {
+            return Set.of();
+        }
+        return Set.copyOf(entityManager.get()
+                .createQuery("SELECT DISTINCT r.chargeExternalId FROM RefundEntity r WHERE r.chargeExternalId IN :chargeExternalIds", String.class)
+                .setParameter("chargeExternalIds", chargeExternalIds)
+                .getResultList());
+    }
 }
@@ -53,7 +53,7 @@ public class RefundReversalService {
     public Optional<Refund> findMaybeHistoricRefundByRefundId(String refundExternalId) {
         return refundDao.findByExternalId(refundExternalId)
                 .map(Refund::from)
-                .or(() -> ledgerService.getTransaction(refundExternalId).map(Refund::from));
+                .or(() -> ledgerService.getHistoricTransaction(refundExternalId).map(Refund::from));
     }
 
 
@@ -30,6 +30,7 @@ import uk.gov.pay.connector.usernotification.service.UserNotificationService;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -318,6 +319,12 @@ public class RefundService {
         return refundDao.findRefundsByChargeExternalId(chargeExternalId);
     }
 
+    public Map<String, List<RefundEntity>> findNotExpungedRefundsByChargeExternalId(Collection<String> chargeExternalIds) {
+        return refundDao.findRefundsByChargeExternalIds(chargeExternalIds)
+                .stream()
+                .collect(Collectors.groupingBy(RefundEntity::getChargeExternalId));
+    }
+
     public List<Refund> findRefunds(Charge charge) {
         List<Refund> refundsFromDatabase = refundDao
                 .findRefundsByChargeExternalId(charge.getExternalId())
@@ -343,7 +350,7 @@ public class RefundService {
 
     private List<Refund> getHistoricRefunds(Charge charge) {
         return ledgerService
-                .getRefundsForPayment(charge.getGatewayAccountId(), charge.getExternalId())
+                .getHistoricRefundsForPayment(charge.getGatewayAccountId(), charge.getExternalId())
                 .getTransactions()
                 .stream()
                 .map(Refund::from)
@@ -355,6 +362,11 @@ public class RefundService {
         refundDao.updateParityCheckStatus(externalId, ZonedDateTime.now(ZoneId.of("UTC")), parityCheckStatus);
     }
 
+    @Transactional
+    public int updateRefundParityStatuses(Collection<String> externalIds, ParityCheckStatus parityCheckStatus) {
+        return refundDao.updateParityCheckStatus(externalIds, ZonedDateTime.now(ZoneId.of("UTC")), parityCheckStatus);
+    }
+
     public Optional<RefundEntity> findRefundByExternalId(String externalId) {
         return refundDao.findByExternalId(externalId);
     }
@@ -308,7 +308,8 @@ public class HistoricalEventEmitter {
         Optional<Class<Event>> eventForTransition = getEventForTransition(fromChargeState, chargeEventEntity);
 
         eventForTransition.ifPresent(eventType -> {
-            PaymentStateTransition transition = new PaymentStateTransition(chargeEventEntity.getId(), eventType);
+            PaymentStateTransition transition = new PaymentStateTransition(chargeEventEntity.getId(),
+                    chargeEventEntity.getChargeEntity().getExternalId(), eventType);
             offerPaymentStateTransitionEvents(currentId, chargeEventEntity, transition, forceEmission);
         });
     }
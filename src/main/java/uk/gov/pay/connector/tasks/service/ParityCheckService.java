@@ -4,6 +4,7 @@ import com.google.inject.Inject;
 import com.google.inject.persist.Transactional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
 import uk.gov.pay.connector.charge.model.domain.ChargeEntity;
 import uk.gov.pay.connector.charge.model.domain.ParityCheckStatus;
 import uk.gov.pay.connector.charge.service.ChargeService;
@@ -13,10 +14,19 @@ import uk.gov.pay.connector.refund.model.domain.RefundEntity;
 import uk.gov.pay.connector.refund.service.RefundService;
 import uk.gov.pay.connector.tasks.HistoricalEventEmitter;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
 
 import static uk.gov.pay.connector.charge.model.domain.ParityCheckStatus.EXISTS_IN_LEDGER;
+import static uk.gov.service.payments.logging.LoggingKeys.MDC_REQUEST_ID_KEY;
 
 public class ParityCheckService {
 
@@ -46,7 +56,23 @@ public class ParityCheckService {
     public ParityCheckStatus getChargeAndRefundsParityCheckStatus(ChargeEntity charge) {
         ParityCheckStatus parityCheckStatus = getChargeParityCheckStatus(charge);
         if (parityCheckStatus.equals(EXISTS_IN_LEDGER)) {
-            return getRefundsParityCheckStatus(refundService.findNotExpungedRefunds(charge.getExternalId()));
+            return getRefundsParityCheckStatus(refundService.findNotExpungedRefunds(charge.getExternalId()),
+                    ledgerService::getTransaction);
+        }
+
+        return parityCheckStatus;
+    }
+
+    /**
+     * Checks a charge and its refunds against ledger transactions that have already been fetched, for callers that
+     * look up a whole page of transactions from ledger at once.
+     */
+    public ParityCheckStatus getChargeAndRefundsParityCheckStatus(ChargeEntity charge, List<RefundEntity> refunds,
+                                                                  Function<String, Optional<LedgerTransaction>> ledgerTransactions) {
+        ParityCheckStatus parityCheckStatus = chargeParityChecker.checkParity(charge,
+                ledgerTransactions.apply(charge.getExternalId()).orElse(null));
+        if (parityCheckStatus.equals(EXISTS_IN_LEDGER)) {
+            return getRefundsParityCheckStatus(refunds, ledgerTransactions);
         }
 
         return parityCheckStatus;
@@ -54,7 +80,12 @@ public class ParityCheckService {
 
     @Transactional
     public boolean parityCheckChargeForExpunger(ChargeEntity chargeEntity) {
-        ParityCheckStatus parityCheckStatus = getChargeParityCheckStatus(chargeEntity);
+        return parityCheckChargeForExpunger(chargeEntity, ledgerService.getTransaction(chargeEntity.getExternalId()));
+    }
+
+    @Transactional
+    public boolean parityCheckChargeForExpunger(ChargeEntity chargeEntity, Optional<LedgerTransaction> transaction) {
+        ParityCheckStatus parityCheckStatus = chargeParityChecker.checkParity(chargeEntity, transaction.orElse(null));
 
         if (EXISTS_IN_LEDGER.equals(parityCheckStatus)) {
             return true;
@@ -69,7 +100,12 @@ public class ParityCheckService {
 
     @Transactional
     public boolean parityCheckRefundForExpunger(RefundEntity refundEntity) {
-        ParityCheckStatus parityCheckStatus = getRefundParityCheckStatus(refundEntity);
+        return parityCheckRefundForExpunger(refundEntity, ledgerService.getTransaction(refundEntity.getExternalId()));
+    }
+
+    @Transactional
+    public boolean parityCheckRefundForExpunger(RefundEntity refundEntity, Optional<LedgerTransaction> transaction) {
+        ParityCheckStatus parityCheckStatus = getRefundParityCheckStatus(refundEntity, transaction);
 
         if (EXISTS_IN_LEDGER.equals(parityCheckStatus)) {
             return true;
@@ -81,9 +117,38 @@ public class ParityCheckService {
         return false;
     }
 
-    private ParityCheckStatus getRefundsParityCheckStatus(List<RefundEntity> refunds) {
+    /**
+     * Fetches the transactions from ledger on the given executor, so the number of requests in flight is bounded by
+     * its size. Transactions that could not be fetched are logged and left out of the returned map, so those records
+     * are not updated.
+     */
+    public Map<String, Optional<LedgerTransaction>> getLedgerTransactions(Collection<String> externalIds, Executor ledgerRequests) {
+        String requestId = MDC.get(MDC_REQUEST_ID_KEY);
+        Map<String, CompletableFuture<Optional<LedgerTransaction>>> requests = new LinkedHashMap<>();
+        externalIds.forEach(externalId -> requests.put(externalId, CompletableFuture.supplyAsync(() -> {
+            MDC.put(MDC_REQUEST_ID_KEY, requestId);
+            try {
+                return ledgerService.getTransaction(externalId);
+            } finally {
+                MDC.remove(MDC_REQUEST_ID_KEY);
+            }
+        }, ledgerRequests)));
+
+        Map<String, Optional<LedgerTransaction>> transactions = new HashMap<>();
+        requests.forEach((externalId, request) -> {
+            try {
+                transactions.put(externalId, request.join());
+            } catch (CompletionException e) {
+                logger.error("Error getting transaction from ledger [external_id={}] [error={}]", externalId, e.getCause().getMessage());
+            }
+        });
+        return transactions;
+    }
+
+    private ParityCheckStatus getRefundsParityCheckStatus(List<RefundEntity> refunds,
+                                                          Function<String, Optional<LedgerTransaction>> ledgerTransactions) {
         for (var refund : refunds) {
-            ParityCheckStatus parityCheckStatus = getRefundParityCheckStatus(refund);
+            ParityCheckStatus parityCheckStatus = getRefundParityCheckStatus(refund, ledgerTransactions.apply(refund.getExternalId()));
             if (!parityCheckStatus.equals(EXISTS_IN_LEDGER)) {
                 logger.info("refund transaction does not exist in ledger or is in a different state [externalId={},status={}] -",
                         refund.getExternalId(), parityCheckStatus);
@@ -95,7 +160,10 @@ public class ParityCheckService {
     }
 
     public ParityCheckStatus getRefundParityCheckStatus(RefundEntity refundEntity) {
-        Optional<LedgerTransaction> transaction = ledgerService.getTransaction(refundEntity.getExternalId());
+        return getRefundParityCheckStatus(refundEntity, ledgerService.getTransaction(refundEntity.getExternalId()));
+    }
+
+    public ParityCheckStatus getRefundParityCheckStatus(RefundEntity refundEntity, Optional<LedgerTransaction> transaction) {
         return refundParityChecker.checkParity(refundEntity, transaction.orElse(null));
     }
 
@@ -1,15 +1,18 @@
 package uk.gov.pay.connector.tasks.service;
 
-import com.google.inject.persist.Transactional;
+import com.google.inject.persist.UnitOfWork;
 import jakarta.inject.Inject;
 import org.apache.commons.lang3.RandomUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
+import uk.gov.pay.connector.app.ConnectorConfiguration;
+import uk.gov.pay.connector.app.config.ParityCheckerConfig;
 import uk.gov.pay.connector.charge.dao.ChargeDao;
 import uk.gov.pay.connector.charge.model.domain.ChargeEntity;
 import uk.gov.pay.connector.charge.model.domain.ParityCheckStatus;
 import uk.gov.pay.connector.charge.service.ChargeService;
+import uk.gov.pay.connector.client.ledger.model.LedgerTransaction;
 import uk.gov.pay.connector.events.EventService;
 import uk.gov.pay.connector.events.dao.EmittedEventDao;
 import uk.gov.pay.connector.queue.statetransition.StateTransitionService;
@@ -18,8 +21,14 @@ import uk.gov.pay.connector.refund.model.domain.RefundEntity;
 import uk.gov.pay.connector.refund.service.RefundService;
 import uk.gov.pay.connector.tasks.HistoricalEventEmitter;
 
+import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
 
 import static java.util.Optional.ofNullable;
 import static org.apache.commons.lang3.StringUtils.isNotBlank;
@@ -29,7 +38,6 @@ import static uk.gov.service.payments.logging.LoggingKeys.PAYMENT_EXTERNAL_ID;
 import static uk.gov.service.payments.logging.LoggingKeys.REFUND_EXTERNAL_ID;
 
 public class ParityCheckerService {
-    private static final int PAGE_SIZE = 100;
     private static final Logger logger = LoggerFactory.getLogger(ParityCheckerService.class);
     private final ChargeDao chargeDao;
     private final ChargeService chargeService;
@@ -40,10 +48,16 @@ public class ParityCheckerService {
     private final RefundService refundService;
     private final RefundDao refundDao;
     private final ParityCheckService parityCheckService;
+    private final UnitOfWork unitOfWork;
+    private final int pageSize;
+    private final int maxConcurrentLedgerRequests;
     private HistoricalEventEmitter historicalEventEmitter;
 
     @Inject
-    public ParityCheckerService(ChargeDao chargeDao, ChargeService chargeService, EmittedEventDao emittedEventDao, StateTransitionService stateTransitionService, EventService eventService, RefundService refundService, RefundDao refundDao, ParityCheckService parityCheckService) {
+    public ParityCheckerService(ChargeDao chargeDao, ChargeService chargeService, EmittedEventDao emittedEventDao,
+                                StateTransitionService stateTransitionService, EventService eventService,
+                                RefundService refundService, RefundDao refundDao, ParityCheckService parityCheckService,
+                                UnitOfWork unitOfWork, ConnectorConfiguration connectorConfiguration) {
         this.chargeDao = chargeDao;
         this.chargeService = chargeService;
         this.emittedEventDao = emittedEventDao;
@@ -52,19 +66,23 @@ public class ParityCheckerService {
         this.refundService = refundService;
         this.refundDao = refundDao;
         this.parityCheckService = parityCheckService;
+        this.unitOfWork = unitOfWork;
+        ParityCheckerConfig parityCheckerConfig = connectorConfiguration.getParityCheckerConfig();
+        this.pageSize = parityCheckerConfig.getPageSize();
+        this.maxConcurrentLedgerRequests = parityCheckerConfig.getMaxConcurrentLedgerRequests();
     }
 
     public void checkParity(Long startId, Optional<Long> maybeMaxId, boolean doNotReprocessValidRecords, Optional<String> parityCheckStatus, Long doNotRetryEmitUntilDuration) {
         Long maxId = maybeMaxId.orElseGet(chargeDao::findMaxId);
-        try {
+        try (ExecutorService ledgerRequests = Executors.newFixedThreadPool(maxConcurrentLedgerRequests)) {
             initializeHistoricalEventEmitter(doNotRetryEmitUntilDuration);
 
             MDC.put(MDC_REQUEST_ID_KEY, "ParityCheckWorker-" + RandomUtils.secure().randomLong(0, 10000));
 
             if (parityCheckStatus.isPresent()) {
-                checkParityForParityCheckStatus(parityCheckStatus.get());
+                checkParityForParityCheckStatus(parityCheckStatus.get(), ledgerRequests);
             } else {
-                checkParityForIdRange(startId, maxId, doNotReprocessValidRecords);
+                checkParityForIdRange(startId, maxId, doNotReprocessValidRecords, ledgerRequests);
             }
         } catch (NullPointerException e) {
             for (StackTraceElement s : e.getStackTrace()) {
@@ -81,15 +99,15 @@ public class ParityCheckerService {
 
     public void checkParityForRefundsOnly(Long startId, Long maxId, boolean doNotReprocessValidRecords, String parityCheckStatus, Long doNotRetryEmitUntilDuration) {
         String parityCheckRequestId = "ParityCheckWorker-" + RandomUtils.secure().randomLong(0, 10000);
-        try {
+        try (ExecutorService ledgerRequests = Executors.newFixedThreadPool(maxConcurrentLedgerRequests)) {
             initializeHistoricalEventEmitter(doNotRetryEmitUntilDuration);
             MDC.put(MDC_REQUEST_ID_KEY, parityCheckRequestId);
 
             if (isNotBlank(parityCheckStatus)) {
-                processRefundsByParityCheckStatus(parityCheckStatus, doNotReprocessValidRecords);
+                processRefundsByParityCheckStatus(parityCheckStatus, doNotReprocessValidRecords, ledgerRequests);
             } else {
                 maxId = ofNullable(maxId).orElseGet(refundDao::findMaxId);
-                processRefundsByIdRange(startId, maxId, doNotReprocessValidRecords);
+                processRefundsByIdRange(startId, maxId, doNotReprocessValidRecords, ledgerRequests);
             }
         } catch (Exception e) {
             logger.error("Error parity checking refunds on job [start={}] [max={}] [error={}]", startId, maxId, e.getMessage(), e);
@@ -102,108 +120,173 @@ public class ParityCheckerService {
         this.historicalEventEmitter = new HistoricalEventEmitter(emittedEventDao, refundDao, chargeService, eventService, stateTransitionService, doNotRetryEmitUntilDuration);
     }
 
-    private void checkParityForParityCheckStatus(String parityCheckStatus) {
+    private void checkParityForParityCheckStatus(String parityCheckStatus, ExecutorService ledgerRequests) {
         ParityCheckStatus parityStatus = ParityCheckStatus.valueOf(parityCheckStatus);
         Long lastProcessedId = 0L;
 
         logger.info("Starting for status {}", parityCheckStatus);
         while (true) {
-            List<ChargeEntity> charges = chargeDao.findByParityCheckStatus(parityStatus, PAGE_SIZE, lastProcessedId);
+            List<ChargeEntity> charges;
+            unitOfWork.begin();
+            try {
+                charges = chargeDao.findByParityCheckStatus(parityStatus, pageSize, lastProcessedId);
+                if (!charges.isEmpty()) {
+                    logger.info("Processing charges [last processed id {}, no.of.charges {}] by parity check status", lastProcessedId, charges.size());
+                    checkParityForCharges(charges, false, ledgerRequests);
+                }
+            } finally {
+                unitOfWork.end();
+            }
 
-            if (!charges.isEmpty()) {
-                logger.info("Processing charges [last processed id {}, no.of.charges {}] by parity check status", lastProcessedId, charges.size());
-                charges.forEach(c -> checkParityFor(c, false));
-                lastProcessedId = charges.get(charges.size() - 1).getId();
-            } else {
+            if (charges.isEmpty()) {
                 break;
             }
+            lastProcessedId = charges.getLast().getId();
         }
     }
 
-    public void checkParityForIdRange(long startId, long maxId, boolean doNotReprocessValidRecords) {
+    private void checkParityForIdRange(long startId, long maxId, boolean doNotReprocessValidRecords, ExecutorService ledgerRequests) {
         logger.info("Starting from {} up to {}", startId, maxId);
-        for (long i = startId; i <= maxId; i++) {
-            final Optional<ChargeEntity> maybeCharge = chargeDao.findById(i);
+        long lastProcessedId = startId - 1;
+        List<ChargeEntity> charges;
+        do {
+            unitOfWork.begin();
+            try {
+                charges = chargeDao.findByIdRangeWithEvents(lastProcessedId, maxId, pageSize);
+                checkParityForCharges(charges, doNotReprocessValidRecords, ledgerRequests);
+            } finally {
+                unitOfWork.end();
+            }
 
-            if (maybeCharge.isPresent()) {
-                checkParityFor(maybeCharge.get(), doNotReprocessValidRecords);
-            } else {
-                logger.info("[{}/{}] - not found", i, maxId);
+            if (!charges.isEmpty()) {
+                lastProcessedId = charges.getLast().getId();
+                logger.info("Processed charges up to id {} of {} [no.of.charges {}]", lastProcessedId, maxId, charges.size());
             }
-        }
+        } while (charges.size() == pageSize);
     }
 
-    // needs to be public for transactional annotation
-    @Transactional
-    public void checkParityFor(ChargeEntity charge, boolean doNotReprocessValidRecords) {
-        try {
-            MDC.put(PAYMENT_EXTERNAL_ID, charge.getExternalId());
+    private void checkParityForCharges(List<ChargeEntity> charges, boolean doNotReprocessValidRecords, ExecutorService ledgerRequests) {
+        List<ChargeEntity> chargesToCheck = charges.stream()
+                .filter(charge -> !skipParityCheck(charge.getId(), charge.getParityCheckStatus(), doNotReprocessValidRecords))
+                .toList();
+        if (chargesToCheck.isEmpty()) {
+            return;
+        }
 
-            if (skipParityCheck(charge.getId(), charge.getParityCheckStatus(), doNotReprocessValidRecords)) {
-                return;
+        Map<String, List<RefundEntity>> refundsByCharge = refundService.findNotExpungedRefundsByChargeExternalId(
+                chargesToCheck.stream().map(ChargeEntity::getExternalId).toList());
+        Map<String, Optional<LedgerTransaction>> ledgerTransactions = parityCheckService.getLedgerTransactions(Stream.concat(
+                chargesToCheck.stream().map(ChargeEntity::getExternalId),
+                refundsByCharge.values().stream().flatMap(List::stream).map(RefundEntity::getExternalId)).toList(),
+                ledgerRequests);
+
+        Map<ParityCheckStatus, List<ChargeEntity>> chargesByParityCheckStatus = new EnumMap<>(ParityCheckStatus.class);
+        for (ChargeEntity charge : chargesToCheck) {
+            try {
+                MDC.put(PAYMENT_EXTERNAL_ID, charge.getExternalId());
+                List<RefundEntity> refunds = refundsByCharge.getOrDefault(charge.getExternalId(), List.of());
+                if (!ledgerTransactions.containsKey(charge.getExternalId())
+                        || !refunds.stream().map(RefundEntity::getExternalId).allMatch(ledgerTransactions::containsKey)) {
+                    logger.info("transaction parity check skipped - could not get transactions from ledger [id={}]", charge.getId());
+                    continue;
+                }
+
+                ParityCheckStatus parityCheckStatus = parityCheckService.getChargeAndRefundsParityCheckStatus(charge, refunds, ledgerTransactions::get);
+                chargesByParityCheckStatus.computeIfAbsent(parityCheckStatus, status -> new ArrayList<>()).add(charge);
+                logger.info("transaction parity check finished [id={},status={}]", charge.getId(), parityCheckStatus);
+            } finally {
+                MDC.remove(PAYMENT_EXTERNAL_ID);
             }
+        }
 
-            ParityCheckStatus parityCheckStatus = parityCheckService.getChargeAndRefundsParityCheckStatus(charge);
-            chargeService.updateChargeParityStatus(charge.getExternalId(), parityCheckStatus);
-            logger.info("transaction parity check finished [id={},status={}]", charge.getId(), parityCheckStatus);
-
+        chargesByParityCheckStatus.forEach((parityCheckStatus, chargesWithStatus) ->
+                chargeService.updateChargeParityStatuses(chargesWithStatus.stream().map(ChargeEntity::getId).toList(), parityCheckStatus));
+        chargesByParityCheckStatus.forEach((parityCheckStatus, chargesWithStatus) -> {
             if (!parityCheckStatus.equals(EXISTS_IN_LEDGER)) {
-                historicalEventEmitter.processPaymentEvents(charge, true);
+                chargesWithStatus.forEach(charge -> historicalEventEmitter.processPaymentEvents(charge, true));
             }
-        } finally {
-            MDC.remove("chargeId");
-        }
+        });
     }
 
-    @Transactional
-    public void checkParityForRefund(RefundEntity refund, boolean doNotReprocessValidRecords) {
-        try {
-            MDC.put(REFUND_EXTERNAL_ID, refund.getExternalId());
+    private void checkParityForRefunds(List<RefundEntity> refunds, boolean doNotReprocessValidRecords, ExecutorService ledgerRequests) {
+        List<RefundEntity> refundsToCheck = refunds.stream()
+                .filter(refund -> !skipParityCheck(refund.getId(), refund.getParityCheckStatus(), doNotReprocessValidRecords))
+                .toList();
+        if (refundsToCheck.isEmpty()) {
+            return;
+        }
 
-            if (skipParityCheck(refund.getId(), refund.getParityCheckStatus(), doNotReprocessValidRecords)) {
-                return;
+        Map<String, Optional<LedgerTransaction>> ledgerTransactions = parityCheckService.getLedgerTransactions(
+                refundsToCheck.stream().map(RefundEntity::getExternalId).toList(), ledgerRequests);
+
+        Map<ParityCheckStatus, List<String>> refundsByParityCheckStatus = new EnumMap<>(ParityCheckStatus.class);
+        for (RefundEntity refund : refundsToCheck) {
+            try {
+                MDC.put(REFUND_EXTERNAL_ID, refund.getExternalId());
+                if (!ledgerTransactions.containsKey(refund.getExternalId())) {
+                    logger.info("refund transaction parity check skipped - could not get transaction from ledger [id={}]", refund.getId());
+                    continue;
+                }
+
+                ParityCheckStatus parityCheckStatus = parityCheckService.getRefundParityCheckStatus(refund, ledgerTransactions.get(refund.getExternalId()));
+                refundsByParityCheckStatus.computeIfAbsent(parityCheckStatus, status -> new ArrayList<>()).add(refund.getExternalId());
+                logger.info("refund transaction parity check finished [id={},status={}]", refund.getId(), parityCheckStatus);
+            } finally {
+                MDC.remove(REFUND_EXTERNAL_ID);
             }
+        }
 
-            ParityCheckStatus parityCheckStatus = parityCheckService.getRefundParityCheckStatus(refund);
-            refundService.updateRefundParityStatus(refund.getExternalId(), parityCheckStatus);
-            logger.info("refund transaction parity check finished [id={},status={}]", refund.getId(), parityCheckStatus);
-
+        refundsByParityCheckStatus.forEach((parityCheckStatus, refundExternalIds) ->
+                refundService.updateRefundParityStatuses(refundExternalIds, parityCheckStatus));
+        refundsByParityCheckStatus.forEach((parityCheckStatus, refundExternalIds) -> {
             if (!parityCheckStatus.equals(EXISTS_IN_LEDGER)) {
-                historicalEventEmitter.emitEventsForRefund(refund.getExternalId(), true);
+                refundExternalIds.forEach(refundExternalId -> historicalEventEmitter.emitEventsForRefund(refundExternalId, true));
             }
-        } finally {
-            MDC.remove(REFUND_EXTERNAL_ID);
-        }
+        });
     }
 
-    private void processRefundsByIdRange(long startId, long maxId, boolean doNotReprocessValidRecords) {
+    private void processRefundsByIdRange(long startId, long maxId, boolean doNotReprocessValidRecords, ExecutorService ledgerRequests) {
         logger.info("Starting parity check for refunds for IDs from {} up to {}", startId, maxId);
-        for (long refundId = startId; refundId <= maxId; refundId++) {
-            Optional<RefundEntity> mayBeRefund = refundDao.findById(refundId);
+        long lastProcessedId = startId - 1;
+        List<RefundEntity> refunds;
+        do {
+            unitOfWork.begin();
+            try {
+                refunds = refundDao.findByIdRange(lastProcessedId, maxId, pageSize);
+                checkParityForRefunds(refunds, doNotReprocessValidRecords, ledgerRequests);
+            } finally {
+                unitOfWork.end();
+            }
 
-            if (mayBeRefund.isPresent()) {
-                checkParityForRefund(mayBeRefund.get(), doNotReprocessValidRecords);
-            } else {
-                logger.info("[{}/{}] - not found", refundId, maxId);
+            if (!refunds.isEmpty()) {
+                lastProcessedId = refunds.getLast().getId();
+                logger.info("Processed refunds up to id {} of {} [no.of.refunds {}]", lastProcessedId, maxId, refunds.size());
             }
-        }
+        } while (refunds.size() == pageSize);
     }
 
-    private void processRefundsByParityCheckStatus(String parityCheckStatus, boolean doNotReprocessValidRecords) {
+    private void processRefundsByParityCheckStatus(String parityCheckStatus, boolean doNotReprocessValidRecords, ExecutorService ledgerRequests) {
         ParityCheckStatus parityStatus = ParityCheckStatus.valueOf(parityCheckStatus);
         Long lastProcessedId = 0L;
 
         logger.info("Starting for status {}", parityCheckStatus);
         while (true) {
-            List<RefundEntity> refunds = refundDao.findByParityCheckStatus(parityStatus, PAGE_SIZE, lastProcessedId);
+            List<RefundEntity> refunds;
+            unitOfWork.begin();
+            try {
+                refunds = refundDao.findByParityCheckStatus(parityStatus, pageSize, lastProcessedId);
+                if (!refunds.isEmpty()) {
+                    logger.info("Processing refunds [last processed id {}, no.of.refunds {}] by parity check status", lastProcessedId, refunds.size());
+                    checkParityForRefunds(refunds, doNotReprocessValidRecords, ledgerRequests);
+                }
+            } finally {
+                unitOfWork.end();
+            }
 
-            if (!refunds.isEmpty()) {
-                logger.info("Processing refunds [last processed id {}, no.of.refunds {}] by parity check status", lastProcessedId, refunds.size());
-                refunds.forEach(refund -> checkParityForRefund(refund, doNotReprocessValidRecords));
-                lastProcessedId = refunds.get(refunds.size() - 1).getId();
-            } else {
+            if (refunds.isEmpty()) {
                 break;
             }
+            lastProcessedId = refunds.getLast().getId();
         }
     }
 
@@ -94,4 +94,15 @@ public class EmailNotificationEntity extends AbstractVersionedEntity {
         this.enabled = enabled;
     }
 
+    /**
+     * Returns a copy of this email notification that is not managed by JPA and has no reference to its gateway
+     * account, so that it can be kept and serialised after the entity manager that loaded it has closed.
+     */
+    public EmailNotificationEntity detachedCopy() {
+        EmailNotificationEntity copy = new EmailNotificationEntity(null, templateBody, enabled);
+        copy.type = type;
+        copy.setVersion(getVersion());
+        return copy;
+    }
+
 }
@@ -81,6 +81,7 @@ public class EmailNotificationResource {
                                 return newDisabledEmailNotificationEntityWithNoTemplate(gatewayAccount, type);
                             });
                     patch(notificationEntity, patchInfo);
+                    gatewayAccountService.invalidateCachedGatewayAccount(gatewayAccount.getId());
                     return Response.ok().build();
                 })
                 .orElseGet(() -> notFoundResponse(format("The gateway account id '%s' does not exist", gatewayAccountId)));
@@ -124,6 +125,7 @@ public class EmailNotificationResource {
                                 return newDisabledEmailNotificationEntityWithNoTemplate(gatewayAccount, notificationType);
                             });
                     patch(notificationEntity, patchInfo);
+                    gatewayAccountService.invalidateCachedGatewayAccount(gatewayAccount.getId());
                     return Response.ok().build();
                 })
                 .orElseThrow(() -> new GatewayAccountNotFoundException(serviceId, accountType));
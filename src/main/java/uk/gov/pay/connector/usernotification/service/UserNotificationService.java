@@ -2,15 +2,26 @@ package uk.gov.pay.connector.usernotification.service;
 
 import com.codahale.metrics.MetricRegistry;
 import com.google.common.base.Stopwatch;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.util.concurrent.RateLimiter;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import io.dropwizard.core.setup.Environment;
+import io.dropwizard.lifecycle.Managed;
+import io.prometheus.client.Counter;
+import io.prometheus.client.Gauge;
+import io.prometheus.client.Histogram;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
 import uk.gov.pay.connector.app.ConnectorConfiguration;
+import uk.gov.pay.connector.app.NotifyConfiguration;
 import uk.gov.pay.connector.charge.model.domain.Charge;
 import uk.gov.pay.connector.charge.model.domain.ChargeEntity;
 import uk.gov.pay.connector.charge.util.CorporateCardSurchargeCalculator;
+import uk.gov.pay.connector.common.exception.TooManyEmailsRuntimeException;
 import uk.gov.pay.connector.gatewayaccount.model.GatewayAccountEntity;
 import uk.gov.pay.connector.queue.tasks.TaskQueueService;
 import uk.gov.pay.connector.refund.model.domain.RefundEntity;
@@ -23,15 +34,22 @@ import uk.gov.service.notify.NotificationClientException;
 import uk.gov.service.notify.SendEmailResponse;
 
 import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.InstantSource;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -50,18 +68,57 @@ import static uk.gov.service.payments.logging.LoggingKeys.GATEWAY_ACCOUNT_ID;
 import static uk.gov.service.payments.logging.LoggingKeys.PAYMENT_EXTERNAL_ID;
 import static uk.gov.service.payments.logging.LoggingKeys.RESOURCE_EXTERNAL_ID;
 
-public class UserNotificationService {
+/**
+ * Sends payment confirmed and refund issued emails through Notify.
+ * <p>
+ * Emails sent asynchronously wait in a bounded queue for one of a fixed number of threads. When the queue is full,
+ * or when a service has been sending more than {@code emailsPerSecondPerService} and an email cannot be sent within
+ * {@code emailRateLimitWaitInMillis}, the email is added to the task queue to be sent later rather than holding up
+ * the caller. On shutdown waiting emails are given {@code emailDispatchDrainTimeoutInSeconds} to be sent and any
+ * left after that are added to the task queue.
+ * <p>
+ * Emails sent synchronously count towards the same limit, but one that cannot be sent within
+ * {@code emailRateLimitWaitInMillis} is never added to the task queue. A {@link TooManyEmailsRuntimeException} is
+ * thrown instead, so whoever asked for the email can try again later without it being sent twice.
+ */
+@Singleton
+public class UserNotificationService implements Managed {
 
     private static final Pattern LITERAL_DOLLAR_REFERENCE = Pattern.compile(Pattern.quote("$reference"));
+    private static final int RATE_LIMITED_RETRY_AFTER_SECONDS = 1;
+
+    private static final Gauge dispatchQueueDepth = Gauge.build()
+            .name("notify_email_dispatch_queue_depth")
+            .help("Number of emails waiting for a thread to send them to Notify")
+            .register();
+
+    private static final Histogram sendDuration = Histogram.build()
+            .name("notify_email_send_duration_seconds")
+            .help("Time taken for Notify to accept an email")
+            .labelNames("emailNotificationType")
+            .register();
+
+    private static final Counter overflowedEmails = Counter.build()
+            .name("notify_email_dispatch_overflow_total")
+            .help("Number of emails not sent straight away, by reason (queue_full, rate_limited or shutdown) and " +
+                    "whether they were added to the task queue (spilled), could not be (dropped) or were handed back " +
+                    "to a synchronous caller to retry (rejected)")
+            .labelNames("reason", "outcome")
+            .register();
+
     private final TaskQueueService taskQueueService;
     private final InstantSource instantSource;
+    private final long retryFailedEmailAfterSeconds;
 
     private String confirmationEmailTemplateId;
     private String refundIssuedEmailTemplateId;
     private boolean emailNotifyGloballyEnabled;
     protected final Logger logger = LoggerFactory.getLogger(getClass());
     private NotifyClientFactory notifyClientFactory;
-    private ExecutorService executorService;
+    private ThreadPoolExecutor executorService;
+    private LoadingCache<String, RateLimiter> rateLimitersByService;
+    private Duration rateLimitWait;
+    private long drainTimeoutInSeconds;
     private final MetricRegistry metricRegistry;
 
     @Inject
@@ -70,12 +127,48 @@ public class UserNotificationService {
         readEmailConfig(configuration);
         if (emailNotifyGloballyEnabled) {
             this.notifyClientFactory = notifyClientFactory;
+            NotifyConfiguration notifyConfiguration = configuration.getNotifyConfiguration();
             int numberOfThreads = configuration.getExecutorServiceConfig().getThreadsPerCpu() * getRuntime().availableProcessors();
-            executorService = Executors.newFixedThreadPool(numberOfThreads);
+            BlockingQueue<Runnable> dispatchQueue = new ArrayBlockingQueue<>(notifyConfiguration.getEmailDispatchQueueCapacity());
+            executorService = new ThreadPoolExecutor(numberOfThreads, numberOfThreads, 0L, TimeUnit.MILLISECONDS, dispatchQueue,
+                    new ThreadFactoryBuilder().setNameFormat("notify-email-dispatch-%d").setDaemon(true).build());
+            dispatchQueueDepth.setChild(new Gauge.Child() {
+                @Override
+                public double get() {
+                    return dispatchQueue.size();
+                }
+            });
+            int emailsPerSecondPerService = notifyConfiguration.getEmailsPerSecondPerService();
+            rateLimitersByService = CacheBuilder.newBuilder()
+                    .expireAfterAccess(1, TimeUnit.HOURS)
+                    .build(CacheLoader.from(() -> RateLimiter.create(emailsPerSecondPerService)));
+            rateLimitWait = Duration.ofMillis(notifyConfiguration.getEmailRateLimitWaitInMillis());
+            drainTimeoutInSeconds = notifyConfiguration.getEmailDispatchDrainTimeoutInSeconds();
         }
         this.metricRegistry = environment.metrics();
         this.taskQueueService = taskQueueService;
         this.instantSource = instantSource;
+        this.retryFailedEmailAfterSeconds = configuration.getNotifyConfiguration().getRetryFailedEmailAfterSeconds();
+    }
+
+    @Override
+    public void start() {
+    }
+
+    @Override
+    public void stop() {
+        if (executorService == null) {
+            return;
+        }
+        executorService.shutdown();
+        try {
+            if (!executorService.awaitTermination(drainTimeoutInSeconds, TimeUnit.SECONDS)) {
+                spillUnsentEmails(executorService.shutdownNow());
+            }
+        } catch (InterruptedException e) {
+            spillUnsentEmails(executorService.shutdownNow());
+            Thread.currentThread().interrupt();
+        }
     }
 
     public Future<Optional<String>> sendRefundIssuedEmail(RefundEntity refundEntity, Charge charge, GatewayAccountEntity gatewayAccountEntity) {
@@ -106,8 +199,17 @@ public class UserNotificationService {
                                                     HashMap<String, String> personalisation, String paymentOrRefundExternalId) {
         if (shouldSendEmail(emailNotificationType, charge, gatewayAccountEntity)) {
             Stopwatch responseTimeStopwatch = Stopwatch.createStarted();
-            return executorService.submit(() -> sendEmail(emailNotificationType, charge, gatewayAccountEntity,
-                    personalisation, responseTimeStopwatch, paymentOrRefundExternalId, true));
+            var emailDispatch = new EmailDispatch(emailNotificationType, paymentOrRefundExternalId,
+                    () -> sendEmailWithinRateLimitOrSpill(emailNotificationType, charge, gatewayAccountEntity,
+                            personalisation, responseTimeStopwatch, paymentOrRefundExternalId));
+            try {
+                executorService.execute(emailDispatch);
+                return emailDispatch;
+            } catch (RejectedExecutionException e) {
+                spillToTaskQueue(emailNotificationType, paymentOrRefundExternalId,
+                        executorService.isShutdown() ? "shutdown" : "queue_full");
+                return CompletableFuture.completedFuture(Optional.empty());
+            }
         } else {
             return CompletableFuture.completedFuture(Optional.empty());
         }
@@ -118,6 +220,10 @@ public class UserNotificationService {
                                                     HashMap<String, String> personalisation,
                                                     String paymentOrRefundExternalId, boolean retryOnFailure) {
         if (shouldSendEmail(emailNotificationType, charge, gatewayAccountEntity)) {
+            if (!withinRateLimit(gatewayAccountEntity)) {
+                overflowedEmails.labels("rate_limited", "rejected").inc();
+                throw new TooManyEmailsRuntimeException(emailNotificationType.name(), paymentOrRefundExternalId, RATE_LIMITED_RETRY_AFTER_SECONDS);
+            }
             Stopwatch responseTimeStopwatch = Stopwatch.createStarted();
             return sendEmail(emailNotificationType, charge, gatewayAccountEntity, personalisation, responseTimeStopwatch, paymentOrRefundExternalId, retryOnFailure);
         } else {
@@ -146,6 +252,55 @@ public class UserNotificationService {
         }
     }
 
+    private Optional<String> sendEmailWithinRateLimitOrSpill(EmailNotificationType emailNotificationType, Charge charge,
+                                                             GatewayAccountEntity gatewayAccountEntity, HashMap<String, String> personalisation,
+                                                             Stopwatch responseTimeStopwatch, String paymentOrRefundExternalId) {
+        if (!withinRateLimit(gatewayAccountEntity)) {
+            spillToTaskQueue(emailNotificationType, paymentOrRefundExternalId, "rate_limited");
+            return Optional.empty();
+        }
+        return sendEmail(emailNotificationType, charge, gatewayAccountEntity, personalisation, responseTimeStopwatch,
+                paymentOrRefundExternalId, true);
+    }
+
+    private boolean withinRateLimit(GatewayAccountEntity gatewayAccountEntity) {
+        return rateLimitersByService.getUnchecked(rateLimitKey(gatewayAccountEntity)).tryAcquire(rateLimitWait);
+    }
+
+    private static String rateLimitKey(GatewayAccountEntity gatewayAccountEntity) {
+        return ofNullable(gatewayAccountEntity.getServiceId()).orElseGet(() -> "gateway-account-" + gatewayAccountEntity.getId());
+    }
+
+    private void spillToTaskQueue(EmailNotificationType emailNotificationType, String paymentOrRefundExternalId, String reason) {
+        // The email has not failed, so backdate the attempt to have it sent as soon as the task is picked up
+        // rather than after the usual wait before retrying a failed email
+        boolean added = taskQueueService.addRetryFailedPaymentOrRefundEmailTask(of(paymentOrRefundExternalId, emailNotificationType,
+                instantSource.instant().minusSeconds(retryFailedEmailAfterSeconds)));
+        overflowedEmails.labels(reason, added ? "spilled" : "dropped").inc();
+        if (added) {
+            logger.info("Could not send email straight away. Added to task queue",
+                    kv(RESOURCE_EXTERNAL_ID, paymentOrRefundExternalId),
+                    kv("email_notification_type", emailNotificationType),
+                    kv("reason", reason));
+        } else {
+            logger.error("Could not send email straight away or add it to task queue",
+                    kv(RESOURCE_EXTERNAL_ID, paymentOrRefundExternalId),
+                    kv("email_notification_type", emailNotificationType),
+                    kv("reason", reason));
+        }
+    }
+
+    private void spillUnsentEmails(List<Runnable> unsentEmails) {
+        logger.warn("Adding {} emails not sent before shutdown to task queue", unsentEmails.size());
+        unsentEmails.stream()
+                .filter(EmailDispatch.class::isInstance)
+                .map(EmailDispatch.class::cast)
+                .forEach(emailDispatch -> {
+                    spillToTaskQueue(emailDispatch.emailNotificationType, emailDispatch.paymentOrRefundExternalId, "shutdown");
+                    emailDispatch.cancel(false);
+                });
+    }
+
     private Optional<String> sendEmail(EmailNotificationType emailNotificationType, Charge charge,
                                        GatewayAccountEntity gatewayAccountEntity, HashMap<String, String> personalisation,
                                        Stopwatch responseTimeStopwatch, String paymentOrRefundExternalId, boolean retryOnFailure) {
@@ -156,8 +311,14 @@ public class UserNotificationService {
             MDC.put("email_notification_type", emailNotificationType.name());
             NotifyClientSettings notifyClientSettings = getNotifyClientSettings(emailNotificationType, gatewayAccountEntity);
             logger.info(format("Sending %s email.", emailNotificationType));
-            SendEmailResponse response = notifyClientSettings.getClient()
-                    .sendEmail(notifyClientSettings.getTemplateId(), charge.getEmail(), personalisation, null, notifyClientSettings.getEmailReplyToId());
+            Histogram.Timer sendDurationTimer = sendDuration.labels(emailNotificationType.name().toLowerCase()).startTimer();
+            SendEmailResponse response;
+            try {
+                response = notifyClientSettings.getClient()
+                        .sendEmail(notifyClientSettings.getTemplateId(), charge.getEmail(), personalisation, null, notifyClientSettings.getEmailReplyToId());
+            } finally {
+                sendDurationTimer.observeDuration();
+            }
             return Optional.of(response.getNotificationId().toString());
         } catch (NotificationClientException e) {
             if (retryOnFailure) {
@@ -191,6 +352,21 @@ public class UserNotificationService {
         return null;
     }
 
+    /**
+     * An email waiting to be sent, which keeps what is needed to add it to the task queue if it is not sent before shutdown
+     */
+    private static class EmailDispatch extends FutureTask<Optional<String>> {
+        private final EmailNotificationType emailNotificationType;
+        private final String paymentOrRefundExternalId;
+
+        private EmailDispatch(EmailNotificationType emailNotificationType, String paymentOrRefundExternalId,
+                              Callable<Optional<String>> send) {
+            super(send);
+            this.emailNotificationType = emailNotificationType;
+            this.paymentOrRefundExternalId = paymentOrRefundExternalId;
+        }
+    }
+
     private static class NotifyClientSettings {
         private NotificationClient client;
         private String templateId;
@@ -0,0 +1,28 @@
+package uk.gov.pay.connector.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+
+/**
+ * Admin endpoint listing the calls to transactional methods that are holding database connections now, longest
+ * held first, so the holders can be seen while requests are queueing for the connection pool.
+ */
+public class DatabaseConnectionHoldersServlet extends HttpServlet {
+
+    private final ObjectMapper objectMapper;
+
+    public DatabaseConnectionHoldersServlet(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setContentType("application/json");
+        response.setHeader("Cache-Control", "must-revalidate,no-cache,no-store");
+        objectMapper.writeValue(response.getOutputStream(), DatabaseConnectionUsage.currentHolders());
+    }
+}
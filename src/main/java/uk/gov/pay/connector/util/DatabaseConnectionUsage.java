@@ -0,0 +1,216 @@
+package uk.gov.pay.connector.util;
+
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+import io.prometheus.client.Histogram;
+
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * How a call to a transactional method, and every call it makes on the same thread, uses database connections: how
+ * long it waited for them, how long it held them and how many statements it ran on them. Each call is attributed to
+ * the outermost transactional method on its thread, which is started by {@link TransactionalMethodInterceptor} and
+ * updated by {@link DatabaseConnectionUsageListener} as EclipseLink acquires and releases connections.
+ * <p>
+ * A call may hold more than one connection at once, for example a connection from the read pool while its
+ * transaction holds one from the write pool, so its hold time is the sum of the time it held each of them.
+ */
+public class DatabaseConnectionUsage {
+
+    private static final Histogram connectionAcquireWait = Histogram.build()
+            .name("database_connection_acquire_wait_seconds")
+            .help("Time a call to a transactional method spent waiting for database connections")
+            .labelNames("method")
+            .register();
+
+    private static final Histogram connectionHoldTime = Histogram.build()
+            .name("database_connection_hold_seconds")
+            .help("Time a call to a transactional method held database connections")
+            .labelNames("method")
+            .register();
+
+    private static final Histogram statementsExecuted = Histogram.build()
+            .name("database_statements_per_call")
+            .help("Number of statements a call to a transactional method executed")
+            .labelNames("method")
+            .buckets(1, 2, 5, 10, 20, 50, 100, 200)
+            .register();
+
+    private static final Histogram rowsReturned = Histogram.build()
+            .name("database_rows_returned_per_call")
+            .help("Number of rows returned to a call to a transactional method")
+            .labelNames("method")
+            .buckets(0, 1, 10, 100, 1000, 10000, 100000)
+            .register();
+
+    private static final ThreadLocal<DatabaseConnectionUsage> currentCall = new ThreadLocal<>();
+    private static final ConcurrentMap<Thread, DatabaseConnectionUsage> callsInProgress = new ConcurrentHashMap<>();
+    private static final ThreadLocal<long[]> waitNanosOnThread = ThreadLocal.withInitial(() -> new long[1]);
+
+    private final String method;
+    private final Thread thread;
+    private final String paymentExternalId;
+    private final long startedAt;
+    private final Map<Object, Long> connectionsHeld = new IdentityHashMap<>();
+    private long connectionRequestedAt;
+    private long waitNanos;
+    private long holdNanos;
+    private boolean usedConnection;
+    private long rows;
+    private volatile long heldSince;
+    private volatile int statements;
+
+    private DatabaseConnectionUsage(String method, Thread thread, String paymentExternalId, long startedAt) {
+        this.method = method;
+        this.thread = thread;
+        this.paymentExternalId = paymentExternalId;
+        this.startedAt = startedAt;
+    }
+
+    /**
+     * Starts recording a call to {@code method} on the current thread, unless the thread is already in a call, in
+     * which case this returns null and the usage is attributed to the call already in progress
+     */
+    static DatabaseConnectionUsage start(String method, String paymentExternalId) {
+        if (currentCall.get() != null) {
+            return null;
+        }
+        var usage = new DatabaseConnectionUsage(method, Thread.currentThread(), paymentExternalId, System.nanoTime());
+        currentCall.set(usage);
+        callsInProgress.put(usage.thread, usage);
+        return usage;
+    }
+
+    static DatabaseConnectionUsage current() {
+        return currentCall.get();
+    }
+
+    /**
+     * The total time calls on the current thread have spent waiting for database connections, so the wait during a
+     * piece of work on the thread is the difference between the totals before and after it
+     */
+    public static long waitNanosOnCurrentThread() {
+        return waitNanosOnThread.get()[0];
+    }
+
+    /**
+     * The calls that are holding database connections now, longest held first
+     */
+    public static List<Holder> currentHolders() {
+        long now = System.nanoTime();
+        return callsInProgress.values().stream()
+                .map(usage -> usage.toHolder(now))
+                .filter(Objects::nonNull)
+                .sorted(Comparator.comparingLong(Holder::heldForMillis).reversed())
+                .toList();
+    }
+
+    /**
+     * Stops recording this call and records its usage against its method, if it used a connection
+     */
+    void finish() {
+        currentCall.remove();
+        callsInProgress.remove(thread);
+        connectionsHeld.values().forEach(acquiredAt -> holdNanos += System.nanoTime() - acquiredAt);
+        connectionsHeld.clear();
+        heldSince = 0;
+        if (usedConnection) {
+            connectionAcquireWait.labels(method).observe(waitNanos / (double) TimeUnit.SECONDS.toNanos(1));
+            connectionHoldTime.labels(method).observe(holdNanos / (double) TimeUnit.SECONDS.toNanos(1));
+            statementsExecuted.labels(method).observe(statements);
+            rowsReturned.labels(method).observe(rows);
+        }
+    }
+
+    /**
+     * Called before EclipseLink does something that may need a connection; the wait for the connection starts here
+     * if the call does not already hold one
+     */
+    void connectionRequested() {
+        if (connectionsHeld.isEmpty() && connectionRequestedAt == 0) {
+            connectionRequestedAt = System.nanoTime();
+        }
+    }
+
+    /**
+     * Called once the thing that may have needed a connection is done, since it may have been answered without one
+     */
+    void connectionNoLongerRequested() {
+        connectionRequestedAt = 0;
+    }
+
+    void connectionAcquired(Object connection) {
+        long now = System.nanoTime();
+        if (connectionRequestedAt != 0) {
+            waitNanos += now - connectionRequestedAt;
+            waitNanosOnThread.get()[0] += now - connectionRequestedAt;
+            connectionRequestedAt = 0;
+        }
+        if (connectionsHeld.isEmpty()) {
+            heldSince = now;
+        }
+        connectionsHeld.put(connection, now);
+        usedConnection = true;
+    }
+
+    void connectionReleased(Object connection) {
+        Long acquiredAt = connectionsHeld.remove(connection);
+        if (acquiredAt != null) {
+            holdNanos += System.nanoTime() - acquiredAt;
+        }
+        if (connectionsHeld.isEmpty()) {
+            heldSince = 0;
+        }
+    }
+
+    void statementExecuted(int rowsReturned) {
+        statements++;
+        rows += rowsReturned;
+    }
+
+    String getMethod() {
+        return method;
+    }
+
+    String getPaymentExternalId() {
+        return paymentExternalId;
+    }
+
+    long getHoldMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(holdNanos);
+    }
+
+    long getWaitMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(waitNanos);
+    }
+
+    int getStatements() {
+        return statements;
+    }
+
+    long getRows() {
+        return rows;
+    }
+
+    private Holder toHolder(long now) {
+        long connectionHeldSince = heldSince;
+        if (connectionHeldSince == 0) {
+            return null;
+        }
+        return new Holder(method, thread.getName(), paymentExternalId,
+                TimeUnit.NANOSECONDS.toMillis(now - connectionHeldSince),
+                TimeUnit.NANOSECONDS.toMillis(now - startedAt), statements);
+    }
+
+    @JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+    public record Holder(String method, String thread, String paymentExternalId, long heldForMillis, long callDurationMillis,
+                         int statements) {
+    }
+}
@@ -0,0 +1,72 @@
+package uk.gov.pay.connector.util;
+
+import org.eclipse.persistence.sessions.DataRecord;
+import org.eclipse.persistence.sessions.SessionEvent;
+import org.eclipse.persistence.sessions.SessionEventAdapter;
+
+import java.util.Collection;
+import java.util.function.Consumer;
+
+/**
+ * Records the connections EclipseLink acquires and releases, and the statements it executes on them, against the
+ * {@link DatabaseConnectionUsage} of the transactional method in progress on the thread. Does nothing on threads
+ * that are not in a transactional method.
+ * <p>
+ * EclipseLink raises no event when it starts waiting on its connection pool, so the wait for a connection is
+ * measured from the start of the query or transaction that acquired it.
+ */
+public class DatabaseConnectionUsageListener extends SessionEventAdapter {
+
+    @Override
+    public void preBeginTransaction(SessionEvent event) {
+        onCurrentCall(DatabaseConnectionUsage::connectionRequested);
+    }
+
+    @Override
+    public void postBeginTransaction(SessionEvent event) {
+        onCurrentCall(DatabaseConnectionUsage::connectionNoLongerRequested);
+    }
+
+    @Override
+    public void preExecuteQuery(SessionEvent event) {
+        onCurrentCall(DatabaseConnectionUsage::connectionRequested);
+    }
+
+    @Override
+    public void postExecuteQuery(SessionEvent event) {
+        onCurrentCall(DatabaseConnectionUsage::connectionNoLongerRequested);
+    }
+
+    @Override
+    public void postAcquireConnection(SessionEvent event) {
+        onCurrentCall(usage -> usage.connectionAcquired(event.getResult()));
+    }
+
+    @Override
+    public void preReleaseConnection(SessionEvent event) {
+        onCurrentCall(usage -> usage.connectionReleased(event.getResult()));
+    }
+
+    @Override
+    public void postExecuteCall(SessionEvent event) {
+        onCurrentCall(usage -> usage.statementExecuted(rowsReturnedBy(event.getResult())));
+    }
+
+    /**
+     * A select returns its rows, or its only row if it can return no more than one; any other statement returns a
+     * count of the rows it changed, which is not counted as rows returned
+     */
+    static int rowsReturnedBy(Object result) {
+        if (result instanceof Collection<?> rows) {
+            return rows.size();
+        }
+        return result instanceof DataRecord ? 1 : 0;
+    }
+
+    private static void onCurrentCall(Consumer<DatabaseConnectionUsage> update) {
+        DatabaseConnectionUsage usage = DatabaseConnectionUsage.current();
+        if (usage != null) {
+            update.accept(usage);
+        }
+    }
+}
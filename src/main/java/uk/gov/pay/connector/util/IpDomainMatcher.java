@@ -16,11 +16,11 @@ public class IpDomainMatcher {
     
     private static final Logger LOGGER = LoggerFactory.getLogger(IpDomainMatcher.class);
     
-    private final ReverseDnsLookup reverseDnsLookup;
+    private final ReverseDnsCache reverseDnsCache;
 
     @Inject
-    public IpDomainMatcher(ReverseDnsLookup reverseDnsLookup) {
-        this.reverseDnsLookup = reverseDnsLookup;
+    public IpDomainMatcher(ReverseDnsCache reverseDnsCache) {
+        this.reverseDnsCache = reverseDnsCache;
     }
 
     private String extractForwardedIp(String forwardedAddress) {
@@ -35,7 +35,7 @@ public class IpDomainMatcher {
     public boolean ipMatchesDomain(String forwardedAddress, String domain) {
         try {
             String ipAddress = extractForwardedIp(forwardedAddress);
-            return reverseDnsLookup.lookup(new DnsPointerResourceRecord(ipAddress)).map(host -> {
+            return reverseDnsCache.lookup(ipAddress).map(host -> {
                 if (!host.endsWith(domain + ".")) {
                     LOGGER.error("Reverse DNS lookup on ip '{}' - resolved domain '{}' does not match '{}'", ipAddress, host, domain);
                     return false;
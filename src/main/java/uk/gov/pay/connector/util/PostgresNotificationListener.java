@@ -0,0 +1,140 @@
+package uk.gov.pay.connector.util;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.dropwizard.db.DataSourceFactory;
+import io.dropwizard.lifecycle.Managed;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import uk.gov.pay.connector.app.ConnectorConfiguration;
+import uk.gov.pay.connector.app.config.DatabaseNotificationConfig;
+
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Listens for Postgres notifications on a connection of its own and passes each one to the subscriber for its
+ * channel. Notifications are sent with {@link uk.gov.pay.connector.common.dao.JpaDao#sendNotification} as part of
+ * a transaction, and are delivered to every connector node once that transaction commits.
+ * <p>
+ * Subscribers are told when the listening connection is (re)opened, as they may have missed notifications while
+ * there was none. Subscriptions must be made before the listener is started, which they are if subscribers
+ * subscribe when they are constructed.
+ */
+@Singleton
+public class PostgresNotificationListener implements Managed {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PostgresNotificationListener.class);
+    private static final int SHUTDOWN_AWAIT_TERMINATION_TIMEOUT_SECONDS = 10;
+
+    private final DatabaseNotificationConfig config;
+    private final DataSourceFactory dataSourceFactory;
+    private final Map<String, Subscriber> subscribers = new ConcurrentHashMap<>();
+    private final ExecutorService listenerExecutor = Executors.newSingleThreadExecutor(
+            new ThreadFactoryBuilder().setNameFormat("postgres-notification-listener-%d").setDaemon(true).build());
+    private volatile boolean running;
+
+    @Inject
+    public PostgresNotificationListener(ConnectorConfiguration configuration) {
+        this.config = configuration.getDatabaseNotificationConfig();
+        this.dataSourceFactory = configuration.getDataSourceFactory();
+    }
+
+    public boolean isEnabled() {
+        return config.isListenEnabled();
+    }
+
+    public void subscribe(String channel, Consumer<String> onNotification, Runnable onListening) {
+        subscribers.put(channel, new Subscriber(onNotification, onListening));
+    }
+
+    @Override
+    public void start() {
+        if (isEnabled() && !subscribers.isEmpty()) {
+            running = true;
+            listenerExecutor.execute(this::listen);
+        }
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        listenerExecutor.shutdown();
+        try {
+            if (!listenerExecutor.awaitTermination(SHUTDOWN_AWAIT_TERMINATION_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                listenerExecutor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            listenerExecutor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void listen() {
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(dataSourceFactory.getUrl(),
+                    dataSourceFactory.getUser(), dataSourceFactory.getPassword())) {
+                try (Statement statement = connection.createStatement()) {
+                    for (String channel : subscribers.keySet()) {
+                        statement.execute("LISTEN " + channel);
+                    }
+                }
+                LOGGER.info("Listening for Postgres notifications on channels {}", subscribers.keySet());
+                subscribers.values().forEach(subscriber -> subscriber.onListening.run());
+
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(config.getListenPollTimeoutInMillis());
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            dispatch(notification);
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                LOGGER.error("Listening for Postgres notifications failed, reconnecting in {}ms: {}",
+                        config.getReconnectDelayInMillis(), e.getMessage());
+                try {
+                    Thread.sleep(config.getReconnectDelayInMillis());
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void dispatch(PGNotification notification) {
+        Subscriber subscriber = subscribers.get(notification.getName());
+        if (subscriber == null) {
+            return;
+        }
+        try {
+            subscriber.onNotification.accept(notification.getParameter());
+        } catch (RuntimeException e) {
+            LOGGER.warn("Ignoring Postgres notification on channel {} with payload '{}': {}",
+                    notification.getName(), notification.getParameter(), e.getMessage());
+        }
+    }
+
+    private static final class Subscriber {
+        private final Consumer<String> onNotification;
+        private final Runnable onListening;
+
+        private Subscriber(Consumer<String> onNotification, Runnable onListening) {
+            this.onNotification = onNotification;
+            this.onListening = onListening;
+        }
+    }
+}
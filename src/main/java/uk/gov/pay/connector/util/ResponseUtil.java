@@ -6,6 +6,7 @@ import org.slf4j.LoggerFactory;
 import uk.gov.service.payments.commons.model.ErrorIdentifier;
 import uk.gov.pay.connector.common.model.api.ErrorResponse;
 
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.Response;
 import java.util.List;
 
@@ -18,6 +19,7 @@ import static jakarta.ws.rs.core.Response.Status.INTERNAL_SERVER_ERROR;
 import static jakarta.ws.rs.core.Response.Status.PAYMENT_REQUIRED;
 import static jakarta.ws.rs.core.Response.Status.CONFLICT;
 import static jakarta.ws.rs.core.Response.Status.OK;
+import static jakarta.ws.rs.core.Response.Status.SERVICE_UNAVAILABLE;
 import static jakarta.ws.rs.core.Response.noContent;
 import static jakarta.ws.rs.core.Response.status;
 import static uk.gov.service.payments.commons.model.ErrorIdentifier.AUTHORISATION_REJECTED;
@@ -89,6 +91,12 @@ public class ResponseUtil {
         return buildErrorResponse(CONFLICT, message);
     }
 
+    public static Response serviceUnavailableResponse(String message, int retryAfterSeconds) {
+        LOGGER.info(message);
+        ErrorResponse errorResponse = new ErrorResponse(ErrorIdentifier.GENERIC, List.of(message));
+        return status(SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, retryAfterSeconds).entity(errorResponse).build();
+    }
+
     public static Response forbiddenErrorResponse() {
         return status(Status.FORBIDDEN).build();
     }
@@ -0,0 +1,219 @@
+package uk.gov.pay.connector.util;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.dropwizard.lifecycle.Managed;
+import io.prometheus.client.Counter;
+import io.prometheus.client.Histogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import uk.gov.pay.connector.app.ConnectorConfiguration;
+import uk.gov.pay.connector.app.config.ReverseDnsCacheConfig;
+
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.InstantSource;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Caches the host names found by {@link ReverseDnsLookup}, keyed by IP address. Host names are kept for
+ * {@code positiveTtlInSeconds} and IP addresses with no host name for {@code negativeTtlInSeconds}.
+ * <p>
+ * Lookups run on a small pool of their own. Concurrent requests for an IP address that is not cached share one
+ * lookup, and a request waits at most {@code lookupTimeoutInMillis} for it before being told there is no host name;
+ * the lookup carries on and its result is cached for the next request. A request for a host name that is due to
+ * expire within {@code refreshBeforeExpiryInSeconds} gets the cached host name straight away and starts a lookup in
+ * the background to replace it. A background lookup that finds no host name does not replace one that is cached.
+ * <p>
+ * At most {@code maximumSize} IP addresses are cached. At most {@code lookupQueueSize} lookups wait for a lookup
+ * thread; a request that needs a lookup when the queue is full is told there is no host name straight away, as if
+ * it had timed out, and nothing is cached for the IP address.
+ */
+@Singleton
+public class ReverseDnsCache implements Managed {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReverseDnsCache.class);
+    private static final int SHUTDOWN_AWAIT_TERMINATION_TIMEOUT_SECONDS = 10;
+
+    private static final Counter cacheRequests = Counter.build()
+            .name("reverse_dns_cache_requests_total")
+            .help("Number of reverse DNS requests answered from the cache (hit) or that needed a lookup (miss)")
+            .labelNames("result")
+            .register();
+
+    private static final Counter backgroundRefreshes = Counter.build()
+            .name("reverse_dns_cache_refreshes_total")
+            .help("Number of background lookups started to replace cached host names before they expire")
+            .register();
+
+    private static final Counter lookupTimeouts = Counter.build()
+            .name("reverse_dns_lookup_timeouts_total")
+            .help("Number of requests that gave up waiting for a reverse DNS lookup or found the lookup queue full")
+            .register();
+
+    private static final Histogram lookupDuration = Histogram.build()
+            .name("reverse_dns_lookup_duration_seconds")
+            .help("Time taken by reverse DNS lookups")
+            .labelNames("found")
+            .register();
+
+    private final ReverseDnsLookup reverseDnsLookup;
+    private final InstantSource instantSource;
+    private final ExecutorService lookupExecutor;
+    private final Duration positiveTtl;
+    private final Duration negativeTtl;
+    private final Duration refreshBeforeExpiry;
+    private final long lookupTimeoutInMillis;
+    private final Cache<String, Entry> entries;
+
+    @Inject
+    public ReverseDnsCache(ReverseDnsLookup reverseDnsLookup, ConnectorConfiguration configuration, InstantSource instantSource) {
+        this(reverseDnsLookup, configuration.getReverseDnsCacheConfig(), instantSource,
+                lookupExecutor(configuration.getReverseDnsCacheConfig()));
+    }
+
+    public ReverseDnsCache(ReverseDnsLookup reverseDnsLookup, ReverseDnsCacheConfig config, InstantSource instantSource,
+                           ExecutorService lookupExecutor) {
+        this.reverseDnsLookup = reverseDnsLookup;
+        this.instantSource = instantSource;
+        this.lookupExecutor = lookupExecutor;
+        this.positiveTtl = Duration.ofSeconds(config.getPositiveTtlInSeconds());
+        this.negativeTtl = Duration.ofSeconds(config.getNegativeTtlInSeconds());
+        this.refreshBeforeExpiry = Duration.ofSeconds(config.getRefreshBeforeExpiryInSeconds());
+        this.lookupTimeoutInMillis = config.getLookupTimeoutInMillis();
+        this.entries = CacheBuilder.newBuilder()
+                .maximumSize(config.getMaximumSize())
+                .build();
+    }
+
+    private static ExecutorService lookupExecutor(ReverseDnsCacheConfig config) {
+        return new ThreadPoolExecutor(config.getLookupThreads(), config.getLookupThreads(), 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(config.getLookupQueueSize()),
+                new ThreadFactoryBuilder().setNameFormat("reverse-dns-lookup-%d").setDaemon(true).build());
+    }
+
+    public Optional<String> lookup(String ipAddress) {
+        Instant now = instantSource.instant();
+        Entry entry = entries.getIfPresent(ipAddress);
+        if (entry != null && !entry.hasExpired(now)) {
+            cacheRequests.labels("hit").inc();
+            if (entry.isDueForRefresh(now)) {
+                refresh(ipAddress, entry);
+            }
+        } else {
+            cacheRequests.labels("miss").inc();
+            entry = entries.asMap().compute(ipAddress, (ip, existing) ->
+                    existing == null || existing.hasExpired(now) ? startLookup(ip) : existing);
+        }
+        return await(ipAddress, entry);
+    }
+
+    @Override
+    public void start() {
+    }
+
+    @Override
+    public void stop() {
+        lookupExecutor.shutdown();
+        try {
+            if (!lookupExecutor.awaitTermination(SHUTDOWN_AWAIT_TERMINATION_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                lookupExecutor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            lookupExecutor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void refresh(String ipAddress, Entry entry) {
+        if (entry.refreshing.compareAndSet(false, true)) {
+            backgroundRefreshes.inc();
+            Entry refreshed = startLookup(ipAddress);
+            refreshed.host.thenAccept(host -> {
+                if (refreshed.rejected) {
+                    entry.refreshing.set(false);
+                } else if (host.isPresent() || entry.host.join().isEmpty()) {
+                    entries.asMap().replace(ipAddress, entry, refreshed);
+                } else {
+                    LOGGER.warn("Background reverse DNS lookup on ip '{}' found no host, keeping cached host until it expires", ipAddress);
+                }
+            });
+        }
+    }
+
+    private Entry startLookup(String ipAddress) {
+        Entry entry = new Entry();
+        try {
+            CompletableFuture.supplyAsync(() -> timedLookup(ipAddress), lookupExecutor)
+                    .whenComplete((host, error) -> entry.resolve(host == null ? Optional.empty() : host));
+        } catch (RejectedExecutionException e) {
+            lookupTimeouts.inc();
+            LOGGER.warn("Reverse DNS lookup on ip '{}' not started as the lookup queue is full", ipAddress);
+            entry.reject();
+        }
+        return entry;
+    }
+
+    private Optional<String> timedLookup(String ipAddress) {
+        long startNanos = System.nanoTime();
+        Optional<String> host = reverseDnsLookup.lookup(new DnsPointerResourceRecord(ipAddress));
+        lookupDuration.labels(String.valueOf(host.isPresent())).observe((System.nanoTime() - startNanos) / 1e9);
+        return host;
+    }
+
+    private Optional<String> await(String ipAddress, Entry entry) {
+        try {
+            return entry.host.get(lookupTimeoutInMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            lookupTimeouts.inc();
+            LOGGER.warn("Reverse DNS lookup on ip '{}' did not finish within {}ms", ipAddress, lookupTimeoutInMillis);
+            return Optional.empty();
+        } catch (ExecutionException e) {
+            return Optional.empty();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Optional.empty();
+        }
+    }
+
+    private final class Entry {
+        private final CompletableFuture<Optional<String>> host = new CompletableFuture<>();
+        private final AtomicBoolean refreshing = new AtomicBoolean();
+        private volatile Instant expiresAt = Instant.MAX;
+        private volatile boolean rejected;
+
+        private void resolve(Optional<String> resolvedHost) {
+            expiresAt = instantSource.instant().plus(resolvedHost.isPresent() ? positiveTtl : negativeTtl);
+            host.complete(resolvedHost);
+        }
+
+        /**
+         * Expires straight away, so the next request for the IP address tries the lookup again
+         */
+        private void reject() {
+            rejected = true;
+            expiresAt = Instant.MIN;
+            host.complete(Optional.empty());
+        }
+
+        private boolean hasExpired(Instant now) {
+            return !now.isBefore(expiresAt);
+        }
+
+        private boolean isDueForRefresh(Instant now) {
+            return host.isDone() && host.join().isPresent() && !now.isBefore(expiresAt.minus(refreshBeforeExpiry));
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package uk.gov.pay.connector.util;
+
+import org.eclipse.persistence.descriptors.ClassDescriptor;
+import org.eclipse.persistence.sequencing.Sequence;
+import org.eclipse.persistence.sessions.DatasourceLogin;
+import org.eclipse.persistence.sessions.Session;
+import org.eclipse.persistence.sessions.SessionEvent;
+import org.eclipse.persistence.sessions.SessionEventAdapter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * Sets the number of ids EclipseLink takes from each sequence with a single {@code nextval} to the
+ * {@code INCREMENT BY} of that sequence in the database, so the size of the blocks of ids given to each node is set
+ * by the migration that alters the sequence rather than by the {@code allocationSize} of its
+ * {@code @SequenceGenerator}.
+ * <p>
+ * A block larger than the increment would contain ids that are also in the blocks given to other nodes, so the
+ * allocation size of a sequence is left as it is if the increments cannot be read.
+ */
+public class SequencePreallocationListener extends SessionEventAdapter {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SequencePreallocationListener.class);
+
+    static final String SEQUENCE_INCREMENTS_QUERY =
+            "SELECT sequencename, increment_by FROM pg_sequences WHERE schemaname = current_schema()";
+
+    @Override
+    public void postLogin(SessionEvent event) {
+        Session session = event.getSession();
+        Map<String, Integer> increments;
+        try {
+            increments = readSequenceIncrements(session);
+        } catch (RuntimeException e) {
+            LOGGER.warn("Could not read sequence increments, ids will be allocated as set by @SequenceGenerator: {}", e.getMessage());
+            return;
+        }
+
+        Stream.concat(((DatasourceLogin) session.getDatasourceLogin()).getSequences().values().stream(),
+                        session.getDescriptors().values().stream().map(ClassDescriptor::getSequence))
+                .filter(Objects::nonNull)
+                .distinct()
+                .forEach(sequence -> setPreallocationSize(sequence, increments.get(sequence.getName())));
+    }
+
+    private static void setPreallocationSize(Sequence sequence, Integer increment) {
+        if (increment == null || increment < 1 || increment == sequence.getPreallocationSize()) {
+            return;
+        }
+        LOGGER.info("Allocating ids from sequence {} in blocks of {}", sequence.getName(), increment);
+        sequence.setPreallocationSize(increment);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Integer> readSequenceIncrements(Session session) {
+        Map<String, Integer> increments = new HashMap<>();
+        for (Object row : (List<Object>) session.executeSQL(SEQUENCE_INCREMENTS_QUERY)) {
+            Map<String, Object> record = (Map<String, Object>) row;
+            increments.put((String) record.get("sequencename"), ((Number) record.get("increment_by")).intValue());
+        }
+        return increments;
+    }
+}
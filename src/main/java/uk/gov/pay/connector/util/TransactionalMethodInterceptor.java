@@ -0,0 +1,62 @@
+package uk.gov.pay.connector.util;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+
+import java.util.Optional;
+
+import static net.logstash.logback.argument.StructuredArguments.kv;
+import static uk.gov.service.payments.logging.LoggingKeys.PAYMENT_EXTERNAL_ID;
+
+/**
+ * Records the database connection usage of each call to a {@code @Transactional} method, including the DAOs, which
+ * are transactional throughout. It must be bound before the interceptor of the JPA persist module so the call it
+ * records includes the commit of the transaction.
+ * <p>
+ * A call that held connections for longer than the threshold is logged with the stack it was called from.
+ */
+public class TransactionalMethodInterceptor implements MethodInterceptor {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TransactionalMethodInterceptor.class);
+
+    private final long longHoldThresholdInMillis;
+
+    public TransactionalMethodInterceptor(long longHoldThresholdInMillis) {
+        this.longHoldThresholdInMillis = longHoldThresholdInMillis;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        DatabaseConnectionUsage usage = DatabaseConnectionUsage.start(methodName(invocation), MDC.get(PAYMENT_EXTERNAL_ID));
+        if (usage == null) {
+            return invocation.proceed();
+        }
+        try {
+            return invocation.proceed();
+        } finally {
+            usage.finish();
+            if (usage.getHoldMillis() > longHoldThresholdInMillis) {
+                String paymentExternalId = Optional.ofNullable(MDC.get(PAYMENT_EXTERNAL_ID)).orElse(usage.getPaymentExternalId());
+                LOGGER.warn("{} held database connections for {} ms after waiting {} ms for them, executing {} statements returning {} rows",
+                        usage.getMethod(), usage.getHoldMillis(), usage.getWaitMillis(), usage.getStatements(), usage.getRows(),
+                        kv(PAYMENT_EXTERNAL_ID, paymentExternalId),
+                        new Throwable("Stack of call holding database connections"));
+            }
+        }
+    }
+
+    /**
+     * Guice intercepts a method by overriding it in a generated subclass, so the name is taken from the class the
+     * subclass was generated for, which for methods inherited from {@code JpaDao} is the DAO rather than JpaDao
+     */
+    static String methodName(MethodInvocation invocation) {
+        Class<?> target = invocation.getThis().getClass();
+        while (target.isSynthetic() || target.getName().contains("$$")) {
+            target = target.getSuperclass();
+        }
+        return target.getSimpleName() + "." + invocation.getMethod().getName();
+    }
+}
@@ -19,6 +19,8 @@ import uk.gov.pay.connector.gateway.sandbox.SandboxNotificationService;
 import uk.gov.pay.connector.gateway.stripe.StripeNotificationService;
 import uk.gov.pay.connector.gateway.worldpay.WorldpayNotificationService;
 
+import java.io.InputStream;
+
 import static io.swagger.v3.oas.annotations.enums.ParameterIn.HEADER;
 import static jakarta.ws.rs.core.MediaType.APPLICATION_JSON;
 import static jakarta.ws.rs.core.MediaType.TEXT_XML;
@@ -96,7 +98,7 @@ public class NotificationResource {
             }
     )
     public Response authoriseWorldpayNotifications(@Parameter(example = "see https://github.com/alphagov/pay-connector/blob/master/src/test/resources/templates/worldpay/notification.xml for example notification")
-                                                   String notification,
+                                                   InputStream notification,
                                                    @Parameter(in = HEADER, example = "4.3.2.1")
                                                    @HeaderParam("X-Forwarded-For") String forwardedIpAddresses) {
         if (!worldpayNotificationService.handleNotificationFor(forwardedIpAddresses, notification)) {
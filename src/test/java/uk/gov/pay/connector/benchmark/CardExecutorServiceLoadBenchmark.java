@@ -0,0 +1,109 @@
+package uk.gov.pay.connector.benchmark;
+
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Snapshot;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import uk.gov.pay.connector.app.ExecutorServiceConfig;
+import uk.gov.pay.connector.app.ExecutorServiceConfig.ExecutorMode;
+import uk.gov.pay.connector.paymentprocessor.service.CardExecutorService;
+import uk.gov.pay.connector.paymentprocessor.service.CardExecutorService.ExecutionStatus;
+
+import java.util.concurrent.TimeUnit;
+
+import static uk.gov.service.payments.logging.LoggingKeys.PROVIDER;
+
+/**
+ * Load test for {@link CardExecutorService}: many request threads call {@code execute()} at once against a stubbed
+ * gateway that takes {@link #gatewayLatencyMillis} to respond, as authorisations do in a burst. Compares throughput
+ * between platform and virtual thread modes, and logs the {@code card-executor.delay} (queue wait) percentiles at
+ * the end of each trial.
+ * <p>
+ * The platform pool is sized with {@link #threadsPerCpu} so that, as in production, it is smaller than the number of
+ * concurrent callers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+@Threads(400)
+public class CardExecutorServiceLoadBenchmark {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CardExecutorServiceLoadBenchmark.class);
+
+    @Param({"PLATFORM_THREADS", "VIRTUAL_THREADS"})
+    public ExecutorMode mode;
+
+    @Param({"200"})
+    public int gatewayLatencyMillis;
+
+    @Param({"10"})
+    public int threadsPerCpu;
+
+    @Param({"1000"})
+    public int maxConcurrentOperationsPerGateway;
+
+    private MetricRegistry metricRegistry;
+    private CardExecutorService cardExecutorService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        metricRegistry = new MetricRegistry();
+        cardExecutorService = new CardExecutorService(
+                new ExecutorServiceConfig(threadsPerCpu, mode, maxConcurrentOperationsPerGateway), metricRegistry);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        Snapshot queueWait = metricRegistry.histogram("card-executor.delay").getSnapshot();
+        LOGGER.info("{} queue wait ms: median={} p95={} p99={} max={}", mode, Math.round(queueWait.getMedian()),
+                Math.round(queueWait.get95thPercentile()), Math.round(queueWait.get99thPercentile()), queueWait.getMax());
+        cardExecutorService.getExecutor().shutdownNow();
+    }
+
+    @Benchmark
+    public ExecutionStatus authorise() {
+        MDC.put(PROVIDER, "worldpay");
+        try {
+            return cardExecutorService.execute(this::slowGatewayCall, 60_000).getLeft();
+        } finally {
+            MDC.remove(PROVIDER);
+        }
+    }
+
+    private String slowGatewayCall() {
+        try {
+            Thread.sleep(gatewayLatencyMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return "AUTHORISED";
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(CardExecutorServiceLoadBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
@@ -0,0 +1,176 @@
+package uk.gov.pay.connector.benchmark;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Persistence;
+import liquibase.Liquibase;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.resource.ClassLoaderResourceAccessor;
+import org.jdbi.v3.core.Jdbi;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import uk.gov.pay.connector.chargeevent.dao.ChargeEventDao;
+import uk.gov.pay.connector.chargeevent.model.domain.ChargeEventEntity;
+import uk.gov.pay.connector.it.dao.DatabaseFixtures;
+import uk.gov.pay.connector.rules.PostgresTestDocker;
+import uk.gov.pay.connector.util.DatabaseTestHelper;
+
+import java.sql.Connection;
+import java.sql.Timestamp;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+import static java.sql.DriverManager.getConnection;
+import static uk.gov.pay.connector.rules.PostgresTestDocker.getConnectionUrl;
+import static uk.gov.pay.connector.rules.PostgresTestDocker.getDbPassword;
+import static uk.gov.pay.connector.rules.PostgresTestDocker.getDbUsername;
+
+/**
+ * Compares the cost of reading the last page of a date range of {@code charge_events} with OFFSET paging (as the
+ * historical event emitter used to) and with the {@code (updated, id)} keyset cursor of
+ * {@link ChargeEventDao#findChargeEvents}. The table is seeded with {@link #eventsPerDay} events a day for 90 days
+ * and the range starts on the first day.
+ * <p>
+ * An OFFSET page has to read and discard every row before it, so its cost grows with {@link #rangeDays} and a full
+ * scan is quadratic. The keyset page should cost the same at every range size, so a full scan stays linear.
+ * <p>
+ * Needs Docker for the Postgres test container.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class ChargeEventScanBenchmark {
+
+    private static final ZonedDateTime SEEDED_FROM = ZonedDateTime.parse("2016-01-01T00:00:00Z");
+    private static final int SEEDED_DAYS = 90;
+
+    public enum Paging { OFFSET, KEYSET }
+
+    @Param({"OFFSET", "KEYSET"})
+    public Paging paging;
+
+    @Param({"1", "7", "30", "90"})
+    public int rangeDays;
+
+    @Param({"2000"})
+    public int eventsPerDay;
+
+    @Param({"100"})
+    public int pageSize;
+
+    private EntityManagerFactory entityManagerFactory;
+    private EntityManager entityManager;
+    private ChargeEventDao chargeEventDao;
+    private ZonedDateTime endDate;
+    private int lastPageOffset;
+    private ZonedDateTime lastPageAfterUpdated;
+    private long lastPageAfterId;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        TimeZone.setDefault(TimeZone.getTimeZone("UTC"));
+        PostgresTestDocker.getOrCreate();
+        try (Connection connection = getConnection(getConnectionUrl(), getDbUsername(), getDbPassword())) {
+            new Liquibase("migrations.xml", new ClassLoaderResourceAccessor(), new JdbcConnection(connection)).update("");
+        }
+
+        Jdbi jdbi = Jdbi.create(getConnectionUrl(), getDbUsername(), getDbPassword());
+        seedChargeEvents(jdbi);
+
+        endDate = SEEDED_FROM.plusDays(rangeDays);
+        int rowsInRange = jdbi.withHandle(handle -> handle
+                .createQuery("SELECT count(*) FROM charge_events WHERE updated >= :startDate AND updated <= :endDate")
+                .bind("startDate", Timestamp.from(SEEDED_FROM.toInstant()))
+                .bind("endDate", Timestamp.from(endDate.toInstant()))
+                .mapTo(Integer.class)
+                .one());
+        lastPageOffset = Math.max(rowsInRange - pageSize, 0);
+        Map<String, Object> cursor = jdbi.withHandle(handle -> handle
+                .createQuery("SELECT updated, id FROM charge_events WHERE updated >= :startDate AND updated <= :endDate " +
+                        "ORDER BY updated, id OFFSET :offset LIMIT 1")
+                .bind("startDate", Timestamp.from(SEEDED_FROM.toInstant()))
+                .bind("endDate", Timestamp.from(endDate.toInstant()))
+                .bind("offset", Math.max(lastPageOffset - 1, 0))
+                .mapToMap()
+                .one());
+        lastPageAfterUpdated = ((Timestamp) cursor.get("updated")).toInstant().atZone(ZoneOffset.UTC);
+        lastPageAfterId = (Long) cursor.get("id");
+
+        entityManagerFactory = Persistence.createEntityManagerFactory("ConnectorUnit", Map.of(
+                "jakarta.persistence.jdbc.url", getConnectionUrl(),
+                "jakarta.persistence.jdbc.user", getDbUsername(),
+                "jakarta.persistence.jdbc.password", getDbPassword()));
+        entityManager = entityManagerFactory.createEntityManager();
+        chargeEventDao = new ChargeEventDao(() -> entityManager);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        entityManager.close();
+        entityManagerFactory.close();
+        PostgresTestDocker.stopContainer();
+    }
+
+    @Benchmark
+    public List<ChargeEventEntity> readLastPageOfRange() {
+        entityManager.clear();
+        return switch (paging) {
+            case OFFSET -> entityManager
+                    .createQuery("SELECT ce FROM ChargeEventEntity ce " +
+                            "WHERE ce.updated >= :startDate and ce.updated <= :endDate" +
+                            " order by ce.updated asc", ChargeEventEntity.class)
+                    .setParameter("startDate", SEEDED_FROM)
+                    .setParameter("endDate", endDate)
+                    .setFirstResult(lastPageOffset)
+                    .setMaxResults(pageSize)
+                    .getResultList();
+            case KEYSET -> chargeEventDao.findChargeEvents(lastPageAfterUpdated, lastPageAfterId, endDate, pageSize);
+        };
+    }
+
+    private void seedChargeEvents(Jdbi jdbi) {
+        DatabaseFixtures databaseFixtures = DatabaseFixtures.withDatabaseTestHelper(new DatabaseTestHelper(jdbi));
+        DatabaseFixtures.TestAccount testAccount = databaseFixtures.aTestAccount().insert();
+        DatabaseFixtures.TestCharge testCharge = databaseFixtures.aTestCharge().withTestAccount(testAccount).insert();
+
+        jdbi.useHandle(handle -> {
+            handle.createUpdate("INSERT INTO charge_events(charge_id, status, updated) " +
+                            "SELECT :chargeId, 'CREATED', :seededFrom + n * (interval '1 day' / :eventsPerDay) " +
+                            "FROM generate_series(0, :totalEvents - 1) n")
+                    .bind("chargeId", testCharge.getChargeId())
+                    .bind("seededFrom", Timestamp.from(SEEDED_FROM.toInstant()))
+                    .bind("eventsPerDay", eventsPerDay)
+                    .bind("totalEvents", eventsPerDay * SEEDED_DAYS)
+                    .execute();
+            handle.execute("ANALYZE charge_events");
+        });
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ChargeEventScanBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
@@ -0,0 +1,124 @@
+package uk.gov.pay.connector.benchmark;
+
+import freemarker.template.Configuration;
+import freemarker.template.TemplateExceptionHandler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import uk.gov.pay.connector.gateway.OrderRequestBuilder.TemplateData;
+import uk.gov.pay.connector.gateway.model.request.records.WorldpayRequest;
+import uk.gov.pay.connector.gateway.templates.TemplateBuilder;
+import uk.gov.pay.connector.gateway.templates.WorldpayRequestTemplateBuilder;
+import uk.gov.pay.connector.gateway.worldpay.WorldpayAuthoriseHandler;
+import uk.gov.pay.connector.gateway.worldpay.WorldpayOrderRequestBuilder;
+
+import java.io.StringWriter;
+import java.time.LocalDate;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import static freemarker.template.Configuration.VERSION_2_3_34;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static uk.gov.pay.connector.gateway.model.request.records.WorldpayMotoAuthoriseRequestFixture.aWorldpayMotoAuthoriseRequestFixture;
+import static uk.gov.pay.connector.gateway.worldpay.WorldpayOrderRequestBuilder.CANCEL_ORDER_TEMPLATE_BUILDER;
+import static uk.gov.pay.connector.gateway.worldpay.WorldpayOrderRequestBuilder.CAPTURE_ORDER_TEMPLATE_BUILDER;
+import static uk.gov.pay.connector.gateway.worldpay.WorldpayOrderRequestBuilder.REFUND_ORDER_TEMPLATE_BUILDER;
+import static uk.gov.pay.connector.gateway.worldpay.WorldpayOrderRequestBuilder.aWorldpayCancelOrderRequestBuilder;
+import static uk.gov.pay.connector.gateway.worldpay.WorldpayOrderRequestBuilder.aWorldpayCaptureOrderRequestBuilder;
+import static uk.gov.pay.connector.gateway.worldpay.WorldpayOrderRequestBuilder.aWorldpayRefundOrderRequestBuilder;
+
+/**
+ * Compares rendering Worldpay request bodies straight into a pooled UTF-8 buffer against the previous path, which
+ * looked the template up by name, rendered it into a {@link StringWriter} and then encoded the String for the
+ * request entity. Covers the MOTO authorise {@code WorldpayRequest} record and the capture, refund and cancel
+ * orders. Run with the GC profiler enabled (as {@link #main} does) to compare allocations per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class WorldpayRequestTemplateBenchmark {
+
+    @Param({"MOTO_AUTHORISE", "CAPTURE", "REFUND", "CANCEL"})
+    public String request;
+
+    private final WorldpayRequestTemplateBuilder worldpayRequestTemplateBuilder = new WorldpayRequestTemplateBuilder();
+    private Configuration cfg;
+    private String templatePath;
+    private Object dataModel;
+    private TemplateBuilder templateBuilder;
+
+    @Setup
+    public void setUp() {
+        cfg = new Configuration(VERSION_2_3_34);
+        cfg.setDefaultEncoding("UTF-8");
+        cfg.setLocale(Locale.ENGLISH);
+        cfg.setTemplateExceptionHandler(TemplateExceptionHandler.RETHROW_HANDLER);
+        cfg.setClassForTemplateLoading(WorldpayRequestTemplateBenchmark.class, "/templates");
+
+        switch (request) {
+            case "MOTO_AUTHORISE" -> {
+                templatePath = WorldpayAuthoriseHandler.MOTO_TEMPLATE_PATH;
+                dataModel = aWorldpayMotoAuthoriseRequestFixture().build();
+            }
+            case "CAPTURE" -> {
+                templatePath = "worldpay/WorldpayCaptureOrderTemplate.xml";
+                templateBuilder = CAPTURE_ORDER_TEMPLATE_BUILDER;
+                dataModel = templateData(aWorldpayCaptureOrderRequestBuilder().withDate(LocalDate.of(2013, 2, 23)).withAmount("500"));
+            }
+            case "REFUND" -> {
+                templatePath = "worldpay/WorldpayRefundOrderTemplate.xml";
+                templateBuilder = REFUND_ORDER_TEMPLATE_BUILDER;
+                dataModel = templateData(aWorldpayRefundOrderRequestBuilder().withReference("reference").withAmount("200"));
+            }
+            case "CANCEL" -> {
+                templatePath = "worldpay/WorldpayCancelOrderTemplate.xml";
+                templateBuilder = CANCEL_ORDER_TEMPLATE_BUILDER;
+                dataModel = templateData(aWorldpayCancelOrderRequestBuilder());
+            }
+            default -> throw new IllegalArgumentException("Unknown request " + request);
+        }
+    }
+
+    @Benchmark
+    public byte[] stringWriter() throws Exception {
+        StringWriter writer = new StringWriter();
+        cfg.getTemplate(templatePath).process(dataModel, writer);
+        return writer.toString().getBytes(UTF_8);
+    }
+
+    @Benchmark
+    public byte[] pooledBuffer() {
+        if (templateBuilder == null) {
+            return worldpayRequestTemplateBuilder.renderWith(templatePath, (WorldpayRequest) dataModel);
+        }
+        return templateBuilder.renderWith((TemplateData) dataModel);
+    }
+
+    private static TemplateData templateData(WorldpayOrderRequestBuilder builder) {
+        builder.withMerchantCode("MERCHANTCODE").withTransactionId("MyUniqueTransactionId!");
+        return builder.getWorldpayTemplateData();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(WorldpayRequestTemplateBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build())
+                .run();
+    }
+}
@@ -0,0 +1,89 @@
+package uk.gov.pay.connector.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import uk.gov.pay.connector.gateway.util.XMLUnmarshaller;
+import uk.gov.pay.connector.gateway.worldpay.WorldpayNotification;
+import uk.gov.pay.connector.gateway.worldpay.WorldpayOrderStatusResponse;
+import uk.gov.pay.connector.gateway.worldpay.WorldpayStaxUnmarshaller;
+import uk.gov.pay.connector.util.TestTemplateResourceLoader;
+
+import java.io.ByteArrayInputStream;
+import java.io.StringReader;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static uk.gov.pay.connector.util.TestTemplateResourceLoader.WORLDPAY_3DS_FLEX_RESPONSE;
+import static uk.gov.pay.connector.util.TestTemplateResourceLoader.WORLDPAY_NOTIFICATION;
+
+/**
+ * Compares JAXB and StAX unmarshalling of Worldpay notifications and order status responses. Run with the GC
+ * profiler enabled (as {@link #main} does) to compare allocations per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class WorldpayStaxUnmarshallerBenchmark {
+
+    private byte[] notification;
+    private String orderStatusResponse;
+
+    @Setup
+    public void setUp() {
+        notification = TestTemplateResourceLoader.load(WORLDPAY_NOTIFICATION)
+                .replace("{{transactionId}}", "transaction-id")
+                .replace("{{status}}", "CAPTURED")
+                .replace("{{description}}", "description")
+                .replace("{{refund-ref}}", "refund-ref")
+                .replace("{{refund-authorisation-reference}}", "refund-authorisation-reference")
+                .replace("{{refund-response-reference}}", "refund-response-reference")
+                .replace("{{bookingDateDay}}", "10")
+                .replace("{{bookingDateMonth}}", "01")
+                .replace("{{bookingDateYear}}", "2017")
+                .getBytes(UTF_8);
+        orderStatusResponse = TestTemplateResourceLoader.load(WORLDPAY_3DS_FLEX_RESPONSE);
+    }
+
+    @Benchmark
+    public WorldpayNotification notificationWithJaxb() throws Exception {
+        return XMLUnmarshaller.unmarshall(new ByteArrayInputStream(notification), WorldpayNotification.class);
+    }
+
+    @Benchmark
+    public WorldpayNotification notificationWithStax() throws Exception {
+        return WorldpayStaxUnmarshaller.unmarshallNotification(new ByteArrayInputStream(notification));
+    }
+
+    @Benchmark
+    public WorldpayOrderStatusResponse orderStatusResponseWithJaxb() throws Exception {
+        return XMLUnmarshaller.unmarshall(orderStatusResponse, WorldpayOrderStatusResponse.class);
+    }
+
+    @Benchmark
+    public WorldpayOrderStatusResponse orderStatusResponseWithStax() throws Exception {
+        return WorldpayStaxUnmarshaller.unmarshallOrderStatusResponse(new StringReader(orderStatusResponse));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(WorldpayStaxUnmarshallerBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build())
+                .run();
+    }
+}
@@ -0,0 +1,128 @@
+package uk.gov.pay.connector.benchmark;
+
+import jakarta.xml.bind.JAXBContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.xml.sax.InputSource;
+import org.xml.sax.XMLReader;
+import uk.gov.pay.connector.gateway.util.XMLUnmarshaller;
+import uk.gov.pay.connector.gateway.worldpay.WorldpayCaptureResponse;
+import uk.gov.pay.connector.gateway.worldpay.WorldpayNotification;
+import uk.gov.pay.connector.gateway.worldpay.WorldpayOrderStatusResponse;
+import uk.gov.pay.connector.gateway.worldpay.WorldpayRefundResponse;
+import uk.gov.pay.connector.util.TestTemplateResourceLoader;
+
+import javax.xml.parsers.SAXParser;
+import javax.xml.parsers.SAXParserFactory;
+import javax.xml.transform.sax.SAXSource;
+import java.io.ByteArrayInputStream;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static javax.xml.XMLConstants.FEATURE_SECURE_PROCESSING;
+import static uk.gov.pay.connector.util.TestTemplateResourceLoader.WORLDPAY_3DS_RESPONSE;
+import static uk.gov.pay.connector.util.TestTemplateResourceLoader.WORLDPAY_AUTHORISATION_SUCCESS_RESPONSE;
+import static uk.gov.pay.connector.util.TestTemplateResourceLoader.WORLDPAY_CAPTURE_SUCCESS_RESPONSE;
+import static uk.gov.pay.connector.util.TestTemplateResourceLoader.WORLDPAY_NOTIFICATION;
+import static uk.gov.pay.connector.util.TestTemplateResourceLoader.WORLDPAY_REFUND_SUCCESS_RESPONSE;
+
+/**
+ * Compares {@link XMLUnmarshaller} against the previous implementation, which built a new
+ * {@link SAXParserFactory}, {@link SAXParser} and {@link JAXBContext} for every payload.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@Threads(4)
+public class XMLUnmarshallerBenchmark {
+
+    @Param({"AUTHORISATION_SUCCESS", "3DS_REQUIRED", "CAPTURE_SUCCESS", "REFUND_SUCCESS", "NOTIFICATION"})
+    public String fixture;
+
+    private String payload;
+    private Class<?> target;
+
+    @Setup
+    public void setUp() {
+        switch (fixture) {
+            case "AUTHORISATION_SUCCESS" -> {
+                payload = TestTemplateResourceLoader.load(WORLDPAY_AUTHORISATION_SUCCESS_RESPONSE);
+                target = WorldpayOrderStatusResponse.class;
+            }
+            case "3DS_REQUIRED" -> {
+                payload = TestTemplateResourceLoader.load(WORLDPAY_3DS_RESPONSE);
+                target = WorldpayOrderStatusResponse.class;
+            }
+            case "CAPTURE_SUCCESS" -> {
+                payload = TestTemplateResourceLoader.load(WORLDPAY_CAPTURE_SUCCESS_RESPONSE);
+                target = WorldpayCaptureResponse.class;
+            }
+            case "REFUND_SUCCESS" -> {
+                payload = TestTemplateResourceLoader.load(WORLDPAY_REFUND_SUCCESS_RESPONSE);
+                target = WorldpayRefundResponse.class;
+            }
+            case "NOTIFICATION" -> {
+                payload = TestTemplateResourceLoader.load(WORLDPAY_NOTIFICATION)
+                        .replace("{{transactionId}}", "transaction-id")
+                        .replace("{{status}}", "CAPTURED")
+                        .replace("{{description}}", "description")
+                        .replace("{{refund-ref}}", "refund-ref")
+                        .replace("{{refund-authorisation-reference}}", "refund-authorisation-reference")
+                        .replace("{{refund-response-reference}}", "refund-response-reference")
+                        .replace("{{bookingDateDay}}", "10")
+                        .replace("{{bookingDateMonth}}", "01")
+                        .replace("{{bookingDateYear}}", "2017");
+                target = WorldpayNotification.class;
+            }
+            default -> throw new IllegalArgumentException("Unknown fixture " + fixture);
+        }
+    }
+
+    @Benchmark
+    public Object pooled() throws Exception {
+        return XMLUnmarshaller.unmarshall(payload, target);
+    }
+
+    @Benchmark
+    public Object perCall() throws Exception {
+        SAXParserFactory spf = SAXParserFactory.newInstance();
+        spf.setFeature(FEATURE_SECURE_PROCESSING, true);
+        spf.setFeature("http://apache.org/xml/features/nonvalidating/load-external-dtd", false);
+        spf.setFeature("http://xml.org/sax/features/validation", false);
+        spf.setNamespaceAware(true);
+        spf.setFeature("http://xml.org/sax/features/external-general-entities", false);
+        spf.setFeature("http://xml.org/sax/features/external-parameter-entities", false);
+        spf.setXIncludeAware(false);
+        SAXParser saxParser = spf.newSAXParser();
+        saxParser.setProperty("http://www.oracle.com/xml/jaxp/properties/entityExpansionLimit", "1");
+        XMLReader xmlReader = saxParser.getXMLReader();
+
+        InputSource inputSource = new InputSource(new ByteArrayInputStream(payload.getBytes(UTF_8)));
+        return JAXBContext.newInstance(target).createUnmarshaller()
+                .unmarshal(new SAXSource(xmlReader, inputSource), target)
+                .getValue();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(XMLUnmarshallerBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
@@ -2,6 +2,7 @@ package uk.gov.pay.connector.charge.resource;
 
 import io.dropwizard.testing.junit5.DropwizardExtensionsSupport;
 import io.dropwizard.testing.junit5.ResourceExtension;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -10,6 +11,7 @@ import uk.gov.pay.connector.charge.model.domain.Charge;
 import uk.gov.pay.connector.charge.service.ChargeExpiryService;
 import uk.gov.pay.connector.charge.service.ChargeService;
 import uk.gov.pay.connector.common.exception.ConstraintViolationExceptionMapper;
+import uk.gov.pay.connector.common.exception.TooManyEmailsRuntimeException;
 import uk.gov.pay.connector.common.exception.ValidationExceptionMapper;
 import uk.gov.pay.connector.common.model.api.ErrorResponse;
 import uk.gov.pay.connector.gatewayaccount.model.GatewayAccountEntity;
@@ -31,6 +33,7 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.reset;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(DropwizardExtensionsSupport.class)
@@ -56,6 +59,11 @@ public class ChargesApiResourceTest {
             .addProvider(ValidationExceptionMapper.class)
             .build();
 
+    @AfterEach
+    void teardown() {
+        reset(userNotificationService);
+    }
+
     @Nested
     @DisplayName("Given an account id")
     class ByAccountId {
@@ -110,6 +118,25 @@ public class ChargesApiResourceTest {
                 }
             }
 
+            @Test
+            @DisplayName("Should return 503 with Retry-After if too many emails are being sent for the service")
+            void rateLimited_shouldReturn503() {
+                when(gatewayAccountService.getGatewayAccount(AN_ACCOUNT_ID)).thenReturn(Optional.of(mockGatewayAccountEntity));
+                when(chargeService.findCharge(A_CHARGE_ID, AN_ACCOUNT_ID)).thenReturn(Optional.of(mockCharge));
+                when(userNotificationService.sendPaymentConfirmedEmailSynchronously(mockCharge, mockGatewayAccountEntity, true))
+                        .thenThrow(new TooManyEmailsRuntimeException("PAYMENT_CONFIRMED", A_CHARGE_ID, 1));
+
+                try (Response response = chargesApiResource
+                        .target(format("/v1/api/accounts/%d/charges/%s/resend-confirmation-email", AN_ACCOUNT_ID, A_CHARGE_ID))
+                        .request()
+                        .post(Entity.json(Collections.emptyMap()))) {
+
+                    assertGenericErrorResponse(response, 503,
+                            format("Too many emails being sent for the service, PAYMENT_CONFIRMED email for %s not sent, retry later", A_CHARGE_ID));
+                    assertThat(response.getHeaderString("Retry-After"), is("1"));
+                }
+            }
+
             @Test
             @DisplayName("Should return 204 if email is sent successfully")
             void success_shouldReturn204() {
@@ -183,6 +210,25 @@ public class ChargesApiResourceTest {
                 }
             }
 
+            @Test
+            @DisplayName("Should return 503 with Retry-After if too many emails are being sent for the service")
+            void rateLimited_shouldReturn503() {
+                when(gatewayAccountService.getGatewayAccountByServiceIdAndAccountType(A_SERVICE_ID, A_GATEWAY_ACCOUNT_TYPE)).thenReturn(Optional.of(mockGatewayAccountEntity));
+                when(chargeService.findCharge(eq(A_CHARGE_ID), any())).thenReturn(Optional.of(mockCharge));
+                when(userNotificationService.sendPaymentConfirmedEmailSynchronously(mockCharge, mockGatewayAccountEntity, true))
+                        .thenThrow(new TooManyEmailsRuntimeException("PAYMENT_CONFIRMED", A_CHARGE_ID, 1));
+
+                try (Response response = chargesApiResource
+                        .target(format("/v1/api/service/%s/account/%s/charges/%s/resend-confirmation-email", A_SERVICE_ID, A_GATEWAY_ACCOUNT_TYPE, A_CHARGE_ID))
+                        .request()
+                        .post(Entity.json(Collections.emptyMap()))) {
+
+                    assertGenericErrorResponse(response, 503,
+                            format("Too many emails being sent for the service, PAYMENT_CONFIRMED email for %s not sent, retry later", A_CHARGE_ID));
+                    assertThat(response.getHeaderString("Retry-After"), is("1"));
+                }
+            }
+
             @Test
             @DisplayName("Should return 204 if email is sent successfully")
             void success_shouldReturn204() {
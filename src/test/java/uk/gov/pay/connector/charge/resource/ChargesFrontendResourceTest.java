@@ -4,24 +4,38 @@ import io.dropwizard.testing.junit5.DropwizardExtensionsSupport;
 import io.dropwizard.testing.junit5.ResourceExtension;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import uk.gov.pay.connector.agreement.service.AgreementService;
 import uk.gov.pay.connector.cardtype.dao.CardTypeDao;
 import uk.gov.pay.connector.charge.dao.ChargeDao;
 import uk.gov.pay.connector.charge.service.ChargeService;
+import uk.gov.pay.connector.charge.service.ChargeStatusLongPoller;
 import uk.gov.pay.connector.charge.service.Worldpay3dsFlexJwtService;
 import uk.gov.pay.connector.common.model.api.ExternalTransactionStateFactory;
 import uk.gov.pay.connector.rules.ResourceTestRuleWithCustomExceptionMappersBuilder;
 
 import jakarta.ws.rs.client.Entity;
+import jakarta.ws.rs.container.AsyncResponse;
 import jakarta.ws.rs.core.Response;
+import java.time.Duration;
 import java.util.Collections;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 import static org.hamcrest.CoreMatchers.hasItem;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.core.Is.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static uk.gov.pay.connector.charge.model.domain.ChargeStatus.AUTHORISATION_3DS_READY;
+import static uk.gov.pay.connector.charge.model.domain.ChargeStatus.AUTHORISATION_READY;
+import static uk.gov.pay.connector.charge.model.domain.ChargeStatus.AUTHORISATION_SUCCESS;
 
 @ExtendWith(DropwizardExtensionsSupport.class)
 class ChargesFrontendResourceTest {
@@ -31,11 +45,17 @@ class ChargesFrontendResourceTest {
     private static final Worldpay3dsFlexJwtService WORLDPAY_3DS_FLEX_JWT_SERVICE = mock(Worldpay3dsFlexJwtService.class);
     private static final AgreementService AGREEMENT_SERVICE = mock(AgreementService.class);
     private static final ExternalTransactionStateFactory EXTERNAL_TRANSACTION_STATE_FACTORY = mock(ExternalTransactionStateFactory.class);
+    private static final ChargeStatusLongPoller CHARGE_STATUS_LONG_POLLER = mock(ChargeStatusLongPoller.class);
+
+    // The in-memory test container cannot suspend requests, so the status long poll is tested by calling the
+    // resource directly here and over HTTP in ChargeStatusNotificationIT
+    private static final ChargesFrontendResource RESOURCE = new ChargesFrontendResource(CHARGE_DAO, CHARGE_SERVICE,
+            CARD_TYPE_DAO, WORLDPAY_3DS_FLEX_JWT_SERVICE, AGREEMENT_SERVICE, EXTERNAL_TRANSACTION_STATE_FACTORY,
+            CHARGE_STATUS_LONG_POLLER);
 
     private static final ResourceExtension resources = ResourceTestRuleWithCustomExceptionMappersBuilder
             .getBuilder()
-            .addResource(new ChargesFrontendResource(CHARGE_DAO, CHARGE_SERVICE, CARD_TYPE_DAO,
-                    WORLDPAY_3DS_FLEX_JWT_SERVICE, AGREEMENT_SERVICE, EXTERNAL_TRANSACTION_STATE_FACTORY))
+            .addResource(RESOURCE)
             .build();
 
     @Test
@@ -81,4 +101,32 @@ class ChargesFrontendResourceTest {
         assertThat(listOfErrors.size(), is(1));
         assertThat(listOfErrors, hasItem("invalid new status"));
     }
+
+    @Test
+    void shouldResumeWithStatusOnceChargeIsNoLongerBeingAuthorised() {
+        when(CHARGE_STATUS_LONG_POLLER.awaitStatusChange(eq("a_charge_id"),
+                eq(EnumSet.of(AUTHORISATION_READY, AUTHORISATION_3DS_READY)), eq(Duration.ofMillis(5000))))
+                .thenReturn(CompletableFuture.completedFuture(Optional.of(AUTHORISATION_SUCCESS)));
+        AsyncResponse asyncResponse = mock(AsyncResponse.class);
+
+        RESOURCE.awaitAuthorisationOutcome("a_charge_id", 5000L, asyncResponse);
+
+        ArgumentCaptor<Response> response = ArgumentCaptor.forClass(Response.class);
+        verify(asyncResponse).resume(response.capture());
+        assertThat(response.getValue().getStatus(), is(200));
+        assertThat(response.getValue().getEntity(), is(Map.of("status", "AUTHORISATION SUCCESS")));
+    }
+
+    @Test
+    void shouldResumeWith404_whenWaitingForStatusOfChargeThatDoesNotExist() {
+        when(CHARGE_STATUS_LONG_POLLER.awaitStatusChange(eq("unknown_charge_id"), any(), any()))
+                .thenReturn(CompletableFuture.completedFuture(Optional.empty()));
+        AsyncResponse asyncResponse = mock(AsyncResponse.class);
+
+        RESOURCE.awaitAuthorisationOutcome("unknown_charge_id", null, asyncResponse);
+
+        ArgumentCaptor<Response> response = ArgumentCaptor.forClass(Response.class);
+        verify(asyncResponse).resume(response.capture());
+        assertThat(response.getValue().getStatus(), is(404));
+    }
 }
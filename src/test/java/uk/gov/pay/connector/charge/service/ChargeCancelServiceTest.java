@@ -9,8 +9,10 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.internal.hamcrest.HamcrestArgumentMatcher;
 import org.mockito.junit.jupiter.MockitoExtension;
+import uk.gov.pay.connector.app.config.CardOperationLimiterConfig;
 import uk.gov.pay.connector.charge.dao.ChargeDao;
 import uk.gov.pay.connector.charge.model.domain.ChargeEntity;
 import uk.gov.pay.connector.charge.model.domain.ChargeStatus;
@@ -20,6 +22,7 @@ import uk.gov.pay.connector.gateway.PaymentProviders;
 import uk.gov.pay.connector.gateway.model.request.CancelGatewayRequest;
 import uk.gov.pay.connector.gateway.model.response.GatewayResponse;
 import uk.gov.pay.connector.gateway.worldpay.WorldpayCancelResponse;
+import uk.gov.pay.connector.paymentprocessor.service.CardOperationLimiter;
 import uk.gov.pay.connector.paymentprocessor.service.QueryService;
 
 import java.util.Optional;
@@ -58,6 +61,9 @@ class ChargeCancelServiceTest {
     @Mock
     private QueryService mockQueryService;
 
+    @Spy
+    private CardOperationLimiter cardOperationLimiter = new CardOperationLimiter(new CardOperationLimiterConfig());
+
     @InjectMocks
     private ChargeCancelService chargeCancelService;
 
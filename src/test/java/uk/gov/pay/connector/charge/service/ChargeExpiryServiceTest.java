@@ -1,5 +1,6 @@
 package uk.gov.pay.connector.charge.service;
 
+import com.google.inject.persist.UnitOfWork;
 import io.github.netmikey.logunit.api.LogCapturer;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -37,9 +38,11 @@ import java.time.Duration;
 import java.time.Instant;
 import java.time.InstantSource;
 import java.time.ZoneId;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static java.util.Collections.singletonList;
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -48,6 +51,7 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static uk.gov.pay.connector.charge.model.domain.ChargeStatus.AUTHORISATION_3DS_READY;
@@ -103,6 +107,11 @@ class ChargeExpiryServiceTest {
     @Mock
     private ConnectorConfiguration mockedConfig;
 
+    @Mock
+    private UnitOfWork mockUnitOfWork;
+
+    private static final int PAGE_SIZE = 2;
+
     private static final List<ChargeStatus> EXPIRABLE_REGULAR_STATUSES = List.of(
             CREATED,
             ENTERING_CARD_DETAILS,
@@ -124,7 +133,9 @@ class ChargeExpiryServiceTest {
     @BeforeEach
     void setup() {
         when(mockedConfig.getChargeSweepConfig()).thenReturn(mockedChargeSweepConfig);
-        chargeExpiryService = new ChargeExpiryService(mockChargeDao, mockChargeService, mockTokenDao, mockIdempotencyDao, mockPaymentProviders, mockQueryService, mockedConfig, fixedInstantSource);
+        when(mockedChargeSweepConfig.getChargeExpiryPageSize()).thenReturn(PAGE_SIZE);
+        when(mockedChargeSweepConfig.getMaxConcurrentGatewayOperationsPerProvider()).thenReturn(2);
+        chargeExpiryService = new ChargeExpiryService(mockChargeDao, mockChargeService, mockTokenDao, mockIdempotencyDao, mockPaymentProviders, mockQueryService, mockedConfig, fixedInstantSource, mockUnitOfWork);
         GatewayResponseBuilder<BaseCancelResponse> gatewayResponseBuilder = responseBuilder();
         gatewayResponse = gatewayResponseBuilder.withResponse(mockWorldpayCancelResponse).build();
         gatewayAccount = ChargeEntityFixture.defaultGatewayAccountEntity();
@@ -150,6 +161,7 @@ class ChargeExpiryServiceTest {
                 .withStatus(status)
                 .withGatewayAccountEntity(gatewayAccount)
                 .build();
+        when(mockChargeDao.findByIds(List.of(chargeEntity.getId()))).thenReturn(List.of(chargeEntity));
 
         Map<String, Integer> sweepResult = chargeExpiryService.expire(singletonList(chargeEntity));
 
@@ -157,7 +169,7 @@ class ChargeExpiryServiceTest {
         assertThat(sweepResult.get("expiry-failed"), is(0));
 
         verify(mockPaymentProvider, never()).cancel(any());
-        verify(mockChargeService).transitionChargeState(chargeEntity.getExternalId(), EXPIRED);
+        verify(mockChargeService).transitionChargeState(chargeEntity, EXPIRED);
     }
 
     @ParameterizedTest
@@ -175,6 +187,7 @@ class ChargeExpiryServiceTest {
                 .build();
 
         when(mockQueryService.canQueryChargeGatewayStatus(chargeEntity.getPaymentGatewayName())).thenReturn(false);
+        when(mockChargeDao.findByIds(List.of(chargeEntity.getId()))).thenReturn(List.of(chargeEntity));
 
         Map<String, Integer> sweepResult = chargeExpiryService.expire(singletonList(chargeEntity));
 
@@ -182,7 +195,7 @@ class ChargeExpiryServiceTest {
         assertThat(sweepResult.get("expiry-failed"), is(0));
 
         verify(mockPaymentProvider, never()).cancel(any());
-        verify(mockChargeService).transitionChargeState(chargeEntity.getExternalId(), EXPIRED);
+        verify(mockChargeService).transitionChargeState(chargeEntity, EXPIRED);
     }
 
     @ParameterizedTest
@@ -285,6 +298,7 @@ class ChargeExpiryServiceTest {
                 .build();
 
         when(mockQueryService.canQueryChargeGatewayStatus(chargeEntity.getPaymentGatewayName())).thenReturn(true);
+        when(mockChargeDao.findByExternalId(chargeEntity.getExternalId())).thenReturn(Optional.of(chargeEntity));
         when(mockQueryService.getMappedGatewayStatus(chargeEntity)).thenReturn(Optional.of(CAPTURED));
 
         ChargeEntity updatedCharge = mock(ChargeEntity.class);
@@ -310,6 +324,7 @@ class ChargeExpiryServiceTest {
                 .build();
 
         when(mockQueryService.canQueryChargeGatewayStatus(chargeEntity.getPaymentGatewayName())).thenReturn(true);
+        when(mockChargeDao.findByExternalId(chargeEntity.getExternalId())).thenReturn(Optional.of(chargeEntity));
         when(mockQueryService.getMappedGatewayStatus(chargeEntity)).thenReturn(Optional.of(AUTHORISATION_REJECTED));
 
         ChargeEntity updatedCharge = mock(ChargeEntity.class);
@@ -373,9 +388,9 @@ class ChargeExpiryServiceTest {
         when(mockPaymentProvider.cancel(any())).thenReturn(gatewayResponse);
         when(mockPaymentProviders.byName(PaymentGatewayName.WORLDPAY)).thenReturn(mockPaymentProvider);
         when(mockChargeDao.findBeforeDateWithStatusIn(any(Instant.class),
-                eq(EXPIRABLE_AWAITING_CAPTURE_REQUEST_STATUS))).thenReturn(singletonList(chargeEntityAwaitingCapture));
+                eq(EXPIRABLE_AWAITING_CAPTURE_REQUEST_STATUS), eq(0L), eq(PAGE_SIZE))).thenReturn(singletonList(chargeEntityAwaitingCapture));
         when(mockChargeDao.findChargesByCreatedUpdatedDatesAndWithStatusIn(any(Instant.class), any(Instant.class),
-                eq(EXPIRABLE_REGULAR_STATUSES))).thenReturn(singletonList(chargeEntityAuthorisationSuccess));
+                eq(EXPIRABLE_REGULAR_STATUSES), eq(0L), eq(PAGE_SIZE))).thenReturn(singletonList(chargeEntityAuthorisationSuccess));
         when(mockedChargeSweepConfig.getTokenExpiryThresholdInSeconds()).thenReturn(TOKEN_EXPIRY_WINDOW);
         when(mockedChargeSweepConfig.getDefaultChargeExpiryThreshold()).thenReturn(CHARGE_EXPIRY_WINDOW);
         when(mockedChargeSweepConfig.getIdempotencyKeyExpiryThresholdInSeconds()).thenReturn(IDEMPOTENCY_EXPIRY_WINDOW);
@@ -390,11 +405,13 @@ class ChargeExpiryServiceTest {
 
         chargeExpiryService.sweepAndExpireChargesAndTokensAndIdempotencyKeys();
 
-        assertThat(logs.size(), is(5));
+        assertThat(logs.size(), is(7));
         logs.assertContains("Tokens deleted - number_of_tokens=1, since_date=2022-06-02T00:00:00Z");
         logs.assertContains("Idempotency keys deleted - number_of_idempotency_keys=1, since_date=2022-06-08T00:00:00Z");
+        logs.assertContains("Charge expiry sweep progress - pages=2, charges_processed=2, expiry_success=2, expiry_failed=0");
+        logs.assertContains("Charges expired - number_of_charges=2, expiry_success=2, expiry_failed=0, pages=2");
         logs.assertContains(
-                "Charges found for expiry - number_of_charges=2, since_date=2022-06-08T22:30:00Z, updated_before=2022-06-08T23:58:00Z, awaiting_capture_date=2022-06-04T00:00:00Z");
+                "since_date=2022-06-08T22:30:00Z, updated_before=2022-06-08T23:58:00Z, awaiting_capture_date=2022-06-04T00:00:00Z");
         verify(mockChargeService).transitionChargeState(chargeEntityAwaitingCapture.getExternalId(), EXPIRED);
         verify(mockChargeService).transitionChargeState(chargeEntityAuthorisationSuccess.getExternalId(), EXPIRED);
         verify(mockIdempotencyDao).deleteIdempotencyKeysOlderThanSpecifiedDateTime(Instant.parse("2022-06-08T00:00:00Z"));
@@ -410,18 +427,104 @@ class ChargeExpiryServiceTest {
                 .withGatewayAccountEntity(gatewayAccount)
                 .build();
 
-        ChargeEntity expiredCharge = mock(ChargeEntity.class);
-
         when(mockChargeDao.findChargesByCreatedUpdatedDatesAndWithStatusIn(any(Instant.class), any(Instant.class),
-                eq(EXPIRABLE_REGULAR_STATUSES))).thenReturn(singletonList(preAuthorisationCharge));
-
-        when(mockChargeService.transitionChargeState(any(String.class), any())).thenReturn(expiredCharge);
+                eq(EXPIRABLE_REGULAR_STATUSES), eq(0L), eq(PAGE_SIZE))).thenReturn(singletonList(preAuthorisationCharge));
+        when(mockChargeDao.findByIds(List.of(preAuthorisationCharge.getId()))).thenReturn(List.of(preAuthorisationCharge));
 
         Map<String, Integer> sweepResult = chargeExpiryService.sweepAndExpireChargesAndTokensAndIdempotencyKeys();
 
-        verify(mockChargeService).transitionChargeState(preAuthorisationCharge.getExternalId(), EXPIRED);
+        verify(mockChargeService).transitionChargeState(preAuthorisationCharge, EXPIRED);
         assertThat(sweepResult.get("expiry-success"), is(1));
         assertThat(sweepResult.get("expiry-failed"), is(0));
+        assertThat(sweepResult.get("charges-processed"), is(1));
+        assertThat(sweepResult.get("pages-processed"), is(1));
+    }
+
+    @Test
+    void shouldPageThroughExpirableChargesByIdAndLoadEachPageWithOneQuery() {
+        ChargeEntity first = aCreatedChargeWithId(10L);
+        ChargeEntity second = aCreatedChargeWithId(20L);
+        ChargeEntity third = aCreatedChargeWithId(30L);
+
+        when(mockChargeDao.findChargesByCreatedUpdatedDatesAndWithStatusIn(any(Instant.class), any(Instant.class),
+                eq(EXPIRABLE_REGULAR_STATUSES), eq(0L), eq(PAGE_SIZE))).thenReturn(List.of(first, second));
+        when(mockChargeDao.findChargesByCreatedUpdatedDatesAndWithStatusIn(any(Instant.class), any(Instant.class),
+                eq(EXPIRABLE_REGULAR_STATUSES), eq(20L), eq(PAGE_SIZE))).thenReturn(List.of(third));
+        when(mockChargeDao.findByIds(List.of(10L, 20L))).thenReturn(List.of(first, second));
+        when(mockChargeDao.findByIds(List.of(30L))).thenThrow(new InvalidStateTransitionException("EXPIRED", "EXPIRED", null));
+
+        Map<String, Integer> sweepResult = chargeExpiryService.sweepAndExpireChargesAndTokensAndIdempotencyKeys();
+
+        verify(mockChargeService).transitionChargeState(first, EXPIRED);
+        verify(mockChargeService).transitionChargeState(second, EXPIRED);
+        verify(mockChargeDao, never()).findChargesByCreatedUpdatedDatesAndWithStatusIn(any(Instant.class), any(Instant.class),
+                eq(EXPIRABLE_REGULAR_STATUSES), eq(30L), eq(PAGE_SIZE));
+        assertThat(sweepResult.get("expiry-success"), is(2));
+        assertThat(sweepResult.get("expiry-failed"), is(1));
+        assertThat(sweepResult.get("charges-processed"), is(3));
+        assertThat(sweepResult.get("pages-processed"), is(2));
+    }
+
+    @Test
+    void shouldCarryOnExpiringRestOfPageReloadedAfterChargeFailsToExpire() {
+        ChargeEntity first = aCreatedChargeWithId(10L);
+        ChargeEntity second = aCreatedChargeWithId(20L);
+        ChargeEntity third = aCreatedChargeWithId(30L);
+        ChargeEntity reloadedSecond = aCreatedChargeWithId(20L);
+        ChargeEntity reloadedThird = aCreatedChargeWithId(30L);
+
+        when(mockChargeDao.findByIds(List.of(10L, 20L, 30L))).thenReturn(List.of(first, second, third));
+        when(mockChargeService.transitionChargeState(first, EXPIRED)).thenThrow(new RuntimeException("database error"));
+        when(mockChargeDao.findByIds(List.of(20L, 30L))).thenReturn(List.of(reloadedSecond, reloadedThird));
+
+        Map<String, Integer> sweepResult = chargeExpiryService.expire(List.of(first, second, third));
+
+        verify(mockChargeService).transitionChargeState(reloadedSecond, EXPIRED);
+        verify(mockChargeService).transitionChargeState(reloadedThird, EXPIRED);
+        assertThat(sweepResult.get("expiry-success"), is(2));
+        assertThat(sweepResult.get("expiry-failed"), is(1));
+    }
+
+    @Test
+    void shouldLimitConcurrentGatewayCancelsPerProvider() throws Exception {
+        List<ChargeEntity> charges = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            ChargeEntity charge = ChargeEntityFixture.aValidChargeEntity()
+                    .withStatus(AUTHORISATION_SUCCESS)
+                    .withPaymentProvider("worldpay")
+                    .withGatewayAccountEntity(gatewayAccount)
+                    .build();
+            when(mockChargeDao.findByExternalId(charge.getExternalId())).thenReturn(Optional.of(charge));
+            charges.add(charge);
+        }
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        when(mockWorldpayCancelResponse.cancelStatus()).thenReturn(CancelStatus.CANCELLED);
+        when(mockPaymentProviders.byName(PaymentGatewayName.WORLDPAY)).thenReturn(mockPaymentProvider);
+        when(mockPaymentProvider.cancel(any())).thenAnswer(invocation -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            Thread.sleep(50);
+            inFlight.decrementAndGet();
+            return gatewayResponse;
+        });
+        ChargeEntity expiredCharge = mockExpiredChargeEntity();
+        when(mockChargeService.transitionChargeState(any(String.class), any())).thenReturn(expiredCharge);
+        when(mockChargeService.transitionChargeState(any(ChargeEntity.class), any())).thenReturn(expiredCharge);
+
+        Map<String, Integer> result = chargeExpiryService.expire(charges);
+
+        assertThat(result.get("expiry-success"), is(6));
+        assertThat(maxInFlight.get(), is(2));
+        verify(mockUnitOfWork, times(6)).begin();
+        verify(mockUnitOfWork, times(6)).end();
+    }
+
+    private ChargeEntity aCreatedChargeWithId(long id) {
+        return ChargeEntityFixture.aValidChargeEntity()
+                .withId(id)
+                .withStatus(CREATED)
+                .withGatewayAccountEntity(gatewayAccount)
+                .build();
     }
 
     @Test
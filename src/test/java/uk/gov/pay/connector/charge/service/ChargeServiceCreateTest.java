@@ -106,6 +106,7 @@ import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
@@ -281,7 +282,7 @@ class ChargeServiceCreateTest {
                 mockStateTransitionService, ledgerService, mockedRefundService, mockEventService, mockPaymentInstrumentService,
                 mockGatewayAccountCredentialsService, mockAuthCardDetailsToCardDetailsEntityConverter,
                 mockTaskQueueService, mockWorldpay3dsFlexJwtService, mockIdempotencyDao, mockExternalTransactionStateFactory,
-                mapper, mockCardidService, fixedInstantSource);
+                mapper, mockCardidService, fixedInstantSource, mock(ChargeStatusNotifier.class));
     }
 
     @Test
@@ -961,7 +962,7 @@ class ChargeServiceCreateTest {
                     mockStateTransitionService, ledgerService, mockedRefundService, mockEventService, mockPaymentInstrumentService,
                     mockGatewayAccountCredentialsService, mockAuthCardDetailsToCardDetailsEntityConverter,
                     mockTaskQueueService, null, mockIdempotencyDao, mockExternalTransactionStateFactory,
-                    mapper, mockCardidService, fixedInstantSource);
+                    mapper, mockCardidService, fixedInstantSource, mock(ChargeStatusNotifier.class));
         }
 
         private void setupMocksToCreateACharge() {
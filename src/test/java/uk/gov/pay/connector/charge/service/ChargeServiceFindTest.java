@@ -73,6 +73,7 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
@@ -213,7 +214,7 @@ class ChargeServiceFindTest {
                 mockStateTransitionService, ledgerService, mockedRefundService, mockEventService, mockPaymentInstrumentService,
                 mockGatewayAccountCredentialsService, mockAuthCardDetailsToCardDetailsEntityConverter, mockTaskQueueService,
                 mockWorldpay3dsFlexJwtService, mockIdempotencyDao, mockExternalTransactionStateFactory, objectMapper,
-                null, fixedInstantSource);
+                null, fixedInstantSource, mock(ChargeStatusNotifier.class));
     }
     @Test
     void shouldNotFindCharge() {
@@ -488,7 +489,7 @@ class ChargeServiceFindTest {
         transaction.setLive(true);
         when(mockedChargeDao.findByExternalIdAndGatewayAccount(chargeEntity.getExternalId(), GATEWAY_ACCOUNT_ID)).thenReturn(Optional.empty());
 
-        when(ledgerService.getTransactionForGatewayAccount(chargeEntity.getExternalId(), GATEWAY_ACCOUNT_ID)).thenReturn(Optional.of(transaction));
+        when(ledgerService.getHistoricTransactionForGatewayAccount(chargeEntity.getExternalId(), GATEWAY_ACCOUNT_ID)).thenReturn(Optional.of(transaction));
 
         Optional<Charge> charge = chargeService.findCharge(chargeEntity.getExternalId(), GATEWAY_ACCOUNT_ID);
 
@@ -533,7 +534,7 @@ class ChargeServiceFindTest {
                 chargeEntity.getExternalId()
         )).thenReturn(Optional.empty());
 
-        when(ledgerService.getTransactionForProviderAndGatewayTransactionId("sandbox",
+        when(ledgerService.getHistoricTransactionForProviderAndGatewayTransactionId("sandbox",
                 chargeEntity.getExternalId())).thenReturn(Optional.of(transaction));
 
         Optional<Charge> charge = chargeService.findByProviderAndTransactionIdFromDbOrLedger("sandbox",
@@ -553,7 +554,7 @@ class ChargeServiceFindTest {
                 "sandbox", chargeEntity.getExternalId()
         )).thenReturn(Optional.empty());
 
-        when(ledgerService.getTransactionForProviderAndGatewayTransactionId("sandbox",
+        when(ledgerService.getHistoricTransactionForProviderAndGatewayTransactionId("sandbox",
                 chargeEntity.getExternalId())).thenReturn(Optional.empty());
 
         Optional<Charge> charge = chargeService.findByProviderAndTransactionIdFromDbOrLedger("sandbox",
@@ -3,6 +3,7 @@ package uk.gov.pay.connector.charge.service;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.github.netmikey.logunit.api.LogCapturer;
+import jakarta.persistence.PersistenceException;
 import jakarta.ws.rs.core.UriInfo;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -50,11 +51,13 @@ import java.util.Optional;
 import static jakarta.ws.rs.core.UriBuilder.fromUri;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.core.Is.is;
+import static org.hamcrest.Matchers.sameInstance;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 import static uk.gov.pay.connector.charge.model.ChargeCreateRequestBuilder.aChargeCreateRequest;
 import static uk.gov.pay.connector.charge.model.domain.ChargeEntityFixture.aValidChargeEntity;
@@ -161,7 +164,7 @@ class ChargeServiceIdempotencyTest {
                 mockStateTransitionService, ledgerService, mockedRefundService, mockEventService, mockPaymentInstrumentService,
                 mockGatewayAccountCredentialsService, mockAuthCardDetailsToCardDetailsEntityConverter,
                 mockTaskQueueService, mockWorldpay3dsFlexJwtService, mockIdempotencyDao, mockExternalTransactionStateFactory,
-                mapper, null, fixedInstantSource);
+                mapper, null, fixedInstantSource, mock(ChargeStatusNotifier.class));
     }
 
     @Test
@@ -248,4 +251,39 @@ class ChargeServiceIdempotencyTest {
                 "Idempotency-Key [an-idempotency-key] was already used to create a charge with a " +
                         "different request body. Existing payment external id: existing-id");
     }
+
+    @Test
+    void shouldThrowIdempotencyKeyUsedException_whenCreatingChargeFailsBecauseKeyWasUsedConcurrently() {
+        String idempotencyKey = "an-idempotency-key";
+        ChargeCreateRequest chargeCreateRequest = aChargeCreateRequest()
+                .withAgreementId(AGREEMENT_ID)
+                .withAuthorisationMode(AuthorisationMode.AGREEMENT)
+                .build();
+        IdempotencyEntity idempotencyEntity = new IdempotencyEntity(idempotencyKey, gatewayAccount,
+                "concurrently-created-id", Map.of(), Instant.now());
+
+        when(mockedGatewayAccountDao.findById(GATEWAY_ACCOUNT_ID)).thenThrow(new PersistenceException("duplicate key value"));
+        when(mockIdempotencyDao.findByGatewayAccountIdAndKey(GATEWAY_ACCOUNT_ID, idempotencyKey)).thenReturn(Optional.of(idempotencyEntity));
+
+        assertThrows(IdempotencyKeyUsedException.class,
+                () -> chargeService.create(chargeCreateRequest, GATEWAY_ACCOUNT_ID, mockedUriInfo, idempotencyKey));
+        logs.assertContains("Race condition between two requests to create a charge with the same Idempotency Key handled");
+    }
+
+    @Test
+    void shouldRethrowPersistenceException_whenCreatingChargeFailsAndKeyWasNotUsed() {
+        String idempotencyKey = "an-idempotency-key";
+        ChargeCreateRequest chargeCreateRequest = aChargeCreateRequest()
+                .withAgreementId(AGREEMENT_ID)
+                .withAuthorisationMode(AuthorisationMode.AGREEMENT)
+                .build();
+        PersistenceException persistenceException = new PersistenceException("connection reset");
+
+        when(mockedGatewayAccountDao.findById(GATEWAY_ACCOUNT_ID)).thenThrow(persistenceException);
+        when(mockIdempotencyDao.findByGatewayAccountIdAndKey(GATEWAY_ACCOUNT_ID, idempotencyKey)).thenReturn(Optional.empty());
+
+        PersistenceException thrown = assertThrows(PersistenceException.class,
+                () -> chargeService.create(chargeCreateRequest, GATEWAY_ACCOUNT_ID, mockedUriInfo, idempotencyKey));
+        assertThat(thrown, is(sameInstance(persistenceException)));
+    }
 }
@@ -245,7 +245,7 @@ class ChargeServiceTest {
                 mockStateTransitionService, ledgerService, mockedRefundService, mockEventService, mockPaymentInstrumentService,
                 mockGatewayAccountCredentialsService, mockAuthCardDetailsToCardDetailsEntityConverter,
                 mockTaskQueueService, mockWorldpay3dsFlexJwtService, mockIdempotencyDao, mockExternalTransactionStateFactory,
-                objectMapper, null, fixedInstantSource);
+                objectMapper, null, fixedInstantSource, mock(ChargeStatusNotifier.class));
     }
 
     @Test
@@ -0,0 +1,110 @@
+package uk.gov.pay.connector.charge.service;
+
+import com.google.inject.persist.UnitOfWork;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import uk.gov.pay.connector.charge.dao.ChargeDao;
+import uk.gov.pay.connector.charge.model.domain.ChargeStatus;
+
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static uk.gov.pay.connector.charge.model.domain.ChargeStatus.AUTHORISATION_3DS_READY;
+import static uk.gov.pay.connector.charge.model.domain.ChargeStatus.AUTHORISATION_READY;
+import static uk.gov.pay.connector.charge.model.domain.ChargeStatus.AUTHORISATION_SUCCESS;
+
+@ExtendWith(MockitoExtension.class)
+class ChargeStatusLongPollerTest {
+
+    private static final String EXTERNAL_ID = "a-charge-external-id";
+    private static final Set<ChargeStatus> AUTHORISATION_IN_PROGRESS = EnumSet.of(AUTHORISATION_READY, AUTHORISATION_3DS_READY);
+
+    @Mock
+    private ChargeDao chargeDao;
+    @Mock
+    private UnitOfWork unitOfWork;
+
+    private final ChargeStatusWaiters chargeStatusWaiters = new ChargeStatusWaiters();
+    private ChargeStatusLongPoller longPoller;
+
+    @BeforeEach
+    void setUp() {
+        longPoller = new ChargeStatusLongPoller(chargeStatusWaiters, chargeDao, unitOfWork,
+                Executors.newScheduledThreadPool(1), Duration.ofSeconds(10));
+    }
+
+    @AfterEach
+    void tearDown() {
+        longPoller.stop();
+    }
+
+    @Test
+    void shouldCompleteStraightAwayWhenChargeIsNotBeingAuthorised() {
+        when(chargeDao.findStatusByExternalId(EXTERNAL_ID)).thenReturn(Optional.of(AUTHORISATION_SUCCESS));
+
+        CompletableFuture<Optional<ChargeStatus>> result = longPoller.awaitStatusChange(EXTERNAL_ID, AUTHORISATION_IN_PROGRESS, Duration.ofSeconds(5));
+
+        assertThat(result.getNow(null), is(Optional.of(AUTHORISATION_SUCCESS)));
+        verifyNoInteractions(unitOfWork);
+    }
+
+    @Test
+    void shouldCompleteWithNoStatusWhenChargeDoesNotExist() {
+        when(chargeDao.findStatusByExternalId(EXTERNAL_ID)).thenReturn(Optional.empty());
+
+        CompletableFuture<Optional<ChargeStatus>> result = longPoller.awaitStatusChange(EXTERNAL_ID, AUTHORISATION_IN_PROGRESS, Duration.ofSeconds(5));
+
+        assertThat(result.getNow(null), is(Optional.empty()));
+    }
+
+    @Test
+    void shouldCompleteWithCommittedStatusWhenAuthorisationFinishes() throws Exception {
+        when(chargeDao.findStatusByExternalId(EXTERNAL_ID))
+                .thenReturn(Optional.of(AUTHORISATION_READY))
+                .thenReturn(Optional.of(AUTHORISATION_SUCCESS));
+
+        CompletableFuture<Optional<ChargeStatus>> result = longPoller.awaitStatusChange(EXTERNAL_ID, AUTHORISATION_IN_PROGRESS, Duration.ofSeconds(5));
+        assertThat(result.isDone(), is(false));
+
+        chargeStatusWaiters.statusChanged(EXTERNAL_ID, AUTHORISATION_SUCCESS);
+
+        assertThat(result.get(1, TimeUnit.SECONDS), is(Optional.of(AUTHORISATION_SUCCESS)));
+        verify(unitOfWork).begin();
+        verify(unitOfWork).end();
+    }
+
+    @Test
+    void shouldCompleteWithCurrentStatusWhenMaxWaitPasses() throws Exception {
+        when(chargeDao.findStatusByExternalId(EXTERNAL_ID)).thenReturn(Optional.of(AUTHORISATION_READY));
+
+        CompletableFuture<Optional<ChargeStatus>> result = longPoller.awaitStatusChange(EXTERNAL_ID, AUTHORISATION_IN_PROGRESS, Duration.ofMillis(100));
+
+        assertThat(result.get(1, TimeUnit.SECONDS), is(Optional.of(AUTHORISATION_READY)));
+    }
+
+    @Test
+    void shouldNotWaitLongerThanConfiguredMaximum() throws Exception {
+        longPoller.stop();
+        longPoller = new ChargeStatusLongPoller(chargeStatusWaiters, chargeDao, unitOfWork,
+                Executors.newScheduledThreadPool(1), Duration.ofMillis(100));
+        when(chargeDao.findStatusByExternalId(EXTERNAL_ID)).thenReturn(Optional.of(AUTHORISATION_READY));
+
+        CompletableFuture<Optional<ChargeStatus>> result = longPoller.awaitStatusChange(EXTERNAL_ID, AUTHORISATION_IN_PROGRESS, Duration.ofMinutes(5));
+
+        assertThat(result.get(1, TimeUnit.SECONDS), is(Optional.of(AUTHORISATION_READY)));
+    }
+}
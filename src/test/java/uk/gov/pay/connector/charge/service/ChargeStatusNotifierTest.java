@@ -0,0 +1,89 @@
+package uk.gov.pay.connector.charge.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import uk.gov.pay.connector.charge.dao.ChargeDao;
+import uk.gov.pay.connector.util.PostgresNotificationListener;
+
+import java.util.function.Consumer;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static uk.gov.pay.connector.charge.model.domain.ChargeStatus.AUTHORISATION_3DS_READY;
+import static uk.gov.pay.connector.charge.model.domain.ChargeStatus.AUTHORISATION_3DS_REQUIRED;
+import static uk.gov.pay.connector.charge.model.domain.ChargeStatus.AUTHORISATION_READY;
+import static uk.gov.pay.connector.charge.model.domain.ChargeStatus.AUTHORISATION_SUCCESS;
+import static uk.gov.pay.connector.charge.model.domain.ChargeStatus.CAPTURE_READY;
+
+@ExtendWith(MockitoExtension.class)
+class ChargeStatusNotifierTest {
+
+    @Mock
+    private ChargeDao chargeDao;
+    @Mock
+    private ChargeStatusWaiters chargeStatusWaiters;
+    @Mock
+    private PostgresNotificationListener postgresNotificationListener;
+
+    @Test
+    void shouldSendPostgresNotificationWhenListeningIsEnabled() {
+        when(postgresNotificationListener.isEnabled()).thenReturn(true);
+        ChargeStatusNotifier notifier = new ChargeStatusNotifier(chargeDao, chargeStatusWaiters, postgresNotificationListener);
+
+        notifier.notifyStatusChange("a-charge-external-id", AUTHORISATION_3DS_REQUIRED, AUTHORISATION_3DS_READY);
+
+        verify(chargeDao).sendNotification("charge_status_changed", "a-charge-external-id:AUTHORISATION_3DS_READY");
+        verifyNoInteractions(chargeStatusWaiters);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldWakeWaitersWhenPostgresNotificationIsReceived() {
+        when(postgresNotificationListener.isEnabled()).thenReturn(true);
+        new ChargeStatusNotifier(chargeDao, chargeStatusWaiters, postgresNotificationListener);
+        ArgumentCaptor<Consumer<String>> onNotification = ArgumentCaptor.forClass(Consumer.class);
+        verify(postgresNotificationListener).subscribe(eq("charge_status_changed"), onNotification.capture(), any());
+
+        onNotification.getValue().accept("a-charge-external-id:AUTHORISATION_3DS_READY");
+
+        verify(chargeStatusWaiters).statusChanged("a-charge-external-id", AUTHORISATION_3DS_READY);
+    }
+
+    @Test
+    void shouldWakeWaitersOnThisNodeWhenListeningIsDisabled() {
+        ChargeStatusNotifier notifier = new ChargeStatusNotifier(chargeDao, chargeStatusWaiters, postgresNotificationListener);
+
+        notifier.notifyStatusChange("a-charge-external-id", AUTHORISATION_3DS_REQUIRED, AUTHORISATION_3DS_READY);
+
+        verify(chargeStatusWaiters).statusChanged("a-charge-external-id", AUTHORISATION_3DS_READY);
+        verify(postgresNotificationListener, never()).subscribe(any(), any(), any());
+        verifyNoInteractions(chargeDao);
+    }
+
+    @Test
+    void shouldSendPostgresNotificationWhenChargeLeavesAuthorisationInProgressStatus() {
+        when(postgresNotificationListener.isEnabled()).thenReturn(true);
+        ChargeStatusNotifier notifier = new ChargeStatusNotifier(chargeDao, chargeStatusWaiters, postgresNotificationListener);
+
+        notifier.notifyStatusChange("a-charge-external-id", AUTHORISATION_READY, AUTHORISATION_SUCCESS);
+
+        verify(chargeDao).sendNotification("charge_status_changed", "a-charge-external-id:AUTHORISATION_SUCCESS");
+    }
+
+    @Test
+    void shouldNotTellAnyoneAboutChangesThatAreNotWaitedFor() {
+        when(postgresNotificationListener.isEnabled()).thenReturn(true);
+        ChargeStatusNotifier notifier = new ChargeStatusNotifier(chargeDao, chargeStatusWaiters, postgresNotificationListener);
+
+        notifier.notifyStatusChange("a-charge-external-id", AUTHORISATION_SUCCESS, CAPTURE_READY);
+
+        verifyNoInteractions(chargeDao, chargeStatusWaiters);
+    }
+}
@@ -0,0 +1,137 @@
+package uk.gov.pay.connector.charge.service;
+
+import org.junit.jupiter.api.Test;
+import uk.gov.pay.connector.charge.model.domain.ChargeStatus;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static uk.gov.pay.connector.charge.model.domain.ChargeStatus.AUTHORISATION_3DS_READY;
+import static uk.gov.pay.connector.charge.model.domain.ChargeStatus.AUTHORISATION_3DS_REQUIRED;
+import static uk.gov.pay.connector.charge.model.domain.ChargeStatus.AUTHORISATION_SUCCESS;
+
+class ChargeStatusWaitersTest {
+
+    private static final String EXTERNAL_ID = "a-charge-external-id";
+    private static final Duration LONG_TIMEOUT = Duration.ofSeconds(10);
+
+    private final ChargeStatusWaiters chargeStatusWaiters = new ChargeStatusWaiters();
+    private final AtomicReference<ChargeStatus> committedStatus = new AtomicReference<>(AUTHORISATION_3DS_REQUIRED);
+    private final AtomicInteger statusReads = new AtomicInteger();
+
+    @Test
+    void shouldReturnStraightAwayWhenChargeIsAlreadyInTargetStatus() {
+        committedStatus.set(AUTHORISATION_3DS_READY);
+
+        assertThat(chargeStatusWaiters.awaitStatus(EXTERNAL_ID, AUTHORISATION_3DS_READY, LONG_TIMEOUT, this::readStatus), is(true));
+        assertThat(statusReads.get(), is(1));
+    }
+
+    @Test
+    void shouldReturnFalseWhenChargeDoesNotReachTargetStatusBeforeTimeout() {
+        assertThat(chargeStatusWaiters.awaitStatus(EXTERNAL_ID, AUTHORISATION_3DS_READY, Duration.ofMillis(100), this::readStatus), is(false));
+        assertThat(statusReads.get(), is(2));
+    }
+
+    @Test
+    void shouldWakeWaiterWhenChargeReachesTargetStatus() throws Exception {
+        CompletableFuture<Boolean> result = CompletableFuture.supplyAsync(() ->
+                chargeStatusWaiters.awaitStatus(EXTERNAL_ID, AUTHORISATION_3DS_READY, LONG_TIMEOUT, this::readStatus));
+        waitForFirstStatusRead();
+
+        long startNanos = System.nanoTime();
+        committedStatus.set(AUTHORISATION_3DS_READY);
+        chargeStatusWaiters.statusChanged(EXTERNAL_ID, AUTHORISATION_3DS_READY);
+
+        assertThat(result.get(5, TimeUnit.SECONDS), is(true));
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos), lessThan(1000L));
+    }
+
+    @Test
+    void shouldNotWakeWaiterForOtherStatusOrOtherCharge() throws Exception {
+        CompletableFuture<Boolean> result = CompletableFuture.supplyAsync(() ->
+                chargeStatusWaiters.awaitStatus(EXTERNAL_ID, AUTHORISATION_3DS_READY, Duration.ofMillis(300), this::readStatus));
+        waitForFirstStatusRead();
+
+        chargeStatusWaiters.statusChanged(EXTERNAL_ID, AUTHORISATION_SUCCESS);
+        chargeStatusWaiters.statusChanged("another-charge-external-id", AUTHORISATION_3DS_READY);
+
+        assertThat(result.get(5, TimeUnit.SECONDS), is(false));
+        assertThat(statusReads.get(), is(2));
+    }
+
+    @Test
+    void shouldKeepCheckingUntilStatusChangeIsCommitted() throws Exception {
+        CompletableFuture<Boolean> result = CompletableFuture.supplyAsync(() ->
+                chargeStatusWaiters.awaitStatus(EXTERNAL_ID, AUTHORISATION_3DS_READY, LONG_TIMEOUT, this::readStatus));
+        waitForFirstStatusRead();
+
+        chargeStatusWaiters.statusChanged(EXTERNAL_ID, AUTHORISATION_3DS_READY);
+        Thread.sleep(ChargeStatusWaiters.COMMIT_RECHECK_INTERVAL.toMillis() * 3);
+        assertThat(result.isDone(), is(false));
+        committedStatus.set(AUTHORISATION_3DS_READY);
+
+        assertThat(result.get(5, TimeUnit.SECONDS), is(true));
+    }
+
+    @Test
+    void shouldWakeEveryRegisteredWaiterWhileOtherWaitersForTheSameChargeAreCancelled() throws Exception {
+        int threads = 8;
+        int registrationsPerThread = 20_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger missedWakeUps = new AtomicInteger();
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int j = 0; j < registrationsPerThread; j++) {
+                        AtomicBoolean woken = new AtomicBoolean();
+                        ChargeStatusWaiters.Registration registration =
+                                chargeStatusWaiters.register(EXTERNAL_ID, status -> true, () -> woken.set(true));
+                        chargeStatusWaiters.statusChanged(EXTERNAL_ID, AUTHORISATION_3DS_READY);
+                        if (!woken.get()) {
+                            missedWakeUps.incrementAndGet();
+                        }
+                        registration.cancel();
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(missedWakeUps.get(), is(0));
+    }
+
+    private Optional<ChargeStatus> readStatus() {
+        statusReads.incrementAndGet();
+        return Optional.of(committedStatus.get());
+    }
+
+    private void waitForFirstStatusRead() throws InterruptedException {
+        while (statusReads.get() == 0) {
+            Thread.sleep(5);
+        }
+    }
+}
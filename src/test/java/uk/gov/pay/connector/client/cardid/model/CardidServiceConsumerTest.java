@@ -17,6 +17,7 @@ import uk.gov.pay.connector.app.ConnectorConfiguration;
 import uk.gov.pay.connector.app.RestClientFactory;
 import uk.gov.pay.connector.app.config.RestClientConfig;
 import uk.gov.pay.connector.client.cardid.service.CardidService;
+import uk.gov.pay.connector.client.cardid.service.LocalBinLookup;
 import uk.gov.pay.connector.gateway.model.PayersCardPrepaidStatus;
 
 import java.util.Map;
@@ -38,13 +39,16 @@ public class CardidServiceConsumerTest {
     @Mock
     private ConnectorConfiguration configuration;
 
+    @Mock
+    private LocalBinLookup localBinLookup;
+
     private CardidService cardidService;
 
     @Before
     public void setUp() {
         when(configuration.getCardidBaseUrl()).thenReturn(mockProvider.getUrl());
         Client client = RestClientFactory.buildClient(new RestClientConfig(), null);
-        cardidService = new CardidService(client, configuration);
+        cardidService = new CardidService(client, configuration, localBinLookup);
     }
 
     @Pact(consumer = "connector")
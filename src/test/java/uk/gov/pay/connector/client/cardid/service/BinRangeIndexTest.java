@@ -0,0 +1,103 @@
+package uk.gov.pay.connector.client.cardid.service;
+
+import org.junit.jupiter.api.Test;
+import uk.gov.pay.connector.client.cardid.model.CardInformation;
+import uk.gov.pay.connector.client.cardid.model.CardidCardType;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static uk.gov.pay.connector.gateway.model.PayersCardPrepaidStatus.NOT_PREPAID;
+import static uk.gov.pay.connector.gateway.model.PayersCardPrepaidStatus.PREPAID;
+
+class BinRangeIndexTest {
+
+    private static final String SNAPSHOT = """
+            min,max,brand,label,type,prepaid,corporate
+            # Mastercard
+            510000,519999,master-card,Mastercard,C,NOT_PREPAID,true
+            400000,424199,visa,Visa,D,NOT_PREPAID,false
+            42420000000,42429999999,visa,Visa,CD,PREPAID,false
+            424300,499999,visa,Visa,D,NOT_PREPAID,false
+            """;
+
+    @Test
+    void shouldFindCardInformationForCardNumberInRange() throws IOException {
+        BinRangeIndex index = parse(SNAPSHOT);
+
+        assertThat(index.find("5105105105105100"), is(Optional.of(
+                new CardInformation("master-card", CardidCardType.CREDIT, "Mastercard", true, NOT_PREPAID))));
+        assertThat(index.find("4242424242424242"), is(Optional.of(
+                new CardInformation("visa", CardidCardType.CREDIT_OR_DEBIT, "Visa", false, PREPAID))));
+        assertThat(index.find("4000000000000002").map(CardInformation::type), is(Optional.of(CardidCardType.DEBIT)));
+        assertThat(index.find("4999999999999999").map(CardInformation::type), is(Optional.of(CardidCardType.DEBIT)));
+        assertThat(index.size(), is(4));
+    }
+
+    @Test
+    void shouldNotFindCardNumberOutsideAllRanges() throws IOException {
+        BinRangeIndex index = parse(SNAPSHOT);
+
+        assertThat(index.find("3782822463100050"), is(Optional.empty()));
+        assertThat(index.find("5200828282828210"), is(Optional.empty()));
+        assertThat(index.find("6011111111111117"), is(Optional.empty()));
+    }
+
+    @Test
+    void shouldNotFindCardNumberThatIsTooShortOrNotNumeric() throws IOException {
+        BinRangeIndex index = parse(SNAPSHOT);
+
+        assertThat(index.find("510510"), is(Optional.empty()));
+        assertThat(index.find("5105 1051 0510 5100"), is(Optional.empty()));
+    }
+
+    @Test
+    void shouldSkipInvalidRanges() throws IOException {
+        BinRangeIndex index = parse("""
+                400000,499999,visa,Visa,D,NOT_PREPAID,false
+                500000,not-a-bin,master-card,Mastercard,C,NOT_PREPAID,false
+                510000,519999,master-card,Mastercard,X,NOT_PREPAID,false
+                520000,510000,master-card,Mastercard,C,NOT_PREPAID,false
+                """);
+
+        assertThat(index.size(), is(1));
+        assertThat(index.find("4242424242424242").map(CardInformation::type), is(Optional.of(CardidCardType.DEBIT)));
+    }
+
+    @Test
+    void shouldNotFindCardNumberInRangeNestedInsideAnotherRange() throws IOException {
+        BinRangeIndex index = parse("""
+                400000,499999,visa,Visa,D,NOT_PREPAID,false
+                424242,424242,visa,Visa,C,PREPAID,false
+                """);
+
+        assertThat(index.find("4242424242424242"), is(Optional.empty()));
+        assertThat(index.find("4000000000000002").map(CardInformation::type), is(Optional.of(CardidCardType.DEBIT)));
+        assertThat(index.find("4242410000000000").map(CardInformation::type), is(Optional.of(CardidCardType.DEBIT)));
+        assertThat(index.find("4242430000000000").map(CardInformation::type), is(Optional.of(CardidCardType.DEBIT)));
+        assertThat(index.find("4999999999999999").map(CardInformation::type), is(Optional.of(CardidCardType.DEBIT)));
+        assertThat(index.size(), is(2));
+    }
+
+    @Test
+    void shouldOnlyFindCardNumbersInPartOfOverlappingRangesCoveredByOneRange() throws IOException {
+        BinRangeIndex index = parse("""
+                515000,529999,visa,Visa,D,NOT_PREPAID,false
+                510000,519999,master-card,Mastercard,C,NOT_PREPAID,false
+                """);
+
+        assertThat(index.find("5105105105105100").map(CardInformation::brand), is(Optional.of("master-card")));
+        assertThat(index.find("5169999999999999"), is(Optional.empty()));
+        assertThat(index.find("5200828282828210").map(CardInformation::brand), is(Optional.of("visa")));
+        assertThat(index.size(), is(2));
+    }
+
+    private static BinRangeIndex parse(String snapshot) throws IOException {
+        return BinRangeIndex.parse(new BufferedReader(new StringReader(snapshot)), Instant.parse("2026-10-01T00:00:00Z"));
+    }
+}
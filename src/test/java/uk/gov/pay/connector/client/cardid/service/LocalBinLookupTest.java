@@ -0,0 +1,69 @@
+package uk.gov.pay.connector.client.cardid.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import uk.gov.pay.connector.app.config.CardidBinRangeConfig;
+import uk.gov.pay.connector.client.cardid.model.CardInformation;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.time.InstantSource;
+import java.util.Optional;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+class LocalBinLookupTest {
+
+    private static final String VISA_CARD_NUMBER = "4242424242424242";
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void shouldFindNothingWhenThereIsNoSnapshot() {
+        LocalBinLookup lookup = new LocalBinLookup(new CardidBinRangeConfig(null, 60), InstantSource.system());
+
+        lookup.start();
+
+        assertThat(lookup.find(VISA_CARD_NUMBER), is(Optional.empty()));
+        lookup.stop();
+    }
+
+    @Test
+    void shouldSwapInSnapshotWhenItIsModified() throws IOException {
+        Path snapshot = tempDir.resolve("bin-ranges.csv");
+        writeSnapshot(snapshot, "400000,499999,visa,Visa,D,NOT_PREPAID,false", Instant.parse("2026-10-01T00:00:00Z"));
+        LocalBinLookup lookup = new LocalBinLookup(new CardidBinRangeConfig(snapshot.toString(), 3600), InstantSource.system());
+        lookup.start();
+        assertThat(lookup.find(VISA_CARD_NUMBER).map(CardInformation::isCorporate), is(Optional.of(false)));
+
+        writeSnapshot(snapshot, "400000,499999,visa,Visa,D,NOT_PREPAID,true", Instant.parse("2026-10-02T00:00:00Z"));
+        lookup.reloadIfModified(snapshot);
+
+        assertThat(lookup.find(VISA_CARD_NUMBER).map(CardInformation::isCorporate), is(Optional.of(true)));
+        lookup.stop();
+    }
+
+    @Test
+    void shouldKeepSnapshotInUseWhenNewOneCannotBeRead() throws IOException {
+        Path snapshot = tempDir.resolve("bin-ranges.csv");
+        writeSnapshot(snapshot, "400000,499999,visa,Visa,D,NOT_PREPAID,false", Instant.parse("2026-10-01T00:00:00Z"));
+        LocalBinLookup lookup = new LocalBinLookup(new CardidBinRangeConfig(snapshot.toString(), 3600), InstantSource.system());
+        lookup.start();
+
+        Files.delete(snapshot);
+        lookup.reloadIfModified(snapshot);
+
+        assertThat(lookup.find(VISA_CARD_NUMBER).isPresent(), is(true));
+        lookup.stop();
+    }
+
+    private static void writeSnapshot(Path snapshot, String ranges, Instant modifiedAt) throws IOException {
+        Files.writeString(snapshot, ranges);
+        Files.setLastModifiedTime(snapshot, FileTime.from(modifiedAt));
+    }
+}
@@ -18,6 +18,7 @@ import org.mockito.junit.MockitoJUnitRunner;
 import uk.gov.pay.connector.agreement.model.AgreementEntity;
 import uk.gov.pay.connector.app.ConnectorConfiguration;
 import uk.gov.pay.connector.app.RestClientFactory;
+import uk.gov.pay.connector.app.config.LedgerCacheConfig;
 import uk.gov.pay.connector.app.config.RestClientConfig;
 import uk.gov.pay.connector.client.ledger.model.LedgerTransaction;
 import uk.gov.pay.connector.client.ledger.model.RefundTransactionsForPayment;
@@ -57,7 +58,7 @@ public class LedgerServiceConsumerTest {
     public void setUp() {
         when(configuration.getLedgerBaseUrl()).thenReturn(mockLedger.getUrl());
         Client client = RestClientFactory.buildClient(new RestClientConfig(), null);
-        ledgerService = new LedgerService(client, client, configuration);
+        ledgerService = new LedgerService(client, client, configuration, new LedgerTransactionCache(new LedgerCacheConfig()));
     }
 
     @Pact(consumer = "connector")
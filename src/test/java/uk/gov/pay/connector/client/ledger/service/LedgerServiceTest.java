@@ -7,6 +7,7 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import uk.gov.pay.connector.agreement.model.AgreementEntity;
 import uk.gov.pay.connector.app.ConnectorConfiguration;
+import uk.gov.pay.connector.app.config.LedgerCacheConfig;
 import uk.gov.pay.connector.client.ledger.exception.GetRefundsForPaymentException;
 import uk.gov.pay.connector.client.ledger.exception.LedgerException;
 import uk.gov.pay.connector.client.ledger.model.LedgerTransaction;
@@ -70,7 +71,8 @@ public class LedgerServiceTest {
         when(mockClient.target(any(UriBuilder.class))).thenReturn(mockWebTarget);
         when(mockWebTarget.request()).thenReturn(mockClientRequestInvocationBuilder);
         
-        ledgerService = new LedgerService(mockClient, mockClient, mockConnectorConfiguration);
+        ledgerService = new LedgerService(mockClient, mockClient, mockConnectorConfiguration,
+                new LedgerTransactionCache(new LedgerCacheConfig()));
     }
 
     private void setupMocksForPostRequest() {
@@ -0,0 +1,168 @@
+package uk.gov.pay.connector.client.ledger.service;
+
+import org.junit.jupiter.api.Test;
+import uk.gov.pay.connector.app.config.LedgerCacheConfig;
+import uk.gov.pay.connector.client.ledger.model.LedgerTransaction;
+import uk.gov.pay.connector.client.ledger.model.RefundTransactionsForPayment;
+import uk.gov.pay.connector.events.eventdetails.refund.RefundEventWithGatewayTransactionIdDetails;
+import uk.gov.pay.connector.events.model.refund.RefundSucceeded;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static uk.gov.pay.connector.model.domain.LedgerTransactionFixture.aValidLedgerTransaction;
+
+class LedgerTransactionCacheTest {
+
+    private static final String PAYMENT_EXTERNAL_ID = "payment-external-id";
+    private static final long GATEWAY_ACCOUNT_ID = 42L;
+
+    private final LedgerTransactionCache cache = new LedgerTransactionCache(new LedgerCacheConfig(100, 300, 60));
+
+    @Test
+    void shouldOnlyRequestFinishedTransactionFromLedgerOnce() {
+        var ledgerRequest = new CountingLedgerRequest<>(Optional.of(aFinishedPayment()));
+
+        cache.getTransaction(PAYMENT_EXTERNAL_ID, ledgerRequest);
+        Optional<LedgerTransaction> transaction = cache.getTransaction(PAYMENT_EXTERNAL_ID, ledgerRequest);
+
+        assertThat(transaction.map(LedgerTransaction::getTransactionId), is(Optional.of(PAYMENT_EXTERNAL_ID)));
+        assertThat(ledgerRequest.count(), is(1));
+    }
+
+    @Test
+    void shouldNotCacheTransactionThatIsNotFinishedOrNotFound() {
+        var unfinishedRequest = new CountingLedgerRequest<>(Optional.of(aValidLedgerTransaction()
+                .withExternalId(PAYMENT_EXTERNAL_ID).withStatus("submitted").build()));
+        var notFoundRequest = new CountingLedgerRequest<Optional<LedgerTransaction>>(Optional.empty());
+
+        cache.getTransaction(PAYMENT_EXTERNAL_ID, unfinishedRequest);
+        cache.getTransaction(PAYMENT_EXTERNAL_ID, unfinishedRequest);
+        cache.getTransaction("not-in-ledger", notFoundRequest);
+        cache.getTransaction("not-in-ledger", notFoundRequest);
+
+        assertThat(unfinishedRequest.count(), is(2));
+        assertThat(notFoundRequest.count(), is(2));
+    }
+
+    @Test
+    void shouldOnlyFindCachedTransactionForItsOwnGatewayAccount() {
+        cache.getTransaction(PAYMENT_EXTERNAL_ID, () -> Optional.of(aFinishedPayment()));
+        var ledgerRequest = new CountingLedgerRequest<Optional<LedgerTransaction>>(Optional.empty());
+
+        Optional<LedgerTransaction> forOwnAccount = cache.getTransactionForGatewayAccount(PAYMENT_EXTERNAL_ID, GATEWAY_ACCOUNT_ID, ledgerRequest);
+        Optional<LedgerTransaction> forOtherAccount = cache.getTransactionForGatewayAccount(PAYMENT_EXTERNAL_ID, 999L, ledgerRequest);
+
+        assertThat(forOwnAccount.isPresent(), is(true));
+        assertThat(forOtherAccount.isPresent(), is(false));
+        assertThat(ledgerRequest.count(), is(1));
+    }
+
+    @Test
+    void shouldRequestPaymentAndItsRefundsFromLedgerAgainAfterRefundEventIsEmitted() {
+        var paymentRequest = new CountingLedgerRequest<>(Optional.of(aFinishedPayment()));
+        var refundsRequest = new CountingLedgerRequest<>(refundsForPayment(aValidLedgerTransaction()
+                .withExternalId("refund-external-id").withParentTransactionId(PAYMENT_EXTERNAL_ID).withStatus("success").build()));
+        cache.getTransaction(PAYMENT_EXTERNAL_ID, paymentRequest);
+        cache.getRefundsForPayment(GATEWAY_ACCOUNT_ID, PAYMENT_EXTERNAL_ID, refundsRequest);
+
+        cache.invalidate(new RefundSucceeded("service-id", true, GATEWAY_ACCOUNT_ID, "another-refund-external-id",
+                PAYMENT_EXTERNAL_ID, new RefundEventWithGatewayTransactionIdDetails("gateway-transaction-id"), Instant.now()));
+        cache.getTransaction(PAYMENT_EXTERNAL_ID, paymentRequest);
+        cache.getRefundsForPayment(GATEWAY_ACCOUNT_ID, PAYMENT_EXTERNAL_ID, refundsRequest);
+        // Ledger may not have processed the event yet, so what it returned is not cached
+        cache.getTransaction(PAYMENT_EXTERNAL_ID, paymentRequest);
+        cache.getRefundsForPayment(GATEWAY_ACCOUNT_ID, PAYMENT_EXTERNAL_ID, refundsRequest);
+
+        assertThat(paymentRequest.count(), is(3));
+        assertThat(refundsRequest.count(), is(3));
+    }
+
+    @Test
+    void shouldFindTransactionByGatewayTransactionIdFromCache() {
+        var ledgerRequest = new CountingLedgerRequest<>(Optional.of(aFinishedPayment()));
+
+        cache.getTransactionForProviderAndGatewayTransactionId("sandbox", "gateway-transaction-id", ledgerRequest);
+        Optional<LedgerTransaction> transaction = cache.getTransactionForProviderAndGatewayTransactionId("sandbox",
+                "gateway-transaction-id", ledgerRequest);
+
+        assertThat(transaction.map(LedgerTransaction::getTransactionId), is(Optional.of(PAYMENT_EXTERNAL_ID)));
+        assertThat(ledgerRequest.count(), is(1));
+    }
+
+    @Test
+    void shouldMakeOneLedgerRequestForConcurrentReadsOfSameTransaction() throws Exception {
+        CountDownLatch ledgerRequestStarted = new CountDownLatch(1);
+        CountDownLatch ledgerResponds = new CountDownLatch(1);
+        AtomicInteger ledgerRequests = new AtomicInteger();
+        Supplier<Optional<LedgerTransaction>> slowLedgerRequest = () -> {
+            ledgerRequests.incrementAndGet();
+            ledgerRequestStarted.countDown();
+            try {
+                ledgerResponds.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return Optional.of(aValidLedgerTransaction().withExternalId(PAYMENT_EXTERNAL_ID).withStatus("submitted").build());
+        };
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<Optional<LedgerTransaction>> first = executor.submit(() -> cache.getTransaction(PAYMENT_EXTERNAL_ID, slowLedgerRequest));
+            ledgerRequestStarted.await(5, TimeUnit.SECONDS);
+            Future<Optional<LedgerTransaction>> second = executor.submit(() -> cache.getTransaction(PAYMENT_EXTERNAL_ID, slowLedgerRequest));
+            Thread.sleep(100);
+            ledgerResponds.countDown();
+
+            assertThat(first.get(5, TimeUnit.SECONDS).isPresent(), is(true));
+            assertThat(second.get(5, TimeUnit.SECONDS).isPresent(), is(true));
+            assertThat(ledgerRequests.get(), is(1));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static LedgerTransaction aFinishedPayment() {
+        return aValidLedgerTransaction()
+                .withExternalId(PAYMENT_EXTERNAL_ID)
+                .withGatewayAccountId(GATEWAY_ACCOUNT_ID)
+                .withStatus("success")
+                .build();
+    }
+
+    private static RefundTransactionsForPayment refundsForPayment(LedgerTransaction... refunds) {
+        var refundTransactionsForPayment = new RefundTransactionsForPayment();
+        refundTransactionsForPayment.setParentTransactionId(PAYMENT_EXTERNAL_ID);
+        refundTransactionsForPayment.setTransactions(List.of(refunds));
+        return refundTransactionsForPayment;
+    }
+
+    private static class CountingLedgerRequest<T> implements Supplier<T> {
+        private final T response;
+        private int count;
+
+        private CountingLedgerRequest(T response) {
+            this.response = response;
+        }
+
+        @Override
+        public T get() {
+            count++;
+            return response;
+        }
+
+        int count() {
+            return count;
+        }
+    }
+}
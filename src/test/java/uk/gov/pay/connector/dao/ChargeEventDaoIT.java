@@ -25,6 +25,7 @@ import static java.util.Arrays.asList;
 import static java.util.stream.Collectors.toList;
 import static org.exparity.hamcrest.date.ZonedDateTimeMatchers.within;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.hasSize;
 import static uk.gov.pay.connector.charge.model.domain.ChargeStatus.AUTHORISATION_READY;
 import static uk.gov.pay.connector.charge.model.domain.ChargeStatus.AUTHORISATION_SUCCESS;
@@ -92,6 +93,23 @@ public class ChargeEventDaoIT {
         assertDateMatch(events.getFirst().getUpdated());
     }
 
+    @Test
+    void persistChargeEventOf_shouldReturnEventWithUpdatedDateSetByDatabase() {
+        Long chargeId = app.getDatabaseFixtures()
+                .aTestCharge()
+                .withTestAccount(defaultTestAccount)
+                .withChargeId(secureRandomLong())
+                .withExternalChargeId(RandomIdGenerator.newId())
+                .insert()
+                .getChargeId();
+        ChargeEntity entity = chargeDao.findById(chargeId).get();
+        entity.setStatus(ENTERING_CARD_DETAILS);
+
+        ChargeEventEntity chargeEvent = chargeEventDao.persistChargeEventOf(entity, null);
+
+        assertDateMatch(chargeEvent.getUpdated());
+    }
+
     @Test
     void shouldPersistEventForStatus_awaitingCaptureRequest() {
 
@@ -142,7 +160,7 @@ public class ChargeEventDaoIT {
         createTestChargeEvent(testCharge, ENTERING_CARD_DETAILS, eventDate.minusHours(10));
         createTestChargeEvent(testCharge, AUTHORISATION_SUCCESS, eventDate.plusMinutes(1));
 
-        List<ChargeEventEntity> events = chargeEventDao.findChargeEvents(eventDate, eventDate.plusMinutes(1), 1, 2);
+        List<ChargeEventEntity> events = chargeEventDao.findChargeEvents(eventDate, 0L, eventDate.plusMinutes(1), 2);
 
         assertThat(events, hasSize(2));
         assertThat(events, shouldIncludeStatus(AUTHORISATION_READY));
@@ -151,6 +169,25 @@ public class ChargeEventDaoIT {
         assertThat(events.get(1).getChargeEntity().getId(), Matchers.is(testCharge.getChargeId()));
     }
 
+    @Test
+    void findChargeEventsByDateRangeShouldContinueAfterCursorIncludingEventsWithTheSameTimestamp() {
+        ZonedDateTime eventDate = ZonedDateTime.parse("2016-01-01T00:00:00Z");
+
+        DatabaseFixtures.TestCharge testCharge = createTestCharge();
+
+        createTestChargeEvent(testCharge, AUTHORISATION_READY, eventDate);
+        createTestChargeEvent(testCharge, AUTHORISATION_SUCCESS, eventDate);
+        createTestChargeEvent(testCharge, CAPTURE_APPROVED, eventDate.plusMinutes(1));
+        createTestChargeEvent(testCharge, CAPTURE_READY, eventDate.plusMinutes(2));
+
+        List<ChargeEventEntity> firstPage = chargeEventDao.findChargeEvents(eventDate, 0L, eventDate.plusMinutes(1), 1);
+        ChargeEventEntity cursor = firstPage.getLast();
+        List<ChargeEventEntity> nextPage = chargeEventDao.findChargeEvents(cursor.getUpdated(), cursor.getId(), eventDate.plusMinutes(1), 10);
+
+        assertThat(firstPage.stream().map(ChargeEventEntity::getStatus).toList(), contains(AUTHORISATION_READY));
+        assertThat(nextPage.stream().map(ChargeEventEntity::getStatus).toList(), contains(AUTHORISATION_SUCCESS, CAPTURE_APPROVED));
+    }
+
     private DatabaseFixtures.TestCharge createTestCharge() {
         DatabaseFixtures.TestAccount testAccount = app.getDatabaseFixtures()
                 .aTestAccount().insert();
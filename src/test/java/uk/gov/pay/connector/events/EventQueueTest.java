@@ -3,15 +3,33 @@ package uk.gov.pay.connector.events;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import software.amazon.awssdk.core.exception.SdkClientException;
+import software.amazon.awssdk.services.sqs.SqsClient;
+import software.amazon.awssdk.services.sqs.model.BatchResultErrorEntry;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchRequest;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchResponse;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchResultEntry;
 import uk.gov.pay.connector.app.ConnectorConfiguration;
 import uk.gov.pay.connector.app.EventQueueConfig;
 import uk.gov.pay.connector.app.SqsConfig;
 import uk.gov.pay.connector.events.model.Event;
 import uk.gov.service.payments.commons.queue.sqs.SqsQueueService;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
@@ -26,6 +44,8 @@ class EventQueueTest {
     @Mock
     private SqsQueueService mockSqsQueueService;
     @Mock
+    private SqsClient mockSqsClient;
+    @Mock
     private ConnectorConfiguration mockConnectorConfiguration;
     @Mock
     private SqsConfig sqsConfig;
@@ -44,7 +64,7 @@ class EventQueueTest {
     @Test
     void emitEvent_serialisesTheEventAndSendsToSqs() throws Exception {
         when(eventQueueConfig.getEventQueueEnabled()).thenReturn(true);
-        eventQueue = new EventQueue(mockSqsQueueService,
+        eventQueue = new EventQueue(mockSqsQueueService, mockSqsClient,
                 mockConnectorConfiguration);
         when(event.toJsonString()).thenReturn("{~~SERIALIZED~~}");
 
@@ -56,11 +76,74 @@ class EventQueueTest {
     @Test
     void emitEvent_doesNotEmitIfFeatureFlagIsFalse() throws Exception {
         when(eventQueueConfig.getEventQueueEnabled()).thenReturn(false);
-        eventQueue = new EventQueue(mockSqsQueueService,
+        eventQueue = new EventQueue(mockSqsQueueService, mockSqsClient,
                 mockConnectorConfiguration);
         
         eventQueue.emitEvent(event);
 
         verifyNoMoreInteractions(mockSqsQueueService);
     }
+
+    @Test
+    void emitEvents_sendsEventsInBatchesOfTenAndReportsFailedEntries() throws Exception {
+        when(eventQueueConfig.getEventQueueEnabled()).thenReturn(true);
+        eventQueue = new EventQueue(mockSqsQueueService, mockSqsClient,
+                mockConnectorConfiguration);
+        List<Event> events = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            Event anEvent = mock(Event.class);
+            when(anEvent.toJsonString()).thenReturn("{\"event\":" + i + "}");
+            events.add(anEvent);
+        }
+        when(mockSqsClient.sendMessageBatch(any(SendMessageBatchRequest.class)))
+                .thenReturn(SendMessageBatchResponse.builder()
+                        .successful(IntStream.range(0, 9).mapToObj(i -> successfulEntry(String.valueOf(i))).toList())
+                        .failed(BatchResultErrorEntry.builder().id("9").code("InternalError").senderFault(false).build())
+                        .build())
+                .thenReturn(SendMessageBatchResponse.builder()
+                        .successful(successfulEntry("0"), successfulEntry("1"))
+                        .build());
+
+        EventQueue.BatchEmitResult result = eventQueue.emitEvents(events);
+
+        ArgumentCaptor<SendMessageBatchRequest> requestCaptor = ArgumentCaptor.forClass(SendMessageBatchRequest.class);
+        verify(mockSqsClient, times(2)).sendMessageBatch(requestCaptor.capture());
+        assertThat(requestCaptor.getAllValues().get(0).entries().size(), is(10));
+        assertThat(requestCaptor.getAllValues().get(0).queueUrl(), is(eventQueueUrl));
+        assertThat(requestCaptor.getAllValues().get(1).entries().get(1).messageBody(), is("{\"event\":11}"));
+        assertThat(result.emitted().size(), is(11));
+        assertThat(result.failed(), contains(events.get(9)));
+        verifyNoMoreInteractions(mockSqsQueueService);
+    }
+
+    @Test
+    void emitEvents_reportsWholeBatchAsFailedWhenSqsRequestFails() throws Exception {
+        when(eventQueueConfig.getEventQueueEnabled()).thenReturn(true);
+        eventQueue = new EventQueue(mockSqsQueueService, mockSqsClient,
+                mockConnectorConfiguration);
+        when(event.toJsonString()).thenReturn("{~~SERIALIZED~~}");
+        when(mockSqsClient.sendMessageBatch(any(SendMessageBatchRequest.class)))
+                .thenThrow(SdkClientException.create("Unable to execute HTTP request"));
+
+        EventQueue.BatchEmitResult result = eventQueue.emitEvents(List.of(event));
+
+        assertThat(result.emitted(), is(empty()));
+        assertThat(result.failed(), contains(event));
+    }
+
+    @Test
+    void emitEvents_doesNotEmitIfFeatureFlagIsFalse() {
+        when(eventQueueConfig.getEventQueueEnabled()).thenReturn(false);
+        eventQueue = new EventQueue(mockSqsQueueService, mockSqsClient,
+                mockConnectorConfiguration);
+
+        EventQueue.BatchEmitResult result = eventQueue.emitEvents(List.of(event));
+
+        assertThat(result.emitted(), contains(event));
+        verifyNoMoreInteractions(mockSqsClient);
+    }
+
+    private static SendMessageBatchResultEntry successfulEntry(String id) {
+        return SendMessageBatchResultEntry.builder().id(id).messageId("message-" + id).build();
+    }
 }
@@ -5,6 +5,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import uk.gov.pay.connector.client.ledger.service.LedgerTransactionCache;
 import uk.gov.pay.connector.events.dao.EmittedEventDao;
 import uk.gov.pay.connector.events.model.Event;
 import uk.gov.pay.connector.events.model.charge.PaymentCreated;
@@ -12,13 +13,17 @@ import uk.gov.pay.connector.events.model.charge.PaymentEvent;
 import uk.gov.service.payments.commons.queue.exception.QueueException;
 
 import java.time.ZonedDateTime;
+import java.util.List;
 
 import static java.time.Instant.now;
 import static java.time.ZoneOffset.UTC;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
 class EventServiceTest {
@@ -27,6 +32,8 @@ class EventServiceTest {
     EventQueue eventQueue;
     @Mock
     EmittedEventDao emittedEventDao;
+    @Mock
+    LedgerTransactionCache ledgerTransactionCache;
 
     @InjectMocks
     EventService eventService;
@@ -61,6 +68,19 @@ class EventServiceTest {
         verify(eventQueue).emitEvent(event);
     }
 
+    @Test
+    void emitAndMarkEventsAsEmitted_shouldMarkSentEventsAndReturnFailedOnes() {
+        Event sent = new PaymentEvent("service-id", true, 100L, "external-id-1", now());
+        Event failed = new PaymentEvent("service-id", true, 100L, "external-id-2", now());
+        when(eventQueue.emitEvents(List.of(sent, failed)))
+                .thenReturn(new EventQueue.BatchEmitResult(List.of(sent), List.of(failed)));
+
+        List<Event> result = eventService.emitAndMarkEventsAsEmitted(List.of(sent, failed));
+
+        assertThat(result, contains(failed));
+        verify(emittedEventDao).markEventsAsEmitted(List.of(sent));
+    }
+
     @Test
     void emitAndRecordEvent_shouldRecordEmission() throws QueueException {
         Event event = new PaymentEvent("service-id", true, 100L,"external-id", now());
@@ -100,4 +120,13 @@ class EventServiceTest {
         verify(eventQueue).emitEvent(event);
         verify(emittedEventDao).markEventAsEmitted(event);
     }
+
+    @Test
+    void emitEventShouldDropTransactionFromLedgerCache() throws QueueException {
+        Event event = new PaymentEvent("service-id", true, 100L, "external-id", now());
+        eventService.emitEvent(event);
+
+        verify(ledgerTransactionCache).invalidate(event);
+        verify(eventQueue).emitEvent(event);
+    }
 }
@@ -1,5 +1,6 @@
 package uk.gov.pay.connector.events;
 
+import com.google.inject.persist.UnitOfWork;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -10,6 +11,7 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import uk.gov.pay.connector.app.ConnectorConfiguration;
+import uk.gov.pay.connector.app.config.EventEmitterConfig;
 import uk.gov.pay.connector.charge.dao.ChargeDao;
 import uk.gov.pay.connector.charge.model.CardDetailsEntity;
 import uk.gov.pay.connector.charge.model.FirstDigitsCardNumber;
@@ -25,6 +27,7 @@ import uk.gov.pay.connector.charge.service.ChargeService;
 import uk.gov.pay.connector.chargeevent.dao.ChargeEventDao;
 import uk.gov.pay.connector.chargeevent.model.domain.ChargeEventEntity;
 import uk.gov.pay.connector.events.dao.EmittedEventDao;
+import uk.gov.pay.connector.events.dao.HistoricalEventEmitterCheckpointDao;
 import uk.gov.pay.connector.events.eventdetails.charge.Gateway3dsExemptionResultObtainedEventDetails;
 import uk.gov.pay.connector.events.eventdetails.charge.Requested3dsExemptionEventDetails;
 import uk.gov.pay.connector.events.model.Event;
@@ -60,19 +63,20 @@ import uk.gov.pay.connector.refund.model.domain.RefundStatus;
 import uk.gov.service.payments.commons.model.CardExpiryDate;
 import uk.gov.service.payments.commons.queue.exception.QueueException;
 
+import java.time.Instant;
+import java.time.InstantSource;
 import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.OptionalLong;
+import java.util.Set;
+import java.util.stream.LongStream;
 import java.util.stream.Stream;
 
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.junit.jupiter.api.Assertions.assertAll;
-import static org.mockito.AdditionalMatchers.and;
-import static org.mockito.AdditionalMatchers.geq;
-import static org.mockito.AdditionalMatchers.leq;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.atMostOnce;
 import static org.mockito.Mockito.mock;
@@ -90,6 +94,7 @@ import static uk.gov.pay.connector.paymentprocessor.model.Exemption3ds.EXEMPTION
 import static uk.gov.pay.connector.paymentprocessor.model.Exemption3ds.EXEMPTION_HONOURED;
 import static uk.gov.pay.connector.paymentprocessor.model.Exemption3ds.EXEMPTION_NOT_REQUESTED;
 import static uk.gov.pay.connector.paymentprocessor.model.Exemption3ds.EXEMPTION_OUT_OF_SCOPE;
+import static uk.gov.pay.connector.tasks.RecordType.CHARGE;
 import static uk.gov.service.payments.commons.model.AuthorisationMode.AGREEMENT;
 import static uk.gov.service.payments.commons.model.AuthorisationMode.MOTO_API;
 import static uk.gov.pay.connector.charge.model.domain.Exemption3dsType.OPTIMISED;
@@ -113,15 +118,30 @@ class HistoricalEventEmitterServiceTest {
     @Mock
     RefundDao refundDao;
 
+    @Mock
+    HistoricalEventEmitterCheckpointDao checkpointDao;
+    @Mock
+    UnitOfWork unitOfWork;
+    @Mock
+    ConnectorConfiguration connectorConfiguration;
+    @Mock
+    EventEmitterConfig eventEmitterConfig;
+
+    private static final long RANGE_SIZE = 10;
+    private static final int PAGE_SIZE = 5;
+
     HistoricalEventEmitterService historicalEventEmitterService;
     private ChargeEntity chargeEntity;
-    private ConnectorConfiguration connectorConfiguration;
 
     @BeforeEach
     void setUp() {
-        connectorConfiguration = new ConnectorConfiguration();
+        when(connectorConfiguration.getEventEmitterConfig()).thenReturn(eventEmitterConfig);
+        when(eventEmitterConfig.getHistoricalEventEmitterWorkerThreads()).thenReturn(2);
+        when(eventEmitterConfig.getHistoricalEventEmitterRangeSize()).thenReturn(RANGE_SIZE);
+        when(eventEmitterConfig.getHistoricalEventEmitterPageSize()).thenReturn(PAGE_SIZE);
         historicalEventEmitterService = new HistoricalEventEmitterService(chargeDao, refundDao, chargeEventDao, emittedEventDao,
-                stateTransitionService, eventService, chargeService, connectorConfiguration);
+                stateTransitionService, eventService, chargeService, connectorConfiguration, checkpointDao, unitOfWork,
+                InstantSource.system());
         CardDetailsEntity cardDetails = mock(CardDetailsEntity.class);
         chargeEntity = ChargeEntityFixture
                 .aValidChargeEntity()
@@ -138,9 +158,9 @@ class HistoricalEventEmitterServiceTest {
     @Test
     void executeEmitsEventAndRecordsEmission() {
         when(chargeDao.findMaxId()).thenReturn(1L);
-        when(chargeDao.findById(1L)).thenReturn(Optional.of(chargeEntity));
+        when(chargeDao.findByIdRangeWithEvents(0L, 1L, PAGE_SIZE)).thenReturn(List.of(chargeEntity));
 
-        historicalEventEmitterService.emitHistoricEventsById(1L, OptionalLong.empty(), 1L);
+        historicalEventEmitterService.emitHistoricEventsById(1L, OptionalLong.empty(), 1L, false);
 
         ArgumentCaptor<StateTransition> argument = ArgumentCaptor.forClass(StateTransition.class);
         verify(stateTransitionService, times(1)).offerStateTransition(argument.capture(),
@@ -154,33 +174,72 @@ class HistoricalEventEmitterServiceTest {
     @Test
     void executeShouldNotProcessIfNoEventsFound() {
         when(chargeDao.findMaxId()).thenReturn(1L);
-        when(chargeDao.findById(1L)).thenReturn(Optional.of(chargeEntity));
+        when(chargeDao.findByIdRangeWithEvents(0L, 1L, PAGE_SIZE)).thenReturn(List.of(chargeEntity));
 
         chargeEntity.getEvents().clear();
 
-        historicalEventEmitterService.emitHistoricEventsById(1L, OptionalLong.empty(), 1L);
+        historicalEventEmitterService.emitHistoricEventsById(1L, OptionalLong.empty(), 1L, false);
 
         verify(stateTransitionService, never()).offerStateTransition(any(), any(), any());
     }
 
     @Test
-    void iteratesThroughSpecifiedRange() {
-        when(chargeDao.findById((any()))).thenReturn(Optional.of(chargeEntity));
+    void splitsSpecifiedIdsIntoRangesAndCheckpointsEachRange() {
+        when(chargeDao.findByIdRangeWithEvents(anyLong(), anyLong(), eq(PAGE_SIZE))).thenReturn(List.of(chargeEntity));
 
-        historicalEventEmitterService.emitHistoricEventsById(1L, OptionalLong.of(100L), 1L);
+        historicalEventEmitterService.emitHistoricEventsById(1L, OptionalLong.of(25L), 1L, false);
 
-        verify(chargeDao, times(100)).findById(and(geq(1L), leq(100L)));
-        verify(stateTransitionService, times(100)).offerStateTransition(any(), any(), isNotNull());
+        verify(chargeDao).findByIdRangeWithEvents(0L, 10L, PAGE_SIZE);
+        verify(chargeDao).findByIdRangeWithEvents(10L, 20L, PAGE_SIZE);
+        verify(chargeDao).findByIdRangeWithEvents(20L, 25L, PAGE_SIZE);
+        verify(stateTransitionService, times(3)).offerStateTransition(any(), any(), isNotNull());
+        verify(checkpointDao).saveCheckpoint(eq(CHARGE), eq(1L), eq(10L), eq(10L), any(Instant.class));
+        verify(checkpointDao).saveCheckpoint(eq(CHARGE), eq(11L), eq(20L), eq(20L), any(Instant.class));
+        verify(checkpointDao).saveCheckpoint(eq(CHARGE), eq(21L), eq(25L), eq(25L), any(Instant.class));
+        verify(checkpointDao, never()).findLastProcessedId(any(), anyLong(), anyLong());
+    }
+
+    @Test
+    void pagesThroughARangeInOneUnitOfWorkPerPage() {
+        List<ChargeEntity> firstPage = LongStream.rangeClosed(1, PAGE_SIZE)
+                .mapToObj(id -> ChargeEntityFixture.aValidChargeEntity().withId(id).build())
+                .toList();
+        ChargeEntity lastCharge = ChargeEntityFixture.aValidChargeEntity().withId(8L).build();
+        when(chargeDao.findByIdRangeWithEvents(0L, 10L, PAGE_SIZE)).thenReturn(firstPage);
+        when(chargeDao.findByIdRangeWithEvents(5L, 10L, PAGE_SIZE)).thenReturn(List.of(lastCharge));
+
+        historicalEventEmitterService.emitHistoricEventsById(1L, OptionalLong.of(10L), 1L, false);
+
+        verify(checkpointDao).saveCheckpoint(eq(CHARGE), eq(1L), eq(10L), eq(5L), any(Instant.class));
+        verify(checkpointDao).saveCheckpoint(eq(CHARGE), eq(1L), eq(10L), eq(10L), any(Instant.class));
+        verify(unitOfWork, times(2)).begin();
+        verify(unitOfWork, times(2)).end();
+        verify(refundDao).findChargeExternalIdsWithRefunds(firstPage.stream().map(ChargeEntity::getExternalId).toList());
+        verify(refundDao, never()).searchAllHistoryByChargeExternalId(any());
+    }
+
+    @Test
+    void resumesEachRangeAfterItsLastCheckpointedId() {
+        when(checkpointDao.findLastProcessedId(CHARGE, 1L, 10L)).thenReturn(Optional.of(7L));
+        when(checkpointDao.findLastProcessedId(CHARGE, 11L, 20L)).thenReturn(Optional.of(20L));
+        when(chargeDao.findByIdRangeWithEvents(7L, 10L, PAGE_SIZE)).thenReturn(List.of(chargeEntity));
+
+        historicalEventEmitterService.emitHistoricEventsById(1L, OptionalLong.of(20L), 1L, true);
+
+        verify(chargeDao, never()).findByIdRangeWithEvents(anyLong(), eq(20L), anyInt());
+        verify(stateTransitionService).offerStateTransition(any(), any(), isNotNull());
+        verify(checkpointDao).saveCheckpoint(eq(CHARGE), eq(1L), eq(10L), eq(10L), any(Instant.class));
+        verify(checkpointDao, never()).saveCheckpoint(eq(CHARGE), eq(11L), eq(20L), anyLong(), any(Instant.class));
     }
 
     @Test
     void executeShouldNotEmitEventIfEmittedPreviously() {
-        when(chargeDao.findById((any()))).thenReturn(Optional.of(chargeEntity));
+        when(chargeDao.findByIdRangeWithEvents(0L, 1L, PAGE_SIZE)).thenReturn(List.of(chargeEntity));
         when(emittedEventDao.hasBeenEmittedBefore(any())).thenReturn(true);
 
-        historicalEventEmitterService.emitHistoricEventsById(1L, OptionalLong.of(1L), 1L);
+        historicalEventEmitterService.emitHistoricEventsById(1L, OptionalLong.of(1L), 1L, false);
 
-        verify(chargeDao, times(1)).findById(1L);
+        verify(chargeDao, times(1)).findByIdRangeWithEvents(0L, 1L, PAGE_SIZE);
         verify(stateTransitionService, never()).offerStateTransition(any(), any(), any());
     }
 
@@ -195,9 +254,9 @@ class HistoricalEventEmitterServiceTest {
         chargeEntity.getEvents().add(secondChargeEventEntity);
 
         when(chargeDao.findMaxId()).thenReturn(1L);
-        when(chargeDao.findById(1L)).thenReturn(Optional.of(chargeEntity));
+        when(chargeDao.findByIdRangeWithEvents(0L, 1L, PAGE_SIZE)).thenReturn(List.of(chargeEntity));
 
-        historicalEventEmitterService.emitHistoricEventsById(1L, OptionalLong.empty(), 1L);
+        historicalEventEmitterService.emitHistoricEventsById(1L, OptionalLong.empty(), 1L, false);
 
         ArgumentCaptor<StateTransition> argument = ArgumentCaptor.forClass(StateTransition.class);
         verify(stateTransitionService, times(1)).offerStateTransition(argument.capture(),
@@ -224,9 +283,9 @@ class HistoricalEventEmitterServiceTest {
         chargeEntity.getEvents().add(secondEvent);
 
         when(chargeDao.findMaxId()).thenReturn(1L);
-        when(chargeDao.findById(1L)).thenReturn(Optional.of(chargeEntity));
+        when(chargeDao.findByIdRangeWithEvents(0L, 1L, PAGE_SIZE)).thenReturn(List.of(chargeEntity));
 
-        historicalEventEmitterService.emitHistoricEventsById(1L, OptionalLong.empty(), 1L);
+        historicalEventEmitterService.emitHistoricEventsById(1L, OptionalLong.empty(), 1L, false);
 
         verify(eventService, times(1)).emitAndRecordEvent(any(PaymentDetailsEntered.class), isNotNull());
     }
@@ -247,9 +306,9 @@ class HistoricalEventEmitterServiceTest {
         chargeEntity.getEvents().add(authSuccessEvent);
 
         when(chargeDao.findMaxId()).thenReturn(1L);
-        when(chargeDao.findById(1L)).thenReturn(Optional.of(chargeEntity));
+        when(chargeDao.findByIdRangeWithEvents(0L, 1L, PAGE_SIZE)).thenReturn(List.of(chargeEntity));
 
-        historicalEventEmitterService.emitHistoricEventsById(1L, OptionalLong.empty(), 1L);
+        historicalEventEmitterService.emitHistoricEventsById(1L, OptionalLong.empty(), 1L, false);
 
         verify(eventService).emitAndRecordEvent(any(PaymentDetailsSubmittedByAPI.class), isNotNull());
     }
@@ -270,9 +329,9 @@ class HistoricalEventEmitterServiceTest {
         chargeEntity.getEvents().add(authSuccessEvent);
 
         when(chargeDao.findMaxId()).thenReturn(1L);
-        when(chargeDao.findById(1L)).thenReturn(Optional.of(chargeEntity));
+        when(chargeDao.findByIdRangeWithEvents(0L, 1L, PAGE_SIZE)).thenReturn(List.of(chargeEntity));
 
-        historicalEventEmitterService.emitHistoricEventsById(1L, OptionalLong.empty(), 1L);
+        historicalEventEmitterService.emitHistoricEventsById(1L, OptionalLong.empty(), 1L, false);
 
         verify(eventService).emitAndRecordEvent(any(PaymentDetailsTakenFromPaymentInstrument.class), isNotNull());
     }
@@ -288,9 +347,9 @@ class HistoricalEventEmitterServiceTest {
         chargeEntity.getEvents().add(firstEvent);
 
         when(chargeDao.findMaxId()).thenReturn(1L);
-        when(chargeDao.findById(1L)).thenReturn(Optional.of(chargeEntity));
+        when(chargeDao.findByIdRangeWithEvents(0L, 1L, PAGE_SIZE)).thenReturn(List.of(chargeEntity));
 
-        historicalEventEmitterService.emitHistoricEventsById(1L, OptionalLong.empty(), 1L);
+        historicalEventEmitterService.emitHistoricEventsById(1L, OptionalLong.empty(), 1L, false);
 
         verify(eventService, times(1)).emitAndRecordEvent(any(BackfillerRecreatedUserEmailCollected.class), isNotNull());
     }
@@ -310,9 +369,9 @@ class HistoricalEventEmitterServiceTest {
         chargeEntity.getEvents().add(firstEvent);
 
         when(chargeDao.findMaxId()).thenReturn(1L);
-        when(chargeDao.findById(1L)).thenReturn(Optional.of(chargeEntity));
+        when(chargeDao.findByIdRangeWithEvents(0L, 1L, PAGE_SIZE)).thenReturn(List.of(chargeEntity));
 
-        historicalEventEmitterService.emitHistoricEventsById(1L, OptionalLong.empty(), 1L);
+        historicalEventEmitterService.emitHistoricEventsById(1L, OptionalLong.empty(), 1L, false);
 
         verify(eventService).emitAndRecordEvent(any(BackfillerGatewayTransactionIdSet.class), isNotNull());
     }
@@ -331,9 +390,9 @@ class HistoricalEventEmitterServiceTest {
         chargeEntity.getEvents().add(firstEvent);
 
         when(chargeDao.findMaxId()).thenReturn(1L);
-        when(chargeDao.findById(1L)).thenReturn(Optional.of(chargeEntity));
+        when(chargeDao.findByIdRangeWithEvents(0L, 1L, PAGE_SIZE)).thenReturn(List.of(chargeEntity));
 
-        historicalEventEmitterService.emitHistoricEventsById(1L, OptionalLong.empty(), 1L);
+        historicalEventEmitterService.emitHistoricEventsById(1L, OptionalLong.empty(), 1L, false);
 
         verify(eventService, never()).emitAndRecordEvent(any(BackfillerGatewayTransactionIdSet.class), isNotNull());
     }
@@ -358,9 +417,9 @@ class HistoricalEventEmitterServiceTest {
         chargeEntity.getEvents().add(authorisedEvent);
 
         when(chargeDao.findMaxId()).thenReturn(1L);
-        when(chargeDao.findById(1L)).thenReturn(Optional.of(chargeEntity));
+        when(chargeDao.findByIdRangeWithEvents(0L, 1L, PAGE_SIZE)).thenReturn(List.of(chargeEntity));
 
-        historicalEventEmitterService.emitHistoricEventsById(1L, OptionalLong.empty(), 1L);
+        historicalEventEmitterService.emitHistoricEventsById(1L, OptionalLong.empty(), 1L, false);
 
         verify(eventService, never()).emitAndRecordEvent(any(BackfillerGatewayTransactionIdSet.class), isNotNull());
     }
@@ -385,9 +444,9 @@ class HistoricalEventEmitterServiceTest {
         chargeEntity.getEvents().add(paymentNotificationEvent);
 
         when(chargeDao.findMaxId()).thenReturn(1L);
-        when(chargeDao.findById(1L)).thenReturn(Optional.of(chargeEntity));
+        when(chargeDao.findByIdRangeWithEvents(0L, 1L, PAGE_SIZE)).thenReturn(List.of(chargeEntity));
 
-        historicalEventEmitterService.emitHistoricEventsById(1L, OptionalLong.empty(), 1L);
+        historicalEventEmitterService.emitHistoricEventsById(1L, OptionalLong.empty(), 1L, false);
 
         verify(eventService, never()).emitAndRecordEvent(any(BackfillerGatewayTransactionIdSet.class), isNotNull());
     }
@@ -410,9 +469,9 @@ class HistoricalEventEmitterServiceTest {
         chargeEntity.getEvents().add(secondEvent);
 
         when(chargeDao.findMaxId()).thenReturn(1L);
-        when(chargeDao.findById(1L)).thenReturn(Optional.of(chargeEntity));
+        when(chargeDao.findByIdRangeWithEvents(0L, 1L, PAGE_SIZE)).thenReturn(List.of(chargeEntity));
 
-        historicalEventEmitterService.emitHistoricEventsById(1L, OptionalLong.empty(), 1L);
+        historicalEventEmitterService.emitHistoricEventsById(1L, OptionalLong.empty(), 1L, false);
 
         verify(eventService, never()).emitAndRecordEvent(any(PaymentDetailsEntered.class), any());
     }
@@ -428,9 +487,9 @@ class HistoricalEventEmitterServiceTest {
         chargeEntity.getEvents().add(firstEvent);
 
         when(chargeDao.findMaxId()).thenReturn(1L);
-        when(chargeDao.findById(1L)).thenReturn(Optional.of(chargeEntity));
+        when(chargeDao.findByIdRangeWithEvents(0L, 1L, PAGE_SIZE)).thenReturn(List.of(chargeEntity));
 
-        historicalEventEmitterService.emitHistoricEventsById(1L, OptionalLong.empty(), 1L);
+        historicalEventEmitterService.emitHistoricEventsById(1L, OptionalLong.empty(), 1L, false);
 
         verifyNoInteractions(eventService);
     }
@@ -463,9 +522,9 @@ class HistoricalEventEmitterServiceTest {
         chargeEntity.getEvents().add(captureSubmittedEvent);
 
         when(chargeDao.findMaxId()).thenReturn(1L);
-        when(chargeDao.findById(1L)).thenReturn(Optional.of(chargeEntity));
+        when(chargeDao.findByIdRangeWithEvents(0L, 1L, PAGE_SIZE)).thenReturn(List.of(chargeEntity));
 
-        historicalEventEmitterService.emitHistoricEventsById(1L, OptionalLong.empty(), 1L);
+        historicalEventEmitterService.emitHistoricEventsById(1L, OptionalLong.empty(), 1L, false);
 
         ArgumentCaptor<StateTransition> argument = ArgumentCaptor.forClass(StateTransition.class);
         verify(stateTransitionService, times(2)).offerStateTransition(argument.capture(),
@@ -484,10 +543,10 @@ class HistoricalEventEmitterServiceTest {
                 .build();
 
         when(chargeDao.findMaxId()).thenReturn(1L);
-        when(chargeDao.findById(1L)).thenReturn(Optional.of(chargeEntity));
+        when(chargeDao.findByIdRangeWithEvents(0L, 1L, PAGE_SIZE)).thenReturn(List.of(chargeEntity));
         when(emittedEventDao.hasBeenEmittedBefore(any(FeeIncurredEvent.class))).thenReturn(false);
 
-        historicalEventEmitterService.emitHistoricEventsById(1L, OptionalLong.empty(), 1L);
+        historicalEventEmitterService.emitHistoricEventsById(1L, OptionalLong.empty(), 1L, false);
 
         verify(eventService, times(1)).emitAndRecordEvent(any(FeeIncurredEvent.class), isNotNull());
     }
@@ -500,9 +559,9 @@ class HistoricalEventEmitterServiceTest {
                 .build();
 
         when(chargeDao.findMaxId()).thenReturn(1L);
-        when(chargeDao.findById(1L)).thenReturn(Optional.of(chargeEntity));
+        when(chargeDao.findByIdRangeWithEvents(0L, 1L, PAGE_SIZE)).thenReturn(List.of(chargeEntity));
 
-        historicalEventEmitterService.emitHistoricEventsById(1L, OptionalLong.empty(), 1L);
+        historicalEventEmitterService.emitHistoricEventsById(1L, OptionalLong.empty(), 1L, false);
 
         verify(eventService, never()).emitAndRecordEvent(any(FeeIncurredEvent.class), isNotNull());
     }
@@ -516,10 +575,10 @@ class HistoricalEventEmitterServiceTest {
                 .build();
 
         when(chargeDao.findMaxId()).thenReturn(1L);
-        when(chargeDao.findById(1L)).thenReturn(Optional.of(chargeEntity));
+        when(chargeDao.findByIdRangeWithEvents(0L, 1L, PAGE_SIZE)).thenReturn(List.of(chargeEntity));
         when(emittedEventDao.hasBeenEmittedBefore(any(FeeIncurredEvent.class))).thenReturn(true);
 
-        historicalEventEmitterService.emitHistoricEventsById(1L, OptionalLong.empty(), 1L);
+        historicalEventEmitterService.emitHistoricEventsById(1L, OptionalLong.empty(), 1L, false);
 
         verify(eventService, never()).emitAndRecordEvent(any(FeeIncurredEvent.class), isNotNull());
     }
@@ -532,10 +591,10 @@ class HistoricalEventEmitterServiceTest {
                 .build();
 
         when(chargeDao.findMaxId()).thenReturn(1L);
-        when(chargeDao.findById(1L)).thenReturn(Optional.of(chargeEntity));
+        when(chargeDao.findByIdRangeWithEvents(0L, 1L, PAGE_SIZE)).thenReturn(List.of(chargeEntity));
         when(emittedEventDao.hasBeenEmittedBefore(any(FeeIncurredEvent.class))).thenReturn(false);
 
-        historicalEventEmitterService.emitHistoricEventsById(1L, OptionalLong.empty(), 1L);
+        historicalEventEmitterService.emitHistoricEventsById(1L, OptionalLong.empty(), 1L, false);
 
         verify(eventService, times(1)).emitAndRecordEvent(any(FeeIncurredEvent.class), isNotNull());
     }
@@ -560,9 +619,9 @@ class HistoricalEventEmitterServiceTest {
         chargeEntity.setEmail(null);
 
         when(chargeDao.findMaxId()).thenReturn(1L);
-        when(chargeDao.findById(1L)).thenReturn(Optional.of(chargeEntity));
+        when(chargeDao.findByIdRangeWithEvents(0L, 1L, PAGE_SIZE)).thenReturn(List.of(chargeEntity));
 
-        historicalEventEmitterService.emitHistoricEventsById(1L, OptionalLong.empty(), 1L);
+        historicalEventEmitterService.emitHistoricEventsById(1L, OptionalLong.empty(), 1L, false);
 
         ArgumentCaptor<StateTransition> argument = ArgumentCaptor.forClass(StateTransition.class);
         verify(stateTransitionService, times(1)).offerStateTransition(argument.capture(),
@@ -584,12 +643,13 @@ class HistoricalEventEmitterServiceTest {
                 .build();
 
         chargeEntity.getEvents().clear();
+        when(refundDao.findChargeExternalIdsWithRefunds(List.of(chargeEntity.getExternalId()))).thenReturn(Set.of(chargeEntity.getExternalId()));
         when(refundDao.searchAllHistoryByChargeExternalId(chargeEntity.getExternalId())).thenReturn(List.of(refundHistory));
         when(chargeDao.findMaxId()).thenReturn(1L);
-        when(chargeDao.findById(1L)).thenReturn(Optional.of(chargeEntity));
+        when(chargeDao.findByIdRangeWithEvents(0L, 1L, PAGE_SIZE)).thenReturn(List.of(chargeEntity));
         when(chargeService.findCharge(chargeEntity.getExternalId())).thenReturn(Optional.of(Charge.from(chargeEntity)));
 
-        historicalEventEmitterService.emitHistoricEventsById(1L, OptionalLong.empty(), 1L);
+        historicalEventEmitterService.emitHistoricEventsById(1L, OptionalLong.empty(), 1L, false);
 
         ArgumentCaptor<StateTransition> argument = ArgumentCaptor.forClass(StateTransition.class);
         verify(stateTransitionService).offerStateTransition(argument.capture(), any(RefundCreatedByService.class), isNotNull());
@@ -625,9 +685,9 @@ class HistoricalEventEmitterServiceTest {
         chargeEntity.getEvents().add(thirdEvent);
 
         when(chargeDao.findMaxId()).thenReturn(1L);
-        when(chargeDao.findById(1L)).thenReturn(Optional.of(chargeEntity));
+        when(chargeDao.findByIdRangeWithEvents(0L, 1L, PAGE_SIZE)).thenReturn(List.of(chargeEntity));
 
-        historicalEventEmitterService.emitHistoricEventsById(1L, OptionalLong.empty(), 1L);
+        historicalEventEmitterService.emitHistoricEventsById(1L, OptionalLong.empty(), 1L, false);
 
         ArgumentCaptor<StateTransition> argument = ArgumentCaptor.forClass(StateTransition.class);
         verify(stateTransitionService, times(2)).offerStateTransition(argument.capture(), any(), isNotNull());
@@ -654,7 +714,7 @@ class HistoricalEventEmitterServiceTest {
         chargeEntity.getEvents().add(secondEvent);
 
         when(chargeDao.findById(any())).thenReturn(Optional.of(chargeEntity));
-        when(chargeEventDao.findChargeEvents(eventDate, eventDate, 1, 100)).thenReturn(chargeEventEntities);
+        when(chargeEventDao.findChargeEvents(eventDate, 0L, eventDate, PAGE_SIZE)).thenReturn(chargeEventEntities);
 
         historicalEventEmitterService.emitHistoricEventsByDate(eventDate, eventDate, 1L);
 
@@ -674,7 +734,7 @@ class HistoricalEventEmitterServiceTest {
 
         chargeEntity.getEvents().clear();
         when(chargeService.findCharge(chargeEntity.getExternalId())).thenReturn(Optional.of(Charge.from(chargeEntity)));
-        when(refundDao.getRefundHistoryByDateRange(eventDate, eventDate, 1, 100)).thenReturn(List.of(refundHistory));
+        when(refundDao.getRefundHistoryByDateRange(eventDate, 0L, 0L, eventDate, PAGE_SIZE)).thenReturn(List.of(refundHistory));
         when(refundDao.searchAllHistoryByChargeExternalId(chargeEntity.getExternalId())).thenReturn(List.of(refundHistory, refundHistory2));
 
         historicalEventEmitterService.emitHistoricEventsByDate(eventDate, eventDate, 1L);
@@ -688,7 +748,9 @@ class HistoricalEventEmitterServiceTest {
 
     @Test
     void emitHistoricEventsById_shouldNotProcessIfRecordDoesNotExist() {
-        historicalEventEmitterService.emitHistoricEventsById(1L, OptionalLong.empty(), 1L);
+        when(chargeDao.findMaxId()).thenReturn(1L);
+
+        historicalEventEmitterService.emitHistoricEventsById(1L, OptionalLong.empty(), 1L, false);
 
         verifyNoInteractions(emittedEventDao);
         verify(refundDao, never()).searchAllHistoryByChargeExternalId(any());
@@ -702,12 +764,12 @@ class HistoricalEventEmitterServiceTest {
                 withChargeExternalId(chargeEntity.getExternalId()).build();
 
         when(chargeService.findCharge(chargeEntity.getExternalId())).thenReturn(Optional.of(Charge.from(chargeEntity)));
-        when(refundDao.findById(1L)).thenReturn(Optional.of(refundEntity));
+        when(refundDao.findByIdRange(0L, 1L, PAGE_SIZE)).thenReturn(List.of(refundEntity));
         when(emittedEventDao.hasBeenEmittedBefore(any())).thenReturn(false);
 
         when(refundDao.searchAllHistoryByChargeExternalId(chargeEntity.getExternalId())).thenReturn(List.of(refundHistory, refundHistory2));
 
-        historicalEventEmitterService.emitRefundEventsOnlyById(1L, OptionalLong.of(1L), 1L);
+        historicalEventEmitterService.emitRefundEventsOnlyById(1L, OptionalLong.of(1L), 1L, false);
 
         ArgumentCaptor<StateTransition> argument = ArgumentCaptor.forClass(StateTransition.class);
         verify(stateTransitionService, times(2)).offerStateTransition(argument.capture(), any(), isNotNull());
@@ -732,10 +794,10 @@ class HistoricalEventEmitterServiceTest {
         chargeEntity.getEvents().add(successEvent);
 
         when(chargeDao.findMaxId()).thenReturn(1L);
-        when(chargeDao.findById(1L)).thenReturn(Optional.of(chargeEntity));
+        when(chargeDao.findByIdRangeWithEvents(0L, 1L, PAGE_SIZE)).thenReturn(List.of(chargeEntity));
         when(emittedEventDao.hasBeenEmittedBefore(any())).thenReturn(false);
 
-        historicalEventEmitterService.emitHistoricEventsById(1L, OptionalLong.empty(), 1L);
+        historicalEventEmitterService.emitHistoricEventsById(1L, OptionalLong.empty(), 1L, false);
 
         verify(eventService, times(1)).emitAndRecordEvent(any(Gateway3dsInfoObtained.class), isNotNull());
     }
@@ -754,10 +816,10 @@ class HistoricalEventEmitterServiceTest {
         chargeEntity.getEvents().add(successEvent);
 
         when(chargeDao.findMaxId()).thenReturn(1L);
-        when(chargeDao.findById(1L)).thenReturn(Optional.of(chargeEntity));
+        when(chargeDao.findByIdRangeWithEvents(0L, 1L, PAGE_SIZE)).thenReturn(List.of(chargeEntity));
         when(emittedEventDao.hasBeenEmittedBefore(any())).thenReturn(false);
 
-        historicalEventEmitterService.emitHistoricEventsById(1L, OptionalLong.empty(), 1L);
+        historicalEventEmitterService.emitHistoricEventsById(1L, OptionalLong.empty(), 1L, false);
         verify(eventService).emitAndRecordEvent(any(GatewayDoesNotRequire3dsAuthorisation.class), isNotNull());
     }
 
@@ -775,10 +837,10 @@ class HistoricalEventEmitterServiceTest {
         chargeEntity.getEvents().add(successEvent);
 
         when(chargeDao.findMaxId()).thenReturn(1L);
-        when(chargeDao.findById(1L)).thenReturn(Optional.of(chargeEntity));
+        when(chargeDao.findByIdRangeWithEvents(0L, 1L, PAGE_SIZE)).thenReturn(List.of(chargeEntity));
         when(emittedEventDao.hasBeenEmittedBefore(any())).thenReturn(false);
 
-        historicalEventEmitterService.emitHistoricEventsById(1L, OptionalLong.empty(), 1L);
+        historicalEventEmitterService.emitHistoricEventsById(1L, OptionalLong.empty(), 1L, false);
         verify(eventService).emitAndRecordEvent(any(GatewayDoesNotRequire3dsAuthorisation.class), isNotNull());
     }
 
@@ -797,9 +859,9 @@ class HistoricalEventEmitterServiceTest {
         chargeEntity.getEvents().add(successEvent);
 
         when(chargeDao.findMaxId()).thenReturn(1L);
-        when(chargeDao.findById(1L)).thenReturn(Optional.of(chargeEntity));
+        when(chargeDao.findByIdRangeWithEvents(0L, 1L, PAGE_SIZE)).thenReturn(List.of(chargeEntity));
 
-        historicalEventEmitterService.emitHistoricEventsById(1L, OptionalLong.empty(), 1L);
+        historicalEventEmitterService.emitHistoricEventsById(1L, OptionalLong.empty(), 1L, false);
 
         ArgumentCaptor<Gateway3dsExemptionResultObtainedEvent> argument = ArgumentCaptor.forClass(Gateway3dsExemptionResultObtainedEvent.class);
         verify(eventService).emitAndRecordEvent(argument.capture(), isNotNull());
@@ -832,9 +894,9 @@ class HistoricalEventEmitterServiceTest {
         chargeEntity.getEvents().add(successEvent);
 
         when(chargeDao.findMaxId()).thenReturn(1L);
-        when(chargeDao.findById(1L)).thenReturn(Optional.of(chargeEntity));
+        when(chargeDao.findByIdRangeWithEvents(0L, 1L, PAGE_SIZE)).thenReturn(List.of(chargeEntity));
 
-        historicalEventEmitterService.emitHistoricEventsById(1L, OptionalLong.empty(), 1L);
+        historicalEventEmitterService.emitHistoricEventsById(1L, OptionalLong.empty(), 1L, false);
 
         ArgumentCaptor<Event> eventCaptor = ArgumentCaptor.forClass(Event.class);
         verify(eventService).emitAndRecordEvent(eventCaptor.capture(), any());
@@ -856,9 +918,9 @@ class HistoricalEventEmitterServiceTest {
         chargeEntity.getEvents().add(successEvent);
 
         when(chargeDao.findMaxId()).thenReturn(1L);
-        when(chargeDao.findById(1L)).thenReturn(Optional.of(chargeEntity));
+        when(chargeDao.findByIdRangeWithEvents(0L, 1L, PAGE_SIZE)).thenReturn(List.of(chargeEntity));
         
-        historicalEventEmitterService.emitHistoricEventsById(1L, OptionalLong.empty(), 1L);
+        historicalEventEmitterService.emitHistoricEventsById(1L, OptionalLong.empty(), 1L, false);
         
         ArgumentCaptor<Requested3dsExemption> requested3dsExemptionArgument = ArgumentCaptor.forClass(Requested3dsExemption.class);
         ArgumentCaptor<Gateway3dsExemptionResultObtainedEvent> gateway3dsExemptionArgument = ArgumentCaptor.forClass(Gateway3dsExemptionResultObtainedEvent.class);
@@ -0,0 +1,79 @@
+package uk.gov.pay.connector.events;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import uk.gov.pay.connector.chargeevent.dao.ChargeEventDao;
+import uk.gov.pay.connector.chargeevent.model.domain.ChargeEventEntity;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+import static uk.gov.pay.connector.pact.ChargeEventEntityFixture.aValidChargeEventEntity;
+
+@ExtendWith(MockitoExtension.class)
+class KeysetBatchIteratorTest {
+
+    private static final ZonedDateTime START_DATE = ZonedDateTime.parse("2016-01-01T00:00:00Z");
+    private static final ZonedDateTime END_DATE = START_DATE.plusDays(30);
+
+    @Mock
+    private ChargeEventDao chargeEventDao;
+
+    @Test
+    void shouldReadEachBatchAfterTheLastEventOfThePreviousBatch() {
+        ChargeEventEntity first = aChargeEvent(10L, START_DATE);
+        ChargeEventEntity second = aChargeEvent(4L, START_DATE.plusMinutes(1));
+        ChargeEventEntity third = aChargeEvent(7L, START_DATE.plusMinutes(1));
+        when(chargeEventDao.findChargeEvents(START_DATE, 0L, END_DATE, 2)).thenReturn(List.of(first, second));
+        when(chargeEventDao.findChargeEvents(second.getUpdated(), 4L, END_DATE, 2)).thenReturn(List.of(third));
+
+        KeysetBatchIterator<ChargeEventEntity> batches = KeysetBatchIterator.chargeEvents(chargeEventDao, START_DATE, END_DATE, 2);
+
+        assertThat(batches.hasNext(), is(true));
+        assertThat(batches.next(), contains(first, second));
+        assertThat(batches.hasNext(), is(true));
+        assertThat(batches.next(), contains(third));
+        assertThat(batches.hasNext(), is(false));
+        verify(chargeEventDao, times(2)).findChargeEvents(any(), anyLong(), any(), anyInt());
+        verifyNoMoreInteractions(chargeEventDao);
+    }
+
+    @Test
+    void shouldNotReadNextBatchUntilItIsAskedFor() {
+        ChargeEventEntity first = aChargeEvent(1L, START_DATE);
+        when(chargeEventDao.findChargeEvents(START_DATE, 0L, END_DATE, 1)).thenReturn(List.of(first));
+
+        KeysetBatchIterator<ChargeEventEntity> batches = KeysetBatchIterator.chargeEvents(chargeEventDao, START_DATE, END_DATE, 1);
+
+        assertThat(batches.next(), contains(first));
+        verify(chargeEventDao, times(1)).findChargeEvents(any(), anyLong(), any(), anyInt());
+    }
+
+    @Test
+    void shouldHaveNoBatchesWhenRangeIsEmpty() {
+        when(chargeEventDao.findChargeEvents(START_DATE, 0L, END_DATE, 100)).thenReturn(List.of());
+
+        KeysetBatchIterator<ChargeEventEntity> batches = KeysetBatchIterator.chargeEvents(chargeEventDao, START_DATE, END_DATE, 100);
+
+        assertThat(batches.hasNext(), is(false));
+        assertThrows(NoSuchElementException.class, batches::next);
+    }
+
+    private ChargeEventEntity aChargeEvent(Long id, ZonedDateTime updated) {
+        return aValidChargeEventEntity().withId(id).withTimestamp(updated).build();
+    }
+}
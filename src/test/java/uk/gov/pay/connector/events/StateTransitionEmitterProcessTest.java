@@ -1,10 +1,13 @@
 package uk.gov.pay.connector.events;
 
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import uk.gov.pay.connector.app.ConnectorConfiguration;
+import uk.gov.pay.connector.app.EventQueueConfig;
 import uk.gov.pay.connector.chargeevent.model.domain.ChargeEventEntity;
 import uk.gov.pay.connector.events.eventdetails.charge.PaymentCreatedEventDetails;
 import uk.gov.pay.connector.events.exception.EventCreationException;
@@ -12,6 +15,7 @@ import uk.gov.pay.connector.events.model.EventFactory;
 import uk.gov.pay.connector.events.model.charge.PaymentCreated;
 import uk.gov.pay.connector.events.model.charge.PaymentEvent;
 import uk.gov.pay.connector.queue.statetransition.PaymentStateTransition;
+import uk.gov.pay.connector.queue.statetransition.StateTransition;
 import uk.gov.pay.connector.queue.statetransition.StateTransitionQueue;
 import uk.gov.service.payments.commons.queue.exception.QueueException;
 
@@ -19,7 +23,10 @@ import java.time.Instant;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
 
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.atMost;
 import static org.mockito.Mockito.doThrow;
@@ -44,9 +51,19 @@ class StateTransitionEmitterProcessTest {
     @Mock
     EventService mockEventService;
 
-    @InjectMocks
+    @Mock
+    ConnectorConfiguration connectorConfiguration;
+
+    @Mock
+    EventQueueConfig eventQueueConfig;
+
     StateTransitionEmitterProcess stateTransitionEmitterProcess;
 
+    @BeforeEach
+    void setUp() {
+        stateTransitionEmitterProcess = aStateTransitionEmitterProcess(stateTransitionQueue, 1);
+    }
+
     @Test
     void shouldEmitPaymentEventGivenStateTransitionMessageOnQueue() throws Exception {
         PaymentStateTransition paymentStateTransition = new PaymentStateTransition(100L, PaymentCreated.class);
@@ -58,9 +75,9 @@ class StateTransitionEmitterProcessTest {
                         mock(PaymentCreatedEventDetails.class),
                         Instant.now()
                 )));
-        when(stateTransitionQueue.poll(anyLong(), any(TimeUnit.class))).thenReturn(paymentStateTransition);
+        when(stateTransitionQueue.poll(anyInt(), anyLong(), any(TimeUnit.class))).thenReturn(paymentStateTransition);
 
-        stateTransitionEmitterProcess.handleStateTransitionMessages();
+        stateTransitionEmitterProcess.handleStateTransitionMessages(0);
 
         verify(mockEventService).emitAndMarkEventAsEmitted(any(PaymentCreated.class));
     }
@@ -68,10 +85,10 @@ class StateTransitionEmitterProcessTest {
     @Test
     void shouldPutPaymentTransitionBackOnQueueIfEventCreationFails() throws Exception {
         PaymentStateTransition paymentStateTransition = new PaymentStateTransition(100L, PaymentEvent.class);
-        when(stateTransitionQueue.poll(anyLong(), any(TimeUnit.class))).thenReturn(paymentStateTransition);
+        when(stateTransitionQueue.poll(anyInt(), anyLong(), any(TimeUnit.class))).thenReturn(paymentStateTransition);
         when(eventFactory.createEvents(any(PaymentStateTransition.class))).thenThrow(EventCreationException.class);
 
-        stateTransitionEmitterProcess.handleStateTransitionMessages();
+        stateTransitionEmitterProcess.handleStateTransitionMessages(0);
 
         verifyNoMoreInteractions(mockEventService);
         verify(stateTransitionQueue).offer(any(PaymentStateTransition.class));
@@ -81,7 +98,7 @@ class StateTransitionEmitterProcessTest {
     void shouldPutPaymentTransitionBackOnQueueIfEventEmitFails() throws Exception {
         PaymentStateTransition paymentStateTransition = new PaymentStateTransition(100L, PaymentEvent.class);
         ChargeEventEntity chargeEvent = mock(ChargeEventEntity.class);
-        when(stateTransitionQueue.poll(anyLong(), any(TimeUnit.class))).thenReturn(paymentStateTransition);
+        when(stateTransitionQueue.poll(anyInt(), anyLong(), any(TimeUnit.class))).thenReturn(paymentStateTransition);
         when(eventFactory.createEvents(any(PaymentStateTransition.class))).thenReturn(List.of(
                 new PaymentCreated("service-id",
                         true,
@@ -92,7 +109,7 @@ class StateTransitionEmitterProcessTest {
                 )));
         doThrow(QueueException.class).when(mockEventService).emitAndMarkEventAsEmitted(any());
 
-        stateTransitionEmitterProcess.handleStateTransitionMessages();
+        stateTransitionEmitterProcess.handleStateTransitionMessages(0);
 
         verify(stateTransitionQueue).offer(any(PaymentStateTransition.class));
     }
@@ -101,7 +118,7 @@ class StateTransitionEmitterProcessTest {
     @Test
     void shouldNotPutPaymentTransitionBackOnQueueIfItHasExceededMaxAttempts() throws Exception {
         StateTransitionQueue spyQueue = spy(new StateTransitionQueue());
-        StateTransitionEmitterProcess stateTransitionEmitterProcess = new StateTransitionEmitterProcess(spyQueue, eventFactory, stateTransitionQueueMetricEmitter, mockEventService);
+        StateTransitionEmitterProcess stateTransitionEmitterProcess = aStateTransitionEmitterProcess(spyQueue, 1);
         PaymentStateTransition paymentStateTransition = new PaymentStateTransition(100L, PaymentEvent.class, 0);
 
         when(eventFactory.createEvents(any(PaymentStateTransition.class))).thenThrow(EventCreationException.class);
@@ -113,9 +130,64 @@ class StateTransitionEmitterProcessTest {
         // try until message attempt limit, factor in initial offer
         for (int i = 0; i < maximumStateTransitionMessageRetries; i++) {
             verify(spyQueue, times(i + 1)).offer(any(PaymentStateTransition.class));
-            stateTransitionEmitterProcess.handleStateTransitionMessages();
+            stateTransitionEmitterProcess.handleStateTransitionMessages(0);
         }
 
         verify(spyQueue, atMost(maximumStateTransitionMessageRetries)).offer(any());
     }
+
+    @Test
+    void shouldEmitReadyPaymentEventsInBatchWhenBatchSizeIsGreaterThanOne() throws Exception {
+        StateTransitionQueue queue = new StateTransitionQueue();
+        StateTransitionEmitterProcess batchingProcess = aStateTransitionEmitterProcess(queue, 10);
+        PaymentStateTransition first = new PaymentStateTransition(100L, PaymentCreated.class, 0);
+        PaymentStateTransition second = new PaymentStateTransition(101L, PaymentCreated.class, 0);
+        queue.offer(first);
+        queue.offer(second);
+        PaymentCreated firstEvent = aPaymentCreatedEvent("first");
+        PaymentCreated secondEvent = aPaymentCreatedEvent("second");
+        when(eventFactory.createEvents(first)).thenReturn(List.of(firstEvent));
+        when(eventFactory.createEvents(second)).thenReturn(List.of(secondEvent));
+        when(mockEventService.emitAndMarkEventsAsEmitted(List.of(firstEvent, secondEvent))).thenReturn(List.of());
+
+        batchingProcess.handleStateTransitionMessages(0);
+
+        verify(mockEventService).emitAndMarkEventsAsEmitted(List.of(firstEvent, secondEvent));
+        verifyNoMoreInteractions(mockEventService);
+        assertThat(queue.isEmpty(), is(true));
+    }
+
+    @Test
+    void shouldPutOnlyFailedPaymentTransitionsBackOnQueueWhenBatchEmitPartiallyFails() throws Exception {
+        StateTransitionQueue spyQueue = spy(new StateTransitionQueue());
+        StateTransitionEmitterProcess batchingProcess = aStateTransitionEmitterProcess(spyQueue, 10);
+        PaymentStateTransition succeeded = new PaymentStateTransition(100L, PaymentCreated.class, 0);
+        PaymentStateTransition failed = new PaymentStateTransition(101L, PaymentCreated.class, 0);
+        spyQueue.offer(succeeded);
+        spyQueue.offer(failed);
+        PaymentCreated succeededEvent = aPaymentCreatedEvent("succeeded");
+        PaymentCreated failedEvent = aPaymentCreatedEvent("failed");
+        when(eventFactory.createEvents(succeeded)).thenReturn(List.of(succeededEvent));
+        when(eventFactory.createEvents(failed)).thenReturn(List.of(failedEvent));
+        when(mockEventService.emitAndMarkEventsAsEmitted(any())).thenReturn(List.of(failedEvent));
+
+        batchingProcess.handleStateTransitionMessages(0);
+
+        ArgumentCaptor<StateTransition> retried = ArgumentCaptor.forClass(StateTransition.class);
+        verify(spyQueue, times(3)).offer(retried.capture());
+        assertThat(retried.getValue().getIdentifier(), is(failed.getIdentifier()));
+        assertThat(retried.getValue().getAttempts(), is(failed.getAttempts() + 1));
+    }
+
+    private StateTransitionEmitterProcess aStateTransitionEmitterProcess(StateTransitionQueue queue, int emitBatchSize) {
+        when(connectorConfiguration.getEventQueueConfig()).thenReturn(eventQueueConfig);
+        when(eventQueueConfig.getPaymentStateTransitionEmitBatchSize()).thenReturn(emitBatchSize);
+        return new StateTransitionEmitterProcess(queue, eventFactory, stateTransitionQueueMetricEmitter,
+                mockEventService, connectorConfiguration);
+    }
+
+    private static PaymentCreated aPaymentCreatedEvent(String resourceExternalId) {
+        return new PaymentCreated("service-id", true, 100L, resourceExternalId,
+                mock(PaymentCreatedEventDetails.class), Instant.now());
+    }
 }
@@ -0,0 +1,145 @@
+package uk.gov.pay.connector.events;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import uk.gov.pay.connector.app.ConnectorConfiguration;
+import uk.gov.pay.connector.app.EventQueueConfig;
+import uk.gov.pay.connector.events.eventdetails.charge.PaymentCreatedEventDetails;
+import uk.gov.pay.connector.events.exception.EventCreationException;
+import uk.gov.pay.connector.events.model.EventFactory;
+import uk.gov.pay.connector.events.model.charge.PaymentCreated;
+import uk.gov.pay.connector.queue.statetransition.PaymentStateTransition;
+import uk.gov.pay.connector.queue.statetransition.StateTransitionOutboxEntity;
+import uk.gov.pay.connector.queue.statetransition.dao.StateTransitionOutboxDao;
+
+import java.time.Instant;
+import java.time.InstantSource;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class StateTransitionOutboxRelayProcessTest {
+
+    private static final Instant NOW = Instant.parse("2024-03-01T10:15:30Z");
+
+    @Mock
+    private StateTransitionOutboxDao stateTransitionOutboxDao;
+    @Mock
+    private EventFactory eventFactory;
+    @Mock
+    private EventService eventService;
+    @Mock
+    private ConnectorConfiguration connectorConfiguration;
+    @Mock
+    private EventQueueConfig eventQueueConfig;
+
+    private StateTransitionOutboxRelayProcess relayProcess;
+
+    @BeforeEach
+    void setUp() {
+        when(connectorConfiguration.getEventQueueConfig()).thenReturn(eventQueueConfig);
+        when(eventQueueConfig.getStateTransitionOutboxRelayBatchSize()).thenReturn(50);
+        relayProcess = new StateTransitionOutboxRelayProcess(stateTransitionOutboxDao, eventFactory, eventService,
+                InstantSource.fixed(NOW), connectorConfiguration);
+    }
+
+    @Test
+    void shouldDoNothingWhenNoRowsAreDue() {
+        when(stateTransitionOutboxDao.claimBatch(50, NOW)).thenReturn(List.of());
+
+        assertThat(relayProcess.relayBatch(), is(0));
+
+        verifyNoInteractions(eventFactory, eventService);
+        verify(stateTransitionOutboxDao, never()).deleteByIds(anyList());
+    }
+
+    @Test
+    void shouldPublishClaimedRowsInOneBatchAndDeleteThem() throws Exception {
+        StateTransitionOutboxEntity first = anOutboxRow(1L, "charge-1", 0);
+        StateTransitionOutboxEntity second = anOutboxRow(2L, "charge-2", 0);
+        PaymentCreated firstEvent = aPaymentCreatedEvent("charge-1");
+        PaymentCreated secondEvent = aPaymentCreatedEvent("charge-2");
+        when(stateTransitionOutboxDao.claimBatch(50, NOW)).thenReturn(List.of(first, second));
+        when(eventFactory.createEvents(any(PaymentStateTransition.class)))
+                .thenReturn(List.of(firstEvent))
+                .thenReturn(List.of(secondEvent));
+        when(eventService.emitAndMarkEventsAsEmitted(List.of(firstEvent, secondEvent))).thenReturn(List.of());
+
+        assertThat(relayProcess.relayBatch(), is(2));
+
+        verify(stateTransitionOutboxDao).deleteByIds(List.of(1L, 2L));
+        verify(stateTransitionOutboxDao, never()).scheduleRetry(any(), anyInt(), any());
+    }
+
+    @Test
+    void shouldScheduleRetryWithBackoffForRowsThatFailToPublish() throws Exception {
+        StateTransitionOutboxEntity published = anOutboxRow(1L, "charge-1", 0);
+        StateTransitionOutboxEntity failed = anOutboxRow(2L, "charge-2", 2);
+        PaymentCreated publishedEvent = aPaymentCreatedEvent("charge-1");
+        PaymentCreated failedEvent = aPaymentCreatedEvent("charge-2");
+        when(stateTransitionOutboxDao.claimBatch(50, NOW)).thenReturn(List.of(published, failed));
+        when(eventFactory.createEvents(any(PaymentStateTransition.class)))
+                .thenReturn(List.of(publishedEvent))
+                .thenReturn(List.of(failedEvent));
+        when(eventService.emitAndMarkEventsAsEmitted(anyList())).thenReturn(List.of(failedEvent));
+
+        relayProcess.relayBatch();
+
+        verify(stateTransitionOutboxDao).scheduleRetry(2L, 3, NOW.plusMillis(800));
+        verify(stateTransitionOutboxDao).deleteByIds(List.of(1L));
+    }
+
+    @Test
+    void shouldRetryRowWhenEventCannotBeCreatedAndDropItAfterMaxAttempts() throws Exception {
+        StateTransitionOutboxEntity retried = anOutboxRow(1L, "charge-1", 0);
+        StateTransitionOutboxEntity exhausted = anOutboxRow(2L, "charge-2",
+                StateTransitionOutboxRelayProcess.MAXIMUM_NUMBER_OF_ATTEMPTS - 1);
+        when(stateTransitionOutboxDao.claimBatch(50, NOW)).thenReturn(List.of(retried, exhausted));
+        when(eventFactory.createEvents(any(PaymentStateTransition.class))).thenThrow(EventCreationException.class);
+
+        relayProcess.relayBatch();
+
+        verifyNoInteractions(eventService);
+        verify(stateTransitionOutboxDao).scheduleRetry(1L, 1, NOW.plusMillis(200));
+        ArgumentCaptor<List<Long>> deletedIds = ArgumentCaptor.forClass(List.class);
+        verify(stateTransitionOutboxDao).deleteByIds(deletedIds.capture());
+        assertThat(deletedIds.getValue(), contains(2L));
+    }
+
+    @Test
+    void shouldCapRetryDelay() {
+        assertThat(StateTransitionOutboxRelayProcess.retryDelayInMilliseconds(1), is(200L));
+        assertThat(StateTransitionOutboxRelayProcess.retryDelayInMilliseconds(4), is(1600L));
+        assertThat(StateTransitionOutboxRelayProcess.retryDelayInMilliseconds(50), is(60_000L));
+    }
+
+    private static StateTransitionOutboxEntity anOutboxRow(Long id, String chargeExternalId, int attempts) {
+        StateTransitionOutboxEntity row = spy(StateTransitionOutboxEntity.from(
+                new PaymentStateTransition(id * 10, chargeExternalId, PaymentCreated.class), NOW));
+        lenient().when(row.getId()).thenReturn(id);
+        lenient().when(row.getAttempts()).thenReturn(attempts);
+        return row;
+    }
+
+    private static PaymentCreated aPaymentCreatedEvent(String resourceExternalId) {
+        return new PaymentCreated("service-id", true, 100L, resourceExternalId,
+                mock(PaymentCreatedEventDetails.class), NOW);
+    }
+}
@@ -148,6 +148,40 @@ public class EmittedEventDaoIT {
         assertThat(event.get("emitted_date").toString(), is(emittedDateBeforeUpdate));
     }
 
+    @Test
+    void markEventsAsEmitted_shouldUpdateAllNotEmittedEventsInBatch() {
+        final RefundSubmitted refundSubmitted = aRefundSubmittedEvent(Instant.parse("2018-01-01T12:00:00Z"));
+        final PaymentCreated paymentCreated = aPaymentCreatedEvent();
+        emittedEventDao.recordEmission(refundSubmitted.getResourceType(), refundSubmitted.getResourceExternalId(),
+                refundSubmitted.getEventType(), refundSubmitted.getTimestamp(), null);
+        emittedEventDao.recordEmission(paymentCreated.getResourceType(), paymentCreated.getResourceExternalId(),
+                paymentCreated.getEventType(), paymentCreated.getTimestamp(), null);
+
+        emittedEventDao.markEventsAsEmitted(List.of(
+                aRefundSubmittedEvent(Instant.parse("2019-01-01T14:00:00Z")),
+                paymentCreated));
+
+        List<Map<String, Object>> events = app.getDatabaseTestHelper().readEmittedEvents();
+        assertThat(events.size(), is(2));
+        events.forEach(event -> assertThat(event.get("emitted_date"), is(notNullValue())));
+        Map<String, Object> refundEvent = events.stream()
+                .filter(event -> event.get("event_type").equals(refundSubmitted.getEventType()))
+                .findFirst().orElseThrow();
+        assertThat(refundEvent.get("event_date").toString(), is("2019-01-01 14:00:00.0"));
+    }
+
+    @Test
+    void markEventsAsEmitted_shouldNotUpdateEventsAlreadyEmitted() {
+        final PaymentCreated paymentCreated = aPaymentCreatedEvent();
+        emittedEventDao.recordEmission(paymentCreated, null);
+        String emittedDateBeforeUpdate = app.getDatabaseTestHelper().readEmittedEvents().getFirst().get("emitted_date").toString();
+
+        emittedEventDao.markEventsAsEmitted(List.of(paymentCreated));
+
+        assertThat(app.getDatabaseTestHelper().readEmittedEvents().getFirst().get("emitted_date").toString(),
+                is(emittedDateBeforeUpdate));
+    }
+
     @Test
     void findNotEmittedEventsOlderThan_shouldReturnEventsWithEmptyEmittedDate() {
         final PaymentCreated paymentCreatedEvent = aPaymentCreatedEvent();
@@ -0,0 +1,43 @@
+package uk.gov.pay.connector.events.dao;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import uk.gov.pay.connector.extension.AppWithPostgresAndSqsExtension;
+
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static uk.gov.pay.connector.tasks.RecordType.CHARGE;
+import static uk.gov.pay.connector.tasks.RecordType.REFUND;
+
+public class HistoricalEventEmitterCheckpointDaoIT {
+    @RegisterExtension
+    public static AppWithPostgresAndSqsExtension app = new AppWithPostgresAndSqsExtension();
+    private HistoricalEventEmitterCheckpointDao checkpointDao;
+
+    @BeforeEach
+    void setUp() {
+        checkpointDao = app.getInstanceFromGuiceContainer(HistoricalEventEmitterCheckpointDao.class);
+    }
+
+    @Test
+    void findLastProcessedId_shouldReturnEmptyForRangeWithoutCheckpoint() {
+        assertThat(checkpointDao.findLastProcessedId(CHARGE, 1L, 100L), is(Optional.empty()));
+    }
+
+    @Test
+    void saveCheckpoint_shouldInsertAndThenAdvanceCheckpointForRange() {
+        Instant now = Instant.parse("2024-03-01T10:15:30Z");
+
+        checkpointDao.saveCheckpoint(CHARGE, 1L, 100L, 50L, now);
+        checkpointDao.saveCheckpoint(CHARGE, 1L, 100L, 100L, now.plusSeconds(1));
+        checkpointDao.saveCheckpoint(REFUND, 1L, 100L, 10L, now);
+
+        assertThat(checkpointDao.findLastProcessedId(CHARGE, 1L, 100L), is(Optional.of(100L)));
+        assertThat(checkpointDao.findLastProcessedId(REFUND, 1L, 100L), is(Optional.of(10L)));
+        assertThat(checkpointDao.findLastProcessedId(CHARGE, 101L, 200L), is(Optional.empty()));
+    }
+}
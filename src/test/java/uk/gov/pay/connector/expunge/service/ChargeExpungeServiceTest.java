@@ -25,9 +25,14 @@ import uk.gov.pay.connector.tasks.service.ParityCheckService;
 
 import java.time.Duration;
 import java.time.Instant;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -480,4 +485,75 @@ class ChargeExpungeServiceTest {
         chargeExpungeService.expunge(1);
         verify(mockChargeDao).expungeCharge(chargeEntity.getId(), chargeEntity.getExternalId());
     }
+
+    @Nested
+    class TestBatchExpunging {
+
+        @BeforeEach
+        void setUp() {
+            when(mockExpungeConfig.isBatchExpungeEnabled()).thenReturn(true);
+            when(mockExpungeConfig.getMaxConcurrentParityChecks()).thenReturn(2);
+            when(mockExpungeConfig.getMinimumAgeOfChargeInDays()).thenReturn(minimumAgeOfChargeInDays);
+            when(mockExpungeConfig.getExcludeChargesOrRefundsParityCheckedWithInDays()).thenReturn(defaultExcludeChargesParityCheckedWithInDays);
+        }
+
+        @Test
+        void shouldDeleteChargesThatMatchLedgerTogetherAndSkipTheRest() {
+            ChargeEntity chargeMatchingLedger = ChargeEntityFixture.aValidChargeEntity().withStatus(CAPTURED).build();
+            ChargeEntity chargeNotMatchingLedger = ChargeEntityFixture.aValidChargeEntity().withStatus(CAPTURED).build();
+            ChargeEntity chargeNotInTerminalState = ChargeEntityFixture.aValidChargeEntity().withStatus(CREATED).build();
+            when(mockExpungeConfig.getBatchSize()).thenReturn(10);
+            when(mockChargeDao.findChargesToExpunge(minimumAgeOfChargeInDays, defaultExcludeChargesParityCheckedWithInDays,
+                    Instant.EPOCH, 0L, 10))
+                    .thenReturn(List.of(chargeMatchingLedger, chargeNotMatchingLedger, chargeNotInTerminalState));
+            when(parityCheckService.getLedgerTransactions(eq(List.of(chargeMatchingLedger.getExternalId(),
+                    chargeNotMatchingLedger.getExternalId())), any()))
+                    .thenReturn(Map.of(chargeMatchingLedger.getExternalId(), Optional.empty(),
+                            chargeNotMatchingLedger.getExternalId(), Optional.empty()));
+            when(parityCheckService.parityCheckChargeForExpunger(chargeMatchingLedger, Optional.empty())).thenReturn(true);
+            when(parityCheckService.parityCheckChargeForExpunger(chargeNotMatchingLedger, Optional.empty())).thenReturn(false);
+
+            chargeExpungeService.expunge(defaultNumberOfChargesToExpunge);
+
+            verify(mockChargeService).updateChargeParityStatuses(List.of(chargeNotInTerminalState.getId()), SKIPPED);
+            verify(mockChargeDao).expungeCharges(List.of(chargeMatchingLedger.getId()), List.of(chargeMatchingLedger.getExternalId()));
+            verify(mockChargeDao, never()).expungeCharge(any(), any());
+            verify(mockChargeDao, never()).findChargeToExpunge(anyInt(), anyInt());
+        }
+
+        @Test
+        void shouldNotExpungeChargeThatCouldNotBeFetchedFromLedger() {
+            ChargeEntity chargeEntity = ChargeEntityFixture.aValidChargeEntity().withStatus(CAPTURED).build();
+            when(mockExpungeConfig.getBatchSize()).thenReturn(10);
+            when(mockChargeDao.findChargesToExpunge(minimumAgeOfChargeInDays, defaultExcludeChargesParityCheckedWithInDays,
+                    Instant.EPOCH, 0L, 1))
+                    .thenReturn(List.of(chargeEntity));
+            when(parityCheckService.getLedgerTransactions(eq(List.of(chargeEntity.getExternalId())), any())).thenReturn(Map.of());
+
+            chargeExpungeService.expunge(1);
+
+            verify(parityCheckService, never()).parityCheckChargeForExpunger(any(), any());
+            verify(mockChargeDao).expungeCharges(List.of(), List.of());
+        }
+
+        @Test
+        void shouldReadEachBatchAfterTheLastChargeOfThePreviousBatchUntilNumberToExpungeIsReached() {
+            ChargeEntity first = ChargeEntityFixture.aValidChargeEntity().withStatus(CREATED).build();
+            ChargeEntity second = ChargeEntityFixture.aValidChargeEntity().withStatus(CREATED).build();
+            ChargeEntity third = ChargeEntityFixture.aValidChargeEntity().withStatus(CREATED).build();
+            when(mockExpungeConfig.getBatchSize()).thenReturn(2);
+            when(mockChargeDao.findChargesToExpunge(minimumAgeOfChargeInDays, defaultExcludeChargesParityCheckedWithInDays,
+                    Instant.EPOCH, 0L, 2))
+                    .thenReturn(List.of(first, second));
+            when(mockChargeDao.findChargesToExpunge(minimumAgeOfChargeInDays, defaultExcludeChargesParityCheckedWithInDays,
+                    second.getCreatedDate(), second.getId(), 1))
+                    .thenReturn(List.of(third));
+
+            chargeExpungeService.expunge(3);
+
+            verify(mockChargeDao, times(2)).findChargesToExpunge(anyInt(), anyInt(), any(), anyLong(), anyInt());
+            verify(mockChargeService).updateChargeParityStatuses(List.of(first.getId(), second.getId()), SKIPPED);
+            verify(mockChargeService).updateChargeParityStatuses(List.of(third.getId()), SKIPPED);
+        }
+    }
 }
@@ -17,11 +17,16 @@ import uk.gov.pay.connector.refund.model.domain.RefundEntity;
 import uk.gov.pay.connector.refund.service.RefundService;
 import uk.gov.pay.connector.tasks.service.ParityCheckService;
 
+import java.time.Instant;
 import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static java.time.ZoneOffset.UTC;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -161,4 +166,36 @@ class RefundExpungeServiceTest {
 
         verify(mockRefundDao, never()).expungeRefund(any());
     }
+
+    @Test
+    void expunge_inBatches_shouldDeleteRefundsThatMatchLedgerTogetherAndSkipTheRest() {
+        when(mockExpungeConfig.isExpungeRefundsEnabled()).thenReturn(true);
+        when(mockExpungeConfig.isBatchExpungeEnabled()).thenReturn(true);
+        when(mockExpungeConfig.getBatchSize()).thenReturn(10);
+        when(mockExpungeConfig.getMaxConcurrentParityChecks()).thenReturn(2);
+        when(mockExpungeConfig.getMinimumAgeOfRefundInDays()).thenReturn(minimumAgeOfRefundInDays);
+        when(mockExpungeConfig.getExcludeChargesOrRefundsParityCheckedWithInDays()).thenReturn(defaultExcludeRefundsParityCheckedWithInDays);
+
+        RefundEntity refundMatchingLedger = RefundEntityFixture.aValidRefundEntity()
+                .withExternalId("refund-matching-ledger").withStatus(REFUNDED).build();
+        RefundEntity refundNotMatchingLedger = RefundEntityFixture.aValidRefundEntity()
+                .withExternalId("refund-not-matching-ledger").withStatus(REFUNDED).build();
+        RefundEntity refundNotInExpungeableState = RefundEntityFixture.aValidRefundEntity()
+                .withExternalId("refund-submitted").withStatus(REFUND_SUBMITTED).build();
+        when(mockRefundDao.findRefundsToExpunge(minimumAgeOfRefundInDays, defaultExcludeRefundsParityCheckedWithInDays,
+                Instant.EPOCH.atZone(UTC), 0L, 10))
+                .thenReturn(List.of(refundMatchingLedger, refundNotMatchingLedger, refundNotInExpungeableState));
+        when(mockChargeService.findChargeByExternalId(any())).thenThrow(ChargeNotFoundRuntimeException.class);
+        when(mockParityCheckService.getLedgerTransactions(eq(List.of("refund-matching-ledger", "refund-not-matching-ledger")), any()))
+                .thenReturn(Map.of("refund-matching-ledger", Optional.empty(), "refund-not-matching-ledger", Optional.empty()));
+        when(mockParityCheckService.parityCheckRefundForExpunger(refundMatchingLedger, Optional.empty())).thenReturn(true);
+        when(mockParityCheckService.parityCheckRefundForExpunger(refundNotMatchingLedger, Optional.empty())).thenReturn(false);
+
+        refundExpungeService.expunge(defaultNumberOfRefundsToExpunge);
+
+        verify(mockRefundService).updateRefundParityStatuses(List.of("refund-submitted"), SKIPPED);
+        verify(mockRefundDao).expungeRefunds(List.of("refund-matching-ledger"));
+        verify(mockRefundDao, never()).expungeRefund(any());
+        verify(mockRefundDao, never()).findRefundToExpunge(anyInt(), anyInt());
+    }
 }
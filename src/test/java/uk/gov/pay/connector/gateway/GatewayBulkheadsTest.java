@@ -0,0 +1,199 @@
+package uk.gov.pay.connector.gateway;
+
+import io.prometheus.client.CollectorRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import uk.gov.pay.connector.app.ExecutorServiceConfig;
+import uk.gov.pay.connector.app.config.GatewayBulkheadConfig;
+import uk.gov.pay.connector.gateway.GatewayException.GatewayConnectionTimeoutException;
+import uk.gov.pay.connector.gateway.GatewayException.GenericGatewayException;
+import uk.gov.pay.connector.gateway.model.OrderRequestType;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static uk.gov.pay.connector.app.ExecutorServiceConfig.ExecutorMode.PLATFORM_THREADS;
+import static uk.gov.pay.connector.app.ExecutorServiceConfig.ExecutorMode.VIRTUAL_THREADS;
+import static uk.gov.pay.connector.gateway.PaymentGatewayName.STRIPE;
+import static uk.gov.pay.connector.gateway.PaymentGatewayName.WORLDPAY;
+import static uk.gov.pay.connector.gateway.model.OrderRequestType.AUTHORISE;
+import static uk.gov.pay.connector.gateway.model.OrderRequestType.CAPTURE;
+
+class GatewayBulkheadsTest {
+
+    private final GatewayBulkheads bulkheads = new GatewayBulkheads(new GatewayBulkheadConfig(1, 0, 2));
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        bulkheads.stop();
+    }
+
+    @Test
+    void shouldCompleteWithResultOfRequestAndPropagateMdc() throws Exception {
+        MDC.put("chargeId", "charge-123");
+        try {
+            String result = bulkheads.submit(WORLDPAY, AUTHORISE, () -> MDC.get("chargeId"))
+                    .toCompletableFuture().get(5, TimeUnit.SECONDS);
+
+            assertThat(result, is("charge-123"));
+        } finally {
+            MDC.clear();
+        }
+    }
+
+    @Test
+    void shouldCompleteExceptionallyWithGatewayExceptionThrownByRequest() {
+        CompletableFuture<Object> future = bulkheads.submit(WORLDPAY, AUTHORISE, () -> {
+            throw new GatewayConnectionTimeoutException("Gateway connection timeout error");
+        }).toCompletableFuture();
+
+        var thrown = assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+        assertThat(thrown.getCause(), instanceOf(GatewayConnectionTimeoutException.class));
+    }
+
+    @Test
+    void shouldRejectRequestImmediatelyWhenBulkheadIsFull() throws Exception {
+        double rejectedBefore = rejectedCount("worldpay", "authorise");
+        blockBulkhead(WORLDPAY, AUTHORISE);
+
+        CompletableFuture<String> rejected = bulkheads.submit(WORLDPAY, AUTHORISE, () -> "should not run").toCompletableFuture();
+
+        assertThat(rejected.isCompletedExceptionally(), is(true));
+        var thrown = assertThrows(ExecutionException.class, rejected::get);
+        assertThat(thrown.getCause(), instanceOf(GenericGatewayException.class));
+        assertThat(thrown.getCause().getMessage(), is("Too many concurrent authorise requests to worldpay"));
+        assertThat(rejectedCount("worldpay", "authorise"), is(rejectedBefore + 1));
+    }
+
+    @Test
+    void shouldNotLetASaturatedGatewayBlockOtherGatewaysOrRequestTypes() throws Exception {
+        blockBulkhead(WORLDPAY, AUTHORISE);
+
+        assertThat(bulkheads.submit(STRIPE, AUTHORISE, () -> "stripe").toCompletableFuture().get(5, TimeUnit.SECONDS), is("stripe"));
+        assertThat(bulkheads.submit(WORLDPAY, CAPTURE, () -> "capture").toCompletableFuture().get(5, TimeUnit.SECONDS), is("capture"));
+    }
+
+    @Test
+    void shouldReportActiveRequestsAndCapacity() throws Exception {
+        blockBulkhead(STRIPE, CAPTURE);
+
+        assertThat(sample("gateway_bulkhead_active_requests", "stripe", "capture"), is(1.0));
+        assertThat(sample("gateway_bulkhead_max_concurrent_requests", "stripe", "capture"), is(1.0));
+
+        release.countDown();
+        bulkheads.stop();
+        assertThat(sample("gateway_bulkhead_active_requests", "stripe", "capture"), is(0.0));
+    }
+
+    @Test
+    void shouldRejectSyncRequestsBeyondPermitsForGatewayUnderSaturation() throws Exception {
+        double rejectedBefore = rejectedCount("worldpay", "authorise");
+        int callers = 10;
+        CountDownLatch ready = new CountDownLatch(callers);
+        ConcurrentLinkedQueue<GatewayBulkheads.Permit> permits = new ConcurrentLinkedQueue<>();
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<Boolean>> acquired = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                acquired.add(executor.submit(() -> {
+                    ready.countDown();
+                    ready.await();
+                    try {
+                        permits.add(bulkheads.acquire(WORLDPAY, AUTHORISE));
+                        return true;
+                    } catch (GenericGatewayException e) {
+                        return false;
+                    }
+                }));
+            }
+            int succeeded = 0;
+            for (Future<Boolean> result : acquired) {
+                succeeded += result.get(5, TimeUnit.SECONDS) ? 1 : 0;
+            }
+
+            assertThat(succeeded, is(2));
+            assertThat(rejectedCount("worldpay", "authorise"), is(rejectedBefore + callers - 2));
+            assertThat(sample("gateway_bulkhead_active_sync_requests", "worldpay"), is(2.0));
+            var thrown = assertThrows(GenericGatewayException.class, () -> bulkheads.acquire(WORLDPAY, CAPTURE));
+            assertThat(thrown.getMessage(), is("Too many concurrent capture requests to worldpay"));
+            bulkheads.acquire(STRIPE, AUTHORISE).release();
+        } finally {
+            permits.forEach(GatewayBulkheads.Permit::release);
+            executor.shutdownNow();
+        }
+
+        assertThat(sample("gateway_bulkhead_active_sync_requests", "worldpay"), is(0.0));
+        bulkheads.acquire(WORLDPAY, AUTHORISE).release();
+    }
+
+    @Test
+    void shouldReleasePermitOnlyOnce() throws Exception {
+        GatewayBulkheads.Permit permit = bulkheads.acquire(WORLDPAY, AUTHORISE);
+        permit.release();
+        permit.release();
+
+        GatewayBulkheads.Permit first = bulkheads.acquire(WORLDPAY, AUTHORISE);
+        GatewayBulkheads.Permit second = bulkheads.acquire(WORLDPAY, AUTHORISE);
+        try {
+            assertThrows(GenericGatewayException.class, () -> bulkheads.acquire(WORLDPAY, AUTHORISE));
+        } finally {
+            first.release();
+            second.release();
+        }
+    }
+
+    @Test
+    void shouldGiveEachGatewayPermitsForEveryCardOperationTheCardExecutorCanRun() {
+        GatewayBulkheadConfig config = new GatewayBulkheadConfig(1, 0, 2);
+        int processors = Runtime.getRuntime().availableProcessors();
+
+        assertThat(new GatewayBulkheads(config, new ExecutorServiceConfig(100, PLATFORM_THREADS, 200))
+                .getMaxConcurrentSyncRequestsPerGateway(), is(100 * processors + 2));
+        assertThat(new GatewayBulkheads(config, new ExecutorServiceConfig(100, VIRTUAL_THREADS, 200))
+                .getMaxConcurrentSyncRequestsPerGateway(), is(200 + 2));
+    }
+
+    private void blockBulkhead(PaymentGatewayName gatewayName, OrderRequestType orderRequestType) throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        bulkheads.submit(gatewayName, orderRequestType, () -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return null;
+        });
+        assertThat(started.await(5, TimeUnit.SECONDS), is(true));
+    }
+
+    private static double rejectedCount(String gatewayName, String requestType) {
+        return sample("gateway_bulkhead_rejected_requests_total", gatewayName, requestType);
+    }
+
+    private static double sample(String name, String gatewayName) {
+        return Optional.ofNullable(CollectorRegistry.defaultRegistry.getSampleValue(name,
+                new String[]{"gatewayName"}, new String[]{gatewayName})).orElse(0.0);
+    }
+
+    private static double sample(String name, String gatewayName, String requestType) {
+        return Optional.ofNullable(CollectorRegistry.defaultRegistry.getSampleValue(name,
+                new String[]{"gatewayName", "requestType"}, new String[]{gatewayName, requestType})).orElse(0.0);
+    }
+}
@@ -20,6 +20,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import uk.gov.pay.connector.app.StripeGatewayConfig;
 import uk.gov.pay.connector.charge.model.domain.ChargeEntity;
 import uk.gov.pay.connector.charge.service.ChargeService;
+import uk.gov.pay.connector.charge.service.ChargeStatusWaiters;
 import uk.gov.pay.connector.gateway.model.Auth3dsResult;
 import uk.gov.pay.connector.gateway.stripe.json.StripePayout;
 import uk.gov.pay.connector.gatewayaccountcredentials.service.GatewayAccountCredentialsService;
@@ -131,7 +132,8 @@ class StripeNotificationServiceTest {
                 new IpAddressMatcher(new InetAddressValidator()),
                 ALLOWED_IP_ADDRESSES,
                 objectMapper,
-                mockTaskQueueService);
+                mockTaskQueueService,
+                new ChargeStatusWaiters());
 
         lenient().when(stripeGatewayConfig.getWebhookSigningSecrets()).thenReturn(List.of(webhookLiveSigningSecret, webhookTestSigningSecret));
     }
@@ -427,7 +429,7 @@ class StripeNotificationServiceTest {
         final String payload = sampleStripeNotification(STRIPE_NOTIFICATION_PAYMENT_INTENT,
                 sourceId, PAYMENT_INTENT_PAYMENT_FAILED);
         when(stripeGatewayConfig.getNotification3dsWaitDelay()).thenReturn(1000);
-        when(mockChargeService.findChargeByExternalId(anyString())).thenReturn(mockCharge);
+        when(mockChargeService.findCurrentChargeStatus(externalId)).thenReturn(Optional.of(AUTHORISATION_3DS_REQUIRED));
 
         Instant instantBeforeInvocation = Instant.now();
         final boolean result = notificationService.handleNotificationFor(payload, signPayload(payload), FORWARDED_IP_ADDRESSES);
@@ -446,8 +448,7 @@ class StripeNotificationServiceTest {
         final String payload = sampleStripeNotification(STRIPE_NOTIFICATION_PAYMENT_INTENT,
                 sourceId, PAYMENT_INTENT_PAYMENT_FAILED);
         when(stripeGatewayConfig.getNotification3dsWaitDelay()).thenReturn(2000);
-        when(mockChargeService.findChargeByExternalId(anyString())).thenReturn(mockCharge);
-        when(mockCharge.getStatus()).thenReturn(AUTHORISATION_3DS_READY.getValue());
+        when(mockChargeService.findCurrentChargeStatus(externalId)).thenReturn(Optional.of(AUTHORISATION_3DS_READY));
 
         Instant instantBeforeInvocation = Instant.now();
         final boolean result = notificationService.handleNotificationFor(payload, signPayload(payload), FORWARDED_IP_ADDRESSES);
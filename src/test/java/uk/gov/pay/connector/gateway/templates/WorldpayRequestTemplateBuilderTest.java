@@ -3,10 +3,21 @@ package uk.gov.pay.connector.gateway.templates;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import uk.gov.pay.connector.gateway.model.request.records.WorldpayMotoAuthorisePayload;
+import uk.gov.pay.connector.gateway.worldpay.WorldpayAuthoriseHandler;
+import uk.gov.pay.connector.gateway.worldpay.WorldpayOrderRequestBuilder;
 
+import java.lang.reflect.Field;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static uk.gov.pay.connector.gateway.model.request.records.WorldpayMotoAuthoriseRequestFixture.aWorldpayMotoAuthoriseRequestFixture;
 import static uk.gov.pay.connector.util.TestTemplateResourceLoader.WORLDPAY_VALID_AUTHORISE_WORLDPAY_MOTO_AUTHORISATION_REQUEST;
@@ -16,6 +27,33 @@ import static uk.gov.pay.connector.util.XmlAssertions.assertThat;
 class WorldpayRequestTemplateBuilderTest {
     private final WorldpayRequestTemplateBuilder worldpayRequestTemplateBuilder = new WorldpayRequestTemplateBuilder();
 
+    @Nested
+    class Precompilation {
+        @Test
+        void shouldPrecompileEveryWorldpayTemplate() throws Exception {
+            // Test resources have a templates/worldpay directory of their own, so find the main one from a template in it
+            Path templateDirectory = Path.of(WorldpayRequestTemplateBuilder.class
+                    .getResource("/templates/" + WorldpayAuthoriseHandler.MOTO_TEMPLATE_PATH).toURI()).getParent();
+            List<String> templatesInDirectory;
+            try (Stream<Path> files = Files.list(templateDirectory)) {
+                templatesInDirectory = files.map(file -> "worldpay/" + file.getFileName()).toList();
+            }
+
+            assertThat(WorldpayRequestTemplateBuilder.WORLDPAY_TEMPLATES, containsInAnyOrder(templatesInDirectory.toArray()));
+        }
+
+        @Test
+        void shouldPrecompileEveryTemplateRenderedByWorldpayOrderRequestBuilder() throws Exception {
+            for (Field field : WorldpayOrderRequestBuilder.class.getFields()) {
+                if (field.getType() == TemplateBuilder.class) {
+                    String templateName = ((TemplateBuilder) field.get(null)).getTemplateName();
+                    assertThat(templateName, worldpayRequestTemplateBuilder.isPrecompiled(templateName), is(true));
+                }
+            }
+            assertThat(worldpayRequestTemplateBuilder.isPrecompiled(WorldpayAuthoriseHandler.MOTO_TEMPLATE_PATH), is(true));
+        }
+    }
+
     @Nested
     class MotoAuthorisationRequest {
         @Test
@@ -28,6 +66,42 @@ class WorldpayRequestTemplateBuilderTest {
         }
     }
 
+    @Nested
+    class RenderingToBytes {
+        @Test
+        void shouldRenderTheSamePayloadAsBuildWith() {
+            WorldpayMotoAuthorisePayload motoOrder = aWorldpayMotoAuthoriseRequestFixture().build();
+
+            byte[] rendered = worldpayRequestTemplateBuilder.renderWith("worldpay/WorldpayAuthoriseMotoOrderTemplate.ftlx", motoOrder);
+
+            assertThat(new String(rendered, UTF_8), is(worldpayRequestTemplateBuilder.buildWith("/worldpay/WorldpayAuthoriseMotoOrderTemplate.ftlx", motoOrder)));
+        }
+
+        @Test
+        void shouldNotLeakContentBetweenRendersWhenBufferIsReused() {
+            WorldpayMotoAuthorisePayload longOrder = aWorldpayMotoAuthoriseRequestFixture()
+                    .withCardholderName("Mr Cardholder With A Very Long Name ".repeat(50)).build();
+            WorldpayMotoAuthorisePayload shortOrder = aWorldpayMotoAuthoriseRequestFixture()
+                    .withCardholderName("Ms Short").build();
+
+            worldpayRequestTemplateBuilder.renderWith(WorldpayAuthoriseHandler.MOTO_TEMPLATE_PATH, longOrder);
+            String rendered = new String(worldpayRequestTemplateBuilder.renderWith(WorldpayAuthoriseHandler.MOTO_TEMPLATE_PATH, shortOrder), UTF_8);
+
+            assertThat(rendered, containsString("Ms Short"));
+            assertThat(rendered, not(containsString("Very Long Name")));
+        }
+
+        @Test
+        void shouldEncodeNonAsciiCharactersAsUtf8() {
+            WorldpayMotoAuthorisePayload motoOrder = aWorldpayMotoAuthoriseRequestFixture()
+                    .withCardholderName("Zoë Łukasz").build();
+
+            byte[] rendered = worldpayRequestTemplateBuilder.renderWith(WorldpayAuthoriseHandler.MOTO_TEMPLATE_PATH, motoOrder);
+
+            assertThat(new String(rendered, UTF_8), containsString("Zoë Łukasz"));
+        }
+    }
+
     @Nested
     class TemplateBuilderAppliesAutoEscape {
         @Test
@@ -21,11 +21,13 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import uk.gov.pay.connector.agreement.model.AgreementEntity;
+import uk.gov.pay.connector.app.config.GatewayBulkheadConfig;
 import uk.gov.pay.connector.charge.model.ServicePaymentReference;
 import uk.gov.pay.connector.charge.model.domain.ChargeEntity;
 import uk.gov.pay.connector.charge.model.domain.ChargeEntityFixture;
 import uk.gov.pay.connector.common.model.domain.Address;
 import uk.gov.pay.connector.gateway.ClientFactory;
+import uk.gov.pay.connector.gateway.GatewayBulkheads;
 import uk.gov.pay.connector.gateway.GatewayClient;
 import uk.gov.pay.connector.gateway.GatewayClientFactory;
 import uk.gov.pay.connector.gateway.GatewayOperation;
@@ -176,8 +178,8 @@ class WorldpayAuthoriseHandlerTest {
         WorldpayAuthoriseRequest worldpayAuthoriseRequest = aWorldpayMotoAuthoriseRequestFixture()
                 .withUsername(username).withPassword(password).build();
 
-        when(worldpayRequestTemplateBuilder.buildWith(WorldpayAuthoriseHandler.MOTO_TEMPLATE_PATH, 
-                worldpayAuthoriseRequest)).thenReturn(worldpayRequestBody);
+        when(worldpayRequestTemplateBuilder.renderWith(WorldpayAuthoriseHandler.MOTO_TEMPLATE_PATH, 
+                worldpayAuthoriseRequest)).thenReturn(worldpayRequestBody.getBytes(UTF_8));
 
         GatewayOrder gatewayOrder = new GatewayOrder(OrderRequestType.AUTHORISE, worldpayRequestBody,
                 MediaType.APPLICATION_XML_TYPE);
@@ -1014,7 +1016,7 @@ class WorldpayAuthoriseHandlerTest {
 
     private GatewayClient createGatewayClient(Client mockClient) {
         ClientFactory mockClientFactory = mock(ClientFactory.class);
-        GatewayClientFactory gatewayClientFactory = new GatewayClientFactory(mockClientFactory);
+        GatewayClientFactory gatewayClientFactory = new GatewayClientFactory(mockClientFactory, new GatewayBulkheads(new GatewayBulkheadConfig()));
         when(mockClientFactory.createWithDropwizardClient(eq(PaymentGatewayName.WORLDPAY), any(GatewayOperation.class), any(MetricRegistry.class)))
                 .thenReturn(mockClient);
         MetricRegistry mockMetricRegistry = mock(MetricRegistry.class);
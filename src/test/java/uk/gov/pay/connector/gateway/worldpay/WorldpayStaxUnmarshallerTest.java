@@ -0,0 +1,122 @@
+package uk.gov.pay.connector.gateway.worldpay;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import uk.gov.pay.connector.gateway.util.XMLUnmarshaller;
+import uk.gov.pay.connector.gateway.util.XMLUnmarshallerException;
+import uk.gov.pay.connector.util.TestTemplateResourceLoader;
+
+import java.io.ByteArrayInputStream;
+import java.io.StringReader;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static uk.gov.pay.connector.util.TestTemplateResourceLoader.WORLDPAY_NOTIFICATION;
+
+class WorldpayStaxUnmarshallerTest {
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "templates/worldpay/authorisation-success-response.xml",
+            "templates/worldpay/authorisation-success-response-with-invalid-expiry-year.xml",
+            "templates/worldpay/authorisation-success-response-with-missing-expiry-date.xml",
+            "templates/worldpay/authorisation-create-token-success-response-with-transaction-identifier.xml",
+            "templates/worldpay/authorisation-create-token-success-response-without-transaction-identifier.xml",
+            "templates/worldpay/authorisation-error-response.xml",
+            "templates/worldpay/authorisation-failed-response.xml",
+            "templates/worldpay/authorisation-failed-response-user-not-present-payment-non-retriable.xml",
+            "templates/worldpay/authorisation-cancelled-response.xml",
+            "templates/worldpay/authorisation-pares-parse-error-response.xml",
+            "templates/worldpay/exemption-request-honoured-response.xml",
+            "templates/worldpay/exemption-request-decline-response.xml",
+            "templates/worldpay/exemption-request-rejected-authorised-response.xml",
+            "templates/worldpay/exemption-request-soft-decline-result-out-of-scope-response.xml",
+            "templates/worldpay/exemption-request-soft-decline-result-rejected-response.xml",
+            "templates/worldpay/3ds-response.xml",
+            "templates/worldpay/3ds-flex-response.xml",
+            "templates/worldpay/error-response.xml"
+    })
+    void shouldUnmarshallOrderStatusResponseIdenticallyToJaxb(String fixture) throws Exception {
+        String payload = TestTemplateResourceLoader.load(fixture);
+
+        WorldpayOrderStatusResponse expected = XMLUnmarshaller.unmarshall(payload, WorldpayOrderStatusResponse.class);
+        WorldpayOrderStatusResponse actual = WorldpayStaxUnmarshaller.unmarshallOrderStatusResponse(new StringReader(payload));
+
+        assertThat(actual.getTransactionId(), is(expected.getTransactionId()));
+        assertThat(actual.getLastEvent(), is(expected.getLastEvent()));
+        assertThat(actual.authoriseStatus(), is(expected.authoriseStatus()));
+        assertThat(actual.getErrorCode(), is(expected.getErrorCode()));
+        assertThat(actual.getErrorMessage(), is(expected.getErrorMessage()));
+        assertThat(actual.getRefusedReturnCode(), is(expected.getRefusedReturnCode()));
+        assertThat(actual.getRefusedReturnCodeDescription(), is(expected.getRefusedReturnCodeDescription()));
+        assertThat(actual.getPaRequest(), is(expected.getPaRequest()));
+        assertThat(actual.getIssuerUrl(), is(expected.getIssuerUrl()));
+        assertThat(actual.getChallengeAcsUrl(), is(expected.getChallengeAcsUrl()));
+        assertThat(actual.getChallengeTransactionId(), is(expected.getChallengeTransactionId()));
+        assertThat(actual.getChallengePayload(), is(expected.getChallengePayload()));
+        assertThat(actual.getThreeDsVersion(), is(expected.getThreeDsVersion()));
+        assertThat(actual.getExemptionResponseResult(), is(expected.getExemptionResponseResult()));
+        assertThat(actual.getExemptionResponseReason(), is(expected.getExemptionResponseReason()));
+        assertThat(actual.getGatewayRecurringAuthToken(), is(expected.getGatewayRecurringAuthToken()));
+        assertThat(actual.getCardExpiryDate(), is(expected.getCardExpiryDate()));
+        assertThat(actual.toString(), is(expected.toString()));
+    }
+
+    @Test
+    void shouldUnmarshallNotificationIdenticallyToJaxb() throws Exception {
+        String payload = TestTemplateResourceLoader.load(WORLDPAY_NOTIFICATION)
+                .replace("{{transactionId}}", "transaction-id")
+                .replace("{{status}}", "REFUND_FAILED")
+                .replace("{{description}}", "Refund failed")
+                .replace("{{refund-ref}}", "capture-ref")
+                .replace("{{refund-authorisation-reference}}", "refund-authorisation-reference")
+                .replace("{{refund-response-reference}}", "refund-response-reference")
+                .replace("{{bookingDateDay}}", "10")
+                .replace("{{bookingDateMonth}}", "01")
+                .replace("{{bookingDateYear}}", "2017");
+
+        WorldpayNotification expected = XMLUnmarshaller.unmarshall(payload, WorldpayNotification.class);
+        WorldpayNotification actual = WorldpayStaxUnmarshaller.unmarshallNotification(new ByteArrayInputStream(payload.getBytes(UTF_8)));
+
+        assertThat(actual.getMerchantCode(), is("MERCHANTCODE"));
+        assertThat(actual.getTransactionId(), is("transaction-id"));
+        assertThat(actual.getStatus(), is("REFUND_FAILED"));
+        assertThat(actual.getRefundFailedDescription(), is("Refund failed"));
+        assertThat(actual.getReference(), is("capture-ref"));
+        assertThat(actual.getRefundAuthorisationReference(), is("refund-authorisation-reference"));
+        assertThat(actual.getRefundResponseReference(), is("refund-response-reference"));
+        assertThat(actual.getBookingDate(), is(expected.getBookingDate()));
+        assertThat(actual.toString(), is(expected.toString()));
+    }
+
+    @Test
+    void shouldFailToUnmarshallNotification_whenItReferencesAnEntity() {
+        String payload = "<!DOCTYPE foo [" +
+                "<!ENTITY a \"1234567890\" >" +
+                "<!ENTITY mrdanger \"&a;&a;&a;&a;&a;&a;&a;&a;&a;&a;\" >" +
+                "]> " +
+                "<paymentService merchantCode=\"&mrdanger;\"/>";
+
+        assertThrows(XMLUnmarshallerException.class,
+                () -> WorldpayStaxUnmarshaller.unmarshallNotification(new ByteArrayInputStream(payload.getBytes(UTF_8))));
+    }
+
+    @Test
+    void shouldFailToUnmarshallNotification_whenBookingDateIsNotANumber() {
+        String payload = "<paymentService merchantCode=\"MERCHANTCODE\"><notify><orderStatusEvent orderCode=\"transaction-id\">" +
+                "<journal journalType=\"CAPTURED\"><bookingDate><date dayOfMonth=\"ten\" month=\"01\" year=\"2017\"/></bookingDate></journal>" +
+                "</orderStatusEvent></notify></paymentService>";
+
+        assertThrows(XMLUnmarshallerException.class,
+                () -> WorldpayStaxUnmarshaller.unmarshallNotification(new ByteArrayInputStream(payload.getBytes(UTF_8))));
+    }
+
+    @Test
+    void shouldFailToUnmarshallOrderStatusResponse_whenXmlIsNotWellFormed() {
+        assertThrows(XMLUnmarshallerException.class,
+                () -> WorldpayStaxUnmarshaller.unmarshallOrderStatusResponse(new StringReader("<paymentService><reply>")));
+    }
+}
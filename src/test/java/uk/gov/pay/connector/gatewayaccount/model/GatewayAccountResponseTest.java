@@ -11,6 +11,9 @@ import java.util.List;
 import java.util.Map;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
 import static org.hamcrest.core.Is.is;
 import static uk.gov.pay.connector.gateway.PaymentGatewayName.SANDBOX;
 import static uk.gov.pay.connector.gatewayaccount.model.Worldpay3dsFlexCredentialsEntity.Worldpay3dsFlexCredentialsEntityBuilder.aWorldpay3dsFlexCredentialsEntity;
@@ -80,6 +83,8 @@ class GatewayAccountResponseTest {
         assertThat(dto.getEmailCollectionMode(), is(entity.getEmailCollectionMode()));
         assertThat(dto.getEmailNotifications().size(), is(1));
         assertThat(dto.getEmailNotifications().get(EmailNotificationType.PAYMENT_CONFIRMED).getTemplateBody(), is("testTemplate"));
+        assertThat(dto.getEmailNotifications().get(EmailNotificationType.PAYMENT_CONFIRMED).getAccountEntity(), is(nullValue()));
+        assertThat(dto.getEmailNotifications().get(EmailNotificationType.PAYMENT_CONFIRMED), is(not(sameInstance(emailNotifications.get(EmailNotificationType.PAYMENT_CONFIRMED)))));
         assertThat(dto.getIntegrationVersion3ds(), is(entity.getIntegrationVersion3ds()));
         assertThat(dto.isBlockPrepaidCards(), is(entity.isBlockPrepaidCards()));
         assertThat(dto.isAllowMoto(), is(entity.isAllowMoto()));
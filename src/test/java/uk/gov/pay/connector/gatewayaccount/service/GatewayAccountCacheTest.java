@@ -0,0 +1,158 @@
+package uk.gov.pay.connector.gatewayaccount.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import uk.gov.pay.connector.app.config.GatewayAccountCacheConfig;
+import uk.gov.pay.connector.cardtype.model.domain.CardTypeEntity;
+import uk.gov.pay.connector.gatewayaccount.dao.GatewayAccountDao;
+import uk.gov.pay.connector.gatewayaccount.model.GatewayAccountEntity;
+import uk.gov.pay.connector.gatewayaccount.model.GatewayAccountSnapshot;
+import uk.gov.pay.connector.usernotification.model.domain.EmailNotificationEntity;
+import uk.gov.pay.connector.util.PostgresNotificationListener;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static uk.gov.pay.connector.gatewayaccount.model.GatewayAccountEntityFixture.aGatewayAccountEntity;
+import static uk.gov.pay.connector.gatewayaccountcredentials.model.GatewayAccountCredentialState.ACTIVE;
+import static uk.gov.pay.connector.gatewayaccountcredentials.model.GatewayAccountCredentialsEntityFixture.aGatewayAccountCredentialsEntity;
+import static uk.gov.pay.connector.usernotification.model.domain.EmailNotificationType.PAYMENT_CONFIRMED;
+
+@ExtendWith(MockitoExtension.class)
+class GatewayAccountCacheTest {
+
+    private static final long GATEWAY_ACCOUNT_ID = 42L;
+    private static final String EXTERNAL_ID = "a-gateway-account-external-id";
+
+    @Mock
+    private GatewayAccountDao gatewayAccountDao;
+    @Mock
+    private PostgresNotificationListener postgresNotificationListener;
+
+    private GatewayAccountEntity gatewayAccountEntity;
+
+    @BeforeEach
+    void setUp() {
+        gatewayAccountEntity = aGatewayAccountEntity().withId(GATEWAY_ACCOUNT_ID).withServiceName("Old name").build();
+        gatewayAccountEntity.setExternalId(EXTERNAL_ID);
+        gatewayAccountEntity.setGatewayAccountCredentials(List.of(aGatewayAccountCredentialsEntity()
+                .withGatewayAccountEntity(gatewayAccountEntity)
+                .withState(ACTIVE)
+                .build()));
+    }
+
+    @Test
+    void shouldReadGatewayAccountFromDatabaseOnlyOnce() {
+        when(gatewayAccountDao.findById(GATEWAY_ACCOUNT_ID)).thenReturn(Optional.of(gatewayAccountEntity));
+        GatewayAccountCache cache = aCache();
+
+        Optional<GatewayAccountSnapshot> first = cache.getById(GATEWAY_ACCOUNT_ID);
+        Optional<GatewayAccountSnapshot> second = cache.getById(GATEWAY_ACCOUNT_ID);
+
+        assertThat(first.get().gatewayAccount().getServiceName(), is("Old name"));
+        assertThat(second.get(), is(first.get()));
+        verify(gatewayAccountDao).findById(GATEWAY_ACCOUNT_ID);
+    }
+
+    @Test
+    void shouldCopyCardTypesAndEmailNotificationsOutOfGatewayAccountEntity() {
+        CardTypeEntity visa = new CardTypeEntity();
+        visa.setBrand("visa");
+        gatewayAccountEntity.setCardTypes(List.of(visa));
+        gatewayAccountEntity.setEmailNotifications(Map.of(PAYMENT_CONFIRMED, new EmailNotificationEntity(gatewayAccountEntity, "template", true)));
+        when(gatewayAccountDao.findById(GATEWAY_ACCOUNT_ID)).thenReturn(Optional.of(gatewayAccountEntity));
+
+        GatewayAccountSnapshot snapshot = aCache().getById(GATEWAY_ACCOUNT_ID).get();
+
+        assertThat(snapshot.cardTypes().getFirst().getBrand(), is("visa"));
+        assertThat(snapshot.cardTypes().getFirst(), is(not(sameInstance(visa))));
+        EmailNotificationEntity emailNotification = snapshot.gatewayAccount().getEmailNotifications().get(PAYMENT_CONFIRMED);
+        assertThat(emailNotification.getTemplateBody(), is("template"));
+        assertThat(emailNotification.getAccountEntity(), is(nullValue()));
+    }
+
+    @Test
+    void shouldReadGatewayAccountByExternalIdFromCacheOnceItsIdIsKnown() {
+        when(gatewayAccountDao.findByExternalId(EXTERNAL_ID)).thenReturn(Optional.of(gatewayAccountEntity));
+        GatewayAccountCache cache = aCache();
+
+        cache.getByExternalId(EXTERNAL_ID);
+        Optional<GatewayAccountSnapshot> snapshot = cache.getByExternalId(EXTERNAL_ID);
+
+        assertThat(snapshot.get().id(), is(GATEWAY_ACCOUNT_ID));
+        verify(gatewayAccountDao).findByExternalId(EXTERNAL_ID);
+        verify(gatewayAccountDao, never()).findById(any());
+    }
+
+    @Test
+    void shouldNotCacheGatewayAccountThatIsNotFound() {
+        when(gatewayAccountDao.findById(GATEWAY_ACCOUNT_ID)).thenReturn(Optional.empty());
+        GatewayAccountCache cache = aCache();
+
+        cache.getById(GATEWAY_ACCOUNT_ID);
+        cache.getById(GATEWAY_ACCOUNT_ID);
+
+        verify(gatewayAccountDao, times(2)).findById(GATEWAY_ACCOUNT_ID);
+    }
+
+    @Test
+    void shouldReadGatewayAccountAgainAfterItIsInvalidated() {
+        when(gatewayAccountDao.findById(GATEWAY_ACCOUNT_ID)).thenReturn(Optional.of(gatewayAccountEntity));
+        GatewayAccountCache cache = aCache();
+        cache.getById(GATEWAY_ACCOUNT_ID);
+
+        gatewayAccountEntity.setServiceName("New name");
+        cache.invalidate(GATEWAY_ACCOUNT_ID);
+
+        assertThat(cache.getById(GATEWAY_ACCOUNT_ID).get().gatewayAccount().getServiceName(), is("New name"));
+        verify(gatewayAccountDao, never()).sendNotification(anyString(), anyString());
+    }
+
+    @Test
+    void shouldNotifyAllNodesWhenListeningIsEnabled() {
+        when(postgresNotificationListener.isEnabled()).thenReturn(true);
+        GatewayAccountCache cache = aCache();
+
+        cache.invalidate(GATEWAY_ACCOUNT_ID);
+
+        verify(gatewayAccountDao).sendNotification("gateway_account_changed", "42");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldReadGatewayAccountAgainAfterChangeNotificationIsReceived() {
+        when(postgresNotificationListener.isEnabled()).thenReturn(true);
+        when(gatewayAccountDao.findById(GATEWAY_ACCOUNT_ID)).thenReturn(Optional.of(gatewayAccountEntity));
+        GatewayAccountCache cache = aCache();
+        ArgumentCaptor<Consumer<String>> onNotification = ArgumentCaptor.forClass(Consumer.class);
+        verify(postgresNotificationListener).subscribe(eq("gateway_account_changed"), onNotification.capture(), any());
+        cache.getById(GATEWAY_ACCOUNT_ID);
+
+        onNotification.getValue().accept("42");
+        cache.getById(GATEWAY_ACCOUNT_ID);
+
+        verify(gatewayAccountDao, times(2)).findById(GATEWAY_ACCOUNT_ID);
+    }
+
+    private GatewayAccountCache aCache() {
+        return new GatewayAccountCache(gatewayAccountDao, new GatewayAccountCacheConfig(100, 300), postgresNotificationListener);
+    }
+}
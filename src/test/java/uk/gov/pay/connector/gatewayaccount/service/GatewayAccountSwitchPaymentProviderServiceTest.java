@@ -31,6 +31,7 @@ import static java.lang.String.format;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static uk.gov.pay.connector.gatewayaccount.model.GatewayAccountEntityFixture.aGatewayAccountEntity;
@@ -56,7 +57,8 @@ class GatewayAccountSwitchPaymentProviderServiceTest {
 
     @BeforeEach
     void setUp() {
-        gatewayAccountSwitchPaymentProviderService = new GatewayAccountSwitchPaymentProviderService(mockGatewayAccountDao, mockGatewayAccountCredentialsDao);
+        gatewayAccountSwitchPaymentProviderService = new GatewayAccountSwitchPaymentProviderService(mockGatewayAccountDao, mockGatewayAccountCredentialsDao,
+                mock(GatewayAccountCache.class));
         gatewayAccountEntity = aGatewayAccountEntity().build();
         request = new GatewayAccountSwitchPaymentProviderRequest(randomUuid(), randomUuid());
     }
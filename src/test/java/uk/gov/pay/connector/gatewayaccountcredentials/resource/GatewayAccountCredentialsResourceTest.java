@@ -16,6 +16,7 @@ import uk.gov.pay.connector.gateway.worldpay.WorldpayCredentialsValidationServic
 import uk.gov.pay.connector.gatewayaccount.model.GatewayAccountEntity;
 import uk.gov.pay.connector.gatewayaccount.model.GatewayAccountType;
 import uk.gov.pay.connector.gatewayaccount.model.WorldpayValidatableCredentials;
+import uk.gov.pay.connector.gatewayaccount.service.GatewayAccountCache;
 import uk.gov.pay.connector.gatewayaccount.service.GatewayAccountService;
 import uk.gov.pay.connector.gatewayaccount.service.Worldpay3dsFlexCredentialsService;
 import uk.gov.pay.connector.gatewayaccountcredentials.dao.GatewayAccountCredentialsDao;
@@ -55,7 +56,7 @@ public class GatewayAccountCredentialsResourceTest {
     public static ResourceExtension resources = ResourceExtension.builder()
             .addResource(new GatewayAccountCredentialsResource(
                     gatewayAccountService,
-                    new GatewayAccountCredentialsService(credentialDao, new ObjectMapper()),
+                    new GatewayAccountCredentialsService(credentialDao, new ObjectMapper(), mock(GatewayAccountCache.class)),
                     worldpay3dsFlexCredentialsService,
                     worldpay3dsFlexCredentialsValidationService,
                     worldpayCredentialsValidationService,
@@ -6,6 +6,7 @@ import org.apache.hc.core5.http.HttpStatus;
 import org.junit.Ignore;
 import org.junit.Rule;
 import org.junit.Test;
+import uk.gov.pay.connector.gateway.GatewayBulkheads;
 import uk.gov.pay.connector.gateway.GatewayClient;
 import uk.gov.pay.connector.gateway.GatewayOrder;
 import uk.gov.pay.connector.gateway.model.OrderRequestType;
@@ -90,6 +91,7 @@ public class GooglePayForWorldpayTest {
 
     private GatewayClient getGatewayClient() {
         Environment environment = app.getInstanceFromGuiceContainer(Environment.class);
-        return new GatewayClient(ClientBuilder.newClient(), environment.metrics());
+        return new GatewayClient(ClientBuilder.newClient(), environment.metrics(),
+                app.getInstanceFromGuiceContainer(GatewayBulkheads.class));
     }
 }
@@ -42,6 +42,7 @@ import static java.time.temporal.ChronoUnit.MICROS;
 import static java.time.temporal.ChronoUnit.MILLIS;
 import static junit.framework.TestCase.assertTrue;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.hasProperty;
@@ -983,6 +984,35 @@ public class ChargeDaoIT {
         assertThat(charges.getFirst().getParityCheckStatus(), is(ParityCheckStatus.MISSING_IN_LEDGER));
     }
 
+    @Test
+    void updateParityCheckStatus_shouldUpdateAllGivenChargesInOneStatement() {
+        TestCharge firstCharge = app.getDatabaseFixtures()
+                .aTestCharge()
+                .withTestAccount(defaultTestAccount)
+                .withParityCheckStatus(ParityCheckStatus.MISSING_IN_LEDGER)
+                .insert();
+        TestCharge secondCharge = app.getDatabaseFixtures()
+                .aTestCharge()
+                .withTestAccount(defaultTestAccount)
+                .withParityCheckStatus(ParityCheckStatus.MISSING_IN_LEDGER)
+                .insert();
+        TestCharge chargeNotChecked = app.getDatabaseFixtures()
+                .aTestCharge()
+                .withTestAccount(defaultTestAccount)
+                .withParityCheckStatus(ParityCheckStatus.MISSING_IN_LEDGER)
+                .insert();
+
+        int updated = chargeDao.updateParityCheckStatus(List.of(firstCharge.getChargeId(), secondCharge.getChargeId()),
+                now(ZoneId.of("UTC")), ParityCheckStatus.EXISTS_IN_LEDGER);
+
+        assertThat(updated, is(2));
+        var existingInLedger = chargeDao.findByParityCheckStatus(ParityCheckStatus.EXISTS_IN_LEDGER, 10, 0L);
+        assertThat(existingInLedger.stream().map(ChargeEntity::getId).toList(),
+                containsInAnyOrder(firstCharge.getChargeId(), secondCharge.getChargeId()));
+        var missingInLedger = chargeDao.findByParityCheckStatus(ParityCheckStatus.MISSING_IN_LEDGER, 10, 0L);
+        assertThat(missingInLedger.stream().map(ChargeEntity::getId).toList(), contains(chargeNotChecked.getChargeId()));
+    }
+
     @Test
     void findChargeToExpunge_shouldReturnChargeReadyForExpunging() {
         TestCharge chargeToExpunge = app.getDatabaseFixtures()
@@ -1036,6 +1066,50 @@ public class ChargeDaoIT {
         assertThat(chargeToExpungeFromDB.getCreatedDate(), is(chargeToExpunge.getCreatedDate()));
     }
 
+    @Test
+    void findChargesToExpunge_shouldReturnChargesAfterTheGivenCreatedDateAndIdInCreatedDateOrder() {
+        TestCharge oldestCharge = insertChargeToExpunge(Instant.now().truncatedTo(MICROS).minus(Duration.ofDays(90)));
+        TestCharge olderCharge = insertChargeToExpunge(Instant.now().truncatedTo(MICROS).minus(Duration.ofDays(80)));
+        TestCharge oldCharge = insertChargeToExpunge(Instant.now().truncatedTo(MICROS).minus(Duration.ofDays(70)));
+        app.getDatabaseFixtures()
+                .aTestCharge()
+                .withTestAccount(defaultTestAccount)
+                .withCreatedDate(Instant.now().minus(Duration.ofDays(60)))
+                .withParityCheckStatus(ParityCheckStatus.MISSING_IN_LEDGER)
+                .withParityCheckDate(now(ZoneId.of("UTC")).minusDays(1))
+                .insert();
+
+        List<ChargeEntity> firstBatch = chargeDao.findChargesToExpunge(5, 7, Instant.EPOCH, 0L, 2);
+        assertThat(firstBatch.stream().map(ChargeEntity::getId).toList(),
+                contains(oldestCharge.getChargeId(), olderCharge.getChargeId()));
+
+        ChargeEntity lastOfFirstBatch = firstBatch.getLast();
+        List<ChargeEntity> secondBatch = chargeDao.findChargesToExpunge(5, 7, lastOfFirstBatch.getCreatedDate(),
+                lastOfFirstBatch.getId(), 2);
+        assertThat(secondBatch.stream().map(ChargeEntity::getId).toList(), contains(oldCharge.getChargeId()));
+    }
+
+    @Test
+    void expungeCharges_shouldDeleteAllGivenChargesAndTheirRelatedRecords() {
+        TestCharge firstCharge = insertChargeWithRelatedRecords();
+        TestCharge secondCharge = insertChargeWithRelatedRecords();
+        TestCharge chargeToKeep = insertChargeWithRelatedRecords();
+
+        chargeDao.expungeCharges(List.of(firstCharge.getChargeId(), secondCharge.getChargeId()),
+                List.of(firstCharge.getExternalChargeId(), secondCharge.getExternalChargeId()));
+
+        for (TestCharge expungedCharge : List.of(firstCharge, secondCharge)) {
+            assertThat(app.getDatabaseTestHelper().containsChargeWithExternalId(expungedCharge.getExternalChargeId()), is(false));
+            assertThat(app.getDatabaseTestHelper().getChargeEvents(expungedCharge.getChargeId()), hasSize(0));
+            assertThat(app.getDatabaseTestHelper().getFeesByChargeId(expungedCharge.getChargeId()), hasSize(0));
+            assertThat(app.getDatabaseTestHelper().containsEmittedEventWithExternalId(expungedCharge.getExternalChargeId()), is(false));
+        }
+        assertThat(app.getDatabaseTestHelper().containsChargeWithExternalId(chargeToKeep.getExternalChargeId()), is(true));
+        assertThat(app.getDatabaseTestHelper().getChargeEvents(chargeToKeep.getChargeId()), hasSize(1));
+        assertThat(app.getDatabaseTestHelper().getFeesByChargeId(chargeToKeep.getChargeId()), hasSize(1));
+        assertThat(app.getDatabaseTestHelper().containsEmittedEventWithExternalId(chargeToKeep.getExternalChargeId()), is(true));
+    }
+
     @Test
     void shouldFindChargesWithPaymentProviderAndStatuses() {
         DatabaseFixtures.TestAccount epdqAccount = insertTestAccountWithProvider("epdq");
@@ -1344,4 +1418,26 @@ public class ChargeDaoIT {
                 .withTestCharge(defaultTestCharge)
                 .insert();
     }
+
+    private TestCharge insertChargeToExpunge(Instant createdDate) {
+        return app.getDatabaseFixtures()
+                .aTestCharge()
+                .withTestAccount(defaultTestAccount)
+                .withCreatedDate(createdDate)
+                .withParityCheckStatus(ParityCheckStatus.MISSING_IN_LEDGER)
+                .insert();
+    }
+
+    private TestCharge insertChargeWithRelatedRecords() {
+        TestCharge charge = app.getDatabaseFixtures()
+                .aTestCharge()
+                .withTestAccount(defaultTestAccount)
+                .insert();
+        app.getDatabaseFixtures().aTestChargeEvent().withTestCharge(charge).withChargeStatus(CREATED).insert();
+        app.getDatabaseFixtures().aTestToken().withCharge(charge).insert();
+        app.getDatabaseFixtures().aTestFee().withTestCharge(charge).insert();
+        app.getDatabaseTestHelper().addEmittedEvent("payment", charge.getExternalChargeId(), Instant.now(),
+                "PAYMENT_CREATED", Instant.now(), null);
+        return charge;
+    }
 }
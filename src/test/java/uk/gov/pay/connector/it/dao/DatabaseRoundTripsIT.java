@@ -0,0 +1,200 @@
+package uk.gov.pay.connector.it.dao;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.eclipse.persistence.descriptors.ClassDescriptor;
+import org.eclipse.persistence.jpa.JpaHelper;
+import org.eclipse.persistence.sequencing.Sequence;
+import org.eclipse.persistence.sessions.server.Server;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import uk.gov.pay.connector.charge.dao.ChargeDao;
+import uk.gov.pay.connector.charge.model.domain.ChargeEntity;
+import uk.gov.pay.connector.charge.service.ChargeService;
+import uk.gov.pay.connector.extension.AppWithPostgresAndSqsExtension;
+import uk.gov.pay.connector.gatewayaccount.model.GatewayAccountEntity;
+import uk.gov.pay.connector.gatewayaccountcredentials.model.GatewayAccountCredentialsEntity;
+import uk.gov.pay.connector.util.SqlStatementCounter;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static uk.gov.pay.connector.charge.model.domain.ChargeEntityFixture.aValidChargeEntity;
+import static uk.gov.pay.connector.charge.model.domain.ChargeStatus.ENTERING_CARD_DETAILS;
+import static uk.gov.pay.connector.gatewayaccount.model.GatewayAccountType.TEST;
+import static uk.gov.pay.connector.gatewayaccountcredentials.model.GatewayAccountCredentialState.ACTIVE;
+import static uk.gov.pay.connector.gatewayaccountcredentials.model.GatewayAccountCredentialsEntityFixture.aGatewayAccountCredentialsEntity;
+import static uk.gov.pay.connector.util.RandomTestDataGeneratorUtils.secureRandomLong;
+
+/**
+ * Counts the statements sent to the database to create a charge and to transition its state, and how many of
+ * them take an id from a sequence, first taking ids one at a time without batch writing and then taking ids in
+ * blocks with batch writing. Both counts are logged so they can be compared between changes to the JPA
+ * configuration.
+ */
+public class DatabaseRoundTripsIT {
+    @RegisterExtension
+    public static AppWithPostgresAndSqsExtension app = new AppWithPostgresAndSqsExtension(SqlStatementCounter.profilerConfig());
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DatabaseRoundTripsIT.class);
+    private static final int NUMBER_OF_CHARGES = 20;
+    private static final String NEXTVAL = ".*nextval.*";
+
+    private ChargeDao chargeDao;
+    private ChargeService chargeService;
+    private Server serverSession;
+    private Map<Sequence, Integer> preallocationSizes;
+    private GatewayAccountEntity gatewayAccount;
+    private GatewayAccountCredentialsEntity gatewayAccountCredentialsEntity;
+
+    @BeforeEach
+    void setUp() {
+        chargeDao = app.getInstanceFromGuiceContainer(ChargeDao.class);
+        chargeService = app.getInstanceFromGuiceContainer(ChargeService.class);
+        serverSession = JpaHelper.getServerSession(app.getInstanceFromGuiceContainer(EntityManagerFactory.class));
+        preallocationSizes = new IdentityHashMap<>();
+        sequences().forEach(sequence -> preallocationSizes.put(sequence, sequence.getPreallocationSize()));
+
+        DatabaseFixtures.TestAccount testAccount = app.getDatabaseFixtures()
+                .aTestAccount()
+                .withAccountId(secureRandomLong())
+                .insert();
+        gatewayAccount = new GatewayAccountEntity(TEST);
+        gatewayAccount.setId(testAccount.getAccountId());
+        gatewayAccountCredentialsEntity = aGatewayAccountCredentialsEntity()
+                .withCredentials(Map.of())
+                .withGatewayAccountEntity(gatewayAccount)
+                .withPaymentProvider(testAccount.getPaymentProvider())
+                .withState(ACTIVE)
+                .build();
+        gatewayAccountCredentialsEntity.setId(testAccount.getCredentials().getFirst().getId());
+    }
+
+    @AfterEach
+    void tearDown() {
+        SqlStatementCounter.stopCounting();
+        useIdBlocksAndBatchWriting(true);
+    }
+
+    @Test
+    void shouldTakeChargeIdsFromSequenceInBlocks() {
+        StatementCounts oneAtATime = countStatements(false, () -> {
+            for (int i = 0; i < NUMBER_OF_CHARGES; i++) {
+                chargeDao.persist(aCharge());
+            }
+        });
+        StatementCounts inBlocks = countStatements(true, () -> {
+            for (int i = 0; i < NUMBER_OF_CHARGES; i++) {
+                chargeDao.persist(aCharge());
+            }
+        });
+
+        LOGGER.info("Creating a charge took {} statements, of which {} took an id from a sequence, with ids taken one " +
+                        "at a time and {} statements, of which {} took an id from a sequence, with ids taken in blocks",
+                oneAtATime.perCharge(), oneAtATime.sequenceCallsPerCharge(), inBlocks.perCharge(), inBlocks.sequenceCallsPerCharge());
+        assertThat(oneAtATime.sequenceCalls(), is(greaterThanOrEqualTo((long) NUMBER_OF_CHARGES)));
+        assertThat(inBlocks.sequenceCalls(), is(lessThanOrEqualTo((long) blocksNeeded("charges_charge_id_seq"))));
+        assertThat(inBlocks.sequenceCalls(), is(lessThan(oneAtATime.sequenceCalls())));
+        assertThat(inBlocks.statements(), is(lessThanOrEqualTo(NUMBER_OF_CHARGES + inBlocks.sequenceCalls())));
+        assertThat(inBlocks.statements(), is(lessThan(oneAtATime.statements())));
+    }
+
+    @Test
+    void shouldTakeChargeEventAndOutboxIdsFromSequencesInBlocksWhenTransitioningChargeState() {
+        List<String> chargeExternalIds = new ArrayList<>();
+        for (int i = 0; i < NUMBER_OF_CHARGES * 2; i++) {
+            ChargeEntity charge = aCharge();
+            chargeDao.persist(charge);
+            chargeExternalIds.add(charge.getExternalId());
+        }
+
+        StatementCounts oneAtATime = countStatements(false, () -> chargeExternalIds.subList(0, NUMBER_OF_CHARGES)
+                .forEach(externalId -> chargeService.transitionChargeState(externalId, ENTERING_CARD_DETAILS)));
+        StatementCounts inBlocks = countStatements(true, () -> chargeExternalIds.subList(NUMBER_OF_CHARGES, NUMBER_OF_CHARGES * 2)
+                .forEach(externalId -> chargeService.transitionChargeState(externalId, ENTERING_CARD_DETAILS)));
+
+        LOGGER.info("Transitioning the state of a charge took {} statements, of which {} took an id from a sequence, " +
+                        "with ids taken one at a time and {} statements, of which {} took an id from a sequence, with ids taken in blocks",
+                oneAtATime.perCharge(), oneAtATime.sequenceCallsPerCharge(), inBlocks.perCharge(), inBlocks.sequenceCallsPerCharge());
+        assertThat(inBlocks.sequenceCalls(), is(lessThanOrEqualTo(
+                (long) blocksNeeded("charge_events_id_seq") + blocksNeeded("state_transition_outbox_id_seq"))));
+        assertThat(inBlocks.sequenceCalls(), is(lessThan(oneAtATime.sequenceCalls())));
+        assertThat(inBlocks.statements(), is(lessThan(oneAtATime.statements())));
+    }
+
+    private StatementCounts countStatements(boolean idBlocksAndBatchWriting, Runnable operation) {
+        useIdBlocksAndBatchWriting(idBlocksAndBatchWriting);
+        SqlStatementCounter.countStatementsOn(onThisThread());
+        try {
+            operation.run();
+            return new StatementCounts(SqlStatementCounter.statements().size(), SqlStatementCounter.statementsMatching(NEXTVAL));
+        } finally {
+            SqlStatementCounter.stopCounting();
+        }
+    }
+
+    /**
+     * Switches between the configured id blocks and batch writing and taking ids one at a time without batch writing.
+     * Resetting sequencing drops any ids left in blocks already taken, so each count starts with a new block.
+     */
+    private void useIdBlocksAndBatchWriting(boolean enabled) {
+        serverSession.getLogin().setUsesBatchWriting(enabled);
+        preallocationSizes.forEach((sequence, preallocationSize) -> sequence.setPreallocationSize(enabled ? preallocationSize : 1));
+        serverSession.getSequencingControl().resetSequencing();
+    }
+
+    private Stream<Sequence> sequences() {
+        return Stream.concat(serverSession.getLogin().getSequences().values().stream(),
+                        serverSession.getDescriptors().values().stream().map(ClassDescriptor::getSequence))
+                .filter(Objects::nonNull);
+    }
+
+    private static Predicate<Thread> onThisThread() {
+        Thread thisThread = Thread.currentThread();
+        return thread -> thread == thisThread;
+    }
+
+    private ChargeEntity aCharge() {
+        return aValidChargeEntity()
+                .withId(null)
+                .withGatewayAccountEntity(gatewayAccount)
+                .withGatewayAccountCredentialsEntity(gatewayAccountCredentialsEntity)
+                .build();
+    }
+
+    private record StatementCounts(long statements, long sequenceCalls) {
+        double perCharge() {
+            return (double) statements / NUMBER_OF_CHARGES;
+        }
+
+        double sequenceCallsPerCharge() {
+            return (double) sequenceCalls / NUMBER_OF_CHARGES;
+        }
+    }
+
+    /**
+     * A block taken before the test may not have been used up, so creating the rows can need one more block than
+     * the number of rows divided by the block size.
+     */
+    private int blocksNeeded(String sequenceName) {
+        int blockSize = app.getJdbi().withHandle(handle -> handle
+                .createQuery("SELECT increment_by FROM pg_sequences WHERE sequencename = :sequenceName")
+                .bind("sequenceName", sequenceName)
+                .mapTo(Integer.class)
+                .one());
+        return NUMBER_OF_CHARGES / blockSize + 1;
+    }
+}
@@ -0,0 +1,70 @@
+package uk.gov.pay.connector.it.dao;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.inject.persist.UnitOfWork;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import uk.gov.pay.connector.cardtype.model.domain.CardTypeEntity;
+import uk.gov.pay.connector.extension.AppWithPostgresAndSqsExtension;
+import uk.gov.pay.connector.gatewayaccount.model.GatewayAccountSnapshot;
+import uk.gov.pay.connector.gatewayaccount.service.GatewayAccountCache;
+
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static uk.gov.pay.connector.usernotification.model.domain.EmailNotificationType.PAYMENT_CONFIRMED;
+import static uk.gov.pay.connector.usernotification.model.domain.EmailNotificationType.REFUND_ISSUED;
+
+public class GatewayAccountSnapshotIT {
+    @RegisterExtension
+    public static AppWithPostgresAndSqsExtension app = new AppWithPostgresAndSqsExtension();
+
+    private GatewayAccountCache gatewayAccountCache;
+    private UnitOfWork unitOfWork;
+    private ObjectMapper objectMapper;
+    private DatabaseFixtures databaseFixtures;
+
+    @BeforeEach
+    void setUp() {
+        gatewayAccountCache = app.getInstanceFromGuiceContainer(GatewayAccountCache.class);
+        unitOfWork = app.getInstanceFromGuiceContainer(UnitOfWork.class);
+        objectMapper = app.getInstanceFromGuiceContainer(ObjectMapper.class);
+        databaseFixtures = app.getDatabaseFixtures();
+        gatewayAccountCache.invalidateAll();
+    }
+
+    @Test
+    void shouldSerialiseCachedSnapshotAfterEntityManagerThatLoadedItHasClosed() throws Exception {
+        CardTypeEntity mastercardCredit = app.getDatabaseTestHelper().getMastercardCreditCard();
+        CardTypeEntity visaCredit = app.getDatabaseTestHelper().getVisaCreditCard();
+        DatabaseFixtures.TestAccount testAccount = databaseFixtures
+                .aTestAccount()
+                .withCardTypeEntities(List.of(mastercardCredit, visaCredit))
+                .insert();
+
+        unitOfWork.end();
+        unitOfWork.begin();
+        gatewayAccountCache.getById(testAccount.getAccountId()).orElseThrow();
+        unitOfWork.end();
+
+        GatewayAccountSnapshot snapshot = gatewayAccountCache.getById(testAccount.getAccountId()).orElseThrow();
+
+        assertThat(snapshot.gatewayAccount().getEmailNotifications().get(PAYMENT_CONFIRMED).getAccountEntity(), is(nullValue()));
+
+        JsonNode gatewayAccount = objectMapper.readTree(objectMapper.writeValueAsString(snapshot.gatewayAccount()));
+        assertThat(gatewayAccount.get("gateway_account_id").asLong(), is(testAccount.getAccountId()));
+        assertThat(gatewayAccount.get("email_notifications").get(PAYMENT_CONFIRMED.toString()).get("template_body").asText(),
+                is(testAccount.getEmailNotifications().get(PAYMENT_CONFIRMED).getTemplate()));
+        assertThat(gatewayAccount.get("email_notifications").get(REFUND_ISSUED.toString()).get("enabled").asBoolean(),
+                is(testAccount.getEmailNotifications().get(REFUND_ISSUED).isEnabled()));
+
+        JsonNode cardTypes = objectMapper.readTree(objectMapper.writeValueAsString(snapshot.cardTypes()));
+        assertThat(List.of(cardTypes.get(0).get("brand").asText(), cardTypes.get(1).get("brand").asText()),
+                containsInAnyOrder(mastercardCredit.getBrand(), visaCredit.getBrand()));
+    }
+}
@@ -12,6 +12,7 @@ import uk.gov.pay.connector.refund.dao.RefundDao;
 import uk.gov.pay.connector.refund.model.domain.RefundEntity;
 import uk.gov.pay.connector.refund.model.domain.RefundHistory;
 
+import java.time.Instant;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.util.List;
@@ -23,6 +24,7 @@ import static java.time.ZonedDateTime.now;
 import static java.time.temporal.ChronoUnit.MICROS;
 import static org.hamcrest.CoreMatchers.hasItems;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.hasEntry;
 import static org.hamcrest.Matchers.nullValue;
 import static org.hamcrest.Matchers.oneOf;
@@ -271,7 +273,7 @@ public class RefundDaoJpaIT {
                 .insert(REFUNDED, "history-tobe-excluded", historyDate.minusDays(10), historyDate.minusDays(10))
                 .insert(REFUNDED, "history-tobe-excluded", historyDate.plusHours(1), historyDate.plusHours(1), SUBMITTED_BY, userEmail);
 
-        List<RefundHistory> refundHistoryList = refundDao.getRefundHistoryByDateRange(historyDate, historyDate.plusMinutes(11), 1, 2);
+        List<RefundHistory> refundHistoryList = refundDao.getRefundHistoryByDateRange(historyDate, 0L, 0L, historyDate.plusMinutes(11), 2);
 
         assertThat(refundHistoryList.size(), is(2));
 
@@ -286,6 +288,14 @@ public class RefundDaoJpaIT {
         assertThat(refundHistory.getGatewayTransactionId(), is("ref-2"));
         assertThat(refundHistory.getId(), is(testRefund.getId()));
         assertThat(refundHistory.getUserEmail(), is(testRefund.getUserEmail()));
+        assertThat(refundHistory.getChargeExternalId(), is(testCharge.getExternalChargeId()));
+
+        List<RefundHistory> nextPage = refundDao.getRefundHistoryByDateRange(refundHistory.getHistoryStartDate(),
+                refundHistory.getId(), refundHistory.getVersion(), historyDate.plusHours(1), 2);
+
+        assertThat(nextPage.size(), is(1));
+        assertThat(nextPage.getFirst().getStatus(), is(REFUNDED));
+        assertThat(nextPage.getFirst().getHistoryStartDate().toInstant(), is(historyDate.plusHours(1).toInstant()));
     }
 
     @Test
@@ -374,6 +384,58 @@ public class RefundDaoJpaIT {
         refundDao.expungeRefund(refundEntity.getExternalId());
     }
 
+    @Test
+    void findRefundsToExpunge_shouldReturnRefundsAfterTheGivenCreatedDateAndIdInCreatedDateOrder() {
+        String chargeExternalId = randomAlphanumeric(26);
+        RefundEntity oldestRefund = persistRefund(chargeExternalId, ZonedDateTime.now(UTC).minusDays(30));
+        RefundEntity olderRefund = persistRefund(chargeExternalId, ZonedDateTime.now(UTC).minusDays(20));
+        RefundEntity oldRefund = persistRefund(chargeExternalId, ZonedDateTime.now(UTC).minusDays(10));
+        persistRefund(chargeExternalId, ZonedDateTime.now(UTC));
+
+        List<RefundEntity> firstBatch = refundDao.findRefundsToExpunge(5, 7, Instant.EPOCH.atZone(UTC), 0L, 2);
+        assertThat(firstBatch.stream().map(RefundEntity::getId).toList(), contains(oldestRefund.getId(), olderRefund.getId()));
+
+        RefundEntity lastOfFirstBatch = firstBatch.getLast();
+        List<RefundEntity> secondBatch = refundDao.findRefundsToExpunge(5, 7, lastOfFirstBatch.getCreatedDate(),
+                lastOfFirstBatch.getId(), 2);
+        assertThat(secondBatch.stream().map(RefundEntity::getId).toList(), contains(oldRefund.getId()));
+
+        refundDao.expungeRefunds(List.of(oldestRefund.getExternalId(), olderRefund.getExternalId(), oldRefund.getExternalId()));
+    }
+
+    @Test
+    void expungeRefunds_shouldExpungeAllGivenRefundsAndTheirRelatedRecords() {
+        RefundEntity firstRefund = new RefundEntity(100L, userExternalId, userEmail, chargeTestRecord.getExternalChargeId());
+        firstRefund.setStatus(REFUNDED);
+        refundDao.persist(firstRefund);
+
+        RefundEntity secondRefund = new RefundEntity(100L, userExternalId, userEmail, chargeTestRecord.getExternalChargeId());
+        secondRefund.setStatus(REFUNDED);
+        refundDao.persist(secondRefund);
+
+        RefundEntity refundToNotBeExpunged = new RefundEntity(100L, userExternalId, userEmail, chargeTestRecord.getExternalChargeId());
+        refundToNotBeExpunged.setStatus(REFUND_ERROR);
+        refundDao.persist(refundToNotBeExpunged);
+
+        for (RefundEntity refund : List.of(firstRefund, secondRefund)) {
+            emittedEventDao.persist(anEmittedEventEntity()
+                    .withResourceExternalId(refund.getExternalId())
+                    .withResourceType("refund")
+                    .withId(secureRandomLong())
+                    .build());
+        }
+
+        refundDao.expungeRefunds(List.of(firstRefund.getExternalId(), secondRefund.getExternalId()));
+
+        for (RefundEntity refund : List.of(firstRefund, secondRefund)) {
+            assertThat(refundDao.findByExternalId(refund.getExternalId()).isPresent(), Matchers.is(false));
+            assertThat(app.getDatabaseTestHelper().containsEmittedEventWithExternalId(refund.getExternalId()), is(false));
+        }
+        assertThat(refundDao.findByExternalId(refundToNotBeExpunged.getExternalId()).isPresent(), Matchers.is(true));
+        List<RefundHistory> refundHistoryList = refundDao.searchHistoryByChargeExternalId(chargeTestRecord.getExternalChargeId());
+        assertThat(refundHistoryList.size(), Matchers.is(1));
+    }
+
     @Test
     void expungeRefund_shouldExpungeRefundRelatedRecordsCorrectly() {
         RefundEntity refundToExpunge = new RefundEntity(100L, userExternalId, userEmail, chargeTestRecord.getExternalChargeId());
@@ -471,4 +533,12 @@ public class RefundDaoJpaIT {
         assertThat(refunds.size(), Matchers.is(1));
         assertThat(refunds.getFirst().getParityCheckStatus(), Matchers.is(ParityCheckStatus.MISSING_IN_LEDGER));
     }
+
+    private RefundEntity persistRefund(String chargeExternalId, ZonedDateTime createdDate) {
+        RefundEntity refund = new RefundEntity(100L, userExternalId, userEmail, chargeExternalId);
+        refund.setStatus(REFUNDED);
+        refund.setCreatedDate(createdDate);
+        refundDao.persist(refund);
+        return refund;
+    }
 }
@@ -0,0 +1,76 @@
+package uk.gov.pay.connector.it.resources;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import uk.gov.pay.connector.extension.AppWithPostgresAndSqsExtension;
+import uk.gov.pay.connector.it.base.ITestBaseExtension;
+import uk.gov.pay.connector.paymentprocessor.service.CardOperationLimiter;
+import uk.gov.service.payments.commons.model.ErrorIdentifier;
+
+import java.time.Instant;
+
+import static io.dropwizard.testing.ConfigOverride.config;
+import static io.restassured.http.ContentType.JSON;
+import static java.time.temporal.ChronoUnit.HOURS;
+import static org.hamcrest.Matchers.is;
+import static uk.gov.pay.connector.charge.model.domain.ChargeStatus.AUTHORISATION_SUCCESS;
+import static uk.gov.pay.connector.charge.model.domain.ChargeStatus.ENTERING_CARD_DETAILS;
+import static uk.gov.pay.connector.it.JsonRequestHelper.buildJsonAuthorisationDetailsFor;
+import static uk.gov.pay.connector.it.base.AddChargeParameters.Builder.anAddChargeParameters;
+import static uk.gov.pay.connector.paymentprocessor.model.OperationType.AUTHORISATION;
+
+public class CardOperationLimiterIT {
+    @RegisterExtension
+    public static AppWithPostgresAndSqsExtension app = new AppWithPostgresAndSqsExtension(
+            config("cardOperationLimiterConfig.enabled", "true"),
+            config("cardOperationLimiterConfig.initialLimit", "1"),
+            config("cardOperationLimiterConfig.minLimit", "1"),
+            config("cardOperationLimiterConfig.maxLimit", "1"),
+            config("cardOperationLimiterConfig.retryAfterInSeconds", "5"));
+    @RegisterExtension
+    public static ITestBaseExtension testBaseExtension = new ITestBaseExtension("sandbox", app.getLocalPort(), app.getDatabaseTestHelper());
+
+    @Test
+    void shouldRespondWith503AndRetryAfter_whenAuthorisationLimitForGatewayIsReached() {
+        String chargeId = testBaseExtension.createNewCharge(ENTERING_CARD_DETAILS);
+        CardOperationLimiter.Permit permit = app.getInstanceFromGuiceContainer(CardOperationLimiter.class)
+                .acquire("sandbox", AUTHORISATION);
+
+        try {
+            app.givenSetup()
+                    .body(buildJsonAuthorisationDetailsFor("4444333322221111", "visa"))
+                    .post(ITestBaseExtension.authoriseChargeUrlFor(chargeId))
+                    .then()
+                    .statusCode(503)
+                    .header("Retry-After", "5")
+                    .contentType(JSON)
+                    .body("error_identifier", is(ErrorIdentifier.GENERIC.toString()));
+        } finally {
+            permit.release();
+        }
+
+        testBaseExtension.assertFrontendChargeStatusIs(chargeId, ENTERING_CARD_DETAILS.getValue());
+    }
+
+    @Test
+    void shouldRespondWith503AndRetryAfter_whenCancellationLimitForGatewayIsReached() {
+        String chargeId = testBaseExtension.addCharge(anAddChargeParameters().withChargeStatus(AUTHORISATION_SUCCESS)
+                .withCreatedDate(Instant.now().minus(1, HOURS)).build());
+        CardOperationLimiter.Permit permit = app.getInstanceFromGuiceContainer(CardOperationLimiter.class)
+                .acquire("sandbox", AUTHORISATION);
+
+        try {
+            testBaseExtension.getConnectorRestApiClient()
+                    .withChargeId(chargeId)
+                    .postFrontendChargeCancellation()
+                    .statusCode(503)
+                    .header("Retry-After", "5")
+                    .contentType(JSON)
+                    .body("error_identifier", is(ErrorIdentifier.GENERIC.toString()));
+        } finally {
+            permit.release();
+        }
+
+        testBaseExtension.assertFrontendChargeStatusIs(chargeId, AUTHORISATION_SUCCESS.getValue());
+    }
+}
@@ -0,0 +1,133 @@
+package uk.gov.pay.connector.it.resources;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import uk.gov.pay.connector.extension.AppWithPostgresAndSqsExtension;
+import uk.gov.pay.connector.it.base.ITestBaseExtension;
+import uk.gov.pay.connector.util.SqlStatementCounter;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static java.time.temporal.ChronoUnit.MINUTES;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static uk.gov.pay.connector.charge.model.domain.ChargeStatus.CREATED;
+import static uk.gov.pay.connector.charge.model.domain.ChargeStatus.ENTERING_CARD_DETAILS;
+import static uk.gov.pay.connector.it.JsonRequestHelper.buildJsonAuthorisationDetailsFor;
+import static uk.gov.pay.connector.it.base.AddChargeParameters.Builder.anAddChargeParameters;
+import static uk.gov.pay.connector.it.base.ITestBaseExtension.JSON_AMOUNT_KEY;
+import static uk.gov.pay.connector.it.base.ITestBaseExtension.JSON_DESCRIPTION_KEY;
+import static uk.gov.pay.connector.it.base.ITestBaseExtension.JSON_DESCRIPTION_VALUE;
+import static uk.gov.pay.connector.it.base.ITestBaseExtension.JSON_REFERENCE_KEY;
+import static uk.gov.pay.connector.it.base.ITestBaseExtension.JSON_REFERENCE_VALUE;
+import static uk.gov.pay.connector.it.base.ITestBaseExtension.JSON_RETURN_URL_KEY;
+import static uk.gov.pay.connector.it.base.ITestBaseExtension.RETURN_URL;
+import static uk.gov.pay.connector.util.JsonEncoder.toJson;
+import static uk.gov.pay.connector.util.SqlStatementCounter.REQUEST_THREADS;
+
+/**
+ * Asserts how many SQL statements connector sends to the database to create, authorise, capture and expire a
+ * charge. Each budget is the most statements the operation may take: lower it when the operation gets leaner,
+ * and only raise it for a change that has to read or write more.
+ * <p>
+ * The budgets are ceilings, not exact counts, so the statements that must no longer be sent are asserted on their
+ * own as well. Every operation logs the statements it sent, and a failing budget lists them.
+ */
+public class ChargeStatementCountIT {
+    @RegisterExtension
+    public static AppWithPostgresAndSqsExtension app = new AppWithPostgresAndSqsExtension(SqlStatementCounter.profilerConfig());
+    @RegisterExtension
+    public static ITestBaseExtension testBaseExtension = new ITestBaseExtension("sandbox", app.getLocalPort(), app.getDatabaseTestHelper());
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ChargeStatementCountIT.class);
+
+    private static final int CREATE_BUDGET = 20;
+    private static final int AUTHORISE_BUDGET = 35;
+    private static final int CAPTURE_BUDGET = 15;
+    private static final int EXPIRE_BUDGET = 20;
+
+    private static final String CHARGE_EVENT_READ_BY_ID = "SELECT .* FROM charge_events WHERE \\(id = \\?\\)";
+    private static final String CHARGE_UPDATE = "UPDATE charges .*";
+
+    @AfterEach
+    void tearDown() {
+        SqlStatementCounter.stopCounting();
+    }
+
+    @Test
+    void createShouldStayWithinStatementBudget() {
+        String postBody = toJson(Map.of(
+                JSON_AMOUNT_KEY, 6234L,
+                JSON_REFERENCE_KEY, JSON_REFERENCE_VALUE,
+                JSON_DESCRIPTION_KEY, JSON_DESCRIPTION_VALUE,
+                JSON_RETURN_URL_KEY, RETURN_URL));
+
+        SqlStatementCounter.countStatementsOn(REQUEST_THREADS);
+        testBaseExtension.getConnectorRestApiClient()
+                .postCreateCharge(postBody)
+                .statusCode(201);
+
+        assertStatementsWithinBudget("create", CREATE_BUDGET);
+        // A new charge is inserted with its CREATED status rather than inserted and then updated
+        assertThat(SqlStatementCounter.statementsMatching(CHARGE_UPDATE), is(0L));
+    }
+
+    @Test
+    void authoriseShouldStayWithinStatementBudget() {
+        String chargeId = testBaseExtension.createNewChargeWithNoTransactionId(ENTERING_CARD_DETAILS);
+
+        SqlStatementCounter.countStatementsOn(REQUEST_THREADS);
+        app.givenSetup()
+                .body(buildJsonAuthorisationDetailsFor("4444333322221111", "visa"))
+                .post(ITestBaseExtension.authoriseChargeUrlFor(chargeId))
+                .then()
+                .statusCode(200);
+
+        assertStatementsWithinBudget("authorise", AUTHORISE_BUDGET);
+    }
+
+    @Test
+    void captureShouldStayWithinStatementBudget() {
+        String chargeId = testBaseExtension.authoriseNewCharge();
+
+        SqlStatementCounter.countStatementsOn(REQUEST_THREADS);
+        app.givenSetup()
+                .post(ITestBaseExtension.captureChargeUrlFor(chargeId))
+                .then()
+                .statusCode(204);
+
+        assertStatementsWithinBudget("capture", CAPTURE_BUDGET);
+    }
+
+    @Test
+    void expireShouldStayWithinStatementBudget() {
+        testBaseExtension.addCharge(anAddChargeParameters()
+                .withChargeStatus(CREATED)
+                .withCreatedDate(Instant.now().minus(90, MINUTES))
+                .build());
+
+        SqlStatementCounter.countStatementsOn(REQUEST_THREADS);
+        testBaseExtension.getConnectorRestApiClient()
+                .postChargeExpiryTask()
+                .statusCode(200);
+
+        assertStatementsWithinBudget("expire", EXPIRE_BUDGET);
+    }
+
+    private static void assertStatementsWithinBudget(String operation, int budget) {
+        SqlStatementCounter.stopCounting();
+        List<String> statements = SqlStatementCounter.statements();
+        LOGGER.info("{} took {} statements: {}", operation, statements.size(), statements);
+
+        // Database-generated fields of a new charge event are returned by its INSERT rather than read back by id
+        assertThat(SqlStatementCounter.statementsMatching(CHARGE_EVENT_READ_BY_ID), is(0L));
+        assertThat(operation + " took " + statements.size() + " statements: " + statements,
+                statements.size(), is(lessThanOrEqualTo(budget)));
+    }
+}
@@ -0,0 +1,66 @@
+package uk.gov.pay.connector.it.resources;
+
+import io.restassured.response.ValidatableResponse;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import uk.gov.pay.connector.charge.service.ChargeService;
+import uk.gov.pay.connector.extension.AppWithPostgresAndSqsExtension;
+import uk.gov.pay.connector.it.base.ITestBaseExtension;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static io.dropwizard.testing.ConfigOverride.config;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static uk.gov.pay.connector.charge.model.domain.ChargeStatus.AUTHORISATION_READY;
+import static uk.gov.pay.connector.charge.model.domain.ChargeStatus.AUTHORISATION_SUCCESS;
+
+public class ChargeStatusNotificationIT {
+    @RegisterExtension
+    public static AppWithPostgresAndSqsExtension app = new AppWithPostgresAndSqsExtension(
+            config("databaseNotificationConfig.listenEnabled", "true"));
+    @RegisterExtension
+    public static ITestBaseExtension testBaseExtension = new ITestBaseExtension("sandbox", app.getLocalPort(), app.getDatabaseTestHelper());
+
+    private static final long MAX_WAIT_MILLIS = 10000;
+
+    @Test
+    void shouldReturnAuthorisationOutcomeAsSoonAsItIsNotifiedThroughPostgres() throws Exception {
+        String chargeId = testBaseExtension.createNewCharge(AUTHORISATION_READY);
+
+        long startNanos = System.nanoTime();
+        CompletableFuture<ValidatableResponse> outcome = CompletableFuture.supplyAsync(() -> app.givenSetup()
+                .queryParam("max_wait_millis", MAX_WAIT_MILLIS)
+                .get("/v1/frontend/charges/{chargeId}/status", chargeId)
+                .then());
+        Thread.sleep(500);
+        app.getInstanceFromGuiceContainer(ChargeService.class).transitionChargeState(chargeId, AUTHORISATION_SUCCESS);
+
+        outcome.get(MAX_WAIT_MILLIS * 2, TimeUnit.MILLISECONDS)
+                .statusCode(200)
+                .body("status", is(AUTHORISATION_SUCCESS.getValue()));
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos), is(lessThan(MAX_WAIT_MILLIS / 2)));
+    }
+
+    @Test
+    void shouldReturn404WhenWaitingForStatusOfChargeThatDoesNotExist() {
+        app.givenSetup()
+                .queryParam("max_wait_millis", MAX_WAIT_MILLIS)
+                .get("/v1/frontend/charges/{chargeId}/status", "unknown-charge-id")
+                .then()
+                .statusCode(404);
+    }
+
+    @Test
+    void shouldReturn422WhenMaxWaitIsNegative() {
+        String chargeId = testBaseExtension.createNewCharge(AUTHORISATION_READY);
+
+        app.givenSetup()
+                .queryParam("max_wait_millis", -1)
+                .get("/v1/frontend/charges/{chargeId}/status", chargeId)
+                .then()
+                .statusCode(422);
+    }
+}
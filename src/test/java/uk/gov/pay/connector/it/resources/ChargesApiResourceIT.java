@@ -30,6 +30,7 @@ import uk.gov.service.payments.commons.queue.exception.QueueException;
 import java.time.Instant;
 import java.time.ZonedDateTime;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 import static io.restassured.http.ContentType.JSON;
 import static jakarta.ws.rs.core.Response.Status.CONFLICT;
@@ -107,7 +108,9 @@ public class ChargesApiResourceIT {
         Thread.sleep(500);
 
         // Trigger the capture process programmatically which normally would be invoked by the scheduler.
-        app.getInstanceFromGuiceContainer(CardCaptureProcess.class).handleCaptureMessages();
+        CardCaptureProcess cardCaptureProcess = app.getInstanceFromGuiceContainer(CardCaptureProcess.class);
+        cardCaptureProcess.handleCaptureMessages();
+        cardCaptureProcess.awaitInFlightCaptures(5, TimeUnit.SECONDS);
 
         testBaseExtension.getCharge(chargeId)
                 .body("settlement_summary.capture_submit_time", matchesPattern("^\\d{4}-\\d{2}-\\d{2}T\\d{2}:\\d{2}:\\d{2}(.\\d{1,3})?Z"))
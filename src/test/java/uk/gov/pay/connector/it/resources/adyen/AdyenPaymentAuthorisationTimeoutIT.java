@@ -18,6 +18,7 @@ import uk.gov.pay.connector.app.ConnectorModule;
 import uk.gov.pay.connector.charge.dao.ChargeDao;
 import uk.gov.pay.connector.extension.AppWithPostgresAndSqsExtension;
 import uk.gov.pay.connector.gateway.ClientFactory;
+import uk.gov.pay.connector.gateway.GatewayBulkheads;
 import uk.gov.pay.connector.gateway.GatewayClient;
 import uk.gov.pay.connector.gateway.GatewayClientFactory;
 import uk.gov.pay.connector.gateway.GatewayException;
@@ -104,11 +105,11 @@ public class AdyenPaymentAuthorisationTimeoutIT {
         }
 
         @Provides
-        public GatewayClientFactory provideGatewayClientFactory(ClientFactory clientFactory) {
-            return new GatewayClientFactory(clientFactory) {
+        public GatewayClientFactory provideGatewayClientFactory(ClientFactory clientFactory, GatewayBulkheads bulkheads) {
+            return new GatewayClientFactory(clientFactory, bulkheads) {
                 @Override
                 public GatewayClient createGatewayClient(PaymentGatewayName gateway, MetricRegistry metricRegistry) {
-                    return new GatewayClient(null, null) {
+                    return new GatewayClient(null, null, bulkheads) {
                         @Override
                         public Response postRequestFor(GatewayClientPostRequest request) throws GatewayException.GatewayConnectionTimeoutException {
                             throw new GatewayException.GatewayConnectionTimeoutException("Gateway connection timeout error");
@@ -7,6 +7,7 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import uk.gov.pay.connector.app.config.CardOperationLimiterConfig;
 import uk.gov.pay.connector.charge.dao.ChargeDao;
 
 import uk.gov.pay.connector.charge.model.domain.ChargeStatus;
@@ -21,6 +22,7 @@ import uk.gov.pay.connector.gatewayaccount.model.GatewayAccountType;
 import uk.gov.pay.connector.gatewayaccount.service.GatewayAccountService;
 import uk.gov.pay.connector.paymentprocessor.service.Card3dsResponseAuthService;
 import uk.gov.pay.connector.paymentprocessor.service.CardAuthoriseService;
+import uk.gov.pay.connector.paymentprocessor.service.CardOperationLimiter;
 import uk.gov.pay.connector.paymentprocessor.service.QueryService;
 import uk.gov.pay.connector.rules.ResourceTestRuleWithCustomExceptionMappersBuilder;
 import uk.gov.pay.connector.token.TokenService;
@@ -60,7 +62,8 @@ public class CardResourceCancelChargeTest {
             mockChargeDao,
             mockPaymentProviders,
             mockChargeService,
-            mockQueryService
+            mockQueryService,
+            new CardOperationLimiter(new CardOperationLimiterConfig())
     );
     private static final WalletService mockWalletService = mock(WalletService.class);
     private static final TokenService mockTokenService = mock(TokenService.class);
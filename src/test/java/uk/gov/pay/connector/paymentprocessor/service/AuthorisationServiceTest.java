@@ -7,6 +7,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import uk.gov.pay.connector.app.ConnectorConfiguration;
+import uk.gov.pay.connector.app.config.CardOperationLimiterConfig;
 import uk.gov.pay.connector.gateway.model.response.GatewayResponse;
 import uk.gov.pay.connector.gateway.worldpay.WorldpayOrderStatusResponse;
 
@@ -33,7 +34,7 @@ class AuthorisationServiceTest {
 
     @BeforeEach
     void setUp() {
-        authService = new AuthorisationService(executorService, environment, config);
+        authService = new AuthorisationService(executorService, new CardOperationLimiter(new CardOperationLimiterConfig()), environment, config);
     }
 
     @Test
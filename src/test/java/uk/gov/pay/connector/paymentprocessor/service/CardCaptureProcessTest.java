@@ -1,10 +1,13 @@
 package uk.gov.pay.connector.paymentprocessor.service;
 
+import com.codahale.metrics.MetricRegistry;
+import com.google.common.util.concurrent.MoreExecutors;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import uk.gov.pay.connector.app.CaptureProcessConfig;
 import uk.gov.pay.connector.charge.ChargesAwaitingCaptureMetricEmitter;
 import uk.gov.pay.connector.charge.service.ChargeService;
 import uk.gov.pay.connector.common.exception.IllegalStateRuntimeException;
@@ -12,11 +15,26 @@ import uk.gov.pay.connector.gateway.CaptureResponse;
 import uk.gov.pay.connector.queue.capture.CaptureQueue;
 import uk.gov.pay.connector.queue.capture.ChargeCaptureMessage;
 import uk.gov.service.payments.commons.queue.exception.QueueException;
+import uk.gov.service.payments.commons.queue.model.QueueMessage;
 
-import java.util.Arrays;
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
-
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -33,60 +51,161 @@ class CardCaptureProcessTest {
     @Mock
     ChargeCaptureMessage chargeCaptureMessage;
     @Mock
+    QueueMessage queueMessage;
+    @Mock
     ChargeService chargeService;
     @Mock
     ChargesAwaitingCaptureMetricEmitter chargesAwaitingCaptureMetricEmitter;
-    CardCaptureProcess cardCaptureProcess;
-
-    @BeforeEach
-    void setUp() throws Exception {
-        List<ChargeCaptureMessage> messages = Arrays.asList(chargeCaptureMessage);
+    @Mock
+    CaptureProcessConfig captureProcessConfig;
 
-        when(chargeCaptureMessage.getChargeId()).thenReturn(chargeExternalId);
-        when(captureQueue.retrieveChargesForCapture()).thenReturn(messages);
-        when(cardCaptureService.doCapture(anyString())).thenReturn(captureResponse);
+    private final AtomicReference<Instant> now = new AtomicReference<>(Instant.parse("2024-03-01T17:00:00Z"));
+    private final MetricRegistry metricRegistry = new MetricRegistry();
 
-        cardCaptureProcess = new CardCaptureProcess(captureQueue, cardCaptureService,
-                chargeService, chargesAwaitingCaptureMetricEmitter);
+    @BeforeEach
+    void setUp() {
+        when(captureProcessConfig.getCaptureWorkerNumberOfThreads()).thenReturn(2);
+        when(captureProcessConfig.getInFlightVisibilityTimeoutInSeconds()).thenReturn(30);
     }
 
     @Test
     void shouldMarkMessageAsProcessedGivenSuccessfulChargeCapture() throws QueueException {
+        givenCaptureMessageIsReceived();
         when(captureResponse.isSuccessful()).thenReturn(true);
+        CardCaptureProcess cardCaptureProcess = aCardCaptureProcess(MoreExecutors.newDirectExecutorService());
 
         cardCaptureProcess.handleCaptureMessages();
+        cardCaptureProcess.runHousekeeping();
 
-        verify(captureQueue).markMessageAsProcessed(chargeCaptureMessage.getQueueMessage());
+        verify(captureQueue).markMessagesAsProcessed(List.of(queueMessage));
     }
 
     @Test
     void shouldScheduleRetriableMessageGivenUnsuccessfulChargeCapture() throws QueueException {
+        givenCaptureMessageIsReceived();
         when(captureResponse.isSuccessful()).thenReturn(false);
         when(chargeService.isChargeRetriable(chargeExternalId)).thenReturn(true);
+        CardCaptureProcess cardCaptureProcess = aCardCaptureProcess(MoreExecutors.newDirectExecutorService());
 
         cardCaptureProcess.handleCaptureMessages();
+        cardCaptureProcess.runHousekeeping();
 
-        verify(captureQueue).scheduleMessageForRetry(chargeCaptureMessage.getQueueMessage());
+        verify(captureQueue).scheduleMessageForRetry(queueMessage);
+        verify(captureQueue, never()).markMessagesAsProcessed(anyList());
     }
 
     @Test
     void shouldMarkNonRetribaleMessageAsProcessed_MarkChargeAsCaptureErrorGivenUnsuccessfulChargeCapture() throws QueueException {
+        givenCaptureMessageIsReceived();
         when(captureResponse.isSuccessful()).thenReturn(false);
         when(chargeService.isChargeRetriable(chargeExternalId)).thenReturn(false);
+        CardCaptureProcess cardCaptureProcess = aCardCaptureProcess(MoreExecutors.newDirectExecutorService());
 
         cardCaptureProcess.handleCaptureMessages();
+        cardCaptureProcess.runHousekeeping();
 
         verify(cardCaptureService).markChargeAsCaptureError(chargeExternalId);
-        verify(captureQueue).markMessageAsProcessed(chargeCaptureMessage.getQueueMessage());
+        verify(captureQueue).markMessagesAsProcessed(List.of(queueMessage));
     }
 
     @Test
     void shouldMarkMessageAsProcessedGivenChargeInCapturedState() throws QueueException {
+        when(chargeCaptureMessage.getChargeId()).thenReturn(chargeExternalId);
+        when(chargeCaptureMessage.getQueueMessage()).thenReturn(queueMessage);
+        when(captureQueue.retrieveChargesForCapture()).thenReturn(List.of(chargeCaptureMessage));
         when(cardCaptureService.doCapture(anyString())).thenThrow(IllegalStateRuntimeException.class);
         when(chargeService.isChargeCaptureSuccess(anyString())).thenReturn(true);
+        CardCaptureProcess cardCaptureProcess = aCardCaptureProcess(MoreExecutors.newDirectExecutorService());
 
         cardCaptureProcess.handleCaptureMessages();
+        cardCaptureProcess.runHousekeeping();
+
+        verify(captureQueue).markMessagesAsProcessed(List.of(queueMessage));
+    }
+
+    @Test
+    void shouldDeleteProcessedMessagesAsSoonAsAFullBatchIsReady() throws QueueException {
+        List<ChargeCaptureMessage> messages = new ArrayList<>();
+        List<QueueMessage> queueMessages = new ArrayList<>();
+        for (int i = 0; i < CaptureQueue.SQS_MAX_BATCH_SIZE; i++) {
+            QueueMessage batchQueueMessage = mock(QueueMessage.class);
+            ChargeCaptureMessage message = mock(ChargeCaptureMessage.class);
+            when(message.getChargeId()).thenReturn("charge-" + i);
+            when(message.getQueueMessage()).thenReturn(batchQueueMessage);
+            messages.add(message);
+            queueMessages.add(batchQueueMessage);
+        }
+        when(captureQueue.retrieveChargesForCapture()).thenReturn(messages);
+        when(cardCaptureService.doCapture(anyString())).thenReturn(captureResponse);
+        when(captureResponse.isSuccessful()).thenReturn(true);
+        CardCaptureProcess cardCaptureProcess = aCardCaptureProcess(MoreExecutors.newDirectExecutorService());
+
+        assertThat(cardCaptureProcess.handleCaptureMessages(), is(CaptureQueue.SQS_MAX_BATCH_SIZE));
+
+        verify(captureQueue).markMessagesAsProcessed(queueMessages);
+        assertThat(metricRegistry.meter("capture-process.captures").getCount(), is(10L));
+        assertThat(metricRegistry.timer("capture-process.message-lag").getCount(), is(10L));
+    }
+
+    @Test
+    void shouldCaptureConcurrentlyAndExtendVisibilityOfSlowCaptures() throws Exception {
+        ChargeCaptureMessage otherMessage = mock(ChargeCaptureMessage.class);
+        QueueMessage otherQueueMessage = mock(QueueMessage.class);
+        when(chargeCaptureMessage.getChargeId()).thenReturn(chargeExternalId);
+        when(chargeCaptureMessage.getQueueMessage()).thenReturn(queueMessage);
+        when(otherMessage.getChargeId()).thenReturn("other-charge-id");
+        when(otherMessage.getQueueMessage()).thenReturn(otherQueueMessage);
+        when(captureQueue.retrieveChargesForCapture()).thenReturn(List.of(chargeCaptureMessage, otherMessage));
+        when(captureResponse.isSuccessful()).thenReturn(true);
+
+        CountDownLatch bothCapturesStarted = new CountDownLatch(2);
+        CountDownLatch gatewayResponds = new CountDownLatch(1);
+        when(cardCaptureService.doCapture(anyString())).thenAnswer(invocation -> {
+            bothCapturesStarted.countDown();
+            gatewayResponds.await(5, TimeUnit.SECONDS);
+            return captureResponse;
+        });
+
+        ExecutorService captureWorkers = Executors.newFixedThreadPool(2);
+        try {
+            CardCaptureProcess cardCaptureProcess = aCardCaptureProcess(captureWorkers);
+
+            cardCaptureProcess.handleCaptureMessages();
+
+            assertThat(bothCapturesStarted.await(5, TimeUnit.SECONDS), is(true));
+            assertThat(cardCaptureProcess.getNumberOfCapturesInFlight(), is(2));
+            assertThat((Integer) metricRegistry.getGauges().get("capture-process.in-flight").getValue(), is(2));
+
+            now.set(now.get().plusSeconds(10));
+            cardCaptureProcess.runHousekeeping();
+            verify(captureQueue, never()).extendVisibilityTimeout(queueMessage, 30);
+
+            now.set(now.get().plusSeconds(5));
+            cardCaptureProcess.runHousekeeping();
+            cardCaptureProcess.runHousekeeping();
+            verify(captureQueue).extendVisibilityTimeout(queueMessage, 30);
+            verify(captureQueue).extendVisibilityTimeout(otherQueueMessage, 30);
+
+            gatewayResponds.countDown();
+
+            assertThat(cardCaptureProcess.awaitInFlightCaptures(5, TimeUnit.SECONDS), is(true));
+            assertThat(cardCaptureProcess.getNumberOfCapturesInFlight(), is(0));
+            verify(captureQueue, times(2)).extendVisibilityTimeout(any(), anyInt());
+        } finally {
+            captureWorkers.shutdownNow();
+        }
+    }
+
+    private void givenCaptureMessageIsReceived() throws QueueException {
+        when(chargeCaptureMessage.getChargeId()).thenReturn(chargeExternalId);
+        when(chargeCaptureMessage.getQueueMessage()).thenReturn(queueMessage);
+        when(captureQueue.retrieveChargesForCapture()).thenReturn(List.of(chargeCaptureMessage));
+        when(cardCaptureService.doCapture(anyString())).thenReturn(captureResponse);
+    }
 
-        verify(captureQueue).markMessageAsProcessed(chargeCaptureMessage.getQueueMessage());
+    private CardCaptureProcess aCardCaptureProcess(ExecutorService captureWorkerExecutorService) {
+        return new CardCaptureProcess(captureQueue, cardCaptureService, chargeService,
+                chargesAwaitingCaptureMetricEmitter, captureWorkerExecutorService, metricRegistry,
+                captureProcessConfig, now::get);
     }
 }
@@ -0,0 +1,84 @@
+package uk.gov.pay.connector.paymentprocessor.service;
+
+import com.codahale.metrics.MetricRegistry;
+import org.apache.commons.lang3.tuple.Pair;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.slf4j.MDC;
+import uk.gov.pay.connector.app.ExecutorServiceConfig;
+import uk.gov.pay.connector.app.ExecutorServiceConfig.ExecutorMode;
+import uk.gov.pay.connector.paymentprocessor.service.CardExecutorService.ExecutionStatus;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static uk.gov.pay.connector.app.ExecutorServiceConfig.ExecutorMode.VIRTUAL_THREADS;
+import static uk.gov.service.payments.logging.LoggingKeys.PAYMENT_EXTERNAL_ID;
+import static uk.gov.service.payments.logging.LoggingKeys.PROVIDER;
+
+class CardExecutorServiceTest {
+
+    private final MetricRegistry metricRegistry = new MetricRegistry();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private CardExecutorService cardExecutorService;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        MDC.clear();
+        cardExecutorService.getExecutor().shutdownNow();
+    }
+
+    @ParameterizedTest
+    @EnumSource(ExecutorMode.class)
+    void shouldRunTaskWithCallersMdcAndRecordQueueDelay(ExecutorMode mode) {
+        cardExecutorService = new CardExecutorService(new ExecutorServiceConfig(1, mode, 10), metricRegistry);
+        MDC.put(PAYMENT_EXTERNAL_ID, "charge-external-id");
+
+        Pair<ExecutionStatus, String> result = cardExecutorService.execute(() -> MDC.get(PAYMENT_EXTERNAL_ID), 5000);
+
+        assertThat(result.getLeft(), is(ExecutionStatus.COMPLETED));
+        assertThat(result.getRight(), is("charge-external-id"));
+        assertThat(metricRegistry.histogram("card-executor.delay").getCount(), is(1L));
+    }
+
+    @ParameterizedTest
+    @EnumSource(ExecutorMode.class)
+    void shouldReturnInProgressAndReportInFlightTaskWhenTaskOutlivesTimeout(ExecutorMode mode) {
+        cardExecutorService = new CardExecutorService(new ExecutorServiceConfig(1, mode, 10), metricRegistry);
+
+        Pair<ExecutionStatus, Object> result = cardExecutorService.execute(this::awaitRelease, 50);
+
+        assertThat(result.getLeft(), is(ExecutionStatus.IN_PROGRESS));
+        assertThat(cardExecutorService.getInFlight(), is(1));
+        assertThat((Integer) metricRegistry.getGauges().get("card-executor.in-flight").getValue(), is(1));
+    }
+
+    @Test
+    void shouldLimitConcurrentOperationsPerGatewayInVirtualThreadMode() {
+        cardExecutorService = new CardExecutorService(new ExecutorServiceConfig(1, VIRTUAL_THREADS, 1), metricRegistry);
+
+        MDC.put(PROVIDER, "worldpay");
+        assertThat(cardExecutorService.execute(this::awaitRelease, 50).getLeft(), is(ExecutionStatus.IN_PROGRESS));
+        assertThat(cardExecutorService.execute(() -> "second worldpay", 200).getLeft(), is(ExecutionStatus.IN_PROGRESS));
+        assertThat(cardExecutorService.getQueueSize(), is(1));
+
+        MDC.put(PROVIDER, "stripe");
+        Pair<ExecutionStatus, String> stripeResult = cardExecutorService.execute(() -> "stripe", 5000);
+        assertThat(stripeResult.getLeft(), is(ExecutionStatus.COMPLETED));
+        assertThat(stripeResult.getRight(), is("stripe"));
+    }
+
+    private Object awaitRelease() {
+        try {
+            release.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return null;
+    }
+}
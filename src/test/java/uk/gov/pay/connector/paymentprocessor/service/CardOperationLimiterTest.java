@@ -0,0 +1,142 @@
+package uk.gov.pay.connector.paymentprocessor.service;
+
+import org.aopalliance.intercept.MethodInvocation;
+import org.eclipse.persistence.sessions.Session;
+import org.eclipse.persistence.sessions.SessionEvent;
+import org.junit.jupiter.api.Test;
+import uk.gov.pay.connector.app.config.CardOperationLimiterConfig;
+import uk.gov.pay.connector.common.exception.TooManyOperationsRuntimeException;
+import uk.gov.pay.connector.util.DatabaseConnectionUsageListener;
+import uk.gov.pay.connector.util.TransactionalMethodInterceptor;
+
+import jakarta.ws.rs.core.Response;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static uk.gov.pay.connector.paymentprocessor.model.OperationType.AUTHORISATION;
+import static uk.gov.pay.connector.paymentprocessor.model.OperationType.CANCELLATION;
+import static uk.gov.pay.connector.paymentprocessor.model.OperationType.CAPTURE;
+
+class CardOperationLimiterTest {
+
+    @Test
+    void shouldRejectOperationsOnceLimitForGatewayIsReached() {
+        var limiter = new CardOperationLimiter(config(2, 1, 10, 0.5, 100));
+        limiter.acquire("worldpay", AUTHORISATION);
+        limiter.acquire("worldpay", CAPTURE);
+
+        var exception = assertThrows(TooManyOperationsRuntimeException.class, () -> limiter.acquire("worldpay", CANCELLATION));
+
+        assertThat(exception.getResponse().getStatus(), is(Response.Status.SERVICE_UNAVAILABLE.getStatusCode()));
+        assertThat(exception.getResponse().getHeaderString("Retry-After"), is("3"));
+        limiter.acquire("stripe", AUTHORISATION);
+    }
+
+    @Test
+    void shouldNotLimitOperationsWithUnknownGateway() {
+        var limiter = new CardOperationLimiter(config(1, 1, 1, 0.5, 100));
+
+        limiter.acquire(null, AUTHORISATION);
+        limiter.acquire(null, AUTHORISATION);
+    }
+
+    @Test
+    void shouldNotLimitOperationsWhenDisabled() {
+        var limiter = new CardOperationLimiter(new CardOperationLimiterConfig(false, 1, 1, 1, 0.5, 2.0, 100, 3));
+
+        limiter.acquire("worldpay", AUTHORISATION);
+        limiter.acquire("worldpay", AUTHORISATION);
+    }
+
+    @Test
+    void shouldIncreaseLimitWhenOperationsUsingMostOfItAreHealthy() {
+        var limiter = new CardOperationLimiter(config(1, 1, 10, 0.5, 100));
+
+        limiter.acquire("worldpay", AUTHORISATION).release();
+
+        assertThat(limiter.getLimit("worldpay"), is(2));
+    }
+
+    @Test
+    void shouldDecreaseLimitWhenOperationWaitedForDatabaseConnections() throws Throwable {
+        var limiter = new CardOperationLimiter(config(10, 2, 20, 0.5, 1));
+        CardOperationLimiter.Permit permit = limiter.acquire("worldpay", CAPTURE);
+        permit.runningOnCurrentThread();
+
+        waitForDatabaseConnection(10);
+        permit.release();
+
+        assertThat(limiter.getLimit("worldpay"), is(5));
+    }
+
+    @Test
+    void shouldOnlyGiveBackPlaceOnFirstRelease() {
+        var limiter = new CardOperationLimiter(config(1, 1, 2, 0.5, 100));
+        CardOperationLimiter.Permit permit = limiter.acquire("worldpay", AUTHORISATION);
+
+        permit.release();
+        permit.release();
+
+        limiter.acquire("worldpay", AUTHORISATION);
+        limiter.acquire("worldpay", AUTHORISATION);
+        assertThrows(TooManyOperationsRuntimeException.class, () -> limiter.acquire("worldpay", AUTHORISATION));
+    }
+
+    @Test
+    void shouldRejectOnCheckOnceLimitIsReachedWithoutTakingPlace() {
+        var limiter = new CardOperationLimiter(config(1, 1, 2, 0.5, 100));
+
+        limiter.checkCapacity("worldpay", CAPTURE);
+        limiter.checkCapacity("worldpay", CAPTURE);
+        CardOperationLimiter.Permit permit = limiter.acquireAfterCheck("worldpay");
+
+        var exception = assertThrows(TooManyOperationsRuntimeException.class, () -> limiter.checkCapacity("worldpay", CAPTURE));
+        assertThat(exception.getResponse().getHeaderString("Retry-After"), is("3"));
+
+        permit.release();
+        limiter.checkCapacity("worldpay", CAPTURE);
+    }
+
+    @Test
+    void shouldTakePlaceAfterCheckEvenIfLimitHasSinceBeenReached() {
+        var limiter = new CardOperationLimiter(config(1, 1, 1, 0.5, 100));
+        limiter.checkCapacity("worldpay", CAPTURE);
+        CardOperationLimiter.Permit first = limiter.acquire("worldpay", AUTHORISATION);
+
+        CardOperationLimiter.Permit second = limiter.acquireAfterCheck("worldpay");
+
+        first.release();
+        assertThrows(TooManyOperationsRuntimeException.class, () -> limiter.acquire("worldpay", AUTHORISATION));
+        second.release();
+        limiter.acquire("worldpay", AUTHORISATION);
+    }
+
+    private static CardOperationLimiterConfig config(int initialLimit, int minLimit, int maxLimit, double backoffRatio,
+                                                     long dbPoolWaitThresholdInMillis) {
+        return new CardOperationLimiterConfig(true, initialLimit, minLimit, maxLimit, backoffRatio, 2.0,
+                dbPoolWaitThresholdInMillis, 3);
+    }
+
+    private static void waitForDatabaseConnection(long millis) throws Throwable {
+        var listener = new DatabaseConnectionUsageListener();
+        var connection = new Object();
+        SessionEvent event = new SessionEvent(0, mock(Session.class));
+        event.setResult(connection);
+
+        MethodInvocation invocation = mock(MethodInvocation.class);
+        when(invocation.getThis()).thenReturn(connection);
+        when(invocation.getMethod()).thenReturn(Object.class.getMethod("toString"));
+        when(invocation.proceed()).thenAnswer(ignored -> {
+            listener.preExecuteQuery(event);
+            Thread.sleep(millis);
+            listener.postAcquireConnection(event);
+            listener.preReleaseConnection(event);
+            listener.postExecuteQuery(event);
+            return null;
+        });
+        new TransactionalMethodInterceptor(1000).invoke(invocation);
+    }
+}
@@ -16,9 +16,11 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import uk.gov.pay.connector.agreement.dao.AgreementDao;
 import uk.gov.pay.connector.app.ConnectorConfiguration;
 import uk.gov.pay.connector.app.config.AuthorisationConfig;
+import uk.gov.pay.connector.app.config.CardOperationLimiterConfig;
 import uk.gov.pay.connector.charge.model.domain.ChargeEntity;
 import uk.gov.pay.connector.charge.service.ChargeEligibleForCaptureService;
 import uk.gov.pay.connector.charge.service.ChargeService;
+import uk.gov.pay.connector.charge.service.ChargeStatusNotifier;
 import uk.gov.pay.connector.charge.service.Worldpay3dsFlexJwtService;
 import uk.gov.pay.connector.charge.util.AuthCardDetailsToCardDetailsEntityConverter;
 import uk.gov.pay.connector.charge.util.PaymentInstrumentEntityToAuthCardDetailsConverter;
@@ -147,7 +149,7 @@ class WorldpayCardAuthoriseServiceTest extends CardServiceTest {
                 mock(StateTransitionService.class), mock(LedgerService.class), mock(RefundService.class),
                 mockEventService, mock(PaymentInstrumentService.class), mock(GatewayAccountCredentialsService.class),
                 mock(AuthCardDetailsToCardDetailsEntityConverter.class), mockTaskQueueService, mockWorldpay3dsFlexJwtService, mock(IdempotencyDao.class),
-                mock(ExternalTransactionStateFactory.class), objectMapper, null, fixedInstantSource);
+                mock(ExternalTransactionStateFactory.class), objectMapper, null, fixedInstantSource, mock(ChargeStatusNotifier.class));
 
         when(mockConfiguration.getAuthorisationConfig()).thenReturn(mockAuthorisationConfig);
         when(mockAuthorisationConfig.getAsynchronousAuthTimeoutInMilliseconds()).thenReturn(1000);
@@ -155,7 +157,7 @@ class WorldpayCardAuthoriseServiceTest extends CardServiceTest {
         cardAuthorisationService = new CardAuthoriseService(
                 mockedCardTypeDao,
                 mockedProviders,
-                new AuthorisationService(mockExecutorService, environment, mockConfiguration),
+                new AuthorisationService(mockExecutorService, new CardOperationLimiter(new CardOperationLimiterConfig()), environment, mockConfiguration),
                 chargeService,
                 mockCardAuthoriseRequestFactory,
                 new AuthorisationLogger(new AuthorisationRequestSummaryStringifier(), new AuthorisationRequestSummaryStructuredLogging(), new AdyenAuthoriseRequestLogGenerator(), new WorldpayAuthoriseRequestLogGenerator()),
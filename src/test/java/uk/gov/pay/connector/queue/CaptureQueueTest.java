@@ -4,8 +4,14 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import software.amazon.awssdk.services.sqs.SqsClient;
+import software.amazon.awssdk.services.sqs.model.BatchResultErrorEntry;
+import software.amazon.awssdk.services.sqs.model.DeleteMessageBatchRequest;
+import software.amazon.awssdk.services.sqs.model.DeleteMessageBatchRequestEntry;
+import software.amazon.awssdk.services.sqs.model.DeleteMessageBatchResponse;
 import software.amazon.awssdk.services.sqs.model.SendMessageResponse;
 import uk.gov.pay.connector.app.CaptureProcessConfig;
 import uk.gov.pay.connector.app.ConnectorConfiguration;
@@ -18,13 +24,18 @@ import uk.gov.service.payments.commons.queue.exception.QueueException;
 import uk.gov.service.payments.commons.queue.model.QueueMessage;
 import uk.gov.service.payments.commons.queue.sqs.SqsQueueService;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -34,6 +45,9 @@ class CaptureQueueTest {
     @Mock
     SqsQueueService sqsQueueService;
 
+    @Mock
+    SqsClient sqsClient;
+
     @Mock
     ConnectorConfiguration connectorConfiguration;
 
@@ -58,7 +72,7 @@ class CaptureQueueTest {
                 QueueMessage.of(messageResult, validJsonMessage)
         );
         when(sqsQueueService.receiveMessages(anyString(), anyString())).thenReturn(messages);
-        CaptureQueue queue = new CaptureQueue(sqsQueueService, connectorConfiguration, objectMapper);
+        CaptureQueue queue = new CaptureQueue(sqsQueueService, sqsClient, connectorConfiguration, objectMapper);
         List<ChargeCaptureMessage> chargeCaptureMessages = queue.retrieveChargesForCapture();
 
         assertNotNull(chargeCaptureMessages);
@@ -70,10 +84,35 @@ class CaptureQueueTest {
         ChargeEntity chargeEntity = ChargeEntityFixture.aValidChargeEntity().withExternalId("charge-id").build();
         when(sqsQueueService.sendMessage(anyString(), anyString())).thenReturn(mock(QueueMessage.class));
 
-        CaptureQueue queue = new CaptureQueue(sqsQueueService, connectorConfiguration, objectMapper);
+        CaptureQueue queue = new CaptureQueue(sqsQueueService, sqsClient, connectorConfiguration, objectMapper);
         queue.sendForCapture(chargeEntity);
 
         verify(sqsQueueService).sendMessage(connectorConfiguration.getSqsConfig().getCaptureQueueUrl(),
                 "{\"chargeId\":\"charge-id\"}");
     }
+
+    @Test
+    void shouldDeleteProcessedMessagesInBatchesOfTenAndReturnThoseThatFailed() {
+        List<QueueMessage> queueMessages = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            QueueMessage queueMessage = mock(QueueMessage.class);
+            when(queueMessage.getReceiptHandle()).thenReturn("receipt-handle-" + i);
+            queueMessages.add(queueMessage);
+        }
+        when(sqsClient.deleteMessageBatch(any(DeleteMessageBatchRequest.class)))
+                .thenReturn(DeleteMessageBatchResponse.builder()
+                        .failed(BatchResultErrorEntry.builder().id("3").code("ReceiptHandleIsInvalid").message("expired").build())
+                        .build())
+                .thenReturn(DeleteMessageBatchResponse.builder().build());
+
+        CaptureQueue queue = new CaptureQueue(sqsQueueService, sqsClient, connectorConfiguration, objectMapper);
+        List<QueueMessage> failed = queue.markMessagesAsProcessed(queueMessages);
+
+        ArgumentCaptor<DeleteMessageBatchRequest> requests = ArgumentCaptor.forClass(DeleteMessageBatchRequest.class);
+        verify(sqsClient, times(2)).deleteMessageBatch(requests.capture());
+        assertEquals(10, requests.getAllValues().get(0).entries().size());
+        assertThat(requests.getAllValues().get(1).entries().stream().map(DeleteMessageBatchRequestEntry::receiptHandle).toList(),
+                contains("receipt-handle-10", "receipt-handle-11"));
+        assertThat(failed, contains(queueMessages.get(3)));
+    }
 }
@@ -2,13 +2,22 @@ package uk.gov.pay.connector.queue;
 
 
 import org.junit.jupiter.api.Test;
+import uk.gov.pay.connector.events.model.charge.PaymentCreated;
 import uk.gov.pay.connector.events.model.charge.PaymentEvent;
+import uk.gov.pay.connector.events.model.refund.RefundCreatedByUser;
 import uk.gov.pay.connector.queue.statetransition.PaymentStateTransition;
+import uk.gov.pay.connector.queue.statetransition.RefundStateTransition;
 import uk.gov.pay.connector.queue.statetransition.StateTransitionQueue;
 
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static uk.gov.pay.connector.refund.model.domain.RefundStatus.CREATED;
 
 class StateTransitionQueueTest {
     @Test
@@ -38,4 +47,46 @@ class StateTransitionQueueTest {
 
         assertThat(readTransition.getChargeEventId(), is(chargeEventId));
     }
+
+    @Test
+    void shouldKeepTransitionsAndRetriesForTheSameResourceOnOnePartition() {
+        StateTransitionQueue queue = new StateTransitionQueue(8);
+        PaymentStateTransition created = new PaymentStateTransition(1L, "charge-external-id", PaymentCreated.class);
+        PaymentStateTransition authorised = new PaymentStateTransition(2L, "charge-external-id", PaymentEvent.class);
+        RefundStateTransition refund = new RefundStateTransition("charge-external-id", CREATED, RefundCreatedByUser.class);
+
+        int partition = queue.partitionFor(created);
+
+        assertThat(queue.partitionFor(authorised), is(partition));
+        assertThat(queue.partitionFor(authorised.getNext()), is(partition));
+        assertThat(queue.partitionFor(refund), is(partition));
+    }
+
+    @Test
+    void shouldSpreadTransitionsForDifferentResourcesAcrossPartitions() {
+        StateTransitionQueue queue = new StateTransitionQueue(4);
+
+        Set<Integer> partitions = IntStream.range(0, 100)
+                .mapToObj(i -> new PaymentStateTransition(i, "charge-" + i, PaymentEvent.class))
+                .peek(queue::offer)
+                .map(queue::partitionFor)
+                .collect(Collectors.toSet());
+
+        assertThat(partitions.size(), is(4));
+        assertThat(queue.size(), is(100));
+        assertThat(IntStream.range(0, 4).map(queue::size).sum(), is(100));
+    }
+
+    @Test
+    void shouldOnlyBeEmptyWhenEveryPartitionIsEmpty() throws InterruptedException {
+        StateTransitionQueue queue = new StateTransitionQueue(4);
+        PaymentStateTransition transition = new PaymentStateTransition(1L, "charge-external-id", PaymentEvent.class, 0, 0L);
+        queue.offer(transition);
+        int partition = queue.partitionFor(transition);
+
+        assertThat(queue.isEmpty(), is(false));
+        assertNull(queue.poll((partition + 1) % 4, 0L, TimeUnit.MILLISECONDS));
+        assertThat(queue.poll(partition, 0L, TimeUnit.MILLISECONDS), is(transition));
+        assertThat(queue.isEmpty(), is(true));
+    }
 }
@@ -11,6 +11,8 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import uk.gov.pay.connector.app.ConnectorConfiguration;
+import uk.gov.pay.connector.app.EventQueueConfig;
 import uk.gov.pay.connector.charge.model.domain.Charge;
 import uk.gov.pay.connector.charge.model.domain.ChargeEntity;
 import uk.gov.pay.connector.charge.model.domain.ChargeStatus;
@@ -21,24 +23,27 @@ import uk.gov.pay.connector.events.model.charge.PaymentStarted;
 import uk.gov.pay.connector.events.model.refund.RefundCreatedByUser;
 import uk.gov.pay.connector.queue.statetransition.PaymentStateTransition;
 import uk.gov.pay.connector.queue.statetransition.RefundStateTransition;
+import uk.gov.pay.connector.queue.statetransition.StateTransitionOutboxEntity;
 import uk.gov.pay.connector.queue.statetransition.StateTransitionQueue;
 import uk.gov.pay.connector.queue.statetransition.StateTransitionService;
+import uk.gov.pay.connector.queue.statetransition.dao.StateTransitionOutboxDao;
 import uk.gov.pay.connector.refund.model.domain.RefundEntity;
 import uk.gov.pay.connector.refund.model.domain.RefundHistory;
 
 import java.time.Instant;
+import java.time.InstantSource;
 import java.time.ZonedDateTime;
 import java.util.Optional;
 
 import static java.time.ZoneOffset.UTC;
 import static java.time.ZonedDateTime.now;
 import static org.hamcrest.MatcherAssert.assertThat;
-import static org.hamcrest.Matchers.notNullValue;
 import static org.hamcrest.core.Is.is;
 import static org.mockito.ArgumentCaptor.forClass;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 import static uk.gov.pay.connector.charge.model.domain.ChargeEntityFixture.aValidChargeEntity;
@@ -55,6 +60,7 @@ import static uk.gov.pay.connector.refund.model.domain.RefundStatus.CREATED;
 class StateTransitionServiceTest {
     private final CollectorRegistry collectorRegistry = CollectorRegistry.defaultRegistry;
     private static final String[] labelNames = new String[]{"gatewayName", "gatewayAccountType", "toState"};
+    private static final Instant NOW = Instant.parse("2026-10-01T10:15:30Z");
 
     StateTransitionService stateTransitionService;
 
@@ -70,11 +76,24 @@ class StateTransitionServiceTest {
     Counter counter;
     @Mock
     Meter meter;
+    @Mock
+    StateTransitionOutboxDao mockStateTransitionOutboxDao;
+    @Mock
+    ConnectorConfiguration connectorConfiguration;
+    @Mock
+    EventQueueConfig eventQueueConfig;
 
     @BeforeEach
     void setUp() {
+        stateTransitionService = aStateTransitionService(false);
+    }
+
+    private StateTransitionService aStateTransitionService(boolean outboxEnabled) {
         when(environment.metrics()).thenReturn(metricRegistry);
-        stateTransitionService = new StateTransitionService(mockStateTransitionQueue, mockEventService, environment);
+        when(connectorConfiguration.getEventQueueConfig()).thenReturn(eventQueueConfig);
+        when(eventQueueConfig.isStateTransitionOutboxEnabled()).thenReturn(outboxEnabled);
+        return new StateTransitionService(mockStateTransitionQueue, mockStateTransitionOutboxDao, mockEventService,
+                environment, connectorConfiguration, InstantSource.fixed(NOW));
     }
 
     @Test
@@ -135,7 +154,7 @@ class StateTransitionServiceTest {
         assertThat(resourceTypeCaptor.getValue(), is(REFUND));
         assertThat(externalIdCaptor.getValue(), is("external-id"));
         assertThat(eventTypeCaptor.getValue(), is("REFUND_CREATED_BY_USER"));
-        assertThat(eventDateArgumentCaptor.getValue(), is(notNullValue()));
+        assertThat(eventDateArgumentCaptor.getValue(), is(NOW));
 
     }
 
@@ -161,6 +180,51 @@ class StateTransitionServiceTest {
                 "REFUND_CREATED_BY_USER", refundHistory.getHistoryStartDate().toInstant(), doNotEmitRetryUntil);
     }
 
+    @Test
+    void shouldWritePaymentStateTransitionToOutboxInsteadOfQueueWhenOutboxIsEnabled() {
+        stateTransitionService = aStateTransitionService(true);
+        when(metricRegistry.counter(anyString())).thenReturn(counter);
+        when(metricRegistry.meter(anyString())).thenReturn(meter);
+        ChargeEventEntity chargeEvent = aValidChargeEventEntity()
+                .withId(100L)
+                .build();
+
+        stateTransitionService.offerPaymentStateTransition("external-id", ChargeStatus.CREATED, ENTERING_CARD_DETAILS, chargeEvent);
+
+        ArgumentCaptor<StateTransitionOutboxEntity> outboxEntityCaptor = ArgumentCaptor.forClass(StateTransitionOutboxEntity.class);
+        verify(mockStateTransitionOutboxDao).persist(outboxEntityCaptor.capture());
+        verifyNoInteractions(mockStateTransitionQueue);
+
+        StateTransitionOutboxEntity outboxEntity = outboxEntityCaptor.getValue();
+        assertThat(outboxEntity.getResourceType(), is("payment"));
+        assertThat(outboxEntity.getResourceExternalId(), is("external-id"));
+        assertThat(outboxEntity.getChargeEventId(), is(100L));
+        assertThat(outboxEntity.getEventClass(), is(PaymentStarted.class.getName()));
+        assertThat(outboxEntity.getAttempts(), is(0));
+        assertThat(outboxEntity.getCreatedDate(), is(NOW));
+        verify(mockEventService).recordOfferedEvent(PAYMENT, "external-id", "PAYMENT_STARTED", chargeEvent.getUpdated().toInstant());
+    }
+
+    @Test
+    void shouldWriteRefundStateTransitionToOutboxWhenOutboxIsEnabled() throws Exception {
+        stateTransitionService = aStateTransitionService(true);
+        RefundEntity refundEntity = aValidRefundEntity()
+                .withExternalId("external-id")
+                .withStatus(CREATED)
+                .build();
+
+        stateTransitionService.offerRefundStateTransition(refundEntity, CREATED);
+
+        ArgumentCaptor<StateTransitionOutboxEntity> outboxEntityCaptor = ArgumentCaptor.forClass(StateTransitionOutboxEntity.class);
+        verify(mockStateTransitionOutboxDao).persist(outboxEntityCaptor.capture());
+        verifyNoInteractions(mockStateTransitionQueue);
+
+        RefundStateTransition rebuilt = (RefundStateTransition) outboxEntityCaptor.getValue().toStateTransition();
+        assertThat(rebuilt.getRefundExternalId(), is("external-id"));
+        assertThat(rebuilt.getRefundStatus(), is(CREATED));
+        assertThat(rebuilt.getStateTransitionEventClass(), is(RefundCreatedByUser.class));
+    }
+
     private double getMetricSample(String name, String[] labelValues) {
         return Optional.ofNullable(collectorRegistry.getSampleValue(name, labelNames, labelValues)).orElse(0.0);
     }
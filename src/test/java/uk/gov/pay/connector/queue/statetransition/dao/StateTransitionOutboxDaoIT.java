@@ -0,0 +1,110 @@
+package uk.gov.pay.connector.queue.statetransition.dao;
+
+import org.jdbi.v3.core.Handle;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import uk.gov.pay.connector.events.model.charge.PaymentCreated;
+import uk.gov.pay.connector.events.model.refund.RefundCreatedByUser;
+import uk.gov.pay.connector.extension.AppWithPostgresAndSqsExtension;
+import uk.gov.pay.connector.queue.statetransition.PaymentStateTransition;
+import uk.gov.pay.connector.queue.statetransition.RefundStateTransition;
+import uk.gov.pay.connector.queue.statetransition.StateTransitionOutboxEntity;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static uk.gov.pay.connector.refund.model.domain.RefundStatus.CREATED;
+
+public class StateTransitionOutboxDaoIT {
+    @RegisterExtension
+    public static AppWithPostgresAndSqsExtension app = new AppWithPostgresAndSqsExtension();
+    private StateTransitionOutboxDao stateTransitionOutboxDao;
+
+    @BeforeEach
+    void setUp() {
+        stateTransitionOutboxDao = app.getInstanceFromGuiceContainer(StateTransitionOutboxDao.class);
+    }
+
+    @Test
+    void persist_shouldWritePaymentAndRefundStateTransitions() {
+        Instant now = Instant.parse("2024-03-01T10:15:30Z");
+        stateTransitionOutboxDao.persist(StateTransitionOutboxEntity.from(
+                new PaymentStateTransition(100L, "charge-external-id", PaymentCreated.class), now));
+        stateTransitionOutboxDao.persist(StateTransitionOutboxEntity.from(
+                new RefundStateTransition("refund-external-id", CREATED, RefundCreatedByUser.class), now));
+
+        List<Map<String, Object>> rows = app.getDatabaseTestHelper().readStateTransitionOutbox();
+
+        assertThat(rows.size(), is(2));
+        assertThat(rows.get(0).get("resource_type"), is("payment"));
+        assertThat(rows.get(0).get("resource_external_id"), is("charge-external-id"));
+        assertThat(rows.get(0).get("charge_event_id"), is(100L));
+        assertThat(rows.get(0).get("event_class"), is(PaymentCreated.class.getName()));
+        assertThat(((Timestamp) rows.get(0).get("next_attempt_date")).toLocalDateTime(), is(LocalDateTime.parse("2024-03-01T10:15:30")));
+        assertThat(rows.get(1).get("resource_type"), is("refund"));
+        assertThat(rows.get(1).get("refund_status"), is("CREATED"));
+    }
+
+    @Test
+    void claimBatch_shouldReturnDueRowsOldestFirstUpToBatchSize() {
+        Instant now = Instant.parse("2024-03-01T10:15:30Z");
+        StateTransitionOutboxEntity first = aPersistedRow("charge-1", now.minusSeconds(2));
+        StateTransitionOutboxEntity second = aPersistedRow("charge-2", now.minusSeconds(1));
+        aPersistedRow("charge-3", now.minusSeconds(1));
+        aPersistedRow("charge-4", now.plusSeconds(60));
+
+        List<StateTransitionOutboxEntity> claimed = stateTransitionOutboxDao.claimBatch(2, now);
+
+        assertThat(claimed.stream().map(StateTransitionOutboxEntity::getId).toList(), contains(first.getId(), second.getId()));
+    }
+
+    @Test
+    void claimBatch_shouldSkipRowsLockedByAnotherTransaction() {
+        Instant now = Instant.parse("2024-03-01T10:15:30Z");
+        StateTransitionOutboxEntity locked = aPersistedRow("charge-1", now);
+        StateTransitionOutboxEntity unlocked = aPersistedRow("charge-2", now);
+
+        try (Handle otherNode = app.getJdbi().open()) {
+            otherNode.begin();
+            otherNode.createQuery("SELECT id FROM state_transition_outbox WHERE id = :id FOR UPDATE")
+                    .bind("id", locked.getId())
+                    .mapTo(Long.class)
+                    .one();
+
+            List<StateTransitionOutboxEntity> claimed = stateTransitionOutboxDao.claimBatch(10, now);
+
+            assertThat(claimed.stream().map(StateTransitionOutboxEntity::getId).toList(), contains(unlocked.getId()));
+            otherNode.rollback();
+        }
+    }
+
+    @Test
+    void scheduleRetryAndDeleteByIds_shouldUpdateAndRemoveRows() {
+        Instant now = Instant.parse("2024-03-01T10:15:30Z");
+        StateTransitionOutboxEntity retried = aPersistedRow("charge-1", now);
+        StateTransitionOutboxEntity published = aPersistedRow("charge-2", now);
+
+        stateTransitionOutboxDao.scheduleRetry(retried.getId(), 1, now.plusSeconds(5));
+        stateTransitionOutboxDao.deleteByIds(List.of(published.getId()));
+
+        List<Map<String, Object>> rows = app.getDatabaseTestHelper().readStateTransitionOutbox();
+        assertThat(rows.size(), is(1));
+        assertThat(rows.getFirst().get("attempts"), is(1));
+        assertThat(((Timestamp) rows.getFirst().get("next_attempt_date")).toLocalDateTime(), is(LocalDateTime.parse("2024-03-01T10:15:35")));
+        assertThat(stateTransitionOutboxDao.claimBatch(10, now).isEmpty(), is(true));
+    }
+
+    private StateTransitionOutboxEntity aPersistedRow(String chargeExternalId, Instant createdDate) {
+        StateTransitionOutboxEntity row = StateTransitionOutboxEntity.from(
+                new PaymentStateTransition(1L, chargeExternalId, PaymentCreated.class), createdDate);
+        stateTransitionOutboxDao.persist(row);
+        return row;
+    }
+}
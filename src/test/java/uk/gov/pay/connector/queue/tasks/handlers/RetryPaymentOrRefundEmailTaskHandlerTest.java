@@ -11,6 +11,7 @@ import uk.gov.pay.connector.app.NotifyConfiguration;
 import uk.gov.pay.connector.charge.exception.ChargeNotFoundRuntimeException;
 import uk.gov.pay.connector.charge.model.domain.Charge;
 import uk.gov.pay.connector.charge.service.ChargeService;
+import uk.gov.pay.connector.common.exception.TooManyEmailsRuntimeException;
 import uk.gov.pay.connector.gatewayaccount.exception.GatewayAccountNotFoundException;
 import uk.gov.pay.connector.gatewayaccount.model.GatewayAccountEntity;
 import uk.gov.pay.connector.gatewayaccount.service.GatewayAccountService;
@@ -123,6 +124,25 @@ class RetryPaymentOrRefundEmailTaskHandlerTest {
 
             verify(mockUserNotificationService).sendPaymentConfirmedEmailSynchronously(charge, gatewayAccountEntity, false);
         }
+
+        @Test
+        void shouldAddTaskBackToQueueIfTooManyEmailsAreBeingSentForTheService() {
+            var data = of(paymentExternalId, PAYMENT_CONFIRMED, Instant.parse("2020-01-01T09:10:10.100Z"));
+
+            GatewayAccountEntity gatewayAccountEntity = aGatewayAccountEntity().withId(1L).build();
+            Charge charge = Charge.from(aValidChargeEntity()
+                    .withGatewayAccountEntity(gatewayAccountEntity)
+                    .build());
+            when(mockChargeService.findCharge(paymentExternalId))
+                    .thenReturn(Optional.of(charge));
+            when(mockGatewayAccountService.getGatewayAccount(1L)).thenReturn(Optional.of(gatewayAccountEntity));
+            when(mockUserNotificationService.sendPaymentConfirmedEmailSynchronously(charge, gatewayAccountEntity, false))
+                    .thenThrow(new TooManyEmailsRuntimeException(PAYMENT_CONFIRMED.name(), paymentExternalId, 1));
+
+            retryPaymentOrRefundEmailTaskHandler.process(data);
+
+            verify(mockTaskQueueService).addRetryFailedPaymentOrRefundEmailTask(data);
+        }
     }
 
     @Nested
@@ -20,6 +20,7 @@ import uk.gov.pay.connector.gatewayaccount.model.GatewayAccountEntity;
 import uk.gov.pay.connector.gatewayaccount.model.GatewayCredentials;
 import uk.gov.pay.connector.gatewayaccount.model.WorldpayCredentials;
 import uk.gov.pay.connector.gatewayaccount.model.WorldpayMerchantCodeCredentials;
+import uk.gov.pay.connector.gatewayaccount.service.GatewayAccountCache;
 import uk.gov.pay.connector.gatewayaccount.service.GatewayAccountService;
 import uk.gov.pay.connector.gatewayaccountcredentials.dao.GatewayAccountCredentialsDao;
 import uk.gov.pay.connector.gatewayaccountcredentials.dao.GatewayAccountCredentialsHistoryDao;
@@ -67,6 +68,9 @@ class GatewayAccountServiceDisableGatewayAccountTest {
     @Mock
     private GatewayAccountCredentialsDao mockGatewayAccountCredentialsDao;
 
+    @Mock
+    private GatewayAccountCache mockGatewayAccountCache;
+
     @Captor
     private ArgumentCaptor<GatewayAccountEntity> updatedGatewayAccountEntity;
 
@@ -77,7 +81,7 @@ class GatewayAccountServiceDisableGatewayAccountTest {
     void setUp() {
         gatewayAccountService = new GatewayAccountService(mockGatewayAccountDao, mock(CardTypeDao.class),
                 mock(GatewayAccountCredentialsService.class), mockGatewayAccountCredentialsHistoryDao,
-                mockGatewayAccountCredentialsDao, mock(UnitOfWork.class));
+                mockGatewayAccountCredentialsDao, mock(UnitOfWork.class), mockGatewayAccountCache);
     }
 
     @Test
@@ -92,6 +96,7 @@ class GatewayAccountServiceDisableGatewayAccountTest {
 
         gatewayAccountService.disableAccountsAndRedactOrDeleteCredentials(serviceId);
 
+        verify(mockGatewayAccountCache).invalidate(gatewayAccount.getId());
         assertThat(logs.size(), is(2));
         logs.assertContains("Disabling gateway accounts %s for service.".formatted(gatewayAccount.getExternalId()));
         logs.assertContains("No credentials to redact.");
@@ -193,6 +198,7 @@ class GatewayAccountServiceDisableGatewayAccountTest {
 
     private static GatewayAccountEntity setupGatewayAccountEntity(PaymentGatewayName paymentGatewayName, Map<String, Object> creds) {
         GatewayAccountEntity account1 = new GatewayAccountEntity(TEST);
+        account1.setId(1L);
         account1.setExternalId(randomUuid());
         account1.setDisabled(false);
         account1.setGatewayAccountCredentials(List.of(
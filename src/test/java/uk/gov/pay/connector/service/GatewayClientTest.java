@@ -12,6 +12,7 @@ import jakarta.ws.rs.client.Invocation.Builder;
 import jakarta.ws.rs.client.WebTarget;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -19,6 +20,8 @@ import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import uk.gov.pay.connector.app.config.GatewayBulkheadConfig;
+import uk.gov.pay.connector.gateway.GatewayBulkheads;
 import uk.gov.pay.connector.gateway.GatewayClient;
 import uk.gov.pay.connector.gateway.GatewayException;
 import uk.gov.pay.connector.gateway.GatewayOrder;
@@ -30,14 +33,23 @@ import java.net.URI;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static java.util.Collections.emptyList;
 import static java.util.Collections.emptyMap;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.startsWith;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -47,12 +59,15 @@ import static uk.gov.pay.connector.gateway.PaymentGatewayName.WORLDPAY;
 public class GatewayClientTest {
 
     private static final URI WORLDPAY_API_ENDPOINT = URI.create("http://www.example.com/worldpay/order");
+    private final GatewayBulkheads bulkheads = new GatewayBulkheads(new GatewayBulkheadConfig(1, 0, 1));
     private GatewayClient gatewayClient;
 
     private String orderPayload = "a-sample-payload";
 
     private MediaType mediaType = MediaType.APPLICATION_XML_TYPE;
 
+    private final GatewayOrder gatewayOrder = new GatewayOrder(OrderRequestType.AUTHORISE, orderPayload, mediaType);
+
     private final CollectorRegistry collectorRegistry = CollectorRegistry.defaultRegistry;
     private String[] labelNames = new String[]{"gatewayName", "gatewayAccountType", "requestType"};
 
@@ -69,16 +84,19 @@ public class GatewayClientTest {
     @Mock
     private Counter mockFailureCounter;
     @Mock
-    private GatewayOrder mockGatewayOrder;
-    @Mock
     private WebTarget mockWebTarget;
 
     @BeforeEach
     public void setup() {
         gatewayClient = new GatewayClient(mockClient,
-                mockMetricRegistry);
+                mockMetricRegistry, bulkheads);
 
-        when(mockClient.target(WORLDPAY_API_ENDPOINT)).thenReturn(mockWebTarget);
+        lenient().when(mockClient.target(WORLDPAY_API_ENDPOINT)).thenReturn(mockWebTarget);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        bulkheads.stop();
     }
 
     @Test
@@ -90,7 +108,7 @@ public class GatewayClientTest {
         double histogramCountBefore = getMetricSample("gateway_operations_response_time_seconds_count", new String[]{"worldpay", "test", "authorise"});
 
         assertThrows(GatewayException.GatewayErrorException.class,
-                () -> gatewayClient.postRequestFor(WORLDPAY_API_ENDPOINT, WORLDPAY, "test", mockGatewayOrder, emptyMap()));
+                () -> gatewayClient.postRequestFor(WORLDPAY_API_ENDPOINT, WORLDPAY, "test", gatewayOrder, emptyMap()));
 
         double failureCounterAfter = getMetricSample("gateway_operations_failures_total", new String[]{"worldpay", "test", "authorise"});
         double histogramCountAfter = getMetricSample("gateway_operations_response_time_seconds_count", new String[]{"worldpay", "test", "authorise"});
@@ -103,14 +121,14 @@ public class GatewayClientTest {
     @Test
     public void shouldReturnGatewayErrorWhenProviderFailsWithAProcessingException() {
         setupPostRequestMocks();
-        when(mockBuilder.post(Entity.entity(orderPayload, mediaType))).thenThrow(new ProcessingException(new SocketException("socket failed")));
+        when(mockBuilder.post(Entity.entity(gatewayOrder.body(), mediaType))).thenThrow(new ProcessingException(new SocketException("socket failed")));
         when(mockMetricRegistry.counter("gateway-operations.worldpay.test.authorise.failures")).thenReturn(mockFailureCounter);
         double failureCounterBefore = getMetricSample("gateway_operations_failures_total", new String[]{"worldpay", "test", "authorise"});
         double histogramCountBefore = getMetricSample("gateway_operations_response_time_seconds_count", new String[]{"worldpay", "test", "authorise"});
         doAnswer(invocationOnMock -> null).when(mockFailureCounter).inc();
 
         assertThrows(GatewayException.GenericGatewayException.class,
-                () -> gatewayClient.postRequestFor(WORLDPAY_API_ENDPOINT, WORLDPAY, "test", mockGatewayOrder, emptyMap()));
+                () -> gatewayClient.postRequestFor(WORLDPAY_API_ENDPOINT, WORLDPAY, "test", gatewayOrder, emptyMap()));
 
         double failureCounterAfter = getMetricSample("gateway_operations_failures_total", new String[]{"worldpay", "test", "authorise"});
         double histogramCountAfter = getMetricSample("gateway_operations_response_time_seconds_count", new String[]{"worldpay", "test", "authorise"});
@@ -125,18 +143,81 @@ public class GatewayClientTest {
         when(mockResponse.getStatus()).thenReturn(200);
         double histogramCountBefore = getMetricSample("gateway_operations_response_time_seconds_count", new String[]{"worldpay", "test", "authorise"});
 
-        gatewayClient.postRequestFor(WORLDPAY_API_ENDPOINT, WORLDPAY, "test", mockGatewayOrder,
+        gatewayClient.postRequestFor(WORLDPAY_API_ENDPOINT, WORLDPAY, "test", gatewayOrder,
                 ImmutableList.of(new HttpCookie("machine", "value")), emptyMap());
 
         InOrder inOrder = Mockito.inOrder(mockBuilder);
         inOrder.verify(mockBuilder).header("Cookie", "machine=value");
-        inOrder.verify(mockBuilder).post(Entity.entity(orderPayload, mediaType));
+        inOrder.verify(mockBuilder).post(Entity.entity(gatewayOrder.body(), mediaType));
         verify(mockResponseTimeHistogram).update(anyLong());
 
         double histogramCountAfter = getMetricSample("gateway_operations_response_time_seconds_count", new String[]{"worldpay", "test", "authorise"});
         assertEquals(histogramCountBefore + 1, histogramCountAfter);
     }
 
+    @Test
+    void postRequestShouldRunOnCallingThread() throws Exception {
+        setupPostRequestMocks();
+        when(mockResponse.getStatus()).thenReturn(200);
+        AtomicReference<String> requestThreadName = new AtomicReference<>();
+        when(mockBuilder.post(Entity.entity(gatewayOrder.body(), mediaType))).thenAnswer(invocationOnMock -> {
+            requestThreadName.set(Thread.currentThread().getName());
+            return mockResponse;
+        });
+
+        gatewayClient.postRequestFor(WORLDPAY_API_ENDPOINT, WORLDPAY, "test", gatewayOrder, emptyMap());
+
+        assertThat(requestThreadName.get(), is(Thread.currentThread().getName()));
+    }
+
+    @Test
+    void postRequestShouldFailWithoutCallingGatewayWhenGatewayHasNoPermitsLeft() throws Exception {
+        GatewayBulkheads.Permit permit = bulkheads.acquire(WORLDPAY, OrderRequestType.AUTHORISE);
+        try {
+            assertThrows(GatewayException.GenericGatewayException.class,
+                    () -> gatewayClient.postRequestFor(WORLDPAY_API_ENDPOINT, WORLDPAY, "test", gatewayOrder, emptyMap()));
+        } finally {
+            permit.release();
+        }
+
+        verify(mockClient, never()).target(WORLDPAY_API_ENDPOINT);
+    }
+
+    @Test
+    void postRequestForAsyncShouldCompleteWithGatewayResponseAndRecordMetrics() throws Exception {
+        setupPostRequestMocks();
+        when(mockResponse.getStatus()).thenReturn(200);
+        when(mockResponse.readEntity(String.class)).thenReturn("response");
+        AtomicReference<String> requestThreadName = new AtomicReference<>();
+        when(mockBuilder.post(Entity.entity(gatewayOrder.body(), mediaType))).thenAnswer(invocationOnMock -> {
+            requestThreadName.set(Thread.currentThread().getName());
+            return mockResponse;
+        });
+        double histogramCountBefore = getMetricSample("gateway_operations_response_time_seconds_count", new String[]{"worldpay", "test", "authorise"});
+
+        GatewayClient.Response response = gatewayClient.postRequestForAsync(WORLDPAY_API_ENDPOINT, WORLDPAY, "test", gatewayOrder, emptyMap())
+                .toCompletableFuture().get(5, TimeUnit.SECONDS);
+
+        assertEquals("response", response.getEntity());
+        assertThat(requestThreadName.get(), startsWith("gateway-bulkhead-worldpay-authorise-"));
+        double histogramCountAfter = getMetricSample("gateway_operations_response_time_seconds_count", new String[]{"worldpay", "test", "authorise"});
+        assertEquals(histogramCountBefore + 1, histogramCountAfter);
+    }
+
+    @Test
+    void postRequestForAsyncShouldCompleteExceptionallyWhenProviderFails() {
+        setupPostRequestMocks();
+        when(mockResponse.getStatus()).thenReturn(500);
+        when(mockMetricRegistry.counter("gateway-operations.worldpay.test.authorise.failures")).thenReturn(mockFailureCounter);
+
+        var thrown = assertThrows(ExecutionException.class,
+                () -> gatewayClient.postRequestForAsync(WORLDPAY_API_ENDPOINT, WORLDPAY, "test", gatewayOrder, emptyMap())
+                        .toCompletableFuture().get(5, TimeUnit.SECONDS));
+
+        assertInstanceOf(GatewayException.GatewayErrorException.class, thrown.getCause());
+        verify(mockFailureCounter).inc();
+    }
+
     @Test
     public void getRequestShouldReturnGatewayErrorWhenProviderFails() {
         setupGetRequestMocks();
@@ -273,11 +354,7 @@ public class GatewayClientTest {
         when(mockMetricRegistry.histogram("gateway-operations.worldpay.test.authorise.response_time")).thenReturn(mockResponseTimeHistogram);
 
         when(mockWebTarget.request()).thenReturn(mockBuilder).thenReturn(mockBuilder);
-        when(mockBuilder.post(Entity.entity(orderPayload, mediaType))).thenReturn(mockResponse);
-
-        when(mockGatewayOrder.orderRequestType()).thenReturn(OrderRequestType.AUTHORISE);
-        when(mockGatewayOrder.payload()).thenReturn(orderPayload);
-        when(mockGatewayOrder.mediaType()).thenReturn(mediaType);
+        when(mockBuilder.post(Entity.entity(gatewayOrder.body(), mediaType))).thenReturn(mockResponse);
     }
 
     private void setupGetRequestMocks() {
@@ -108,7 +108,7 @@ public class RefundReversalServiceTest {
                 .withExternalId(refundExternalId)
                 .withStatus(ExternalRefundStatus.EXTERNAL_SUBMITTED.getStatus())
                 .build();
-        when(mockLedgerService.getTransaction(refundExternalId)).thenReturn(Optional.of(ledgerTransaction));
+        when(mockLedgerService.getHistoricTransaction(refundExternalId)).thenReturn(Optional.of(ledgerTransaction));
 
         Optional<Refund> result = refundReversalService.findMaybeHistoricRefundByRefundId(refundExternalId);
 
@@ -134,7 +134,7 @@ public class RefundReversalServiceTest {
     @Test
     void shouldNotFindRefund() {
         when(mockRefundDao.findByExternalId(refundExternalId)).thenReturn(Optional.empty());
-        when(mockLedgerService.getTransaction(refundExternalId)).thenReturn(Optional.empty());
+        when(mockLedgerService.getHistoricTransaction(refundExternalId)).thenReturn(Optional.empty());
 
         Optional<Refund> result = refundReversalService.findMaybeHistoricRefundByRefundId(refundExternalId);
 
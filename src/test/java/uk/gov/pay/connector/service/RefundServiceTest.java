@@ -225,7 +225,7 @@ public class RefundServiceTest {
                 .withParentTransactionId(externalChargeId)
                 .withTransactions(List.of(ledgerRefund))
                 .build();
-        when(mockLedgerService.getRefundsForPayment(accountId, externalChargeId))
+        when(mockLedgerService.getHistoricRefundsForPayment(accountId, externalChargeId))
                 .thenReturn(refundTransactionsForPayment);
 
         ChargeRefundResponse gatewayResponse = refundService.submitRefund(account, Charge.from(transaction), new RefundRequest(REFUND_AMOUNT, 400L, userExternalId));
@@ -553,7 +553,7 @@ public class RefundServiceTest {
                 .withParentTransactionId(externalChargeId)
                 .withTransactions(List.of())
                 .build();
-        when(mockLedgerService.getRefundsForPayment(accountId, externalChargeId))
+        when(mockLedgerService.getHistoricRefundsForPayment(accountId, externalChargeId))
                 .thenReturn(refundTransactionsForPayment);
 
         var thrown = assertThrows(RefundException.class,
@@ -665,7 +665,7 @@ public class RefundServiceTest {
         var refundTransactionsForPayment = aValidRefundTransactionsForPayment()
                 .withTransactions(List.of(refundObtainedFromLedger))
                 .withParentTransactionId(externalChargeId).build();
-        when(mockLedgerService.getRefundsForPayment(accountId, externalChargeId)).thenReturn(refundTransactionsForPayment);
+        when(mockLedgerService.getHistoricRefundsForPayment(accountId, externalChargeId)).thenReturn(refundTransactionsForPayment);
 
         var thrown = assertThrows(RefundException.class,
                 () -> refundService.submitRefund(account, charge, new RefundRequest(100L, 800L, userExternalId)));
@@ -782,7 +782,7 @@ public class RefundServiceTest {
 
         List<Refund> refunds = refundService.findRefunds(charge);
 
-        verify(mockLedgerService, never()).getRefundsForPayment(charge.getGatewayAccountId(), charge.getExternalId());
+        verify(mockLedgerService, never()).getHistoricRefundsForPayment(charge.getGatewayAccountId(), charge.getExternalId());
 
         assertThat(refunds.size(), is(2));
         assertThat(refunds.getFirst().getChargeExternalId(), is(charge.getExternalId()));
@@ -834,7 +834,7 @@ public class RefundServiceTest {
                 .withParentTransactionId(charge.getExternalId())
                 .withTransactions(List.of(ledgerRefund1, ledgerRefund2))
                 .build();
-        when(mockLedgerService.getRefundsForPayment(charge.getGatewayAccountId(), charge.getExternalId()))
+        when(mockLedgerService.getHistoricRefundsForPayment(charge.getGatewayAccountId(), charge.getExternalId()))
                 .thenReturn(refundTransactionsForPayment);
 
         List<Refund> refunds = refundService.findRefunds(charge);
@@ -871,7 +871,7 @@ public class RefundServiceTest {
                 .withParentTransactionId(charge.getExternalId())
                 .withTransactions(List.of(ledgerRefund1, ledgerRefund2))
                 .build();
-        when(mockLedgerService.getRefundsForPayment(charge.getGatewayAccountId(), charge.getExternalId()))
+        when(mockLedgerService.getHistoricRefundsForPayment(charge.getGatewayAccountId(), charge.getExternalId()))
                 .thenReturn(refundTransactionsForPayment);
 
         Optional<Refund> mayBeRefund = refundService.findHistoricRefundByChargeExternalIdAndGatewayTransactionId(charge, "refund-gateway-tx-1");
@@ -888,7 +888,7 @@ public class RefundServiceTest {
                 .withParentTransactionId(charge.getExternalId())
                 .withTransactions(List.of())
                 .build();
-        when(mockLedgerService.getRefundsForPayment(charge.getGatewayAccountId(), charge.getExternalId()))
+        when(mockLedgerService.getHistoricRefundsForPayment(charge.getGatewayAccountId(), charge.getExternalId()))
                 .thenReturn(refundTransactionsForPayment);
 
         Optional<Refund> mayBeRefund = refundService.findHistoricRefundByChargeExternalIdAndGatewayTransactionId(charge, "some-gateway-tx-id");
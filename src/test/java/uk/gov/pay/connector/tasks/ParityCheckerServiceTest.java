@@ -1,11 +1,15 @@
 package uk.gov.pay.connector.tasks;
 
+import com.google.inject.persist.UnitOfWork;
+import jakarta.ws.rs.ProcessingException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import uk.gov.pay.connector.app.ConnectorConfiguration;
+import uk.gov.pay.connector.app.config.ParityCheckerConfig;
 import uk.gov.pay.connector.charge.dao.ChargeDao;
 import uk.gov.pay.connector.charge.model.domain.Charge;
 import uk.gov.pay.connector.charge.model.domain.ChargeEntity;
@@ -13,6 +17,7 @@ import uk.gov.pay.connector.charge.model.domain.ChargeStatus;
 import uk.gov.pay.connector.charge.model.domain.ParityCheckStatus;
 import uk.gov.pay.connector.charge.service.ChargeService;
 import uk.gov.pay.connector.chargeevent.model.domain.ChargeEventEntity;
+import uk.gov.pay.connector.client.ledger.exception.LedgerException;
 import uk.gov.pay.connector.client.ledger.model.LedgerTransaction;
 import uk.gov.pay.connector.client.ledger.service.LedgerService;
 import uk.gov.pay.connector.events.EventService;
@@ -38,6 +43,7 @@ import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.mockito.ArgumentMatchers.any;
@@ -92,6 +98,10 @@ class ParityCheckerServiceTest {
     private HistoricalEventEmitter historicalEventEmitter;
     @Mock
     private RefundEntityFactory refundEntityFactory;
+    @Mock
+    private UnitOfWork unitOfWork;
+    @Mock
+    private ConnectorConfiguration connectorConfiguration;
     @InjectMocks
     ChargeParityChecker chargeParityChecker;
 
@@ -110,8 +120,7 @@ class ParityCheckerServiceTest {
         parityCheckService = new ParityCheckService(ledgerService, chargeService, historicalEventEmitter,
                 chargeParityChecker, refundParityChecker, refundService);
 
-        parityCheckerService = new ParityCheckerService(chargeDao, chargeService, emittedEventDao,
-                stateTransitionService, eventService, refundService, refundDao, parityCheckService);
+        parityCheckerService = aParityCheckerService(new ParityCheckerConfig(100, 2));
         chargeEntity = aValidChargeEntity()
                 .withCardDetails(defaultCardDetails())
                 .withGatewayAccountEntity(defaultGatewayAccountEntity())
@@ -145,29 +154,28 @@ class ParityCheckerServiceTest {
     void executeSkipsParityCheckForAlreadyCheckedChargesExistingInLedger() {
         chargeEntity.updateParityCheck(ParityCheckStatus.EXISTS_IN_LEDGER);
         when(chargeDao.findMaxId()).thenReturn(1L);
-        when(chargeDao.findById(1L)).thenReturn(Optional.of(chargeEntity));
+        when(chargeDao.findByIdRangeWithEvents(0L, 1L, 100)).thenReturn(List.of(chargeEntity));
 
         parityCheckerService.checkParity(1L, Optional.empty(), true,
                 emptyParityCheckStatus, null);
 
-        verify(chargeService, never()).updateChargeParityStatus(any(), any());
+        verify(chargeService, never()).updateChargeParityStatuses(any(), any());
+        verify(ledgerService, never()).getTransaction(any());
         verify(stateTransitionService, never()).offerStateTransition(any(), any(), any());
         verify(emittedEventDao, never()).recordEmission(any(), any());
-        verify(chargeDao, never()).findById(2L);
     }
 
     @Test
     void executeRecordsParityStatusForChargesExistingInLedger() {
         when(chargeDao.findMaxId()).thenReturn(1L);
-        when(chargeDao.findById(1L)).thenReturn(Optional.of(chargeEntity));
+        when(chargeDao.findByIdRangeWithEvents(0L, 1L, 100)).thenReturn(List.of(chargeEntity));
         when(ledgerService.getTransaction(chargeEntity.getExternalId())).thenReturn(Optional.of(from(chargeEntity, null).build()));
 
         parityCheckerService.checkParity(1L, Optional.empty(), doNotReprocessValidRecords, emptyParityCheckStatus, 1L);
 
-        verify(chargeService, times(1)).updateChargeParityStatus(chargeEntity.getExternalId(), ParityCheckStatus.EXISTS_IN_LEDGER);
+        verify(chargeService, times(1)).updateChargeParityStatuses(List.of(chargeEntity.getId()), ParityCheckStatus.EXISTS_IN_LEDGER);
         verify(stateTransitionService, never()).offerStateTransition(any(), any(), any());
         verify(emittedEventDao, never()).recordEmission(any(), any());
-        verify(chargeDao, never()).findById(2L);
     }
 
     @Test
@@ -175,8 +183,9 @@ class ParityCheckerServiceTest {
         RefundEntity refundEntity = aValidRefundEntity().build();
         chargeEntity.setStatus(ChargeStatus.EXPIRED);
         when(chargeDao.findMaxId()).thenReturn(1L);
-        when(chargeDao.findById(1L)).thenReturn(Optional.of(chargeEntity));
-        when(refundService.findNotExpungedRefunds(chargeEntity.getExternalId())).thenReturn(List.of(refundEntity));
+        when(chargeDao.findByIdRangeWithEvents(0L, 1L, 100)).thenReturn(List.of(chargeEntity));
+        when(refundService.findNotExpungedRefundsByChargeExternalId(List.of(chargeEntity.getExternalId())))
+                .thenReturn(Map.of(chargeEntity.getExternalId(), List.of(refundEntity)));
         when(refundService.findRefunds(Charge.from(chargeEntity))).thenReturn(List.of(Refund.from(refundEntity)));
         when(ledgerService.getTransaction(chargeEntity.getExternalId())).thenReturn(Optional.of(from(chargeEntity, null).build()));
         LedgerTransaction refundTransaction = from(chargeEntity.getGatewayAccount().getId(), refundEntity).build();
@@ -190,23 +199,22 @@ class ParityCheckerServiceTest {
 
         parityCheckerService.checkParity(1L, Optional.empty(), doNotReprocessValidRecords, emptyParityCheckStatus, 1L);
 
-        verify(chargeService, times(1)).updateChargeParityStatus(chargeEntity.getExternalId(), ParityCheckStatus.EXISTS_IN_LEDGER);
+        verify(chargeService, times(1)).updateChargeParityStatuses(List.of(chargeEntity.getId()), ParityCheckStatus.EXISTS_IN_LEDGER);
         verify(ledgerService, times(2)).getTransaction(any());
         verify(ledgerService, times(1)).getTransaction(chargeEntity.getExternalId());
         verify(stateTransitionService, never()).offerStateTransition(any(), any(), any());
         verify(emittedEventDao, never()).recordEmission(any(), any());
-        verify(chargeDao, never()).findById(2L);
     }
 
     @Test
     void executeRecordsParityStatusForChargeWithDifferentStatusInLedger() {
         when(chargeDao.findMaxId()).thenReturn(1L);
-        when(chargeDao.findById(1L)).thenReturn(Optional.of(chargeEntity));
+        when(chargeDao.findByIdRangeWithEvents(0L, 1L, 100)).thenReturn(List.of(chargeEntity));
         when(ledgerService.getTransaction(chargeEntity.getExternalId())).thenReturn(Optional.of(aValidLedgerTransaction().withStatus("started").build()));
 
         parityCheckerService.checkParity(1L, Optional.empty(), doNotReprocessValidRecords, emptyParityCheckStatus, 1L);
 
-        verify(chargeService, times(1)).updateChargeParityStatus(chargeEntity.getExternalId(), DATA_MISMATCH);
+        verify(chargeService, times(1)).updateChargeParityStatuses(List.of(chargeEntity.getId()), DATA_MISMATCH);
         verify(ledgerService, times(1)).getTransaction(any());
         verify(ledgerService, times(1)).getTransaction(chargeEntity.getExternalId());
         verify(stateTransitionService, times(1)).offerStateTransition(any(), any(), notNull());
@@ -215,59 +223,58 @@ class ParityCheckerServiceTest {
     @Test
     void executeEmitsEventAndRecordsEmissionWhenRefundDoesNotExist() {
         when(chargeDao.findMaxId()).thenReturn(1L);
-        when(refundService.findNotExpungedRefunds(chargeEntity.getExternalId()))
-                .thenReturn(List.of(aValidRefundEntity().build(), aValidRefundEntity().build()));
-        when(chargeDao.findById(1L)).thenReturn(Optional.of(chargeEntity));
+        when(refundService.findNotExpungedRefundsByChargeExternalId(List.of(chargeEntity.getExternalId())))
+                .thenReturn(Map.of(chargeEntity.getExternalId(), List.of(aValidRefundEntity().build(), aValidRefundEntity().build())));
+        when(chargeDao.findByIdRangeWithEvents(0L, 1L, 100)).thenReturn(List.of(chargeEntity));
         when(ledgerService.getTransaction(any())).thenReturn(Optional.empty());
         when(ledgerService.getTransaction(chargeEntity.getExternalId())).thenReturn(Optional.of(from(chargeEntity, null).build()));
 
         parityCheckerService.checkParity(1L, Optional.empty(), doNotReprocessValidRecords, emptyParityCheckStatus, 1L);
 
-        verify(chargeService, times(1)).updateChargeParityStatus(chargeEntity.getExternalId(), MISSING_IN_LEDGER);
-        verify(ledgerService, times(2)).getTransaction(any());
+        verify(chargeService, times(1)).updateChargeParityStatuses(List.of(chargeEntity.getId()), MISSING_IN_LEDGER);
+        verify(ledgerService, times(3)).getTransaction(any());
         verify(stateTransitionService, times(1)).offerStateTransition(any(), any(), notNull());
     }
 
     @Test
     void executeEmitsEventAndRecordsEmissionWhenRefundWithDifferentStatusInLedger() {
         when(chargeDao.findMaxId()).thenReturn(1L);
-        when(refundService.findNotExpungedRefunds(chargeEntity.getExternalId()))
-                .thenReturn(List.of(aValidRefundEntity().build(), aValidRefundEntity().build()));
-        when(chargeDao.findById(1L)).thenReturn(Optional.of(chargeEntity));
+        when(refundService.findNotExpungedRefundsByChargeExternalId(List.of(chargeEntity.getExternalId())))
+                .thenReturn(Map.of(chargeEntity.getExternalId(), List.of(aValidRefundEntity().build(), aValidRefundEntity().build())));
+        when(chargeDao.findByIdRangeWithEvents(0L, 1L, 100)).thenReturn(List.of(chargeEntity));
         when(ledgerService.getTransaction(any())).thenReturn(Optional.of(
                 aValidLedgerTransaction().withStatus("failed").build()));
         when(ledgerService.getTransaction(chargeEntity.getExternalId())).thenReturn(Optional.of(from(chargeEntity, null).build()));
 
         parityCheckerService.checkParity(1L, Optional.empty(), doNotReprocessValidRecords, emptyParityCheckStatus, 1L);
 
-        verify(chargeService, times(1)).updateChargeParityStatus(chargeEntity.getExternalId(), DATA_MISMATCH);
-        verify(ledgerService, times(2)).getTransaction(any());
+        verify(chargeService, times(1)).updateChargeParityStatuses(List.of(chargeEntity.getId()), DATA_MISMATCH);
+        verify(ledgerService, times(3)).getTransaction(any());
         verify(stateTransitionService, times(1)).offerStateTransition(any(), any(), notNull());
     }
 
     @Test
     void executeEmitsEventAndRecordsEmission() {
         when(chargeDao.findMaxId()).thenReturn(1L);
-        when(chargeDao.findById(1L)).thenReturn(Optional.of(chargeEntity));
+        when(chargeDao.findByIdRangeWithEvents(0L, 1L, 100)).thenReturn(List.of(chargeEntity));
         when(ledgerService.getTransaction(chargeEntity.getExternalId())).thenReturn(Optional.empty());
 
         parityCheckerService.checkParity(1L, Optional.empty(), doNotReprocessValidRecords, emptyParityCheckStatus,
                 120L);
 
-        verify(chargeService, times(1)).updateChargeParityStatus(chargeEntity.getExternalId(),
-                MISSING_IN_LEDGER);
+        verify(chargeService, times(1)).updateChargeParityStatuses(List.of(chargeEntity.getId()), MISSING_IN_LEDGER);
         verify(ledgerService, times(1)).getTransaction(any());
         verify(stateTransitionService, times(1)).offerStateTransition(any(), any(), notNull());
     }
 
     @Test
     void executeShouldEmitEventIfEmittedPreviously() {
-        when(chargeDao.findById((any()))).thenReturn(Optional.of(chargeEntity));
+        when(chargeDao.findByIdRangeWithEvents(0L, 1L, 100)).thenReturn(List.of(chargeEntity));
         when(ledgerService.getTransaction(chargeEntity.getExternalId())).thenReturn(Optional.empty());
 
         parityCheckerService.checkParity(1L, Optional.of(1L), doNotReprocessValidRecords, emptyParityCheckStatus, 120L);
 
-        verify(chargeService, times(1)).updateChargeParityStatus(chargeEntity.getExternalId(), MISSING_IN_LEDGER);
+        verify(chargeService, times(1)).updateChargeParityStatuses(List.of(chargeEntity.getId()), MISSING_IN_LEDGER);
         verify(ledgerService, times(1)).getTransaction(any());
         verify(stateTransitionService, times(1)).offerStateTransition(any(), any(), notNull());
     }
@@ -281,7 +288,7 @@ class ParityCheckerServiceTest {
         parityCheckerService.checkParity(0L, Optional.empty(), doNotReprocessValidRecords, Optional.of("DATA_MISMATCH"), 1L);
 
         verify(chargeDao, times(2)).findByParityCheckStatus(eq(DATA_MISMATCH), anyInt(), any());
-        verify(chargeService, times(1)).updateChargeParityStatus(chargeEntity.getExternalId(), MISSING_IN_LEDGER);
+        verify(chargeService, times(1)).updateChargeParityStatuses(List.of(chargeEntity.getId()), MISSING_IN_LEDGER);
         verify(ledgerService, times(1)).getTransaction(any());
         verify(stateTransitionService, times(1)).offerStateTransition(any(), any(), notNull());
     }
@@ -297,7 +304,7 @@ class ParityCheckerServiceTest {
         parityCheckerService.checkParityForRefundsOnly(0L, null, doNotReprocessValidRecords, "DATA_MISMATCH", 1L);
 
         verify(refundDao, times(2)).findByParityCheckStatus(eq(DATA_MISMATCH), anyInt(), any());
-        verify(refundService, times(1)).updateRefundParityStatus(refundEntity.getExternalId(), MISSING_IN_LEDGER);
+        verify(refundService, times(1)).updateRefundParityStatuses(List.of(refundEntity.getExternalId()), MISSING_IN_LEDGER);
         verify(ledgerService, times(1)).getTransaction(any());
         verify(stateTransitionService, times(1)).offerStateTransition(any(), any(), notNull());
     }
@@ -310,14 +317,14 @@ class ParityCheckerServiceTest {
 
         parityCheckerService.checkParityForRefundsOnly(0L, null, true, "EXISTS_IN_LEDGER", 1L);
 
-        verify(refundService, never()).updateRefundParityStatus(any(), any());
+        verify(refundService, never()).updateRefundParityStatuses(any(), any());
         verify(stateTransitionService, never()).offerStateTransition(any(), any(), notNull());
     }
 
     @Test
     void parityCheckRefundsByIdRange_shouldEmitEventsAndSetParityCheckStatus() {
         when(refundDao.findMaxId()).thenReturn(1L);
-        when(refundDao.findById(1L)).thenReturn(Optional.of(refundEntity));
+        when(refundDao.findByIdRange(0L, 1L, 100)).thenReturn(List.of(refundEntity));
 
         when(chargeService.findCharge(refundEntity.getChargeExternalId())).thenReturn(Optional.of(Charge.from(chargeEntity)));
         when(refundDao.getRefundHistoryByRefundExternalId(refundEntity.getExternalId())).thenReturn(refundHistoryList);
@@ -325,7 +332,7 @@ class ParityCheckerServiceTest {
 
         parityCheckerService.checkParityForRefundsOnly(1L, null, true, null, null);
 
-        verify(refundService, times(1)).updateRefundParityStatus(refundEntity.getExternalId(), MISSING_IN_LEDGER);
+        verify(refundService, times(1)).updateRefundParityStatuses(List.of(refundEntity.getExternalId()), MISSING_IN_LEDGER);
         verify(ledgerService, times(1)).getTransaction(any());
         verify(stateTransitionService, times(1)).offerStateTransition(any(), any(), isNull());
     }
@@ -334,11 +341,51 @@ class ParityCheckerServiceTest {
     void parityCheckRefundsByIdRange_shouldSkipPreviouslyMatchedRecordsWhenDoNoReprocessValidRecordsIsSet() {
         refundEntity.setParityCheckStatus(EXISTS_IN_LEDGER);
         when(refundDao.findMaxId()).thenReturn(1L);
-        when(refundDao.findById(1L)).thenReturn(Optional.of(refundEntity));
+        when(refundDao.findByIdRange(0L, 1L, 100)).thenReturn(List.of(refundEntity));
 
         parityCheckerService.checkParityForRefundsOnly(1L, null, true, null, null);
 
-        verify(refundService, never()).updateRefundParityStatus(any(), any());
+        verify(refundService, never()).updateRefundParityStatuses(any(), any());
         verify(stateTransitionService, never()).offerStateTransition(any(), any(), notNull());
     }
+
+    @Test
+    void checkParityPagesThroughChargesAndUpdatesParityStatusesInOneBatchPerStatus() {
+        ChargeEntity firstCharge = aValidChargeEntity().withId(1L).build();
+        ChargeEntity secondCharge = aValidChargeEntity().withId(2L).build();
+        ChargeEntity thirdCharge = aValidChargeEntity().withId(3L).build();
+        when(chargeDao.findByIdRangeWithEvents(0L, 3L, 2)).thenReturn(List.of(firstCharge, secondCharge));
+        when(chargeDao.findByIdRangeWithEvents(2L, 3L, 2)).thenReturn(List.of(thirdCharge));
+        when(ledgerService.getTransaction(any())).thenReturn(Optional.empty());
+
+        aParityCheckerService(new ParityCheckerConfig(2, 2))
+                .checkParity(1L, Optional.of(3L), doNotReprocessValidRecords, emptyParityCheckStatus, 1L);
+
+        verify(unitOfWork, times(2)).begin();
+        verify(unitOfWork, times(2)).end();
+        verify(chargeService).updateChargeParityStatuses(List.of(1L, 2L), MISSING_IN_LEDGER);
+        verify(chargeService).updateChargeParityStatuses(List.of(3L), MISSING_IN_LEDGER);
+        verify(ledgerService, times(3)).getTransaction(any());
+    }
+
+    @Test
+    void checkParityLeavesChargesWhoseLedgerTransactionCouldNotBeFetchedUnchanged() {
+        ChargeEntity unreachableCharge = aValidChargeEntity().withId(2L).build();
+        when(chargeDao.findByIdRangeWithEvents(0L, 2L, 100)).thenReturn(List.of(chargeEntity, unreachableCharge));
+        when(ledgerService.getTransaction(chargeEntity.getExternalId())).thenReturn(Optional.empty());
+        when(ledgerService.getTransaction(unreachableCharge.getExternalId()))
+                .thenThrow(new LedgerException(new ProcessingException("Read timed out")));
+
+        parityCheckerService.checkParity(1L, Optional.of(2L), doNotReprocessValidRecords, emptyParityCheckStatus, 1L);
+
+        verify(chargeService).updateChargeParityStatuses(List.of(chargeEntity.getId()), MISSING_IN_LEDGER);
+        verify(chargeService, times(1)).updateChargeParityStatuses(any(), any());
+        verify(stateTransitionService, times(1)).offerStateTransition(any(), any(), notNull());
+    }
+
+    private ParityCheckerService aParityCheckerService(ParityCheckerConfig parityCheckerConfig) {
+        when(connectorConfiguration.getParityCheckerConfig()).thenReturn(parityCheckerConfig);
+        return new ParityCheckerService(chargeDao, chargeService, emittedEventDao, stateTransitionService, eventService,
+                refundService, refundDao, parityCheckService, unitOfWork, connectorConfiguration);
+    }
 }
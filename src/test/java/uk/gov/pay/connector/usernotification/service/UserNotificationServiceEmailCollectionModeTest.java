@@ -69,6 +69,8 @@ class UserNotificationServiceEmailCollectionModeTest {
         when(notifyConfiguration.getEmailTemplateId()).thenReturn("some-template");
         when(notifyConfiguration.getRefundIssuedEmailTemplateId()).thenReturn("another-template");
         when(notifyConfiguration.isEmailNotifyEnabled()).thenReturn(true);
+        when(notifyConfiguration.getEmailDispatchQueueCapacity()).thenReturn(100);
+        when(notifyConfiguration.getEmailsPerSecondPerService()).thenReturn(10000);
 
         when(connectorConfig.getExecutorServiceConfig()).thenReturn(mockExecutorConfiguration);
         when(mockExecutorConfiguration.getThreadsPerCpu()).thenReturn(2);
@@ -18,6 +18,7 @@ import uk.gov.pay.connector.charge.model.ServicePaymentReference;
 import uk.gov.pay.connector.charge.model.domain.Charge;
 import uk.gov.pay.connector.charge.model.domain.ChargeEntity;
 import uk.gov.pay.connector.charge.model.domain.ChargeEntityFixture;
+import uk.gov.pay.connector.common.exception.TooManyEmailsRuntimeException;
 import uk.gov.pay.connector.gatewayaccount.model.GatewayAccountEntity;
 import uk.gov.pay.connector.model.domain.RefundEntityFixture;
 import uk.gov.pay.connector.queue.tasks.TaskQueueService;
@@ -33,10 +34,13 @@ import java.time.Instant;
 import java.time.InstantSource;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 
@@ -44,6 +48,7 @@ import static java.util.UUID.randomUUID;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.fail;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyMap;
@@ -51,7 +56,9 @@ import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.anyLong;
 import static org.mockito.Mockito.anyString;
 import static org.mockito.Mockito.eq;
+import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
@@ -110,6 +117,10 @@ public class UserNotificationServiceTest {
         when(mockNotifyConfiguration.getEmailTemplateId()).thenReturn("some-template");
         when(mockNotifyConfiguration.getRefundIssuedEmailTemplateId()).thenReturn("another-template");
         when(mockNotifyConfiguration.isEmailNotifyEnabled()).thenReturn(true);
+        when(mockNotifyConfiguration.getEmailDispatchQueueCapacity()).thenReturn(100);
+        when(mockNotifyConfiguration.getEmailsPerSecondPerService()).thenReturn(10000);
+        when(mockNotifyConfiguration.getEmailRateLimitWaitInMillis()).thenReturn(1000L);
+        when(mockNotifyConfiguration.getEmailDispatchDrainTimeoutInSeconds()).thenReturn(10L);
 
         when(mockConfig.getExecutorServiceConfig()).thenReturn(mockExecutorConfiguration);
         when(mockExecutorConfiguration.getThreadsPerCpu()).thenReturn(2);
@@ -760,4 +771,116 @@ public class UserNotificationServiceTest {
         verify(mockNotifyClientFactory).getInstance();
         verify(mockNotifyClient).sendEmail(eq("another-template"), anyString(), anyMap(), any(), isNull());
     }
+
+    @Test
+    void shouldAddEmailToTaskQueueInsteadOfWaitingWhenDispatchQueueIsFull() throws Exception {
+        when(mockNotifyConfiguration.getEmailDispatchQueueCapacity()).thenReturn(1);
+        when(mockNotifyConfiguration.getRetryFailedEmailAfterSeconds()).thenReturn(3600L);
+        when(mockNotifyClientFactory.getInstance()).thenReturn(mockNotifyClient);
+        when(mockNotificationCreatedResponse.getNotificationId()).thenReturn(notificationId);
+        when(mockMetricRegistry.histogram(anyString())).thenReturn(mockHistogram);
+
+        CountDownLatch notifyResponds = new CountDownLatch(1);
+        when(mockNotifyClient.sendEmail(any(), any(), any(), any(), any())).thenAnswer(invocation -> {
+            notifyResponds.await();
+            return mockNotificationCreatedResponse;
+        });
+
+        userNotificationService = new UserNotificationService(mockNotifyClientFactory, mockConfig, mockEnvironment, mockTaskQueueService, instantSource);
+
+        List<Future<Optional<String>>> sentEmails = new ArrayList<>();
+        int numberOfThreads = 2 * Runtime.getRuntime().availableProcessors();
+        for (int i = 0; i < numberOfThreads + 1; i++) {
+            sentEmails.add(userNotificationService.sendPaymentConfirmedEmail(chargeEntity, gatewayAccountEntity));
+        }
+        Future<Optional<String>> overflowedEmail = userNotificationService.sendPaymentConfirmedEmail(chargeEntity, gatewayAccountEntity);
+
+        assertThat(overflowedEmail.get(1, TimeUnit.SECONDS), is(Optional.empty()));
+        verify(mockTaskQueueService).addRetryFailedPaymentOrRefundEmailTask(
+                of(chargeEntity.getExternalId(), PAYMENT_CONFIRMED, instantSource.instant().minusSeconds(3600)));
+
+        notifyResponds.countDown();
+        for (Future<Optional<String>> sentEmail : sentEmails) {
+            assertThat(sentEmail.get(10, TimeUnit.SECONDS), is(Optional.of(notificationId.toString())));
+        }
+        userNotificationService.stop();
+    }
+
+    @Test
+    void shouldAddEmailToTaskQueueWhenServiceIsSendingFasterThanItsRateLimit() throws Exception {
+        when(mockNotifyConfiguration.getEmailsPerSecondPerService()).thenReturn(1);
+        when(mockNotifyConfiguration.getEmailRateLimitWaitInMillis()).thenReturn(0L);
+        when(mockNotifyConfiguration.getRetryFailedEmailAfterSeconds()).thenReturn(3600L);
+        when(mockNotifyClientFactory.getInstance()).thenReturn(mockNotifyClient);
+        when(mockNotificationCreatedResponse.getNotificationId()).thenReturn(notificationId);
+        when(mockMetricRegistry.histogram(anyString())).thenReturn(mockHistogram);
+        when(mockNotifyClient.sendEmail(any(), any(), any(), any(), any())).thenReturn(mockNotificationCreatedResponse);
+
+        userNotificationService = new UserNotificationService(mockNotifyClientFactory, mockConfig, mockEnvironment, mockTaskQueueService, instantSource);
+
+        Optional<String> firstNotificationId = userNotificationService.sendPaymentConfirmedEmail(chargeEntity, gatewayAccountEntity)
+                .get(1, TimeUnit.SECONDS);
+        Optional<String> secondNotificationId = userNotificationService.sendPaymentConfirmedEmail(chargeEntity, gatewayAccountEntity)
+                .get(1, TimeUnit.SECONDS);
+
+        assertThat(firstNotificationId, is(Optional.of(notificationId.toString())));
+        assertThat(secondNotificationId, is(Optional.empty()));
+        verify(mockNotifyClient, times(1)).sendEmail(any(), any(), any(), any(), any());
+        verify(mockTaskQueueService).addRetryFailedPaymentOrRefundEmailTask(
+                of(chargeEntity.getExternalId(), PAYMENT_CONFIRMED, instantSource.instant().minusSeconds(3600)));
+    }
+
+    @Test
+    void shouldRejectSynchronousEmailWithoutAddingItToTaskQueueWhenServiceIsSendingFasterThanItsRateLimit() throws Exception {
+        when(mockNotifyConfiguration.getEmailsPerSecondPerService()).thenReturn(1);
+        when(mockNotifyConfiguration.getEmailRateLimitWaitInMillis()).thenReturn(0L);
+        when(mockNotifyClientFactory.getInstance()).thenReturn(mockNotifyClient);
+        when(mockNotificationCreatedResponse.getNotificationId()).thenReturn(notificationId);
+        when(mockMetricRegistry.histogram(anyString())).thenReturn(mockHistogram);
+        when(mockNotifyClient.sendEmail(any(), any(), any(), any(), any())).thenReturn(mockNotificationCreatedResponse);
+
+        userNotificationService = new UserNotificationService(mockNotifyClientFactory, mockConfig, mockEnvironment, mockTaskQueueService, instantSource);
+
+        Optional<String> firstNotificationId = userNotificationService.sendPaymentConfirmedEmailSynchronously(charge, gatewayAccountEntity, true);
+        var thrown = assertThrows(TooManyEmailsRuntimeException.class,
+                () -> userNotificationService.sendPaymentConfirmedEmailSynchronously(charge, gatewayAccountEntity, true));
+
+        assertThat(firstNotificationId, is(Optional.of(notificationId.toString())));
+        assertThat(thrown.getResponse().getStatus(), is(503));
+        assertThat(thrown.getResponse().getHeaderString("Retry-After"), is("1"));
+        verify(mockNotifyClient, times(1)).sendEmail(any(), any(), any(), any(), any());
+        verifyNoInteractions(mockTaskQueueService);
+    }
+
+    @Test
+    void shouldAddEmailsNotSentBeforeShutdownToTaskQueue() throws Exception {
+        when(mockNotifyConfiguration.getEmailDispatchDrainTimeoutInSeconds()).thenReturn(0L);
+        when(mockNotifyConfiguration.getRetryFailedEmailAfterSeconds()).thenReturn(3600L);
+        when(mockNotifyClientFactory.getInstance()).thenReturn(mockNotifyClient);
+        // the blocked sends only reach the response time histogram if they unwind before the test ends
+        lenient().when(mockMetricRegistry.histogram(anyString())).thenReturn(mockHistogram);
+
+        int numberOfThreads = 2 * Runtime.getRuntime().availableProcessors();
+        CountDownLatch everyThreadSending = new CountDownLatch(numberOfThreads);
+        CountDownLatch notifyResponds = new CountDownLatch(1);
+        when(mockNotifyClient.sendEmail(any(), any(), any(), any(), any())).thenAnswer(invocation -> {
+            everyThreadSending.countDown();
+            notifyResponds.await();
+            return mockNotificationCreatedResponse;
+        });
+
+        userNotificationService = new UserNotificationService(mockNotifyClientFactory, mockConfig, mockEnvironment, mockTaskQueueService, instantSource);
+
+        for (int i = 0; i < numberOfThreads; i++) {
+            userNotificationService.sendPaymentConfirmedEmail(chargeEntity, gatewayAccountEntity);
+        }
+        assertThat(everyThreadSending.await(10, TimeUnit.SECONDS), is(true));
+        Future<Optional<String>> waitingEmail = userNotificationService.sendPaymentConfirmedEmail(chargeEntity, gatewayAccountEntity);
+
+        userNotificationService.stop();
+
+        assertThat(waitingEmail.isCancelled(), is(true));
+        verify(mockTaskQueueService).addRetryFailedPaymentOrRefundEmailTask(
+                of(chargeEntity.getExternalId(), PAYMENT_CONFIRMED, instantSource.instant().minusSeconds(3600)));
+    }
 }
@@ -1008,6 +1008,13 @@ public class DatabaseTestHelper {
     public void truncateEmittedEvents() {
         jdbi.withHandle(h -> h.createUpdate("TRUNCATE TABLE emitted_events").execute());
     }
+
+    public List<Map<String, Object>> readStateTransitionOutbox() {
+        return jdbi.withHandle(h ->
+                h.createQuery("SELECT * FROM state_transition_outbox ORDER BY id")
+                        .mapToMap()
+                        .list());
+    }
     
 
     public void truncateAllData() {
@@ -1021,7 +1028,9 @@ public class DatabaseTestHelper {
                 refunds_history,
                 agreements,
                 payment_instruments,
-                idempotency
+                idempotency,
+                state_transition_outbox,
+                historical_event_emitter_checkpoints
             CASCADE
         """).execute()
         );
@@ -5,9 +5,12 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import uk.gov.pay.connector.app.config.ReverseDnsCacheConfig;
 
+import java.time.InstantSource;
 import java.util.Optional;
 
+import static com.google.common.util.concurrent.MoreExecutors.newDirectExecutorService;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
@@ -23,7 +26,8 @@ class IpDomainMatcherTest {
 
     @BeforeEach
     void setup() {
-        ipDomainMatcher = new IpDomainMatcher(reverseDnsLookup);
+        ipDomainMatcher = new IpDomainMatcher(new ReverseDnsCache(reverseDnsLookup, new ReverseDnsCacheConfig(),
+                InstantSource.system(), newDirectExecutorService()));
     }
     
     @Test
@@ -0,0 +1,196 @@
+package uk.gov.pay.connector.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import uk.gov.pay.connector.app.config.ReverseDnsCacheConfig;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.google.common.util.concurrent.MoreExecutors.newDirectExecutorService;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReverseDnsCacheTest {
+
+    private static final String WORLDPAY_IP_ADDRESS = "195.35.90.1";
+    private static final DnsPointerResourceRecord WORLDPAY_POINTER_RECORD = new DnsPointerResourceRecord(WORLDPAY_IP_ADDRESS);
+    private static final ReverseDnsCacheConfig CONFIG = new ReverseDnsCacheConfig(3600, 60, 300, 200, 2, 100, 10000);
+
+    @Mock
+    private ReverseDnsLookup reverseDnsLookup;
+
+    private final AtomicReference<Instant> now = new AtomicReference<>(Instant.parse("2020-01-01T10:00:00Z"));
+
+    @Test
+    void shouldCacheHostUntilPositiveTtlHasPassed() {
+        when(reverseDnsLookup.lookup(WORLDPAY_POINTER_RECORD))
+                .thenReturn(Optional.of("hello.worldpay.com."))
+                .thenReturn(Optional.of("hello-again.worldpay.com."));
+        ReverseDnsCache cache = new ReverseDnsCache(reverseDnsLookup, new ReverseDnsCacheConfig(3600, 60, 0, 200, 2, 100, 10000),
+                now::get, newDirectExecutorService());
+
+        assertThat(cache.lookup(WORLDPAY_IP_ADDRESS), is(Optional.of("hello.worldpay.com.")));
+        advanceBy(Duration.ofMinutes(59));
+        assertThat(cache.lookup(WORLDPAY_IP_ADDRESS), is(Optional.of("hello.worldpay.com.")));
+        advanceBy(Duration.ofMinutes(1));
+        assertThat(cache.lookup(WORLDPAY_IP_ADDRESS), is(Optional.of("hello-again.worldpay.com.")));
+
+        verify(reverseDnsLookup, times(2)).lookup(WORLDPAY_POINTER_RECORD);
+    }
+
+    @Test
+    void shouldCacheMissingHostUntilNegativeTtlHasPassed() {
+        when(reverseDnsLookup.lookup(WORLDPAY_POINTER_RECORD))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of("hello.worldpay.com."));
+        ReverseDnsCache cache = new ReverseDnsCache(reverseDnsLookup, CONFIG, now::get, newDirectExecutorService());
+
+        assertThat(cache.lookup(WORLDPAY_IP_ADDRESS), is(Optional.empty()));
+        advanceBy(Duration.ofSeconds(59));
+        assertThat(cache.lookup(WORLDPAY_IP_ADDRESS), is(Optional.empty()));
+        advanceBy(Duration.ofSeconds(1));
+        assertThat(cache.lookup(WORLDPAY_IP_ADDRESS), is(Optional.of("hello.worldpay.com.")));
+
+        verify(reverseDnsLookup, times(2)).lookup(WORLDPAY_POINTER_RECORD);
+    }
+
+    @Test
+    void shouldReturnCachedHostAndReplaceItInTheBackgroundWhenDueForRefresh() {
+        when(reverseDnsLookup.lookup(WORLDPAY_POINTER_RECORD))
+                .thenReturn(Optional.of("hello.worldpay.com."))
+                .thenReturn(Optional.of("hello-again.worldpay.com."));
+        ReverseDnsCache cache = new ReverseDnsCache(reverseDnsLookup, CONFIG, now::get, newDirectExecutorService());
+
+        cache.lookup(WORLDPAY_IP_ADDRESS);
+        advanceBy(Duration.ofMinutes(55));
+
+        assertThat(cache.lookup(WORLDPAY_IP_ADDRESS), is(Optional.of("hello.worldpay.com.")));
+        assertThat(cache.lookup(WORLDPAY_IP_ADDRESS), is(Optional.of("hello-again.worldpay.com.")));
+        verify(reverseDnsLookup, times(2)).lookup(WORLDPAY_POINTER_RECORD);
+    }
+
+    @Test
+    void shouldKeepCachedHostWhenBackgroundRefreshFindsNoHost() {
+        when(reverseDnsLookup.lookup(WORLDPAY_POINTER_RECORD))
+                .thenReturn(Optional.of("hello.worldpay.com."))
+                .thenReturn(Optional.empty());
+        ReverseDnsCache cache = new ReverseDnsCache(reverseDnsLookup, CONFIG, now::get, newDirectExecutorService());
+
+        cache.lookup(WORLDPAY_IP_ADDRESS);
+        advanceBy(Duration.ofMinutes(55));
+        cache.lookup(WORLDPAY_IP_ADDRESS);
+
+        assertThat(cache.lookup(WORLDPAY_IP_ADDRESS), is(Optional.of("hello.worldpay.com.")));
+        verify(reverseDnsLookup, times(2)).lookup(WORLDPAY_POINTER_RECORD);
+    }
+
+    @Test
+    void shouldShareOneLookupBetweenConcurrentRequestsForTheSameIp() throws Exception {
+        CountDownLatch lookupStarted = new CountDownLatch(1);
+        CountDownLatch releaseLookup = new CountDownLatch(1);
+        when(reverseDnsLookup.lookup(WORLDPAY_POINTER_RECORD)).thenAnswer(invocation -> {
+            lookupStarted.countDown();
+            releaseLookup.await(5, TimeUnit.SECONDS);
+            return Optional.of("hello.worldpay.com.");
+        });
+        ReverseDnsCache cache = new ReverseDnsCache(reverseDnsLookup, new ReverseDnsCacheConfig(3600, 60, 300, 5000, 2, 100, 10000),
+                now::get, Executors.newFixedThreadPool(2));
+        try {
+            CompletableFuture<Optional<String>> first = CompletableFuture.supplyAsync(() -> cache.lookup(WORLDPAY_IP_ADDRESS));
+            lookupStarted.await(5, TimeUnit.SECONDS);
+            CompletableFuture<Optional<String>> second = CompletableFuture.supplyAsync(() -> cache.lookup(WORLDPAY_IP_ADDRESS));
+            releaseLookup.countDown();
+
+            assertThat(first.get(5, TimeUnit.SECONDS), is(Optional.of("hello.worldpay.com.")));
+            assertThat(second.get(5, TimeUnit.SECONDS), is(Optional.of("hello.worldpay.com.")));
+            verify(reverseDnsLookup, times(1)).lookup(WORLDPAY_POINTER_RECORD);
+        } finally {
+            cache.stop();
+        }
+    }
+
+    @Test
+    void shouldReturnNoHostWhenLookupTakesLongerThanTimeoutAndCacheHostWhenLookupFinishes() throws Exception {
+        CountDownLatch releaseLookup = new CountDownLatch(1);
+        CountDownLatch lookupFinished = new CountDownLatch(1);
+        when(reverseDnsLookup.lookup(WORLDPAY_POINTER_RECORD)).thenAnswer(invocation -> {
+            releaseLookup.await(5, TimeUnit.SECONDS);
+            lookupFinished.countDown();
+            return Optional.of("hello.worldpay.com.");
+        });
+        ReverseDnsCache cache = new ReverseDnsCache(reverseDnsLookup, CONFIG, now::get, Executors.newFixedThreadPool(1));
+        try {
+            assertThat(cache.lookup(WORLDPAY_IP_ADDRESS), is(Optional.empty()));
+
+            releaseLookup.countDown();
+            lookupFinished.await(5, TimeUnit.SECONDS);
+
+            assertThat(cache.lookup(WORLDPAY_IP_ADDRESS), is(Optional.of("hello.worldpay.com.")));
+            verify(reverseDnsLookup, times(1)).lookup(WORLDPAY_POINTER_RECORD);
+        } finally {
+            cache.stop();
+        }
+    }
+
+    @Test
+    void shouldDropLeastRecentlyUsedIpOnceMaximumSizeIsReached() {
+        String otherIpAddress = "195.35.90.2";
+        when(reverseDnsLookup.lookup(WORLDPAY_POINTER_RECORD)).thenReturn(Optional.of("hello.worldpay.com."));
+        when(reverseDnsLookup.lookup(new DnsPointerResourceRecord(otherIpAddress))).thenReturn(Optional.of("bye.worldpay.com."));
+        ReverseDnsCache cache = new ReverseDnsCache(reverseDnsLookup, new ReverseDnsCacheConfig(3600, 60, 300, 200, 2, 100, 1),
+                now::get, newDirectExecutorService());
+
+        cache.lookup(WORLDPAY_IP_ADDRESS);
+        cache.lookup(otherIpAddress);
+
+        assertThat(cache.lookup(WORLDPAY_IP_ADDRESS), is(Optional.of("hello.worldpay.com.")));
+        verify(reverseDnsLookup, times(2)).lookup(WORLDPAY_POINTER_RECORD);
+    }
+
+    @Test
+    void shouldReturnNoHostWithoutCachingItWhenLookupQueueIsFull() throws Exception {
+        String busyIpAddress = "195.35.90.2";
+        String queuedIpAddress = "195.35.90.3";
+        CountDownLatch releaseLookups = new CountDownLatch(1);
+        when(reverseDnsLookup.lookup(any())).thenAnswer(invocation -> {
+            releaseLookups.await(5, TimeUnit.SECONDS);
+            return Optional.of("hello.worldpay.com.");
+        });
+        var lookupExecutor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(1));
+        ReverseDnsCache cache = new ReverseDnsCache(reverseDnsLookup, new ReverseDnsCacheConfig(3600, 60, 300, 200, 1, 1, 10000),
+                now::get, lookupExecutor);
+        try {
+            cache.lookup(busyIpAddress);
+            cache.lookup(queuedIpAddress);
+
+            assertThat(cache.lookup(WORLDPAY_IP_ADDRESS), is(Optional.empty()));
+
+            releaseLookups.countDown();
+            assertThat(cache.lookup(queuedIpAddress), is(Optional.of("hello.worldpay.com.")));
+            assertThat(cache.lookup(WORLDPAY_IP_ADDRESS), is(Optional.of("hello.worldpay.com.")));
+            verify(reverseDnsLookup, times(1)).lookup(WORLDPAY_POINTER_RECORD);
+        } finally {
+            cache.stop();
+        }
+    }
+
+    private void advanceBy(Duration duration) {
+        now.updateAndGet(instant -> instant.plus(duration));
+    }
+}
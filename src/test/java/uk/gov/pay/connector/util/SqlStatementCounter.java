@@ -0,0 +1,63 @@
+package uk.gov.pay.connector.util;
+
+import io.dropwizard.testing.ConfigOverride;
+import org.eclipse.persistence.queries.DatabaseQuery;
+import org.eclipse.persistence.sessions.SessionProfiler;
+import org.eclipse.persistence.sessions.SessionProfilerAdapter;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+import static io.dropwizard.testing.ConfigOverride.config;
+
+/**
+ * An EclipseLink profiler that records the SQL of each statement connector sends to the database from the threads
+ * being counted. Install it with {@link #profilerConfig()} when creating the app, call {@link #countStatementsOn}
+ * before the operation under test and read the statements afterwards.
+ * <p>
+ * Each JDBC batch is recorded as a single statement, since it is sent to the database in one round trip.
+ */
+public class SqlStatementCounter extends SessionProfilerAdapter {
+
+    public static final Predicate<Thread> REQUEST_THREADS = thread -> thread.getName().startsWith("dw-")
+            || thread.getName().startsWith("CardExecutorService-");
+
+    private static final List<String> statements = new CopyOnWriteArrayList<>();
+    private static volatile Predicate<Thread> countedThreads = thread -> false;
+
+    public static ConfigOverride profilerConfig() {
+        return config("jpa.profiler", SqlStatementCounter.class.getName());
+    }
+
+    public static void countStatementsOn(Predicate<Thread> threads) {
+        statements.clear();
+        countedThreads = threads;
+    }
+
+    public static void stopCounting() {
+        countedThreads = thread -> false;
+    }
+
+    public static List<String> statements() {
+        return List.copyOf(statements);
+    }
+
+    public static long statementsMatching(String regex) {
+        Pattern pattern = Pattern.compile(regex, Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+        return statements.stream().filter(sql -> pattern.matcher(sql).matches()).count();
+    }
+
+    @Override
+    public void startOperationProfile(String operationName, DatabaseQuery query, int weight) {
+        if (SessionProfiler.StatementExecute.equals(operationName) && countedThreads.test(Thread.currentThread())) {
+            statements.add(query == null || query.getSQLString() == null ? "BATCH" : query.getSQLString());
+        }
+    }
+
+    @Override
+    public int getProfileWeight() {
+        return SessionProfiler.ALL;
+    }
+}
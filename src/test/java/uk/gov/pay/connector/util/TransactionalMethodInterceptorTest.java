@@ -0,0 +1,133 @@
+package uk.gov.pay.connector.util;
+
+import org.aopalliance.intercept.MethodInvocation;
+import org.eclipse.persistence.sessions.DatabaseRecord;
+import org.eclipse.persistence.sessions.Session;
+import org.eclipse.persistence.sessions.SessionEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.slf4j.MDC;
+import uk.gov.pay.connector.charge.dao.ChargeDao;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static uk.gov.service.payments.logging.LoggingKeys.PAYMENT_EXTERNAL_ID;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionalMethodInterceptorTest {
+
+    private final TransactionalMethodInterceptor interceptor = new TransactionalMethodInterceptor(1000);
+    private final DatabaseConnectionUsageListener listener = new DatabaseConnectionUsageListener();
+    private final Session session = mock(Session.class);
+    private final Object connection = new Object();
+
+    @Mock
+    private ChargeDao chargeDao;
+
+    @AfterEach
+    void tearDown() {
+        MDC.clear();
+    }
+
+    @Test
+    void shouldListCallAsHolderWhileItHoldsAConnection() throws Throwable {
+        MDC.put(PAYMENT_EXTERNAL_ID, "a-payment-external-id");
+        AtomicReference<List<DatabaseConnectionUsage.Holder>> holdersWhileHeld = new AtomicReference<>();
+
+        interceptor.invoke(invocationOf("findByExternalId", () -> {
+            listener.preExecuteQuery(event(null));
+            listener.postAcquireConnection(event(connection));
+            listener.postExecuteCall(event(List.of(new DatabaseRecord(), new DatabaseRecord())));
+            holdersWhileHeld.set(DatabaseConnectionUsage.currentHolders());
+            listener.preReleaseConnection(event(connection));
+            listener.postExecuteQuery(event(null));
+        }));
+
+        assertThat(holdersWhileHeld.get(), hasSize(1));
+        DatabaseConnectionUsage.Holder holder = holdersWhileHeld.get().getFirst();
+        assertThat(holder.method(), is("ChargeDao.findByExternalId"));
+        assertThat(holder.thread(), is(Thread.currentThread().getName()));
+        assertThat(holder.paymentExternalId(), is("a-payment-external-id"));
+        assertThat(holder.statements(), is(1));
+        assertThat(DatabaseConnectionUsage.currentHolders(), is(empty()));
+    }
+
+    @Test
+    void shouldNotListCallAsHolderOnceItHasReleasedItsConnections() throws Throwable {
+        AtomicReference<List<DatabaseConnectionUsage.Holder>> holdersAfterRelease = new AtomicReference<>();
+
+        interceptor.invoke(invocationOf("persist", () -> {
+            listener.postAcquireConnection(event(connection));
+            listener.preReleaseConnection(event(connection));
+            holdersAfterRelease.set(DatabaseConnectionUsage.currentHolders());
+        }));
+
+        assertThat(holdersAfterRelease.get(), is(empty()));
+    }
+
+    @Test
+    void shouldAttributeNestedCallsToOutermostCall() throws Throwable {
+        AtomicReference<List<DatabaseConnectionUsage.Holder>> holdersInNestedCall = new AtomicReference<>();
+
+        interceptor.invoke(invocationOf("findByIds", () -> {
+            listener.postAcquireConnection(event(connection));
+            interceptor.invoke(invocationOf("merge", () -> holdersInNestedCall.set(DatabaseConnectionUsage.currentHolders())));
+            listener.preReleaseConnection(event(connection));
+        }));
+
+        assertThat(holdersInNestedCall.get().stream().map(DatabaseConnectionUsage.Holder::method).toList(),
+                contains("ChargeDao.findByIds"));
+    }
+
+    @Test
+    void shouldIgnoreConnectionsUsedOutsideTransactionalMethods() {
+        listener.postAcquireConnection(event(connection));
+
+        assertThat(DatabaseConnectionUsage.currentHolders(), is(empty()));
+    }
+
+    @Test
+    void shouldCountRowsReturnedBySelectsOnly() {
+        assertThat(DatabaseConnectionUsageListener.rowsReturnedBy(List.of(new DatabaseRecord(), new DatabaseRecord())), is(2));
+        assertThat(DatabaseConnectionUsageListener.rowsReturnedBy(new DatabaseRecord()), is(1));
+        assertThat(DatabaseConnectionUsageListener.rowsReturnedBy(3), is(0));
+        assertThat(DatabaseConnectionUsageListener.rowsReturnedBy(null), is(0));
+    }
+
+    private SessionEvent event(Object result) {
+        SessionEvent event = new SessionEvent(0, session);
+        event.setResult(result);
+        return event;
+    }
+
+    private MethodInvocation invocationOf(String methodName, DatabaseWork work) throws Throwable {
+        MethodInvocation invocation = mock(MethodInvocation.class);
+        when(invocation.getThis()).thenReturn(chargeDao);
+        when(invocation.getMethod()).thenReturn(Arrays.stream(ChargeDao.class.getMethods())
+                .filter(method -> method.getName().equals(methodName))
+                .findFirst()
+                .orElseThrow());
+        when(invocation.proceed()).thenAnswer(ignored -> {
+            work.run();
+            return null;
+        });
+        return invocation;
+    }
+
+    @FunctionalInterface
+    private interface DatabaseWork {
+        void run() throws Throwable;
+    }
+}
@@ -12,6 +12,11 @@ import uk.gov.pay.connector.gateway.worldpay.WorldpayOrderStatusResponse;
 import uk.gov.pay.connector.gateway.worldpay.WorldpayRefundResponse;
 
 import java.time.LocalDate;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.core.Is.is;
@@ -229,4 +234,20 @@ class WorldpayXMLUnmarshallerTest {
         assertThat(response.getErrorCode(), is(nullValue()));
         assertThat(response.getErrorMessage(), is(nullValue()));
     }
+
+    @Test
+    void shouldUnmarshallResponsesConcurrentlyUsingPooledUnmarshallers() throws Exception {
+        String successPayload = TestTemplateResourceLoader.load(WORLDPAY_CAPTURE_SUCCESS_RESPONSE);
+        ExecutorService executorService = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<WorldpayCaptureResponse>> futures = executorService.invokeAll(Collections.nCopies(200,
+                    () -> XMLUnmarshaller.unmarshall(successPayload, WorldpayCaptureResponse.class)));
+            for (Future<WorldpayCaptureResponse> future : futures) {
+                assertThat(future.get().getTransactionId(), is("transaction-id"));
+                assertThat(future.get().getErrorCode(), is(nullValue()));
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
 }
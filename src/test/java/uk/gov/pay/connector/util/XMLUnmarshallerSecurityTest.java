@@ -79,4 +79,33 @@ class XMLUnmarshallerSecurityTest {
 
         assertThrows(XMLUnmarshallerException.class, () -> XMLUnmarshaller.unmarshall(xmlData, XMLUnmarshallingAttackTest.class));
     }
+
+    @Test
+    void preventXEE_aBillionLaughsAttack_shouldStillFailUnmarshallingAfterPooledParserHasBeenReused() throws Exception {
+
+        XMLUnmarshallingAttackTest unmarshall = XMLUnmarshaller.unmarshall("<foo>hola</foo>", XMLUnmarshallingAttackTest.class);
+        assertThat(unmarshall.getValue(), is("hola"));
+
+        String xmlData = "<!DOCTYPE foo [" +
+                "<!ENTITY a \"1234567890\" >" +
+                "<!ENTITY b \"&a;&a;&a;&a;&a;&a;&a;&a;&a;&a;\" >" +
+                "<!ENTITY mrdanger \"&b;&b;&b;&b;&b;&b;&b;&b;&b;&b;\" >" +
+                "]> " +
+                "<foo>&mrdanger;</foo>";
+
+        var exception = assertThrows(XMLUnmarshallerException.class, () -> XMLUnmarshaller.unmarshall(xmlData, XMLUnmarshallingAttackTest.class));
+
+        assertThat(exception.getCause().toString(),
+                containsString("JAXP00010001: The parser has encountered more than \"1\" entity expansions in this document;"));
+    }
+
+    @Test
+    void shouldUnmarshallSuccessfully_afterAPreviousPayloadFailedToParse() throws Exception {
+
+        assertThrows(XMLUnmarshallerException.class, () -> XMLUnmarshaller.unmarshall("<foo>asd<</foo>", XMLUnmarshallingAttackTest.class));
+
+        XMLUnmarshallingAttackTest unmarshall = XMLUnmarshaller.unmarshall("<foo>hola</foo>", XMLUnmarshallingAttackTest.class);
+
+        assertThat(unmarshall.getValue(), is("hola"));
+    }
 }